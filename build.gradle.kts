@@ -112,5 +112,7 @@ compose.desktop {
 sqldelight {
     database("CommutoInterfaceDB") {
         packageName = "com.commuto.interfacedesktop.database"
+        // For INSERT ... ON CONFLICT ... DO UPDATE
+        dialect = "sqlite:3.24"
     }
 }
\ No newline at end of file
@@ -20,6 +20,10 @@ import com.commuto.interfacedesktop.ui.settlement.SettlementMethodViewModel
 import com.commuto.interfacedesktop.ui.settlement.SettlementMethodsComposable
 import com.commuto.interfacedesktop.ui.swap.SwapViewModel
 import com.commuto.interfacedesktop.ui.swap.SwapsComposable
+import kotlinx.coroutines.DelicateCoroutinesApi
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.GlobalScope
+import kotlinx.coroutines.launch
 import javax.inject.Inject
 import javax.inject.Singleton
 
@@ -27,6 +31,7 @@ import javax.inject.Singleton
  * The main Commuto Interface application.
  *
  * @property blockchainService The app's [BlockchainService].
+ * @property truthSourceHydrator The [TruthSourceHydrator] that restores the app's truth sources at startup.
  * @property offersViewModel The app's [OffersViewModel].
  */
 @Singleton
@@ -34,6 +39,7 @@ class CommutoApplication @Inject constructor(
     val databaseService: DatabaseService,
     val blockchainService: BlockchainService,
     val p2pService: P2PService,
+    val truthSourceHydrator: TruthSourceHydrator,
     val offersViewModel: OffersViewModel,
     val swapViewModel: SwapViewModel,
     val settlementMethodViewModel: SettlementMethodViewModel
@@ -41,13 +47,22 @@ class CommutoApplication @Inject constructor(
     /**
      * Called at app startup. This begins background activities and displays the user interface.
      */
+    @OptIn(DelicateCoroutinesApi::class)
     fun start() {
-        // TODO: ONLY do this when using an in memory database, NOT when using a production database!
-        databaseService.createTables()
-        // Start listening to the blockchain
-        blockchainService.listen()
-        // Start listening to the peer-to-peer network
-        p2pService.listen()
+        // Create tables in a new database, or open and migrate an existing one
+        databaseService.prepareDatabase()
+        /*
+        Restore the truth sources from persistent storage in the background so that the user interface is displayed
+        immediately. We only start listening once this is done, so that event and message handlers find the offers and
+        swaps to which they refer.
+         */
+        GlobalScope.launch(Dispatchers.IO) {
+            truthSourceHydrator.hydrate()
+            // Start listening to the blockchain
+            blockchainService.listen()
+            // Start listening to the peer-to-peer network
+            p2pService.listen()
+        }
         application {
 
             val currentTab = remember { mutableStateOf(CurrentTab.OFFERS) }
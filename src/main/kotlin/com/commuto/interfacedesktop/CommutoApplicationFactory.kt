@@ -8,6 +8,7 @@ import com.commuto.interfacedesktop.p2p.OfferMessageNotifiableModule
 import com.commuto.interfacedesktop.p2p.P2PExceptionNotifiableModule
 import com.commuto.interfacedesktop.p2p.SwapMessageNotifiableModule
 import com.commuto.interfacedesktop.swap.SwapNotifiableModule
+import com.commuto.interfacedesktop.ui.StablecoinInformationRepositoryModule
 import dagger.Component
 import javax.inject.Singleton
 
@@ -25,7 +26,8 @@ import javax.inject.Singleton
     DisputeNotifiableModule::class,
     DisputeMessageNotifiableModule::class,
     BlockchainExceptionNotifiableModule::class,
-    P2PExceptionNotifiableModule::class
+    P2PExceptionNotifiableModule::class,
+    StablecoinInformationRepositoryModule::class
 ])
 interface CommutoApplicationFactory {
     /**
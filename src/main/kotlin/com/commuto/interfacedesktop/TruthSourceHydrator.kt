@@ -0,0 +1,120 @@
+package com.commuto.interfacedesktop
+
+import com.commuto.interfacedesktop.database.DatabaseService
+import com.commuto.interfacedesktop.dispute.DisputeService
+import com.commuto.interfacedesktop.offer.OfferService
+import com.commuto.interfacedesktop.settlement.SettlementMethodService
+import com.commuto.interfacedesktop.swap.SwapService
+import com.commuto.interfacedesktop.ui.StablecoinMetadataRegistry
+import kotlinx.coroutines.*
+import org.slf4j.LoggerFactory
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Restores all truth sources from persistent storage when the app starts, and periodically archives inactive offers,
+ * swaps and disputes in the background.
+ *
+ * @property databaseService The [DatabaseService] that this uses to archive inactive offers, swaps and disputes.
+ * @property offerService The [OfferService] that this uses to restore offers, and then the offers of which the
+ * on-chain data had not yet been retrieved.
+ * @property swapService The [SwapService] that this uses to restore swaps.
+ * @property disputeService The [DisputeService] that this uses to restore disputes.
+ * @property settlementMethodService The [SettlementMethodService] that this uses to restore the user's settlement
+ * methods.
+ * @property stablecoinMetadataRegistry The [StablecoinMetadataRegistry] that this uses to restore stored stablecoin
+ * information.
+ * @property logger The [org.slf4j.Logger] that this class uses for logging.
+ * @property archivalScope The [CoroutineScope] in which [archivalJob] runs, so that archival never delays hydration.
+ * @property archivalJob The [Job] that archives inactive offers, swaps and disputes every
+ * [ARCHIVAL_INTERVAL_MILLISECONDS], or `null` if it has not been started.
+ */
+@Singleton
+class TruthSourceHydrator @Inject constructor(
+    private val databaseService: DatabaseService,
+    private val offerService: OfferService,
+    private val swapService: SwapService,
+    private val disputeService: DisputeService,
+    private val settlementMethodService: SettlementMethodService,
+    private val stablecoinMetadataRegistry: StablecoinMetadataRegistry,
+) {
+
+    private val logger = LoggerFactory.getLogger(javaClass)
+
+    private val archivalScope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
+
+    private var archivalJob: Job? = null
+
+    /**
+     * Starts [archivalJob] if it is not already running, and then concurrently restores offers, swaps, disputes, the
+     * user's settlement methods and stablecoin information from persistent storage, and returns once all of them have
+     * been restored. Hydration does not wait for archival, so inactive data that has not yet been archived may be
+     * restored. A failure to restore one kind of data is logged and does not prevent the others from being restored.
+     */
+    suspend fun hydrate() {
+        startPeriodicArchival()
+        logger.info("hydrate: hydrating truth sources")
+        coroutineScope {
+            launchHydration("offers") {
+                offerService.hydrateOffers()
+                offerService.hydratePendingOffers()
+            }
+            launchHydration("swaps") { swapService.hydrateSwaps() }
+            launchHydration("swap and disputes") { disputeService.hydrateSwapAndDisputes() }
+            launchHydration("settlement methods") { settlementMethodService.hydrateSettlementMethods() }
+            launchHydration("stablecoin information") { stablecoinMetadataRegistry.hydrate() }
+        }
+        logger.info("hydrate: hydrated truth sources")
+    }
+
+    /**
+     * Launches [archivalJob] in [archivalScope] if it is not already running. [archivalJob] archives inactive offers,
+     * swaps and disputes via [DatabaseService.archiveInactiveEntities] and then waits
+     * [ARCHIVAL_INTERVAL_MILLISECONDS] before doing so again, so that offers, swaps and disputes that become inactive
+     * while the app is running are archived as well. A failure to archive is logged and retried after the same
+     * interval.
+     */
+    @Synchronized
+    private fun startPeriodicArchival() {
+        if (archivalJob?.isActive == true) {
+            return
+        }
+        archivalJob = archivalScope.launch {
+            while (isActive) {
+                try {
+                    databaseService.archiveInactiveEntities()
+                } catch (exception: CancellationException) {
+                    throw exception
+                } catch (exception: Exception) {
+                    logger.error("startPeriodicArchival: unable to archive inactive entities", exception)
+                }
+                delay(ARCHIVAL_INTERVAL_MILLISECONDS)
+            }
+        }
+    }
+
+    /**
+     * Launches a new coroutine that runs [hydration], logging any exception it throws instead of cancelling the
+     * other hydrations.
+     *
+     * @param name A description of the data restored by [hydration], used for logging.
+     * @param hydration The lambda that restores data from persistent storage.
+     */
+    private fun CoroutineScope.launchHydration(name: String, hydration: suspend () -> Unit) {
+        launch {
+            try {
+                hydration()
+            } catch (exception: Exception) {
+                logger.error("hydrate: unable to hydrate $name", exception)
+            }
+        }
+    }
+
+    companion object {
+        /**
+         * The number of milliseconds between runs of [archivalJob].
+         */
+        const val ARCHIVAL_INTERVAL_MILLISECONDS = 10L * 60L * 1_000L
+    }
+
+}
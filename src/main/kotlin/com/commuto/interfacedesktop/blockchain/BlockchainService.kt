@@ -15,15 +15,22 @@ import com.commuto.interfacedesktop.offer.OfferNotifiable
 import com.commuto.interfacedesktop.offer.OfferService
 import com.commuto.interfacedesktop.oldcontractwrapper.CommutoFunctionEncoder
 import com.commuto.interfacedesktop.swap.SwapNotifiable
+import com.commuto.interfacedesktop.ui.StablecoinInformation
 import kotlinx.coroutines.*
 import kotlinx.coroutines.future.asDeferred
 import kotlinx.coroutines.future.await
 import org.slf4j.LoggerFactory
+import org.web3j.abi.FunctionEncoder
+import org.web3j.abi.FunctionReturnDecoder
+import org.web3j.abi.TypeReference
+import org.web3j.abi.datatypes.Utf8String
+import org.web3j.abi.datatypes.generated.Uint8
 import org.web3j.contracts.eip20.generated.ERC20
 import org.web3j.crypto.Credentials
 import org.web3j.crypto.RawTransaction
 import org.web3j.protocol.Web3j
 import org.web3j.protocol.core.DefaultBlockParameter
+import org.web3j.protocol.core.DefaultBlockParameterName
 import org.web3j.protocol.core.methods.request.Transaction
 import org.web3j.protocol.core.methods.response.*
 import org.web3j.protocol.http.HttpService
@@ -73,6 +80,11 @@ import kotlin.math.floor
  * @property commutoSwap A [CommutoSwap] instance that [BlockchainService] uses to parse transaction
  * receipts for CommutoSwap events and interact with the [CommutoSwap contract](https://github.com/jimmyneutront/commuto-protocol/blob/main/CommutoSwap.sol)
  * on chain.
+ * @property tokenAllowanceTracker A [TokenAllowanceTracker] of the allowances that the user has given to [commutoSwap],
+ * which is updated with every successful transaction receipt that this parses, and which stops expecting approval
+ * transactions that fail.
+ * @property erc20MetadataFunctions The `symbol`, `name` and `decimals` functions of an ERC20 token contract, in that
+ * order, which [getStablecoinInformation] calls to get information about stablecoins.
  */
 @Singleton
 class BlockchainService (private val exceptionHandler: BlockchainExceptionNotifiable,
@@ -174,6 +186,237 @@ class BlockchainService (private val exceptionHandler: BlockchainExceptionNotifi
         return commutoSwap.contractAddress
     }
 
+    private val tokenAllowanceTracker = TokenAllowanceTracker { tokenAddress, owner, spender ->
+        ERC20.load(tokenAddress, web3, txManager, gasProvider).allowance(owner, spender).sendAsync().await()
+    }
+
+    /**
+     * Reserves [amount] of the allowance that the user has given to [commutoSwap] for [tokenAddress] tokens for the
+     * action described by [purpose] and [id], via [tokenAllowanceTracker], if enough unreserved allowance exists. The
+     * reservation is freed once the transfer that spends it is parsed, or when [releaseTokenAllowance] is called.
+     *
+     * @param tokenAddress The address of the token contract.
+     * @param amount The amount of tokens that [commutoSwap] will transfer from the user.
+     * @param purpose The [TokenTransferApprovalPurpose] describing the action for which [amount] will be transferred.
+     * @param id The ID of the offer or swap on which the action will be performed.
+     *
+     * @return `true` if [amount] was reserved, in which case no token transfer approval is needed, or `false`
+     * otherwise, in which case the amount given by [getTokenApprovalAmount] must be approved.
+     */
+    suspend fun reserveTokenAllowance(
+        tokenAddress: String,
+        amount: BigInteger,
+        purpose: TokenTransferApprovalPurpose,
+        id: UUID,
+    ): Boolean {
+        return tokenAllowanceTracker.reserve(
+            tokenAddress = tokenAddress,
+            owner = creds.address,
+            spender = commutoSwap.contractAddress,
+            amount = amount,
+            purpose = purpose,
+            id = id,
+        )
+    }
+
+    /**
+     * Gets the amount of [tokenAddress] tokens that the user must approve for [commutoSwap] to transfer [amount] tokens
+     * without taking away allowance reserved for other actions, via [tokenAllowanceTracker].
+     *
+     * @param tokenAddress The address of the token contract.
+     * @param amount The amount of tokens that [commutoSwap] will transfer from the user for the action requiring
+     * approval.
+     *
+     * @return The amount that must be approved.
+     */
+    fun getTokenApprovalAmount(tokenAddress: String, amount: BigInteger): BigInteger {
+        return tokenAllowanceTracker.getApprovalAmount(
+            tokenAddress = tokenAddress,
+            owner = creds.address,
+            spender = commutoSwap.contractAddress,
+            amount = amount,
+        )
+    }
+
+    /**
+     * Registers the approval transaction with hash [transactionHash] with [tokenAllowanceTracker], so that [amount] is
+     * reserved for the action described by [purpose] and [id] once the transaction is confirmed. This must be called
+     * before the transaction is sent with [sendTransaction].
+     *
+     * @param transactionHash The hash of the approval transaction.
+     * @param tokenAddress The address of the token contract.
+     * @param amount The amount of tokens that [commutoSwap] will transfer from the user for the action.
+     * @param purpose The [TokenTransferApprovalPurpose] describing the action.
+     * @param id The ID of the offer or swap on which the action will be performed.
+     */
+    fun expectTokenApproval(
+        transactionHash: String,
+        tokenAddress: String,
+        amount: BigInteger,
+        purpose: TokenTransferApprovalPurpose,
+        id: UUID,
+    ) {
+        tokenAllowanceTracker.expectApproval(
+            transactionHash = transactionHash,
+            tokenAddress = tokenAddress,
+            owner = creds.address,
+            spender = commutoSwap.contractAddress,
+            amount = amount,
+            purpose = purpose,
+            id = id,
+        )
+    }
+
+    /**
+     * Frees the allowance that was reserved with [reserveTokenAllowance] or upon the confirmation of an approval
+     * registered with [expectTokenApproval] for the action described by [purpose] and [id], because the action will
+     * not happen.
+     *
+     * @param purpose The [TokenTransferApprovalPurpose] describing the action.
+     * @param id The ID of the offer or swap on which the action would have been performed.
+     */
+    fun releaseTokenAllowance(purpose: TokenTransferApprovalPurpose, id: UUID) {
+        tokenAllowanceTracker.release(purpose = purpose, id = id)
+    }
+
+    /**
+     * Forgets the allowance reservation of the action described by [purpose] and [id] without freeing it, because the
+     * action has happened and the transfer that it made frees the reserved allowance.
+     *
+     * @param purpose The [TokenTransferApprovalPurpose] describing the action.
+     * @param id The ID of the offer or swap on which the action was performed.
+     */
+    fun settleTokenAllowance(purpose: TokenTransferApprovalPurpose, id: UUID) {
+        tokenAllowanceTracker.settle(purpose = purpose, id = id)
+    }
+
+    /**
+     * Approves a transfer of [amount] [tokenAddress] tokens to [commutoSwap] for the action described by [purpose] and
+     * [id] with an [ERC20](https://eips.ethereum.org/EIPS/eip-20) `approve` call, and awaits its receipt. The approved
+     * amount is given by [getTokenApprovalAmount], so that the allowance reserved for other actions is not taken away,
+     * and [amount] is reserved for the action once the approval is confirmed.
+     *
+     * @param tokenAddress The address of the token contract.
+     * @param amount The amount of tokens that [commutoSwap] will transfer from the user for the action.
+     * @param purpose The [TokenTransferApprovalPurpose] describing the action.
+     * @param id The ID of the offer or swap on which the action will be performed.
+     *
+     * @return The [TransactionReceipt] of the approval.
+     */
+    suspend fun approveAndReserveTokenAllowance(
+        tokenAddress: String,
+        amount: BigInteger,
+        purpose: TokenTransferApprovalPurpose,
+        id: UUID,
+    ): TransactionReceipt {
+        val approvalAmount = getTokenApprovalAmount(tokenAddress = tokenAddress, amount = amount)
+        /*
+        The hash of the approval is not known until it is sent, so the approval is expected under a placeholder until
+        then, which stops other actions from reserving allowance that the approval would replace
+         */
+        val placeholderHash = "pending-${UUID.randomUUID()}"
+        expectTokenApproval(placeholderHash, tokenAddress, amount, purpose, id)
+        val receipt = try {
+            approveTokenTransferAsync(
+                tokenAddress = tokenAddress,
+                destinationAddress = commutoSwap.contractAddress,
+                amount = approvalAmount,
+            ).await()
+        } catch (exception: Exception) {
+            tokenAllowanceTracker.forgetApproval(placeholderHash)
+            throw exception
+        }
+        if (receipt.isStatusOK) {
+            expectTokenApproval(receipt.transactionHash, tokenAddress, amount, purpose, id)
+        }
+        tokenAllowanceTracker.forgetApproval(placeholderHash)
+        if (receipt.isStatusOK) {
+            // The block containing the approval may already have been parsed, but handling an approval is idempotent
+            tokenAllowanceTracker.handleReceipt(receipt)
+        }
+        return receipt
+    }
+
+    private val erc20MetadataFunctions = listOf(
+        org.web3j.abi.datatypes.Function("symbol", listOf(), listOf(object : TypeReference<Utf8String>() {})),
+        org.web3j.abi.datatypes.Function("name", listOf(), listOf(object : TypeReference<Utf8String>() {})),
+        org.web3j.abi.datatypes.Function("decimals", listOf(), listOf(object : TypeReference<Uint8>() {})),
+    )
+
+    /**
+     * Gets the currency code, name and decimals of each of the ERC20 token contracts at [contractAddresses], by calling
+     * their `symbol`, `name` and `decimals` functions. All of these calls are sent to the node in a single
+     * [JSON-RPC batch request](https://www.jsonrpc.org/specification#batch), rather than in one request per call. Since
+     * a contract can report any values, the returned [StablecoinInformation]s are marked as unverified.
+     *
+     * @param chainID The ID of the blockchain on which the token contracts exist.
+     * @param contractAddresses The addresses of the token contracts.
+     *
+     * @return A [Map] of addresses in [contractAddresses] to [StablecoinInformation]s about the contracts at those
+     * addresses. Contracts for which any call failed or returned malformed data are omitted.
+     *
+     * @throws BlockchainServiceException if [chainID] is not the ID of the blockchain to which this is connected.
+     */
+    suspend fun getStablecoinInformation(
+        chainID: BigInteger,
+        contractAddresses: List<String>,
+    ): Map<String, StablecoinInformation> {
+        val connectedChainID = web3.ethChainId().sendAsync().await().chainId
+        if (connectedChainID != chainID) {
+            throw BlockchainServiceException(message = "Cannot call contracts on chain $chainID while connected to " +
+                    "chain $connectedChainID")
+        }
+        val batch = web3.newBatch()
+        val requestIDs = contractAddresses.map { contractAddress ->
+            erc20MetadataFunctions.map { function ->
+                val request = web3.ethCall(
+                    Transaction.createEthCallTransaction(
+                        creds.address,
+                        contractAddress,
+                        FunctionEncoder.encode(function)
+                    ),
+                    DefaultBlockParameterName.LATEST
+                )
+                batch.add(request)
+                request.id
+            }
+        }
+        // Nodes may answer the requests in a batch in any order, so responses are matched to requests by ID
+        val responses = batch.sendAsync().await().responses.associateBy { it.id }
+        val stablecoinInformation = mutableMapOf<String, StablecoinInformation>()
+        contractAddresses.zip(requestIDs).forEach { (contractAddress, requestIDsForContract) ->
+            val values = erc20MetadataFunctions.zip(requestIDsForContract).map { (function, requestID) ->
+                val response = responses[requestID] as? EthCall
+                if (response == null || response.hasError() || response.isReverted) {
+                    null
+                } else {
+                    try {
+                        FunctionReturnDecoder.decode(response.value, function.outputParameters).singleOrNull()?.value
+                    } catch (exception: Exception) {
+                        null
+                    }
+                }
+            }
+            val currencyCode = values[0] as? String
+            val name = values[1] as? String
+            val decimals = values[2] as? BigInteger
+            if (currencyCode != null && name != null && decimals != null) {
+                stablecoinInformation[contractAddress] = StablecoinInformation(
+                    currencyCode = currencyCode,
+                    name = name,
+                    decimal = decimals.toInt(),
+                    isVerified = false,
+                )
+            } else {
+                logger.warn("getStablecoinInformation: $contractAddress on chain $chainID is not an ERC20 token " +
+                        "contract with a symbol, name and decimals")
+            }
+        }
+        logger.info("getStablecoinInformation: got information about ${stablecoinInformation.size} of " +
+                "${contractAddresses.size} stablecoins on chain $chainID")
+        return stablecoinInformation
+    }
+
     /**
      * Launches a new coroutine [Job] in [GlobalScope], the global coroutine scope, runs
      * [listenLoop] in this new [Job], and stores a reference to it in [listenJob].
@@ -353,6 +596,7 @@ class BlockchainService (private val exceptionHandler: BlockchainExceptionNotifi
             return web3.ethSendRawTransaction(signedRawTransactionDataAsHex).sendAsync().await()
         } catch (exception: Exception) {
             transactionsToMonitor.remove(transaction.transactionHash)
+            tokenAllowanceTracker.forgetApproval(transaction.transactionHash)
             throw exception
         }
     }
@@ -1338,6 +1582,7 @@ class BlockchainService (private val exceptionHandler: BlockchainExceptionNotifi
                             "${monitoredTransaction.transactionHash} of type ${monitoredTransaction.type.asString} " +
                             "for reason: ${monitoredTransactionException.message}")
                     transactionsToMonitor.remove(monitoredTransaction.transactionHash)
+                    tokenAllowanceTracker.forgetApproval(monitoredTransaction.transactionHash)
                     when (monitoredTransaction.type) {
                         BlockchainTransactionType.APPROVE_TOKEN_TRANSFER_TO_OPEN_OFFER,
                         BlockchainTransactionType.OPEN_OFFER,
@@ -1376,13 +1621,14 @@ class BlockchainService (private val exceptionHandler: BlockchainExceptionNotifi
      * Awaits the given [Deferred] and attempts to get a [TransactionReceipt] from the resulting
      * [EthGetTransactionReceipt]. If the [EthGetTransactionReceipt] does not contain a [TransactionReceipt], this
      * returns an empty list, since a nonexistent transaction receipt contains no events. If this does get a
-     * [TransactionReceipt] from [EthGetTransactionReceipt], this searches for a monitored transaction with a matching
-     * transaction hash. If it finds such a transaction, it checks if the status of the corresponding
-     * [TransactionReceipt] is OK. If it is, then this parses it for the proper type of event and adds resulting events
-     * to a list of events that will be returned. If it is not OK, then this calls the appropriate failure handler. In
-     * either case, we then remove the transaction from [transactionsToMonitor]. If the hash specified in
-     * [TransactionReceipt] is not present in [transactionsToMonitor], then this parses it for events and appends any
-     * resulting events to the list of events that will be returned. Finally, this returns said list of events.
+     * [TransactionReceipt] with an OK status, this passes it to [tokenAllowanceTracker]. Then this searches for a
+     * monitored transaction with a matching transaction hash. If it finds such a transaction, it checks if the status
+     * of the corresponding [TransactionReceipt] is OK. If it is, then this parses it for the proper type of event and
+     * adds resulting events to a list of events that will be returned. If it is not OK, then this calls the appropriate
+     * failure handler. In either case, we then remove the transaction from [transactionsToMonitor]. If the hash
+     * specified in [TransactionReceipt] is not present in [transactionsToMonitor], then this parses it for events and
+     * appends any resulting events to the list of events that will be returned. Finally, this returns said list of
+     * events.
      *
      * @param deferredReceiptOptional A [Deferred] with a [EthGetTransactionReceipt] result.
      *
@@ -1395,6 +1641,9 @@ class BlockchainService (private val exceptionHandler: BlockchainExceptionNotifi
         val receiptOptional = deferredReceiptOptional.await()
         if (receiptOptional.transactionReceipt.isPresent) {
             val transactionReceipt = receiptOptional.transactionReceipt.get()
+            if (transactionReceipt.isStatusOK) {
+                tokenAllowanceTracker.handleReceipt(transactionReceipt)
+            }
             val eventsInReceipt = mutableListOf<BaseEventResponse>()
             val monitoredTransaction = transactionsToMonitor[transactionReceipt.transactionHash]
             if (monitoredTransaction != null) {
@@ -1449,6 +1698,7 @@ class BlockchainService (private val exceptionHandler: BlockchainExceptionNotifi
                         message = "Transaction ${transactionReceipt.transactionHash} is confirmed, but failed for " +
                                 "unknown reason."
                     )
+                    tokenAllowanceTracker.forgetApproval(transactionReceipt.transactionHash)
                     when (monitoredTransaction.type) {
                         BlockchainTransactionType.APPROVE_TOKEN_TRANSFER_TO_OPEN_OFFER,
                         BlockchainTransactionType.OPEN_OFFER,
@@ -0,0 +1,366 @@
+package com.commuto.interfacedesktop.blockchain
+
+import com.commuto.interfacedesktop.blockchain.events.erc20.TokenTransferApprovalPurpose
+import org.web3j.abi.EventEncoder
+import org.web3j.contracts.eip20.generated.ERC20
+import org.web3j.protocol.core.methods.response.TransactionReceipt
+import org.web3j.utils.Numeric
+import java.math.BigInteger
+import java.util.*
+
+/**
+ * Tracks the [ERC20](https://eips.ethereum.org/EIPS/eip-20) allowances that owners have given to spenders, so that a
+ * token transfer approval can be skipped when the spender already has enough allowance.
+ *
+ * An allowance is tracked from the first time it is needed, when it is read from the token contract with
+ * [getOnChainAllowance]. After that, it is kept up to date from the `Approval` and `Transfer` events in the transaction
+ * receipts passed to [handleReceipt]. An `Approval` event sets the allowance to the approved value. A `Transfer` event
+ * from the owner to the spender, or from the owner in a transaction sent to the spender, is assumed to have spent
+ * allowance, and reduces the allowance by the transferred value, unless the allowance is the maximum `uint256` value,
+ * which ERC20 implementations conventionally treat as unlimited. Since a transfer that did not actually spend allowance
+ * can only make the tracked allowance smaller than the real one, this errs towards sending an unnecessary approval
+ * rather than skipping a necessary one.
+ *
+ * Allowance that an action will spend is reserved with [reserve] when the approval for that action is skipped, so that
+ * the same allowance cannot be used to skip the approvals of several actions. Since an `approve` call replaces the
+ * allowance rather than adding to it, an action that does need an approval must approve the amount given by
+ * [getApprovalAmount], which covers all reserved allowance as well as the action's own amount, and must register the
+ * approval transaction with [expectApproval], so that the action's amount is reserved when the approval is confirmed.
+ * While an expected approval is unconfirmed, [reserve] reserves nothing for the same allowance, since the allowance
+ * that the approval sets would not cover the new reservation.
+ *
+ * Each reservation belongs to an action, identified by a [TokenTransferApprovalPurpose] and the ID of the offer or swap
+ * on which the action is performed. Reserved allowance is freed when the corresponding `Transfer` event is handled, in
+ * which case the action's reservation should then be forgotten with [settle], or when [release] is called because the
+ * action will not happen.
+ *
+ * @param getOnChainAllowance A function that reads the allowance that an owner has given to a spender from a token
+ * contract, given the addresses of the token contract, the owner and the spender.
+ *
+ * @property allowances The tracked allowances, keyed by token contract, owner and spender address. This also guards
+ * [reservations] and [expectedApprovals].
+ * @property reservations The allowance reserved for each action that has not yet been settled or released.
+ * @property expectedApprovals The reservations to be made when the approval transactions registered with
+ * [expectApproval] are confirmed, keyed by lowercase transaction hash.
+ */
+class TokenAllowanceTracker(
+    private val getOnChainAllowance: suspend (tokenAddress: String, owner: String, spender: String) -> BigInteger,
+) {
+
+    /**
+     * Identifies an allowance. All addresses are lowercase.
+     *
+     * @property tokenAddress The address of the token contract.
+     * @property owner The address of the owner of the tokens.
+     * @property spender The address that is allowed to spend the owner's tokens.
+     */
+    private data class AllowanceKey(val tokenAddress: String, val owner: String, val spender: String)
+
+    /**
+     * A tracked allowance.
+     *
+     * @property amount The allowance that the owner has given to the spender.
+     * @property reserved The part of [amount] that has been reserved for actions whose approvals were skipped.
+     */
+    private class Allowance(var amount: BigInteger, var reserved: BigInteger = BigInteger.ZERO)
+
+    /**
+     * Identifies an action that spends allowance.
+     *
+     * @property purpose The [TokenTransferApprovalPurpose] describing the action.
+     * @property id The ID of the offer or swap on which the action is performed.
+     */
+    private data class ActionKey(val purpose: TokenTransferApprovalPurpose, val id: UUID)
+
+    /**
+     * Allowance reserved, or to be reserved, for an action.
+     *
+     * @property allowanceKey The [AllowanceKey] of the allowance.
+     * @property amount The amount of the allowance reserved for the action.
+     */
+    private class Reservation(val allowanceKey: AllowanceKey, val amount: BigInteger)
+
+    private val allowances = HashMap<AllowanceKey, Allowance>()
+
+    private val reservations = HashMap<ActionKey, Reservation>()
+
+    private val expectedApprovals = HashMap<String, Pair<ActionKey, Reservation>>()
+
+    /**
+     * Reserves [amount] of the allowance that [owner] has given to [spender] for [tokenAddress] tokens for the action
+     * described by [purpose] and [id], if enough of it is not yet reserved and no approval of it is awaiting
+     * confirmation. If the allowance is not yet tracked, this first reads it from the token contract.
+     *
+     * @param tokenAddress The address of the token contract.
+     * @param owner The address of the owner of the tokens.
+     * @param spender The address that will spend the owner's tokens.
+     * @param amount The amount of tokens that [spender] will spend.
+     * @param purpose The [TokenTransferApprovalPurpose] describing the action that will spend [amount].
+     * @param id The ID of the offer or swap on which the action will be performed.
+     *
+     * @return `true` if [amount] was reserved, meaning that no approval is needed, or `false` otherwise, meaning that
+     * the amount given by [getApprovalAmount] must be approved.
+     */
+    suspend fun reserve(
+        tokenAddress: String,
+        owner: String,
+        spender: String,
+        amount: BigInteger,
+        purpose: TokenTransferApprovalPurpose,
+        id: UUID,
+    ): Boolean {
+        val key = keyOf(tokenAddress, owner, spender)
+        if (synchronized(allowances) { !allowances.containsKey(key) }) {
+            val onChainAllowance = getOnChainAllowance(tokenAddress, owner, spender)
+            synchronized(allowances) {
+                allowances.putIfAbsent(key, Allowance(onChainAllowance))
+            }
+        }
+        return synchronized(allowances) {
+            val allowance = allowances.getValue(key)
+            val isApprovalPending = expectedApprovals.values.any { it.second.allowanceKey == key }
+            if (!isApprovalPending && allowance.amount - allowance.reserved >= amount) {
+                addReservation(ActionKey(purpose, id), Reservation(key, amount))
+                true
+            } else {
+                false
+            }
+        }
+    }
+
+    /**
+     * Gets the amount that must be approved so that [spender] can spend [amount] of [owner]'s [tokenAddress] tokens in
+     * addition to all allowance that is reserved or will be reserved when expected approvals are confirmed, since
+     * approving less would take allowance away from the actions for which it was reserved.
+     *
+     * @param tokenAddress The address of the token contract.
+     * @param owner The address of the owner of the tokens.
+     * @param spender The address that will spend the owner's tokens.
+     * @param amount The amount of tokens that [spender] will spend for the action requiring approval.
+     *
+     * @return The amount to approve, which is at most [MAX_UINT256].
+     */
+    fun getApprovalAmount(tokenAddress: String, owner: String, spender: String, amount: BigInteger): BigInteger {
+        val key = keyOf(tokenAddress, owner, spender)
+        return synchronized(allowances) {
+            val reserved = allowances[key]?.reserved ?: BigInteger.ZERO
+            val expected = expectedApprovals.values.filter { it.second.allowanceKey == key }
+                .fold(BigInteger.ZERO) { sum, (_, reservation) -> sum + reservation.amount }
+            (reserved + expected + amount).min(MAX_UINT256)
+        }
+    }
+
+    /**
+     * Registers the approval transaction with hash [transactionHash], which approves the amount given by
+     * [getApprovalAmount], so that [amount] is reserved for the action described by [purpose] and [id] when the
+     * approval is confirmed by a receipt passed to [handleReceipt].
+     *
+     * @param transactionHash The hash of the approval transaction.
+     * @param tokenAddress The address of the token contract.
+     * @param owner The address of the owner of the tokens.
+     * @param spender The address that will spend the owner's tokens.
+     * @param amount The amount of tokens that [spender] will spend for the action.
+     * @param purpose The [TokenTransferApprovalPurpose] describing the action.
+     * @param id The ID of the offer or swap on which the action will be performed.
+     */
+    fun expectApproval(
+        transactionHash: String,
+        tokenAddress: String,
+        owner: String,
+        spender: String,
+        amount: BigInteger,
+        purpose: TokenTransferApprovalPurpose,
+        id: UUID,
+    ) {
+        synchronized(allowances) {
+            expectedApprovals[transactionHash.lowercase()] = Pair(
+                ActionKey(purpose, id),
+                Reservation(keyOf(tokenAddress, owner, spender), amount)
+            )
+        }
+    }
+
+    /**
+     * Stops expecting the approval transaction with hash [transactionHash], because it failed or was never sent.
+     *
+     * @param transactionHash The hash of the approval transaction.
+     */
+    fun forgetApproval(transactionHash: String) {
+        synchronized(allowances) {
+            expectedApprovals.remove(transactionHash.lowercase())
+        }
+    }
+
+    /**
+     * Frees the allowance reserved for the action described by [purpose] and [id], because the action will not happen.
+     *
+     * @param purpose The [TokenTransferApprovalPurpose] describing the action.
+     * @param id The ID of the offer or swap on which the action would have been performed.
+     */
+    fun release(purpose: TokenTransferApprovalPurpose, id: UUID) {
+        synchronized(allowances) {
+            reservations.remove(ActionKey(purpose, id))?.let { reservation ->
+                allowances[reservation.allowanceKey]?.let {
+                    it.reserved = (it.reserved - reservation.amount).max(BigInteger.ZERO)
+                }
+            }
+        }
+    }
+
+    /**
+     * Forgets the reservation of the action described by [purpose] and [id] without freeing it, because the action has
+     * happened, so its reserved allowance is freed by the `Transfer` event of the action instead.
+     *
+     * @param purpose The [TokenTransferApprovalPurpose] describing the action.
+     * @param id The ID of the offer or swap on which the action was performed.
+     */
+    fun settle(purpose: TokenTransferApprovalPurpose, id: UUID) {
+        synchronized(allowances) {
+            reservations.remove(ActionKey(purpose, id))
+        }
+    }
+
+    /**
+     * Records [reservation] as the reservation of the action identified by [actionKey] and reserves its amount,
+     * first freeing any reservation that the action already has. This must be called while holding the lock on
+     * [allowances], and the allowance of [reservation] must be tracked.
+     *
+     * @param actionKey The [ActionKey] of the action.
+     * @param reservation The [Reservation] of the action.
+     */
+    private fun addReservation(actionKey: ActionKey, reservation: Reservation) {
+        reservations.put(actionKey, reservation)?.let { previous ->
+            allowances[previous.allowanceKey]?.let {
+                it.reserved = (it.reserved - previous.amount).max(BigInteger.ZERO)
+            }
+        }
+        allowances.getValue(reservation.allowanceKey).reserved += reservation.amount
+    }
+
+    /**
+     * Sets the allowance that [owner] has given to [spender] for [tokenAddress] tokens to [value], if it is tracked.
+     *
+     * @param tokenAddress The address of the token contract that emitted the `Approval` event.
+     * @param owner The `_owner` of the `Approval` event.
+     * @param spender The `_spender` of the `Approval` event.
+     * @param value The `_value` of the `Approval` event.
+     */
+    fun handleApproval(tokenAddress: String, owner: String, spender: String, value: BigInteger) {
+        synchronized(allowances) {
+            allowances[keyOf(tokenAddress, owner, spender)]?.amount = value
+        }
+    }
+
+    /**
+     * Reduces the allowance that [from] has given to [spender] for [tokenAddress] tokens by [value], if it is tracked
+     * and is not unlimited, and frees up to [value] of its reserved allowance.
+     *
+     * @param tokenAddress The address of the token contract that emitted the `Transfer` event.
+     * @param from The `_from` of the `Transfer` event.
+     * @param spender The address assumed to have spent the allowance.
+     * @param value The `_value` of the `Transfer` event.
+     */
+    fun handleTransfer(tokenAddress: String, from: String, spender: String, value: BigInteger) {
+        synchronized(allowances) {
+            allowances[keyOf(tokenAddress, from, spender)]?.let {
+                if (it.amount != MAX_UINT256) {
+                    it.amount = (it.amount - value).max(BigInteger.ZERO)
+                }
+                it.reserved = (it.reserved - value).max(BigInteger.ZERO)
+            }
+        }
+    }
+
+    /**
+     * Updates tracked allowances from the ERC20 `Approval` and `Transfer` events in [receipt], as described in the
+     * documentation of this class. Logs that are not ERC20 events are ignored. If [receipt] is that of an approval
+     * registered with [expectApproval], the allowance that it approves is tracked even if it was not tracked before,
+     * and the amount of the corresponding action is reserved.
+     *
+     * @param receipt The [TransactionReceipt] of a successful transaction.
+     */
+    fun handleReceipt(receipt: TransactionReceipt) {
+        val expectedApproval = synchronized(allowances) {
+            receipt.transactionHash?.let { expectedApprovals.remove(it.lowercase()) }
+        }
+        if (expectedApproval == null && synchronized(allowances) { allowances.isEmpty() }) {
+            return
+        }
+        for (log in receipt.logs) {
+            /*
+            ERC20 events have exactly two indexed parameters and a 32 byte value, unlike ERC721 events with the same
+            signatures
+             */
+            val topic = log.topics.firstOrNull()?.lowercase()
+            if ((topic != APPROVAL_EVENT_TOPIC && topic != TRANSFER_EVENT_TOPIC) || log.topics.size != 3 ||
+                Numeric.cleanHexPrefix(log.data).length != 64) {
+                continue
+            }
+            val first = addressFromTopic(log.topics[1])
+            val second = addressFromTopic(log.topics[2])
+            val value = Numeric.toBigInt(log.data)
+            when (topic) {
+                APPROVAL_EVENT_TOPIC -> {
+                    val key = keyOf(log.address, first, second)
+                    if (expectedApproval != null && expectedApproval.second.allowanceKey == key) {
+                        synchronized(allowances) {
+                            allowances.getOrPut(key) { Allowance(value) }.amount = value
+                            addReservation(expectedApproval.first, expectedApproval.second)
+                        }
+                    } else {
+                        handleApproval(log.address, first, second, value)
+                    }
+                }
+                TRANSFER_EVENT_TOPIC -> {
+                    handleTransfer(log.address, first, second, value)
+                    val transactionRecipient = receipt.to
+                    if (transactionRecipient != null && !transactionRecipient.equals(second, ignoreCase = true)) {
+                        handleTransfer(log.address, first, transactionRecipient, value)
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates the [AllowanceKey] of an allowance from addresses of any case.
+     *
+     * @param tokenAddress The address of the token contract.
+     * @param owner The address of the owner of the tokens.
+     * @param spender The address that is allowed to spend the owner's tokens.
+     *
+     * @return An [AllowanceKey] with the lowercase forms of [tokenAddress], [owner] and [spender].
+     */
+    private fun keyOf(tokenAddress: String, owner: String, spender: String): AllowanceKey {
+        return AllowanceKey(tokenAddress.lowercase(), owner.lowercase(), spender.lowercase())
+    }
+
+    /**
+     * Gets the address contained in an indexed `address` event parameter.
+     *
+     * @param topic The topic holding the parameter, as a hexadecimal string.
+     *
+     * @return The address, as a hexadecimal string.
+     */
+    private fun addressFromTopic(topic: String): String {
+        return "0x" + topic.takeLast(40)
+    }
+
+    companion object {
+        /**
+         * The maximum `uint256` value, which is conventionally an unlimited allowance.
+         */
+        val MAX_UINT256: BigInteger = BigInteger.TWO.pow(256) - BigInteger.ONE
+
+        /**
+         * The topic identifying an ERC20 `Approval` event.
+         */
+        private val APPROVAL_EVENT_TOPIC = EventEncoder.encode(ERC20.APPROVAL_EVENT)
+
+        /**
+         * The topic identifying an ERC20 `Transfer` event.
+         */
+        private val TRANSFER_EVENT_TOPIC = EventEncoder.encode(ERC20.TRANSFER_EVENT)
+    }
+
+}
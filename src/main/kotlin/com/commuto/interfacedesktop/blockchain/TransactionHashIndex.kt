@@ -0,0 +1,68 @@
+package com.commuto.interfacedesktop.blockchain
+
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * An index of the [BlockchainTransaction]s attached to offers or swaps by transaction hash, so that the offer or swap
+ * to which a monitored transaction belongs can be found without iterating over every offer or swap.
+ *
+ * Offers and swaps update this index themselves whenever a [BlockchainTransaction] is attached to or cleared from them
+ * while they are attached to this index. This may be read from any thread, since transaction failures and approval
+ * events are handled off the main coroutine dispatcher, on which transactions are attached.
+ *
+ * @param T The type of the entities to which indexed transactions are attached.
+ */
+class TransactionHashIndex<T> {
+
+    /**
+     * The type of each indexed transaction and the entity to which it is attached, by transaction hash.
+     */
+    private val entries = ConcurrentHashMap<String, Pair<BlockchainTransactionType, T>>()
+
+    /**
+     * Indexes [transaction] as attached to [entity], replacing any entity to which a transaction with the same hash was
+     * previously attached.
+     *
+     * @param transaction The [BlockchainTransaction] to be indexed.
+     * @param entity The entity to which [transaction] is attached.
+     */
+    fun add(transaction: BlockchainTransaction, entity: T) {
+        entries[transaction.transactionHash] = Pair(transaction.type, entity)
+    }
+
+    /**
+     * Removes [transaction] from this index, if it is indexed as attached to [entity].
+     *
+     * @param transaction The [BlockchainTransaction] to be removed.
+     * @param entity The entity from which [transaction] has been cleared.
+     */
+    fun remove(transaction: BlockchainTransaction, entity: T) {
+        entries.remove(transaction.transactionHash, Pair(transaction.type, entity))
+    }
+
+    /**
+     * Replaces [oldTransaction] with [newTransaction] as a transaction attached to [entity].
+     *
+     * @param oldTransaction The [BlockchainTransaction] previously attached to [entity], if any.
+     * @param newTransaction The [BlockchainTransaction] now attached to [entity], if any.
+     * @param entity The entity to which the transaction is attached.
+     */
+    fun replace(oldTransaction: BlockchainTransaction?, newTransaction: BlockchainTransaction?, entity: T) {
+        oldTransaction?.let { remove(it, entity) }
+        newTransaction?.let { add(it, entity) }
+    }
+
+    /**
+     * Gets the entity to which the transaction with hash [transactionHash] and type [type] is attached.
+     *
+     * @param transactionHash The hash of the transaction.
+     * @param type The [BlockchainTransactionType] of the transaction.
+     *
+     * @return The entity to which the transaction is attached, or `null` if no transaction with hash [transactionHash]
+     * and type [type] is indexed.
+     */
+    operator fun get(transactionHash: String, type: BlockchainTransactionType): T? {
+        return entries[transactionHash]?.takeIf { it.first == type }?.second
+    }
+
+}
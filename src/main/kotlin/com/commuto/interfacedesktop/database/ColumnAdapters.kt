@@ -0,0 +1,87 @@
+package com.commuto.interfacedesktop.database
+
+import com.commuto.interfacedesktop.extension.asByteArray
+import com.commuto.interfacedesktop.extension.asUUID
+import com.squareup.sqldelight.ColumnAdapter
+import java.math.BigInteger
+import java.util.*
+
+/**
+ * Stores offer and swap IDs, which are [UUID]s, as 16-byte BLOBs containing the bytes of the [UUID] in the order
+ * returned by [UUID.asByteArray]. Comparing these BLOBs is equivalent to comparing the byte representations of the
+ * IDs, which is the order in which offers and swaps are read in batches.
+ */
+internal object UUIDColumnAdapter : ColumnAdapter<UUID, ByteArray> {
+
+    override fun decode(databaseValue: ByteArray): UUID {
+        check(databaseValue.size == UUID_SIZE_BYTES) {
+            "Stored ID has ${databaseValue.size} bytes, expected $UUID_SIZE_BYTES"
+        }
+        return databaseValue.asUUID()
+    }
+
+    override fun encode(value: UUID): ByteArray {
+        return value.asByteArray()
+    }
+
+    /**
+     * The number of bytes in a stored [UUID].
+     */
+    private const val UUID_SIZE_BYTES = 16
+
+}
+
+/**
+ * Stores blockchain IDs, which are [BigInteger]s, as INTEGERs. Every chain ID on which Commuto is deployed fits in a
+ * signed 64-bit integer.
+ */
+internal object ChainIDColumnAdapter : ColumnAdapter<BigInteger, Long> {
+
+    override fun decode(databaseValue: Long): BigInteger {
+        return BigInteger.valueOf(databaseValue)
+    }
+
+    override fun encode(value: BigInteger): Long {
+        return value.longValueExact()
+    }
+
+}
+
+/**
+ * Stores token amounts and fee rates, which are non-negative [BigInteger]s no greater than the largest value of a
+ * Solidity `uint256`, as 32-byte big-endian unsigned BLOBs. Since every stored amount has the same width, comparing
+ * these BLOBs is equivalent to comparing the amounts.
+ */
+internal object AmountColumnAdapter : ColumnAdapter<BigInteger, ByteArray> {
+
+    override fun decode(databaseValue: ByteArray): BigInteger {
+        check(databaseValue.size == AMOUNT_SIZE_BYTES) {
+            "Stored amount has ${databaseValue.size} bytes, expected $AMOUNT_SIZE_BYTES"
+        }
+        return BigInteger(1, databaseValue)
+    }
+
+    override fun encode(value: BigInteger): ByteArray {
+        require(value.signum() >= 0 && value.bitLength() <= AMOUNT_SIZE_BYTES * 8) {
+            "Amount $value cannot be stored as a uint256"
+        }
+        // toByteArray returns the minimal two's-complement representation, which may have an extra leading zero byte
+        val minimalBytes = value.toByteArray()
+        val significantBytes = minimalBytes.size.coerceAtMost(AMOUNT_SIZE_BYTES)
+        return ByteArray(AMOUNT_SIZE_BYTES).also {
+            System.arraycopy(
+                minimalBytes,
+                minimalBytes.size - significantBytes,
+                it,
+                AMOUNT_SIZE_BYTES - significantBytes,
+                significantBytes
+            )
+        }
+    }
+
+    /**
+     * The number of bytes in a stored amount.
+     */
+    private const val AMOUNT_SIZE_BYTES = 32
+
+}
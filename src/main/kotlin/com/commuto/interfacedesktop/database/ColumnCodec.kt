@@ -0,0 +1,178 @@
+package com.commuto.interfacedesktop.database
+
+import com.commuto.interfacedesktop.key.keys.SymmetricKey
+import org.slf4j.LoggerFactory
+import java.security.GeneralSecurityException
+import java.security.SecureRandom
+import javax.crypto.Cipher
+import javax.crypto.spec.GCMParameterSpec
+
+/**
+ * Encrypts values before they are written to encrypted database columns, such as private settlement method data and
+ * communication keys, and decrypts them after they are read. Every value is bound to the row and column in which it is
+ * stored by associated data created with [associatedData], so a value that is moved to another row or column can't be
+ * decrypted.
+ */
+interface ColumnCodec {
+
+    /**
+     * Encrypts [value] for storage in an encrypted column.
+     *
+     * @param value The plaintext value to be encrypted.
+     * @param associatedData Data identifying the row and column in which the encrypted value will be stored, created
+     * with [associatedData], which is authenticated but not stored.
+     *
+     * @return The encrypted value, which contains everything but [associatedData] needed to decrypt it.
+     */
+    fun encode(value: ByteArray, associatedData: String): ByteArray
+
+    /**
+     * Decrypts a value read from an encrypted column.
+     *
+     * @param storedValue The encrypted value.
+     * @param associatedData Data identifying the row and column from which [storedValue] was read, which must equal
+     * that with which it was encoded.
+     *
+     * @return The decrypted value.
+     *
+     * @throws IllegalArgumentException if [storedValue] is not in a format that this can decode.
+     * @throws GeneralSecurityException if [storedValue] cannot be decrypted, has been modified, or was encoded with
+     * different associated data.
+     */
+    fun decode(storedValue: ByteArray, associatedData: String): ByteArray
+
+    /**
+     * Decrypts many values read from encrypted columns at once, such as those of a batch of rows. A value that cannot
+     * be decrypted, because [decode] throws an [IllegalArgumentException] or a [GeneralSecurityException], is logged
+     * along with its associated data and decoded as `null`, so that one damaged value doesn't prevent the rest of the
+     * batch from being read. Any other exception is propagated.
+     *
+     * @param storedValues A [List] of [StoredColumnValue]s, each of which contains an encrypted value (which may be
+     * `null`) and its associated data.
+     *
+     * @return A [List] containing the decrypted value of each element of [storedValues], in the same order, which is
+     * `null` if the encrypted value is `null` or cannot be decrypted.
+     */
+    fun decodeAll(storedValues: List<StoredColumnValue>): List<ByteArray?> {
+        return storedValues.map { (storedValue, associatedData) ->
+            if (storedValue == null) {
+                null
+            } else {
+                try {
+                    decode(storedValue, associatedData)
+                } catch (exception: IllegalArgumentException) {
+                    logger.error("decodeAll: unable to decode value with associated data $associatedData", exception)
+                    null
+                } catch (exception: GeneralSecurityException) {
+                    logger.error("decodeAll: unable to decode value with associated data $associatedData", exception)
+                    null
+                }
+            }
+        }
+    }
+
+    companion object {
+
+        /**
+         * The [org.slf4j.Logger] with which [decodeAll] logs values that cannot be decrypted.
+         */
+        private val logger = LoggerFactory.getLogger(ColumnCodec::class.java)
+
+        /**
+         * Creates the associated data that binds an encrypted value to the row and column in which it is stored.
+         *
+         * @param table The name of the table in which the value is stored.
+         * @param column The name of the column in which the value is stored.
+         * @param rowKey The values that identify the row in which the value is stored, such as an ID and a chain ID, in
+         * the order of the columns that contain them. Each is converted to a [String] with [toString], and only the
+         * last may be free-form text.
+         *
+         * @return The associated data, as a [String].
+         */
+        fun associatedData(table: String, column: String, vararg rowKey: Any): String {
+            return (listOf(table, column) + rowKey.map { it.toString() }).joinToString(separator = "|")
+        }
+    }
+
+}
+
+/**
+ * A value read from an encrypted column, to be decrypted by [ColumnCodec.decodeAll].
+ *
+ * @property storedValue The encrypted value, or `null` if the column is empty.
+ * @property associatedData Data identifying the row and column from which [storedValue] was read, created with
+ * [ColumnCodec.associatedData].
+ */
+data class StoredColumnValue(
+    val storedValue: ByteArray?,
+    val associatedData: String,
+)
+
+/**
+ * A [ColumnCodec] that encrypts values with AES-GCM using [key], authenticating the associated data of each value, so
+ * that modified values, and values moved to a different row or column, are detected when they are decrypted rather
+ * than silently decrypted to garbage.
+ *
+ * Each encoded value consists of a [FORMAT_VERSION] byte, followed by a new [SymmetricKey.GCM_NONCE_LENGTH]-byte
+ * nonce, followed by the cipher data and authentication tag, and is stored as a BLOB as it is.
+ *
+ * Creating a [Cipher] is expensive compared to decrypting a short value, so this keeps one [Cipher] per thread and
+ * reinitializes it for every value.
+ *
+ * @property key The [SymmetricKey] with which this encrypts and decrypts values.
+ */
+class AuthenticatedColumnCodec(private val key: SymmetricKey) : ColumnCodec {
+
+    private val gcmCipher = ThreadLocal.withInitial { Cipher.getInstance("AES/GCM/NoPadding") }
+
+    override fun encode(value: ByteArray, associatedData: String): ByteArray {
+        val nonce = ByteArray(SymmetricKey.GCM_NONCE_LENGTH)
+        secureRandom.nextBytes(nonce)
+        val cipher = gcmCipher.get()
+        cipher.init(Cipher.ENCRYPT_MODE, key.key, GCMParameterSpec(SymmetricKey.GCM_TAG_LENGTH_BITS, nonce))
+        cipher.updateAAD(associatedData.toByteArray())
+        val cipherData = cipher.doFinal(value)
+        val encodedValue = ByteArray(1 + nonce.size + cipherData.size)
+        encodedValue[0] = FORMAT_VERSION
+        System.arraycopy(nonce, 0, encodedValue, 1, nonce.size)
+        System.arraycopy(cipherData, 0, encodedValue, 1 + nonce.size, cipherData.size)
+        return encodedValue
+    }
+
+    override fun decode(storedValue: ByteArray, associatedData: String): ByteArray {
+        require(storedValue.size >= MINIMUM_ENCODED_LENGTH) {
+            "Encoded value has ${storedValue.size} bytes, expected at least $MINIMUM_ENCODED_LENGTH"
+        }
+        require(storedValue[0] == FORMAT_VERSION) {
+            "Encoded value has unknown format version ${storedValue[0]}"
+        }
+        val cipher = gcmCipher.get()
+        cipher.init(
+            Cipher.DECRYPT_MODE,
+            key.key,
+            GCMParameterSpec(SymmetricKey.GCM_TAG_LENGTH_BITS, storedValue, 1, SymmetricKey.GCM_NONCE_LENGTH)
+        )
+        cipher.updateAAD(associatedData.toByteArray())
+        val cipherDataOffset = 1 + SymmetricKey.GCM_NONCE_LENGTH
+        return cipher.doFinal(storedValue, cipherDataOffset, storedValue.size - cipherDataOffset)
+    }
+
+    companion object {
+        /**
+         * The first byte of every value returned by [encode], which identifies the format of the rest of the value.
+         */
+        const val FORMAT_VERSION: Byte = 1
+
+        /**
+         * The length in bytes of an encoded empty value: the format version, the nonce and the authentication tag.
+         */
+        private const val MINIMUM_ENCODED_LENGTH = 1 + SymmetricKey.GCM_NONCE_LENGTH +
+                SymmetricKey.GCM_TAG_LENGTH_BITS / 8
+
+        /**
+         * The [SecureRandom] from which nonces are generated.
+         */
+        private val secureRandom = SecureRandom()
+    }
+
+}
@@ -1,29 +1,454 @@
 package com.commuto.interfacedesktop.database
 
 import com.commuto.interfacedesktop.db.*
+import com.commuto.interfacedesktop.key.keys.SymmetricKey
+import com.commuto.interfacedesktop.key.keys.SymmetricallyEncryptedData
+import com.squareup.sqldelight.db.SqlDriver
+import java.math.BigInteger
+import java.security.GeneralSecurityException
+import java.util.*
 
 /**
  * A wrapper around the [CommutoInterfaceDB] class, which is auto-generated by SQLDelight.
+ * @property driver The [SqlDriver] connected to the database, used for statements that SQLDelight doesn't generate
+ * queries for, such as those that get and set the schema version.
  * @property database The [CommutoInterfaceDB] object that this class wraps.
  * @property dbQuery The [com.commuto.interfacedesktop.db.CommutoInterfaceDBQueries] property of [database], used for
  * executing database queries.
+ * @property readOnlyQuery The [com.commuto.interfacedesktop.db.CommutoInterfaceDBQueries] of a database object using
+ * the read-only driver created by [DatabaseDriverFactory.createReadOnlyDriver], or [dbQuery] if there is no such
+ * driver. All select statements are executed using this.
  */
 internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
-    private val database = CommutoInterfaceDB(databaseDriverFactory.createDriver())
+    private val driver = databaseDriverFactory.createDriver()
+    private val database = createDatabase(driver)
     private val dbQuery = database.commutoInterfaceDBQueries
+    private val readOnlyDriver = databaseDriverFactory.createReadOnlyDriver()
+    private val readOnlyQuery = readOnlyDriver?.let { createDatabase(it).commutoInterfaceDBQueries } ?: dbQuery
 
     /**
-     * Creates all necessary database tables.
+     * Indicates whether select statements are executed using separate read-only connections, which may be used
+     * concurrently from multiple threads. If this is `false`, select statements must be executed on the same thread as
+     * all other statements.
+     */
+    internal val hasReadOnlyConnections = readOnlyDriver != null
+
+    /**
+     * Creates all necessary database tables, and sets the schema version of the database to [SCHEMA_VERSION].
      */
     internal fun createTables() {
-        dbQuery.createOfferTable()
+        dbQuery.createOfferRecordTable()
         dbQuery.createSettlementMethodTable()
         dbQuery.createPendingOfferSettlementMethodTable()
         dbQuery.createPublicKeyTable()
         dbQuery.createKeyPairTable()
-        dbQuery.createSwapTable()
+        dbQuery.createSwapRecordTable()
+        dbQuery.createSwapAndDisputeTable()
+        dbQuery.createUserSettlementMethodTable()
+        dbQuery.createEntityTransactionTable()
+        dbQuery.createEntityTransactionByTransactionHashIndex()
+        dbQuery.createOfferView()
+        dbQuery.createSwapView()
+        createArchiveTables()
+        dbQuery.createStablecoinMetadataTable()
+        dbQuery.createPendingOfferTable()
+        setSchemaVersion(SCHEMA_VERSION)
+    }
+
+    /**
+     * Creates the append-only tables into which inactive offers, swaps and [SwapAndDispute]s are archived, along with
+     * partial indexes on the rows of the active tables that are ready to be archived.
+     */
+    private fun createArchiveTables() {
+        dbQuery.createArchivedOfferTable()
+        dbQuery.createArchivedSwapTable()
+        dbQuery.createArchivedSwapAndDisputeTable()
+        dbQuery.createInactiveOfferRecordIndex()
+        dbQuery.createClosedSwapRecordIndex()
+        dbQuery.createResolvedSwapAndDisputeIndex()
+    }
+
+    /**
+     * Prepares the database for use. If the database is new, this creates all necessary tables. If the database was
+     * created by an earlier version of this app, this migrates it to [SCHEMA_VERSION] in a single transaction. If the
+     * database is already at [SCHEMA_VERSION], this does nothing, so existing data is kept.
+     *
+     * @param columnCodec The [ColumnCodec] with which encrypted values are re-encrypted when the database is migrated.
+     * @param databaseKey The [SymmetricKey] with which a version 1 database encrypted values with AES-CBC.
+     *
+     * @throws IllegalStateException if the database was created by a newer version of this app, or by a development
+     * build with a schema version that was never released.
+     */
+    internal fun prepareDatabase(columnCodec: ColumnCodec, databaseKey: SymmetricKey) {
+        val schemaVersion = getSchemaVersion()
+        check(schemaVersion <= SCHEMA_VERSION) {
+            "Database schema version $schemaVersion is newer than supported version $SCHEMA_VERSION"
+        }
+        if (schemaVersion == SCHEMA_VERSION) {
+            return
+        }
+        dbQuery.transaction {
+            if (schemaVersion == 0L) {
+                createTables()
+            } else {
+                migrateFromVersion(schemaVersion, columnCodec, databaseKey)
+                setSchemaVersion(SCHEMA_VERSION)
+            }
+        }
+    }
+
+    /**
+     * Migrates the database from the specified schema version to [SCHEMA_VERSION]. Version 1 is the only earlier
+     * version that was released; versions 2 through 8 were only used by development builds, and each migration between
+     * them created its new tables with the current DDL rather than that of its own version, so they are not supported.
+     *
+     * @param version The current schema version of the database.
+     * @param columnCodec The [ColumnCodec] with which encrypted values are re-encrypted.
+     * @param databaseKey The [SymmetricKey] with which a version 1 database encrypted values with AES-CBC.
+     *
+     * @throws IllegalStateException if there is no migration from [version].
+     */
+    private fun migrateFromVersion(version: Long, columnCodec: ColumnCodec, databaseKey: SymmetricKey) {
+        when (version) {
+            1L -> migrateFromVersion1(columnCodec, databaseKey)
+            else -> throw IllegalStateException(
+                "No migration from database schema version $version, which was never released"
+            )
+        }
+    }
+
+    /**
+     * Migrates a version 1 database to [SCHEMA_VERSION].
+     *
+     * A version 1 database stores offer and swap IDs as Base64 TEXT (or, for SwapAndDisputes, as hyphenated [UUID]
+     * strings), chain IDs and amounts as decimal TEXT, and the state and transaction data of every action of an offer
+     * or swap in four columns per action of the `Offer` and `Swap` tables. Each table whose layout changed is renamed,
+     * the current tables are created with the current DDL (which is what this migration targets), and the rows of
+     * each renamed table are read by column name, converted and copied one at a time, since SQLite can't decode
+     * Base64. Actions that have not begun are not copied into `EntityTransaction`. Version 1 tables have no key on
+     * the chain ID, so offers, swaps and settlement methods are keyed by ID and chain ID (and settlement method) only
+     * once they are copied, and a row with the same key as an earlier row is skipped. The statements that read the old
+     * tables use the driver directly, since those tables no longer exist in the schema from which SQLDelight generates
+     * queries.
+     *
+     * A version 1 database also stores encrypted values as Base64 TEXT encrypted with AES-CBC using [databaseKey], each
+     * with an initialization vector that isn't authenticated in a separate column. Each of these is decrypted and
+     * re-encrypted with [columnCodec], bound to its row and column, and stored as a BLOB, and the initialization vector
+     * columns are not copied, so that no value needs AES-CBC to be decrypted once the migration is complete.
+     *
+     * @param columnCodec The [ColumnCodec] with which encrypted values are re-encrypted.
+     * @param databaseKey The [SymmetricKey] with which the version 1 database encrypted values with AES-CBC.
+     */
+    private fun migrateFromVersion1(columnCodec: ColumnCodec, databaseKey: SymmetricKey) {
+        VERSION_1_RENAMED_TABLES.forEach { (table, _) ->
+            driver.execute(null, "ALTER TABLE $table RENAME TO ${table}V1", 0)
+        }
+        dbQuery.createOfferRecordTable()
+        dbQuery.createSettlementMethodTable()
+        dbQuery.createPendingOfferSettlementMethodTable()
+        dbQuery.createSwapRecordTable()
         dbQuery.createSwapAndDisputeTable()
         dbQuery.createUserSettlementMethodTable()
+        dbQuery.createEntityTransactionTable()
+        VERSION_1_RENAMED_TABLES.forEach { (table, newTable) ->
+            copyRowsConvertingColumns(
+                fromTable = "${table}V1",
+                toTable = newTable,
+                conversions = VERSION_1_COLUMN_CONVERSIONS[newTable] ?: mapOf(),
+                encryptedColumns = VERSION_1_ENCRYPTED_COLUMNS[newTable] ?: listOf(),
+                columnCodec = columnCodec,
+                databaseKey = databaseKey,
+            )
+        }
+        OFFER_ACTION_COLUMNS.forEach { (action, stateColumn, transactionPrefix) ->
+            copyActionToEntityTransactionTable("OfferV1", action, stateColumn, transactionPrefix)
+        }
+        SWAP_ACTION_COLUMNS.forEach { (action, stateColumn, transactionPrefix) ->
+            copyActionToEntityTransactionTable("SwapV1", action, stateColumn, transactionPrefix)
+        }
+        VERSION_1_RENAMED_TABLES.forEach { (table, _) ->
+            driver.execute(null, "DROP TABLE ${table}V1", 0)
+        }
+        dbQuery.createEntityTransactionByTransactionHashIndex()
+        dbQuery.createOfferView()
+        dbQuery.createSwapView()
+        createArchiveTables()
+        dbQuery.createStablecoinMetadataTable()
+        dbQuery.createPendingOfferTable()
+    }
+
+    /**
+     * Copies the state and transaction data of one action of every offer or swap in a version 1 table into the
+     * `EntityTransaction` table, skipping rows in which the action has not begun.
+     *
+     * @param table The name of the renamed version 1 table, either `OfferV1` or `SwapV1`.
+     * @param action The [EntityTransactionAction] describing the action.
+     * @param stateColumn The name of the column of [table] containing the state of the action.
+     * @param transactionPrefix The prefix of the names of the columns of [table] containing the transaction hash,
+     * creation time and creation block number of the action.
+     */
+    private fun copyActionToEntityTransactionTable(
+        table: String,
+        action: EntityTransactionAction,
+        stateColumn: String,
+        transactionPrefix: String,
+    ) {
+        copyRowsConvertingColumns(
+            fromTable = table,
+            toTable = "EntityTransaction",
+            conversions = VERSION_1_COLUMN_CONVERSIONS.getValue("EntityTransaction"),
+            sourceExpressions = mapOf(
+                "entityID" to "id",
+                "actionType" to "'${action.asString}'",
+                "state" to stateColumn,
+                "transactionHash" to "${transactionPrefix}Hash",
+                "transactionCreationTime" to "${transactionPrefix}CreationTime",
+                "transactionCreationBlockNumber" to "${transactionPrefix}CreationBlockNumber",
+            ),
+            condition = "$stateColumn != '$NO_ACTION_STATE' OR ${transactionPrefix}Hash IS NOT NULL",
+        )
+    }
+
+    /**
+     * Copies rows of [fromTable] into [toTable]. Every column of [toTable] is filled with the value of the expression
+     * for its name in [sourceExpressions], or of the column of [fromTable] with the same name if there is no such
+     * expression, so columns of [fromTable] that [toTable] doesn't have are not copied. The value of each column named
+     * in [conversions] is read as TEXT and converted with the corresponding [ColumnConversion], the value of each
+     * column in [encryptedColumns] is read along with its initialization vector and re-encrypted by
+     * [reencryptVersion1Value], and all other values are copied as they are, according to the type with which their
+     * column is declared in [toTable]. A row that conflicts with a UNIQUE
+     * or PRIMARY KEY constraint of [toTable] because a row with the same key has already been copied is skipped.
+     *
+     * @param fromTable The name of the table from which rows are copied.
+     * @param toTable The name of the table into which rows are copied.
+     * @param conversions A [Map] of names of columns of [toTable] to the [ColumnConversion]s applied to their values.
+     * @param sourceExpressions A [Map] of names of columns of [toTable] to the SQL expressions from which their values
+     * are selected.
+     * @param condition An SQL expression that rows of [fromTable] must satisfy to be copied, or `null` if every row is
+     * copied.
+     * @param encryptedColumns The [EncryptedColumn]s of [toTable] containing values that must be re-encrypted.
+     * @param columnCodec The [ColumnCodec] with which the values of [encryptedColumns] are re-encrypted, or `null` if
+     * [encryptedColumns] is empty.
+     * @param databaseKey The [SymmetricKey] with which the values of [encryptedColumns] were encrypted with AES-CBC, or
+     * `null` if [encryptedColumns] is empty.
+     */
+    private fun copyRowsConvertingColumns(
+        fromTable: String,
+        toTable: String,
+        conversions: Map<String, ColumnConversion>,
+        sourceExpressions: Map<String, String> = mapOf(),
+        condition: String? = null,
+        encryptedColumns: List<EncryptedColumn> = listOf(),
+        columnCodec: ColumnCodec? = null,
+        databaseKey: SymmetricKey? = null,
+    ) {
+        val columns = mutableListOf<Pair<String, String>>()
+        driver.executeQuery(null, "PRAGMA table_info($toTable)", 0).use { cursor ->
+            while (cursor.next()) {
+                // Each row describes a column: its index, name, declared type, and so on
+                columns.add(Pair(cursor.getString(1)!!, cursor.getString(2)!!))
+            }
+        }
+        // The initialization vectors of encrypted values are selected after the columns of toTable, which has no
+        // columns for them
+        val selectedExpressions = (columns.map { (name, _) -> sourceExpressions[name] ?: name } +
+                encryptedColumns.map { it.initializationVectorColumn }).joinToString()
+        val whereClause = condition?.let { " WHERE $it" } ?: ""
+        val rows = mutableListOf<MutableList<Any?>>()
+        val initializationVectors = mutableListOf<List<String?>>()
+        driver.executeQuery(null, "SELECT $selectedExpressions FROM $fromTable$whereClause", 0).use { cursor ->
+            while (cursor.next()) {
+                rows.add(columns.mapIndexed { index, (name, declaredType) ->
+                    val conversion = conversions[name]
+                    when {
+                        conversion != null -> cursor.getString(index)?.let { conversion.convert(it) }
+                        declaredType == "INTEGER" -> cursor.getLong(index)
+                        else -> cursor.getString(index)
+                    }
+                }.toMutableList())
+                initializationVectors.add(encryptedColumns.indices.map { cursor.getString(columns.size + it) })
+            }
+        }
+        val columnIndices = columns.mapIndexed { index, (name, _) -> name to index }.toMap()
+        rows.zip(initializationVectors).forEach { (row, rowInitializationVectors) ->
+            encryptedColumns.zip(rowInitializationVectors).forEach { (encryptedColumn, initializationVector) ->
+                reencryptVersion1Value(
+                    table = toTable,
+                    encryptedColumn = encryptedColumn,
+                    row = row,
+                    initializationVector = initializationVector,
+                    columnIndices = columnIndices,
+                    columnCodec = columnCodec!!,
+                    databaseKey = databaseKey!!,
+                )
+            }
+        }
+        val columnNames = columns.joinToString { it.first }
+        val insertStatement = "INSERT INTO $toTable($columnNames) VALUES (${columns.joinToString { "?" }}) " +
+                "ON CONFLICT DO NOTHING"
+        rows.forEach { row ->
+            driver.execute(null, insertStatement, columns.size) {
+                row.forEachIndexed { index, value ->
+                    // Parameter indices start at 1
+                    when (value) {
+                        is ByteArray -> bindBytes(index + 1, value)
+                        is Long -> bindLong(index + 1, value)
+                        else -> bindString(index + 1, value as String?)
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces the version 1 value of [encryptedColumn] in [row], which is Base64 TEXT encrypted with AES-CBC, with the
+     * value re-encrypted by [columnCodec] and bound to its row and column. A value that can't be decrypted couldn't be
+     * read before the migration either, so it is cleared rather than failing the migration.
+     *
+     * @param table The name of the table into which [row] is copied.
+     * @param encryptedColumn The [EncryptedColumn] containing the value to be re-encrypted.
+     * @param row The converted values of the columns of a row of [table], in which the value of [encryptedColumn] is
+     * replaced.
+     * @param initializationVector The initialization vector with which the value was encrypted, as a Base64-[String],
+     * or `null` if there is none, in which case the value can't be decrypted.
+     * @param columnIndices The index in [row] of the value of each column of [table].
+     * @param columnCodec The [ColumnCodec] with which the value is re-encrypted.
+     * @param databaseKey The [SymmetricKey] with which the value was encrypted with AES-CBC.
+     */
+    private fun reencryptVersion1Value(
+        table: String,
+        encryptedColumn: EncryptedColumn,
+        row: MutableList<Any?>,
+        initializationVector: String?,
+        columnIndices: Map<String, Int>,
+        columnCodec: ColumnCodec,
+        databaseKey: SymmetricKey,
+    ) {
+        val valueIndex = columnIndices.getValue(encryptedColumn.column)
+        val storedValue = row[valueIndex] as String? ?: return
+        val rowKey = encryptedColumn.rowKeyColumns.map { column ->
+            // IDs and chain IDs have already been converted, so they are converted back to the values from which the
+            // associated data is created when the row is written by DatabaseService
+            when (val value = row[columnIndices.getValue(column)]) {
+                is ByteArray -> UUIDColumnAdapter.decode(value)
+                is Long -> ChainIDColumnAdapter.decode(value)
+                else -> value!!
+            }
+        }
+        val associatedData = ColumnCodec.associatedData(table, encryptedColumn.column, *rowKey.toTypedArray())
+        if (initializationVector == null) {
+            row[valueIndex] = null
+            return
+        }
+        row[valueIndex] = try {
+            val decoder = Base64.getDecoder()
+            val encryptedData = SymmetricallyEncryptedData(
+                data = decoder.decode(storedValue),
+                iv = decoder.decode(initializationVector),
+            )
+            columnCodec.encode(databaseKey.decrypt(encryptedData), associatedData)
+        } catch (exception: IllegalArgumentException) {
+            null
+        } catch (exception: GeneralSecurityException) {
+            null
+        }
+    }
+
+    /**
+     * A column of a table of the current schema containing encrypted values.
+     *
+     * @property column The name of the column containing encrypted values.
+     * @property initializationVectorColumn The name of the column of the version 1 table containing the initialization
+     * vectors of the values.
+     * @property rowKeyColumns The names of the columns identifying the row in which a value is stored, the values of
+     * which are included in the associated data of the value in this order.
+     */
+    private data class EncryptedColumn(
+        val column: String,
+        val initializationVectorColumn: String,
+        val rowKeyColumns: List<String>,
+    )
+
+    /**
+     * Describes how a value stored as TEXT in a version 1 database is converted to the type in which it is currently
+     * stored.
+     *
+     * @property BASE64_UUID A [UUID] stored as a Base64 [String] of its bytes, which is converted to a 16-byte BLOB.
+     * @property STRING_UUID A [UUID] stored as a [String] returned by [UUID.toString], which is converted to a 16-byte
+     * BLOB.
+     * @property CHAIN_ID A chain ID stored as a decimal [String], which is converted to an INTEGER.
+     * @property AMOUNT An amount stored as a decimal [String], which is converted to a 32-byte BLOB.
+     */
+    private enum class ColumnConversion {
+        BASE64_UUID,
+        STRING_UUID,
+        CHAIN_ID,
+        AMOUNT;
+
+        /**
+         * Converts [value] from its version 1 form to its current form.
+         *
+         * @param value A value stored as TEXT in a version 1 database.
+         *
+         * @return The corresponding value to be stored in the current schema.
+         */
+        fun convert(value: String): Any {
+            return when (this) {
+                BASE64_UUID -> UUIDColumnAdapter.encode(UUIDColumnAdapter.decode(Base64.getDecoder().decode(value)))
+                STRING_UUID -> UUIDColumnAdapter.encode(UUID.fromString(value))
+                CHAIN_ID -> ChainIDColumnAdapter.encode(BigInteger(value))
+                AMOUNT -> AmountColumnAdapter.encode(BigInteger(value))
+            }
+        }
+    }
+
+    /**
+     * Gets the schema version of the database, which is stored in SQLite's `user_version` header field. This is zero
+     * for a new database.
+     *
+     * @return The schema version of the database.
+     */
+    internal fun getSchemaVersion(): Long {
+        val cursor = driver.executeQuery(null, "PRAGMA user_version", 0)
+        return try {
+            if (cursor.next()) cursor.getLong(0) ?: 0L else 0L
+        } finally {
+            cursor.close()
+        }
+    }
+
+    /**
+     * Sets the schema version of the database.
+     *
+     * @param version The new schema version.
+     */
+    private fun setSchemaVersion(version: Long) {
+        driver.execute(null, "PRAGMA user_version = $version", 0)
+    }
+
+    /**
+     * Executes [body] in a single database transaction, which is rolled back if [body] throws.
+     *
+     * @param body A lambda that executes database statements.
+     */
+    internal fun transaction(body: () -> Unit) {
+        dbQuery.transaction {
+            body()
+        }
+    }
+
+    /**
+     * Executes [body], which must only execute select statements, in a single database transaction on the connection
+     * used for select statements, so that every statement it executes reads the same snapshot of the database.
+     *
+     * @param body A lambda that executes select statements.
+     *
+     * @return The value returned by [body].
+     */
+    internal fun <T> readTransaction(body: () -> T): T {
+        return readOnlyQuery.transactionWithResult {
+            body()
+        }
     }
 
     /**
@@ -38,6 +463,12 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
             dbQuery.removeAllPublicKeys()
             dbQuery.removeAllSwaps()
             dbQuery.removeAllUserSettlementMethods()
+            dbQuery.removeAllEntityTransactions()
+            dbQuery.removeAllArchivedOffers()
+            dbQuery.removeAllArchivedSwaps()
+            dbQuery.removeAllArchivedSwapAndDisputes()
+            dbQuery.removeAllStablecoinMetadata()
+            dbQuery.removeAllPendingOffers()
         }
     }
 
@@ -47,8 +478,8 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param id The ID of the Offers to be returned.
      * @return A [List] of [Offer]s with offer IDs equal to [id].
      */
-    internal fun selectOfferByOfferId(id: String): List<Offer> {
-        return dbQuery.selectOfferByOfferId(id).executeAsList()
+    internal fun selectOfferByOfferId(id: UUID): List<Offer> {
+        return readOnlyQuery.selectOfferByOfferId(id).executeAsList()
     }
 
     /**
@@ -58,10 +489,10 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @return A [List] of [OfferSettlementMethod]s
      */
     internal fun selectOfferSettlementMethodByOfferIdAndChainID(
-        offerID: String,
-        chainID: String
+        offerID: UUID,
+        chainID: BigInteger
     ): List<OfferSettlementMethod> {
-        return dbQuery.selectOfferSettlementMethodByOfferIdAndChainID(offerID, chainID).executeAsList()
+        return readOnlyQuery.selectOfferSettlementMethodByOfferIdAndChainID(offerID, chainID).executeAsList()
     }
 
     /**
@@ -71,16 +502,15 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @return A [List] of [OfferSettlementMethod]s
      */
     internal fun selectPendingOfferSettlementMethodByOfferIdAndChainID(
-        offerID: String,
-        chainID: String
+        offerID: UUID,
+        chainID: BigInteger
     ): List<OfferSettlementMethod> {
-        return dbQuery.selectPendingOfferSettlementMethodByOfferIdAndChainID(offerID, chainID).executeAsList().map {
+        return readOnlyQuery.selectPendingOfferSettlementMethodByOfferIdAndChainID(offerID, chainID).executeAsList().map {
             OfferSettlementMethod(
                 id = it.id,
                 chainID = it.chainID,
                 settlementMethod = it.settlementMethod,
-                privateData = it.privateData,
-                privateDataInitializationVector = it.privateDataInitializationVector
+                privateData = it.privateData
             )
         }
     }
@@ -91,7 +521,7 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @return A [List] of [KeyPair]s with interface IDs equal to [interfaceId]
      */
     internal fun selectKeyPairByInterfaceId(interfaceId: String): List<KeyPair> {
-        return dbQuery.selectKeyPairByInterfaceId(interfaceId).executeAsList()
+        return readOnlyQuery.selectKeyPairByInterfaceId(interfaceId).executeAsList()
     }
 
     /**
@@ -100,7 +530,7 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @return A [List] of [PublicKey]s with interface IDs equal to [interfaceId]
      */
     internal fun selectPublicKeyByInterfaceId(interfaceId: String): List<PublicKey> {
-        return dbQuery.selectPublicKeyByInterfaceId(interfaceId).executeAsList()
+        return readOnlyQuery.selectPublicKeyByInterfaceId(interfaceId).executeAsList()
     }
 
     /**
@@ -108,8 +538,8 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param id The ID of the Swaps to be returned.
      * @return A [List] of [Swap]s with swap IDs equal to [id].
      */
-    internal fun selectSwapBySwapID(id: String): List<Swap> {
-        return dbQuery.selectSwapBySwapID(id).executeAsList()
+    internal fun selectSwapBySwapID(id: UUID): List<Swap> {
+        return readOnlyQuery.selectSwapBySwapID(id).executeAsList()
     }
 
     /**
@@ -117,8 +547,8 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param id The swap ID of the SwapAndDisputes to be returned.
      * @return A [List] of [SwapAndDispute]s with swap IDs equal to [id].
      */
-    internal fun selectSwapAndDisputeBySwapID(id: String): List<SwapAndDispute> {
-        return dbQuery.selectSwapAndDisputeBySwapID(id).executeAsList()
+    internal fun selectSwapAndDisputeBySwapID(id: UUID): List<SwapAndDispute> {
+        return readOnlyQuery.selectSwapAndDisputeBySwapID(id).executeAsList()
     }
 
     /**
@@ -127,60 +557,243 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @return A [List] of [UserSettlementMethod]s
      */
     internal fun selectUserSettlementMethodByID(id: String): List<UserSettlementMethod> {
-        return dbQuery.selectUserSettlementMethodByID(id).executeAsList()
+        return readOnlyQuery.selectUserSettlementMethodByID(id).executeAsList()
     }
 
     /**
-     * Inserts an [Offer] into the database.
-     * @param offer The [Offer] to be inserted in the database.
+     * Returns every [StablecoinMetadata] in the database, for all chains.
+     * @return A [List] of all [StablecoinMetadata]s.
      */
-    internal fun insertOffer(offer: Offer) {
-        dbQuery.insertOffer(
-            id = offer.id,
-            isCreated = offer.isCreated,
-            isTaken = offer.isTaken,
-            maker = offer.maker,
-            interfaceId = offer.interfaceId,
-            stablecoin = offer.stablecoin,
-            amountLowerBound = offer.amountLowerBound,
-            amountUpperBound = offer.amountUpperBound,
-            securityDepositAmount = offer.securityDepositAmount,
-            serviceFeeRate = offer.serviceFeeRate,
-            onChainDirection = offer.onChainDirection,
-            protocolVersion = offer.protocolVersion,
-            chainID = offer.chainID,
-            havePublicKey = offer.havePublicKey,
-            isUserMaker = offer.isUserMaker,
-            state = offer.state,
-            approveToOpenState = offer.approveToOpenState,
-            approveToOpenTransactionHash = offer.approveToOpenTransactionHash,
-            approveToOpenTransactionCreationTime = offer.approveToOpenTransactionCreationTime,
-            approveToOpenTransactionCreationBlockNumber = offer.approveToOpenTransactionCreationBlockNumber,
-            openingOfferState = offer.openingOfferState,
-            openingOfferTransactionHash = offer.openingOfferTransactionHash,
-            openingOfferTransactionCreationTime = offer.openingOfferTransactionCreationTime,
-            openingOfferTransactionCreationBlockNumber = offer.openingOfferTransactionCreationBlockNumber,
-            cancelingOfferState = offer.cancelingOfferState,
-            offerCancellationTransactionHash = offer.offerCancellationTransactionHash,
-            offerCancellationTransactionCreationTime = offer.offerCancellationTransactionCreationTime,
-            offerCancellationTransactionCreationBlockNumber = offer.offerCancellationTransactionCreationBlockNumber,
-            editingOfferState = offer.editingOfferState,
-            offerEditingTransactionHash = offer.offerEditingTransactionHash,
-            offerEditingTransactionCreationTime = offer.offerEditingTransactionCreationTime,
-            offerEditingTransactionCreationBlockNumber = offer.offerEditingTransactionCreationBlockNumber,
-            approveToTakeState = offer.approveToTakeState,
-            approveToTakeTransactionHash = offer.approveToTakeTransactionHash,
-            approveToTakeTransactionCreationTime = offer.approveToTakeTransactionCreationTime,
-            approveToTakeTransactionCreationBlockNumber = offer.approveToTakeTransactionCreationBlockNumber,
-            takingOfferState = offer.takingOfferState,
-            takingOfferTransactionHash = offer.takingOfferTransactionHash,
-            takingOfferTransactionCreationTime = offer.takingOfferTransactionCreationTime,
-            takingOfferTransactionCreationBlockNumber = offer.takingOfferTransactionCreationBlockNumber,
-        )
+    internal fun selectAllStablecoinMetadata(): List<StablecoinMetadata> {
+        return readOnlyQuery.selectAllStablecoinMetadata().executeAsList()
+    }
+
+    /**
+     * Returns every [PendingOffer] in the database, for all chains.
+     * @return A [List] of all [PendingOffer]s.
+     */
+    internal fun selectAllPendingOffers(): List<PendingOffer> {
+        return readOnlyQuery.selectAllPendingOffers().executeAsList()
+    }
+
+    /**
+     * Returns at most [limit] [Offer]s with offer IDs and chain IDs greater than [afterKey], in ascending order of
+     * offer ID and then chain ID.
+     * @param afterKey The offer ID and chain ID after which offers should be returned, or `null` to start with the
+     * first offer.
+     * @param limit The maximum number of offers to be returned.
+     * @return A [List] of [Offer]s ordered by offer ID and chain ID.
+     */
+    internal fun selectOffersAfterID(afterKey: Pair<UUID, BigInteger>?, limit: Long): List<Offer> {
+        return if (afterKey == null) {
+            readOnlyQuery.selectFirstOffers(limit).executeAsList()
+        } else {
+            readOnlyQuery.selectOffersAfterID(afterKey.first, afterKey.second, limit).executeAsList()
+        }
+    }
+
+    /**
+     * Returns all [OfferSettlementMethod]s with offer IDs between [firstOfferID] and [lastOfferID], inclusive, in the
+     * order in which they were inserted.
+     * @param firstOfferID The lowest offer ID associated with the settlement methods to be returned.
+     * @param lastOfferID The highest offer ID associated with the settlement methods to be returned.
+     * @return A [List] of [OfferSettlementMethod]s
+     */
+    internal fun selectOfferSettlementMethodsByOfferIDRange(
+        firstOfferID: UUID,
+        lastOfferID: UUID
+    ): List<OfferSettlementMethod> {
+        return readOnlyQuery.selectOfferSettlementMethodsByOfferIDRange(firstOfferID, lastOfferID).executeAsList()
+    }
+
+    /**
+     * Returns at most [limit] [Swap]s with swap IDs and chain IDs greater than [afterKey], in ascending order of swap
+     * ID and then chain ID.
+     * @param afterKey The swap ID and chain ID after which swaps should be returned, or `null` to start with the first
+     * swap.
+     * @param limit The maximum number of swaps to be returned.
+     * @return A [List] of [Swap]s ordered by swap ID and chain ID.
+     */
+    internal fun selectSwapsAfterID(afterKey: Pair<UUID, BigInteger>?, limit: Long): List<Swap> {
+        return if (afterKey == null) {
+            readOnlyQuery.selectFirstSwaps(limit).executeAsList()
+        } else {
+            readOnlyQuery.selectSwapsAfterID(afterKey.first, afterKey.second, limit).executeAsList()
+        }
+    }
+
+    /**
+     * Returns at most [limit] [SwapAndDispute]s with swap IDs and chain IDs greater than [afterKey], in ascending order
+     * of swap ID and then chain ID.
+     * @param afterKey The swap ID and chain ID after which SwapAndDisputes should be returned, or `null` to start with
+     * the first SwapAndDispute.
+     * @param limit The maximum number of SwapAndDisputes to be returned.
+     * @return A [List] of [SwapAndDispute]s ordered by swap ID and chain ID.
+     */
+    internal fun selectSwapAndDisputesAfterID(afterKey: Pair<UUID, BigInteger>?, limit: Long): List<SwapAndDispute> {
+        return if (afterKey == null) {
+            readOnlyQuery.selectFirstSwapAndDisputes(limit).executeAsList()
+        } else {
+            readOnlyQuery.selectSwapAndDisputesAfterID(afterKey.first, afterKey.second, limit).executeAsList()
+        }
+    }
+
+    /**
+     * Returns at most [limit] of the user's [UserSettlementMethod]s with IDs greater than [afterID], in ascending order
+     * of ID.
+     * @param afterID The ID after which settlement methods should be returned, or `null` to start with the first
+     * settlement method.
+     * @param limit The maximum number of settlement methods to be returned.
+     * @return A [List] of [UserSettlementMethod]s ordered by ID.
+     */
+    internal fun selectUserSettlementMethodsAfterID(afterID: String?, limit: Long): List<UserSettlementMethod> {
+        // Every ID is greater than the empty string
+        return readOnlyQuery.selectUserSettlementMethodsAfterID(afterID ?: "", limit).executeAsList()
+    }
+
+    /**
+     * Returns the rows of the `EntityTransaction` table describing actions performed by the transaction with the
+     * specified hash. These are found using the index on transaction hashes, rather than by scanning every offer and
+     * swap.
+     * @param transactionHash The hash of the transaction.
+     * @return A [List] of [EntityTransaction]s with transaction hashes equal to [transactionHash].
+     */
+    internal fun selectEntityTransactionsByTransactionHash(transactionHash: String): List<EntityTransaction> {
+        return readOnlyQuery.selectEntityTransactionsByTransactionHash(transactionHash).executeAsList()
+    }
+
+    /**
+     * Returns at most [limit] [ArchivedOffer]s that were archived before the one with the specified archive number,
+     * most recently archived first.
+     * @param beforeArchiveNumber The archive number before which archived offers should be returned, or `null` to start
+     * with the most recently archived offer.
+     * @param limit The maximum number of archived offers to be returned.
+     * @return A [List] of [ArchivedOffer]s in descending order of archive number.
+     */
+    internal fun selectArchivedOffersBefore(beforeArchiveNumber: Long?, limit: Long): List<ArchivedOffer> {
+        return readOnlyQuery.selectArchivedOffersBefore(beforeArchiveNumber ?: Long.MAX_VALUE, limit).executeAsList()
+    }
+
+    /**
+     * Returns at most [limit] [ArchivedSwap]s that were archived before the one with the specified archive number, most
+     * recently archived first.
+     * @param beforeArchiveNumber The archive number before which archived swaps should be returned, or `null` to start
+     * with the most recently archived swap.
+     * @param limit The maximum number of archived swaps to be returned.
+     * @return A [List] of [ArchivedSwap]s in descending order of archive number.
+     */
+    internal fun selectArchivedSwapsBefore(beforeArchiveNumber: Long?, limit: Long): List<ArchivedSwap> {
+        return readOnlyQuery.selectArchivedSwapsBefore(beforeArchiveNumber ?: Long.MAX_VALUE, limit).executeAsList()
+    }
+
+    /**
+     * Returns at most [limit] [ArchivedSwapAndDispute]s that were archived before the one with the specified archive
+     * number, most recently archived first.
+     * @param beforeArchiveNumber The archive number before which archived SwapAndDisputes should be returned, or
+     * `null` to start with the most recently archived SwapAndDispute.
+     * @param limit The maximum number of archived SwapAndDisputes to be returned.
+     * @return A [List] of [ArchivedSwapAndDispute]s in descending order of archive number.
+     */
+    internal fun selectArchivedSwapAndDisputesBefore(
+        beforeArchiveNumber: Long?,
+        limit: Long
+    ): List<ArchivedSwapAndDispute> {
+        return readOnlyQuery.selectArchivedSwapAndDisputesBefore(beforeArchiveNumber ?: Long.MAX_VALUE, limit)
+            .executeAsList()
+    }
+
+    /**
+     * Inserts an [Offer] into the database, unless an offer with the same ID and chain ID is already present. The state
+     * and transaction data of each of the offer's actions that has begun are stored in the `EntityTransaction` table,
+     * in the same transaction as the rest of the offer.
+     * @param offer The [Offer] to be inserted in the database.
+     * @return `true` if [offer] was inserted, or `false` if an offer with the same ID and chain ID was already present,
+     * in which case the database is not changed.
+     */
+    internal fun insertOffer(offer: Offer): Boolean {
+        return dbQuery.transactionWithResult {
+            dbQuery.insertOfferRecord(
+                id = offer.id,
+                isCreated = offer.isCreated,
+                isTaken = offer.isTaken,
+                maker = offer.maker,
+                interfaceId = offer.interfaceId,
+                stablecoin = offer.stablecoin,
+                amountLowerBound = offer.amountLowerBound,
+                amountUpperBound = offer.amountUpperBound,
+                securityDepositAmount = offer.securityDepositAmount,
+                serviceFeeRate = offer.serviceFeeRate,
+                onChainDirection = offer.onChainDirection,
+                protocolVersion = offer.protocolVersion,
+                chainID = offer.chainID,
+                havePublicKey = offer.havePublicKey,
+                isUserMaker = offer.isUserMaker,
+                state = offer.state
+            )
+            if (!lastStatementChangedRows()) {
+                return@transactionWithResult false
+            }
+            insertEntityTransaction(
+                entityID = offer.id,
+                chainID = offer.chainID,
+                action = EntityTransactionAction.APPROVE_TO_OPEN,
+                state = offer.approveToOpenState,
+                transactionHash = offer.approveToOpenTransactionHash,
+                transactionCreationTime = offer.approveToOpenTransactionCreationTime,
+                transactionCreationBlockNumber = offer.approveToOpenTransactionCreationBlockNumber
+            )
+            insertEntityTransaction(
+                entityID = offer.id,
+                chainID = offer.chainID,
+                action = EntityTransactionAction.OPENING_OFFER,
+                state = offer.openingOfferState,
+                transactionHash = offer.openingOfferTransactionHash,
+                transactionCreationTime = offer.openingOfferTransactionCreationTime,
+                transactionCreationBlockNumber = offer.openingOfferTransactionCreationBlockNumber
+            )
+            insertEntityTransaction(
+                entityID = offer.id,
+                chainID = offer.chainID,
+                action = EntityTransactionAction.CANCELING_OFFER,
+                state = offer.cancelingOfferState,
+                transactionHash = offer.offerCancellationTransactionHash,
+                transactionCreationTime = offer.offerCancellationTransactionCreationTime,
+                transactionCreationBlockNumber = offer.offerCancellationTransactionCreationBlockNumber
+            )
+            insertEntityTransaction(
+                entityID = offer.id,
+                chainID = offer.chainID,
+                action = EntityTransactionAction.EDITING_OFFER,
+                state = offer.editingOfferState,
+                transactionHash = offer.offerEditingTransactionHash,
+                transactionCreationTime = offer.offerEditingTransactionCreationTime,
+                transactionCreationBlockNumber = offer.offerEditingTransactionCreationBlockNumber
+            )
+            insertEntityTransaction(
+                entityID = offer.id,
+                chainID = offer.chainID,
+                action = EntityTransactionAction.APPROVE_TO_TAKE,
+                state = offer.approveToTakeState,
+                transactionHash = offer.approveToTakeTransactionHash,
+                transactionCreationTime = offer.approveToTakeTransactionCreationTime,
+                transactionCreationBlockNumber = offer.approveToTakeTransactionCreationBlockNumber
+            )
+            insertEntityTransaction(
+                entityID = offer.id,
+                chainID = offer.chainID,
+                action = EntityTransactionAction.TAKING_OFFER,
+                state = offer.takingOfferState,
+                transactionHash = offer.takingOfferTransactionHash,
+                transactionCreationTime = offer.takingOfferTransactionCreationTime,
+                transactionCreationBlockNumber = offer.takingOfferTransactionCreationBlockNumber
+            )
+            true
+        }
     }
 
     /**
-     * Inserts a [OfferSettlementMethod] into the database table of offers' settlement methods.
+     * Inserts a [OfferSettlementMethod] into the database table of offers' settlement methods, or replaces the private
+     * data of the settlement method with the same offer ID, chain ID and public data if one is already present.
      * @param settlementMethod The [OfferSettlementMethod] to be inserted in the database.
      */
     internal fun insertOfferSettlementMethod(settlementMethod: OfferSettlementMethod) {
@@ -188,13 +801,14 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
             id = settlementMethod.id,
             chainID = settlementMethod.chainID,
             settlementMethod = settlementMethod.settlementMethod,
-            privateData = settlementMethod.privateData,
-            privateDataInitializationVector = settlementMethod.privateDataInitializationVector
+            privateData = settlementMethod.privateData
         )
     }
 
     /**
-     * Inserts a [OfferSettlementMethod] into the database table of offers' pending settlement methods.
+     * Inserts a [OfferSettlementMethod] into the database table of offers' pending settlement methods, or replaces the
+     * private data of the pending settlement method with the same offer ID, chain ID and public data if one is already
+     * present.
      * @param pendingSettlementMethod The [OfferSettlementMethod] to be inserted into the database.
      */
     internal fun insertPendingOfferSettlementMethod(pendingSettlementMethod: OfferSettlementMethod) {
@@ -202,166 +816,280 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
             id = pendingSettlementMethod.id,
             chainID = pendingSettlementMethod.chainID,
             settlementMethod = pendingSettlementMethod.settlementMethod,
-            privateData = pendingSettlementMethod.privateData,
-            privateDataInitializationVector = pendingSettlementMethod.privateDataInitializationVector
+            privateData = pendingSettlementMethod.privateData
         )
     }
 
     /**
-     * Inserts a [KeyPair] into the database.
+     * Inserts a [KeyPair] into the database, unless a key pair with the same interface ID is already present.
      * @param keyPair The [KeyPair] to be inserted in the database.
-     */
-    internal fun insertKeyPair(keyPair: KeyPair) {
-        dbQuery.insertKeyPair(
-            interfaceId = keyPair.interfaceId,
-            publicKey = keyPair.publicKey,
-            privateKey = keyPair.privateKey,
-        )
+     * @return `true` if [keyPair] was inserted, or `false` if a key pair with the same interface ID was already
+     * present.
+     */
+    internal fun insertKeyPair(keyPair: KeyPair): Boolean {
+        return dbQuery.transactionWithResult {
+            dbQuery.insertKeyPair(
+                interfaceId = keyPair.interfaceId,
+                publicKey = keyPair.publicKey,
+                privateKey = keyPair.privateKey,
+            )
+            lastStatementChangedRows()
+        }
     }
 
     /**
-     * Inserts a [PublicKey] into the database.
+     * Inserts a [PublicKey] into the database, unless a public key with the same interface ID is already present.
      * @param publicKey The [PublicKey] to be inserted in the database.
+     * @return `true` if [publicKey] was inserted, or `false` if a public key with the same interface ID was already
+     * present.
+     */
+    internal fun insertPublicKey(publicKey: PublicKey): Boolean {
+        return dbQuery.transactionWithResult {
+            dbQuery.insertPublicKey(
+                interfaceId = publicKey.interfaceId,
+                publicKey = publicKey.publicKey,
+            )
+            lastStatementChangedRows()
+        }
+    }
+
+    /**
+     * Inserts [StablecoinMetadata]s into the database in a single transaction, skipping each one for which metadata
+     * with the same chain ID and contract address is already present.
+     * @param metadata The [StablecoinMetadata]s to be inserted in the database.
      */
-    internal fun insertPublicKey(publicKey: PublicKey) {
-        dbQuery.insertPublicKey(
-            interfaceId = publicKey.interfaceId,
-            publicKey = publicKey.publicKey,
-        )
+    internal fun insertStablecoinMetadata(metadata: List<StablecoinMetadata>) {
+        dbQuery.transaction {
+            metadata.forEach {
+                dbQuery.insertStablecoinMetadata(
+                    chainID = it.chainID,
+                    contractAddress = it.contractAddress,
+                    currencyCode = it.currencyCode,
+                    name = it.name,
+                    decimals = it.decimals,
+                )
+            }
+        }
     }
 
     /**
-     * Inserts a [Swap] into the database.
+     * Inserts a [Swap] into the database, unless a swap with the same ID and chain ID is already present. The state and
+     * transaction data of each of the swap's actions that has begun are stored in the `EntityTransaction` table, in the
+     * same transaction as the rest of the swap.
      * @param swap The [Swap] to be inserted into the database.
+     * @return `true` if [swap] was inserted, or `false` if a swap with the same ID and chain ID was already present, in
+     * which case the database is not changed.
+     */
+    internal fun insertSwap(swap: Swap): Boolean {
+        return dbQuery.transactionWithResult {
+            dbQuery.insertSwapRecord(
+                id = swap.id,
+                isCreated = swap.isCreated,
+                requiresFill = swap.requiresFill,
+                maker = swap.maker,
+                makerInterfaceID = swap.makerInterfaceID,
+                taker = swap.taker,
+                takerInterfaceID = swap.takerInterfaceID,
+                stablecoin = swap.stablecoin,
+                amountLowerBound = swap.amountLowerBound,
+                amountUpperBound = swap.amountUpperBound,
+                securityDepositAmount = swap.securityDepositAmount,
+                takenSwapAmount = swap.takenSwapAmount,
+                serviceFeeAmount = swap.serviceFeeAmount,
+                serviceFeeRate = swap.serviceFeeRate,
+                onChainDirection = swap.onChainDirection,
+                settlementMethod = swap.settlementMethod,
+                makerPrivateData = swap.makerPrivateData,
+                takerPrivateData = swap.takerPrivateData,
+                protocolVersion = swap.protocolVersion,
+                isPaymentSent = swap.isPaymentSent,
+                isPaymentReceived = swap.isPaymentReceived,
+                hasBuyerClosed = swap.hasBuyerClosed,
+                hasSellerClosed = swap.hasSellerClosed,
+                disputeRaiser = swap.disputeRaiser,
+                chainID = swap.chainID,
+                state = swap.state,
+                role = swap.role,
+                disputeState = swap.disputeState
+            )
+            if (!lastStatementChangedRows()) {
+                return@transactionWithResult false
+            }
+            insertEntityTransaction(
+                entityID = swap.id,
+                chainID = swap.chainID,
+                action = EntityTransactionAction.APPROVE_TO_FILL,
+                state = swap.approveToFillState,
+                transactionHash = swap.approveToFillTransactionHash,
+                transactionCreationTime = swap.approveToFillTransactionCreationTime,
+                transactionCreationBlockNumber = swap.approveToFillTransactionCreationBlockNumber
+            )
+            insertEntityTransaction(
+                entityID = swap.id,
+                chainID = swap.chainID,
+                action = EntityTransactionAction.FILLING_SWAP,
+                state = swap.fillingSwapState,
+                transactionHash = swap.fillingSwapTransactionHash,
+                transactionCreationTime = swap.fillingSwapTransactionCreationTime,
+                transactionCreationBlockNumber = swap.fillingSwapTransactionCreationBlockNumber
+            )
+            insertEntityTransaction(
+                entityID = swap.id,
+                chainID = swap.chainID,
+                action = EntityTransactionAction.REPORT_PAYMENT_SENT,
+                state = swap.reportPaymentSentState,
+                transactionHash = swap.reportPaymentSentTransactionHash,
+                transactionCreationTime = swap.reportPaymentSentTransactionCreationTime,
+                transactionCreationBlockNumber = swap.reportPaymentSentTransactionCreationBlockNumber
+            )
+            insertEntityTransaction(
+                entityID = swap.id,
+                chainID = swap.chainID,
+                action = EntityTransactionAction.REPORT_PAYMENT_RECEIVED,
+                state = swap.reportPaymentReceivedState,
+                transactionHash = swap.reportPaymentReceivedTransactionHash,
+                transactionCreationTime = swap.reportPaymentReceivedTransactionCreationTime,
+                transactionCreationBlockNumber = swap.reportPaymentReceivedTransactionCreationBlockNumber
+            )
+            insertEntityTransaction(
+                entityID = swap.id,
+                chainID = swap.chainID,
+                action = EntityTransactionAction.CLOSE_SWAP,
+                state = swap.closeSwapState,
+                transactionHash = swap.closeSwapTransactionHash,
+                transactionCreationTime = swap.closeSwapTransactionCreationTime,
+                transactionCreationBlockNumber = swap.closeSwapTransactionCreationBlockNumber
+            )
+            insertEntityTransaction(
+                entityID = swap.id,
+                chainID = swap.chainID,
+                action = EntityTransactionAction.RAISING_DISPUTE,
+                state = swap.raisingDisputeState,
+                transactionHash = swap.raisingDisputeTransactionHash,
+                transactionCreationTime = swap.raisingDisputeTransactionCreationTime,
+                transactionCreationBlockNumber = swap.raisingDisputeTransactionCreationBlockNumber
+            )
+            true
+        }
+    }
+
+    /**
+     * Returns whether the last INSERT, UPDATE or DELETE statement executed with [dbQuery] changed any rows. An INSERT
+     * with an `ON CONFLICT DO NOTHING` clause changes no rows when it conflicts with an existing row. This must be
+     * called in the same transaction as the statement, so that no other statement runs in between.
      */
-    internal fun insertSwap(swap: Swap) {
-        dbQuery.insertSwap(
-            id = swap.id,
-            isCreated = swap.isCreated,
-            requiresFill = swap.requiresFill,
-            maker = swap.maker,
-            makerInterfaceID = swap.makerInterfaceID,
-            taker = swap.taker,
-            takerInterfaceID = swap.takerInterfaceID,
-            stablecoin = swap.stablecoin,
-            amountLowerBound = swap.amountLowerBound,
-            amountUpperBound = swap.amountUpperBound,
-            securityDepositAmount = swap.securityDepositAmount,
-            takenSwapAmount = swap.takenSwapAmount,
-            serviceFeeAmount = swap.serviceFeeAmount,
-            serviceFeeRate = swap.serviceFeeRate,
-            onChainDirection = swap.onChainDirection,
-            settlementMethod = swap.settlementMethod,
-            makerPrivateData = swap.makerPrivateData,
-            makerPrivateDataInitializationVector = swap.makerPrivateDataInitializationVector,
-            takerPrivateData = swap.takerPrivateData,
-            takerPrivateDataInitializationVector = swap.takerPrivateDataInitializationVector,
-            protocolVersion = swap.protocolVersion,
-            isPaymentSent = swap.isPaymentSent,
-            isPaymentReceived = swap.isPaymentReceived,
-            hasBuyerClosed = swap.hasBuyerClosed,
-            hasSellerClosed = swap.hasSellerClosed,
-            disputeRaiser = swap.disputeRaiser,
-            chainID = swap.chainID,
-            state = swap.state,
-            role = swap.role,
-            approveToFillState = swap.approveToFillState,
-            approveToFillTransactionHash = swap.approveToFillTransactionHash,
-            approveToFillTransactionCreationTime = swap.approveToFillTransactionCreationTime,
-            approveToFillTransactionCreationBlockNumber = swap.approveToFillTransactionCreationBlockNumber,
-            fillingSwapState = swap.fillingSwapState,
-            fillingSwapTransactionHash = swap.fillingSwapTransactionHash,
-            fillingSwapTransactionCreationTime = swap.fillingSwapTransactionCreationTime,
-            fillingSwapTransactionCreationBlockNumber = swap.fillingSwapTransactionCreationBlockNumber,
-            reportPaymentSentState = swap.reportPaymentSentState,
-            reportPaymentSentTransactionHash = swap.reportPaymentSentTransactionHash,
-            reportPaymentSentTransactionCreationTime = swap.reportPaymentSentTransactionCreationTime,
-            reportPaymentSentTransactionCreationBlockNumber = swap.reportPaymentSentTransactionCreationBlockNumber,
-            reportPaymentReceivedState = swap.reportPaymentReceivedState,
-            reportPaymentReceivedTransactionHash = swap.reportPaymentReceivedTransactionHash,
-            reportPaymentReceivedTransactionCreationTime = swap.reportPaymentReceivedTransactionCreationTime,
-            reportPaymentReceivedTransactionCreationBlockNumber = swap
-                .reportPaymentReceivedTransactionCreationBlockNumber,
-            closeSwapState = swap.closeSwapState,
-            closeSwapTransactionHash = swap.closeSwapTransactionHash,
-            closeSwapTransactionCreationTime = swap.closeSwapTransactionCreationTime,
-            closeSwapTransactionCreationBlockNumber = swap.closeSwapTransactionCreationBlockNumber,
-            disputeState = swap.disputeState,
-            raisingDisputeState = swap.raisingDisputeState,
-            raisingDisputeTransactionHash = swap.raisingDisputeTransactionHash,
-            raisingDisputeTransactionCreationTime = swap.raisingDisputeTransactionCreationTime,
-            raisingDisputeTransactionCreationBlockNumber = swap.raisingDisputeTransactionCreationBlockNumber,
-        )
+    private fun lastStatementChangedRows(): Boolean {
+        return dbQuery.selectChanges().executeAsOne() > 0L
     }
 
     /**
-     * Inserts a [SwapAndDispute] into the database.
-     * @param swapAndDispute The [SwapAndDispute] to be inserted into the database.
+     * Inserts a row describing an action of an offer or swap into the `EntityTransaction` table, unless the action has
+     * not begun, meaning that [state] is [NO_ACTION_STATE] and there is no transaction data. The `Offer` and `Swap`
+     * views report such actions without storing a row for them.
+     * @param entityID The ID of the offer or swap to which the action belongs.
+     * @param chainID The ID of the blockchain on which the offer or swap exists.
+     * @param action The [EntityTransactionAction] describing the action.
+     * @param state The state of the action.
+     * @param transactionHash The hash of the transaction that performs the action, if any.
+     * @param transactionCreationTime The creation time of the transaction that performs the action, if any.
+     * @param transactionCreationBlockNumber The creation block number of the transaction that performs the action, if
+     * any.
      */
-    internal fun insertSwapAndDispute(swapAndDispute: SwapAndDispute) {
-        dbQuery.insertSwapAndDispute(
-            id = swapAndDispute.id,
-            isCreated = swapAndDispute.isCreated,
-            requiresFill = swapAndDispute.requiresFill,
-            maker = swapAndDispute.maker,
-            makerInterfaceID = swapAndDispute.makerInterfaceID,
-            taker = swapAndDispute.taker,
-            takerInterfaceID = swapAndDispute.takerInterfaceID,
-            stablecoin = swapAndDispute.stablecoin,
-            amountLowerBound = swapAndDispute.amountLowerBound,
-            amountUpperBound = swapAndDispute.amountUpperBound,
-            securityDepositAmount = swapAndDispute.securityDepositAmount,
-            takenSwapAmount = swapAndDispute.takenSwapAmount,
-            serviceFeeAmount = swapAndDispute.serviceFeeAmount,
-            serviceFeeRate = swapAndDispute.serviceFeeRate,
-            onChainDirection = swapAndDispute.onChainDirection,
-            settlementMethod = swapAndDispute.settlementMethod,
-            protocolVersion = swapAndDispute.protocolVersion,
-            isPaymentSent = swapAndDispute.isPaymentSent,
-            isPaymentReceived = swapAndDispute.isPaymentReceived,
-            hasBuyerClosed = swapAndDispute.hasBuyerClosed,
-            hasSellerClosed = swapAndDispute.hasSellerClosed,
-            disputeRaiser = swapAndDispute.disputeRaiser,
-            chainID = swapAndDispute.chainID,
-            disputeRaisedBlockNumber = swapAndDispute.disputeRaisedBlockNumber,
-            disputeAgent0 = swapAndDispute.disputeAgent0,
-            disputeAgent1 = swapAndDispute.disputeAgent1,
-            disputeAgent2 = swapAndDispute.disputeAgent2,
-            hasDisputeAgent0Proposed = swapAndDispute.hasDisputeAgent0Proposed,
-            disputeAgent0MakerPayout = swapAndDispute.disputeAgent0MakerPayout,
-            disputeAgent0TakerPayout = swapAndDispute.disputeAgent0TakerPayout,
-            disputeAgent0ConfiscationPayout = swapAndDispute.disputeAgent0ConfiscationPayout,
-            hasDisputeAgent1Proposed = swapAndDispute.hasDisputeAgent1Proposed,
-            disputeAgent1MakerPayout = swapAndDispute.disputeAgent1MakerPayout,
-            disputeAgent1TakerPayout = swapAndDispute.disputeAgent1TakerPayout,
-            disputeAgent1ConfiscationPayout = swapAndDispute.disputeAgent0ConfiscationPayout,
-            hasDisputeAgent2Proposed = swapAndDispute.hasDisputeAgent2Proposed,
-            disputeAgent2MakerPayout = swapAndDispute.disputeAgent2MakerPayout,
-            disputeAgent2TakerPayout = swapAndDispute.disputeAgent2TakerPayout,
-            disputeAgent2ConfiscationPayout = swapAndDispute.disputeAgent2ConfiscationPayout,
-            matchingProposals = swapAndDispute.matchingProposals,
-            makerReaction = swapAndDispute.makerReaction,
-            takerReaction = swapAndDispute.takerReaction,
-            onChainState = swapAndDispute.onChainState,
-            hasMakerPaidOut = swapAndDispute.hasMakerPaidOut,
-            hasTakerPaidOut = swapAndDispute.hasTakerPaidOut,
-            totalWithoutSpentServiceFees = swapAndDispute.totalWithoutSpentServiceFees,
-            role = swapAndDispute.role,
-            disputeAgent0InterfaceID = swapAndDispute.disputeAgent0InterfaceID,
-            disputeAgent1InterfaceID = swapAndDispute.disputeAgent1InterfaceID,
-            disputeAgent2InterfaceID = swapAndDispute.disputeAgent2InterfaceID,
-            state = swapAndDispute.state,
-            makerCommunicationKey = swapAndDispute.makerCommunicationKey,
-            mCKInitializationVector = swapAndDispute.mCKInitializationVector,
-            takerCommunicationKey = swapAndDispute.takerCommunicationKey,
-            tCKInitializationVector = swapAndDispute.tCKInitializationVector,
-            disputeAgentCommunicationKey = swapAndDispute.disputeAgentCommunicationKey,
-            dACKInitializationVector = swapAndDispute.dACKInitializationVector,
-            sentKeyToMaker = swapAndDispute.sentKeyToMaker,
-            sentKeyToTaker = swapAndDispute.sentKeyToTaker,
+    private fun insertEntityTransaction(
+        entityID: UUID,
+        chainID: BigInteger,
+        action: EntityTransactionAction,
+        state: String,
+        transactionHash: String?,
+        transactionCreationTime: String?,
+        transactionCreationBlockNumber: Long?
+    ) {
+        if (state == NO_ACTION_STATE && transactionHash == null && transactionCreationTime == null &&
+            transactionCreationBlockNumber == null) {
+            return
+        }
+        dbQuery.insertEntityTransaction(
+            entityID = entityID,
+            chainID = chainID,
+            actionType = action.asString,
+            state = state,
+            transactionHash = transactionHash,
+            transactionCreationTime = transactionCreationTime,
+            transactionCreationBlockNumber = transactionCreationBlockNumber
         )
     }
 
+    /**
+     * Inserts a [SwapAndDispute] into the database, unless a [SwapAndDispute] with the same ID and chain ID is already
+     * present.
+     * @param swapAndDispute The [SwapAndDispute] to be inserted into the database.
+     * @return `true` if [swapAndDispute] was inserted, or `false` if a [SwapAndDispute] with the same ID and chain ID
+     * was already present.
+     */
+    internal fun insertSwapAndDispute(swapAndDispute: SwapAndDispute): Boolean {
+        return dbQuery.transactionWithResult {
+            dbQuery.insertSwapAndDispute(
+                id = swapAndDispute.id,
+                isCreated = swapAndDispute.isCreated,
+                requiresFill = swapAndDispute.requiresFill,
+                maker = swapAndDispute.maker,
+                makerInterfaceID = swapAndDispute.makerInterfaceID,
+                taker = swapAndDispute.taker,
+                takerInterfaceID = swapAndDispute.takerInterfaceID,
+                stablecoin = swapAndDispute.stablecoin,
+                amountLowerBound = swapAndDispute.amountLowerBound,
+                amountUpperBound = swapAndDispute.amountUpperBound,
+                securityDepositAmount = swapAndDispute.securityDepositAmount,
+                takenSwapAmount = swapAndDispute.takenSwapAmount,
+                serviceFeeAmount = swapAndDispute.serviceFeeAmount,
+                serviceFeeRate = swapAndDispute.serviceFeeRate,
+                onChainDirection = swapAndDispute.onChainDirection,
+                settlementMethod = swapAndDispute.settlementMethod,
+                protocolVersion = swapAndDispute.protocolVersion,
+                isPaymentSent = swapAndDispute.isPaymentSent,
+                isPaymentReceived = swapAndDispute.isPaymentReceived,
+                hasBuyerClosed = swapAndDispute.hasBuyerClosed,
+                hasSellerClosed = swapAndDispute.hasSellerClosed,
+                disputeRaiser = swapAndDispute.disputeRaiser,
+                chainID = swapAndDispute.chainID,
+                disputeRaisedBlockNumber = swapAndDispute.disputeRaisedBlockNumber,
+                disputeAgent0 = swapAndDispute.disputeAgent0,
+                disputeAgent1 = swapAndDispute.disputeAgent1,
+                disputeAgent2 = swapAndDispute.disputeAgent2,
+                hasDisputeAgent0Proposed = swapAndDispute.hasDisputeAgent0Proposed,
+                disputeAgent0MakerPayout = swapAndDispute.disputeAgent0MakerPayout,
+                disputeAgent0TakerPayout = swapAndDispute.disputeAgent0TakerPayout,
+                disputeAgent0ConfiscationPayout = swapAndDispute.disputeAgent0ConfiscationPayout,
+                hasDisputeAgent1Proposed = swapAndDispute.hasDisputeAgent1Proposed,
+                disputeAgent1MakerPayout = swapAndDispute.disputeAgent1MakerPayout,
+                disputeAgent1TakerPayout = swapAndDispute.disputeAgent1TakerPayout,
+                disputeAgent1ConfiscationPayout = swapAndDispute.disputeAgent0ConfiscationPayout,
+                hasDisputeAgent2Proposed = swapAndDispute.hasDisputeAgent2Proposed,
+                disputeAgent2MakerPayout = swapAndDispute.disputeAgent2MakerPayout,
+                disputeAgent2TakerPayout = swapAndDispute.disputeAgent2TakerPayout,
+                disputeAgent2ConfiscationPayout = swapAndDispute.disputeAgent2ConfiscationPayout,
+                matchingProposals = swapAndDispute.matchingProposals,
+                makerReaction = swapAndDispute.makerReaction,
+                takerReaction = swapAndDispute.takerReaction,
+                onChainState = swapAndDispute.onChainState,
+                hasMakerPaidOut = swapAndDispute.hasMakerPaidOut,
+                hasTakerPaidOut = swapAndDispute.hasTakerPaidOut,
+                totalWithoutSpentServiceFees = swapAndDispute.totalWithoutSpentServiceFees,
+                role = swapAndDispute.role,
+                disputeAgent0InterfaceID = swapAndDispute.disputeAgent0InterfaceID,
+                disputeAgent1InterfaceID = swapAndDispute.disputeAgent1InterfaceID,
+                disputeAgent2InterfaceID = swapAndDispute.disputeAgent2InterfaceID,
+                state = swapAndDispute.state,
+                makerCommunicationKey = swapAndDispute.makerCommunicationKey,
+                takerCommunicationKey = swapAndDispute.takerCommunicationKey,
+                disputeAgentCommunicationKey = swapAndDispute.disputeAgentCommunicationKey,
+                sentKeyToMaker = swapAndDispute.sentKeyToMaker,
+                sentKeyToTaker = swapAndDispute.sentKeyToTaker,
+            )
+            lastStatementChangedRows()
+        }
+    }
+
     /**
      * Inserts a [UserSettlementMethod] into the database table of the user's settlement methods.
      * @param settlementMethod The [UserSettlementMethod] to be inserted in the database.
@@ -370,8 +1098,7 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
         dbQuery.insertUserSettlementMethod(
             settlementMethodID = settlementMethod.settlementMethodID,
             settlementMethod = settlementMethod.settlementMethod,
-            privateData = settlementMethod.privateData,
-            privateDataInitializationVector = settlementMethod.privateDataInitializationVector
+            privateData = settlementMethod.privateData
         )
     }
 
@@ -381,7 +1108,7 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param chainID The ID of the blockchain on which [Offer] to be updated exists.
      * @param havePublicKey The new value of the [Offer.havePublicKey] property.
      */
-    internal fun updateOfferHavePublicKey(offerID: String, chainID: String, havePublicKey: Long) {
+    internal fun updateOfferHavePublicKey(offerID: UUID, chainID: BigInteger, havePublicKey: Long) {
         dbQuery.updateOfferHavePublicKeyByOfferIDAndChainID(
             havePublicKey = havePublicKey,
             id = offerID,
@@ -395,7 +1122,7 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param chainID The ID of the blockchain on which the [Offer] to be updated exists.
      * @param state The new value of the [Offer.state] property.
      */
-    internal fun updateOfferState(offerID: String, chainID: String, state: String) {
+    internal fun updateOfferState(offerID: UUID, chainID: BigInteger, state: String) {
         dbQuery.updateOfferStateByOfferIDAndChainID(
             state = state,
             id = offerID,
@@ -409,11 +1136,12 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param chainID The ID of the blockchain on which the [Offer] to be updated exists.
      * @param state The new value of the [Offer.approveToOpenState] property.
      */
-    internal fun updateOfferApproveToOpenState(offerID: String, chainID: String, state: String) {
-        dbQuery.updateOfferApproveToOpenStateByOfferIDAndChainID(
-            approveToOpenState = state,
-            id = offerID,
-            chainID = chainID
+    internal fun updateOfferApproveToOpenState(offerID: UUID, chainID: BigInteger, state: String) {
+        dbQuery.upsertEntityTransactionState(
+            entityID = offerID,
+            chainID = chainID,
+            actionType = EntityTransactionAction.APPROVE_TO_OPEN.asString,
+            state = state
         )
     }
 
@@ -428,18 +1156,19 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param blockNumber The new value of the [Offer.approveToOpenTransactionCreationBlockNumber] property.
      */
     internal fun updateOfferApproveToOpenData(
-        offerID: String,
-        chainID: String,
+        offerID: UUID,
+        chainID: BigInteger,
         transactionHash: String?,
         creationTime: String?,
         blockNumber: Long?
     ) {
-        dbQuery.updateOfferApproveToOpenDataByOfferIDAndChainID(
-            approveToOpenTransactionHash = transactionHash,
-            approveToOpenTransactionCreationTime = creationTime,
-            approveToOpenTransactionCreationBlockNumber = blockNumber,
-            id = offerID,
-            chainID = chainID
+        dbQuery.upsertEntityTransactionData(
+            entityID = offerID,
+            chainID = chainID,
+            actionType = EntityTransactionAction.APPROVE_TO_OPEN.asString,
+            transactionHash = transactionHash,
+            transactionCreationTime = creationTime,
+            transactionCreationBlockNumber = blockNumber
         )
     }
 
@@ -449,11 +1178,12 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param chainID The ID of the blockchain on which the [Offer] to be updated exists.
      * @param state The new value of the [Offer.openingOfferState] property.
      */
-    internal fun updateOpeningOfferState(offerID: String, chainID: String, state: String) {
-        dbQuery.updateOpeningOfferStateByOfferIDAndChainID(
-            openingOfferState = state,
-            id = offerID,
-            chainID = chainID
+    internal fun updateOpeningOfferState(offerID: UUID, chainID: BigInteger, state: String) {
+        dbQuery.upsertEntityTransactionState(
+            entityID = offerID,
+            chainID = chainID,
+            actionType = EntityTransactionAction.OPENING_OFFER.asString,
+            state = state
         )
     }
 
@@ -468,18 +1198,19 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param blockNumber The new value of the [Offer.openingOfferTransactionCreationBlockNumber] property.
      */
     internal fun updateOpeningOfferData(
-        offerID: String,
-        chainID: String,
+        offerID: UUID,
+        chainID: BigInteger,
         transactionHash: String?,
         creationTime: String?,
         blockNumber: Long?
     ) {
-        dbQuery.updateOpeningOfferDataByOfferIDAndChainID(
-            openingOfferTransactionHash = transactionHash,
-            openingOfferTransactionCreationTime = creationTime,
-            openingOfferTransactionCreationBlockNumber = blockNumber,
-            id = offerID,
-            chainID = chainID
+        dbQuery.upsertEntityTransactionData(
+            entityID = offerID,
+            chainID = chainID,
+            actionType = EntityTransactionAction.OPENING_OFFER.asString,
+            transactionHash = transactionHash,
+            transactionCreationTime = creationTime,
+            transactionCreationBlockNumber = blockNumber
         )
     }
 
@@ -489,11 +1220,12 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param chainID The ID of the blockchain on which the [Offer] to be updated exists.
      * @param state The new value of the [Offer.cancelingOfferState] property.
      */
-    internal fun updateCancelingOfferState(offerID: String, chainID: String, state: String) {
-        dbQuery.updateCancelingOfferStateByOfferIDAndChainID(
-            cancelingOfferState = state,
-            id = offerID,
-            chainID = chainID
+    internal fun updateCancelingOfferState(offerID: UUID, chainID: BigInteger, state: String) {
+        dbQuery.upsertEntityTransactionState(
+            entityID = offerID,
+            chainID = chainID,
+            actionType = EntityTransactionAction.CANCELING_OFFER.asString,
+            state = state
         )
     }
 
@@ -508,18 +1240,19 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param blockNumber The new value of the [Offer.offerCancellationTransactionCreationBlockNumber] property.
      */
     internal fun updateOfferCancellationData(
-        offerID: String,
-        chainID: String,
+        offerID: UUID,
+        chainID: BigInteger,
         transactionHash: String?,
         creationTime: String?,
         blockNumber: Long?
     ) {
-        dbQuery.updateOfferCancellationDataByOfferIDAndChainID(
-            offerCancellationTransactionHash = transactionHash,
-            offerCancellationTransactionCreationTime = creationTime,
-            offerCancellationTransactionCreationBlockNumber = blockNumber,
-            id = offerID,
-            chainID = chainID
+        dbQuery.upsertEntityTransactionData(
+            entityID = offerID,
+            chainID = chainID,
+            actionType = EntityTransactionAction.CANCELING_OFFER.asString,
+            transactionHash = transactionHash,
+            transactionCreationTime = creationTime,
+            transactionCreationBlockNumber = blockNumber
         )
     }
 
@@ -529,11 +1262,12 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param chainID The ID of the blockchain on which the [Offer] to be updated exists.
      * @param state The new value of the [Offer.editingOfferState] property.
      */
-    internal fun updateEditingOfferState(offerID: String, chainID: String, state: String) {
-        dbQuery.updateEditingOfferStateByOfferIDAndChainID(
-            editingOfferState = state,
-            id = offerID,
-            chainID = chainID
+    internal fun updateEditingOfferState(offerID: UUID, chainID: BigInteger, state: String) {
+        dbQuery.upsertEntityTransactionState(
+            entityID = offerID,
+            chainID = chainID,
+            actionType = EntityTransactionAction.EDITING_OFFER.asString,
+            state = state
         )
     }
 
@@ -548,18 +1282,19 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param blockNumber The new value of the [Offer.offerEditingTransactionCreationBlockNumber] property.
      */
     internal fun updateOfferEditingData(
-        offerID: String,
-        chainID: String,
+        offerID: UUID,
+        chainID: BigInteger,
         transactionHash: String?,
         creationTime: String?,
         blockNumber: Long?
     ) {
-        dbQuery.updateOfferEditingDataByOfferIDAndChainID(
-            offerEditingTransactionHash = transactionHash,
-            offerEditingTransactionCreationTime = creationTime,
-            offerEditingTransactionCreationBlockNumber = blockNumber,
-            id = offerID,
-            chainID = chainID
+        dbQuery.upsertEntityTransactionData(
+            entityID = offerID,
+            chainID = chainID,
+            actionType = EntityTransactionAction.EDITING_OFFER.asString,
+            transactionHash = transactionHash,
+            transactionCreationTime = creationTime,
+            transactionCreationBlockNumber = blockNumber
         )
     }
 
@@ -569,11 +1304,12 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param chainID The ID of the blockchain on which the [Offer] to be updated exists.
      * @param state The new value of the [Offer.approveToTakeState] property.
      */
-    internal fun updateOfferApproveToTakeState(offerID: String, chainID: String, state: String) {
-        dbQuery.updateOfferApproveToTakeStateByOfferIDAndChainID(
-            approveToTakeState = state,
-            id = offerID,
-            chainID = chainID
+    internal fun updateOfferApproveToTakeState(offerID: UUID, chainID: BigInteger, state: String) {
+        dbQuery.upsertEntityTransactionState(
+            entityID = offerID,
+            chainID = chainID,
+            actionType = EntityTransactionAction.APPROVE_TO_TAKE.asString,
+            state = state
         )
     }
 
@@ -588,18 +1324,19 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param blockNumber The new value of the [Offer.approveToTakeTransactionCreationBlockNumber] property.
      */
     internal fun updateOfferApproveToTakeData(
-        offerID: String,
-        chainID: String,
+        offerID: UUID,
+        chainID: BigInteger,
         transactionHash: String?,
         creationTime: String?,
         blockNumber: Long?
     ) {
-        dbQuery.updateOfferApproveToTakeDataByOfferIDAndChainID(
-            approveToTakeTransactionHash = transactionHash,
-            approveToTakeTransactionCreationTime = creationTime,
-            approveToTakeTransactionCreationBlockNumber = blockNumber,
-            id = offerID,
-            chainID = chainID
+        dbQuery.upsertEntityTransactionData(
+            entityID = offerID,
+            chainID = chainID,
+            actionType = EntityTransactionAction.APPROVE_TO_TAKE.asString,
+            transactionHash = transactionHash,
+            transactionCreationTime = creationTime,
+            transactionCreationBlockNumber = blockNumber
         )
     }
 
@@ -609,11 +1346,12 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param chainID The ID of the blockchain on which the [Offer] to be updated exists.
      * @param state The new value of the [Offer.takingOfferState] property.
      */
-    internal fun updateTakingOfferState(offerID: String, chainID: String, state: String) {
-        dbQuery.updateTakingOfferStateByOfferIDAndChainID(
-            takingOfferState = state,
-            id = offerID,
-            chainID = chainID
+    internal fun updateTakingOfferState(offerID: UUID, chainID: BigInteger, state: String) {
+        dbQuery.upsertEntityTransactionState(
+            entityID = offerID,
+            chainID = chainID,
+            actionType = EntityTransactionAction.TAKING_OFFER.asString,
+            state = state
         )
     }
 
@@ -628,18 +1366,19 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param blockNumber The new value of the [Offer.takingOfferTransactionCreationBlockNumber] property.
      */
     internal fun updateTakingOfferData(
-        offerID: String,
-        chainID: String,
+        offerID: UUID,
+        chainID: BigInteger,
         transactionHash: String?,
         creationTime: String?,
         blockNumber: Long?
     ) {
-        dbQuery.updateTakingOfferDataByOfferIDAndChainID(
-            takingOfferTransactionHash = transactionHash,
-            takingOfferTransactionCreationTime = creationTime,
-            takingOfferTransactionCreationBlockNumber = blockNumber,
-            id = offerID,
-            chainID = chainID
+        dbQuery.upsertEntityTransactionData(
+            entityID = offerID,
+            chainID = chainID,
+            actionType = EntityTransactionAction.TAKING_OFFER.asString,
+            transactionHash = transactionHash,
+            transactionCreationTime = creationTime,
+            transactionCreationBlockNumber = blockNumber
         )
     }
 
@@ -649,7 +1388,7 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param chainID The ID of the blockchain on which the [Swap] to be updated exists.
      * @param requiresFill The new value of the [Swap.requiresFill] property.
      */
-    internal fun updateSwapRequiresFill(swapID: String, chainID: String, requiresFill: Long) {
+    internal fun updateSwapRequiresFill(swapID: UUID, chainID: BigInteger, requiresFill: Long) {
         dbQuery.updateSwapRequiresFillBySwapIDAndChainID(
             requiresFill = requiresFill,
             id = swapID,
@@ -658,44 +1397,36 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
     }
 
     /**
-     * Updates the [Swap.makerPrivateData] and [Swap.makerPrivateDataInitializationVector] properties of the [Swap] with
-     * the specified [swapID] and [chainID].
+     * Updates the [Swap.makerPrivateData] property of the [Swap] with the specified [swapID] and [chainID].
      * @param swapID The ID of the [Swap] to be updated.
      * @param chainID The ID of the blockchain on which the [Swap] to be updated exists.
      * @param encryptedData The new value of the [Swap.makerPrivateData] property.
-     * @param initializationVector The new value of the [Swap.makerPrivateDataInitializationVector] property.
      */
     internal fun updateSwapMakerPrivateSettlementMethodData(
-        swapID: String,
-        chainID: String,
-        encryptedData: String?,
-        initializationVector: String?
+        swapID: UUID,
+        chainID: BigInteger,
+        encryptedData: ByteArray?,
     ) {
         dbQuery.updateSwapMakerPrivateSettlementMethodData(
             makerPrivateData = encryptedData,
-            makerPrivateDataInitializationVector = initializationVector,
             id = swapID,
             chainID = chainID,
         )
     }
 
     /**
-     * Updates the [Swap.takerPrivateData] and [Swap.takerPrivateDataInitializationVector] properties of the [Swap] with
-     * the specified [swapID] and [chainID].
+     * Updates the [Swap.takerPrivateData] property of the [Swap] with the specified [swapID] and [chainID].
      * @param swapID The ID of the [Swap] to be updated.
      * @param chainID The ID of the blockchain on which the [Swap] to be updated exists.
      * @param encryptedData The new value of the [Swap.takerPrivateData] property.
-     * @param initializationVector The new value of the [Swap.takerPrivateDataInitializationVector] property.
      */
     internal fun updateSwapTakerPrivateSettlementMethodData(
-        swapID: String,
-        chainID: String,
-        encryptedData: String?,
-        initializationVector: String?
+        swapID: UUID,
+        chainID: BigInteger,
+        encryptedData: ByteArray?,
     ) {
         dbQuery.updateSwapTakerPrivateSettlementMethodData(
             takerPrivateData = encryptedData,
-            takerPrivateDataInitializationVector = initializationVector,
             id = swapID,
             chainID = chainID
         )
@@ -707,7 +1438,7 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param chainID The ID of the blockchain on which the [Swap] to be updated exists.
      * @param isPaymentSent The new value of the [Swap.isPaymentSent] property.
      */
-    internal fun updateSwapIsPaymentSent(swapID: String, chainID: String, isPaymentSent: Long) {
+    internal fun updateSwapIsPaymentSent(swapID: UUID, chainID: BigInteger, isPaymentSent: Long) {
         dbQuery.updateSwapIsPaymentSentBySwapIDAndChainID(
             isPaymentSent = isPaymentSent,
             id = swapID,
@@ -721,7 +1452,7 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param chainID The ID of the blockchain on which the [Swap] to be updated exists.
      * @param isPaymentReceived The new value of the [Swap.isPaymentReceived] property.
      */
-    internal fun updateSwapIsPaymentReceived(swapID: String, chainID: String, isPaymentReceived: Long) {
+    internal fun updateSwapIsPaymentReceived(swapID: UUID, chainID: BigInteger, isPaymentReceived: Long) {
         dbQuery.updateSwapIsPaymentReceivedBySwapIDAndChainID(
             isPaymentReceived = isPaymentReceived,
             id = swapID,
@@ -735,7 +1466,7 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param chainID The ID of the blockchain on which the [Swap] to be updated exists.
      * @param hasBuyerClosed The new value of the [Swap.hasBuyerClosed] property.
      */
-    internal fun updateSwapHasBuyerClosed(swapID: String, chainID: String, hasBuyerClosed: Long) {
+    internal fun updateSwapHasBuyerClosed(swapID: UUID, chainID: BigInteger, hasBuyerClosed: Long) {
         dbQuery.updateSwapHasBuyerClosedBySwapIDAndChainID(
             hasBuyerClosed = hasBuyerClosed,
             id = swapID,
@@ -749,7 +1480,7 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param chainID The ID of the blockchain on which the [Swap] to be updated exists.
      * @param hasSellerClosed The new value of the [Swap.hasSellerClosed] property.
      */
-    internal fun updateSwapHasSellerClosed(swapID: String, chainID: String, hasSellerClosed: Long) {
+    internal fun updateSwapHasSellerClosed(swapID: UUID, chainID: BigInteger, hasSellerClosed: Long) {
         dbQuery.updateSwapHasSellerClosedBySwapIDAndChainID(
             hasSellerClosed = hasSellerClosed,
             id = swapID,
@@ -763,11 +1494,12 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param chainID The ID of the blockchain on which the [Offer] to be updated exists.
      * @param state The new value of the [Swap.approveToFillState] property.
      */
-    internal fun updateSwapApproveToFillState(swapID: String, chainID: String, state: String) {
-        dbQuery.updateSwapApproveToFillStateBySwapIDAndChainID(
-            approveToFillState = state,
-            id = swapID,
-            chainID = chainID
+    internal fun updateSwapApproveToFillState(swapID: UUID, chainID: BigInteger, state: String) {
+        dbQuery.upsertEntityTransactionState(
+            entityID = swapID,
+            chainID = chainID,
+            actionType = EntityTransactionAction.APPROVE_TO_FILL.asString,
+            state = state
         )
     }
 
@@ -782,18 +1514,19 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param blockNumber The new value of the [Swap.approveToFillTransactionCreationBlockNumber] property.
      */
     internal fun updateSwapApproveToFillData(
-        swapID: String,
-        chainID: String,
+        swapID: UUID,
+        chainID: BigInteger,
         transactionHash: String?,
         creationTime: String?,
         blockNumber: Long?
     ) {
-        dbQuery.updateSwapApproveToFillDataBySwapIDAndChainID(
-            approveToFillTransactionHash = transactionHash,
-            approveToFillTransactionCreationTime = creationTime,
-            approveToFillTransactionCreationBlockNumber = blockNumber,
-            id = swapID,
-            chainID = chainID
+        dbQuery.upsertEntityTransactionData(
+            entityID = swapID,
+            chainID = chainID,
+            actionType = EntityTransactionAction.APPROVE_TO_FILL.asString,
+            transactionHash = transactionHash,
+            transactionCreationTime = creationTime,
+            transactionCreationBlockNumber = blockNumber
         )
     }
 
@@ -803,11 +1536,12 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param chainID The ID of the blockchain on which the [Swap] to be updated exists.
      * @param state The new value of the [Swap.fillingSwapState] property.
      */
-    internal fun updateFillingSwapState(swapID: String, chainID: String, state: String) {
-        dbQuery.updateFillingSwapStateBySwapIDAndChainID(
-            fillingSwapState = state,
-            id = swapID,
-            chainID = chainID
+    internal fun updateFillingSwapState(swapID: UUID, chainID: BigInteger, state: String) {
+        dbQuery.upsertEntityTransactionState(
+            entityID = swapID,
+            chainID = chainID,
+            actionType = EntityTransactionAction.FILLING_SWAP.asString,
+            state = state
         )
     }
 
@@ -822,18 +1556,19 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param blockNumber The new value of the [Swap.fillingSwapTransactionCreationBlockNumber] property.
      */
     internal fun updateFillingSwapData(
-        swapID: String,
-        chainID: String,
+        swapID: UUID,
+        chainID: BigInteger,
         transactionHash: String?,
         creationTime: String?,
         blockNumber: Long?
     ) {
-        dbQuery.updateFillingSwapDataBySwapIDAndChainID(
-            fillingSwapTransactionHash = transactionHash,
-            fillingSwapTransactionCreationTime = creationTime,
-            fillingSwapTransactionCreationBlockNumber = blockNumber,
-            id = swapID,
-            chainID = chainID
+        dbQuery.upsertEntityTransactionData(
+            entityID = swapID,
+            chainID = chainID,
+            actionType = EntityTransactionAction.FILLING_SWAP.asString,
+            transactionHash = transactionHash,
+            transactionCreationTime = creationTime,
+            transactionCreationBlockNumber = blockNumber
         )
     }
 
@@ -843,11 +1578,12 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param chainID The ID of the blockchain on which the [Swap] to be updated exists.
      * @paran state The new value of the [Swap.reportPaymentSentState] property
      */
-    internal fun updateReportPaymentSentState(swapID: String, chainID: String, state: String) {
-        dbQuery.updateReportPaymentSentStateBySwapIDAndChainID(
-            reportPaymentSentState = state,
-            id = swapID,
-            chainID = chainID
+    internal fun updateReportPaymentSentState(swapID: UUID, chainID: BigInteger, state: String) {
+        dbQuery.upsertEntityTransactionState(
+            entityID = swapID,
+            chainID = chainID,
+            actionType = EntityTransactionAction.REPORT_PAYMENT_SENT.asString,
+            state = state
         )
     }
 
@@ -862,18 +1598,19 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param blockNumber The new value of the [Swap.reportPaymentSentTransactionCreationBlockNumber] property.
      */
     internal fun updateReportPaymentSentData(
-        swapID: String,
-        chainID: String,
+        swapID: UUID,
+        chainID: BigInteger,
         transactionHash: String?,
         creationTime: String?,
         blockNumber: Long?
     ) {
-        dbQuery.updateReportPaymentSentDataBySwapIDAndChainID(
-            reportPaymentSentTransactionHash = transactionHash,
-            reportPaymentSentTransactionCreationTime = creationTime,
-            reportPaymentSentTransactionCreationBlockNumber = blockNumber,
-            id = swapID,
-            chainID = chainID
+        dbQuery.upsertEntityTransactionData(
+            entityID = swapID,
+            chainID = chainID,
+            actionType = EntityTransactionAction.REPORT_PAYMENT_SENT.asString,
+            transactionHash = transactionHash,
+            transactionCreationTime = creationTime,
+            transactionCreationBlockNumber = blockNumber
         )
     }
 
@@ -883,11 +1620,12 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param chainID The ID of the blockchain on which the [Swap] to be updated exists.
      * @paran state The new value of the [Swap.reportPaymentReceivedState] property
      */
-    internal fun updateReportPaymentReceivedState(swapID: String, chainID: String, state: String) {
-        dbQuery.updateReportPaymentReceivedStateBySwapIDAndChainID(
-            reportPaymentReceivedState = state,
-            id = swapID,
-            chainID = chainID
+    internal fun updateReportPaymentReceivedState(swapID: UUID, chainID: BigInteger, state: String) {
+        dbQuery.upsertEntityTransactionState(
+            entityID = swapID,
+            chainID = chainID,
+            actionType = EntityTransactionAction.REPORT_PAYMENT_RECEIVED.asString,
+            state = state
         )
     }
 
@@ -902,18 +1640,19 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param blockNumber The new value of the [Swap.reportPaymentReceivedTransactionCreationBlockNumber] property.
      */
     internal fun updateReportPaymentReceivedData(
-        swapID: String,
-        chainID: String,
+        swapID: UUID,
+        chainID: BigInteger,
         transactionHash: String?,
         creationTime: String?,
         blockNumber: Long?
     ) {
-        dbQuery.updateReportPaymentReceivedDataBySwapIDAndChainID(
-            reportPaymentReceivedTransactionHash = transactionHash,
-            reportPaymentReceivedTransactionCreationTime = creationTime,
-            reportPaymentReceivedTransactionCreationBlockNumber = blockNumber,
-            id = swapID,
-            chainID = chainID
+        dbQuery.upsertEntityTransactionData(
+            entityID = swapID,
+            chainID = chainID,
+            actionType = EntityTransactionAction.REPORT_PAYMENT_RECEIVED.asString,
+            transactionHash = transactionHash,
+            transactionCreationTime = creationTime,
+            transactionCreationBlockNumber = blockNumber
         )
     }
 
@@ -923,11 +1662,12 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param chainID The ID of the blockchain on which the [Swap] to be updated exists.
      * @param state The new value of the [Swap.closeSwapState] property
      */
-    internal fun updateCloseSwapState(swapID: String, chainID: String, state: String) {
-        dbQuery.updateCloseSwapStateBySwapIDAndChainID(
-            closeSwapState = state,
-            id = swapID,
-            chainID = chainID
+    internal fun updateCloseSwapState(swapID: UUID, chainID: BigInteger, state: String) {
+        dbQuery.upsertEntityTransactionState(
+            entityID = swapID,
+            chainID = chainID,
+            actionType = EntityTransactionAction.CLOSE_SWAP.asString,
+            state = state
         )
     }
 
@@ -942,18 +1682,19 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param blockNumber The new value of the [Swap.closeSwapTransactionCreationBlockNumber] property.
      */
     internal fun updateCloseSwapData(
-        swapID: String,
-        chainID: String,
+        swapID: UUID,
+        chainID: BigInteger,
         transactionHash: String?,
         creationTime: String?,
         blockNumber: Long?
     ) {
-        dbQuery.updateCloseSwapDataBySwapIDAndChainID(
-            closeSwapTransactionHash = transactionHash,
-            closeSwapTransactionCreationTime = creationTime,
-            closeSwapTransactionCreationBlockNumber = blockNumber,
-            id = swapID,
-            chainID = chainID
+        dbQuery.upsertEntityTransactionData(
+            entityID = swapID,
+            chainID = chainID,
+            actionType = EntityTransactionAction.CLOSE_SWAP.asString,
+            transactionHash = transactionHash,
+            transactionCreationTime = creationTime,
+            transactionCreationBlockNumber = blockNumber
         )
     }
 
@@ -963,7 +1704,7 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param chainID The ID of the blockchain on which the [Swap] to be updated exists.
      * @param state The new value of the [Swap.disputeState] property.
      */
-    internal fun updateSwapDisputeState(swapID: String, chainID: String, state: String) {
+    internal fun updateSwapDisputeState(swapID: UUID, chainID: BigInteger, state: String) {
         dbQuery.updateSwapDisputeStateBySwapIDAndChainID(
             disputeState = state,
             id = swapID,
@@ -977,11 +1718,12 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param chainID The ID of the blockchain on which the [Swap] to be updated exists.
      * @param state The new value of the [Swap.raisingDisputeState] property
      */
-    internal fun updateRaisingDisputeState(swapID: String, chainID: String, state: String) {
-        dbQuery.updateRaisingDisputeStateBySwapIDAndChainID(
-            raisingDisputeState = state,
-            id = swapID,
-            chainID = chainID
+    internal fun updateRaisingDisputeState(swapID: UUID, chainID: BigInteger, state: String) {
+        dbQuery.upsertEntityTransactionState(
+            entityID = swapID,
+            chainID = chainID,
+            actionType = EntityTransactionAction.RAISING_DISPUTE.asString,
+            state = state
         )
     }
 
@@ -996,18 +1738,19 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param blockNumber The new value of the [Swap.raisingDisputeTransactionCreationBlockNumber] property.
      */
     internal fun updateRaisingDisputeData(
-        swapID: String,
-        chainID: String,
+        swapID: UUID,
+        chainID: BigInteger,
         transactionHash: String?,
         creationTime: String?,
         blockNumber: Long?
     ) {
-        dbQuery.updateRaisingDisputeDataBySwapIDAndChainID(
-            raisingDisputeTransactionHash = transactionHash,
-            raisingDisputeTransactionCreationTime = creationTime,
-            raisingDisputeTransactionCreationBlockNumber = blockNumber,
-            id = swapID,
-            chainID = chainID
+        dbQuery.upsertEntityTransactionData(
+            entityID = swapID,
+            chainID = chainID,
+            actionType = EntityTransactionAction.RAISING_DISPUTE.asString,
+            transactionHash = transactionHash,
+            transactionCreationTime = creationTime,
+            transactionCreationBlockNumber = blockNumber
         )
     }
 
@@ -1020,8 +1763,8 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param disputeAgent0InterfaceID The new value of the [SwapAndDispute.disputeAgent0InterfaceID] property.
      */
     internal fun updateSwapAndDisputeAgent0InterfaceID(
-        id: String,
-        chainID: String,
+        id: UUID,
+        chainID: BigInteger,
         disputeAgent0InterfaceID: String,
     ) {
         dbQuery.updateSwapAndDisputeAgent0InterfaceID(
@@ -1040,8 +1783,8 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param disputeAgent1InterfaceID The new value of the [SwapAndDispute.disputeAgent1InterfaceID] property.
      */
     internal fun updateSwapAndDisputeAgent1InterfaceID(
-        id: String,
-        chainID: String,
+        id: UUID,
+        chainID: BigInteger,
         disputeAgent1InterfaceID: String,
     ) {
         dbQuery.updateSwapAndDisputeAgent1InterfaceID(
@@ -1060,8 +1803,8 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param disputeAgent2InterfaceID The new value of the [SwapAndDispute.disputeAgent2InterfaceID] property.
      */
     internal fun updateSwapAndDisputeAgent2InterfaceID(
-        id: String,
-        chainID: String,
+        id: UUID,
+        chainID: BigInteger,
         disputeAgent2InterfaceID: String,
     ) {
         dbQuery.updateSwapAndDisputeAgent2InterfaceID(
@@ -1072,71 +1815,62 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
     }
 
     /**
-     * Updates the [SwapAndDispute.makerCommunicationKey] and [SwapAndDispute.mCKInitializationVector] properties of the
-     * [SwapAndDispute] with the specified [id] and [chainID].
+     * Updates the [SwapAndDispute.makerCommunicationKey] property of the [SwapAndDispute] with the specified [id] and
+     * [chainID].
      * @param id the ID of the swap corresponding to the [SwapAndDispute] to be updated.
      * @param chainID The ID of the blockchain on which the swap and dispute corresponding to the [SwapAndDispute]
      * exist.
      * @param encryptedKey The new value of the [SwapAndDispute.makerCommunicationKey] property.
-     * @param initializationVector The new value of the [SwapAndDispute.mCKInitializationVector] property.
      */
     internal fun updateSwapAndDisputeMakerCommunicationKey(
-        id: String,
-        chainID: String,
-        encryptedKey: String,
-        initializationVector: String
+        id: UUID,
+        chainID: BigInteger,
+        encryptedKey: ByteArray,
     ) {
         dbQuery.updateSwapAndDisputeMakerCommunicationKeyByIDAndChainID(
             id = id,
             chainID = chainID,
             makerCommunicationKey = encryptedKey,
-            mCKInitializationVector = initializationVector
         )
     }
 
     /**
-     * Updates the [SwapAndDispute.takerCommunicationKey] and [SwapAndDispute.tCKInitializationVector] properties of the
-     * [SwapAndDispute] with the specified [id] and [chainID].
+     * Updates the [SwapAndDispute.takerCommunicationKey] property of the [SwapAndDispute] with the specified [id] and
+     * [chainID].
      * @param id the ID of the swap corresponding to the [SwapAndDispute] to be updated.
      * @param chainID The ID of the blockchain on which the swap and dispute corresponding to the [SwapAndDispute]
      * exist.
      * @param encryptedKey The new value of the [SwapAndDispute.takerCommunicationKey] property.
-     * @param initializationVector The new value of the [SwapAndDispute.tCKInitializationVector] property.
      */
     internal fun updateSwapAndDisputeTakerCommunicationKey(
-        id: String,
-        chainID: String,
-        encryptedKey: String,
-        initializationVector: String
+        id: UUID,
+        chainID: BigInteger,
+        encryptedKey: ByteArray,
     ) {
         dbQuery.updateSwapAndDisputeTakerCommunicationKeyByIDAndChainID(
             id = id,
             chainID = chainID,
             takerCommunicationKey = encryptedKey,
-            tCKInitializationVector = initializationVector
         )
     }
 
     /**
-     * Updates the [SwapAndDispute.disputeAgentCommunicationKey] and [SwapAndDispute.dACKInitializationVector]
-     * properties of the [SwapAndDispute] with the specified [id] and [chainID].
+     * Updates the [SwapAndDispute.disputeAgentCommunicationKey] property of the [SwapAndDispute] with the specified
+     * [id] and [chainID].
      * @param id the ID of the swap corresponding to the [SwapAndDispute] to be updated.
      * @param chainID The ID of the blockchain on which the swap and dispute corresponding to the [SwapAndDispute]
      * exist.
      * @param encryptedKey The new value of the [SwapAndDispute.disputeAgentCommunicationKey] property.
-     * @param initializationVector The new value of the [SwapAndDispute.dACKInitializationVector] property.
      */
     internal fun updateSwapAndDisputeAgentCommunicationKey(
-        id: String,
-        chainID: String,
-        encryptedKey: String,
-        initializationVector: String
+        id: UUID,
+        chainID: BigInteger,
+        encryptedKey: ByteArray,
     ) {
         dbQuery.updateSwapAndDisputeAgentCommunicationKeyByIDAndChainID(
             id = id,
             chainID = chainID,
             disputeAgentCommunicationKey = encryptedKey,
-            dACKInitializationVector = initializationVector
         )
     }
 
@@ -1149,8 +1883,8 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param sentKeyToMaker The new value of the [SwapAndDispute.sentKeyToMaker] property.
      */
     internal fun updateSwapAndDisputeSentKeyToMaker(
-        id: String,
-        chainID: String,
+        id: UUID,
+        chainID: BigInteger,
         sentKeyToMaker: Long
     ) {
         dbQuery.updateSwapAndDisputeSentKeyToMakerByIDAndChainID(
@@ -1169,8 +1903,8 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param sentKeyToTaker The new value of the [SwapAndDispute.sentKeyToMaker] property.
      */
     internal fun updateSwapAndDisputeSentKeyToTaker(
-        id: String,
-        chainID: String,
+        id: UUID,
+        chainID: BigInteger,
         sentKeyToTaker: Long
     ) {
         dbQuery.updateSwapAndDisputeSentKeyToTakerByIDAndChainID(
@@ -1181,35 +1915,37 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
     }
 
     /**
-     * Updates the [UserSettlementMethod.privateData] and [UserSettlementMethod.privateDataInitializationVector]
-     * properties of the [UserSettlementMethod] with the specified [id].
+     * Updates the [UserSettlementMethod.privateData] property of the [UserSettlementMethod] with the specified [id].
      * @param id The ID of the [UserSettlementMethod] to be updated.
      * @param privateData The new value of the [UserSettlementMethod.privateData] property.
-     * @param privateDataInitializationVector The new value of the
-     * [UserSettlementMethod.privateDataInitializationVector] property.
      */
     internal fun updateUserSettlementMethod(
         id: String,
-        privateData: String?,
-        privateDataInitializationVector: String?
+        privateData: ByteArray?,
     ) {
         dbQuery.updateUserSettlementMethodByID(
             privateData = privateData,
-            privateDataInitializationVector = privateDataInitializationVector,
             settlementMethodID = id
         )
     }
 
     /**
-     * Deletes all [Offer]s with the specified offer ID and chain ID from the database.
+     * Deletes all [Offer]s with the specified offer ID and chain ID, along with the states and transaction data of
+     * their actions, from the database.
      * @param offerID The offer ID of the [Offer]s to be deleted.
      * @param chainID The blockchain ID of the [Offer]s to be deleted.
      */
-    internal fun deleteOffer(offerID: String, chainID: String) {
-        dbQuery.deleteOfferByOfferIdAndChainID(
-            id = offerID,
-            chainID = chainID
-        )
+    internal fun deleteOffer(offerID: UUID, chainID: BigInteger) {
+        dbQuery.transaction {
+            dbQuery.deleteOfferByOfferIdAndChainID(
+                id = offerID,
+                chainID = chainID
+            )
+            dbQuery.deleteOfferTransactionsByOfferIDAndChainID(
+                entityID = offerID,
+                chainID = chainID
+            )
+        }
     }
 
     /**
@@ -1218,7 +1954,7 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param chainID The ID of the blockchain on which the [Swap] to be updated exists.
      * @param state The new value of the [Swap.state] property.
      */
-    internal fun updateSwapState(swapID: String, chainID: String, state: String) {
+    internal fun updateSwapState(swapID: UUID, chainID: BigInteger, state: String) {
         dbQuery.updateSwapStateBySwapIDAndChainID(
             state = state,
             id = swapID,
@@ -1233,7 +1969,7 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * exists.
      * @param state The new value of the [SwapAndDispute.state] property.
      */
-    internal fun updateSwapAndDisputeState(id: String, chainID: String, state: String) {
+    internal fun updateSwapAndDisputeState(id: UUID, chainID: BigInteger, state: String) {
         dbQuery.updateSwapAndDisputeStateByIDAndChainID(
             state = state,
             id = id,
@@ -1241,26 +1977,66 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
         )
     }
 
+    /**
+     * Inserts a [PendingOffer] into the database, unless a [PendingOffer] with the same ID and chain ID is already
+     * present.
+     * @param pendingOffer The [PendingOffer] to be inserted in the database.
+     */
+    internal fun insertPendingOffer(pendingOffer: PendingOffer) {
+        dbQuery.insertPendingOffer(
+            id = pendingOffer.id,
+            chainID = pendingOffer.chainID,
+            interfaceID = pendingOffer.interfaceID,
+        )
+    }
+
+    /**
+     * Deletes the [PendingOffer] with the specified offer ID and blockchain ID from the database.
+     * @param offerID The offer ID of the [PendingOffer] to be deleted.
+     * @param chainID The blockchain ID of the [PendingOffer] to be deleted.
+     */
+    internal fun deletePendingOffer(offerID: UUID, chainID: BigInteger) {
+        dbQuery.deletePendingOfferByOfferIdAndChainID(
+            id = offerID,
+            chainID = chainID
+        )
+    }
+
     /**
      * Deletes all [OfferSettlementMethod]s with the specified offer ID and specified blockchain ID from the database table
      * of offers' current settlement methods.
      * @param offerID The offer ID of the [OfferSettlementMethod]s to be deleted.
      * @param chainID The blockchain ID of the [OfferSettlementMethod]s to be deleted.
      */
-    internal fun deleteOfferSettlementMethods(offerID: String, chainID: String) {
+    internal fun deleteOfferSettlementMethods(offerID: UUID, chainID: BigInteger) {
         dbQuery.deleteOfferSettlementMethodByOfferIdAndChainID(
             id = offerID,
             chainID = chainID
         )
     }
 
+    /**
+     * Deletes all [OfferSettlementMethod]s with the specified offer ID, blockchain ID and public settlement method data
+     * from the database table of offers' current settlement methods.
+     * @param offerID The offer ID of the [OfferSettlementMethod]s to be deleted.
+     * @param chainID The blockchain ID of the [OfferSettlementMethod]s to be deleted.
+     * @param settlementMethod The public settlement method data of the [OfferSettlementMethod]s to be deleted.
+     */
+    internal fun deleteOfferSettlementMethod(offerID: UUID, chainID: BigInteger, settlementMethod: String) {
+        dbQuery.deleteOfferSettlementMethodByOfferIdChainIDAndSettlementMethod(
+            id = offerID,
+            chainID = chainID,
+            settlementMethod = settlementMethod
+        )
+    }
+
     /**
      * Deletes all [OfferSettlementMethod]s with the specified offer ID and specified blockchain ID from the database table
      * of offers' pending settlement methods.
      * @param offerID The offer ID of the [OfferSettlementMethod]s to be deleted.
      * @param chainID The blockchain ID of the [OfferSettlementMethod]s to be deleted.
      */
-    internal fun deletePendingOfferSettlementMethods(offerID: String, chainID: String) {
+    internal fun deletePendingOfferSettlementMethods(offerID: UUID, chainID: BigInteger) {
         dbQuery.deletePendingOfferSettlementMethodByOfferIdAndChainID(
             id = offerID,
             chainID = chainID,
@@ -1268,15 +2044,22 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
     }
 
     /**
-     * Deletes all [Swap]s with the specified swap ID and chain ID from the database.
+     * Deletes all [Swap]s with the specified swap ID and chain ID, along with the states and transaction data of their
+     * actions, from the database.
      * @param swapID The ID of the [Swap]s to be deleted.
      * @param chainID The blockchain ID of the [Swap]s to be deleted.
      */
-    internal fun deleteSwap(swapID: String, chainID: String) {
-        dbQuery.deleteSwapBySwapIDAndChainID(
-            id = swapID,
-            chainID = chainID
-        )
+    internal fun deleteSwap(swapID: UUID, chainID: BigInteger) {
+        dbQuery.transaction {
+            dbQuery.deleteSwapBySwapIDAndChainID(
+                id = swapID,
+                chainID = chainID
+            )
+            dbQuery.deleteSwapTransactionsBySwapIDAndChainID(
+                entityID = swapID,
+                chainID = chainID
+            )
+        }
     }
 
     /**
@@ -1284,8 +2067,8 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
      * @param id The ID of the swap corresponding to the [SwapAndDispute]s to be deleted.
      * @param chainID The blockchain ID of the swap corresponding to the [SwapAndDispute] to be deleted.
      */
-    internal fun deleteSwapAndDispute(id: String, chainID: String) {
-        dbQuery.deleteSwapBySwapIDAndChainID(
+    internal fun deleteSwapAndDispute(id: UUID, chainID: BigInteger) {
+        dbQuery.deleteSwapAndDisputeByIDAndChainID(
             id = id,
             chainID = chainID,
         )
@@ -1301,4 +2084,291 @@ internal class Database(databaseDriverFactory: DatabaseDriverFactory) {
         )
     }
 
-}
\ No newline at end of file
+    /**
+     * Moves the [Offer] with the specified offer ID and chain ID into the `ArchivedOffer` table, and deletes it, its
+     * settlement methods, its pending settlement methods and the states and transaction data of its actions from the
+     * active tables, all in a single transaction.
+     * @param offerID The offer ID of the [Offer] to be archived.
+     * @param chainID The blockchain ID of the [Offer] to be archived.
+     */
+    internal fun archiveOffer(offerID: UUID, chainID: BigInteger) {
+        dbQuery.transaction {
+            moveOfferToArchive(offerID, chainID)
+        }
+    }
+
+    /**
+     * Archives at most [limit] [Offer]s that have been taken or canceled, in a single transaction, as [archiveOffer]
+     * does.
+     * @param limit The maximum number of offers to be archived.
+     * @return The number of offers that were archived.
+     */
+    internal fun archiveInactiveOffers(limit: Long): Int {
+        return dbQuery.transactionWithResult {
+            val offerIDs = dbQuery.selectInactiveOfferIDs(limit).executeAsList()
+            offerIDs.forEach { moveOfferToArchive(it.id, it.chainID) }
+            offerIDs.size
+        }
+    }
+
+    /**
+     * Archives at most [limit] [Swap]s that have been closed, in a single transaction. Each swap is moved into the
+     * `ArchivedSwap` table, and it and the states and transaction data of its actions are deleted from the active
+     * tables.
+     * @param limit The maximum number of swaps to be archived.
+     * @return The number of swaps that were archived.
+     */
+    internal fun archiveClosedSwaps(limit: Long): Int {
+        return dbQuery.transactionWithResult {
+            val swapIDs = dbQuery.selectClosedSwapIDs(limit).executeAsList()
+            swapIDs.forEach {
+                dbQuery.archiveSwapBySwapIDAndChainID(id = it.id, chainID = it.chainID)
+                dbQuery.deleteSwapTransactionsBySwapIDAndChainID(entityID = it.id, chainID = it.chainID)
+                dbQuery.deleteSwapBySwapIDAndChainID(id = it.id, chainID = it.chainID)
+            }
+            swapIDs.size
+        }
+    }
+
+    /**
+     * Archives at most [limit] [SwapAndDispute]s for which both the maker and the taker have been paid out, in a single
+     * transaction. Each one is moved into the `ArchivedSwapAndDispute` table, without its communication keys, and
+     * deleted from the `SwapAndDispute` table.
+     * @param limit The maximum number of SwapAndDisputes to be archived.
+     * @return The number of SwapAndDisputes that were archived.
+     */
+    internal fun archiveResolvedSwapAndDisputes(limit: Long): Int {
+        return dbQuery.transactionWithResult {
+            val swapAndDisputeIDs = dbQuery.selectResolvedSwapAndDisputeIDs(limit).executeAsList()
+            swapAndDisputeIDs.forEach {
+                dbQuery.archiveSwapAndDisputeByIDAndChainID(id = it.id, chainID = it.chainID)
+                dbQuery.deleteSwapAndDisputeByIDAndChainID(id = it.id, chainID = it.chainID)
+            }
+            swapAndDisputeIDs.size
+        }
+    }
+
+    /**
+     * Copies the [Offer] with the specified offer ID and chain ID into the `ArchivedOffer` table and deletes it and all
+     * of its associated rows from the active tables. This must be called within a transaction.
+     * @param offerID The offer ID of the [Offer] to be archived.
+     * @param chainID The blockchain ID of the [Offer] to be archived.
+     */
+    private fun moveOfferToArchive(offerID: UUID, chainID: BigInteger) {
+        dbQuery.archiveOfferByOfferIDAndChainID(id = offerID, chainID = chainID)
+        dbQuery.deleteOfferSettlementMethodByOfferIdAndChainID(id = offerID, chainID = chainID)
+        dbQuery.deletePendingOfferSettlementMethodByOfferIdAndChainID(id = offerID, chainID = chainID)
+        dbQuery.deleteOfferTransactionsByOfferIDAndChainID(entityID = offerID, chainID = chainID)
+        dbQuery.deleteOfferByOfferIdAndChainID(id = offerID, chainID = chainID)
+    }
+
+    companion object {
+        /**
+         * Creates a [CommutoInterfaceDB] that uses [driver] and stores offer and swap IDs as 16-byte BLOBs, chain IDs
+         * as INTEGERs and amounts as 32-byte BLOBs, using [UUIDColumnAdapter], [ChainIDColumnAdapter] and
+         * [AmountColumnAdapter]. Encrypted values are stored as BLOBs as they are returned by [ColumnCodec].
+         *
+         * @param driver The [SqlDriver] that the new [CommutoInterfaceDB] will use.
+         *
+         * @return A new [CommutoInterfaceDB].
+         */
+        private fun createDatabase(driver: SqlDriver): CommutoInterfaceDB {
+            return CommutoInterfaceDB(
+                driver = driver,
+                ArchivedOfferAdapter = ArchivedOffer.Adapter(
+                    idAdapter = UUIDColumnAdapter,
+                    chainIDAdapter = ChainIDColumnAdapter,
+                    amountLowerBoundAdapter = AmountColumnAdapter,
+                    amountUpperBoundAdapter = AmountColumnAdapter,
+                    securityDepositAmountAdapter = AmountColumnAdapter,
+                    serviceFeeRateAdapter = AmountColumnAdapter,
+                ),
+                ArchivedSwapAdapter = ArchivedSwap.Adapter(
+                    idAdapter = UUIDColumnAdapter,
+                    chainIDAdapter = ChainIDColumnAdapter,
+                    takenSwapAmountAdapter = AmountColumnAdapter,
+                    securityDepositAmountAdapter = AmountColumnAdapter,
+                    serviceFeeAmountAdapter = AmountColumnAdapter,
+                ),
+                ArchivedSwapAndDisputeAdapter = ArchivedSwapAndDispute.Adapter(
+                    idAdapter = UUIDColumnAdapter,
+                    chainIDAdapter = ChainIDColumnAdapter,
+                    takenSwapAmountAdapter = AmountColumnAdapter,
+                ),
+                EntityTransactionAdapter = EntityTransaction.Adapter(
+                    entityIDAdapter = UUIDColumnAdapter,
+                    chainIDAdapter = ChainIDColumnAdapter,
+                ),
+                OfferRecordAdapter = OfferRecord.Adapter(
+                    idAdapter = UUIDColumnAdapter,
+                    amountLowerBoundAdapter = AmountColumnAdapter,
+                    amountUpperBoundAdapter = AmountColumnAdapter,
+                    securityDepositAmountAdapter = AmountColumnAdapter,
+                    serviceFeeRateAdapter = AmountColumnAdapter,
+                    chainIDAdapter = ChainIDColumnAdapter,
+                ),
+                OfferSettlementMethodAdapter = OfferSettlementMethod.Adapter(
+                    idAdapter = UUIDColumnAdapter,
+                    chainIDAdapter = ChainIDColumnAdapter,
+                ),
+                PendingOfferSettlementMethodAdapter = PendingOfferSettlementMethod.Adapter(
+                    idAdapter = UUIDColumnAdapter,
+                    chainIDAdapter = ChainIDColumnAdapter,
+                ),
+                SwapAndDisputeAdapter = SwapAndDispute.Adapter(
+                    idAdapter = UUIDColumnAdapter,
+                    amountLowerBoundAdapter = AmountColumnAdapter,
+                    amountUpperBoundAdapter = AmountColumnAdapter,
+                    securityDepositAmountAdapter = AmountColumnAdapter,
+                    takenSwapAmountAdapter = AmountColumnAdapter,
+                    serviceFeeAmountAdapter = AmountColumnAdapter,
+                    serviceFeeRateAdapter = AmountColumnAdapter,
+                    chainIDAdapter = ChainIDColumnAdapter,
+                    disputeAgent0MakerPayoutAdapter = AmountColumnAdapter,
+                    disputeAgent0TakerPayoutAdapter = AmountColumnAdapter,
+                    disputeAgent0ConfiscationPayoutAdapter = AmountColumnAdapter,
+                    disputeAgent1MakerPayoutAdapter = AmountColumnAdapter,
+                    disputeAgent1TakerPayoutAdapter = AmountColumnAdapter,
+                    disputeAgent1ConfiscationPayoutAdapter = AmountColumnAdapter,
+                    disputeAgent2MakerPayoutAdapter = AmountColumnAdapter,
+                    disputeAgent2TakerPayoutAdapter = AmountColumnAdapter,
+                    disputeAgent2ConfiscationPayoutAdapter = AmountColumnAdapter,
+                    totalWithoutSpentServiceFeesAdapter = AmountColumnAdapter,
+                ),
+                StablecoinMetadataAdapter = StablecoinMetadata.Adapter(
+                    chainIDAdapter = ChainIDColumnAdapter,
+                ),
+                PendingOfferAdapter = PendingOffer.Adapter(
+                    idAdapter = UUIDColumnAdapter,
+                    chainIDAdapter = ChainIDColumnAdapter,
+                ),
+                SwapRecordAdapter = SwapRecord.Adapter(
+                    idAdapter = UUIDColumnAdapter,
+                    amountLowerBoundAdapter = AmountColumnAdapter,
+                    amountUpperBoundAdapter = AmountColumnAdapter,
+                    securityDepositAmountAdapter = AmountColumnAdapter,
+                    takenSwapAmountAdapter = AmountColumnAdapter,
+                    serviceFeeAmountAdapter = AmountColumnAdapter,
+                    serviceFeeRateAdapter = AmountColumnAdapter,
+                    chainIDAdapter = ChainIDColumnAdapter,
+                ),
+            )
+        }
+
+        /**
+         * The schema version of databases created by [createTables]. This must be incremented, and a migration from
+         * the previous released version must be added to [migrateFromVersion], whenever the schema is changed.
+         */
+        const val SCHEMA_VERSION = 9L
+
+        /**
+         * The tables of a version 1 database that are renamed and copied into the table of the current schema with
+         * which each is paired, in the order in which they are copied.
+         */
+        private val VERSION_1_RENAMED_TABLES = listOf(
+            "Offer" to "OfferRecord",
+            "OfferSettlementMethod" to "OfferSettlementMethod",
+            "PendingOfferSettlementMethod" to "PendingOfferSettlementMethod",
+            "Swap" to "SwapRecord",
+            "SwapAndDispute" to "SwapAndDispute",
+            "UserSettlementMethod" to "UserSettlementMethod",
+        )
+
+        /**
+         * The [EncryptedColumn]s of each table of the current schema, the values of which are re-encrypted when rows of
+         * a version 1 database are copied into the table. The row key columns of each must match the row key with which
+         * [DatabaseService] creates the associated data of values in that column.
+         */
+        private val VERSION_1_ENCRYPTED_COLUMNS: Map<String, List<EncryptedColumn>> = run {
+            val settlementMethodKey = listOf("id", "chainID", "settlementMethod")
+            val settlementMethodPrivateData = listOf(
+                EncryptedColumn("privateData", "privateDataInitializationVector", settlementMethodKey)
+            )
+            val swapKey = listOf("id", "chainID")
+            mapOf(
+                "OfferSettlementMethod" to settlementMethodPrivateData,
+                "PendingOfferSettlementMethod" to settlementMethodPrivateData,
+                "SwapRecord" to listOf(
+                    EncryptedColumn("makerPrivateData", "makerPrivateDataInitializationVector", swapKey),
+                    EncryptedColumn("takerPrivateData", "takerPrivateDataInitializationVector", swapKey),
+                ),
+                "SwapAndDispute" to listOf(
+                    EncryptedColumn("makerCommunicationKey", "mCKInitializationVector", swapKey),
+                    EncryptedColumn("takerCommunicationKey", "tCKInitializationVector", swapKey),
+                    EncryptedColumn("disputeAgentCommunicationKey", "dACKInitializationVector", swapKey),
+                ),
+                "UserSettlementMethod" to listOf(
+                    EncryptedColumn("privateData", "privateDataInitializationVector", listOf("settlementMethodID"))
+                ),
+            )
+        }
+
+        /**
+         * The tables of the current schema that store offer and swap IDs, chain IDs or amounts, along with the
+         * [ColumnConversion]s applied to their columns when rows of a version 1 database are copied into them.
+         */
+        private val VERSION_1_COLUMN_CONVERSIONS: Map<String, Map<String, ColumnConversion>> = run {
+            val offerAmounts = listOf("amountLowerBound", "amountUpperBound", "securityDepositAmount", "serviceFeeRate")
+            val swapAmounts = offerAmounts + listOf("takenSwapAmount", "serviceFeeAmount")
+            val disputeAmounts = swapAmounts + (0..2).flatMap { agent ->
+                listOf("Maker", "Taker", "Confiscation").map { recipient -> "disputeAgent$agent${recipient}Payout" }
+            } + "totalWithoutSpentServiceFees"
+            val keyConversions = mapOf("id" to ColumnConversion.BASE64_UUID, "chainID" to ColumnConversion.CHAIN_ID)
+            mapOf(
+                "OfferRecord" to keyConversions + offerAmounts.associateWith { ColumnConversion.AMOUNT },
+                "OfferSettlementMethod" to keyConversions,
+                "PendingOfferSettlementMethod" to keyConversions,
+                "SwapRecord" to keyConversions + swapAmounts.associateWith { ColumnConversion.AMOUNT },
+                "SwapAndDispute" to mapOf(
+                    "id" to ColumnConversion.STRING_UUID,
+                    "chainID" to ColumnConversion.CHAIN_ID,
+                ) + disputeAmounts.associateWith { ColumnConversion.AMOUNT },
+                "EntityTransaction" to mapOf(
+                    "entityID" to ColumnConversion.BASE64_UUID,
+                    "chainID" to ColumnConversion.CHAIN_ID,
+                ),
+            )
+        }
+
+        /**
+         * The state of an action of an offer or swap that has not begun. This is the [String] value of the `NONE` case
+         * of every enum describing the state of such an action.
+         */
+        private const val NO_ACTION_STATE = "none"
+
+        /**
+         * Each action of an offer, along with the name of the column of the version 1 `Offer` table containing its
+         * state and the prefix of the names of the columns containing its transaction data.
+         */
+        private val OFFER_ACTION_COLUMNS = listOf(
+            Triple(EntityTransactionAction.APPROVE_TO_OPEN, "approveToOpenState", "approveToOpenTransaction"),
+            Triple(EntityTransactionAction.OPENING_OFFER, "openingOfferState", "openingOfferTransaction"),
+            Triple(EntityTransactionAction.CANCELING_OFFER, "cancelingOfferState", "offerCancellationTransaction"),
+            Triple(EntityTransactionAction.EDITING_OFFER, "editingOfferState", "offerEditingTransaction"),
+            Triple(EntityTransactionAction.APPROVE_TO_TAKE, "approveToTakeState", "approveToTakeTransaction"),
+            Triple(EntityTransactionAction.TAKING_OFFER, "takingOfferState", "takingOfferTransaction"),
+        )
+
+        /**
+         * Each action of a swap, along with the name of the column of the version 1 `Swap` table containing its state
+         * and the prefix of the names of the columns containing its transaction data.
+         */
+        private val SWAP_ACTION_COLUMNS = listOf(
+            Triple(EntityTransactionAction.APPROVE_TO_FILL, "approveToFillState", "approveToFillTransaction"),
+            Triple(EntityTransactionAction.FILLING_SWAP, "fillingSwapState", "fillingSwapTransaction"),
+            Triple(
+                EntityTransactionAction.REPORT_PAYMENT_SENT,
+                "reportPaymentSentState",
+                "reportPaymentSentTransaction"
+            ),
+            Triple(
+                EntityTransactionAction.REPORT_PAYMENT_RECEIVED,
+                "reportPaymentReceivedState",
+                "reportPaymentReceivedTransaction"
+            ),
+            Triple(EntityTransactionAction.CLOSE_SWAP, "closeSwapState", "closeSwapTransaction"),
+            Triple(EntityTransactionAction.RAISING_DISPUTE, "raisingDisputeState", "raisingDisputeTransaction"),
+        )
+    }
+
+}
@@ -2,18 +2,104 @@ package com.commuto.interfacedesktop.database
 
 import com.squareup.sqldelight.db.SqlDriver
 import com.squareup.sqldelight.sqlite.driver.JdbcSqliteDriver
+import org.sqlite.SQLiteConfig
+import java.io.File
 import javax.inject.Inject
 
 /**
  * Provides [SqlDriver]s.
+ *
+ * @property databaseFile The file in which the database is stored, or `null` if the database should be stored in
+ * memory.
  */
-class DatabaseDriverFactory @Inject constructor() {
+class DatabaseDriverFactory(private val databaseFile: File?) {
+
+    /**
+     * Creates a new [DatabaseDriverFactory] that provides drivers connected to the database file at the path specified
+     * by the [DATABASE_FILE_ENVIRONMENT_VARIABLE] environment variable, or to an in-memory database if that variable is
+     * not set.
+     */
+    @Inject constructor(): this(
+        databaseFile = System.getenv(DATABASE_FILE_ENVIRONMENT_VARIABLE)?.let { File(it) }
+    )
+
     /**
-     * Creates and returns a new [JdbcSqliteDriver] connected to an in-memory database.
-     * @return A new [JdbcSqliteDriver] connected to an in-memory database.
+     * Creates and returns a new [JdbcSqliteDriver]. If [databaseFile] is `null`, the driver is connected to an in-memory
+     * database. Otherwise, the driver is connected to [databaseFile], which is created if it does not exist, and every
+     * connection uses write-ahead logging, memory-mapped I/O, `synchronous=NORMAL` (which is durable in WAL mode except
+     * for the last transactions before a power failure) and a page cache of [PAGE_CACHE_SIZE_KIB] KiB.
+     *
+     * @return A new [JdbcSqliteDriver] connected to an in-memory database or to [databaseFile].
      */
     fun createDriver(): SqlDriver {
-        //TODO: Figure out why file database isn't working
-        return JdbcSqliteDriver(JdbcSqliteDriver.IN_MEMORY)
+        if (databaseFile == null) {
+            return JdbcSqliteDriver(JdbcSqliteDriver.IN_MEMORY)
+        }
+        databaseFile.absoluteFile.parentFile?.mkdirs()
+        val config = SQLiteConfig().apply {
+            setJournalMode(SQLiteConfig.JournalMode.WAL)
+            setSynchronous(SQLiteConfig.SynchronousMode.NORMAL)
+            // A negative cache size is a size in KiB rather than in pages
+            setCacheSize(-PAGE_CACHE_SIZE_KIB)
+            setPragma(SQLiteConfig.Pragma.MMAP_SIZE, MMAP_SIZE_BYTES.toString())
+            setTempStore(SQLiteConfig.TempStore.MEMORY)
+            setBusyTimeout(BUSY_TIMEOUT_MILLISECONDS)
+        }
+        return JdbcSqliteDriver(
+            url = "jdbc:sqlite:${databaseFile.absolutePath}",
+            properties = config.toProperties()
+        )
+    }
+
+    /**
+     * Creates and returns a new [JdbcSqliteDriver] whose connections to [databaseFile] are read-only, or returns `null`
+     * if the database is stored in memory, since a separate connection to an in-memory database would open a different,
+     * empty database. The driver opens one connection for each thread that uses it, so that reads on different threads
+     * run concurrently with each other and, thanks to write-ahead logging, with writes made through the driver returned
+     * by [createDriver]. Each read sees a consistent snapshot of the last committed transaction.
+     *
+     * The database must already have been created by a driver returned by [createDriver] before this driver is used.
+     *
+     * @return A new read-only [JdbcSqliteDriver] connected to [databaseFile], or `null` if [databaseFile] is `null`.
+     */
+    fun createReadOnlyDriver(): SqlDriver? {
+        if (databaseFile == null) {
+            return null
+        }
+        val config = SQLiteConfig().apply {
+            setReadOnly(true)
+            // The journal mode is stored in the database file, so it needn't (and can't) be set by a reader
+            setCacheSize(-PAGE_CACHE_SIZE_KIB)
+            setPragma(SQLiteConfig.Pragma.MMAP_SIZE, MMAP_SIZE_BYTES.toString())
+            setTempStore(SQLiteConfig.TempStore.MEMORY)
+            setBusyTimeout(BUSY_TIMEOUT_MILLISECONDS)
+        }
+        return JdbcSqliteDriver(
+            url = "jdbc:sqlite:${databaseFile.absolutePath}",
+            properties = config.toProperties()
+        )
     }
-}
\ No newline at end of file
+
+    companion object {
+        /**
+         * The name of the environment variable containing the path of the database file.
+         */
+        const val DATABASE_FILE_ENVIRONMENT_VARIABLE = "COMMUTO_DATABASE_FILE"
+
+        /**
+         * The size of the page cache of each connection to a database file, in KiB.
+         */
+        const val PAGE_CACHE_SIZE_KIB = 64 * 1024
+
+        /**
+         * The maximum number of bytes of a database file that are accessed using memory-mapped I/O.
+         */
+        const val MMAP_SIZE_BYTES = 256L * 1024L * 1024L
+
+        /**
+         * The number of milliseconds a connection waits for a lock held by another connection before failing.
+         */
+        const val BUSY_TIMEOUT_MILLISECONDS = 5_000
+    }
+
+}
@@ -3,12 +3,19 @@ package com.commuto.interfacedesktop.database
 import com.commuto.interfacedesktop.db.*
 import com.commuto.interfacedesktop.key.DatabaseKeyDeriver
 import com.commuto.interfacedesktop.key.keys.SymmetricKey
-import com.commuto.interfacedesktop.key.keys.SymmetricallyEncryptedData
 import kotlinx.coroutines.DelicateCoroutinesApi
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.newFixedThreadPoolContext
 import kotlinx.coroutines.newSingleThreadContext
 import kotlinx.coroutines.withContext
+import kotlin.coroutines.coroutineContext
 import org.slf4j.LoggerFactory
-import org.sqlite.SQLiteException
+import java.math.BigInteger
 import java.util.*
 import javax.inject.Inject
 import javax.inject.Singleton
@@ -22,15 +29,21 @@ import javax.inject.Singleton
  * @property databaseDriverFactory the DatabaseDriverFactory that DatabaseService will use to interact with the
  * database.
  * @property databaseKey The [SymmetricKey] with which this encrypts and decrypts encrypted database fields.
+ * @property columnCodec The [ColumnCodec] with which this encrypts and decrypts encrypted database fields. By default,
+ * this is an [AuthenticatedColumnCodec] using [databaseKey].
  * @property logger The [org.slf4j.Logger] that this class uses for logging.
  * @property database The [Database] holding Commuto Interface data.
- * @property databaseServiceContext The single-threaded CoroutineContext in which all database read and write operations
- * are run, in order to prevent data races.
+ * @property databaseServiceContext The single-threaded CoroutineContext in which all database write operations, and
+ * read operations if [Database.hasReadOnlyConnections] is `false`, are run, in order to prevent data races.
+ * @property databaseServiceReaderContext The CoroutineContext with [READER_THREAD_COUNT] threads in which database read
+ * operations are run if [Database.hasReadOnlyConnections] is `true`. Each thread has its own read-only connection, so
+ * reads don't wait for writes or for each other.
  */
 @Singleton
 open class DatabaseService(
     private val databaseDriverFactory: DatabaseDriverFactory,
     private val databaseKey: SymmetricKey,
+    private val columnCodec: ColumnCodec = AuthenticatedColumnCodec(databaseKey),
 ) {
 
     /**
@@ -56,6 +69,132 @@ open class DatabaseService(
     @DelicateCoroutinesApi
     private val databaseServiceContext = newSingleThreadContext("DatabaseServiceContext")
 
+    @DelicateCoroutinesApi
+    private val databaseServiceReaderContext = if (database.hasReadOnlyConnections) {
+        newFixedThreadPoolContext(READER_THREAD_COUNT, "DatabaseServiceReaderContext")
+    } else {
+        databaseServiceContext
+    }
+
+    /**
+     * Runs [block] as a unit of work: updates to offers, swaps and SwapAndDisputes made through this [DatabaseService]
+     * by the coroutine running [block] (and by its child coroutines) are deferred, and repeated updates of the same
+     * property of the same entity are coalesced so that only the last one is executed. All deferred updates are then
+     * committed in a single transaction when [block] returns. If [block] throws, the updates it deferred are discarded,
+     * so a failed unit of work does not persist some of its updates and not others.
+     *
+     * Reads and non-update writes made within [block] first commit all updates deferred so far, so callers always read
+     * their own writes; such updates are already committed if [block] later throws. If this is called within another
+     * call to [batchWrites] that has not yet ended, [block] simply joins the outer unit of work. Updates made by child
+     * coroutines of [block] after it has returned or thrown are executed immediately, since the unit of work is closed
+     * by then.
+     *
+     * @param block The block of code to run as a unit of work.
+     *
+     * @return The value returned by [block].
+     */
+    suspend fun <T> batchWrites(block: suspend () -> T): T {
+        if (coroutineContext[DatabaseWriteBatch]?.isClosed == false) {
+            return block()
+        }
+        val batch = DatabaseWriteBatch()
+        val result = try {
+            withContext(batch) {
+                block()
+            }
+        } catch (exception: Throwable) {
+            val discardedWrites = batch.close()
+            if (discardedWrites.isNotEmpty()) {
+                logger.warn("batchWrites: discarding ${discardedWrites.size} writes of failed unit of work")
+            }
+            throw exception
+        }
+        executeWrites(batch.close())
+        return result
+    }
+
+    /**
+     * Executes all writes deferred in [batch] so far in a single transaction in [databaseServiceContext].
+     *
+     * @param batch The [DatabaseWriteBatch] containing the writes to be executed.
+     */
+    private suspend fun commitWriteBatch(batch: DatabaseWriteBatch) {
+        executeWrites(batch.takeWrites())
+    }
+
+    /**
+     * Executes [writes] in a single transaction in [databaseServiceContext].
+     *
+     * @param writes The writes to be executed, in the order in which they should be executed.
+     */
+    @OptIn(DelicateCoroutinesApi::class)
+    private suspend fun executeWrites(writes: List<() -> Unit>) {
+        if (writes.isEmpty()) {
+            return
+        }
+        withContext(databaseServiceContext) {
+            database.transaction {
+                writes.forEach { it() }
+            }
+        }
+        logger.info("executeWrites: committed ${writes.size} writes")
+    }
+
+    /**
+     * Executes [write] in [databaseServiceContext], or, if the calling coroutine is running within [batchWrites] and the
+     * unit of work has not yet ended, defers it until the unit of work is committed, discarding any deferred write with
+     * the same [key].
+     *
+     * @param key Identifies the statement executed by [write] and the entity it affects.
+     * @param write A lambda that executes an update statement.
+     */
+    @OptIn(DelicateCoroutinesApi::class)
+    private suspend fun writeBehind(key: String, write: () -> Unit) {
+        val batch = coroutineContext[DatabaseWriteBatch]
+        if (batch == null || !batch.defer(key, write)) {
+            withContext(databaseServiceContext) {
+                write()
+            }
+        }
+    }
+
+    /**
+     * Commits any writes deferred by the calling coroutine's unit of work, and then executes [block] in
+     * [databaseServiceContext].
+     *
+     * @param block A lambda that reads from or writes to [database].
+     *
+     * @return The value returned by [block].
+     */
+    @OptIn(DelicateCoroutinesApi::class)
+    private suspend fun <T> withDatabaseContext(block: () -> T): T {
+        coroutineContext[DatabaseWriteBatch]?.let {
+            commitWriteBatch(it)
+        }
+        return withContext(databaseServiceContext) {
+            block()
+        }
+    }
+
+    /**
+     * Commits any writes deferred by the calling coroutine's unit of work, and then executes [block], which must only
+     * read from [database], in [databaseServiceReaderContext]. [block] runs in a single read transaction, so all of the
+     * statements it executes read the same snapshot of the database, even if other rows are written meanwhile.
+     *
+     * @param block A lambda that reads from [database].
+     *
+     * @return The value returned by [block].
+     */
+    @OptIn(DelicateCoroutinesApi::class)
+    private suspend fun <T> withReadContext(block: () -> T): T {
+        coroutineContext[DatabaseWriteBatch]?.let {
+            commitWriteBatch(it)
+        }
+        return withContext(databaseServiceReaderContext) {
+            database.readTransaction(block)
+        }
+    }
+
     /**
      * Creates all necessary database tables.
      */
@@ -63,6 +202,15 @@ open class DatabaseService(
         database.createTables()
     }
 
+    /**
+     * Creates all necessary database tables if the database is new, or migrates the database to the current schema
+     * version if it was created by an earlier version of this app. Unlike [createTables], this can be called every time
+     * the app starts, and keeps all data in an existing database.
+     */
+    fun prepareDatabase() {
+        database.prepareDatabase(columnCodec, databaseKey)
+    }
+
     /**
      * Clears the entire [database].
      */
@@ -76,25 +224,19 @@ open class DatabaseService(
      *
      * @param offer The [Offer] to be stored in the database.
      *
-     * @throws Exception if database insertion is unsuccessful for a reason OTHER than UNIQUE constraint failure.
+     * @return `true` if [offer] was stored, or `false` if an offer with the same ID and chain ID was already stored.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun storeOffer(offer: Offer) {
-        try {
-            withContext(databaseServiceContext) {
-                database.insertOffer(offer)
-            }
-            logger.info("storeOffer: stored offer with B64 ID ${offer.id}")
-        } catch (exception: SQLiteException) {
-            /*
-            The result code for a UNIQUE constraint failure; see here: https://www.sqlite.org/rescode.html
-            If an Offer with the specified offer ID already exists, we do nothing.
-             */
-            if (exception.resultCode.code != 2067) {
-                throw exception
-            }
-            logger.info("storeOffer: offer with B64 ID ${offer.id} already exists in database")
+    suspend fun storeOffer(offer: Offer): Boolean {
+        val wasStored = withDatabaseContext {
+            database.insertOffer(offer)
+        }
+        if (wasStored) {
+            logger.info("storeOffer: stored offer with ID ${offer.id}")
+        } else {
+            logger.info("storeOffer: offer with ID ${offer.id} already exists in database")
         }
+        return wasStored
     }
 
     /**
@@ -102,17 +244,17 @@ open class DatabaseService(
      * [Offer](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#offer) with the specified [offerID] and
      * [chainID].
      *
-     * @param offerID The ID of the offer to be updated, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the offer to be updated, as a [String].
+     * @param offerID The ID of the offer to be updated.
+     * @param chainID The blockchain ID of the offer to be updated.
      * @param havePublicKey The new value of the offer's [Offer.havePublicKey] property.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    open suspend fun updateOfferHavePublicKey(offerID: String, chainID: String, havePublicKey: Boolean) {
+    open suspend fun updateOfferHavePublicKey(offerID: UUID, chainID: BigInteger, havePublicKey: Boolean) {
         val havePublicKeyLong = if (havePublicKey) 1L else 0L
-        withContext(databaseServiceContext) {
+        writeBehind(key = "updateOfferHavePublicKey:$offerID:$chainID") {
             database.updateOfferHavePublicKey(offerID, chainID, havePublicKeyLong)
         }
-        logger.info("updateOfferHavePublicKey: set value to $havePublicKey for offer with B64 ID $offerID, if " +
+        logger.info("updateOfferHavePublicKey: set value to $havePublicKey for offer with ID $offerID, if " +
                 "present")
     }
 
@@ -121,16 +263,16 @@ open class DatabaseService(
      * [Offer](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#offer) with the specified [offerID] and
      * [chainID].
      *
-     * @param offerID The ID of the offer to be updated, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the offer to be updated, as a [String].
+     * @param offerID The ID of the offer to be updated.
+     * @param chainID The blockchain ID of the offer to be updated.
      * @param state The new value of the offer's [Offer.state] property.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    open suspend fun updateOfferState(offerID: String, chainID: String, state: String) {
-        withContext(databaseServiceContext) {
+    open suspend fun updateOfferState(offerID: UUID, chainID: BigInteger, state: String) {
+        writeBehind(key = "updateOfferState:$offerID:$chainID") {
             database.updateOfferState(offerID, chainID, state)
         }
-        logger.info("updateOfferState: set value to $state for offer with B64 ID $offerID, if present")
+        logger.info("updateOfferState: set value to $state for offer with ID $offerID, if present")
     }
 
     /**
@@ -138,16 +280,16 @@ open class DatabaseService(
      * [Offer](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#offer) with the specified [offerID] and
      * [chainID].
      *
-     * @param offerID The ID of the offer to be updated, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the offer to be updated, as a [String].
+     * @param offerID The ID of the offer to be updated.
+     * @param chainID The blockchain ID of the offer to be updated.
      * @param state The new value of the offer's [Offer.approveToOpenState] property.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun updateOfferApproveToOpenState(offerID: String, chainID: String, state: String) {
-        withContext(databaseServiceContext) {
+    suspend fun updateOfferApproveToOpenState(offerID: UUID, chainID: BigInteger, state: String) {
+        writeBehind(key = "updateOfferApproveToOpenState:$offerID:$chainID") {
             database.updateOfferApproveToOpenState(offerID, chainID, state)
         }
-        logger.info("updateOfferApproveToOpenState: set value to $state for offer with B64 ID $offerID, if " +
+        logger.info("updateOfferApproveToOpenState: set value to $state for offer with ID $offerID, if " +
                 "present")
     }
 
@@ -157,8 +299,8 @@ open class DatabaseService(
      * [Offer](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#offer) with the specified [offerID] and
      * [chainID].
      *
-     * @param offerID The ID of the offer to be updated, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the offer to be updated, as a [String].
+     * @param offerID The ID of the offer to be updated.
+     * @param chainID The blockchain ID of the offer to be updated.
      * @param transactionHash The new value of the offer's [Offer.approveToOpenTransactionHash] property, as a
      * transaction hash as a hexadecimal string with "0x" prefix.
      * @param creationTime The new value of the offer's [Offer.approveToOpenTransactionCreationTime] property.
@@ -166,13 +308,13 @@ open class DatabaseService(
      */
     @OptIn(DelicateCoroutinesApi::class)
     suspend fun updateOfferApproveToOpenData(
-        offerID: String,
-        chainID: String,
+        offerID: UUID,
+        chainID: BigInteger,
         transactionHash: String?,
         creationTime: String?,
         blockNumber: Long?
     ) {
-        withContext(databaseServiceContext) {
+        writeBehind(key = "updateOfferApproveToOpenData:$offerID:$chainID") {
             database.updateOfferApproveToOpenData(
                 offerID = offerID,
                 chainID = chainID,
@@ -182,7 +324,7 @@ open class DatabaseService(
             )
         }
         logger.info("updateOfferApproveToOpenData: set values to $transactionHash, $creationTime and " +
-                "$blockNumber for offer with B64 ID $offerID, if present")
+                "$blockNumber for offer with ID $offerID, if present")
     }
 
     /**
@@ -190,16 +332,16 @@ open class DatabaseService(
      * [Offer](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#offer) with the specified [offerID] and
      * [chainID].
      *
-     * @param offerID The ID of the offer to be updated, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the offer to be updated, as a [String].
+     * @param offerID The ID of the offer to be updated.
+     * @param chainID The blockchain ID of the offer to be updated.
      * @param state The new value of the offer's [Offer.openingOfferState] property.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun updateOpeningOfferState(offerID: String, chainID: String, state: String) {
-        withContext(databaseServiceContext) {
+    suspend fun updateOpeningOfferState(offerID: UUID, chainID: BigInteger, state: String) {
+        writeBehind(key = "updateOpeningOfferState:$offerID:$chainID") {
             database.updateOpeningOfferState(offerID, chainID, state)
         }
-        logger.info("updateOpeningOfferState: set value to $state for offer with B64 ID $offerID, if present")
+        logger.info("updateOpeningOfferState: set value to $state for offer with ID $offerID, if present")
     }
 
     /**
@@ -208,8 +350,8 @@ open class DatabaseService(
      * [Offer](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#offer) with the specified [offerID] and
      * [chainID].
      *
-     * @param offerID The ID of the offer to be updated, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the offer to be updated, as a [String].
+     * @param offerID The ID of the offer to be updated.
+     * @param chainID The blockchain ID of the offer to be updated.
      * @param transactionHash The new value of the offer's [Offer.openingOfferTransactionHash] property, as a
      * transaction hash as a hexadecimal string with "0x" prefix.
      * @param creationTime The new value of the offer's [Offer.openingOfferTransactionCreationTime] property.
@@ -217,13 +359,13 @@ open class DatabaseService(
      */
     @OptIn(DelicateCoroutinesApi::class)
     suspend fun updateOpeningOfferData(
-        offerID: String,
-        chainID: String,
+        offerID: UUID,
+        chainID: BigInteger,
         transactionHash: String?,
         creationTime: String?,
         blockNumber: Long?
     ) {
-        withContext(databaseServiceContext) {
+        writeBehind(key = "updateOpeningOfferData:$offerID:$chainID") {
             database.updateOpeningOfferData(
                 offerID = offerID,
                 chainID = chainID,
@@ -233,7 +375,7 @@ open class DatabaseService(
             )
         }
         logger.info("updateOpeningOfferData: set values to $transactionHash, $creationTime and $blockNumber " +
-                "for offer with B64 ID $offerID, if present")
+                "for offer with ID $offerID, if present")
     }
 
     /**
@@ -241,16 +383,16 @@ open class DatabaseService(
      * [Offer](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#offer) with the specified [offerID] and
      * [chainID].
      *
-     * @param offerID The ID of the offer to be updated, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the offer to be updated, as a [String].
+     * @param offerID The ID of the offer to be updated.
+     * @param chainID The blockchain ID of the offer to be updated.
      * @param state The new value of the offer's [Offer.cancelingOfferState] property.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun updateCancelingOfferState(offerID: String, chainID: String, state: String) {
-        withContext(databaseServiceContext) {
+    suspend fun updateCancelingOfferState(offerID: UUID, chainID: BigInteger, state: String) {
+        writeBehind(key = "updateCancelingOfferState:$offerID:$chainID") {
             database.updateCancelingOfferState(offerID, chainID, state)
         }
-        logger.info("updateCancelingOfferState: set value to $state for offer with B64 ID $offerID, if present")
+        logger.info("updateCancelingOfferState: set value to $state for offer with ID $offerID, if present")
     }
 
     /**
@@ -259,8 +401,8 @@ open class DatabaseService(
      * [Offer](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#offer) with the specified [offerID] and
      * [chainID].
      *
-     * @param offerID The ID of the offer to be updated, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the offer to be updated, as a [String].
+     * @param offerID The ID of the offer to be updated.
+     * @param chainID The blockchain ID of the offer to be updated.
      * @param transactionHash The new value of the offer's [Offer.offerCancellationTransactionHash] property, as a
      * transaction hash as a hexadecimal string with "0x" prefix.
      * @param creationTime The new value of the offer's [Offer.offerCancellationTransactionCreationTime] property.
@@ -268,13 +410,13 @@ open class DatabaseService(
      */
     @OptIn(DelicateCoroutinesApi::class)
     suspend fun updateOfferCancellationData(
-        offerID: String,
-        chainID: String,
+        offerID: UUID,
+        chainID: BigInteger,
         transactionHash: String?,
         creationTime: String?,
         blockNumber: Long?
     ) {
-        withContext(databaseServiceContext) {
+        writeBehind(key = "updateOfferCancellationData:$offerID:$chainID") {
             database.updateOfferCancellationData(
                 offerID = offerID,
                 chainID = chainID,
@@ -284,7 +426,7 @@ open class DatabaseService(
             )
         }
         logger.info("updateOfferCancellationData: set values to $transactionHash, $creationTime and $blockNumber for " +
-                "offer with B64 ID $offerID, if present")
+                "offer with ID $offerID, if present")
     }
 
     /**
@@ -292,16 +434,16 @@ open class DatabaseService(
      * [Offer](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#offer) with the specified [offerID] and
      * [chainID].
      *
-     * @param offerID The ID of the offer to be updated, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the offer to be updated, as a [String].
+     * @param offerID The ID of the offer to be updated.
+     * @param chainID The blockchain ID of the offer to be updated.
      * @param state The new value of the offer's [Offer.editingOfferState] property.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun updateEditingOfferState(offerID: String, chainID: String, state: String) {
-        withContext(databaseServiceContext) {
+    suspend fun updateEditingOfferState(offerID: UUID, chainID: BigInteger, state: String) {
+        writeBehind(key = "updateEditingOfferState:$offerID:$chainID") {
             database.updateEditingOfferState(offerID, chainID, state)
         }
-        logger.info("updateEditingOfferState: set value to $state for offer with B64 ID $offerID, if present")
+        logger.info("updateEditingOfferState: set value to $state for offer with ID $offerID, if present")
     }
 
     /**
@@ -309,8 +451,8 @@ open class DatabaseService(
      * [Offer](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#offer) with the specified [offerID] and
      * [chainID].
      *
-     * @param offerID The ID of the offer to be updated, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the offer to be updated, as a [String].
+     * @param offerID The ID of the offer to be updated.
+     * @param chainID The blockchain ID of the offer to be updated.
      * @param transactionHash The new value of the offer's [Offer.offerEditingTransactionHash] property, as a
      * transaction hash as a hexadecimal string with "0x" prefix.
      * @param creationTime The new value of the offer's [Offer.offerEditingTransactionCreationTime] property.
@@ -318,13 +460,13 @@ open class DatabaseService(
      */
     @OptIn(DelicateCoroutinesApi::class)
     suspend fun updateOfferEditingData(
-        offerID: String,
-        chainID: String,
+        offerID: UUID,
+        chainID: BigInteger,
         transactionHash: String?,
         creationTime: String?,
         blockNumber: Long?
     ) {
-        withContext(databaseServiceContext) {
+        writeBehind(key = "updateOfferEditingData:$offerID:$chainID") {
             database.updateOfferEditingData(
                 offerID = offerID,
                 chainID = chainID,
@@ -334,7 +476,7 @@ open class DatabaseService(
             )
         }
         logger.info("updateOfferEditingTransactionHash: set values to $transactionHash, $creationTime and " +
-                "$blockNumber for offer with B64 ID $offerID, if present")
+                "$blockNumber for offer with ID $offerID, if present")
     }
 
     /**
@@ -342,16 +484,16 @@ open class DatabaseService(
      * [Offer](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#offer) with the specified [offerID] and
      * [chainID].
      *
-     * @param offerID The ID of the offer to be updated, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the offer to be updated, as a [String].
+     * @param offerID The ID of the offer to be updated.
+     * @param chainID The blockchain ID of the offer to be updated.
      * @param state The new value of the offer's [Offer.approveToTakeState] property.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun updateOfferApproveToTakeState(offerID: String, chainID: String, state: String) {
-        withContext(databaseServiceContext) {
+    suspend fun updateOfferApproveToTakeState(offerID: UUID, chainID: BigInteger, state: String) {
+        writeBehind(key = "updateOfferApproveToTakeState:$offerID:$chainID") {
             database.updateOfferApproveToTakeState(offerID, chainID, state)
         }
-        logger.info("updateOfferApproveToTakeState: set value to $state for offer with B64 ID $offerID, if " +
+        logger.info("updateOfferApproveToTakeState: set value to $state for offer with ID $offerID, if " +
                 "present")
     }
 
@@ -361,8 +503,8 @@ open class DatabaseService(
      * [Offer](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#offer) with the specified [offerID] and
      * [chainID].
      *
-     * @param offerID The ID of the offer to be updated, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the offer to be updated, as a [String].
+     * @param offerID The ID of the offer to be updated.
+     * @param chainID The blockchain ID of the offer to be updated.
      * @param transactionHash The new value of the offer's [Offer.approveToTakeTransactionHash] property, as a
      * transaction hash as a hexadecimal string with "0x" prefix.
      * @param creationTime The new value of the offer's [Offer.approveToTakeTransactionCreationTime] property.
@@ -370,13 +512,13 @@ open class DatabaseService(
      */
     @OptIn(DelicateCoroutinesApi::class)
     suspend fun updateOfferApproveToTakeData(
-        offerID: String,
-        chainID: String,
+        offerID: UUID,
+        chainID: BigInteger,
         transactionHash: String?,
         creationTime: String?,
         blockNumber: Long?
     ) {
-        withContext(databaseServiceContext) {
+        writeBehind(key = "updateOfferApproveToTakeData:$offerID:$chainID") {
             database.updateOfferApproveToTakeData(
                 offerID = offerID,
                 chainID = chainID,
@@ -386,7 +528,7 @@ open class DatabaseService(
             )
         }
         logger.info("updateOfferApproveToTakeData: set values to $transactionHash, $creationTime and " +
-                "$blockNumber for offer with B64 ID $offerID, if present")
+                "$blockNumber for offer with ID $offerID, if present")
     }
 
     /**
@@ -394,16 +536,16 @@ open class DatabaseService(
      * [Offer](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#offer) with the specified [offerID] and
      * [chainID].
      *
-     * @param offerID The ID of the offer to be updated, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the offer to be updated, as a [String].
+     * @param offerID The ID of the offer to be updated.
+     * @param chainID The blockchain ID of the offer to be updated.
      * @param state The new value of the offer's [Offer.takingOfferState] property.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun updateTakingOfferState(offerID: String, chainID: String, state: String) {
-        withContext(databaseServiceContext) {
+    suspend fun updateTakingOfferState(offerID: UUID, chainID: BigInteger, state: String) {
+        writeBehind(key = "updateTakingOfferState:$offerID:$chainID") {
             database.updateTakingOfferState(offerID, chainID, state)
         }
-        logger.info("updateTakingOfferState: set value to $state for offer with B64 ID $offerID, if present")
+        logger.info("updateTakingOfferState: set value to $state for offer with ID $offerID, if present")
     }
 
     /**
@@ -412,8 +554,8 @@ open class DatabaseService(
      * [Offer](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#offer) with the specified [offerID] and
      * [chainID].
      *
-     * @param offerID The ID of the offer to be updated, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the offer to be updated, as a [String].
+     * @param offerID The ID of the offer to be updated.
+     * @param chainID The blockchain ID of the offer to be updated.
      * @param transactionHash The new value of the offer's [Offer.takingOfferTransactionHash] property, as a
      * transaction hash as a hexadecimal string with "0x" prefix.
      * @param creationTime The new value of the offer's [Offer.takingOfferTransactionCreationTime] property.
@@ -421,13 +563,13 @@ open class DatabaseService(
      */
     @OptIn(DelicateCoroutinesApi::class)
     suspend fun updateTakingOfferData(
-        offerID: String,
-        chainID: String,
+        offerID: UUID,
+        chainID: BigInteger,
         transactionHash: String?,
         creationTime: String?,
         blockNumber: Long?
     ) {
-        withContext(databaseServiceContext) {
+        writeBehind(key = "updateTakingOfferData:$offerID:$chainID") {
             database.updateTakingOfferData(
                 offerID = offerID,
                 chainID = chainID,
@@ -437,38 +579,57 @@ open class DatabaseService(
             )
         }
         logger.info("updateTakingOfferData: set values to $transactionHash, $creationTime and $blockNumber " +
-                "for offer with B64 ID $offerID, if present")
+                "for offer with ID $offerID, if present")
     }
 
     /**
      * Removes every [Offer](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#offer) with an offer ID equal
      * to [offerID] and a chain ID equal to [chainID] from persistent storage.
      *
-     * @param offerID The offer ID of the offers to be removed, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the offers to be removed, as a [String].
+     * @param offerID The offer ID of the offers to be removed.
+     * @param chainID The blockchain ID of the offers to be removed.
      *
      * @throws Exception If deletion is unsuccessful.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun deleteOffers(offerID: String, chainID: String) {
-        withContext(databaseServiceContext) {
+    suspend fun deleteOffers(offerID: UUID, chainID: BigInteger) {
+        withDatabaseContext {
             database.deleteOffer(offerID, chainID)
         }
-        logger.info("deleteOffers: deleted offers with B64 ID $offerID and chain ID $chainID, if present")
+        logger.info("deleteOffers: deleted offers with ID $offerID and chain ID $chainID, if present")
+    }
+
+    /**
+     * Moves the [Offer](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#offer) with an offer ID equal to
+     * [offerID] and a chain ID equal to [chainID] into the archive of inactive offers, and removes it and its
+     * settlement methods from the active tables in persistent storage. This should be used instead of [deleteOffers]
+     * once an offer has been taken or canceled, so that it remains available via [getArchivedOffers].
+     *
+     * @param offerID The offer ID of the offer to be archived.
+     * @param chainID The blockchain ID of the offer to be archived.
+     *
+     * @throws Exception If archival is unsuccessful.
+     */
+    @OptIn(DelicateCoroutinesApi::class)
+    suspend fun archiveOffer(offerID: UUID, chainID: BigInteger) {
+        withDatabaseContext {
+            database.archiveOffer(offerID, chainID)
+        }
+        logger.info("archiveOffer: archived offer with ID $offerID and chain ID $chainID, if present")
     }
 
     /**
      * Retrieves the persistently stored [Offer](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#offer)
      * with the given offer ID, or returns null if no such offer is present.
      *
-     * @param id The offer ID of the Offer to return, as a Base64-[String] of bytes.
+     * @param id The offer ID of the Offer to return.
      *
      * @throws IllegalStateException if multiple offers are found for a single offer ID, or if the offer ID of the offer
      * returned from the database query does not match [id].
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun getOffer(id: String): Offer? {
-        val dbOffers: List<Offer> = withContext(databaseServiceContext) {
+    suspend fun getOffer(id: UUID): Offer? {
+        val dbOffers: List<Offer> = withReadContext {
             database.selectOfferByOfferId(id)
         }
         return if (dbOffers.size > 1) {
@@ -477,24 +638,46 @@ open class DatabaseService(
             check(dbOffers[0].id == id) {
                 "Returned offer id $id did not match specified offer id $id"
             }
-            logger.info("getOffer: returning offer with B64 ID $id")
+            logger.info("getOffer: returning offer with ID $id")
             dbOffers[0]
         } else {
-            logger.info("getOffer: no offer found with B64 ID $id")
+            logger.info("getOffer: no offer found with ID $id")
             null
         }
     }
 
     /**
-     * Deletes all persistently stored settlement methods, their private data and corresponding initialization vectors
-     * (if any) associated with the specified offer ID and chain ID in a database table via [deletionLambda], and then
+     * Retrieves the persistently stored state and transaction data of every action of an offer or swap that is
+     * performed by the transaction with the given hash. Each [EntityTransaction] contains the ID and chain ID of the
+     * offer or swap to which the action belongs, so this finds the offer or swap affected by a transaction without
+     * examining every offer and swap.
+     *
+     * @param transactionHash The hash of the transaction, as a hexadecimal [String].
+     *
+     * @return A [List] of [EntityTransaction]s with transaction hashes equal to [transactionHash], which is empty if no
+     * such action is found.
+     */
+    @OptIn(DelicateCoroutinesApi::class)
+    suspend fun getEntityTransactions(transactionHash: String): List<EntityTransaction> {
+        val entityTransactions = withReadContext {
+            database.selectEntityTransactionsByTransactionHash(transactionHash)
+        }
+        logger.info("getEntityTransactions: returning ${entityTransactions.size} actions with transaction hash " +
+                transactionHash)
+        return entityTransactions
+    }
+
+    /**
+     * Deletes all persistently stored settlement methods and their private data (if any) associated with the specified
+     * offer ID and chain ID in a database table via [deletionLambda], and then
      * persistently stores each settlement method and private data string tuples in the supplied [List] into the same
      * database table via [insertionLambda], associating each one with the supplied offer ID and chain ID. Private
-     * settlement method data is encrypted with [databaseKey] and a new initialization vector.
+     * settlement method data is encrypted with [columnCodec], bound to its row of [table].
      *
+     * @param table The name of the database table into which settlement methods are inserted.
      * @param offerID The ID of the offer or swap to be associated with the settlement methods.
      * @param chainID The ID of the blockchain on which the [Offer] or [Swap] corresponding to these settlement methods
-     * exists, as a [String].
+     * exists.
      * @param settlementMethods The settlement methods to be persistently stored, as a [List] of [Pair], each of which
      * contains a string and an optional string, in that order. The first element in a [Pair] is the public settlement
      * method data, including price, currency and type. The second element element in a [Pair] is private data (such as
@@ -503,26 +686,27 @@ open class DatabaseService(
      * chainID from the same database table into which this will insert new settlement methods. This lambda will be
      * executed on the [databaseServiceContext] coroutine dispatcher.
      * @param insertionLambda A lambda that can be executed to insert a new row, containing an offer ID, a chain ID,
-     * public settlement method data, encrypted private settlement method data, and an initialization vector, into the
-     * same table from which [deletionLambda] deletes settlement methods. This lambda will be executed on the
-     * [databaseServiceContext] coroutine dispatcher.
+     * public settlement method data and encrypted private settlement method data, into the same table from which
+     * [deletionLambda] deletes settlement methods. This lambda will be executed on the [databaseServiceContext]
+     * coroutine dispatcher.
      */
     @OptIn(DelicateCoroutinesApi::class)
     private suspend fun insertSettlementMethodsIntoTable(
-        offerID: String,
-        chainID: String,
+        table: String,
+        offerID: UUID,
+        chainID: BigInteger,
         settlementMethods: List<Pair<String, String?>>,
-        deletionLambda: (String, String) -> Unit,
-        insertionLambda: (String, String, String, String?, String?) -> Unit
+        deletionLambda: (UUID, BigInteger) -> Unit,
+        insertionLambda: (UUID, BigInteger, String, ByteArray?) -> Unit
     ) {
-        withContext(databaseServiceContext) {
+        withDatabaseContext {
             deletionLambda(offerID, chainID)
             for (settlementMethod in settlementMethods) {
                 val encryptedPrivateData = encryptPrivateSwapSettlementMethodData(
-                    privateSettlementMethodData = settlementMethod.second
+                    privateSettlementMethodData = settlementMethod.second,
+                    associatedData = settlementMethodAssociatedData(table, offerID, chainID, settlementMethod.first),
                 )
-                insertionLambda(offerID, chainID, settlementMethod.first, encryptedPrivateData.first,
-                    encryptedPrivateData.second)
+                insertionLambda(offerID, chainID, settlementMethod.first, encryptedPrivateData)
             }
         }
     }
@@ -533,135 +717,143 @@ open class DatabaseService(
      *
      * @param offerID The ID of the offer or swap for which associated settlement methods should be removed.
      * @param chainID The ID of the blockchain on which the [Offer] or [Swap] corresponding to these settlement methods
-     * exists, as a [String].
+     * exists.
      * @param deletionLambda A lambda that can be executed to delete all settlement methods with a given offer ID and
      * chain ID from the same database table containing settlement methods. This lambda will be executed on the
      * [databaseServiceContext] coroutine dispatcher.
      */
     @OptIn(DelicateCoroutinesApi::class)
     private suspend fun deleteSettlementMethodsFromTable(
-        offerID: String,
-        chainID: String,
-        deletionLambda: (String, String) -> Unit
+        offerID: UUID,
+        chainID: BigInteger,
+        deletionLambda: (UUID, BigInteger) -> Unit
     ) {
-        withContext(databaseServiceContext) {
+        withDatabaseContext {
             deletionLambda(offerID, chainID)
         }
     }
 
     /**
-     * Encrypts [privateSettlementMethodData] data with [databaseKey] along with the initialization vector used for
-     * encryption, and returns both as Base64 encoded strings of bytes within a pair, or returns a pair of `null` values
-     * if [privateSettlementMethodData] is `null`.
+     * Gets the associated data that binds encrypted private data to a row of an offer settlement method table.
+     *
+     * @param table The name of the table, either [OFFER_SETTLEMENT_METHOD_TABLE] or
+     * [PENDING_OFFER_SETTLEMENT_METHOD_TABLE].
+     * @param offerID The ID of the offer with which the settlement method is associated.
+     * @param chainID The ID of the blockchain on which the offer exists.
+     * @param settlementMethod The public settlement method data.
+     *
+     * @return Associated data for [ColumnCodec].
+     */
+    private fun settlementMethodAssociatedData(
+        table: String,
+        offerID: UUID,
+        chainID: BigInteger,
+        settlementMethod: String
+    ): String {
+        return ColumnCodec.associatedData(table, PRIVATE_DATA_COLUMN, offerID, chainID, settlementMethod)
+    }
+
+    /**
+     * Gets the associated data that binds an encrypted value to a column of a row of the `SwapRecord` table.
+     *
+     * @param column The name of the column.
+     * @param swapID The ID of the swap.
+     * @param chainID The ID of the blockchain on which the swap exists.
+     *
+     * @return Associated data for [ColumnCodec].
+     */
+    private fun swapAssociatedData(column: String, swapID: UUID, chainID: BigInteger): String {
+        return ColumnCodec.associatedData(SWAP_TABLE, column, swapID, chainID)
+    }
+
+    /**
+     * Gets the associated data that binds an encrypted communication key to a column of a row of the `SwapAndDispute`
+     * table.
+     *
+     * @param column The name of the column.
+     * @param id The ID of the swap and dispute.
+     * @param chainID The ID of the blockchain on which the swap exists.
+     *
+     * @return Associated data for [ColumnCodec].
+     */
+    private fun swapAndDisputeAssociatedData(column: String, id: UUID, chainID: BigInteger): String {
+        return ColumnCodec.associatedData(SWAP_AND_DISPUTE_TABLE, column, id, chainID)
+    }
+
+    /**
+     * Gets the associated data that binds encrypted private data to a row of the `UserSettlementMethod` table.
      *
-     * @param privateSettlementMethodData The string of private data to be symmetrically encrypted with [databaseKey].
-     * @return A [Pair] containing two optional strings. If [privateSettlementMethodData] is not `null`, the first will
-     * be [privateSettlementMethodData] encrypted with [databaseKey] and a new initialization vector as a Base64 encoded
-     * string of bytes, and the second will be the initialization vector used to encrypt [privateSettlementMethodData],
-     * also as a Base64 encoded string of bytes. If [privateSettlementMethodData] is `null`, both strings will be
+     * @param settlementMethodID The ID of the user's settlement method.
+     *
+     * @return Associated data for [ColumnCodec].
+     */
+    private fun userSettlementMethodAssociatedData(settlementMethodID: String): String {
+        return ColumnCodec.associatedData(USER_SETTLEMENT_METHOD_TABLE, PRIVATE_DATA_COLUMN, settlementMethodID)
+    }
+
+    /**
+     * Encrypts [privateSettlementMethodData] with [columnCodec], or returns `null` if [privateSettlementMethodData] is
      * `null`.
+     *
+     * @param privateSettlementMethodData The string of private data to be encrypted with [columnCodec].
+     * @param associatedData Data identifying the row and column in which the encrypted data will be stored.
+     * @return [privateSettlementMethodData] encrypted with [columnCodec] as bytes that also contain the nonce used to
+     * encrypt it, or `null` if [privateSettlementMethodData] is `null`.
      */
-    private fun encryptPrivateSwapSettlementMethodData(privateSettlementMethodData: String?): Pair<String?, String?> {
-        var privateCipherDataString: String? = null
-        var initializationVectorString: String? = null
-        val privateByteArray = privateSettlementMethodData?.toByteArray()
-        if (privateByteArray != null) {
-            val encryptedData = databaseKey.encrypt(privateByteArray)
-            val encoder = Base64.getEncoder()
-            privateCipherDataString = encoder.encodeToString(encryptedData.encryptedData)
-            initializationVectorString = encoder.encodeToString(encryptedData.initializationVector)
-        }
-        return Pair(privateCipherDataString, initializationVectorString)
+    private fun encryptPrivateSwapSettlementMethodData(
+        privateSettlementMethodData: String?,
+        associatedData: String,
+    ): ByteArray? {
+        return privateSettlementMethodData?.let { columnCodec.encode(it.toByteArray(), associatedData) }
     }
 
     /**
-     * Decrypts [privateSettlementMethodData] with [databaseKey] and [privateSettlementMethodDataInitializationVector]
-     * and then returns the result as a UTF-8 string, or returns `null` if [privateSettlementMethodData] or
-     * [privateSettlementMethodDataInitializationVector] is `null` or if decryption is unsuccessful.
+     * Decrypts [privateSettlementMethodData] with [columnCodec] and then returns the result, or returns `null` if
+     * [privateSettlementMethodData] is `null` or if decryption is unsuccessful.
      *
-     * @param privateSettlementMethodData The private data to be decrypted, as a Base64 encoded string of bytes.
-     * @param privateSettlementMethodDataInitializationVector The initialization vector that will be used to decrypt
-     * [privateSettlementMethodData], as a Base64 encoded string of bytes.
+     * @param privateSettlementMethodData The private data to be decrypted.
+     * @param associatedData Data identifying the row and column from which [privateSettlementMethodData] was read.
      *
-     * @return An optional string that will either be a UTF-8 string made from the results of the decryption, or `null`
-     * if either of the parameters are `null` or if decryption is unsuccessful.
+     * @return Optional bytes that will either be the result of the decryption, or `null` if
+     * [privateSettlementMethodData] is `null` or if decryption is unsuccessful.
      */
     private fun decryptPrivateSwapSettlementMethodData(
-        privateSettlementMethodData: String?,
-        privateSettlementMethodDataInitializationVector: String?
-    ): String? {
-        var decryptedPrivateDataString: String? = null
-        if (privateSettlementMethodData != null && privateSettlementMethodDataInitializationVector != null) {
-            val decoder = Base64.getDecoder()
-            val privateCipherData = try {
-                decoder.decode(privateSettlementMethodData)
-            } catch (exception: Exception) {
-                null
-            }
-            val privateDataInitializationVector = try {
-                decoder.decode(privateSettlementMethodDataInitializationVector)
-            } catch (exception: Exception) {
-                null
-            }
-            if (privateCipherData != null && privateDataInitializationVector != null) {
-                val privateDataObject = SymmetricallyEncryptedData(
-                    data = privateCipherData,
-                    iv = privateDataInitializationVector
-                )
-                try {
-                    databaseKey.decrypt(privateDataObject)
-                } catch(exception: Exception) {
-                    return null
-                }.let {
-                    decryptedPrivateDataString = it.decodeToString()
-                }
-            }
+        privateSettlementMethodData: ByteArray?,
+        associatedData: String,
+    ): ByteArray? {
+        if (privateSettlementMethodData == null) {
+            return null
+        }
+        return try {
+            columnCodec.decode(privateSettlementMethodData, associatedData)
+        } catch (exception: Exception) {
+            null
         }
-        return decryptedPrivateDataString
     }
 
     /**
-     * Attempts to decrypt the supplied cipher data using [databaseKey] and the supplied initialization vector string.
+     * Attempts to decrypt the supplied cipher data using [columnCodec].
      *
-     * @param privateDataCipherString The cipher data to be decrypted, as a Base64-encoded string.
-     * @param privateDataInitializationVectorString The initialization vector with which to decrypt
-     * [privateDataCipherString].
+     * @param privateDataCipherBytes The cipher data to be decrypted.
+     * @param associatedData Data identifying the row and column from which [privateDataCipherBytes] was read.
      * @param decryptionFailureHandler A closure that will be executed if decryption fails.
-     * @param decodingFailureHandler A closure that will be executed if decoding the cipher string or initialization
-     * vector fails.
+     * @param decodingFailureHandler A closure that will be executed if decoding the cipher data fails.
      *
-     * @return [privateDataCipherString] as a decrypted string, or `null` if the decoding and decryption process fails.
+     * @return [privateDataCipherBytes] as a decrypted string, or `null` if the decoding and decryption process fails.
      */
     private fun decryptSettlementMethodFromTable(
-        privateDataCipherString: String,
-        privateDataInitializationVectorString: String,
+        privateDataCipherBytes: ByteArray,
+        associatedData: String,
         decryptionFailureHandler: () -> Unit,
         decodingFailureHandler: () -> Unit
     ): String? {
-        val decoder = Base64.getDecoder()
-        val privateCipherData = try {
-            decoder.decode(privateDataCipherString)
-        } catch (exception: Exception) {
+        return try {
+            columnCodec.decode(privateDataCipherBytes, associatedData).decodeToString()
+        } catch (exception: IllegalArgumentException) {
+            decodingFailureHandler.invoke()
             null
-        }
-        val privateDataInitializationVector = try {
-            decoder.decode(privateDataInitializationVectorString)
         } catch (exception: Exception) {
-            null
-        }
-        return if (privateCipherData != null && privateDataInitializationVector != null) {
-            val privateDataObject = SymmetricallyEncryptedData(
-                data = privateCipherData,
-                iv = privateDataInitializationVector
-            )
-            try {
-                databaseKey.decrypt(privateDataObject).decodeToString()
-            } catch (exception: Exception) {
-                decryptionFailureHandler.invoke()
-                null
-            }
-        } else {
-            decodingFailureHandler.invoke()
+            decryptionFailureHandler.invoke()
             null
         }
     }
@@ -671,53 +863,46 @@ open class DatabaseService(
      * specified offer ID and chain ID from a database table containing settlement methods via [selectionLambda], or
      * returns `null` if no such settlement methods are present.
      *
-     * @param offerID The ID of the offer for which settlement methods should be returned, as a Base64-[String] of
-     * bytes.
+     * @param table The name of the database table from which settlement methods are selected.
+     * @param offerID The ID of the offer for which settlement methods should be returned.
      * @param chainID The ID of the blockchain on which the [Offer] or [Swap] corresponding to these settlement methods
-     * exists, as a [String].
+     * exists.
      * @param selectionLambda A lambda that can be executed to select all settlement methods with a given offer ID and
      * chain ID from a database table containing settlement methods. This lambda will be executed on the
      * [databaseServiceContext] coroutine dispatcher.
      */
     @OptIn(DelicateCoroutinesApi::class)
     private suspend fun getAndDecryptSettlementMethodsFromTable(
-        offerID: String,
-        chainID: String,
-        selectionLambda: (String, String) -> List<OfferSettlementMethod>
+        table: String,
+        offerID: UUID,
+        chainID: BigInteger,
+        selectionLambda: (UUID, BigInteger) -> List<OfferSettlementMethod>
     ): List<Pair<String, String?>>? {
-        val dbSettlementMethods: List<OfferSettlementMethod> = withContext(databaseServiceContext) {
+        val dbSettlementMethods: List<OfferSettlementMethod> = withReadContext {
             selectionLambda(offerID, chainID)
         }
         return if (dbSettlementMethods.isNotEmpty()) {
-            val settlementMethodsList = mutableListOf<Pair<String, String?>>()
-            dbSettlementMethods.forEach {
-                var decryptedPrivateDataString: String? = null
-                val privateDataCipherString = it.privateData
-                val privateDataInitializationVectorString = it.privateDataInitializationVector
-                if (privateDataCipherString != null && privateDataInitializationVectorString != null) {
-                    decryptedPrivateDataString = decryptSettlementMethodFromTable(
-                        privateDataCipherString = privateDataCipherString,
-                        privateDataInitializationVectorString = privateDataInitializationVectorString,
-                        decryptionFailureHandler = {
-                            logger.error("getAndDecryptSettlementMethodsFromTable: unable to get string from " +
-                                    "decoded private data using utf8 encoding for offer with B64 ID $offerID")
-                        },
-                        decodingFailureHandler = {
-                            logger.error("getAndDecryptSettlementMethodsFromTable: found private data for " +
-                                    "offer with B64 ID $offerID but could not decode bytes from strings")
-                        }
-                    )
-                } else {
+            val decryptedPrivateData = columnCodec.decodeAll(dbSettlementMethods.map {
+                StoredColumnValue(
+                    storedValue = it.privateData,
+                    associatedData = settlementMethodAssociatedData(table, it.id, it.chainID, it.settlementMethod),
+                )
+            })
+            val settlementMethodsList = dbSettlementMethods.zip(decryptedPrivateData) { settlementMethod, privateData ->
+                if (settlementMethod.privateData == null) {
                     logger.error("getAndDecryptSettlementMethodsFromTable: did not find private settlement " +
-                            "method data for settlement method for offer with B64 ID $offerID")
+                            "method data for settlement method for offer with ID $offerID")
+                } else if (privateData == null) {
+                    logger.error("getAndDecryptSettlementMethodsFromTable: unable to decrypt private data for " +
+                            "settlement method for offer with ID $offerID")
                 }
-                settlementMethodsList.add(Pair(it.settlementMethod, decryptedPrivateDataString))
+                Pair(settlementMethod.settlementMethod, privateData?.decodeToString())
             }
             logger.info("getAndDecryptSettlementMethodsFromTable: returning ${settlementMethodsList.size} for " +
-                    "offer with B64 ID $offerID")
+                    "offer with ID $offerID")
             return settlementMethodsList
         } else {
-            logger.info("getAndDecryptSettlementMethodsFromTable: none found for offer with B64 ID $offerID")
+            logger.info("getAndDecryptSettlementMethodsFromTable: none found for offer with ID $offerID")
             null
         }
     }
@@ -728,7 +913,7 @@ open class DatabaseService(
      *
      * @param offerID The ID of the offer or swap to be associated with the settlement methods.
      * @param chainID The ID of the blockchain on which the [Offer] or [Swap] corresponding to these settlement methods
-     * exists, as a [String].
+     * exists.
      * @param settlementMethods The settlement methods to be persistently stored, as [Pair]s containing a string and an
      * optional string, in that order. The first element in a [Pair] is the public settlement method data, including
      * price, currency and type. The second element in a [Pair] is private data (such as an address or bank account
@@ -737,42 +922,107 @@ open class DatabaseService(
      * @throws Exception if database insertion is unsuccessful.
      */
     suspend fun storeOfferSettlementMethods(
-        offerID: String,
-        chainID: String,
+        offerID: UUID,
+        chainID: BigInteger,
         settlementMethods: List<Pair<String, String?>>
     ) {
         insertSettlementMethodsIntoTable(
+            table = OFFER_SETTLEMENT_METHOD_TABLE,
             offerID = offerID,
             chainID = chainID,
             settlementMethods = settlementMethods,
             deletionLambda = { _offerID, _chainID ->
                 database.deleteOfferSettlementMethods(_offerID, _chainID)
             },
-            insertionLambda = { _offerID, _chainID, publicData, encryptedPrivateData, initializationVector ->
+            insertionLambda = { _offerID, _chainID, publicData, encryptedPrivateData ->
                 database.insertOfferSettlementMethod(
                     OfferSettlementMethod(
                         _offerID,
                         _chainID,
                         publicData,
                         encryptedPrivateData,
-                        initializationVector
                     )
                 )
             }
         )
-        logger.info( "storeOfferSettlementMethods: stored ${settlementMethods.size} for offer with B64 ID $offerID")
+        logger.info( "storeOfferSettlementMethods: stored ${settlementMethods.size} for offer with ID $offerID")
+    }
+
+    /**
+     * Updates the persistently stored settlement methods of an offer from [oldSettlementMethods] to
+     * [newSettlementMethods], rewriting only the rows whose public settlement method data has been added, removed or
+     * given different private data. If the two lists contain the same settlement methods, this writes nothing.
+     * Otherwise, in a single transaction, this deletes every row with public data that appears a different number of
+     * times, or with different private data, in the two lists, and then inserts the settlement methods in
+     * [newSettlementMethods] with that public data.
+     *
+     * @param offerID The ID of the offer with which the settlement methods are associated.
+     * @param chainID The ID of the blockchain on which the [Offer] corresponding to these settlement methods exists.
+     * @param oldSettlementMethods The settlement methods currently stored for the offer, in the same format as
+     * [newSettlementMethods].
+     * @param newSettlementMethods The settlement methods that should be stored for the offer, as [Pair]s containing
+     * public settlement method data and optional private data, as described in [storeOfferSettlementMethods].
+     *
+     * @return `true` if any settlement methods were changed, `false` otherwise.
+     *
+     * @throws Exception if database deletion or insertion is unsuccessful.
+     */
+    suspend fun updateOfferSettlementMethods(
+        offerID: UUID,
+        chainID: BigInteger,
+        oldSettlementMethods: List<Pair<String, String?>>,
+        newSettlementMethods: List<Pair<String, String?>>
+    ): Boolean {
+        val oldCounts = oldSettlementMethods.groupingBy { it }.eachCount()
+        val newCounts = newSettlementMethods.groupingBy { it }.eachCount()
+        if (oldCounts == newCounts) {
+            logger.info("updateOfferSettlementMethods: settlement methods of offer with ID $offerID are unchanged")
+            return false
+        }
+        val changedPublicData = (oldCounts.keys + newCounts.keys)
+            .filter { oldCounts[it] != newCounts[it] }
+            .map { it.first }
+            .toSet()
+        val insertedSettlementMethods = newSettlementMethods.filter { it.first in changedPublicData }
+        withDatabaseContext {
+            database.transaction {
+                changedPublicData.forEach {
+                    database.deleteOfferSettlementMethod(offerID = offerID, chainID = chainID, settlementMethod = it)
+                }
+                insertedSettlementMethods.forEach {
+                    database.insertOfferSettlementMethod(
+                        OfferSettlementMethod(
+                            offerID,
+                            chainID,
+                            it.first,
+                            encryptPrivateSwapSettlementMethodData(
+                                privateSettlementMethodData = it.second,
+                                associatedData = settlementMethodAssociatedData(
+                                    OFFER_SETTLEMENT_METHOD_TABLE,
+                                    offerID,
+                                    chainID,
+                                    it.first
+                                ),
+                            ),
+                        )
+                    )
+                }
+            }
+        }
+        logger.info("updateOfferSettlementMethods: rewrote ${changedPublicData.size} settlement methods for offer " +
+                "with ID $offerID")
+        return true
     }
 
     /**
      * Calls [DatabaseService.deleteSettlementMethodsFromTable], passing all parameters passed to this function and a
      * lambda that performs deletion on the database table of offers' current settlement methods.
      *
-     * @param offerID The ID of the offer for which associated settlement methods should be removed, as a
-     * Base64-[String] of bytes.
+     * @param offerID The ID of the offer for which associated settlement methods should be removed.
      * @param chainID The ID of the blockchain on which the [Offer] or `Swap` corresponding to these settlement methods
-     * exists, as a [String].
+     * exists.
      */
-    suspend fun deleteOfferSettlementMethods(offerID: String, chainID: String) {
+    suspend fun deleteOfferSettlementMethods(offerID: UUID, chainID: BigInteger) {
         deleteSettlementMethodsFromTable(
             offerID = offerID,
             chainID = chainID,
@@ -780,23 +1030,23 @@ open class DatabaseService(
                 database.deleteOfferSettlementMethods(offerID = _offerID, chainID = _chainID)
             }
         )
-        logger.info("deleteOfferSettlementMethods: deleted for offer with B64 ID $offerID")
+        logger.info("deleteOfferSettlementMethods: deleted for offer with ID $offerID")
     }
 
     /**
      * Calls [DatabaseService.getAndDecryptSettlementMethodsFromTable], passing all parameters passed to this function
      * and a table that performs selection on the database table containing offers' current settlement methods.
      *
-     * @param offerID The ID of the offer for which settlement methods should be returned, as a Base64-[String] of
-     * bytes.
+     * @param offerID The ID of the offer for which settlement methods should be returned.
      * @param chainID The ID of the blockchain on which the [Offer] or [Swap] corresponding to these settlement methods
-     * exists, as a [String].
+     * exists.
      *
      * @return The value returned by [DatabaseService.getAndDecryptSettlementMethodsFromTable].
      */
-    suspend fun getOfferSettlementMethods(offerID: String, chainID: String): List<Pair<String, String?>>? {
-        logger.info("getOfferSettlementMethods: getting for offer with B64 ID $offerID")
+    suspend fun getOfferSettlementMethods(offerID: UUID, chainID: BigInteger): List<Pair<String, String?>>? {
+        logger.info("getOfferSettlementMethods: getting for offer with ID $offerID")
         return getAndDecryptSettlementMethodsFromTable(
+            table = OFFER_SETTLEMENT_METHOD_TABLE,
             offerID = offerID,
             chainID = chainID,
             selectionLambda = { _offerID, _chainID ->
@@ -811,38 +1061,38 @@ open class DatabaseService(
      *
      * @param offerID The ID of the offer or swap to be associated with the pending settlement methods.
      * @param chainID The ID of the blockchain on which the [Offer] or [Swap] corresponding to these settlement methods
-     * exists, as a [String].
+     * exists.
      * @param pendingSettlementMethods The pending settlement methods to be persistently stored, as pairs containing a
      * string and an optional string, in that order. The first element in each pair is the public settlement method
      * data, including price, currency and type. The second element element in each pair is private data (such as an
      * address or bank account number) for the settlement method, if any.
      */
     suspend fun storePendingOfferSettlementMethods(
-        offerID: String,
-        chainID: String,
+        offerID: UUID,
+        chainID: BigInteger,
         pendingSettlementMethods: List<Pair<String, String?>>
     ) {
         insertSettlementMethodsIntoTable(
+            table = PENDING_OFFER_SETTLEMENT_METHOD_TABLE,
             offerID = offerID,
             chainID = chainID,
             settlementMethods = pendingSettlementMethods,
             deletionLambda = { _offerID, _chainID ->
                 database.deletePendingOfferSettlementMethods(_offerID, _chainID)
             },
-            insertionLambda = { _offerID, _chainID, publicData, encryptedPrivateData, initializationVector ->
+            insertionLambda = { _offerID, _chainID, publicData, encryptedPrivateData ->
                 database.insertPendingOfferSettlementMethod(
                     OfferSettlementMethod(
                         _offerID,
                         _chainID,
                         publicData,
                         encryptedPrivateData,
-                        initializationVector
                     )
                 )
             }
         )
         logger.info("storePendingOfferSettlementMethods: stored ${pendingSettlementMethods.size} for offer with " +
-                "B64 ID $offerID")
+                "ID $offerID")
     }
 
     /**
@@ -851,9 +1101,9 @@ open class DatabaseService(
      *
      * @param offerID The ID of the offer for which associated pending settlement methods should be removed.
      * @param chainID The ID of the blockchain on which the [Offer] or [Swap] corresponding to these pending settlement
-     * methods exists, as a [String].
+     * methods exists.
      */
-    suspend fun deletePendingOfferSettlementMethods(offerID: String, chainID: String) {
+    suspend fun deletePendingOfferSettlementMethods(offerID: UUID, chainID: BigInteger) {
         deleteSettlementMethodsFromTable(
             offerID = offerID,
             chainID = chainID,
@@ -861,21 +1111,21 @@ open class DatabaseService(
                 database.deletePendingOfferSettlementMethods(offerID = _offerID, chainID = _chainID)
             }
         )
-        logger.info("deletePendingOfferSettlementMethods: deleted for offer with B64 ID $offerID")
+        logger.info("deletePendingOfferSettlementMethods: deleted for offer with ID $offerID")
     }
 
     /**
      * Calls [DatabaseService.getAndDecryptSettlementMethodsFromTable], passing all parameters passed to this function
      * and a lambda that performs selection on the database table of offers' pending settlement methods.
      *
-     * @param offerID The ID of the offer for which pending settlement methods should be returned, as a Base64-[String]
-     * of bytes.
+     * @param offerID The ID of the offer for which pending settlement methods should be returned.
      * @param chainID The ID of the blockchain on which the [Offer] or [Swap] corresponding to these pending settlement
-     * methods exists, as a [String].
+     * methods exists.
      */
-    suspend fun getPendingOfferSettlementMethods(offerID: String, chainID: String): List<Pair<String, String?>>? {
-        logger.info("getPendingOfferSettlementMethods: getting for offer with B64 ID $offerID")
+    suspend fun getPendingOfferSettlementMethods(offerID: UUID, chainID: BigInteger): List<Pair<String, String?>>? {
+        logger.info("getPendingOfferSettlementMethods: getting for offer with ID $offerID")
         return getAndDecryptSettlementMethodsFromTable(
+            table = PENDING_OFFER_SETTLEMENT_METHOD_TABLE,
             offerID = offerID,
             chainID = chainID,
             selectionLambda = { _offerID, _chainID ->
@@ -892,26 +1142,21 @@ open class DatabaseService(
      * @param publicKey The public key of the key pair as a byte array encoded to a hexadecimal [String].
      * @param privateKey The private key of the key pair as a byte array encoded to a hexadecimal [String].
      *
-     * @throws Exception if database insertion is unsuccessful for a reason OTHER than UNIQUE constraint failure.
+     * @return `true` if the key pair was stored, or `false` if a key pair with the same interface ID was already
+     * stored.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun storeKeyPair(interfaceId: String, publicKey: String, privateKey: String) {
+    suspend fun storeKeyPair(interfaceId: String, publicKey: String, privateKey: String): Boolean {
         val keyPair = KeyPair(interfaceId, publicKey, privateKey)
-        try {
-            withContext(databaseServiceContext) {
-                database.insertKeyPair(keyPair)
-            }
+        val wasStored = withDatabaseContext {
+            database.insertKeyPair(keyPair)
+        }
+        if (wasStored) {
             logger.info("storeKeyPair: stored with interface ID $interfaceId")
-        } catch (exception: SQLiteException) {
-            /*
-            The result code for a UNIQUE constraint failure; see here: https://www.sqlite.org/rescode.html
-            If a key pair with the specified interface ID already exists, we do nothing.
-             */
-            if (exception.resultCode.code != 2067) {
-                throw exception
-            }
+        } else {
             logger.info("storeKeyPair: key pair with interface ID $interfaceId already exists in database")
         }
+        return wasStored
     }
 
     /**
@@ -928,7 +1173,7 @@ open class DatabaseService(
      */
     @OptIn(DelicateCoroutinesApi::class)
     suspend fun getKeyPair(interfaceId: String): KeyPair? {
-        val dbKeyPairs: List<KeyPair> = withContext(databaseServiceContext) {
+        val dbKeyPairs: List<KeyPair> = withReadContext {
             database.selectKeyPairByInterfaceId(interfaceId)
         }
         return if (dbKeyPairs.size > 1) {
@@ -947,31 +1192,27 @@ open class DatabaseService(
     }
 
     /**
-     * Persistently stores a public key associated with an interface ID.
+     * Persistently stores a public key associated with an interface ID. If a public key with the specified interface ID
+     * already exists in the database, this does nothing.
      *
      * @param interfaceId The interface ID of the key pair as a byte array encoded to a hexadecimal [String].
      * @param publicKey The public key to be stored, as a byte array encoded to a hexadecimal [String].
      *
-     * @throws IllegalStateException if a public key with the given interface ID is already found in the database.
+     * @return `true` if the public key was stored, or `false` if a public key with the same interface ID was already
+     * stored.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun storePublicKey(interfaceId: String, publicKey: String) {
+    suspend fun storePublicKey(interfaceId: String, publicKey: String): Boolean {
         val databasePublicKey = PublicKey(interfaceId, publicKey)
-        try {
-            withContext(databaseServiceContext) {
-                database.insertPublicKey(databasePublicKey)
-            }
+        val wasStored = withDatabaseContext {
+            database.insertPublicKey(databasePublicKey)
+        }
+        if (wasStored) {
             logger.info("storePublicKey: stored with interface ID $interfaceId")
-        } catch (exception: SQLiteException) {
-            /*
-            The result code for a UNIQUE constraint failure; see here: https://www.sqlite.org/rescode.html
-            If a public key with the specified interface ID already exists, we do nothing.
-             */
-            if (exception.resultCode.code != 2067) {
-                throw exception
-            }
+        } else {
             logger.info("storePublicKey: public key with interface ID $interfaceId already exists in database")
         }
+        return wasStored
     }
 
     /**
@@ -988,7 +1229,7 @@ open class DatabaseService(
      */
     @OptIn(DelicateCoroutinesApi::class)
     suspend fun getPublicKey(interfaceId: String): PublicKey? {
-        val dbPublicKeys: List<PublicKey> = withContext(databaseServiceContext) {
+        val dbPublicKeys: List<PublicKey> = withReadContext {
             database.selectPublicKeyByInterfaceId(interfaceId)
         }
         return if (dbPublicKeys.size > 1) {
@@ -1006,20 +1247,94 @@ open class DatabaseService(
         }
     }
 
+    /**
+     * Persistently stores the currency codes, names and decimals of stablecoin contracts in a single transaction. Each
+     * [StablecoinMetadata] with the same chain ID and contract address as one that is already stored is skipped.
+     *
+     * @param metadata The [StablecoinMetadata]s to be stored.
+     */
+    @OptIn(DelicateCoroutinesApi::class)
+    suspend fun storeStablecoinMetadata(metadata: List<StablecoinMetadata>) {
+        withDatabaseContext {
+            database.insertStablecoinMetadata(metadata)
+        }
+        logger.info("storeStablecoinMetadata: stored metadata for ${metadata.size} stablecoins")
+    }
+
+    /**
+     * Retrieves the persistently stored currency codes, names and decimals of stablecoin contracts on all chains.
+     *
+     * @return A [List] of every stored [StablecoinMetadata].
+     */
+    @OptIn(DelicateCoroutinesApi::class)
+    suspend fun getAllStablecoinMetadata(): List<StablecoinMetadata> {
+        val metadata = withReadContext {
+            database.selectAllStablecoinMetadata()
+        }
+        logger.info("getAllStablecoinMetadata: returning metadata for ${metadata.size} stablecoins")
+        return metadata
+    }
+
+    /**
+     * Persistently stores a [PendingOffer], which identifies an offer opened by another user of which the on-chain data
+     * has not yet been retrieved. If a [PendingOffer] with the same ID and chain ID is already stored, this does
+     * nothing.
+     *
+     * @param pendingOffer The [PendingOffer] to be stored.
+     */
+    @OptIn(DelicateCoroutinesApi::class)
+    suspend fun storePendingOffer(pendingOffer: PendingOffer) {
+        withDatabaseContext {
+            database.insertPendingOffer(pendingOffer)
+        }
+        logger.info("storePendingOffer: stored pending offer with ID ${pendingOffer.id}")
+    }
+
+    /**
+     * Removes the [PendingOffer] with an offer ID equal to [offerID] and a chain ID equal to [chainID] from persistent
+     * storage, if present.
+     *
+     * @param offerID The offer ID of the [PendingOffer] to be removed.
+     * @param chainID The blockchain ID of the [PendingOffer] to be removed.
+     */
+    @OptIn(DelicateCoroutinesApi::class)
+    suspend fun deletePendingOffer(offerID: UUID, chainID: BigInteger) {
+        withDatabaseContext {
+            database.deletePendingOffer(offerID = offerID, chainID = chainID)
+        }
+        logger.info("deletePendingOffer: deleted pending offer with ID $offerID and chain ID $chainID, if present")
+    }
+
+    /**
+     * Retrieves every persistently stored [PendingOffer], for all chains.
+     *
+     * @return A [List] of every stored [PendingOffer].
+     */
+    @OptIn(DelicateCoroutinesApi::class)
+    suspend fun getPendingOffers(): List<PendingOffer> {
+        val pendingOffers = withReadContext {
+            database.selectAllPendingOffers()
+        }
+        logger.info("getPendingOffers: returning ${pendingOffers.size} pending offers")
+        return pendingOffers
+    }
+
     /**
      * Persistently stores a [Swap](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#swap). If a Swap with
      * the specified ID already exists in the database, this does nothing.
      *
      * @param swap The [Swap] to be stored in the database.
      *
-     * @throws Exception if database insertion is unsuccessful for a reason OTHER than UNIQUE constraint failure.
+     * @return `true` if [swap] was stored, or `false` if a swap with the same ID and chain ID was already stored.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun storeSwap(swap: Swap) {
-        val encryptedMakerData = encryptPrivateSwapSettlementMethodData(privateSettlementMethodData = swap
-            .makerPrivateData)
-        val encryptedTakerData = encryptPrivateSwapSettlementMethodData(privateSettlementMethodData = swap
-            .takerPrivateData)
+    suspend fun storeSwap(swap: Swap): Boolean {
+        val encryptedMakerData = swap.makerPrivateData?.let {
+            columnCodec.encode(it, swapAssociatedData(MAKER_PRIVATE_DATA_COLUMN, swap.id, swap.chainID))
+        }
+        val encryptedTakerData = swap.takerPrivateData?.let {
+            columnCodec.encode(it, swapAssociatedData(TAKER_PRIVATE_DATA_COLUMN, swap.id, swap.chainID))
+        }
         val swapToInsert = Swap(
             id = swap.id,
             isCreated = swap.isCreated,
@@ -1037,10 +1352,8 @@ open class DatabaseService(
             serviceFeeRate = swap.serviceFeeRate,
             onChainDirection = swap.onChainDirection,
             settlementMethod = swap.settlementMethod,
-            makerPrivateData = encryptedMakerData.first,
-            makerPrivateDataInitializationVector = encryptedMakerData.second,
-            takerPrivateData = encryptedTakerData.first,
-            takerPrivateDataInitializationVector = encryptedTakerData.second,
+            makerPrivateData = encryptedMakerData,
+            takerPrivateData = encryptedTakerData,
             protocolVersion = swap.protocolVersion,
             isPaymentSent = swap.isPaymentSent,
             isPaymentReceived = swap.isPaymentReceived,
@@ -1077,21 +1390,15 @@ open class DatabaseService(
             raisingDisputeTransactionCreationTime = swap.raisingDisputeTransactionCreationTime,
             raisingDisputeTransactionCreationBlockNumber = swap.raisingDisputeTransactionCreationBlockNumber,
         )
-        try {
-            withContext(databaseServiceContext) {
-                database.insertSwap(swapToInsert)
-            }
-            logger.info("storeSwap: stored swap with B64 ID ${swap.id}")
-        } catch (exception: SQLiteException) {
-            /*
-            The result code for a UNIQUE constraint failure; see here: https://www.sqlite.org/rescode.html
-            If a Swap with the specified ID already exists, we do nothing.
-             */
-            if (exception.resultCode.code != 2067) {
-                throw exception
-            }
-            logger.info("storeSwap: swap with B64 ID ${swap.id} already exists in database")
+        val wasStored = withDatabaseContext {
+            database.insertSwap(swapToInsert)
         }
+        if (wasStored) {
+            logger.info("storeSwap: stored swap with ID ${swap.id}")
+        } else {
+            logger.info("storeSwap: swap with ID ${swap.id} already exists in database")
+        }
+        return wasStored
     }
 
     /**
@@ -1099,61 +1406,63 @@ open class DatabaseService(
      * [Swap](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#swap) with the specified [swapID] and
      * [chainID].
      *
-     * @param swapID The ID of the swap to be updated, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the swap to be updated, as a [String].
+     * @param swapID The ID of the swap to be updated.
+     * @param chainID The blockchain ID of the swap to be updated.
      * @param requiresFill The new value of the swap's [Swap.requiresFill] property.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun updateSwapRequiresFill(swapID: String, chainID: String, requiresFill: Boolean) {
+    suspend fun updateSwapRequiresFill(swapID: UUID, chainID: BigInteger, requiresFill: Boolean) {
         val requiresFillLong = if (requiresFill) 1L else 0L
-        withContext(databaseServiceContext) {
+        writeBehind(key = "updateSwapRequiresFill:$swapID:$chainID") {
             database.updateSwapRequiresFill(swapID, chainID, requiresFillLong)
         }
-        logger.info("updateSwapRequiresFill: set value to $requiresFill for swap with B64 ID $swapID, if " +
+        logger.info("updateSwapRequiresFill: set value to $requiresFill for swap with ID $swapID, if " +
                 "present")
     }
 
     /**
-     * Updates a persistently stored [Swap]'s [Swap.makerPrivateData] and [Swap.makerPrivateDataInitializationVector]
-     * fields with the results of encrypting [data].
+     * Updates a persistently stored [Swap]'s [Swap.makerPrivateData] field with the result of encrypting [data].
      *
-     * @param swapID The ID of the swap to be updated, as a Base64-[String] of bytes.
-     * @param chainID The chain ID of the swap to be updated, as a [String].
+     * @param swapID The ID of the swap to be updated.
+     * @param chainID The chain ID of the swap to be updated.
      * @param data New private settlement method data belonging to the maker of the swap with the specified ID and chain
      * ID, to be encrypted and stored.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun updateSwapMakerPrivateSettlementMethodData(swapID: String, chainID: String, data: String?) {
-        val encryptedData = encryptPrivateSwapSettlementMethodData(privateSettlementMethodData = data)
-        withContext(databaseServiceContext) {
+    suspend fun updateSwapMakerPrivateSettlementMethodData(swapID: UUID, chainID: BigInteger, data: String?) {
+        val encryptedData = encryptPrivateSwapSettlementMethodData(
+            privateSettlementMethodData = data,
+            associatedData = swapAssociatedData(MAKER_PRIVATE_DATA_COLUMN, swapID, chainID),
+        )
+        writeBehind(key = "updateSwapMakerPrivateSettlementMethodData:$swapID:$chainID") {
             database.updateSwapMakerPrivateSettlementMethodData(
                 swapID,
                 chainID,
-                encryptedData.first,
-                encryptedData.second
+                encryptedData,
             )
         }
         logger.info("updateSwapMakerPrivateSettlementMethodData: updated for $swapID, if present")
     }
 
     /**
-     * Updates a persistently stored [Swap]'s [Swap.takerPrivateData] and [Swap.takerPrivateDataInitializationVector]
-     * fields with the results of encrypting [data].
+     * Updates a persistently stored [Swap]'s [Swap.takerPrivateData] field with the result of encrypting [data].
      *
-     * @param swapID The ID of the swap to be updated, as a Base64-[String] of bytes.
-     * @param chainID The chain ID of the swap to be updated, as a [String].
+     * @param swapID The ID of the swap to be updated.
+     * @param chainID The chain ID of the swap to be updated.
      * @param data New private settlement method data belonging to the taker of the swap with the specified ID and chain
      * ID, to be encrypted and stored.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun updateSwapTakerPrivateSettlementMethodData(swapID: String, chainID: String, data: String?) {
-        val encryptedData = encryptPrivateSwapSettlementMethodData(privateSettlementMethodData = data)
-        withContext(databaseServiceContext) {
+    suspend fun updateSwapTakerPrivateSettlementMethodData(swapID: UUID, chainID: BigInteger, data: String?) {
+        val encryptedData = encryptPrivateSwapSettlementMethodData(
+            privateSettlementMethodData = data,
+            associatedData = swapAssociatedData(TAKER_PRIVATE_DATA_COLUMN, swapID, chainID),
+        )
+        writeBehind(key = "updateSwapTakerPrivateSettlementMethodData:$swapID:$chainID") {
             database.updateSwapTakerPrivateSettlementMethodData(
                 swapID,
                 chainID,
-                encryptedData.first,
-                encryptedData.second
+                encryptedData,
             )
         }
         logger.info("updateSwapTakerPrivateSettlementMethodData: updated for $swapID, if present")
@@ -1164,17 +1473,17 @@ open class DatabaseService(
      * [Swap](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#swap) with the specified [swapID] and
      * [chainID].
      *
-     * @param swapID The ID of the swap to be updated, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the swap to be updated, as a [String].
+     * @param swapID The ID of the swap to be updated.
+     * @param chainID The blockchain ID of the swap to be updated.
      * @param isPaymentSent The new value of the swap's [Swap.isPaymentSent] property.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun updateSwapIsPaymentSent(swapID: String, chainID: String, isPaymentSent: Boolean) {
+    suspend fun updateSwapIsPaymentSent(swapID: UUID, chainID: BigInteger, isPaymentSent: Boolean) {
         val isPaymentSentLong = if (isPaymentSent) 1L else 0L
-        withContext(databaseServiceContext) {
+        writeBehind(key = "updateSwapIsPaymentSent:$swapID:$chainID") {
             database.updateSwapIsPaymentSent(swapID, chainID, isPaymentSentLong)
         }
-        logger.info("updateSwapIsPaymentSent: set value to $isPaymentSent for swap with B64 ID $swapID, if " +
+        logger.info("updateSwapIsPaymentSent: set value to $isPaymentSent for swap with ID $swapID, if " +
                 "present")
     }
 
@@ -1183,17 +1492,17 @@ open class DatabaseService(
      * [Swap](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#swap) with the specified [swapID] and
      * [chainID].
      *
-     * @param swapID The ID of the swap to be updated, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the swap to be updated, as a [String].
+     * @param swapID The ID of the swap to be updated.
+     * @param chainID The blockchain ID of the swap to be updated.
      * @param isPaymentReceived The new value of the swap's [Swap.isPaymentReceived] property.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun updateSwapIsPaymentReceived(swapID: String, chainID: String, isPaymentReceived: Boolean) {
+    suspend fun updateSwapIsPaymentReceived(swapID: UUID, chainID: BigInteger, isPaymentReceived: Boolean) {
         val isPaymentReceivedLong = if (isPaymentReceived) 1L else 0L
-        withContext(databaseServiceContext) {
+        writeBehind(key = "updateSwapIsPaymentReceived:$swapID:$chainID") {
             database.updateSwapIsPaymentReceived(swapID, chainID, isPaymentReceivedLong)
         }
-        logger.info("updateSwapIsPaymentReceived: set value to $isPaymentReceived for swap with B64 ID $swapID, if " +
+        logger.info("updateSwapIsPaymentReceived: set value to $isPaymentReceived for swap with ID $swapID, if " +
                 "present")
     }
 
@@ -1202,17 +1511,17 @@ open class DatabaseService(
      * [Swap](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#swap) with the specified [swapID] and
      * [chainID].
      *
-     * @param swapID The ID of the swap to be updated, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the swap to be updated, as a [String].
+     * @param swapID The ID of the swap to be updated.
+     * @param chainID The blockchain ID of the swap to be updated.
      * @param hasBuyerClosed The new value of the swap's [Swap.hasBuyerClosed] property.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun updateSwapHasBuyerClosed(swapID: String, chainID: String, hasBuyerClosed: Boolean) {
+    suspend fun updateSwapHasBuyerClosed(swapID: UUID, chainID: BigInteger, hasBuyerClosed: Boolean) {
         val hasBuyerClosedLong = if (hasBuyerClosed) 1L else 0L
-        withContext(databaseServiceContext) {
+        writeBehind(key = "updateSwapHasBuyerClosed:$swapID:$chainID") {
             database.updateSwapHasBuyerClosed(swapID, chainID, hasBuyerClosedLong)
         }
-        logger.info("updateSwapHasBuyerClosed: set value to $hasBuyerClosed for swap with B64 ID $swapID, if " +
+        logger.info("updateSwapHasBuyerClosed: set value to $hasBuyerClosed for swap with ID $swapID, if " +
                 "present")
     }
 
@@ -1221,17 +1530,17 @@ open class DatabaseService(
      * [Swap](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#swap) with the specified [swapID] and
      * [chainID].
      *
-     * @param swapID The ID of the swap to be updated, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the swap to be updated, as a [String].
+     * @param swapID The ID of the swap to be updated.
+     * @param chainID The blockchain ID of the swap to be updated.
      * @param hasSellerClosed The new value of the swap's [Swap.hasSellerClosed] property.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun updateSwapHasSellerClosed(swapID: String, chainID: String, hasSellerClosed: Boolean) {
+    suspend fun updateSwapHasSellerClosed(swapID: UUID, chainID: BigInteger, hasSellerClosed: Boolean) {
         val hasSellerClosedLong = if (hasSellerClosed) 1L else 0L
-        withContext(databaseServiceContext) {
+        writeBehind(key = "updateSwapHasSellerClosed:$swapID:$chainID") {
             database.updateSwapHasSellerClosed(swapID, chainID, hasSellerClosedLong)
         }
-        logger.info("updateSwapHasSellerClosed: set value to $hasSellerClosed for swap with B64 ID $swapID, if " +
+        logger.info("updateSwapHasSellerClosed: set value to $hasSellerClosed for swap with ID $swapID, if " +
                 "present")
     }
 
@@ -1240,16 +1549,16 @@ open class DatabaseService(
      * [Swap](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#swap) with the specified [swapID] and
      * [chainID].
      *
-     * @param swapID The ID of the swap to be updated, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the swap to be updated, as a [String].
+     * @param swapID The ID of the swap to be updated.
+     * @param chainID The blockchain ID of the swap to be updated.
      * @param state The new value of the swap's [Swap.state] property.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun updateSwapState(swapID: String, chainID: String, state: String) {
-        withContext(databaseServiceContext) {
+    suspend fun updateSwapState(swapID: UUID, chainID: BigInteger, state: String) {
+        writeBehind(key = "updateSwapState:$swapID:$chainID") {
             database.updateSwapState(swapID, chainID, state)
         }
-        logger.info("updateSwapState: set value to $state for swap with B64 ID $swapID, if present")
+        logger.info("updateSwapState: set value to $state for swap with ID $swapID, if present")
     }
 
     /**
@@ -1257,16 +1566,16 @@ open class DatabaseService(
      * [Swap](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#swap) with the specified [swapID] and
      * [chainID].
      *
-     * @param swapID The ID of the swap to be updated, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the offer to be updated, as a [String].
+     * @param swapID The ID of the swap to be updated.
+     * @param chainID The blockchain ID of the offer to be updated.
      * @param state The new value of the offer's [Swap.approveToFillState] property.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun updateSwapApproveToFillState(swapID: String, chainID: String, state: String) {
-        withContext(databaseServiceContext) {
+    suspend fun updateSwapApproveToFillState(swapID: UUID, chainID: BigInteger, state: String) {
+        writeBehind(key = "updateSwapApproveToFillState:$swapID:$chainID") {
             database.updateSwapApproveToFillState(swapID, chainID, state)
         }
-        logger.info("updateSwapApproveToFillState: set value to $state for swap with B64 ID $swapID, if present")
+        logger.info("updateSwapApproveToFillState: set value to $state for swap with ID $swapID, if present")
     }
 
     /**
@@ -1275,8 +1584,8 @@ open class DatabaseService(
      * [Swap](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#swap) with the specified [swapID] and
      * [chainID].
      *
-     * @param swapID The ID of the swap to be updated, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the swap to be updated, as a [String].
+     * @param swapID The ID of the swap to be updated.
+     * @param chainID The blockchain ID of the swap to be updated.
      * @param transactionHash The new value of the swap's [Swap.approveToFillTransactionHash] property, as a transaction
      * hash as a hexadecimal string with "0x" prefix.
      * @param creationTime The new value of the swap's [Swap.approveToFillTransactionCreationTime] property.
@@ -1284,13 +1593,13 @@ open class DatabaseService(
      */
     @OptIn(DelicateCoroutinesApi::class)
     suspend fun updateSwapApproveToFillData(
-        swapID: String,
-        chainID: String,
+        swapID: UUID,
+        chainID: BigInteger,
         transactionHash: String?,
         creationTime: String?,
         blockNumber: Long?
     ) {
-        withContext(databaseServiceContext) {
+        writeBehind(key = "updateSwapApproveToFillData:$swapID:$chainID") {
             database.updateSwapApproveToFillData(
                 swapID = swapID,
                 chainID = chainID,
@@ -1300,7 +1609,7 @@ open class DatabaseService(
             )
         }
         logger.info("updateSwapApproveToFillData: set values to $transactionHash, $creationTime and $blockNumber for " +
-                "swap with B64 ID $swapID, if present")
+                "swap with ID $swapID, if present")
     }
 
     /**
@@ -1308,16 +1617,16 @@ open class DatabaseService(
      * [Swap](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#swap) with the specified [swapID] and
      * [chainID].
      *
-     * @param swapID The ID of the swap to be updated, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the swap to be updated, as a [String].
+     * @param swapID The ID of the swap to be updated.
+     * @param chainID The blockchain ID of the swap to be updated.
      * @param state The new value of the swap's [Swap.fillingSwapState] property.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun updateFillingSwapState(swapID: String, chainID: String, state: String) {
-        withContext(databaseServiceContext) {
+    suspend fun updateFillingSwapState(swapID: UUID, chainID: BigInteger, state: String) {
+        writeBehind(key = "updateFillingSwapState:$swapID:$chainID") {
             database.updateFillingSwapState(swapID, chainID, state)
         }
-        logger.info("updateFillingSwapState: set value to $state for offer with B64 ID $swapID, if present")
+        logger.info("updateFillingSwapState: set value to $state for offer with ID $swapID, if present")
     }
 
     /**
@@ -1326,8 +1635,8 @@ open class DatabaseService(
      * [Swap](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#swap) with the specified [swapID] and
      * [chainID].
      *
-     * @param swapID The ID of the swap to be updated, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the swap to be updated, as a [String].
+     * @param swapID The ID of the swap to be updated.
+     * @param chainID The blockchain ID of the swap to be updated.
      * @param transactionHash The new value of the swap's [Swap.fillingSwapTransactionHash] property, as a
      * transaction hash as a hexadecimal string with "0x" prefix.
      * @param creationTime The new value of the swap's [Swap.fillingSwapTransactionCreationTime] property.
@@ -1335,13 +1644,13 @@ open class DatabaseService(
      */
     @OptIn(DelicateCoroutinesApi::class)
     suspend fun updateFillingSwapData(
-        swapID: String,
-        chainID: String,
+        swapID: UUID,
+        chainID: BigInteger,
         transactionHash: String?,
         creationTime: String?,
         blockNumber: Long?
     ) {
-        withContext(databaseServiceContext) {
+        writeBehind(key = "updateFillingSwapData:$swapID:$chainID") {
             database.updateFillingSwapData(
                 swapID = swapID,
                 chainID = chainID,
@@ -1351,7 +1660,7 @@ open class DatabaseService(
             )
         }
         logger.info("updateFillingSwapData: set values to $transactionHash, $creationTime and $blockNumber for swap " +
-                "with B64 ID $swapID, if present")
+                "with ID $swapID, if present")
     }
 
     /**
@@ -1359,16 +1668,16 @@ open class DatabaseService(
      * [Swap](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#swap) with the specified [swapID] and
      * [chainID].
      *
-     * @param swapID The ID of the swap to be updated, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the swap to be updated, as a [String].
+     * @param swapID The ID of the swap to be updated.
+     * @param chainID The blockchain ID of the swap to be updated.
      * @param state The new value of the swap's [Swap.reportPaymentSentState] property.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun updateReportPaymentSentState(swapID: String, chainID: String, state: String) {
-        withContext(databaseServiceContext) {
+    suspend fun updateReportPaymentSentState(swapID: UUID, chainID: BigInteger, state: String) {
+        writeBehind(key = "updateReportPaymentSentState:$swapID:$chainID") {
             database.updateReportPaymentSentState(swapID, chainID, state)
         }
-        logger.info("updateReportPaymentSentState: set value to $state for offer with B64 ID $swapID, if present")
+        logger.info("updateReportPaymentSentState: set value to $state for offer with ID $swapID, if present")
     }
 
     /**
@@ -1377,8 +1686,8 @@ open class DatabaseService(
      * [Swap](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#swap) with the specified [swapID] and
      * [chainID].
      *
-     * @param swapID The ID of the swap to be updated, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the swap to be updated, as a [String].
+     * @param swapID The ID of the swap to be updated.
+     * @param chainID The blockchain ID of the swap to be updated.
      * @param transactionHash The new value of the swap's [Swap.reportPaymentSentTransactionHash] property, as a
      * transaction hash as a hexadecimal string with "0x" prefix.
      * @param creationTime The new value of the swap's [Swap.reportPaymentSentTransactionCreationTime] property.
@@ -1386,13 +1695,13 @@ open class DatabaseService(
      */
     @OptIn(DelicateCoroutinesApi::class)
     suspend fun updateReportPaymentSentData(
-        swapID: String,
-        chainID: String,
+        swapID: UUID,
+        chainID: BigInteger,
         transactionHash: String?,
         creationTime: String?,
         blockNumber: Long?
     ) {
-        withContext(databaseServiceContext) {
+        writeBehind(key = "updateReportPaymentSentData:$swapID:$chainID") {
             database.updateReportPaymentSentData(
                 swapID = swapID,
                 chainID = chainID,
@@ -1402,7 +1711,7 @@ open class DatabaseService(
             )
         }
         logger.info("updateReportPaymentSentData: set values to $transactionHash, $creationTime and $blockNumber for " +
-                "offer with B64 ID $swapID, if present")
+                "offer with ID $swapID, if present")
     }
 
     /**
@@ -1410,16 +1719,16 @@ open class DatabaseService(
      * [Swap](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#swap) with the specified [swapID] and
      * [chainID].
      *
-     * @param swapID The ID of the swap to be updated, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the swap to be updated, as a [String].
+     * @param swapID The ID of the swap to be updated.
+     * @param chainID The blockchain ID of the swap to be updated.
      * @param state The new value of the swap's [Swap.reportPaymentSentState] property.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun updateReportPaymentReceivedState(swapID: String, chainID: String, state: String) {
-        withContext(databaseServiceContext) {
+    suspend fun updateReportPaymentReceivedState(swapID: UUID, chainID: BigInteger, state: String) {
+        writeBehind(key = "updateReportPaymentReceivedState:$swapID:$chainID") {
             database.updateReportPaymentReceivedState(swapID, chainID, state)
         }
-        logger.info("updateReportPaymentReceivedState: set value to $state for offer with B64 ID $swapID, if " +
+        logger.info("updateReportPaymentReceivedState: set value to $state for offer with ID $swapID, if " +
                 "present")
     }
 
@@ -1429,8 +1738,8 @@ open class DatabaseService(
      * [Swap](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#swap) with the specified [swapID] and
      * [chainID].
      *
-     * @param swapID The ID of the swap to be updated, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the swap to be updated, as a [String].
+     * @param swapID The ID of the swap to be updated.
+     * @param chainID The blockchain ID of the swap to be updated.
      * @param transactionHash The new value of the swap's [Swap.reportPaymentReceivedTransactionHash] property, as a
      * transaction hash as a hexadecimal string with "0x" prefix.
      * @param creationTime The new value of the swap's [Swap.reportPaymentReceivedTransactionCreationTime] property.
@@ -1439,13 +1748,13 @@ open class DatabaseService(
      */
     @OptIn(DelicateCoroutinesApi::class)
     suspend fun updateReportPaymentReceivedData(
-        swapID: String,
-        chainID: String,
+        swapID: UUID,
+        chainID: BigInteger,
         transactionHash: String?,
         creationTime: String?,
         blockNumber: Long?
     ) {
-        withContext(databaseServiceContext) {
+        writeBehind(key = "updateReportPaymentReceivedData:$swapID:$chainID") {
             database.updateReportPaymentReceivedData(
                 swapID = swapID,
                 chainID = chainID,
@@ -1455,7 +1764,7 @@ open class DatabaseService(
             )
         }
         logger.info("updateReportPaymentReceivedData: set values to $transactionHash, $creationTime and " +
-                "$blockNumber for offer with B64 ID $swapID, if present")
+                "$blockNumber for offer with ID $swapID, if present")
     }
 
     /**
@@ -1463,16 +1772,16 @@ open class DatabaseService(
      * [Swap](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#swap) with the specified [swapID] and
      * [chainID].
      *
-     * @param swapID The ID of the swap to be updated, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the swap to be updated, as a [String].
+     * @param swapID The ID of the swap to be updated.
+     * @param chainID The blockchain ID of the swap to be updated.
      * @param state The new value of the swap's [Swap.closeSwapState] property.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun updateCloseSwapState(swapID: String, chainID: String, state: String) {
-        withContext(databaseServiceContext) {
+    suspend fun updateCloseSwapState(swapID: UUID, chainID: BigInteger, state: String) {
+        writeBehind(key = "updateCloseSwapState:$swapID:$chainID") {
             database.updateCloseSwapState(swapID, chainID, state)
         }
-        logger.info("updateCloseSwapState: set value to $state for swap with B64 ID $swapID, if present")
+        logger.info("updateCloseSwapState: set value to $state for swap with ID $swapID, if present")
     }
 
     /**
@@ -1481,8 +1790,8 @@ open class DatabaseService(
      * [Swap](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#swap) with the specified [swapID] and
      * [chainID].
      *
-     * @param swapID The ID of the swap to be updated, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the swap to be updated, as a [String].
+     * @param swapID The ID of the swap to be updated.
+     * @param chainID The blockchain ID of the swap to be updated.
      * @param transactionHash The new value of the swap's [Swap.closeSwapTransactionHash] property, as a
      * transaction hash as a hexadecimal string with "0x" prefix.
      * @param creationTime The new value of the swap's [Swap.closeSwapTransactionCreationTime] property.
@@ -1491,13 +1800,13 @@ open class DatabaseService(
      */
     @OptIn(DelicateCoroutinesApi::class)
     suspend fun updateCloseSwapData(
-        swapID: String,
-        chainID: String,
+        swapID: UUID,
+        chainID: BigInteger,
         transactionHash: String?,
         creationTime: String?,
         blockNumber: Long?
     ) {
-        withContext(databaseServiceContext) {
+        writeBehind(key = "updateCloseSwapData:$swapID:$chainID") {
             database.updateCloseSwapData(
                 swapID = swapID,
                 chainID = chainID,
@@ -1507,7 +1816,7 @@ open class DatabaseService(
             )
         }
         logger.info("updateCloseSwapData: set values to $transactionHash, $creationTime and $blockNumber for offer " +
-                "with B64 ID $swapID, if present")
+                "with ID $swapID, if present")
     }
 
     /**
@@ -1515,16 +1824,16 @@ open class DatabaseService(
      * [Swap](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#swap) with the specified [swapID] and
      * [chainID].
      *
-     * @param swapID The ID of the swap to be updated, as a Base64-[String] of bytes.
-     * @param chainID: The blockchain ID of the swap to be updated, as a [String].
+     * @param swapID The ID of the swap to be updated.
+     * @param chainID: The blockchain ID of the swap to be updated.
      * @param state The new value of the swap's [Swap.disputeState] property.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun updateSwapDisputeState(swapID: String, chainID: String, state: String) {
-        withContext(databaseServiceContext) {
+    suspend fun updateSwapDisputeState(swapID: UUID, chainID: BigInteger, state: String) {
+        writeBehind(key = "updateSwapDisputeState:$swapID:$chainID") {
             database.updateSwapDisputeState(swapID, chainID, state)
         }
-        logger.info("updateSwapDisputeState: set value to $state for swap with B64 ID $swapID, if present")
+        logger.info("updateSwapDisputeState: set value to $state for swap with ID $swapID, if present")
     }
 
     /**
@@ -1532,16 +1841,16 @@ open class DatabaseService(
      * [Swap](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#swap) with the specified [swapID] and
      * [chainID].
      *
-     * @param swapID The ID of the swap to be updated, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the swap to be updated, as a [String].
+     * @param swapID The ID of the swap to be updated.
+     * @param chainID The blockchain ID of the swap to be updated.
      * @param state The new value of the swap's [Swap.raisingDisputeState] property.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun updateRaisingDisputeState(swapID: String, chainID: String, state: String) {
-        withContext(databaseServiceContext) {
+    suspend fun updateRaisingDisputeState(swapID: UUID, chainID: BigInteger, state: String) {
+        writeBehind(key = "updateRaisingDisputeState:$swapID:$chainID") {
             database.updateRaisingDisputeState(swapID, chainID, state)
         }
-        logger.info("updateRaisingDisputeState: set value to $state for swap with B64 ID $swapID, if present")
+        logger.info("updateRaisingDisputeState: set value to $state for swap with ID $swapID, if present")
     }
 
     /**
@@ -1550,8 +1859,8 @@ open class DatabaseService(
      * [Swap](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#swap) with the specified [swapID] and
      * [chainID].
      *
-     * @param swapID The ID of the swap to be updated, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the swap to be updated, as a [String].
+     * @param swapID The ID of the swap to be updated.
+     * @param chainID The blockchain ID of the swap to be updated.
      * @param transactionHash The new value of the swap's [Swap.raisingDisputeTransactionHash] property, as a
      * transaction hash as a hexadecimal string with "0x" prefix.
      * @param creationTime The new value of the swap's [Swap.raisingDisputeTransactionCreationTime] property.
@@ -1559,13 +1868,13 @@ open class DatabaseService(
      */
     @OptIn(DelicateCoroutinesApi::class)
     suspend fun updateRaisingDisputeData(
-        swapID: String,
-        chainID: String,
+        swapID: UUID,
+        chainID: BigInteger,
         transactionHash: String?,
         creationTime: String?,
         blockNumber: Long?
     ) {
-        withContext(databaseServiceContext) {
+        writeBehind(key = "updateRaisingDisputeData:$swapID:$chainID") {
             database.updateRaisingDisputeData(
                 swapID = swapID,
                 chainID = chainID,
@@ -1575,38 +1884,38 @@ open class DatabaseService(
             )
         }
         logger.info("updateRaisingDisputeData: set values to $transactionHash, $creationTime and $blockNumber for " +
-                "swap with B64 ID $swapID, if present")
+                "swap with ID $swapID, if present")
     }
 
     /**
      * Removes every [Swap](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#swap) with a swap ID equal to
      * [swapID] and a chain ID equal to [chainID] from persistent storage.
      *
-     * @param swapID The ID of the swaps to be removed, as a Base64-[String] of bytes.
-     * @param chainID The blockchain ID of the swaps to be removed, as a [String].
+     * @param swapID The ID of the swaps to be removed.
+     * @param chainID The blockchain ID of the swaps to be removed.
      *
      * @throws Exception If deletion is unsuccessful.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun deleteSwaps(swapID: String, chainID: String) {
-        withContext(databaseServiceContext) {
+    suspend fun deleteSwaps(swapID: UUID, chainID: BigInteger) {
+        withDatabaseContext {
             database.deleteSwap(swapID, chainID)
         }
-        logger.info("deleteSwaps: deleted swap with B64 ID $swapID and chain ID $chainID, if present")
+        logger.info("deleteSwaps: deleted swap with ID $swapID and chain ID $chainID, if present")
     }
 
     /**
      * Retrieves the persistently stored [Swap](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#swap) with
      * the given ID, or returns null if no such swap is present.
      *
-     * @param id The ID of the Swap to return, as a Base64-[String] of bytes.
+     * @param id The ID of the Swap to return.
      *
      * @throws IllegalStateException if multiple swaps are found for a single ID, or if the ID of the swap returned from
      * the database query does not match [id].
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun getSwap(id: String): Swap? {
-        val dbSwaps: List<Swap> = withContext(databaseServiceContext) {
+    suspend fun getSwap(id: UUID): Swap? {
+        val dbSwaps: List<Swap> = withReadContext {
             database.selectSwapBySwapID(id)
         }
         return if (dbSwaps.size > 1) {
@@ -1617,13 +1926,13 @@ open class DatabaseService(
             }
             val decryptedMakerPrivateData = decryptPrivateSwapSettlementMethodData(
                 privateSettlementMethodData = dbSwaps[0].makerPrivateData,
-                privateSettlementMethodDataInitializationVector = dbSwaps[0].makerPrivateDataInitializationVector
+                associatedData = swapAssociatedData(MAKER_PRIVATE_DATA_COLUMN, id, dbSwaps[0].chainID),
             )
             val decryptedTakerPrivateData = decryptPrivateSwapSettlementMethodData(
                 privateSettlementMethodData = dbSwaps[0].takerPrivateData,
-                privateSettlementMethodDataInitializationVector = dbSwaps[0].takerPrivateDataInitializationVector
+                associatedData = swapAssociatedData(TAKER_PRIVATE_DATA_COLUMN, id, dbSwaps[0].chainID),
             )
-            logger.info("getSwap: returning swap with B64 ID $id")
+            logger.info("getSwap: returning swap with ID $id")
             Swap(
                 id = dbSwaps[0].id,
                 isCreated = dbSwaps[0].isCreated,
@@ -1642,9 +1951,7 @@ open class DatabaseService(
                 onChainDirection = dbSwaps[0].onChainDirection,
                 settlementMethod = dbSwaps[0].settlementMethod,
                 makerPrivateData = decryptedMakerPrivateData,
-                makerPrivateDataInitializationVector = null,
                 takerPrivateData = decryptedTakerPrivateData,
-                takerPrivateDataInitializationVector = null,
                 protocolVersion = dbSwaps[0].protocolVersion,
                 isPaymentSent = dbSwaps[0].isPaymentSent,
                 isPaymentReceived = dbSwaps[0].isPaymentReceived,
@@ -1684,7 +1991,7 @@ open class DatabaseService(
                 raisingDisputeTransactionCreationBlockNumber = dbSwaps[0].raisingDisputeTransactionCreationBlockNumber,
             )
         } else {
-            logger.info("getSwap: no swap found with B64 ID $id")
+            logger.info("getSwap: no swap found with ID $id")
             null
         }
     }
@@ -1695,90 +2002,85 @@ open class DatabaseService(
      *
      * @param swapAndDispute The [SwapAndDispute] to be stored in the database.
      *
-     * @throws Exception if database insertion is unsuccessful for a reason OTHER than UNIQUE constraint failure.
+     * @return `true` if [swapAndDispute] was stored, or `false` if a [SwapAndDispute] with the same ID and chain ID was
+     * already stored.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun storeSwapAndDispute(swapAndDispute: SwapAndDispute) {
-        try {
-            withContext(databaseServiceContext) {
-                database.insertSwapAndDispute(swapAndDispute)
-            }
-            logger.info("storeSwapAndDispute: stored swap and dispute with B64 ID ${swapAndDispute.id}")
-        } catch (exception: SQLiteException) {
-            /*
-            The result code for a UNIQUE constraint failure; see here: https://www.sqlite.org/rescode.html
-            If a Swap with the specified ID already exists, we do nothing.
-             */
-            if (exception.resultCode.code != 2067) {
-                throw exception
-            }
-            logger.info("storeSwapAndDispute: swap and dispute with B64 ID ${swapAndDispute.id} already exists in " +
+    suspend fun storeSwapAndDispute(swapAndDispute: SwapAndDispute): Boolean {
+        val wasStored = withDatabaseContext {
+            database.insertSwapAndDispute(swapAndDispute)
+        }
+        if (wasStored) {
+            logger.info("storeSwapAndDispute: stored swap and dispute with ID ${swapAndDispute.id}")
+        } else {
+            logger.info("storeSwapAndDispute: swap and dispute with ID ${swapAndDispute.id} already exists in " +
                     "database")
         }
+        return wasStored
     }
 
     /**
      * Updates the [SwapAndDispute.disputeAgent0InterfaceID] property of a persistently stored [SwapAndDispute] with the
      * specified [id] and [chainID].
      *
-     * @param id The ID of the swap corresponding to the [SwapAndDispute] to be updated, as a UUID-4 [String].
-     * @param chainID The blockchain ID of the swap corresponding to the [SwapAndDispute] to be updated, as a [String].
+     * @param id The ID of the swap corresponding to the [SwapAndDispute] to be updated.
+     * @param chainID The blockchain ID of the swap corresponding to the [SwapAndDispute] to be updated.
      * @param interfaceID The new value of the [SwapAndDispute]'s [SwapAndDispute.disputeAgent0InterfaceID] property.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun updateSwapAndDisputeAgent0InterfaceID(id: String, chainID: String, interfaceID: String) {
-        withContext(databaseServiceContext) {
+    suspend fun updateSwapAndDisputeAgent0InterfaceID(id: UUID, chainID: BigInteger, interfaceID: String) {
+        writeBehind(key = "updateSwapAndDisputeAgent0InterfaceID:$id:$chainID") {
             database.updateSwapAndDisputeAgent0InterfaceID(id, chainID, interfaceID)
         }
-        logger.info("updateSwapAndDisputeAgent0InterfaceID: set value to $interfaceID for swap with B64 " +
-                "ID $id, if present")
+        logger.info("updateSwapAndDisputeAgent0InterfaceID: set value to $interfaceID for swap with ID " +
+                "$id, if present")
     }
 
     /**
      * Updates the [SwapAndDispute.disputeAgent1InterfaceID] property of a persistently stored [SwapAndDispute] with the
      * specified [id] and [chainID].
      *
-     * @param id The ID of the swap corresponding to the [SwapAndDispute] to be updated, as a UUID-4 [String].
-     * @param chainID The blockchain ID of the swap corresponding to the [SwapAndDispute] to be updated, as a [String].
+     * @param id The ID of the swap corresponding to the [SwapAndDispute] to be updated.
+     * @param chainID The blockchain ID of the swap corresponding to the [SwapAndDispute] to be updated.
      * @param interfaceID The new value of the [SwapAndDispute]'s [SwapAndDispute.disputeAgent1InterfaceID] property.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun updateSwapAndDisputeAgent1InterfaceID(id: String, chainID: String, interfaceID: String) {
-        withContext(databaseServiceContext) {
+    suspend fun updateSwapAndDisputeAgent1InterfaceID(id: UUID, chainID: BigInteger, interfaceID: String) {
+        writeBehind(key = "updateSwapAndDisputeAgent1InterfaceID:$id:$chainID") {
             database.updateSwapAndDisputeAgent1InterfaceID(id, chainID, interfaceID)
         }
-        logger.info("updateSwapAndDisputeAgent1InterfaceID: set value to $interfaceID for swap with B64 " +
-                "ID $id, if present")
+        logger.info("updateSwapAndDisputeAgent1InterfaceID: set value to $interfaceID for swap with ID " +
+                "$id, if present")
     }
 
     /**
      * Updates the [SwapAndDispute.disputeAgent2InterfaceID] property of a persistently stored [SwapAndDispute] with the
      * specified [id] and [chainID].
      *
-     * @param id The ID of the swap corresponding to the [SwapAndDispute] to be updated, as a UUID-4 [String].
-     * @param chainID The blockchain ID of the swap corresponding to the [SwapAndDispute] to be updated, as a [String].
+     * @param id The ID of the swap corresponding to the [SwapAndDispute] to be updated.
+     * @param chainID The blockchain ID of the swap corresponding to the [SwapAndDispute] to be updated.
      * @param interfaceID The new value of the [SwapAndDispute]'s [SwapAndDispute.disputeAgent2InterfaceID] property.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun updateSwapAndDisputeAgent2InterfaceID(id: String, chainID: String, interfaceID: String) {
-        withContext(databaseServiceContext) {
+    suspend fun updateSwapAndDisputeAgent2InterfaceID(id: UUID, chainID: BigInteger, interfaceID: String) {
+        writeBehind(key = "updateSwapAndDisputeAgent2InterfaceID:$id:$chainID") {
             database.updateSwapAndDisputeAgent2InterfaceID(id, chainID, interfaceID)
         }
-        logger.info("updateSwapAndDisputeAgent2InterfaceID: set value to $interfaceID for swap with B64 " +
-                "ID $id, if present")
+        logger.info("updateSwapAndDisputeAgent2InterfaceID: set value to $interfaceID for swap with ID " +
+                "$id, if present")
     }
 
     /**
      * Updates the [SwapAndDispute.state] property of a persistently stored SwapAndDispute with the specified [id] and
      * [chainID].
      *
-     * @param id The ID of the swap corresponding to the SwapAndDispute to be updated, as a UUID [String].
-     * @param chainID The blockchain ID of the swap corresponding to the SwapAndDispute to be updated, as a [String].
+     * @param id The ID of the swap corresponding to the SwapAndDispute to be updated.
+     * @param chainID The blockchain ID of the swap corresponding to the SwapAndDispute to be updated.
      * @param state The new value of the [SwapAndDispute]'s [SwapAndDispute.state] property.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun updateSwapAndDisputeState(id: String, chainID: String, state: String) {
-        withContext(databaseServiceContext) {
+    suspend fun updateSwapAndDisputeState(id: UUID, chainID: BigInteger, state: String) {
+        writeBehind(key = "updateSwapAndDisputeState:$id:$chainID") {
             database.updateSwapAndDisputeState(id, chainID, state)
         }
         logger.info("updateSwapAndDisputeState: set value to $state for SwapAndDispute with ID $id on $chainID, if " +
@@ -1787,64 +2089,69 @@ open class DatabaseService(
 
     /**
      * Updates the Maker Communication Key of a persistently stored [SwapAndDispute] corresponding to the swap with the
-     * specified [id] and [chainID]. The new key is encrypted with [databaseKey] and a new initialization vector.
+     * specified [id] and [chainID]. The new key is encrypted with [columnCodec].
      *
-     * @param id The ID of the swap corresponding to the [SwapAndDispute] to be updated, as a UUID-4 [String].
-     * @param chainID The blockchain ID of the swap corresponding to the [SwapAndDispute] to be updated, as a [String].
-     * @param key The Maker Communication Key, as a Base64-[String] of bytes.
+     * @param id The ID of the swap corresponding to the [SwapAndDispute] to be updated.
+     * @param chainID The blockchain ID of the swap corresponding to the [SwapAndDispute] to be updated.
+     * @param key The Maker Communication Key.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun updateSwapAndDisputeMakerCommunicationKey(id: String, chainID: String, key: String) {
-        val encryptedKeyAndIV = encryptCommunicationKeyForStorage(key = key)
-        withContext(databaseServiceContext) {
+    suspend fun updateSwapAndDisputeMakerCommunicationKey(id: UUID, chainID: BigInteger, key: String) {
+        val encryptedKey = encryptCommunicationKeyForStorage(
+            key = key,
+            associatedData = swapAndDisputeAssociatedData(MAKER_COMMUNICATION_KEY_COLUMN, id, chainID),
+        )
+        writeBehind(key = "updateSwapAndDisputeMakerCommunicationKey:$id:$chainID") {
             database.updateSwapAndDisputeMakerCommunicationKey(
                 id = id,
                 chainID = chainID,
-                encryptedKey = encryptedKeyAndIV.first,
-                initializationVector = encryptedKeyAndIV.second,
+                encryptedKey = encryptedKey,
             )
         }
     }
 
     /**
      * Updates the Taker Communication Key of a persistently stored [SwapAndDispute] corresponding to the swap with the
-     * specified [id] and [chainID]. The new key is encrypted with [databaseKey] and a new initialization vector.
+     * specified [id] and [chainID]. The new key is encrypted with [columnCodec].
      *
-     * @param id The ID of the swap corresponding to the [SwapAndDispute] to be updated, as a UUID-4 [String].
-     * @param chainID The blockchain ID of the swap corresponding to the [SwapAndDispute] to be updated, as a [String].
-     * @param key The Taker Communication Key, as a Base64-[String] of bytes.
+     * @param id The ID of the swap corresponding to the [SwapAndDispute] to be updated.
+     * @param chainID The blockchain ID of the swap corresponding to the [SwapAndDispute] to be updated.
+     * @param key The Taker Communication Key.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun updateSwapAndDisputeTakerCommunicationKey(id: String, chainID: String, key: String) {
-        val encryptedKeyAndIV = encryptCommunicationKeyForStorage(key = key)
-        withContext(databaseServiceContext) {
+    suspend fun updateSwapAndDisputeTakerCommunicationKey(id: UUID, chainID: BigInteger, key: String) {
+        val encryptedKey = encryptCommunicationKeyForStorage(
+            key = key,
+            associatedData = swapAndDisputeAssociatedData(TAKER_COMMUNICATION_KEY_COLUMN, id, chainID),
+        )
+        writeBehind(key = "updateSwapAndDisputeTakerCommunicationKey:$id:$chainID") {
             database.updateSwapAndDisputeTakerCommunicationKey(
                 id = id,
                 chainID = chainID,
-                encryptedKey = encryptedKeyAndIV.first,
-                initializationVector = encryptedKeyAndIV.second,
+                encryptedKey = encryptedKey,
             )
         }
     }
 
     /**
      * Updates the Dispute Agent Communication Key of a persistently stored [SwapAndDispute] corresponding to the swap
-     * with the specified [id] and [chainID]. The new key is encrypted with [databaseKey] and a new initialization
-     * vector.
+     * with the specified [id] and [chainID]. The new key is encrypted with [columnCodec].
      *
-     * @param id The ID of the swap corresponding to the [SwapAndDispute] to be updated, as a UUID-4 [String].
-     * @param chainID The blockchain ID of the swap corresponding to the [SwapAndDispute] to be updated, as a [String].
-     * @param key The Dispute Agent Communication Key, as a Base64-[String] of bytes.
+     * @param id The ID of the swap corresponding to the [SwapAndDispute] to be updated.
+     * @param chainID The blockchain ID of the swap corresponding to the [SwapAndDispute] to be updated.
+     * @param key The Dispute Agent Communication Key.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun updateSwapAndDisputeAgentCommunicationKey(id: String, chainID: String, key: String) {
-        val encryptedKeyAndIV = encryptCommunicationKeyForStorage(key = key)
-        withContext(databaseServiceContext) {
+    suspend fun updateSwapAndDisputeAgentCommunicationKey(id: UUID, chainID: BigInteger, key: String) {
+        val encryptedKey = encryptCommunicationKeyForStorage(
+            key = key,
+            associatedData = swapAndDisputeAssociatedData(DISPUTE_AGENT_COMMUNICATION_KEY_COLUMN, id, chainID),
+        )
+        writeBehind(key = "updateSwapAndDisputeAgentCommunicationKey:$id:$chainID") {
             database.updateSwapAndDisputeAgentCommunicationKey(
                 id = id,
                 chainID = chainID,
-                encryptedKey = encryptedKeyAndIV.first,
-                initializationVector = encryptedKeyAndIV.second,
+                encryptedKey = encryptedKey,
             )
         }
     }
@@ -1853,14 +2160,14 @@ open class DatabaseService(
      * Updates the [SwapAndDispute.sentKeyToMaker] property of a persistently stored SwapAndDispute with the
      * specified [id] and [chainID].
      *
-     * @param id The ID of the swap corresponding to the SwapAndDispute to be updated, as a UUID [String].
-     * @param chainID The blockchain ID of the swap corresponding to the SwapAndDispute to be updated, as a [String].
+     * @param id The ID of the swap corresponding to the SwapAndDispute to be updated.
+     * @param chainID The blockchain ID of the swap corresponding to the SwapAndDispute to be updated.
      * @param sentKeyToMaker The new value of the [SwapAndDispute]'s [SwapAndDispute.sentKeyToMaker] property.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun updateSwapAndDisputeSentKeyToMaker(id: String, chainID: String, sentKeyToMaker: Boolean) {
+    suspend fun updateSwapAndDisputeSentKeyToMaker(id: UUID, chainID: BigInteger, sentKeyToMaker: Boolean) {
         val sentKeyToMakerLong = if (sentKeyToMaker) 1L else 0L
-        withContext(databaseServiceContext) {
+        writeBehind(key = "updateSwapAndDisputeSentKeyToMaker:$id:$chainID") {
             database.updateSwapAndDisputeSentKeyToMaker(id, chainID, sentKeyToMakerLong)
         }
         logger.info("updateSwapAndDisputeSentKeyToMaker: set value to $sentKeyToMaker for swap and dispute $id on " +
@@ -1871,14 +2178,14 @@ open class DatabaseService(
      * Updates the [SwapAndDispute.sentKeyToTaker] property of a persistently stored SwapAndDispute with the
      * specified [id] and [chainID].
      *
-     * @param id The ID of the swap corresponding to the SwapAndDispute to be updated, as a UUID [String].
-     * @param chainID The blockchain ID of the swap corresponding to the SwapAndDispute to be updated, as a [String].
+     * @param id The ID of the swap corresponding to the SwapAndDispute to be updated.
+     * @param chainID The blockchain ID of the swap corresponding to the SwapAndDispute to be updated.
      * @param sentKeyToTaker The new value of the [SwapAndDispute]'s [SwapAndDispute.sentKeyToTaker] property.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun updateSwapAndDisputeSentKeyToTaker(id: String, chainID: String, sentKeyToTaker: Boolean) {
+    suspend fun updateSwapAndDisputeSentKeyToTaker(id: UUID, chainID: BigInteger, sentKeyToTaker: Boolean) {
         val sentKeyToTakerLong = if (sentKeyToTaker) 1L else 0L
-        withContext(databaseServiceContext) {
+        writeBehind(key = "updateSwapAndDisputeSentKeyToTaker:$id:$chainID") {
             database.updateSwapAndDisputeSentKeyToTaker(id, chainID, sentKeyToTakerLong)
         }
         logger.info("updateSwapAndDisputeSentKeyToTaker: set value to $sentKeyToTaker for swap and dispute $id on " +
@@ -1886,35 +2193,30 @@ open class DatabaseService(
     }
 
     /**
-     * Encrypts [key] using [databaseKey] and a new initialization vector, and returns the encrypted key and the
-     * initialization vector as Base64-[String]s.
+     * Encrypts [key] using [columnCodec], and returns the encrypted key as bytes that also contain the nonce used to
+     * encrypt it.
      *
-     * @param key The communication key to encrypt, as a Base64-[String] of bytes.
+     * @param key The communication key to encrypt.
+     * @param associatedData Data identifying the row and column in which the encrypted key will be stored.
      *
-     * @return A [Pair] containing the encrypted key and the initialization vector as Base64-[String]s, in that order.
+     * @return The encrypted key as a [ByteArray].
      */
-    fun encryptCommunicationKeyForStorage(key: String): Pair<String, String> {
-        val keyByteArray = key.toByteArray()
-        val encryptedKey = databaseKey.encrypt(keyByteArray)
-        val encoder = Base64.getEncoder()
-        return Pair(
-            encoder.encodeToString(encryptedKey.encryptedData),
-            encoder.encodeToString(encryptedKey.initializationVector)
-        )
+    fun encryptCommunicationKeyForStorage(key: String, associatedData: String): ByteArray {
+        return columnCodec.encode(key.toByteArray(), associatedData)
     }
 
     /**
      * Removes every [SwapAndDispute] with a swap ID equal to [id] and a chain ID equal to [chainID] from persistent
      * storage.
      *
-     * @param id The ID of the swap corresponding to the [SwapAndDispute] to be removed, as a UUID [String].
-     * @param chainID The blockchain ID of the swap corresponding to the [SwapAndDispute] to be removed, as a [String].
+     * @param id The ID of the swap corresponding to the [SwapAndDispute] to be removed.
+     * @param chainID The blockchain ID of the swap corresponding to the [SwapAndDispute] to be removed.
      *
      * @throws Exception If deletion is unsuccessful.
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun deleteSwapAndDisputes(id: String, chainID: String) {
-        withContext(databaseServiceContext) {
+    suspend fun deleteSwapAndDisputes(id: UUID, chainID: BigInteger) {
+        withDatabaseContext {
             database.deleteSwapAndDispute(id, chainID)
         }
         logger.info("deleteSwapAndDisputes: deleted SwapAndDispute with ID $id and chain ID $chainID, if present")
@@ -1924,14 +2226,14 @@ open class DatabaseService(
      * Retrieves the persistently stored [SwapAndDispute] with the given ID, or returns null if no such [SwapAndDispute]
      * is present.
      *
-     * @param id The ID of the swap corresponding to the [SwapAndDispute] to return, as a Base64-[String] of bytes.
+     * @param id The ID of the swap corresponding to the [SwapAndDispute] to return.
      *
      * @throws IllegalStateException if multiple [SwapAndDispute]s are found for a single ID, or if the ID of the
      * [SwapAndDispute] returned from the database query does not match [id].
      */
     @OptIn(DelicateCoroutinesApi::class)
-    suspend fun getSwapAndDispute(id: String): SwapAndDispute? {
-        val dbSwapAndDisputes: List<SwapAndDispute> = withContext(databaseServiceContext) {
+    suspend fun getSwapAndDispute(id: UUID): SwapAndDispute? {
+        val dbSwapAndDisputes: List<SwapAndDispute> = withReadContext {
             database.selectSwapAndDisputeBySwapID(id)
         }
         return if (dbSwapAndDisputes.size > 1) {
@@ -1949,7 +2251,7 @@ open class DatabaseService(
     }
 
     /**
-     * Attempts to decrypt the Maker Communication Key from a supplied [SwapAndDispute] using [databaseKey].
+     * Attempts to decrypt the Maker Communication Key from a supplied [SwapAndDispute] using [columnCodec].
      *
      * @param swapAndDispute The [SwapAndDispute] from which to attempt to decrypt the Maker Communication Key.
      *
@@ -1958,12 +2260,15 @@ open class DatabaseService(
     fun decryptMakerCommunicationKeyFromSwapAndDispute(swapAndDispute: SwapAndDispute): String? {
         logger.info("decryptMakerCommunicationKeyFromSwapAndDispute: decrypting for swap and dispute with id " +
                 "${swapAndDispute.id} on ${swapAndDispute.chainID}")
-        val makerCommunicationKeyCipherString = swapAndDispute.makerCommunicationKey
-        val mCKInitializationVectorEncoded = swapAndDispute.mCKInitializationVector
-        return if (makerCommunicationKeyCipherString != null && mCKInitializationVectorEncoded != null) {
+        val makerCommunicationKeyCipherBytes = swapAndDispute.makerCommunicationKey
+        return if (makerCommunicationKeyCipherBytes != null) {
             decryptCommunicationKey(
-                communicationKeyCipherString = makerCommunicationKeyCipherString,
-                encodedInitializationVector = mCKInitializationVectorEncoded
+                communicationKeyCipherBytes = makerCommunicationKeyCipherBytes,
+                associatedData = swapAndDisputeAssociatedData(
+                    MAKER_COMMUNICATION_KEY_COLUMN,
+                    swapAndDispute.id,
+                    swapAndDispute.chainID
+                ),
             )
         } else {
             null
@@ -1971,7 +2276,7 @@ open class DatabaseService(
     }
 
     /**
-     * Attempts to decrypt the Taker Communication Key from a supplied [SwapAndDispute] using [databaseKey].
+     * Attempts to decrypt the Taker Communication Key from a supplied [SwapAndDispute] using [columnCodec].
      *
      * @param swapAndDispute The [SwapAndDispute] from which to attempt to decrypt the Taker Communication Key.
      *
@@ -1980,12 +2285,15 @@ open class DatabaseService(
     fun decryptTakerCommunicationKeyFromSwapAndDispute(swapAndDispute: SwapAndDispute): String? {
         logger.info("decryptTakerCommunicationKeyFromSwapAndDispute: decrypting for swap and dispute with id " +
                 "${swapAndDispute.id} on ${swapAndDispute.chainID}")
-        val takerCommunicationKeyCipherString = swapAndDispute.takerCommunicationKey
-        val tCKInitializationVectorEncoded = swapAndDispute.tCKInitializationVector
-        return if (takerCommunicationKeyCipherString != null && tCKInitializationVectorEncoded != null) {
+        val takerCommunicationKeyCipherBytes = swapAndDispute.takerCommunicationKey
+        return if (takerCommunicationKeyCipherBytes != null) {
             decryptCommunicationKey(
-                communicationKeyCipherString = takerCommunicationKeyCipherString,
-                encodedInitializationVector = tCKInitializationVectorEncoded
+                communicationKeyCipherBytes = takerCommunicationKeyCipherBytes,
+                associatedData = swapAndDisputeAssociatedData(
+                    TAKER_COMMUNICATION_KEY_COLUMN,
+                    swapAndDispute.id,
+                    swapAndDispute.chainID
+                ),
             )
         } else {
             null
@@ -1993,7 +2301,7 @@ open class DatabaseService(
     }
 
     /**
-     * Attempts to decrypt the Dispute Agent Communication Key from a supplied [SwapAndDispute] using [databaseKey].
+     * Attempts to decrypt the Dispute Agent Communication Key from a supplied [SwapAndDispute] using [columnCodec].
      *
      * @param swapAndDispute The [SwapAndDispute] from which to attempt to decrypt the Dispute Agent Communication Key.
      *
@@ -2002,12 +2310,15 @@ open class DatabaseService(
     fun decryptDisputeAgentCommunicationKeyFromSwapAndDispute(swapAndDispute: SwapAndDispute): String? {
         logger.info("decryptDisputeAgentCommunicationKeyFromSwapAndDispute: decrypting for swap and dispute with id " +
                 "${swapAndDispute.id} on ${swapAndDispute.chainID}")
-        val disputeAgentCommunicationKeyCipherString = swapAndDispute.disputeAgentCommunicationKey
-        val dACKInitializationVectorEncoded = swapAndDispute.dACKInitializationVector
-        return if (disputeAgentCommunicationKeyCipherString != null && dACKInitializationVectorEncoded != null) {
+        val disputeAgentCommunicationKeyCipherBytes = swapAndDispute.disputeAgentCommunicationKey
+        return if (disputeAgentCommunicationKeyCipherBytes != null) {
             decryptCommunicationKey(
-                communicationKeyCipherString = disputeAgentCommunicationKeyCipherString,
-                encodedInitializationVector = dACKInitializationVectorEncoded,
+                communicationKeyCipherBytes = disputeAgentCommunicationKeyCipherBytes,
+                associatedData = swapAndDisputeAssociatedData(
+                    DISPUTE_AGENT_COMMUNICATION_KEY_COLUMN,
+                    swapAndDispute.id,
+                    swapAndDispute.chainID
+                ),
             )
         } else {
             null
@@ -2015,33 +2326,23 @@ open class DatabaseService(
     }
 
     /**
-     * Attempts to decrypt a communication key from a supplied cipher string and initialization vector using
-     * [databaseKey].
+     * Attempts to decrypt a communication key from supplied cipher bytes using [columnCodec].
      *
-     * @param communicationKeyCipherString The encrypted key, as a Base64-[String].
-     * @param encodedInitializationVector The initialization vector with which [communicationKeyCipherString] was
-     * encrypted, as a Base64-[String].
+     * @param communicationKeyCipherBytes The encrypted key.
+     * @param associatedData Data identifying the row and column from which [communicationKeyCipherBytes] was read.
      *
-     * @return The decrypted communication key as a [String], or `null` if the key does not exist.
+     * @return The decrypted communication key as a [String].
      */
-    fun decryptCommunicationKey(communicationKeyCipherString: String, encodedInitializationVector: String): String? {
-        val decoder = Base64.getDecoder()
-        val keyCipherData = decoder.decode(communicationKeyCipherString)
-        val initializationVector = decoder.decode(encodedInitializationVector)
-        return if (keyCipherData != null && initializationVector != null) {
-            val privateDataObject = SymmetricallyEncryptedData(
-                data = keyCipherData,
-                iv = initializationVector
-            )
-            databaseKey.decrypt(privateDataObject).decodeToString()
-        } else {
-            null
-        }
+    fun decryptCommunicationKey(
+        communicationKeyCipherBytes: ByteArray,
+        associatedData: String,
+    ): String {
+        return columnCodec.decode(communicationKeyCipherBytes, associatedData).decodeToString()
     }
 
     /**
      * Persistently stores the settlement method string and private data string, associating them with the given UUID
-     * string. The private settlement method data is encrypted with [databaseKey] and a new initialization vector.
+     * string. The private settlement method data is encrypted with [columnCodec].
      *
      * @param id The ID of the settlement method to be stored, as a Type 4 UUID string.
      * @param settlementMethod The public data of the settlement method to be persistently stored, including currency
@@ -2055,14 +2356,16 @@ open class DatabaseService(
         settlementMethod: String,
         privateData: String?
     ) {
-        val encryptedPrivateData = encryptPrivateSwapSettlementMethodData(privateSettlementMethodData = privateData)
-        withContext(databaseServiceContext) {
+        val encryptedPrivateData = encryptPrivateSwapSettlementMethodData(
+            privateSettlementMethodData = privateData,
+            associatedData = userSettlementMethodAssociatedData(id),
+        )
+        withDatabaseContext {
             database.insertUserSettlementMethod(
                 UserSettlementMethod(
                     settlementMethodID = id,
                     settlementMethod = settlementMethod,
-                    privateData = encryptedPrivateData.first,
-                    privateDataInitializationVector = encryptedPrivateData.second
+                    privateData = encryptedPrivateData,
                 )
             )
         }
@@ -2071,7 +2374,7 @@ open class DatabaseService(
 
     /**
      * Updates the private settlement method data of a persistently stored settlement method with the given ID. The new
-     * private settlement method data is encrypted with [databaseKey] and a new initialization vector.
+     * private settlement method data is encrypted with [columnCodec].
      *
      * @param id The ID of the settlement method, the private data of which this will update.
      * @param privateData The new private settlement method data with which this will replace the current private
@@ -2083,9 +2386,12 @@ open class DatabaseService(
         privateData: String?
     ) {
         logger.info("updateUserSettlementMethod: updating $id")
-        val encryptedPrivateData = encryptPrivateSwapSettlementMethodData(privateSettlementMethodData = privateData)
-        withContext(databaseServiceContext) {
-            database.updateUserSettlementMethod(id, encryptedPrivateData.first, encryptedPrivateData.second)
+        val encryptedPrivateData = encryptPrivateSwapSettlementMethodData(
+            privateSettlementMethodData = privateData,
+            associatedData = userSettlementMethodAssociatedData(id),
+        )
+        withDatabaseContext {
+            database.updateUserSettlementMethod(id, encryptedPrivateData)
         }
     }
 
@@ -2100,7 +2406,7 @@ open class DatabaseService(
         id: String,
     ) {
         logger.info("deleteUserSettlementMethod: deleting $id")
-        withContext(databaseServiceContext) {
+        withDatabaseContext {
             database.deleteUserSettlementMethod(id)
         }
     }
@@ -2119,7 +2425,7 @@ open class DatabaseService(
     @OptIn(DelicateCoroutinesApi::class)
     suspend fun getUserSettlementMethod(id: String): Pair<String, String?>? {
         logger.info("getUserSettlementMethod: getting $id")
-        val dbSettlementMethods: List<UserSettlementMethod> = withContext(databaseServiceContext) {
+        val dbSettlementMethods: List<UserSettlementMethod> = withReadContext {
             database.selectUserSettlementMethodByID(
                 id = id
             )
@@ -2127,12 +2433,11 @@ open class DatabaseService(
         if (dbSettlementMethods.size == 1) {
             val element = dbSettlementMethods.first()
             var decryptedPrivateDataString: String? = null
-            val privateDataCipherString = element.privateData
-            val privateDataInitializationVectorString = element.privateDataInitializationVector
-            if (privateDataCipherString != null && privateDataInitializationVectorString != null) {
+            val privateDataCipherBytes = element.privateData
+            if (privateDataCipherBytes != null) {
                 decryptedPrivateDataString = decryptSettlementMethodFromTable(
-                    privateDataCipherString = privateDataCipherString,
-                    privateDataInitializationVectorString = privateDataInitializationVectorString,
+                    privateDataCipherBytes = privateDataCipherBytes,
+                    associatedData = userSettlementMethodAssociatedData(id),
                     decryptionFailureHandler = {
                         logger.error("getUserSettlementMethod: unable to get string from decoded private data " +
                                 "using utf8 encoding for $id")
@@ -2152,4 +2457,403 @@ open class DatabaseService(
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Applies [transform] to every element of [items] on the default coroutine dispatcher, splitting [items] into
+     * chunks of at most [PARALLEL_TRANSFORM_CHUNK_SIZE] elements that are transformed in parallel. This is used to
+     * decrypt the private data of many rows at once without decrypting them one by one on a database thread.
+     *
+     * @param items The items to be transformed.
+     * @param transform The transformation to apply to each item, which must be safe to call concurrently.
+     *
+     * @return A [List] containing the results of applying [transform] to each element of [items], in the same order.
+     */
+    private suspend fun <T, R> mapInParallel(items: List<T>, transform: (T) -> R): List<R> {
+        return coroutineScope {
+            items.chunked(PARALLEL_TRANSFORM_CHUNK_SIZE).map { chunk ->
+                async(Dispatchers.Default) {
+                    chunk.map(transform)
+                }
+            }.awaitAll().flatten()
+        }
+    }
+
+    /**
+     * Decrypts [storedValues] with [ColumnCodec.decodeAll] on the default coroutine dispatcher, splitting them into
+     * chunks of at most [PARALLEL_TRANSFORM_CHUNK_SIZE] values that are decrypted in parallel, so that each chunk is
+     * decrypted by a single thread reusing the same ciphers.
+     *
+     * @param storedValues A [List] of [StoredColumnValue]s, each containing an encrypted value and its associated data.
+     *
+     * @return A [List] containing the decrypted value of each element of [storedValues], in the same order, which is
+     * `null` if the encrypted value is `null` or cannot be decrypted.
+     */
+    private suspend fun decodeAllInParallel(storedValues: List<StoredColumnValue>): List<ByteArray?> {
+        return coroutineScope {
+            storedValues.chunked(PARALLEL_TRANSFORM_CHUNK_SIZE).map { chunk ->
+                async(Dispatchers.Default) {
+                    columnCodec.decodeAll(chunk)
+                }
+            }.awaitAll().flatten()
+        }
+    }
+
+    /**
+     * Reads all rows of a table in batches of at most [batchSize] rows using keyset pagination: each batch is selected
+     * by [selectBatch] as the rows with keys greater than the last key of the previous batch, so that every batch is
+     * found with a single index seek no matter how many rows precede it.
+     *
+     * @param batchSize The maximum number of rows in each batch.
+     * @param selectBatch A lambda that selects at most a given number of rows with keys greater than a given key (or
+     * the first rows if the given key is `null`), in ascending order of key, along with any rows related to them. This
+     * lambda will be executed in [databaseServiceReaderContext], in a single read transaction.
+     * @param key A lambda that returns the key of a row.
+     * @param onBatch A lambda that is executed with each batch of rows, in the context of the caller.
+     */
+    private suspend fun <T, K> readInBatches(
+        batchSize: Long,
+        selectBatch: (K?, Long) -> List<T>,
+        key: (T) -> K,
+        onBatch: suspend (List<T>) -> Unit,
+    ) {
+        var afterKey: K? = null
+        while (true) {
+            val batch = withReadContext {
+                selectBatch(afterKey, batchSize)
+            }
+            if (batch.isEmpty()) {
+                return
+            }
+            onBatch(batch)
+            if (batch.size < batchSize) {
+                return
+            }
+            afterKey = key(batch.last())
+        }
+    }
+
+    /**
+     * Returns a cold [Flow] that reads all persistently stored
+     * [Offer](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#offer)s in batches of at most [batchSize],
+     * in ascending order of offer ID and chain ID. Each emitted [List] contains [Pair]s of an [Offer] and all of its
+     * [OfferSettlementMethod]s, which are read for the entire batch with a single range query, in the same read
+     * transaction as the offers so that they are consistent with each other. The private data of each
+     * [OfferSettlementMethod] is decrypted in parallel (and is `null` if it cannot be decrypted).
+     *
+     * @param batchSize The maximum number of offers in each emitted [List].
+     *
+     * @return A [Flow] of batches of offers and their settlement methods.
+     */
+    fun streamOffers(
+        batchSize: Long = HYDRATION_BATCH_SIZE
+    ): Flow<List<Pair<Offer, List<OfferSettlementMethod>>>> = flow {
+        readInBatches(
+            batchSize = batchSize,
+            selectBatch = { afterKey, limit ->
+                val dbOffers = database.selectOffersAfterID(afterKey, limit)
+                val dbSettlementMethods = if (dbOffers.isEmpty()) {
+                    mapOf()
+                } else {
+                    database.selectOfferSettlementMethodsByOfferIDRange(
+                        firstOfferID = dbOffers.first().id,
+                        lastOfferID = dbOffers.last().id,
+                    ).groupBy { Pair(it.id, it.chainID) }
+                }
+                dbOffers.map { Pair(it, dbSettlementMethods[Pair(it.id, it.chainID)] ?: listOf()) }
+            },
+            key = { Pair(it.first.id, it.first.chainID) },
+        ) { batch ->
+            val dbSettlementMethods = batch.flatMap { it.second }
+            val decryptedPrivateData = decodeAllInParallel(dbSettlementMethods.map {
+                StoredColumnValue(
+                    storedValue = it.privateData,
+                    associatedData = settlementMethodAssociatedData(
+                        OFFER_SETTLEMENT_METHOD_TABLE,
+                        it.id,
+                        it.chainID,
+                        it.settlementMethod
+                    ),
+                )
+            })
+            val settlementMethods = dbSettlementMethods.zip(decryptedPrivateData) { settlementMethod, privateData ->
+                if (settlementMethod.privateData != null && privateData == null) {
+                    logger.error("streamOffers: unable to decrypt private data for settlement method for offer with " +
+                            "ID ${settlementMethod.id}")
+                }
+                settlementMethod.copy(privateData = privateData)
+            }.groupBy { Pair(it.id, it.chainID) }
+            logger.info("streamOffers: read ${batch.size} offers and ${dbSettlementMethods.size} settlement methods")
+            emit(batch.map { (offer, _) -> Pair(offer, settlementMethods[Pair(offer.id, offer.chainID)] ?: listOf()) })
+        }
+    }
+
+    /**
+     * Returns a cold [Flow] that reads all persistently stored
+     * [Swap](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#swap)s in batches of at most [batchSize], in
+     * ascending order of swap ID and chain ID. The maker's and taker's private settlement method data of the swaps in
+     * each batch are decrypted in parallel (and are `null` if they cannot be decrypted).
+     *
+     * @param batchSize The maximum number of swaps in each emitted [List].
+     *
+     * @return A [Flow] of batches of swaps.
+     */
+    fun streamSwaps(batchSize: Long = HYDRATION_BATCH_SIZE): Flow<List<Swap>> = flow {
+        readInBatches(
+            batchSize = batchSize,
+            selectBatch = database::selectSwapsAfterID,
+            key = { Pair(it.id, it.chainID) },
+        ) { dbSwaps ->
+            logger.info("streamSwaps: read ${dbSwaps.size} swaps")
+            val decryptedPrivateData = decodeAllInParallel(dbSwaps.flatMap {
+                listOf(
+                    StoredColumnValue(
+                        storedValue = it.makerPrivateData,
+                        associatedData = swapAssociatedData(MAKER_PRIVATE_DATA_COLUMN, it.id, it.chainID),
+                    ),
+                    StoredColumnValue(
+                        storedValue = it.takerPrivateData,
+                        associatedData = swapAssociatedData(TAKER_PRIVATE_DATA_COLUMN, it.id, it.chainID),
+                    ),
+                )
+            })
+            emit(dbSwaps.mapIndexed { index, swap ->
+                swap.copy(
+                    makerPrivateData = decryptedPrivateData[2 * index],
+                    takerPrivateData = decryptedPrivateData[2 * index + 1],
+                )
+            })
+        }
+    }
+
+    /**
+     * Returns a cold [Flow] that reads all persistently stored [SwapAndDispute]s in batches of at most [batchSize], in
+     * ascending order of ID and chain ID. The communication keys of the [SwapAndDispute]s in each batch are decrypted
+     * in parallel (and are `null` if they cannot be decrypted).
+     *
+     * @param batchSize The maximum number of [SwapAndDispute]s in each emitted [List].
+     *
+     * @return A [Flow] of batches of [SwapAndDispute]s.
+     */
+    fun streamSwapAndDisputes(batchSize: Long = HYDRATION_BATCH_SIZE): Flow<List<SwapAndDispute>> = flow {
+        readInBatches(
+            batchSize = batchSize,
+            selectBatch = database::selectSwapAndDisputesAfterID,
+            key = { Pair(it.id, it.chainID) },
+        ) { dbSwapAndDisputes ->
+            logger.info("streamSwapAndDisputes: read ${dbSwapAndDisputes.size} swap and disputes")
+            emit(mapInParallel(dbSwapAndDisputes) {
+                it.copy(
+                    makerCommunicationKey = decryptCommunicationKeyOrNull(it.makerCommunicationKey,
+                        swapAndDisputeAssociatedData(MAKER_COMMUNICATION_KEY_COLUMN, it.id, it.chainID)),
+                    takerCommunicationKey = decryptCommunicationKeyOrNull(it.takerCommunicationKey,
+                        swapAndDisputeAssociatedData(TAKER_COMMUNICATION_KEY_COLUMN, it.id, it.chainID)),
+                    disputeAgentCommunicationKey = decryptCommunicationKeyOrNull(it.disputeAgentCommunicationKey,
+                        swapAndDisputeAssociatedData(DISPUTE_AGENT_COMMUNICATION_KEY_COLUMN, it.id, it.chainID)),
+                )
+            })
+        }
+    }
+
+    /**
+     * Decrypts [communicationKeyCipherBytes] with [columnCodec] if it is not `null`, and returns `null` instead of
+     * throwing if decryption fails.
+     *
+     * @param communicationKeyCipherBytes The encrypted key, or `null`.
+     * @param associatedData Data identifying the row and column from which [communicationKeyCipherBytes] was read.
+     *
+     * @return The decrypted communication key as a [ByteArray], or `null` if the key does not exist or cannot be
+     * decrypted.
+     */
+    private fun decryptCommunicationKeyOrNull(
+        communicationKeyCipherBytes: ByteArray?,
+        associatedData: String,
+    ): ByteArray? {
+        if (communicationKeyCipherBytes == null) {
+            return null
+        }
+        return try {
+            columnCodec.decode(communicationKeyCipherBytes, associatedData)
+        } catch (exception: Exception) {
+            logger.error("decryptCommunicationKeyOrNull: unable to decrypt communication key", exception)
+            null
+        }
+    }
+
+    /**
+     * Returns a cold [Flow] that reads all of the user's persistently stored settlement methods in batches of at most
+     * [batchSize], in ascending order of ID. The private data of the settlement methods in each batch is decrypted in
+     * parallel (and is `null` if it cannot be decrypted).
+     *
+     * @param batchSize The maximum number of settlement methods in each emitted [List].
+     *
+     * @return A [Flow] of batches of the user's settlement methods.
+     */
+    fun streamUserSettlementMethods(batchSize: Long = HYDRATION_BATCH_SIZE): Flow<List<UserSettlementMethod>> = flow {
+        readInBatches(
+            batchSize = batchSize,
+            selectBatch = database::selectUserSettlementMethodsAfterID,
+            key = { it.settlementMethodID },
+        ) { dbSettlementMethods ->
+            logger.info("streamUserSettlementMethods: read ${dbSettlementMethods.size} settlement methods")
+            val decryptedPrivateData = decodeAllInParallel(dbSettlementMethods.map {
+                StoredColumnValue(
+                    storedValue = it.privateData,
+                    associatedData = userSettlementMethodAssociatedData(it.settlementMethodID),
+                )
+            })
+            emit(dbSettlementMethods.zip(decryptedPrivateData) { settlementMethod, privateData ->
+                if (settlementMethod.privateData != null && privateData == null) {
+                    logger.error("streamUserSettlementMethods: unable to decrypt private data for " +
+                            settlementMethod.settlementMethodID)
+                }
+                settlementMethod.copy(privateData = privateData)
+            })
+        }
+    }
+
+    /**
+     * Archives every persistently stored offer that has been taken or canceled, every swap that has been closed and
+     * every [SwapAndDispute] for which both the maker and taker have been paid out, moving each into an append-only
+     * archive table and removing it from the active tables, which are read when the app starts. Rows are archived in
+     * batches of at most [batchSize], each in its own transaction, so that other database operations can run between
+     * batches.
+     *
+     * @param batchSize The maximum number of rows archived in a single transaction.
+     *
+     * @return The total number of offers, swaps and [SwapAndDispute]s that were archived.
+     */
+    @OptIn(DelicateCoroutinesApi::class)
+    suspend fun archiveInactiveEntities(batchSize: Long = ARCHIVAL_BATCH_SIZE): Int {
+        val archivedOfferCount = archiveInBatches(batchSize, database::archiveInactiveOffers)
+        val archivedSwapCount = archiveInBatches(batchSize, database::archiveClosedSwaps)
+        val archivedSwapAndDisputeCount = archiveInBatches(batchSize, database::archiveResolvedSwapAndDisputes)
+        logger.info("archiveInactiveEntities: archived $archivedOfferCount offers, $archivedSwapCount swaps and " +
+                "$archivedSwapAndDisputeCount swap and disputes")
+        return archivedOfferCount + archivedSwapCount + archivedSwapAndDisputeCount
+    }
+
+    /**
+     * Repeatedly calls [archiveBatch] in [databaseServiceContext] until it archives fewer than [batchSize] rows.
+     *
+     * @param batchSize The maximum number of rows that [archiveBatch] archives in a single call.
+     * @param archiveBatch A lambda that archives at most the given number of rows and returns the number it archived.
+     *
+     * @return The total number of rows archived.
+     */
+    private suspend fun archiveInBatches(batchSize: Long, archiveBatch: (Long) -> Int): Int {
+        var archivedCount = 0
+        do {
+            val batchCount = withDatabaseContext {
+                archiveBatch(batchSize)
+            }
+            archivedCount += batchCount
+        } while (batchCount >= batchSize)
+        return archivedCount
+    }
+
+    /**
+     * Retrieves at most [limit] archived offers, most recently archived first, starting after the one with the archive
+     * number [beforeArchiveNumber]. The archive number of the last returned offer can be passed as
+     * [beforeArchiveNumber] to retrieve the next page.
+     *
+     * @param beforeArchiveNumber The archive number before which archived offers should be returned, or `null` to start
+     * with the most recently archived offer.
+     * @param limit The maximum number of archived offers to return.
+     *
+     * @return A [List] of [ArchivedOffer]s in descending order of archive number.
+     */
+    @OptIn(DelicateCoroutinesApi::class)
+    suspend fun getArchivedOffers(
+        beforeArchiveNumber: Long? = null,
+        limit: Long = ARCHIVE_PAGE_SIZE
+    ): List<ArchivedOffer> {
+        return withReadContext {
+            database.selectArchivedOffersBefore(beforeArchiveNumber, limit)
+        }
+    }
+
+    /**
+     * Retrieves at most [limit] archived swaps, most recently archived first, starting after the one with the archive
+     * number [beforeArchiveNumber]. The archive number of the last returned swap can be passed as [beforeArchiveNumber]
+     * to retrieve the next page.
+     *
+     * @param beforeArchiveNumber The archive number before which archived swaps should be returned, or `null` to start
+     * with the most recently archived swap.
+     * @param limit The maximum number of archived swaps to return.
+     *
+     * @return A [List] of [ArchivedSwap]s in descending order of archive number.
+     */
+    @OptIn(DelicateCoroutinesApi::class)
+    suspend fun getArchivedSwaps(
+        beforeArchiveNumber: Long? = null,
+        limit: Long = ARCHIVE_PAGE_SIZE
+    ): List<ArchivedSwap> {
+        return withReadContext {
+            database.selectArchivedSwapsBefore(beforeArchiveNumber, limit)
+        }
+    }
+
+    /**
+     * Retrieves at most [limit] archived [SwapAndDispute]s, most recently archived first, starting after the one with
+     * the archive number [beforeArchiveNumber]. The archive number of the last returned [ArchivedSwapAndDispute] can be
+     * passed as [beforeArchiveNumber] to retrieve the next page.
+     *
+     * @param beforeArchiveNumber The archive number before which archived [SwapAndDispute]s should be returned, or
+     * `null` to start with the most recently archived one.
+     * @param limit The maximum number of archived [SwapAndDispute]s to return.
+     *
+     * @return A [List] of [ArchivedSwapAndDispute]s in descending order of archive number.
+     */
+    @OptIn(DelicateCoroutinesApi::class)
+    suspend fun getArchivedSwapAndDisputes(
+        beforeArchiveNumber: Long? = null,
+        limit: Long = ARCHIVE_PAGE_SIZE
+    ): List<ArchivedSwapAndDispute> {
+        return withReadContext {
+            database.selectArchivedSwapAndDisputesBefore(beforeArchiveNumber, limit)
+        }
+    }
+
+    companion object {
+        /**
+         * The number of threads, and therefore read-only database connections, in [databaseServiceReaderContext].
+         */
+        const val READER_THREAD_COUNT = 4
+
+        /**
+         * The default maximum number of rows in each batch emitted by the `stream` functions of this class.
+         */
+        const val HYDRATION_BATCH_SIZE = 500L
+
+        /**
+         * The maximum number of rows that [mapInParallel] transforms in a single coroutine.
+         */
+        const val PARALLEL_TRANSFORM_CHUNK_SIZE = 32
+
+        /**
+         * The default maximum number of rows archived in a single transaction by [archiveInactiveEntities].
+         */
+        const val ARCHIVAL_BATCH_SIZE = 200L
+
+        /**
+         * The default maximum number of rows returned by the functions of this class that retrieve archived data.
+         */
+        const val ARCHIVE_PAGE_SIZE = 50L
+
+        /*
+        The names of the tables and columns that hold encrypted values, which are bound to their rows as associated data
+        and must match those used by Database when migrating legacy values.
+         */
+        const val OFFER_SETTLEMENT_METHOD_TABLE = "OfferSettlementMethod"
+        const val PENDING_OFFER_SETTLEMENT_METHOD_TABLE = "PendingOfferSettlementMethod"
+        const val USER_SETTLEMENT_METHOD_TABLE = "UserSettlementMethod"
+        const val SWAP_TABLE = "SwapRecord"
+        const val SWAP_AND_DISPUTE_TABLE = "SwapAndDispute"
+        const val PRIVATE_DATA_COLUMN = "privateData"
+        const val MAKER_PRIVATE_DATA_COLUMN = "makerPrivateData"
+        const val TAKER_PRIVATE_DATA_COLUMN = "takerPrivateData"
+        const val MAKER_COMMUNICATION_KEY_COLUMN = "makerCommunicationKey"
+        const val TAKER_COMMUNICATION_KEY_COLUMN = "takerCommunicationKey"
+        const val DISPUTE_AGENT_COMMUNICATION_KEY_COLUMN = "disputeAgentCommunicationKey"
+    }
+
+}
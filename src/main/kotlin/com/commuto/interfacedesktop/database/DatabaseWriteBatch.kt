@@ -0,0 +1,82 @@
+package com.commuto.interfacedesktop.database
+
+import kotlin.coroutines.AbstractCoroutineContextElement
+import kotlin.coroutines.CoroutineContext
+
+/**
+ * A unit of work: database writes deferred by [DatabaseService] while a coroutine runs within
+ * [DatabaseService.batchWrites], to be committed together in a single transaction.
+ *
+ * Each write is identified by a key describing the statement and the entity it affects, such as
+ * "updateOfferState:<offer ID>:<chain ID>". If a write is deferred with the same key as a write that is already
+ * deferred, the earlier write is discarded, since the later one would overwrite its effects anyway.
+ *
+ * Once the unit of work has ended, the batch is closed and defers no more writes. Since this element is inherited by
+ * child coroutines, a child that outlives the unit of work can still hold it, and its writes must then be executed
+ * immediately rather than deferred to a batch that will never be committed.
+ *
+ * @property writes The deferred writes in the order in which they should be executed, keyed by the keys that identify
+ * them.
+ * @property isClosed Whether the unit of work has ended, after which no writes are deferred.
+ */
+internal class DatabaseWriteBatch : AbstractCoroutineContextElement(DatabaseWriteBatch) {
+
+    /**
+     * The key of [DatabaseWriteBatch] in a [CoroutineContext].
+     */
+    companion object Key : CoroutineContext.Key<DatabaseWriteBatch>
+
+    private val writes = LinkedHashMap<String, () -> Unit>()
+
+    var isClosed = false
+        @Synchronized get
+        private set
+
+    /**
+     * Defers [write], discarding any deferred write with the same [key], unless this batch is closed.
+     *
+     * @param key The key identifying [write].
+     * @param write A lambda that executes the write, which must be called on the database service context.
+     *
+     * @return `true` if [write] was deferred, or `false` if this batch is closed, in which case the caller must execute
+     * [write] itself.
+     */
+    fun defer(key: String, write: () -> Unit): Boolean {
+        return synchronized(this) {
+            if (isClosed) {
+                false
+            } else {
+                // Remove first so that the write is executed after every write deferred before it
+                writes.remove(key)
+                writes[key] = write
+                true
+            }
+        }
+    }
+
+    /**
+     * Removes and returns all deferred writes.
+     *
+     * @return A [List] of all writes deferred since this was last called, in the order in which they should be
+     * executed.
+     */
+    fun takeWrites(): List<() -> Unit> {
+        return synchronized(this) {
+            writes.values.toList().also { writes.clear() }
+        }
+    }
+
+    /**
+     * Closes this batch, so that it defers no more writes, and then removes and returns all deferred writes.
+     *
+     * @return A [List] of all writes deferred since [takeWrites] was last called, in the order in which they should be
+     * executed.
+     */
+    fun close(): List<() -> Unit> {
+        return synchronized(this) {
+            isClosed = true
+            takeWrites()
+        }
+    }
+
+}
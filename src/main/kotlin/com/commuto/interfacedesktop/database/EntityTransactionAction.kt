@@ -0,0 +1,54 @@
+package com.commuto.interfacedesktop.database
+
+/**
+ * Describes the action that a row of the `EntityTransaction` table belongs to. Each offer or swap has at most one row
+ * for each of its actions, which stores the state of that action and the hash, creation time and creation block number
+ * of the transaction that performs it. Offers and swaps share IDs, so the actions of offers and those of swaps never
+ * have the same [asString] value.
+ *
+ * @property APPROVE_TO_OPEN Approving the transfer of tokens in order to open an offer.
+ * @property OPENING_OFFER Opening an offer.
+ * @property CANCELING_OFFER Canceling an offer.
+ * @property EDITING_OFFER Editing an offer.
+ * @property APPROVE_TO_TAKE Approving the transfer of tokens in order to take an offer.
+ * @property TAKING_OFFER Taking an offer.
+ * @property APPROVE_TO_FILL Approving the transfer of tokens in order to fill a swap.
+ * @property FILLING_SWAP Filling a swap.
+ * @property REPORT_PAYMENT_SENT Reporting that payment has been sent for a swap.
+ * @property REPORT_PAYMENT_RECEIVED Reporting that payment has been received for a swap.
+ * @property CLOSE_SWAP Closing a swap.
+ * @property RAISING_DISPUTE Raising a dispute for a swap.
+ * @property asString Returns a [String] corresponding to a particular case of [EntityTransactionAction], which is
+ * stored in the `actionType` column of the `EntityTransaction` table.
+ */
+internal enum class EntityTransactionAction {
+    APPROVE_TO_OPEN,
+    OPENING_OFFER,
+    CANCELING_OFFER,
+    EDITING_OFFER,
+    APPROVE_TO_TAKE,
+    TAKING_OFFER,
+    APPROVE_TO_FILL,
+    FILLING_SWAP,
+    REPORT_PAYMENT_SENT,
+    REPORT_PAYMENT_RECEIVED,
+    CLOSE_SWAP,
+    RAISING_DISPUTE;
+
+    val asString: String
+        get() = when (this) {
+            APPROVE_TO_OPEN -> "approveToOpen"
+            OPENING_OFFER -> "openingOffer"
+            CANCELING_OFFER -> "cancelingOffer"
+            EDITING_OFFER -> "editingOffer"
+            APPROVE_TO_TAKE -> "approveToTake"
+            TAKING_OFFER -> "takingOffer"
+            APPROVE_TO_FILL -> "approveToFill"
+            FILLING_SWAP -> "fillingSwap"
+            REPORT_PAYMENT_SENT -> "reportPaymentSent"
+            REPORT_PAYMENT_RECEIVED -> "reportPaymentReceived"
+            CLOSE_SWAP -> "closeSwap"
+            RAISING_DISPUTE -> "raisingDispute"
+        }
+
+}
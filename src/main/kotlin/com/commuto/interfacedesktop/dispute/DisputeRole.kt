@@ -14,4 +14,17 @@ enum class DisputeRole {
             DISPUTE_AGENT_0 -> "disputeAgent0"
         }
 
-}
\ No newline at end of file
+    companion object {
+        /**
+         * Attempts to create a [DisputeRole] corresponding to the given [String], or returns `null` if no case
+         * corresponds to the given [String].
+         *
+         * @param string The [String] from which this attempts to create a corresponding [DisputeRole].
+         *
+         * @return A [DisputeRole] corresponding to [string], or `null` if no such [DisputeRole] exists.
+         */
+        fun fromString(string: String?): DisputeRole? {
+            return values().firstOrNull { it.asString == string }
+        }
+    }
+}
@@ -6,8 +6,8 @@ import com.commuto.interfacedesktop.blockchain.BlockchainTransactionException
 import com.commuto.interfacedesktop.blockchain.BlockchainTransactionType
 import com.commuto.interfacedesktop.blockchain.events.commutoswap.DisputeRaisedEvent
 import com.commuto.interfacedesktop.database.DatabaseService
+import com.commuto.interfacedesktop.db.SwapAndDispute as DatabaseSwapAndDispute
 import com.commuto.interfacedesktop.dispute.validation.validateSwapForRaisingDispute
-import com.commuto.interfacedesktop.extension.asByteArray
 import com.commuto.interfacedesktop.key.KeyManagerService
 import com.commuto.interfacedesktop.key.keys.SymmetricKey
 import com.commuto.interfacedesktop.offer.OfferDirection
@@ -104,6 +104,130 @@ class DisputeService @Inject constructor(
         p2pService = newP2PService
     }
 
+    /**
+     * Adds all persistently stored [SwapAndDispute]s to [disputeTruthSource], so that disputes in which the user of
+     * this interface is a dispute agent are available immediately after startup. If [disputeTruthSource] has not been
+     * set, this does nothing.
+     *
+     * This reads [SwapAndDispute]s in batches via [DatabaseService.streamSwapAndDisputes], which decrypts their
+     * communication keys in parallel. Each batch is converted on the default coroutine dispatcher and then added to
+     * [disputeTruthSource] all at once on the main coroutine dispatcher, skipping any [SwapAndDispute] that is already
+     * present. [SwapAndDispute]s that cannot be converted are logged and skipped.
+     */
+    suspend fun hydrateSwapAndDisputes() {
+        if (!::disputeTruthSource.isInitialized) {
+            logger.info("hydrateSwapAndDisputes: disputeTruthSource is not set, not hydrating")
+            return
+        }
+        logger.info("hydrateSwapAndDisputes: hydrating disputeTruthSource")
+        var hydratedSwapAndDisputeCount = 0
+        databaseService.streamSwapAndDisputes().collect { batch ->
+            val swapAndDisputes = withContext(Dispatchers.Default) {
+                batch.mapNotNull {
+                    try {
+                        createSwapAndDisputeFromDatabase(it)
+                    } catch (exception: Exception) {
+                        logger.error("hydrateSwapAndDisputes: unable to restore swap and dispute with ID ${it.id}",
+                            exception)
+                        null
+                    }
+                }
+            }
+            withContext(Dispatchers.Main) {
+                disputeTruthSource.swapAndDisputes.putAll(
+                    swapAndDisputes.filter {
+                        !disputeTruthSource.swapAndDisputes.containsKey(it.id)
+                    }.associateBy { it.id }
+                )
+            }
+            hydratedSwapAndDisputeCount += swapAndDisputes.size
+        }
+        logger.info("hydrateSwapAndDisputes: hydrated $hydratedSwapAndDisputeCount swap and disputes")
+    }
+
+    /**
+     * Creates a [SwapAndDispute] from a persistently stored [DatabaseSwapAndDispute].
+     *
+     * @param dbSwapAndDispute The [DatabaseSwapAndDispute], with decrypted communication keys, from which to create a
+     * [SwapAndDispute].
+     *
+     * @return A new [SwapAndDispute] with the data and state stored in [dbSwapAndDispute].
+     *
+     * @throws IllegalStateException if [dbSwapAndDispute] has an invalid direction or role.
+     */
+    private fun createSwapAndDisputeFromDatabase(dbSwapAndDispute: DatabaseSwapAndDispute): SwapAndDispute {
+        val decoder = Base64.getDecoder()
+        val swapAndDispute = SwapAndDispute(
+            isCreated = dbSwapAndDispute.isCreated == 1L,
+            requiresFill = dbSwapAndDispute.requiresFill == 1L,
+            id = dbSwapAndDispute.id,
+            maker = dbSwapAndDispute.maker,
+            makerInterfaceID = decoder.decode(dbSwapAndDispute.makerInterfaceID),
+            taker = dbSwapAndDispute.taker,
+            takerInterfaceID = decoder.decode(dbSwapAndDispute.takerInterfaceID),
+            stablecoin = dbSwapAndDispute.stablecoin,
+            amountLowerBound = dbSwapAndDispute.amountLowerBound,
+            amountUpperBound = dbSwapAndDispute.amountUpperBound,
+            securityDepositAmount = dbSwapAndDispute.securityDepositAmount,
+            takenSwapAmount = dbSwapAndDispute.takenSwapAmount,
+            serviceFeeAmount = dbSwapAndDispute.serviceFeeAmount,
+            serviceFeeRate = dbSwapAndDispute.serviceFeeRate,
+            direction = when (dbSwapAndDispute.onChainDirection) {
+                "0" -> OfferDirection.BUY
+                "1" -> OfferDirection.SELL
+                else -> throw IllegalStateException("Unexpected onChainDirection " +
+                        dbSwapAndDispute.onChainDirection)
+            },
+            onChainSettlementMethod = decoder.decode(dbSwapAndDispute.settlementMethod),
+            protocolVersion = BigInteger(dbSwapAndDispute.protocolVersion),
+            isPaymentSent = dbSwapAndDispute.isPaymentSent == 1L,
+            isPaymentReceived = dbSwapAndDispute.isPaymentReceived == 1L,
+            hasBuyerClosed = dbSwapAndDispute.hasBuyerClosed == 1L,
+            hasSellerClosed = dbSwapAndDispute.hasSellerClosed == 1L,
+            onChainDisputeRaiser = BigInteger(dbSwapAndDispute.disputeRaiser),
+            chainID = dbSwapAndDispute.chainID,
+            disputeRaisedBlockNumber = BigInteger(dbSwapAndDispute.disputeRaisedBlockNumber),
+            disputeAgent0 = dbSwapAndDispute.disputeAgent0,
+            disputeAgent1 = dbSwapAndDispute.disputeAgent1,
+            disputeAgent2 = dbSwapAndDispute.disputeAgent2,
+            hasDisputeAgent0Proposed = dbSwapAndDispute.hasDisputeAgent0Proposed == 1L,
+            disputeAgent0MakerPayout = dbSwapAndDispute.disputeAgent0MakerPayout,
+            disputeAgent0TakerPayout = dbSwapAndDispute.disputeAgent0TakerPayout,
+            disputeAgent0ConfiscationPayout = dbSwapAndDispute.disputeAgent0ConfiscationPayout,
+            hasDisputeAgent1Proposed = dbSwapAndDispute.hasDisputeAgent1Proposed == 1L,
+            disputeAgent1MakerPayout = dbSwapAndDispute.disputeAgent1MakerPayout,
+            disputeAgent1TakerPayout = dbSwapAndDispute.disputeAgent1TakerPayout,
+            disputeAgent1ConfiscationPayout = dbSwapAndDispute.disputeAgent1ConfiscationPayout,
+            hasDisputeAgent2Proposed = dbSwapAndDispute.hasDisputeAgent2Proposed == 1L,
+            disputeAgent2MakerPayout = dbSwapAndDispute.disputeAgent2MakerPayout,
+            disputeAgent2TakerPayout = dbSwapAndDispute.disputeAgent2TakerPayout,
+            disputeAgent2ConfiscationPayout = dbSwapAndDispute.disputeAgent2ConfiscationPayout,
+            onChainMatchingProposals = BigInteger.valueOf(dbSwapAndDispute.matchingProposals),
+            makerReaction = BigInteger.valueOf(dbSwapAndDispute.makerReaction),
+            takerReaction = BigInteger.valueOf(dbSwapAndDispute.takerReaction),
+            onChainState = BigInteger.valueOf(dbSwapAndDispute.onChainState),
+            hasMakerPaidOut = dbSwapAndDispute.hasMakerPaidOut == 1L,
+            hasTakerPaidOut = dbSwapAndDispute.hasTakerPaidOut == 1L,
+            totalWithoutSpentServiceFees = dbSwapAndDispute.totalWithoutSpentServiceFees,
+            role = DisputeRole.fromString(dbSwapAndDispute.role)
+                ?: throw IllegalStateException("Unexpected dispute role ${dbSwapAndDispute.role}"),
+        )
+        swapAndDispute.disputeAgent0InterfaceID = dbSwapAndDispute.disputeAgent0InterfaceID?.let { decoder.decode(it) }
+        swapAndDispute.state.value = DisputeStateAsAgent.fromString(dbSwapAndDispute.state) ?: DisputeStateAsAgent.NONE
+        swapAndDispute.makerCommunicationKey = dbSwapAndDispute.makerCommunicationKey?.let {
+            SymmetricKey(decoder.decode(it))
+        }
+        swapAndDispute.takerCommunicationKey = dbSwapAndDispute.takerCommunicationKey?.let {
+            SymmetricKey(decoder.decode(it))
+        }
+        swapAndDispute.disputeAgentCommunicationKey = dbSwapAndDispute.disputeAgentCommunicationKey?.let {
+            SymmetricKey(decoder.decode(it))
+        }
+        swapAndDispute.sentKeyToMaker = dbSwapAndDispute.sentKeyToMaker == 1L
+        swapAndDispute.sentKeyToTaker = dbSwapAndDispute.sentKeyToTaker == 1L
+        return swapAndDispute
+    }
+
     /**
      * Attempts to create a [RawTransaction] that will raise a dispute for a
      * [Swap](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#fill-swap) involving the user of this
@@ -170,7 +294,6 @@ class DisputeService @Inject constructor(
         disputeAgents: Triple<String, String, String>?
     ) {
         withContext(Dispatchers.IO) {
-            val encoder = Base64.getEncoder()
             try  {
                 logger.info("raiseDispute: raising for ${swap.id}")
                 validateSwapForRaisingDispute(swap = swap)
@@ -211,8 +334,8 @@ class DisputeService @Inject constructor(
                 logger.info("raiseDispute: persistently storing dispute raising data for ${swap.id}, including tx " +
                         "hash ${blockchainTransactionForRaisingDispute.transactionHash}")
                 databaseService.updateRaisingDisputeData(
-                    swapID = encoder.encodeToString(swap.id.asByteArray()),
-                    chainID = swap.chainID.toString(),
+                    swapID = swap.id,
+                    chainID = swap.chainID,
                     transactionHash = blockchainTransactionForRaisingDispute.transactionHash,
                     creationTime = dateString,
                     blockNumber = blockchainTransactionForRaisingDispute.latestBlockNumberAtCreation.toLong()
@@ -220,8 +343,8 @@ class DisputeService @Inject constructor(
                 logger.info("raiseDispute: persistently  updating raisingDisputeState for ${swap.id} to " +
                         "${RaisingDisputeState.SENDING_TRANSACTION}")
                 databaseService.updateRaisingDisputeState(
-                    swapID = encoder.encodeToString(swap.id.asByteArray()),
-                    chainID = swap.chainID.toString(),
+                    swapID = swap.id,
+                    chainID = swap.chainID,
                     state = RaisingDisputeState.SENDING_TRANSACTION.asString,
                 )
                 logger.info("raiseDispute: updating raisingDisputeState to ${RaisingDisputeState
@@ -241,8 +364,8 @@ class DisputeService @Inject constructor(
                 logger.info("raiseDispute: persistently updating raisingDisputeState of ${swap.id} to " +
                         "${RaisingDisputeState.AWAITING_TRANSACTION_CONFIRMATION}")
                 databaseService.updateRaisingDisputeState(
-                    swapID = encoder.encodeToString(swap.id.asByteArray()),
-                    chainID = swap.chainID.toString(),
+                    swapID = swap.id,
+                    chainID = swap.chainID,
                     state = RaisingDisputeState.AWAITING_TRANSACTION_CONFIRMATION.asString,
                 )
                 logger.info("raiseDispute: updating raisingDisputeState to " +
@@ -254,8 +377,8 @@ class DisputeService @Inject constructor(
                 logger.error("raiseDispute: encountered exception while raising dispute for ${swap.id}, setting " +
                         "raisingDisputeState to ${RaisingDisputeState.EXCEPTION}", exception)
                 databaseService.updateRaisingDisputeState(
-                    swapID = encoder.encodeToString(swap.id.asByteArray()),
-                    chainID = swap.chainID.toString(),
+                    swapID = swap.id,
+                    chainID = swap.chainID,
                     state = RaisingDisputeState.EXCEPTION.asString,
                 )
                 withContext(Dispatchers.Main) {
@@ -281,7 +404,6 @@ class DisputeService @Inject constructor(
     ) {
         logger.warn("handleFailedTransaction: handling ${transaction.transactionHash} of type " +
                 "${transaction.type.asString} with exception ${exception.message}")
-        val encoder = Base64.getEncoder()
         when (transaction.type) {
             BlockchainTransactionType.APPROVE_TOKEN_TRANSFER_TO_OPEN_OFFER, BlockchainTransactionType.OPEN_OFFER,
             BlockchainTransactionType.CANCEL_OFFER, BlockchainTransactionType.EDIT_OFFER,
@@ -306,8 +428,8 @@ class DisputeService @Inject constructor(
                             "dispute transaction ${transaction.transactionHash}, updating raisingDisputeState to " +
                             "${RaisingDisputeState.EXCEPTION.asString} in persistent storage")
                     databaseService.updateRaisingDisputeState(
-                        swapID = encoder.encodeToString(swap.id.asByteArray()),
-                        chainID = swap.chainID.toString(),
+                        swapID = swap.id,
+                        chainID = swap.chainID,
                         state = RaisingDisputeState.EXCEPTION.asString,
                     )
                     logger.warn("handleFailedTransaction: setting raisingDisputeException and updating " +
@@ -405,8 +527,8 @@ class DisputeService @Inject constructor(
                     "with swapAndDispute")
             swapAndDispute.disputeAgent0InterfaceID = keyPair.interfaceId
             databaseService.updateSwapAndDisputeAgent0InterfaceID(
-                id = swapAndDispute.id.toString(),
-                chainID = swapAndDispute.chainID.toString(),
+                id = swapAndDispute.id,
+                chainID = swapAndDispute.chainID,
                 interfaceID = encoder.encodeToString(swapAndDispute.disputeAgent0InterfaceID)
             )
             logger.info("handleDisputeRaisedEvent: announcing key ${encoder.encodeToString(keyPair.interfaceId)} for " +
@@ -421,8 +543,8 @@ class DisputeService @Inject constructor(
                     DisputeStateAsAgent.SENT_DISPUTE_AGENT_0_PKA.asString
             )
             databaseService.updateSwapAndDisputeState(
-                id = swapAndDispute.id.toString(),
-                chainID = swapAndDispute.chainID.toString(),
+                id = swapAndDispute.id,
+                chainID = swapAndDispute.chainID,
                 state = DisputeStateAsAgent.SENT_DISPUTE_AGENT_0_PKA.asString
             )
             withContext(Dispatchers.Main) {
@@ -434,18 +556,18 @@ class DisputeService @Inject constructor(
             val takerCommunicationKey = SymmetricKey()
             val disputeAgentCommunicationKey = SymmetricKey()
             databaseService.updateSwapAndDisputeMakerCommunicationKey(
-                id = swapAndDispute.id.toString(),
-                chainID = swapAndDispute.chainID.toString(),
+                id = swapAndDispute.id,
+                chainID = swapAndDispute.chainID,
                 key = encoder.encodeToString(makerCommunicationKey.keyBytes),
             )
             databaseService.updateSwapAndDisputeTakerCommunicationKey(
-                id = swapAndDispute.id.toString(),
-                chainID = swapAndDispute.chainID.toString(),
+                id = swapAndDispute.id,
+                chainID = swapAndDispute.chainID,
                 key = encoder.encodeToString(takerCommunicationKey.keyBytes),
             )
             databaseService.updateSwapAndDisputeAgentCommunicationKey(
-                id = swapAndDispute.id.toString(),
-                chainID = swapAndDispute.chainID.toString(),
+                id = swapAndDispute.id,
+                chainID = swapAndDispute.chainID,
                 key = encoder.encodeToString(disputeAgentCommunicationKey.keyBytes),
             )
             swapAndDispute.makerCommunicationKey = makerCommunicationKey
@@ -455,8 +577,8 @@ class DisputeService @Inject constructor(
                     DisputeStateAsAgent.CREATED_COMMUNICATION_KEYS.asString
             )
             databaseService.updateSwapAndDisputeState(
-                id = swapAndDispute.id.toString(),
-                chainID = swapAndDispute.chainID.toString(),
+                id = swapAndDispute.id,
+                chainID = swapAndDispute.chainID,
                 state = DisputeStateAsAgent.CREATED_COMMUNICATION_KEYS.asString
             )
             withContext(Dispatchers.Main) {
@@ -478,7 +600,6 @@ class DisputeService @Inject constructor(
                         "${swap.id}: ${swap.chainID}")
                 return
             }
-            val encoder = Base64.getEncoder()
             logger.info("handleDisputeRaisedEvent: user is swapper for ${swap.id}, retrieving key pair")
             val interfaceID = when (swap.role) {
                 SwapRole.MAKER_AND_BUYER, SwapRole.MAKER_AND_SELLER -> swap.makerInterfaceID
@@ -495,8 +616,8 @@ class DisputeService @Inject constructor(
             logger.info("handleDisputeRaisedEvent: updating dispute state of ${swap.id} to " +
                     "${DisputeState.SENT_PKA.asString} in persistent storage")
             databaseService.updateSwapDisputeState(
-                swapID = encoder.encodeToString(swap.id.asByteArray()),
-                chainID = swap.chainID.toString(),
+                swapID = swap.id,
+                chainID = swap.chainID,
                 state = DisputeState.SENT_PKA.asString
             )
             logger.info("handleDisputeRaisedEvent: updating dispute state of ${swap.id} to ${DisputeState.SENT_PKA
@@ -530,8 +651,8 @@ class DisputeService @Inject constructor(
                 logger.info("handleDisputeRaisedEvent: user is dispute raiser for ${swap.id} so persistently " +
                         "updating raisingDisputeState to ${RaisingDisputeState.COMPLETED.asString}")
                 databaseService.updateRaisingDisputeState(
-                    swapID = encoder.encodeToString(swap.id.asByteArray()),
-                    chainID = swap.chainID.toString(),
+                    swapID = swap.id,
+                    chainID = swap.chainID,
                     state = RaisingDisputeState.COMPLETED.asString,
                 )
                 logger.info("handleDisputeRaisedEvent: updating raisingDisputeState to ${RaisingDisputeState.COMPLETED
@@ -558,8 +679,8 @@ class DisputeService @Inject constructor(
                     .transactionHash} for ${event.swapID}")
                 val dateString = DateFormatter.createDateString(raisingDisputeTransaction.timeOfCreation)
                 databaseService.updateRaisingDisputeData(
-                    swapID = encoder.encodeToString(swap.id.asByteArray()),
-                    chainID = event.chainID.toString(),
+                    swapID = swap.id,
+                    chainID = event.chainID,
                     transactionHash = raisingDisputeTransaction.transactionHash,
                     creationTime = dateString,
                     blockNumber = raisingDisputeTransaction.latestBlockNumberAtCreation.toLong()
@@ -616,8 +737,8 @@ class DisputeService @Inject constructor(
                                     "maker/dispute raiser for ${message.id} on ${message.chainID}, updating " +
                                     "sentKeyToMaker")
                             databaseService.updateSwapAndDisputeSentKeyToMaker(
-                                id = swapAndDispute.id.toString(),
-                                chainID = swapAndDispute.chainID.toString(),
+                                id = swapAndDispute.id,
+                                chainID = swapAndDispute.chainID,
                                 sentKeyToMaker = true,
                             )
                             withContext(Dispatchers.Main) {
@@ -656,8 +777,8 @@ class DisputeService @Inject constructor(
                                     "taker/dispute raiser for ${message.id} on ${message.chainID}, updating " +
                                     "sentKeyToTaker")
                             databaseService.updateSwapAndDisputeSentKeyToTaker(
-                                id = swapAndDispute.id.toString(),
-                                chainID = swapAndDispute.chainID.toString(),
+                                id = swapAndDispute.id,
+                                chainID = swapAndDispute.chainID,
                                 sentKeyToTaker = true,
                             )
                             withContext(Dispatchers.Main) {
@@ -707,8 +828,8 @@ class DisputeService @Inject constructor(
                                     "taker/non-dispute-raising counterparty for ${message.id} on ${message.chainID}, " +
                                     "updating sentKeyToTaker")
                             databaseService.updateSwapAndDisputeSentKeyToTaker(
-                                id = swapAndDispute.id.toString(),
-                                chainID = swapAndDispute.chainID.toString(),
+                                id = swapAndDispute.id,
+                                chainID = swapAndDispute.chainID,
                                 sentKeyToTaker = true,
                             )
                             withContext(Dispatchers.Main) {
@@ -748,8 +869,8 @@ class DisputeService @Inject constructor(
                                     "maker/non-dispute-raising counterparty for ${message.id} on ${message.chainID}, " +
                                     "updating sentKeyToMaker")
                             databaseService.updateSwapAndDisputeSentKeyToMaker(
-                                id = swapAndDispute.id.toString(),
-                                chainID = swapAndDispute.chainID.toString(),
+                                id = swapAndDispute.id,
+                                chainID = swapAndDispute.chainID,
                                 sentKeyToMaker = true,
                             )
                             withContext(Dispatchers.Main) {
@@ -18,4 +18,17 @@ enum class DisputeState {
             SENT_PKA -> "sentDisputePka"
         }
 
-}
\ No newline at end of file
+    companion object {
+        /**
+         * Attempts to create a [DisputeState] corresponding to the given [String], or returns `null` if no case
+         * corresponds to the given [String].
+         *
+         * @param string The [String] from which this attempts to create a corresponding [DisputeState].
+         *
+         * @return A [DisputeState] corresponding to [string], or `null` if no such [DisputeState] exists.
+         */
+        fun fromString(string: String?): DisputeState? {
+            return values().firstOrNull { it.asString == string }
+        }
+    }
+}
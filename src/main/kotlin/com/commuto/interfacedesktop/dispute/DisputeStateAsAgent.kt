@@ -23,4 +23,17 @@ enum class DisputeStateAsAgent {
             CREATED_COMMUNICATION_KEYS -> "createdCommunicationKeys"
         }
 
-}
\ No newline at end of file
+    companion object {
+        /**
+         * Attempts to create a [DisputeStateAsAgent] corresponding to the given [String], or returns `null` if no case
+         * corresponds to the given [String].
+         *
+         * @param string The [String] from which this attempts to create a corresponding [DisputeStateAsAgent].
+         *
+         * @return A [DisputeStateAsAgent] corresponding to [string], or `null` if no such [DisputeStateAsAgent] exists.
+         */
+        fun fromString(string: String?): DisputeStateAsAgent? {
+            return values().firstOrNull { it.asString == string }
+        }
+    }
+}
@@ -41,4 +41,17 @@ enum class RaisingDisputeState {
             EXCEPTION -> "error"
         }
 
-}
\ No newline at end of file
+    companion object {
+        /**
+         * Attempts to create a [RaisingDisputeState] corresponding to the given [String], or returns `null` if no case
+         * corresponds to the given [String].
+         *
+         * @param string The [String] from which this attempts to create a corresponding [RaisingDisputeState].
+         *
+         * @return A [RaisingDisputeState] corresponding to [string], or `null` if no such [RaisingDisputeState] exists.
+         */
+        fun fromString(string: String?): RaisingDisputeState? {
+            return values().firstOrNull { it.asString == string }
+        }
+    }
+}
@@ -155,7 +155,7 @@ data class SwapAndDispute(
     fun toDatabaseSwapAndDispute(): DatabaseSwapAndDispute {
         val encoder = Base64.getEncoder()
         return DatabaseSwapAndDispute(
-            id = this.id.toString(),
+            id = this.id,
             isCreated = if (this.isCreated) 1L else 0L,
             requiresFill = if (this.requiresFill) 1L else 0L,
             maker = this.maker,
@@ -163,12 +163,12 @@ data class SwapAndDispute(
             taker = this.taker,
             takerInterfaceID = encoder.encodeToString(this.takerInterfaceID),
             stablecoin = this.stablecoin,
-            amountLowerBound = this.amountLowerBound.toString(),
-            amountUpperBound = this.amountUpperBound.toString(),
-            securityDepositAmount = this.securityDepositAmount.toString(),
-            takenSwapAmount = this.takenSwapAmount.toString(),
-            serviceFeeAmount = this.serviceFeeAmount.toString(),
-            serviceFeeRate = this.serviceFeeRate.toString(),
+            amountLowerBound = this.amountLowerBound,
+            amountUpperBound = this.amountUpperBound,
+            securityDepositAmount = this.securityDepositAmount,
+            takenSwapAmount = this.takenSwapAmount,
+            serviceFeeAmount = this.serviceFeeAmount,
+            serviceFeeRate = this.serviceFeeRate,
             onChainDirection = when (this.direction) {
                 OfferDirection.BUY -> "0"
                 OfferDirection.SELL -> "1"
@@ -180,30 +180,30 @@ data class SwapAndDispute(
             hasBuyerClosed = if (this.hasBuyerClosed) 1L else 0L,
             hasSellerClosed = if (this.hasSellerClosed) 1L else 0L,
             disputeRaiser = this.onChainDisputeRaiser.toString(),
-            chainID = this.chainID.toString(),
+            chainID = this.chainID,
             disputeRaisedBlockNumber = this.disputeRaisedBlockNumber.toString(),
             disputeAgent0 = this.disputeAgent0,
             disputeAgent1 = this.disputeAgent1,
             disputeAgent2 = this.disputeAgent2,
             hasDisputeAgent0Proposed = if(this.hasDisputeAgent0Proposed) 1L else 0L,
-            disputeAgent0MakerPayout = this.disputeAgent0MakerPayout.toString(),
-            disputeAgent0TakerPayout = this.disputeAgent0TakerPayout.toString(),
-            disputeAgent0ConfiscationPayout = this.disputeAgent0ConfiscationPayout.toString(),
+            disputeAgent0MakerPayout = this.disputeAgent0MakerPayout,
+            disputeAgent0TakerPayout = this.disputeAgent0TakerPayout,
+            disputeAgent0ConfiscationPayout = this.disputeAgent0ConfiscationPayout,
             hasDisputeAgent1Proposed = if(this.hasDisputeAgent1Proposed) 1L else 0L,
-            disputeAgent1MakerPayout = this.disputeAgent1MakerPayout.toString(),
-            disputeAgent1TakerPayout = this.disputeAgent1TakerPayout.toString(),
-            disputeAgent1ConfiscationPayout = this.disputeAgent0ConfiscationPayout.toString(),
+            disputeAgent1MakerPayout = this.disputeAgent1MakerPayout,
+            disputeAgent1TakerPayout = this.disputeAgent1TakerPayout,
+            disputeAgent1ConfiscationPayout = this.disputeAgent0ConfiscationPayout,
             hasDisputeAgent2Proposed = if(this.hasDisputeAgent2Proposed) 1L else 0L,
-            disputeAgent2MakerPayout = this.disputeAgent2MakerPayout.toString(),
-            disputeAgent2TakerPayout = this.disputeAgent2TakerPayout.toString(),
-            disputeAgent2ConfiscationPayout = this.disputeAgent2ConfiscationPayout.toString(),
+            disputeAgent2MakerPayout = this.disputeAgent2MakerPayout,
+            disputeAgent2TakerPayout = this.disputeAgent2TakerPayout,
+            disputeAgent2ConfiscationPayout = this.disputeAgent2ConfiscationPayout,
             matchingProposals = this.onChainMatchingProposals.toLong(),
             makerReaction = this.makerReaction.toLong(),
             takerReaction = this.takerReaction.toLong(),
             onChainState = this.onChainState.toLong(),
             hasMakerPaidOut = if(this.hasMakerPaidOut) 1L else 0L,
             hasTakerPaidOut = if(this.hasTakerPaidOut) 1L else 0L,
-            totalWithoutSpentServiceFees = this.totalWithoutSpentServiceFees.toString(),
+            totalWithoutSpentServiceFees = this.totalWithoutSpentServiceFees,
             role = role.asString,
             disputeAgent0InterfaceID = this.disputeAgent0InterfaceID?.let {
                 encoder.encodeToString(it)
@@ -214,11 +214,8 @@ data class SwapAndDispute(
             these keys are created
              */
             makerCommunicationKey = null,
-            mCKInitializationVector = null,
             takerCommunicationKey = null,
-            tCKInitializationVector = null,
             disputeAgentCommunicationKey = null,
-            dACKInitializationVector = null,
             sentKeyToMaker = if (sentKeyToMaker) 1L else 0L,
             sentKeyToTaker = if (sentKeyToTaker) 1L else 0L,
         )
@@ -10,4 +10,12 @@ fun UUID.asByteArray(): ByteArray {
     return ByteBuffer.wrap(ByteArray(16)).also {
         it.putLong(this.mostSignificantBits).putLong(this.leastSignificantBits)
     }.array()
-}
\ No newline at end of file
+}
+
+/**
+ * Returns the [UUID] represented by the first 16 bytes of this [ByteArray], as created by [UUID.asByteArray].
+ */
+fun ByteArray.asUUID(): UUID {
+    val byteBuffer = ByteBuffer.wrap(this)
+    return UUID(byteBuffer.long, byteBuffer.long)
+}
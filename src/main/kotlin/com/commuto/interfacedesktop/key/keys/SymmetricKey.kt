@@ -1,8 +1,10 @@
 package com.commuto.interfacedesktop.key.keys
 
+import java.security.SecureRandom
 import javax.crypto.Cipher
 import javax.crypto.KeyGenerator
 import javax.crypto.SecretKey
+import javax.crypto.spec.GCMParameterSpec
 import javax.crypto.spec.IvParameterSpec
 import javax.crypto.spec.SecretKeySpec
 
@@ -76,6 +78,71 @@ class SymmetricKey {
         return cipher.doFinal(data.encryptedData)
     }
 
+    /**
+     * Creates a new 96-bit nonce and then performs authenticated AES encryption on the given bytes with this
+     * [SymmetricKey] using GCM with a 128-bit authentication tag.
+     *
+     * @param data The bytes to be encrypted, as a [ByteArray].
+     * @param associatedData Optional additional data that is authenticated but not encrypted. The same data must be
+     * supplied to [decryptAuthenticated].
+     *
+     * @returns [SymmetricallyEncryptedData], containing the new nonce as its initialization vector and [data]
+     * encrypted with this [SymmetricKey] and the new nonce, followed by the authentication tag.
+     */
+    fun encryptAuthenticated(data: ByteArray, associatedData: ByteArray? = null): SymmetricallyEncryptedData {
+        val nonce = ByteArray(GCM_NONCE_LENGTH)
+        secureRandom.nextBytes(nonce)
+        val cipher = Cipher.getInstance("AES/GCM/NoPadding")
+        cipher.init(Cipher.ENCRYPT_MODE, this.key, GCMParameterSpec(GCM_TAG_LENGTH_BITS, nonce))
+        if (associatedData != null) {
+            cipher.updateAAD(associatedData)
+        }
+        return SymmetricallyEncryptedData(cipher.doFinal(data), nonce)
+    }
+
+    /**
+     * Decrypts and authenticates [SymmetricallyEncryptedData] that has been encrypted with this [SymmetricKey] by
+     * [encryptAuthenticated].
+     *
+     * @param data The [SymmetricallyEncryptedData] to be decrypted, which contains the cipher data and authentication
+     * tag to be decrypted and the nonce used to encrypt them.
+     * @param associatedData The additional data that was supplied to [encryptAuthenticated], if any.
+     *
+     * @returns The decrypted cipher data in the passed [SymmetricallyEncryptedData], as a [ByteArray].
+     *
+     * @throws javax.crypto.AEADBadTagException if the cipher data or [associatedData] has been modified, or if the
+     * cipher data was not encrypted with this [SymmetricKey].
+     */
+    fun decryptAuthenticated(data: SymmetricallyEncryptedData, associatedData: ByteArray? = null): ByteArray {
+        val cipher = Cipher.getInstance("AES/GCM/NoPadding")
+        cipher.init(
+            Cipher.DECRYPT_MODE,
+            this.key,
+            GCMParameterSpec(GCM_TAG_LENGTH_BITS, data.initializationVector)
+        )
+        if (associatedData != null) {
+            cipher.updateAAD(associatedData)
+        }
+        return cipher.doFinal(data.encryptedData)
+    }
+
+    companion object {
+        /**
+         * The length of the nonce used by [encryptAuthenticated], in bytes.
+         */
+        const val GCM_NONCE_LENGTH = 12
+
+        /**
+         * The length of the authentication tag appended by [encryptAuthenticated], in bits.
+         */
+        const val GCM_TAG_LENGTH_BITS = 128
+
+        /**
+         * The [SecureRandom] from which nonces are generated.
+         */
+        private val secureRandom = SecureRandom()
+    }
+
 }
 
 // TODO: Move this to its own file
@@ -35,4 +35,17 @@ enum class CancelingOfferState {
             EXCEPTION -> "error"
         }
 
-}
\ No newline at end of file
+    companion object {
+        /**
+         * Attempts to create a [CancelingOfferState] corresponding to the given [String], or returns `null` if no case
+         * corresponds to the given [String].
+         *
+         * @param string The [String] from which this attempts to create a corresponding [CancelingOfferState].
+         *
+         * @return A [CancelingOfferState] corresponding to [string], or `null` if no such [CancelingOfferState] exists.
+         */
+        fun fromString(string: String?): CancelingOfferState? {
+            return values().firstOrNull { it.asString == string }
+        }
+    }
+}
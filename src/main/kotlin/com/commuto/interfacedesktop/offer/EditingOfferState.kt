@@ -34,4 +34,17 @@ enum class EditingOfferState {
             EXCEPTION -> "error"
         }
 
-}
\ No newline at end of file
+    companion object {
+        /**
+         * Attempts to create an [EditingOfferState] corresponding to the given [String], or returns `null` if no case
+         * corresponds to the given [String].
+         *
+         * @param string The [String] from which this attempts to create a corresponding [EditingOfferState].
+         *
+         * @return An [EditingOfferState] corresponding to [string], or `null` if no such [EditingOfferState] exists.
+         */
+        fun fromString(string: String?): EditingOfferState? {
+            return values().firstOrNull { it.asString == string }
+        }
+    }
+}
@@ -5,8 +5,10 @@ import androidx.compose.runtime.mutableStateListOf
 import androidx.compose.runtime.mutableStateOf
 import androidx.compose.runtime.snapshots.SnapshotStateList
 import com.commuto.interfacedesktop.blockchain.BlockchainTransaction
+import com.commuto.interfacedesktop.blockchain.TransactionHashIndex
 import com.commuto.interfacedesktop.blockchain.structs.OfferStruct
 import com.commuto.interfacedesktop.settlement.SettlementMethod
+import com.commuto.interfacedesktop.settlement.SettlementMethodInterner
 import com.commuto.interfacedesktop.settlement.privatedata.PrivateSEPAData
 import com.commuto.interfacedesktop.settlement.privatedata.PrivateSWIFTData
 import kotlinx.serialization.decodeFromString
@@ -47,6 +49,8 @@ import java.util.*
  * @param isUserMaker Indicates whether the user of this interface is the maker of this offer.
  * @param state Indicates the current state of this offer, as described in the
  * [Commuto Interface Specification](https://github.com/jimmyneutront/commuto-whitepaper/blob/main/commuto-interface-specification.txt).
+ * @param onChainSettlementMethods The initial value of [onChainSettlementMethods], which must encode
+ * [settlementMethods], or `null` if [onChainSettlementMethods] should be created by encoding [settlementMethods].
  *
  * @property isCreated A [MutableState] wrapping a [Boolean] corresponding to an on-chain
  * [Swap](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#swap)'s isCreated property.
@@ -62,6 +66,11 @@ import java.util.*
  * @property onChainSettlementMethods Corresponds to an on-chain
  * [Offer](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#offer)'s settlementMethods property. Note that
  * this has a private setter; code not in this class should use the [updateSettlementMethodsFromChain] method.
+ * @property hasInteractionState Indicates whether [interaction] has been allocated, meaning that this offer has been
+ * acted upon, either by the user of this interface or by restoring the state of such an action from persistent storage.
+ * @property interaction The [OfferInteractionState] of this offer, which is allocated the first time this is accessed.
+ * The [MutableState]s and [selectedSettlementMethods] below are stored in it, so accessing them allocates it, but the
+ * exceptions and transactions below are `null` without allocating it until they are set.
  * @property approvingToOpenState If this offer was made by the user of the interface, this indicates whether a token
  * transfer is being approved in order to open the offer, and if so, what part of the token transfer approval process it
  * is in. If this offer was not made by the user of this interface, this property is not used.
@@ -125,6 +134,10 @@ import java.util.*
  * The [Exception] that we encountered during the offer taking process, or `null` of no such exception has occurred.
  * @property takingOfferTransaction The [BlockchainTransaction] that has taken this offer, if it was taken by the user
  * of this interface, or `null` if the user of this offer is not the taker of this offer.
+ * @property transactionHashIndex The [TransactionHashIndex] in which the [BlockchainTransaction]s attached to this
+ * offer are indexed, or `null` if they are not indexed. When this is set, the transactions currently attached to this
+ * offer are moved to the new index, and transactions attached to or cleared from this offer afterwards are added to or
+ * removed from it.
  */
 class Offer(
     isCreated: Boolean,
@@ -144,6 +157,7 @@ class Offer(
     var havePublicKey: Boolean,
     var isUserMaker: Boolean,
     var state: OfferState,
+    onChainSettlementMethods: List<ByteArray>? = null,
 ) {
 
     // TODO: Resolve issue with settlement method decoding in this constructor
@@ -221,30 +235,120 @@ class Offer(
     var onChainSettlementMethods: List<ByteArray>
         private set
 
-    val approvingToOpenState: MutableState<TokenTransferApprovalState> = mutableStateOf(TokenTransferApprovalState.NONE)
-    var approvingToOpenException: Exception? = null
-    var approvingToOpenTransaction: BlockchainTransaction? = null
+    var transactionHashIndex: TransactionHashIndex<Offer>? = null
+        set(value) {
+            if (value !== field) {
+                listOfNotNull(
+                    approvingToOpenTransaction,
+                    offerOpeningTransaction,
+                    offerCancellationTransaction,
+                    offerEditingTransaction,
+                    approvingToTakeTransaction,
+                    takingOfferTransaction,
+                ).forEach {
+                    field?.remove(it, this)
+                    value?.add(it, this)
+                }
+                field = value
+            }
+        }
+
+    @Volatile
+    private var interactionState: OfferInteractionState? = null
+
+    val hasInteractionState: Boolean
+        get() = interactionState != null
+
+    val interaction: OfferInteractionState
+        get() = interactionState ?: synchronized(this) {
+            interactionState ?: OfferInteractionState().also { interactionState = it }
+        }
+
+    val approvingToOpenState: MutableState<TokenTransferApprovalState>
+        get() = interaction.approvingToOpenState
+    var approvingToOpenException: Exception?
+        get() = interactionState?.approvingToOpenException
+        set(value) {
+            interaction.approvingToOpenException = value
+        }
+    var approvingToOpenTransaction: BlockchainTransaction?
+        get() = interactionState?.approvingToOpenTransaction
+        set(value) {
+            transactionHashIndex?.replace(approvingToOpenTransaction, value, this)
+            interaction.approvingToOpenTransaction = value
+        }
 
-    val openingOfferState: MutableState<OpeningOfferState> = mutableStateOf(OpeningOfferState.NONE)
-    var openingOfferException: Exception? = null
-    var offerOpeningTransaction: BlockchainTransaction? = null
+    val openingOfferState: MutableState<OpeningOfferState>
+        get() = interaction.openingOfferState
+    var openingOfferException: Exception?
+        get() = interactionState?.openingOfferException
+        set(value) {
+            interaction.openingOfferException = value
+        }
+    var offerOpeningTransaction: BlockchainTransaction?
+        get() = interactionState?.offerOpeningTransaction
+        set(value) {
+            transactionHashIndex?.replace(offerOpeningTransaction, value, this)
+            interaction.offerOpeningTransaction = value
+        }
 
-    val cancelingOfferState: MutableState<CancelingOfferState> = mutableStateOf(CancelingOfferState.NONE)
-    var cancelingOfferException: Exception? = null
-    var offerCancellationTransaction: BlockchainTransaction? = null
+    val cancelingOfferState: MutableState<CancelingOfferState>
+        get() = interaction.cancelingOfferState
+    var cancelingOfferException: Exception?
+        get() = interactionState?.cancelingOfferException
+        set(value) {
+            interaction.cancelingOfferException = value
+        }
+    var offerCancellationTransaction: BlockchainTransaction?
+        get() = interactionState?.offerCancellationTransaction
+        set(value) {
+            transactionHashIndex?.replace(offerCancellationTransaction, value, this)
+            interaction.offerCancellationTransaction = value
+        }
 
-    val selectedSettlementMethods = mutableStateListOf<SettlementMethod>()
-    val editingOfferState: MutableState<EditingOfferState> = mutableStateOf(EditingOfferState.NONE)
-    var editingOfferException: Exception? = null
-    var offerEditingTransaction: BlockchainTransaction? = null
+    val selectedSettlementMethods: SnapshotStateList<SettlementMethod>
+        get() = interaction.selectedSettlementMethods
+    val editingOfferState: MutableState<EditingOfferState>
+        get() = interaction.editingOfferState
+    var editingOfferException: Exception?
+        get() = interactionState?.editingOfferException
+        set(value) {
+            interaction.editingOfferException = value
+        }
+    var offerEditingTransaction: BlockchainTransaction?
+        get() = interactionState?.offerEditingTransaction
+        set(value) {
+            transactionHashIndex?.replace(offerEditingTransaction, value, this)
+            interaction.offerEditingTransaction = value
+        }
 
-    val approvingToTakeState: MutableState<TokenTransferApprovalState> = mutableStateOf(TokenTransferApprovalState.NONE)
-    var approvingToTakeException: Exception? = null
-    var approvingToTakeTransaction: BlockchainTransaction? = null
+    val approvingToTakeState: MutableState<TokenTransferApprovalState>
+        get() = interaction.approvingToTakeState
+    var approvingToTakeException: Exception?
+        get() = interactionState?.approvingToTakeException
+        set(value) {
+            interaction.approvingToTakeException = value
+        }
+    var approvingToTakeTransaction: BlockchainTransaction?
+        get() = interactionState?.approvingToTakeTransaction
+        set(value) {
+            transactionHashIndex?.replace(approvingToTakeTransaction, value, this)
+            interaction.approvingToTakeTransaction = value
+        }
 
-    val takingOfferState: MutableState<TakingOfferState> = mutableStateOf(TakingOfferState.NONE)
-    var takingOfferException: Exception? = null
-    var takingOfferTransaction: BlockchainTransaction? = null
+    val takingOfferState: MutableState<TakingOfferState>
+        get() = interaction.takingOfferState
+    var takingOfferException: Exception?
+        get() = interactionState?.takingOfferException
+        set(value) {
+            interaction.takingOfferException = value
+        }
+    var takingOfferTransaction: BlockchainTransaction?
+        get() = interactionState?.takingOfferTransaction
+        set(value) {
+            transactionHashIndex?.replace(takingOfferTransaction, value, this)
+            interaction.takingOfferTransaction = value
+        }
 
     init {
         this.isCreated = mutableStateOf(isCreated)
@@ -257,7 +361,7 @@ class Offer(
                 this.onChainDirection = BigInteger.ONE
             }
         }
-        this.onChainSettlementMethods = settlementMethods.map {
+        this.onChainSettlementMethods = onChainSettlementMethods ?: settlementMethods.map {
             Json.encodeToString(it).encodeToByteArray()
         }
     }
@@ -305,26 +409,42 @@ class Offer(
     /**
      * Updates this [Offer]'s settlement methods given a [List] of serialized settlement methods as [ByteArray]s.
      *
-     * When called, it deserializes the contents of [onChainSettlementMethods] and sets [settlementMethods] equal to a
-     * [List] of the results. Then it sets [Offer.onChainSettlementMethods] equal to [onChainSettlementMethods].
+     * When called, this returns immediately if [onChainSettlementMethods] contains the same bytes as
+     * [Offer.onChainSettlementMethods]. Otherwise, it deserializes the contents of [onChainSettlementMethods] via
+     * [SettlementMethodInterner] and updates [settlementMethods] in place to contain the resulting shared
+     * [SettlementMethod]s, replacing only the elements that have changed, so that observers of unchanged elements are
+     * not invalidated. Then it sets [Offer.onChainSettlementMethods] equal to the shared on-chain bytes of those
+     * settlement methods, omitting any that could not be deserialized.
      *
      * @param onChainSettlementMethods An updated [List] of serialized settlement methods as [ByteArray]s.
      * @param logger An optional [Logger] to log warnings when this is unable to deserialize a [ByteArray].
+     *
+     * @return `true` if the settlement methods of this offer were changed, `false` otherwise.
      */
-    fun updateSettlementMethodsFromChain(onChainSettlementMethods: List<ByteArray>, logger: Logger? = null) {
-        val newSettlementMethods = mutableStateListOf<SettlementMethod>().apply {
-            this.addAll(onChainSettlementMethods.mapNotNull {
-                try {
-                    Json.decodeFromString<SettlementMethod>(it.decodeToString())
-                } catch (exception: Exception) {
-                    logger?.warn("updateSettlementMethodsFromChain: got exception while deserializing " +
-                            Base64.getEncoder().encodeToString(it), exception)
-                    null
-                }
-            })
+    fun updateSettlementMethodsFromChain(onChainSettlementMethods: List<ByteArray>, logger: Logger? = null): Boolean {
+        if (onChainSettlementMethods.size == this.onChainSettlementMethods.size &&
+            onChainSettlementMethods.indices.all {
+                onChainSettlementMethods[it].contentEquals(this.onChainSettlementMethods[it])
+            }) {
+            return false
+        }
+        val internedSettlementMethods = internSettlementMethods(
+            onChainSettlementMethods = onChainSettlementMethods,
+            logger = logger,
+            functionName = "updateSettlementMethodsFromChain"
+        )
+        internedSettlementMethods.forEachIndexed { index, (_, settlementMethod) ->
+            if (index >= settlementMethods.size) {
+                settlementMethods.add(settlementMethod)
+            } else if (settlementMethods[index] !== settlementMethod) {
+                settlementMethods[index] = settlementMethod
+            }
         }
-        this.settlementMethods = newSettlementMethods
-        this.onChainSettlementMethods = onChainSettlementMethods
+        if (settlementMethods.size > internedSettlementMethods.size) {
+            settlementMethods.removeRange(internedSettlementMethods.size, settlementMethods.size)
+        }
+        this.onChainSettlementMethods = internedSettlementMethods.map { it.first }
+        return true
     }
 
     companion object {
@@ -513,16 +633,11 @@ class Offer(
                     throw IllegalStateException("Unexpected onChainDirection encountered while creating Offer")
                 }
             }
-            val settlementMethods = mutableStateListOf<SettlementMethod>().apply {
-                onChainSettlementMethods.forEach {
-                    try {
-                        this.add(Json.decodeFromString(it.decodeToString()))
-                    } catch (exception: Exception) {
-                        logger?.warn("fromOnChainData: got exception while deserializing ${Base64.getEncoder()
-                            .encodeToString(it)}", exception)
-                    }
-                }
-            }
+            val internedSettlementMethods = internSettlementMethods(
+                onChainSettlementMethods = onChainSettlementMethods,
+                logger = logger,
+                functionName = "fromOnChainData"
+            )
             return Offer(
                 isCreated = isCreated,
                 isTaken = isTaken,
@@ -535,15 +650,46 @@ class Offer(
                 securityDepositAmount = securityDepositAmount,
                 serviceFeeRate = serviceFeeRate,
                 direction = direction,
-                settlementMethods = settlementMethods,
+                settlementMethods = mutableStateListOf<SettlementMethod>().apply {
+                    this.addAll(internedSettlementMethods.map { it.second })
+                },
                 protocolVersion = protocolVersion,
                 chainID = chainID,
                 havePublicKey = havePublicKey,
                 isUserMaker = isUserMaker,
                 state = state,
+                onChainSettlementMethods = internedSettlementMethods.map { it.first },
             )
         }
 
+        /**
+         * Deserializes on-chain settlement methods via [SettlementMethodInterner], skipping and optionally logging any
+         * that cannot be deserialized.
+         *
+         * @param onChainSettlementMethods A [List] of serialized settlement methods as [ByteArray]s.
+         * @param logger An optional [Logger] to log warnings when this is unable to deserialize a [ByteArray].
+         * @param functionName The name of the calling function, with which warnings are logged.
+         *
+         * @return A [List] of [Pair]s, each containing the shared on-chain bytes and the shared [SettlementMethod]
+         * returned by [SettlementMethodInterner.intern] for one element of [onChainSettlementMethods] that could be
+         * deserialized.
+         */
+        private fun internSettlementMethods(
+            onChainSettlementMethods: List<ByteArray>,
+            logger: Logger?,
+            functionName: String,
+        ): List<Pair<ByteArray, SettlementMethod>> {
+            return onChainSettlementMethods.mapNotNull {
+                try {
+                    SettlementMethodInterner.intern(it)
+                } catch (exception: Exception) {
+                    logger?.warn("$functionName: got exception while deserializing " +
+                            Base64.getEncoder().encodeToString(it), exception)
+                    null
+                }
+            }
+        }
+
     }
 
 }
\ No newline at end of file
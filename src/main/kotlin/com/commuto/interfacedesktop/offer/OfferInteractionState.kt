@@ -0,0 +1,45 @@
+package com.commuto.interfacedesktop.offer
+
+import androidx.compose.runtime.MutableState
+import androidx.compose.runtime.mutableStateListOf
+import androidx.compose.runtime.mutableStateOf
+import com.commuto.interfacedesktop.blockchain.BlockchainTransaction
+import com.commuto.interfacedesktop.settlement.SettlementMethod
+
+/**
+ * The state of the user's interaction with an [Offer]: opening, canceling, editing or taking it. Most offers are made
+ * by other users and are never acted upon by the user of this interface, so this is allocated separately, only when
+ * an [Offer] is first acted upon, rather than with every [Offer].
+ *
+ * The properties of this class are described by the corresponding properties of [Offer], which should be used instead
+ * of accessing this directly, since [Offer] keeps its [Offer.transactionHashIndex] up to date as transactions are
+ * attached and cleared.
+ */
+class OfferInteractionState {
+
+    val approvingToOpenState: MutableState<TokenTransferApprovalState> = mutableStateOf(TokenTransferApprovalState.NONE)
+    var approvingToOpenException: Exception? = null
+    var approvingToOpenTransaction: BlockchainTransaction? = null
+
+    val openingOfferState: MutableState<OpeningOfferState> = mutableStateOf(OpeningOfferState.NONE)
+    var openingOfferException: Exception? = null
+    var offerOpeningTransaction: BlockchainTransaction? = null
+
+    val cancelingOfferState: MutableState<CancelingOfferState> = mutableStateOf(CancelingOfferState.NONE)
+    var cancelingOfferException: Exception? = null
+    var offerCancellationTransaction: BlockchainTransaction? = null
+
+    val selectedSettlementMethods = mutableStateListOf<SettlementMethod>()
+    val editingOfferState: MutableState<EditingOfferState> = mutableStateOf(EditingOfferState.NONE)
+    var editingOfferException: Exception? = null
+    var offerEditingTransaction: BlockchainTransaction? = null
+
+    val approvingToTakeState: MutableState<TokenTransferApprovalState> = mutableStateOf(TokenTransferApprovalState.NONE)
+    var approvingToTakeException: Exception? = null
+    var approvingToTakeTransaction: BlockchainTransaction? = null
+
+    val takingOfferState: MutableState<TakingOfferState> = mutableStateOf(TakingOfferState.NONE)
+    var takingOfferException: Exception? = null
+    var takingOfferTransaction: BlockchainTransaction? = null
+
+}
@@ -0,0 +1,380 @@
+package com.commuto.interfacedesktop.offer
+
+import androidx.compose.runtime.mutableStateOf
+import com.commuto.interfacedesktop.settlement.SettlementMethod
+import java.math.BigDecimal
+import java.math.BigInteger
+import java.util.*
+
+/**
+ * Identifies a market in which [Offer]s may be opened: offers on a particular blockchain, for a particular stablecoin,
+ * in a particular direction.
+ *
+ * @property chainID The ID of the blockchain on which offers in this market exist.
+ * @property stablecoin The contract address of the stablecoin for which offers in this market are made.
+ * @property direction The direction of offers in this market.
+ */
+data class OfferMarket(
+    val chainID: BigInteger,
+    val stablecoin: String,
+    val direction: OfferDirection,
+)
+
+/**
+ * Identifies the [Offer]s in an [OfferMarket] that accept a particular settlement method, such as offers to sell DAI
+ * for EUR via SEPA.
+ *
+ * @property market The [OfferMarket] of these offers.
+ * @property currency The currency of the settlement method, such as "EUR".
+ * @property method The settlement method, such as "SEPA".
+ */
+data class OfferSettlementMarket(
+    val market: OfferMarket,
+    val currency: String,
+    val method: String,
+)
+
+/**
+ * An [Offer] that can be taken for a particular amount of stablecoin using a particular settlement method, as found by
+ * [OfferOrderBook.findMatchingOffers].
+ *
+ * @property offer The [Offer] that can be taken.
+ * @property settlementMethod The [SettlementMethod] of [offer] that matches the requested currency and method.
+ * @property price The numeric price of [settlementMethod].
+ * @property takenSwapAmount The amount of stablecoin, in token base units, for which [offer] would be taken.
+ * @property serviceFeeAmount The service fee, in token base units, that each party would pay if [offer] were taken for
+ * [takenSwapAmount], computed from [Offer.serviceFeeRate].
+ * @property securityDepositAmount The security deposit, in token base units, that each party would lock if [offer]
+ * were taken.
+ */
+data class OfferMatch(
+    val offer: Offer,
+    val settlementMethod: SettlementMethod,
+    val price: BigDecimal,
+    val takenSwapAmount: BigInteger,
+    val serviceFeeAmount: BigInteger,
+    val securityDepositAmount: BigInteger,
+)
+
+/**
+ * An index of [Offer]s by [OfferMarket] and by [OfferSettlementMarket], in which the offers of each
+ * [OfferSettlementMarket] are sorted by the price of the corresponding settlement method, so that finding the best
+ * offers for a particular currency and settlement method does not require iterating over every offer.
+ *
+ * This is updated incrementally as offers are added, removed and have their settlement methods updated, and must only
+ * be used on the main coroutine dispatcher, like the [OfferTruthSource] that owns it. Every query reads a snapshot
+ * state value that changes whenever this is updated, so Composable functions that query this are recomposed when its
+ * contents change.
+ *
+ * @property onMarketQueried Called with the [OfferMarket] covered by a query of the offers in a particular market, so
+ * that the owner of this order book can retrieve offers in that market that have not yet been indexed, such as offers
+ * of which the on-chain data has not yet been retrieved.
+ */
+class OfferOrderBook(private val onMarketQueried: (OfferMarket) -> Unit = {}) {
+
+    /**
+     * A price at which an [Offer] accepts a particular settlement method.
+     *
+     * @property price The numeric price of the settlement method.
+     * @property settlementMethod The [SettlementMethod] of [offer] with price [price].
+     * @property offer The [Offer].
+     */
+    private class PricedOffer(val price: BigDecimal, val settlementMethod: SettlementMethod, val offer: Offer)
+
+    /**
+     * The entries by which an [Offer] is currently indexed, so that they can be removed without searching.
+     *
+     * @property market The [OfferMarket] of the offer.
+     * @property pricedOffers The [OfferSettlementMarket]s in which the offer is indexed, and its entry in each.
+     */
+    private class IndexedOffer(
+        val market: OfferMarket,
+        val pricedOffers: List<Pair<OfferSettlementMarket, PricedOffer>>,
+    )
+
+    /**
+     * Incremented whenever the contents of this order book change, and read by every query.
+     */
+    private val revision = mutableStateOf(0L)
+
+    /**
+     * Every indexed offer, ordered by ID so that pages are stable.
+     */
+    private val offersByID = TreeMap<UUID, Offer>()
+
+    /**
+     * The offers in each [OfferMarket], ordered by ID so that pages are stable.
+     */
+    private val offersByMarket = HashMap<OfferMarket, TreeMap<UUID, Offer>>()
+
+    /**
+     * The offers in each [OfferSettlementMarket], ordered from best to worst price.
+     */
+    private val offersBySettlementMarket = HashMap<OfferSettlementMarket, TreeSet<PricedOffer>>()
+
+    /**
+     * The entries of each indexed offer, by offer ID.
+     */
+    private val indexedOffers = HashMap<UUID, IndexedOffer>()
+
+    /**
+     * Adds [offer] to this order book, or, if an offer with the same ID is already indexed, replaces the existing
+     * entries of that offer with entries reflecting the current settlement methods of [offer]. Settlement methods with
+     * prices that cannot be parsed as numbers are not indexed by price, since they cannot be compared with other
+     * prices.
+     *
+     * @param offer The [Offer] to be indexed.
+     */
+    fun add(offer: Offer) {
+        addEntries(offer)
+        revision.value++
+    }
+
+    /**
+     * Adds every offer in [offers] to this order book as [add] does, but changes the snapshot state read by queries
+     * only once, so that adding many offers at once, such as when offers are restored from persistent storage, causes
+     * Composable functions that query this to be recomposed only once.
+     *
+     * @param offers The [Offer]s to be indexed.
+     */
+    fun addAll(offers: Collection<Offer>) {
+        if (offers.isEmpty()) {
+            return
+        }
+        offers.forEach { addEntries(it) }
+        revision.value++
+    }
+
+    /**
+     * Replaces any entries of the [Offer] with the same ID as [offer] with entries reflecting [offer]'s current
+     * market and settlement methods.
+     *
+     * @param offer The [Offer] to be indexed.
+     */
+    private fun addEntries(offer: Offer) {
+        removeEntries(offer.id)
+        val market = OfferMarket(
+            chainID = offer.chainID,
+            stablecoin = offer.stablecoin,
+            direction = offer.direction,
+        )
+        offersByID[offer.id] = offer
+        offersByMarket.getOrPut(market) { TreeMap() }[offer.id] = offer
+        val pricedOffers = offer.settlementMethods.mapNotNull { settlementMethod ->
+            val price = settlementMethod.numericPrice ?: return@mapNotNull null
+            val settlementMarket = OfferSettlementMarket(
+                market = market,
+                currency = settlementMethod.currency,
+                method = settlementMethod.method,
+            )
+            val pricedOffer = PricedOffer(price = price, settlementMethod = settlementMethod, offer = offer)
+            offersBySettlementMarket.getOrPut(settlementMarket) {
+                TreeSet(bestPriceComparator(market.direction))
+            }.add(pricedOffer)
+            Pair(settlementMarket, pricedOffer)
+        }
+        indexedOffers[offer.id] = IndexedOffer(market = market, pricedOffers = pricedOffers)
+    }
+
+    /**
+     * Removes the [Offer] with an ID equal to [id] from this order book, if it is indexed.
+     *
+     * @param id The ID of the [Offer] to be removed.
+     */
+    fun remove(id: UUID) {
+        if (removeEntries(id)) {
+            revision.value++
+        }
+    }
+
+    /**
+     * Removes every entry of the [Offer] with an ID equal to [id], and removes any index that becomes empty as a
+     * result.
+     *
+     * @param id The ID of the [Offer] of which the entries will be removed.
+     *
+     * @return `true` if the offer was indexed, `false` otherwise.
+     */
+    private fun removeEntries(id: UUID): Boolean {
+        val indexedOffer = indexedOffers.remove(id) ?: return false
+        offersByID.remove(id)
+        offersByMarket[indexedOffer.market]?.let { offers ->
+            offers.remove(id)
+            if (offers.isEmpty()) {
+                offersByMarket.remove(indexedOffer.market)
+            }
+        }
+        indexedOffer.pricedOffers.forEach { (settlementMarket, pricedOffer) ->
+            offersBySettlementMarket[settlementMarket]?.let { pricedOffers ->
+                pricedOffers.remove(pricedOffer)
+                if (pricedOffers.isEmpty()) {
+                    offersBySettlementMarket.remove(settlementMarket)
+                }
+            }
+        }
+        return true
+    }
+
+    /**
+     * Gets the number of [Offer]s in [market].
+     *
+     * @param market The [OfferMarket] of which to count the offers.
+     *
+     * @return The number of offers in [market].
+     */
+    fun countOffers(market: OfferMarket): Int {
+        revision.value
+        return offersByMarket[market]?.size ?: 0
+    }
+
+    /**
+     * Gets a page of the [Offer]s in [market], ordered by ID.
+     *
+     * @param market The [OfferMarket] of which to get offers.
+     * @param offset The number of offers to skip before the first offer of the page.
+     * @param limit The maximum number of offers to return.
+     *
+     * @return A [List] of at most [limit] offers in [market].
+     */
+    fun getOffers(market: OfferMarket, offset: Int = 0, limit: Int = PAGE_SIZE): List<Offer> {
+        revision.value
+        onMarketQueried(market)
+        val offers = offersByMarket[market] ?: return emptyList()
+        return offers.values.asSequence().drop(offset).take(limit).toList()
+    }
+
+    /**
+     * Gets a page of all [Offer]s in this order book, regardless of market, ordered by ID.
+     *
+     * @param offset The number of offers to skip before the first offer of the page.
+     * @param limit The maximum number of offers to return.
+     *
+     * @return A [List] of at most [limit] offers.
+     */
+    fun getAllOffers(offset: Int = 0, limit: Int = PAGE_SIZE): List<Offer> {
+        revision.value
+        return offersByID.values.asSequence().drop(offset).take(limit).toList()
+    }
+
+    /**
+     * Gets the number of [Offer]s in [settlementMarket] with a numeric price.
+     *
+     * @param settlementMarket The [OfferSettlementMarket] of which to count the offers.
+     *
+     * @return The number of offers in [settlementMarket].
+     */
+    fun countOffers(settlementMarket: OfferSettlementMarket): Int {
+        revision.value
+        return offersBySettlementMarket[settlementMarket]?.size ?: 0
+    }
+
+    /**
+     * Gets a page of the [Offer]s in [settlementMarket], ordered from best to worst price for the user taking them.
+     * Offers that sell stablecoin are ordered from lowest to highest price, and offers that buy stablecoin are ordered
+     * from highest to lowest price. Offers with the same price are ordered by ID.
+     *
+     * @param settlementMarket The [OfferSettlementMarket] of which to get offers.
+     * @param offset The number of offers to skip before the first offer of the page.
+     * @param limit The maximum number of offers to return.
+     *
+     * @return A [List] of at most [limit] offers in [settlementMarket].
+     */
+    fun getOffersByPrice(
+        settlementMarket: OfferSettlementMarket,
+        offset: Int = 0,
+        limit: Int = PAGE_SIZE
+    ): List<Offer> {
+        revision.value
+        onMarketQueried(settlementMarket.market)
+        val pricedOffers = offersBySettlementMarket[settlementMarket] ?: return emptyList()
+        return pricedOffers.asSequence().drop(offset).take(limit).map { it.offer }.toList()
+    }
+
+    /**
+     * Finds the [Offer]s in [settlementMarket] that the user of this interface can take for exactly [amount], ordered
+     * from best to worst price as in [getOffersByPrice], along with the service fee and security deposit that taking
+     * each would require.
+     *
+     * An offer can be taken for [amount] if it is open and has not been taken, [amount] is within its amount bounds,
+     * the user of this interface is not its maker, and the maker's public key has been obtained. Offers stay indexed
+     * while they are being taken, canceled or edited, so their state is checked here rather than when they are indexed.
+     * This walks the offers of [settlementMarket] in price order
+     * and stops as soon as [limit] matches are found, so finding the best few matches does not require checking the
+     * amount bounds of every offer.
+     *
+     * @param settlementMarket The [OfferSettlementMarket] in which to find offers. Note that the direction of this
+     * market is the direction of the offers, so a user who wants to buy stablecoin should search a market of
+     * [OfferDirection.SELL] offers.
+     * @param amount The amount of stablecoin, in token base units, for which offers must be able to be taken.
+     * @param limit The maximum number of matches to return.
+     *
+     * @return A [List] of at most [limit] [OfferMatch]es.
+     */
+    fun findMatchingOffers(
+        settlementMarket: OfferSettlementMarket,
+        amount: BigInteger,
+        limit: Int = PAGE_SIZE
+    ): List<OfferMatch> {
+        revision.value
+        onMarketQueried(settlementMarket.market)
+        val pricedOffers = offersBySettlementMarket[settlementMarket] ?: return emptyList()
+        return pricedOffers.asSequence()
+            .filter {
+                it.offer.state == OfferState.OFFER_OPENED && !it.offer.isTaken.value && !it.offer.isUserMaker &&
+                        it.offer.havePublicKey && amount >= it.offer.amountLowerBound &&
+                        amount <= it.offer.amountUpperBound
+            }
+            .take(limit)
+            .map {
+                OfferMatch(
+                    offer = it.offer,
+                    settlementMethod = it.settlementMethod,
+                    price = it.price,
+                    takenSwapAmount = amount,
+                    serviceFeeAmount = (amount * it.offer.serviceFeeRate) / BigInteger.valueOf(10_000L),
+                    securityDepositAmount = it.offer.securityDepositAmount,
+                )
+            }
+            .toList()
+    }
+
+    /**
+     * Gets the [OfferSettlementMarket]s in [market] that contain at least one [Offer] with a numeric price, so that
+     * users can choose the currency and settlement method by which to filter offers.
+     *
+     * @param market The [OfferMarket] of which to get settlement markets.
+     *
+     * @return A [List] of the [OfferSettlementMarket]s in [market], ordered by currency and then method.
+     */
+    fun getSettlementMarkets(market: OfferMarket): List<OfferSettlementMarket> {
+        revision.value
+        onMarketQueried(market)
+        return offersBySettlementMarket.keys
+            .filter { it.market == market }
+            .sortedWith(compareBy({ it.currency }, { it.method }))
+    }
+
+    companion object {
+        /**
+         * The default maximum number of offers returned by a single query.
+         */
+        const val PAGE_SIZE = 50
+
+        /**
+         * Gets a [Comparator] that orders [PricedOffer]s from the best to the worst price for the user taking offers
+         * in [direction], and then by offer ID.
+         *
+         * @param direction The direction of the offers to be compared.
+         *
+         * @return A [Comparator] of [PricedOffer]s.
+         */
+        private fun bestPriceComparator(direction: OfferDirection): Comparator<PricedOffer> {
+            val priceComparator = compareBy<PricedOffer> { it.price }
+            return when (direction) {
+                OfferDirection.SELL -> priceComparator
+                OfferDirection.BUY -> priceComparator.reversed()
+            }.thenBy { it.offer.id }
+        }
+    }
+
+}
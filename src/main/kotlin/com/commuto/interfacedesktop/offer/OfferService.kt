@@ -7,7 +7,6 @@ import com.commuto.interfacedesktop.blockchain.events.erc20.ApprovalEvent
 import com.commuto.interfacedesktop.blockchain.events.erc20.TokenTransferApprovalPurpose
 import com.commuto.interfacedesktop.blockchain.structs.OfferStruct
 import com.commuto.interfacedesktop.database.DatabaseService
-import com.commuto.interfacedesktop.extension.asByteArray
 import com.commuto.interfacedesktop.key.KeyManagerService
 import com.commuto.interfacedesktop.key.keys.KeyPair
 import com.commuto.interfacedesktop.offer.validation.*
@@ -15,15 +14,22 @@ import com.commuto.interfacedesktop.p2p.OfferMessageNotifiable
 import com.commuto.interfacedesktop.p2p.P2PService
 import com.commuto.interfacedesktop.p2p.messages.PublicKeyAnnouncement
 import com.commuto.interfacedesktop.settlement.SettlementMethod
+import com.commuto.interfacedesktop.settlement.SettlementMethodInterner
 import com.commuto.interfacedesktop.swap.*
 import com.commuto.interfacedesktop.ui.StablecoinInformation
 import com.commuto.interfacedesktop.ui.StablecoinInformationRepository
 import com.commuto.interfacedesktop.db.Offer as DatabaseOffer
+import com.commuto.interfacedesktop.db.OfferSettlementMethod as DatabaseOfferSettlementMethod
+import com.commuto.interfacedesktop.db.PendingOffer as DatabasePendingOffer
 import com.commuto.interfacedesktop.db.Swap as DatabaseSwap
 import com.commuto.interfacedesktop.ui.offer.OffersViewModel
 import com.commuto.interfacedesktop.util.DateFormatter
+import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Deferred
 import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.launch
 import kotlinx.coroutines.withContext
 import kotlinx.serialization.decodeFromString
 import kotlinx.serialization.encodeToString
@@ -34,8 +40,9 @@ import org.web3j.crypto.RawTransaction
 import org.web3j.utils.Numeric
 import java.math.BigDecimal
 import java.math.BigInteger
-import java.nio.ByteBuffer
 import java.util.*
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicBoolean
 import javax.inject.Inject
 import javax.inject.Singleton
 
@@ -60,11 +67,33 @@ import javax.inject.Singleton
  * @property offerTakenEventRepository A repository containing [OfferTakenEvent]s for offers that have been taken but
  * haven't yet been removed from persistent storage or [offerTruthSource].
  * @property serviceFeeRateChangedEventRepository A repository containing [ServiceFeeRateChangedEvent]s
+ * @property lazyOfferHydration Indicates whether the on-chain data of offers opened by other users should be retrieved
+ * only when it is needed, rather than as soon as they are opened, as described in [handleOfferOpenedEvent].
  * @property offerTruthSource The [OfferTruthSource] in which this is responsible for maintaining an accurate list of
  * all open offers. If this is not yet initialized, event handling methods will throw the corresponding error.
  * @property swapTruthSource The [SwapTruthSource] in which this and [SwapService] are responsible for maintaining an
  * accurate list of swaps. If this is not yet initialized, event handling methods will throw the corresponding error.
  * @property swapTruthSource The [SwapTruthSource] in which this creates new [Swap]s as necessary.
+ * @property offerTransactionHashIndex A [TransactionHashIndex] of the [BlockchainTransaction]s attached to the offers
+ * in [offerTruthSource], with which this finds the offer to which a failed transaction or approval event belongs. Every
+ * offer that this adds to [offerTruthSource] is attached to this index, and is detached when this removes it.
+ * @property pendingOffers The [OfferOpenedEvent]s of offers opened by other users of which the on-chain data has not
+ * yet been retrieved, by offer ID. This is only used if [lazyOfferHydration] is `true`. Each of these is also
+ * persistently stored, so that it is restored by [hydratePendingOffers] if the app is closed before it is retrieved.
+ * @property offerPrefetchQueue The IDs of offers in [pendingOffers] of which the on-chain data has been requested via
+ * [requestOfferDetails], from least to most recently requested. This holds at most [OFFER_PREFETCH_QUEUE_CAPACITY]
+ * IDs, and the least recently requested ID is dropped when it is full. This also guards [offerPrefetchBacklog].
+ * @property offerPrefetchBacklog The IDs of offers in [pendingOffers] of which the on-chain data has been requested via
+ * [requestPendingOfferDetails] because a query of the order book covered them. These are retrieved in the order in
+ * which they were requested, but only while [offerPrefetchQueue] is empty.
+ * @property offerPrefetchSignal Wakes the coroutines that retrieve the on-chain data of the offers in
+ * [offerPrefetchQueue] and [offerPrefetchBacklog] when an ID is added to either of them.
+ * @property isPrefetchingOffers Indicates whether the coroutines that retrieve the on-chain data of the offers in
+ * [offerPrefetchQueue] and [offerPrefetchBacklog] have been launched.
+ * @property offerPrefetchJob The [SupervisorJob] of [offerPrefetchScope], which is owned by this service so that a
+ * failure of one prefetching coroutine does not cancel the others.
+ * @property offerPrefetchScope The [CoroutineScope] in which the on-chain data of the offers in [offerPrefetchQueue]
+ * and [offerPrefetchBacklog] is retrieved.
  * @property blockchainService The [BlockchainService] that this uses to interact with the blockchain.
  * @property p2pService The [P2PService] that this uses for interacting with the peer-to-peer network.
  */
@@ -77,9 +106,14 @@ class OfferService (
     private val offerEditedEventRepository: BlockchainEventRepository<OfferEditedEvent>,
     private val offerCanceledEventRepository: BlockchainEventRepository<OfferCanceledEvent>,
     private val offerTakenEventRepository: BlockchainEventRepository<OfferTakenEvent>,
-    private val serviceFeeRateChangedEventRepository: BlockchainEventRepository<ServiceFeeRateChangedEvent>
+    private val serviceFeeRateChangedEventRepository: BlockchainEventRepository<ServiceFeeRateChangedEvent>,
+    private val lazyOfferHydration: Boolean = false,
 ): OfferNotifiable, OfferMessageNotifiable {
 
+    /**
+     * Creates a new [OfferService] that retrieves the on-chain data of offers opened by other users lazily if the
+     * [LAZY_OFFER_HYDRATION_ENVIRONMENT_VARIABLE] environment variable is set to "true".
+     */
     @Inject constructor(
         databaseService: DatabaseService,
         keyManagerService: KeyManagerService,
@@ -92,7 +126,8 @@ class OfferService (
         BlockchainEventRepository(),
         BlockchainEventRepository(),
         BlockchainEventRepository(),
-        BlockchainEventRepository()
+        BlockchainEventRepository(),
+        System.getenv(LAZY_OFFER_HYDRATION_ENVIRONMENT_VARIABLE) == "true"
     )
 
     private lateinit var offerTruthSource: OfferTruthSource
@@ -105,8 +140,26 @@ class OfferService (
 
     private val logger = LoggerFactory.getLogger(javaClass)
 
+    private val offerTransactionHashIndex = TransactionHashIndex<Offer>()
+
+    private val pendingOffers = ConcurrentHashMap<UUID, OfferOpenedEvent>()
+
+    private val offerPrefetchQueue = LinkedHashSet<UUID>()
+
+    private val offerPrefetchBacklog = LinkedHashSet<UUID>()
+
+    private val offerPrefetchSignal = Channel<Unit>(Channel.CONFLATED)
+
+    private val isPrefetchingOffers = AtomicBoolean(false)
+
+    private val offerPrefetchJob = SupervisorJob()
+
+    private val offerPrefetchScope = CoroutineScope(offerPrefetchJob + Dispatchers.IO)
+
     /**
-     * Used to set the [offerTruthSource] property. This can only be called once.
+     * Used to set the [offerTruthSource] property. This can only be called once. Any offers already in
+     * [newTruthSource] are attached to [offerTransactionHashIndex], since this service adds every later offer via
+     * [addOfferToTruthSource] or [addOffersToTruthSource], which attach them.
      *
      * @param newTruthSource The new value of the [offerTruthSource] property, which cannot be null.
      */
@@ -115,6 +168,29 @@ class OfferService (
             "offersTruthSource is already initialized"
         }
         offerTruthSource = newTruthSource
+        newTruthSource.offers.values.forEach { it.transactionHashIndex = offerTransactionHashIndex }
+    }
+
+    /**
+     * Attaches [offer] to [offerTransactionHashIndex] and adds it to [offerTruthSource]. This must be called on the
+     * main coroutine dispatcher.
+     *
+     * @param offer The [Offer] to be added to [offerTruthSource].
+     */
+    private fun addOfferToTruthSource(offer: Offer) {
+        offer.transactionHashIndex = offerTransactionHashIndex
+        offerTruthSource.addOffer(offer)
+    }
+
+    /**
+     * Attaches every offer in [offers] to [offerTransactionHashIndex] and adds them to [offerTruthSource] at once. This
+     * must be called on the main coroutine dispatcher.
+     *
+     * @param offers The [Offer]s to be added to [offerTruthSource].
+     */
+    private fun addOffersToTruthSource(offers: List<Offer>) {
+        offers.forEach { it.transactionHashIndex = offerTransactionHashIndex }
+        offerTruthSource.addOffers(offers)
     }
 
     /**
@@ -153,6 +229,154 @@ class OfferService (
         p2pService = newP2PService
     }
 
+    /**
+     * Adds all persistently stored offers to [offerTruthSource], so that offers that were open when the app was last
+     * closed are available immediately after startup.
+     *
+     * This reads offers in batches via [DatabaseService.streamOffers], which decrypts their settlement methods' private
+     * data in parallel. Each batch is converted to [Offer]s on the default coroutine dispatcher and then added to
+     * [offerTruthSource] all at once via [OfferTruthSource.addOffers] on the main coroutine dispatcher, skipping any
+     * offer that is already present (because it was added by an event handler while this was running). Offers that
+     * cannot be converted are logged and skipped. Note that the [BlockchainTransaction]s of offers are not restored.
+     */
+    suspend fun hydrateOffers() {
+        logger.info("hydrateOffers: hydrating offerTruthSource")
+        var hydratedOfferCount = 0
+        databaseService.streamOffers().collect { batch ->
+            val offers = withContext(Dispatchers.Default) {
+                batch.mapNotNull { (dbOffer, dbSettlementMethods) ->
+                    try {
+                        createOfferFromDatabase(dbOffer = dbOffer, dbSettlementMethods = dbSettlementMethods)
+                    } catch (exception: Exception) {
+                        logger.error("hydrateOffers: unable to restore offer with ID ${dbOffer.id}", exception)
+                        null
+                    }
+                }
+            }
+            withContext(Dispatchers.Main) {
+                val newOffers = offers.filter { !offerTruthSource.offers.containsKey(it.id) }
+                addOffersToTruthSource(newOffers)
+            }
+            hydratedOfferCount += offers.size
+        }
+        logger.info("hydrateOffers: hydrated $hydratedOfferCount offers")
+    }
+
+    /**
+     * Restores the persistently stored offers opened by other users of which the on-chain data had not been retrieved
+     * when the app was last closed, so that they are retrieved when they are requested, just like offers that became
+     * pending while the app was open. This should be called after [hydrateOffers].
+     *
+     * Each stored pending offer that is not in [offerTruthSource] is added to [pendingOffers], unless an offer with the
+     * same ID is already pending, and then all such offers are added to [offerTruthSource] as pending offers on the
+     * main coroutine dispatcher. Stored pending offers that are already in [offerTruthSource] have been retrieved, so
+     * they are removed from persistent storage. This does nothing if [lazyOfferHydration] is `false`.
+     */
+    suspend fun hydratePendingOffers() {
+        if (!lazyOfferHydration) {
+            return
+        }
+        logger.info("hydratePendingOffers: hydrating pending offers")
+        val decoder = Base64.getDecoder()
+        val restoredEvents = mutableListOf<OfferOpenedEvent>()
+        databaseService.getPendingOffers().forEach { pendingOffer ->
+            if (offerTruthSource.offers.containsKey(pendingOffer.id)) {
+                databaseService.deletePendingOffer(offerID = pendingOffer.id, chainID = pendingOffer.chainID)
+                return@forEach
+            }
+            val event = OfferOpenedEvent(
+                offerID = pendingOffer.id,
+                interfaceID = decoder.decode(pendingOffer.interfaceID),
+                chainID = pendingOffer.chainID,
+            )
+            if (pendingOffers.putIfAbsent(pendingOffer.id, event) == null) {
+                restoredEvents.add(event)
+            }
+        }
+        withContext(Dispatchers.Main) {
+            restoredEvents.forEach {
+                offerTruthSource.addPendingOffer(id = it.offerID, chainID = it.chainID)
+            }
+        }
+        logger.info("hydratePendingOffers: hydrated ${restoredEvents.size} pending offers")
+    }
+
+    /**
+     * Creates an [Offer] from a persistently stored [DatabaseOffer] and its persistently stored settlement methods.
+     *
+     * @param dbOffer The [DatabaseOffer] from which to create an [Offer].
+     * @param dbSettlementMethods The settlement methods of [dbOffer], with decrypted private data.
+     *
+     * @return A new [Offer] with the data and state stored in [dbOffer] and [dbSettlementMethods].
+     *
+     * @throws IllegalStateException if [dbOffer] has an invalid direction or state.
+     */
+    private fun createOfferFromDatabase(
+        dbOffer: DatabaseOffer,
+        dbSettlementMethods: List<DatabaseOfferSettlementMethod>
+    ): Offer {
+        val decoder = Base64.getDecoder()
+        val settlementMethods = mutableStateListOf<SettlementMethod>()
+        dbSettlementMethods.forEach {
+            try {
+                val sharedSettlementMethod = SettlementMethodInterner.intern(decoder.decode(it.settlementMethod)).second
+                // Shared settlement methods must not be modified, so attach private data to a copy
+                settlementMethods.add(
+                    it.privateData?.let { sharedSettlementMethod.copy(privateData = it.decodeToString()) }
+                        ?: sharedSettlementMethod
+                )
+            } catch (exception: Exception) {
+                logger.warn("createOfferFromDatabase: unable to deserialize settlement method " +
+                        "${it.settlementMethod} for offer with ID ${dbOffer.id}")
+            }
+        }
+        val offer = Offer(
+            isCreated = dbOffer.isCreated == 1L,
+            isTaken = dbOffer.isTaken == 1L,
+            id = dbOffer.id,
+            maker = dbOffer.maker,
+            interfaceID = decoder.decode(dbOffer.interfaceId),
+            stablecoin = dbOffer.stablecoin,
+            amountLowerBound = dbOffer.amountLowerBound,
+            amountUpperBound = dbOffer.amountUpperBound,
+            securityDepositAmount = dbOffer.securityDepositAmount,
+            serviceFeeRate = dbOffer.serviceFeeRate,
+            direction = when (dbOffer.onChainDirection) {
+                "0" -> OfferDirection.BUY
+                "1" -> OfferDirection.SELL
+                else -> throw IllegalStateException("Unexpected onChainDirection ${dbOffer.onChainDirection}")
+            },
+            settlementMethods = settlementMethods,
+            protocolVersion = BigInteger(dbOffer.protocolVersion),
+            chainID = dbOffer.chainID,
+            havePublicKey = dbOffer.havePublicKey == 1L,
+            isUserMaker = dbOffer.isUserMaker == 1L,
+            state = OfferState.fromString(dbOffer.state)
+                ?: throw IllegalStateException("Unexpected offer state ${dbOffer.state}"),
+        )
+        val approvingToOpenState = TokenTransferApprovalState.fromString(dbOffer.approveToOpenState)
+            ?: TokenTransferApprovalState.NONE
+        val openingOfferState = OpeningOfferState.fromString(dbOffer.openingOfferState) ?: OpeningOfferState.NONE
+        val cancelingOfferState = CancelingOfferState.fromString(dbOffer.cancelingOfferState)
+            ?: CancelingOfferState.NONE
+        val editingOfferState = EditingOfferState.fromString(dbOffer.editingOfferState) ?: EditingOfferState.NONE
+        val approvingToTakeState = TokenTransferApprovalState.fromString(dbOffer.approveToTakeState)
+            ?: TokenTransferApprovalState.NONE
+        val takingOfferState = TakingOfferState.fromString(dbOffer.takingOfferState) ?: TakingOfferState.NONE
+        // Only allocate interaction state for offers that the user has acted upon
+        if (approvingToOpenState != TokenTransferApprovalState.NONE || openingOfferState != OpeningOfferState.NONE ||
+            cancelingOfferState != CancelingOfferState.NONE || editingOfferState != EditingOfferState.NONE ||
+            approvingToTakeState != TokenTransferApprovalState.NONE || takingOfferState != TakingOfferState.NONE) {
+            offer.approvingToOpenState.value = approvingToOpenState
+            offer.openingOfferState.value = openingOfferState
+            offer.cancelingOfferState.value = cancelingOfferState
+            offer.editingOfferState.value = editingOfferState
+            offer.approvingToTakeState.value = approvingToTakeState
+            offer.takingOfferState.value = takingOfferState
+        }
+        return offer
+    }
+
     /**
      * Returns the result of calling [blockchainService]'s [getServiceFeeRateAsync] method.
      *
@@ -233,25 +457,20 @@ class OfferService (
                 logger.info("openOffer: persistently storing ${newOffer.id}")
                 // Persistently store the new offer
                 val encoder = Base64.getEncoder()
-                val offerIDByteBuffer = ByteBuffer.wrap(ByteArray(16))
-                offerIDByteBuffer.putLong(newOffer.id.mostSignificantBits)
-                offerIDByteBuffer.putLong(newOffer.id.leastSignificantBits)
-                val offerIDByteArray = offerIDByteBuffer.array()
-                val offerIDString = encoder.encodeToString(offerIDByteArray)
                 val offerForDatabase = DatabaseOffer(
                     isCreated = 1L,
                     isTaken = 0L,
-                    id = offerIDString,
+                    id = newOffer.id,
                     maker = newOffer.maker,
                     interfaceId = encoder.encodeToString(newOffer.interfaceID),
                     stablecoin = newOffer.stablecoin,
-                    amountLowerBound = newOffer.amountLowerBound.toString(),
-                    amountUpperBound = newOffer.amountUpperBound.toString(),
-                    securityDepositAmount = newOffer.securityDepositAmount.toString(),
-                    serviceFeeRate = newOffer.serviceFeeRate.toString(),
+                    amountLowerBound = newOffer.amountLowerBound,
+                    amountUpperBound = newOffer.amountUpperBound,
+                    securityDepositAmount = newOffer.securityDepositAmount,
+                    serviceFeeRate = newOffer.serviceFeeRate,
                     onChainDirection = newOffer.onChainDirection.toString(),
                     protocolVersion = newOffer.protocolVersion.toString(),
-                    chainID = newOffer.chainID.toString(),
+                    chainID = newOffer.chainID,
                     havePublicKey = 1L,
                     isUserMaker = 1L,
                     state = newOffer.state.asString,
@@ -292,13 +511,13 @@ class OfferService (
                 logger.info("openOffer: opened ${newOffer.id}")
                 newOffer.state = OfferState.OPEN_OFFER_TRANSACTION_BROADCAST
                 databaseService.updateOfferState(
-                    offerID = offerIDString,
-                    chainID = newOffer.chainID.toString(),
+                    offerID = newOffer.id,
+                    chainID = newOffer.chainID,
                     state = newOffer.state.asString,
                 )
                 logger.info("openOffer: adding ${newOffer.id} to offerTruthSource")
                 withContext(Dispatchers.Main) {
-                    offerTruthSource.addOffer(newOffer)
+                    addOfferToTruthSource(newOffer)
                 }
                 afterOpen?.invoke()
             } catch (exception: Exception) {
@@ -314,9 +533,11 @@ class OfferService (
      * an offer.
      *
      * This calls [getServiceFeeRateAsync] and then, on the IO coroutine dispatcher, this calls [validateNewOfferData],
-     * and uses the resulting ValidatedOfferData to calculate the transfer amount that must be approved. Then it calls
+     * and uses the resulting ValidatedOfferData to calculate the transfer amount that must be approved. Since an
+     * approval replaces the existing allowance, the amount approved is this amount plus the allowance reserved for
+     * other actions, as given by [BlockchainService.getTokenApprovalAmount]. Then it calls
      * [BlockchainService.createApproveTransferTransaction], passing the stablecoin contract address, the address of the
-     * CommutoSwap contract and the calculated transfer amount, and returns the result.
+     * CommutoSwap contract and the amount to approve, and returns the result.
      *
      * @param stablecoin The contract address of the stablecoin for which the token transfer allowance will be created.
      * @param stablecoinInformation A [StablecoinInformation] about the stablecoin for which token transfer allowance
@@ -358,12 +579,15 @@ class OfferService (
                 )
                 val tokenAmountForOpeningOffer = validatedOfferData.securityDepositAmount + validatedOfferData
                     .serviceFeeAmountUpperBound
-                logger.info("createApproveTokenTransferToOpenOfferTransaction: creating for amount " +
-                        "$tokenAmountForOpeningOffer")
+                val approvalAmount = blockchainService.getTokenApprovalAmount(
+                    tokenAddress = validatedOfferData.stablecoin,
+                    amount = tokenAmountForOpeningOffer,
+                )
+                logger.info("createApproveTokenTransferToOpenOfferTransaction: creating for amount $approvalAmount")
                 blockchainService.createApproveTransferTransaction(
                     tokenAddress = validatedOfferData.stablecoin,
                     spender = blockchainService.getCommutoSwapAddress(),
-                    amount = tokenAmountForOpeningOffer,
+                    amount = approvalAmount,
                 )
             } catch (exception: Exception) {
                 logger.error("createApproveTokenTransferToOpenOfferTransaction: encountered exception", exception)
@@ -398,6 +622,15 @@ class OfferService (
      * [TokenTransferApprovalState.AWAITING_TRANSACTION_CONFIRMATION] and the [Offer.state] property of the [Offer] to
      * [OfferState.APPROVE_TRANSFER_TRANSACTION_SENT].
      *
+     * If the user has already given the CommutoSwap contract enough unreserved allowance, as determined by
+     * [BlockchainService.reserveTokenAllowance], this does not need [approveTokenTransferToOpenOfferTransaction] and
+     * sends no transaction. Instead, the new [Offer] is created with state [OfferState.AWAITING_OPENING] and approving
+     * to open state [TokenTransferApprovalState.COMPLETED], persistently stored, and added to [offerTruthSource] on the
+     * main coroutine dispatcher, so that it can be opened immediately. Otherwise, the approval transaction is
+     * registered with [BlockchainService.expectTokenApproval] before it is sent, so that the allowance it gives for the
+     * new offer is reserved once it is confirmed. If allowance reserved for other actions has changed since
+     * [approveTokenTransferToOpenOfferTransaction] was created, its data will not match, and this will throw.
+     *
      * @param chainID The ID of the blockchain on which the token transfer allowance will be created.
      * @param stablecoin The contract address of the stablecoin for which the token transfer allowance will be created.
      * @param stablecoinInformation A [StablecoinInformation] about the stablecoin for which token transfer allowance
@@ -414,9 +647,8 @@ class OfferService (
      * @param approveTokenTransferToOpenOfferTransaction An optional [RawTransaction] that can approve a token transfer
      * for the proper amount.
      *
-     * @throws [OfferServiceException] if [approveTokenTransferToOpenOfferTransaction] is `null` or if the data of
-     * [approveTokenTransferToOpenOfferTransaction] does not match that of the transaction this function creates using
-     * the supplied arguments.
+     * @throws [OfferServiceException] if approval is needed and [approveTokenTransferToOpenOfferTransaction] is `null`
+     * or its data does not match that of the transaction this function creates using the supplied arguments.
      */
     suspend fun approveTokenTransferToOpenOffer(
         chainID: BigInteger,
@@ -430,6 +662,7 @@ class OfferService (
         approveTokenTransferToOpenOfferTransaction: RawTransaction?
     ) {
         withContext(Dispatchers.IO) {
+            var offerIDWithReservedAllowance: UUID? = null
             try {
                 val serviceFeeRate = getServiceFeeRateAsync().await()
                 logger.info("approveTokenTransferToOpenOffer: validating new offer data")
@@ -445,27 +678,47 @@ class OfferService (
                 )
                 val tokenAmountForOpeningOffer = validatedOfferData.securityDepositAmount + validatedOfferData
                     .serviceFeeAmountUpperBound
-                logger.info("approveTokenTransferToOpenOffer: creating RawTransaction to approve transfer of " +
-                        "$tokenAmountForOpeningOffer tokens at contract ${validatedOfferData.stablecoin}")
-                val recreatedTransaction = blockchainService.createApproveTransferTransaction(
+                // Generate a new ID for the offer, for which allowance is reserved
+                val newOfferID = UUID.randomUUID()
+                val isAllowanceReserved = blockchainService.reserveTokenAllowance(
                     tokenAddress = validatedOfferData.stablecoin,
-                    spender = blockchainService.getCommutoSwapAddress(),
                     amount = tokenAmountForOpeningOffer,
+                    purpose = TokenTransferApprovalPurpose.OPEN_OFFER,
+                    id = newOfferID,
                 )
-                if (approveTokenTransferToOpenOfferTransaction == null) {
-                    throw OfferServiceException(message = "Transaction was null during " +
-                            "approveTokenTransferToOpenOffer call")
-                }
-                if (recreatedTransaction.data != approveTokenTransferToOpenOfferTransaction.data) {
-                    throw OfferServiceException(message = "Data of approveTokenTransferToOpenOfferTransaction did " +
-                            "not match that of transaction created with supplied data")
+                val approvalTransaction = if (isAllowanceReserved) {
+                    logger.info("approveTokenTransferToOpenOffer: allowance already covers " +
+                            "$tokenAmountForOpeningOffer tokens at contract ${validatedOfferData.stablecoin}, " +
+                            "skipping approval")
+                    offerIDWithReservedAllowance = newOfferID
+                    null
+                } else {
+                    // Allowance reserved for other actions must be approved again, since approval replaces allowance
+                    val approvalAmount = blockchainService.getTokenApprovalAmount(
+                        tokenAddress = validatedOfferData.stablecoin,
+                        amount = tokenAmountForOpeningOffer,
+                    )
+                    logger.info("approveTokenTransferToOpenOffer: creating RawTransaction to approve transfer of " +
+                            "$approvalAmount tokens at contract ${validatedOfferData.stablecoin}")
+                    val recreatedTransaction = blockchainService.createApproveTransferTransaction(
+                        tokenAddress = validatedOfferData.stablecoin,
+                        spender = blockchainService.getCommutoSwapAddress(),
+                        amount = approvalAmount,
+                    )
+                    if (approveTokenTransferToOpenOfferTransaction == null) {
+                        throw OfferServiceException(message = "Transaction was null during " +
+                                "approveTokenTransferToOpenOffer call")
+                    }
+                    if (recreatedTransaction.data != approveTokenTransferToOpenOfferTransaction.data) {
+                        throw OfferServiceException(message = "Data of approveTokenTransferToOpenOfferTransaction " +
+                                "did not match that of transaction created with supplied data")
+                    }
+                    approveTokenTransferToOpenOfferTransaction
                 }
                 logger.info("approveTokenTransferToOpenOffer: creating new ID, Offer object and creating and " +
                         "persistently storing new key pair for new offer")
                 // Generate a new 2056 bit RSA key pair for the new offer
                 val newKeyPairForOffer = keyManagerService.generateKeyPair(true)
-                // Generate a new ID for the offer
-                val newOfferID = UUID.randomUUID()
                 logger.info("approveTokenTransferToOpenOffer: created ID $newOfferID for new offer")
                 // Create a new Offer
                 val newOffer = Offer(
@@ -491,24 +744,28 @@ class OfferService (
                     chainID = chainID,
                     havePublicKey = true,
                     isUserMaker = true,
-                    state = OfferState.APPROVING_TRANSFER
+                    state = if (isAllowanceReserved) OfferState.AWAITING_OPENING else OfferState.APPROVING_TRANSFER
                 )
+                if (approvalTransaction == null) {
+                    // The offer is not yet in offerTruthSource, so we can update this from a background thread
+                    newOffer.approvingToOpenState.value = TokenTransferApprovalState.COMPLETED
+                }
                 logger.info("approveTokenTransferToOpenOffer: persistently storing ${newOffer.id}")
                 val encoder = Base64.getEncoder()
                 val offerForDatabase = DatabaseOffer(
                     isCreated = 1L,
                     isTaken = 0L,
-                    id = encoder.encodeToString(newOfferID.asByteArray()),
+                    id = newOfferID,
                     maker = newOffer.maker,
                     interfaceId = encoder.encodeToString(newOffer.interfaceID),
                     stablecoin = newOffer.stablecoin,
-                    amountLowerBound = newOffer.amountLowerBound.toString(),
-                    amountUpperBound = newOffer.amountUpperBound.toString(),
-                    securityDepositAmount = newOffer.securityDepositAmount.toString(),
-                    serviceFeeRate = newOffer.serviceFeeRate.toString(),
+                    amountLowerBound = newOffer.amountLowerBound,
+                    amountUpperBound = newOffer.amountUpperBound,
+                    securityDepositAmount = newOffer.securityDepositAmount,
+                    serviceFeeRate = newOffer.serviceFeeRate,
                     onChainDirection = newOffer.onChainDirection.toString(),
                     protocolVersion = newOffer.protocolVersion.toString(),
-                    chainID = newOffer.chainID.toString(),
+                    chainID = newOffer.chainID,
                     havePublicKey = 1L,
                     isUserMaker = 1L,
                     state = newOffer.state.asString,
@@ -547,14 +804,22 @@ class OfferService (
                     .size} settlement methods for offer ${newOffer.id}")
                 databaseService.storeOfferSettlementMethods(offerForDatabase.id, offerForDatabase.chainID,
                     settlementMethodStrings)
+                if (approvalTransaction == null) {
+                    logger.info("approveTokenTransferToOpenOffer: adding ${newOffer.id} to offerTruthSource with " +
+                            "approvingToOpenState COMPLETED")
+                    withContext(Dispatchers.Main) {
+                        addOfferToTruthSource(newOffer)
+                    }
+                    return@withContext
+                }
                 logger.info("approveTokenTransferToOpenOffer: signing transaction for ${newOffer.id}")
                 val signedTransactionData = blockchainService.signTransaction(
-                    transaction = approveTokenTransferToOpenOfferTransaction,
+                    transaction = approvalTransaction,
                     chainID = newOffer.chainID
                 )
                 val signedTransactionHex = Numeric.toHexString(signedTransactionData)
                 val blockchainTransactionForApprovingTransfer = BlockchainTransaction(
-                    transaction = approveTokenTransferToOpenOfferTransaction,
+                    transaction = approvalTransaction,
                     transactionHash = Hash.sha3(signedTransactionHex),
                     latestBlockNumberAtCreation = blockchainService.newestBlockNum,
                     type = BlockchainTransactionType.APPROVE_TOKEN_TRANSFER_TO_OPEN_OFFER
@@ -565,8 +830,8 @@ class OfferService (
                         "${newOffer.id}, including tx hash ${blockchainTransactionForApprovingTransfer
                             .transactionHash}")
                 databaseService.updateOfferApproveToOpenData(
-                    offerID = encoder.encodeToString(newOffer.id.asByteArray()),
-                    chainID = newOffer.chainID.toString(),
+                    offerID = newOffer.id,
+                    chainID = newOffer.chainID,
                     transactionHash = blockchainTransactionForApprovingTransfer.transactionHash,
                     creationTime = dateString,
                     blockNumber = blockchainTransactionForApprovingTransfer.latestBlockNumberAtCreation.toLong()
@@ -574,8 +839,8 @@ class OfferService (
                 logger.info("approveTokenTransferToOpenOffer: persistently updating approvingToOpenState for " +
                         "${newOffer.id} to SENDING_TRANSACTION")
                 databaseService.updateOfferApproveToOpenState(
-                    offerID = encoder.encodeToString(newOffer.id.asByteArray()),
-                    chainID = newOffer.chainID.toString(),
+                    offerID = newOffer.id,
+                    chainID = newOffer.chainID,
                     state = TokenTransferApprovalState.SENDING_TRANSACTION.asString,
                 )
                 logger.info("approveTokenTransferToOpenOffer: updating approvingToOpenState for ${newOffer
@@ -584,10 +849,17 @@ class OfferService (
                 withContext(Dispatchers.Main) {
                     newOffer.approvingToOpenState.value = TokenTransferApprovalState.SENDING_TRANSACTION
                     newOffer.approvingToOpenTransaction = blockchainTransactionForApprovingTransfer
-                    offerTruthSource.offers[newOfferID] = newOffer
+                    addOfferToTruthSource(newOffer)
                 }
                 logger.info("approveTokenTransferToOpenOffer: sending ${blockchainTransactionForApprovingTransfer
                     .transactionHash} for ${newOffer.id}")
+                blockchainService.expectTokenApproval(
+                    transactionHash = blockchainTransactionForApprovingTransfer.transactionHash,
+                    tokenAddress = newOffer.stablecoin,
+                    amount = tokenAmountForOpeningOffer,
+                    purpose = TokenTransferApprovalPurpose.OPEN_OFFER,
+                    id = newOffer.id,
+                )
                 blockchainService.sendTransaction(
                     transaction = blockchainTransactionForApprovingTransfer,
                     signedRawTransactionDataAsHex = signedTransactionHex,
@@ -596,15 +868,15 @@ class OfferService (
                 logger.info("approveTokenTransferToOpenOffer: persistently updating approvingToOpenState of " +
                         "${newOffer.id} to AWAITING_TRANSACTION_CONFIRMATION")
                 databaseService.updateOfferApproveToOpenState(
-                    offerID = encoder.encodeToString(newOffer.id.asByteArray()),
-                    chainID = newOffer.chainID.toString(),
+                    offerID = newOffer.id,
+                    chainID = newOffer.chainID,
                     state = TokenTransferApprovalState.AWAITING_TRANSACTION_CONFIRMATION.asString,
                 )
                 logger.info("approveTokenTransferToOpenOffer: persistently updating state of ${newOffer.id} to " +
                         "APPROVE_TRANSFER_TRANSACTION_SENT")
                 databaseService.updateOfferState(
-                    offerID = encoder.encodeToString(newOffer.id.asByteArray()),
-                    chainID = newOffer.chainID.toString(),
+                    offerID = newOffer.id,
+                    chainID = newOffer.chainID,
                     state = OfferState.APPROVE_TRANSFER_TRANSACTION_SENT.asString,
                 )
                 logger.info("approveTokenTransferToOpenOffer: updating state to " +
@@ -616,6 +888,9 @@ class OfferService (
                 }
             } catch (exception: Exception) {
                 logger.error("approveTokenTransferToOpenOffer: encountered exception", exception)
+                offerIDWithReservedAllowance?.let {
+                    blockchainService.releaseTokenAllowance(TokenTransferApprovalPurpose.OPEN_OFFER, it)
+                }
                 throw exception
             }
         }
@@ -682,7 +957,6 @@ class OfferService (
     suspend fun openOffer(offer: Offer, offerOpeningTransaction: RawTransaction?) {
         withContext(Dispatchers.IO) {
             logger.info("openOffer: opening ${offer.id}")
-            val encoder = Base64.getEncoder()
             try {
                 validateOfferForOpening(offer = offer)
                 logger.info("openOffer: recreating RawTransaction to open ${offer.id} to ensure " +
@@ -714,8 +988,8 @@ class OfferService (
                 logger.info("openOffer: persistently storing offer opening data for ${offer.id}, including tx " +
                         "hash ${blockchainTransactionForOfferOpening.transactionHash}")
                 databaseService.updateOpeningOfferData(
-                    offerID = encoder.encodeToString(offer.id.asByteArray()),
-                    chainID = offer.chainID.toString(),
+                    offerID = offer.id,
+                    chainID = offer.chainID,
                     transactionHash = blockchainTransactionForOfferOpening.transactionHash,
                     creationTime = dateString,
                     blockNumber = blockchainTransactionForOfferOpening.latestBlockNumberAtCreation.toLong()
@@ -724,8 +998,8 @@ class OfferService (
                         OpeningOfferState.SENDING_TRANSACTION.asString
                 )
                 databaseService.updateOpeningOfferState(
-                    offerID = encoder.encodeToString(offer.id.asByteArray()),
-                    chainID = offer.chainID.toString(),
+                    offerID = offer.id,
+                    chainID = offer.chainID,
                     state = OpeningOfferState.SENDING_TRANSACTION.asString,
                 )
                 logger.info("openOffer: updating openingOfferState to ${OpeningOfferState.SENDING_TRANSACTION
@@ -744,16 +1018,16 @@ class OfferService (
                 logger.info("openOffer: persistently updating state of ${offer.id} to ${OfferState
                     .OPEN_OFFER_TRANSACTION_SENT.asString}")
                 databaseService.updateOfferState(
-                    offerID = encoder.encodeToString(offer.id.asByteArray()),
-                    chainID = offer.chainID.toString(),
+                    offerID = offer.id,
+                    chainID = offer.chainID,
                     state = OfferState.OPEN_OFFER_TRANSACTION_SENT.asString
                 )
                 logger.info("openOffer: persistently updating openingOfferState of ${offer.id} to " +
                         OpeningOfferState.AWAITING_TRANSACTION_CONFIRMATION.asString
                 )
                 databaseService.updateOpeningOfferState(
-                    offerID = encoder.encodeToString(offer.id.asByteArray()),
-                    chainID = offer.chainID.toString(),
+                    offerID = offer.id,
+                    chainID = offer.chainID,
                     state = OpeningOfferState.AWAITING_TRANSACTION_CONFIRMATION.asString,
                 )
                 logger.info("openOffer: updating state to ${OfferState.OPEN_OFFER_TRANSACTION_SENT.asString} " +
@@ -767,8 +1041,8 @@ class OfferService (
                 logger.error("openOffer: encountered exception while opening ${offer.id}, setting " +
                         "openingOfferState to exception", exception)
                 databaseService.updateOpeningOfferState(
-                    offerID = encoder.encodeToString(offer.id.asByteArray()),
-                    chainID = offer.chainID.toString(),
+                    offerID = offer.id,
+                    chainID = offer.chainID,
                     state = OpeningOfferState.EXCEPTION.asString,
                 )
                 offer.openingOfferException = exception
@@ -810,15 +1084,9 @@ class OfferService (
             try {
                 /*logger.info("cancelOffer: persistently updating offer $offerID state to " +
                         OfferState.CANCELING.asString)*/
-                val encoder = Base64.getEncoder()
-                val offerIDByteBuffer = ByteBuffer.wrap(ByteArray(16))
-                offerIDByteBuffer.putLong(offerID.mostSignificantBits)
-                offerIDByteBuffer.putLong(offerID.leastSignificantBits)
-                val offerIDByteArray = offerIDByteBuffer.array()
-                val offerIDString = encoder.encodeToString(offerIDByteArray)
                 /*databaseService.updateOfferState(
-                    offerID = offerIDString,
-                    chainID = chainID.toString(),
+                    offerID = offerID,
+                    chainID = chainID,
                     state = OfferState.CANCELING.asString
                 )*/
                 /*logger.info("cancelOffer: updating offer $offerID state to ${OfferState.CANCELING.asString}")
@@ -831,8 +1099,8 @@ class OfferService (
                 logger.info("cancelOffer: persistently updating offer $offerID state to " +
                         OfferState.CANCEL_OFFER_TRANSACTION_BROADCAST.asString)
                 databaseService.updateOfferState(
-                    offerID = offerIDString,
-                    chainID = chainID.toString(),
+                    offerID = offerID,
+                    chainID = chainID,
                     state = OfferState.CANCEL_OFFER_TRANSACTION_BROADCAST.asString
                 )
                 logger.info("cancelOffer: updating offer $offerID state to " +
@@ -912,10 +1180,9 @@ class OfferService (
                     .timeOfCreation)
                 logger.info("cancelOffer: persistently storing offer cancellation data for ${offer.id}, including tx " +
                         "hash ${blockchainTransactionForOfferCancellation.transactionHash} for ${offer.id}")
-                val encoder = Base64.getEncoder()
                 databaseService.updateOfferCancellationData(
-                    offerID = encoder.encodeToString(offer.id.asByteArray()),
-                    chainID = offer.chainID.toString(),
+                    offerID = offer.id,
+                    chainID = offer.chainID,
                     transactionHash = blockchainTransactionForOfferCancellation.transactionHash,
                     creationTime = dateString,
                     blockNumber = blockchainTransactionForOfferCancellation.latestBlockNumberAtCreation.toLong()
@@ -923,8 +1190,8 @@ class OfferService (
                 logger.info("cancelOffer: persistently cancelingOfferState for ${offer.id} state to " +
                         "SENDING_TRANSACTION")
                 databaseService.updateCancelingOfferState(
-                    offerID = encoder.encodeToString(offer.id.asByteArray()),
-                    chainID = offer.chainID.toString(),
+                    offerID = offer.id,
+                    chainID = offer.chainID,
                     state = CancelingOfferState.SENDING_TRANSACTION.asString
                 )
                 logger.info("cancelOffer: updating cancelingOfferState for ${offer.id} state to SENDING_TRANSACTION " +
@@ -942,8 +1209,8 @@ class OfferService (
                 logger.info("cancelOffer: persistently updating cancelingOfferState of ${offer.id} to " +
                         "AWAITING_TRANSACTION_CONFIRMATION")
                 databaseService.updateCancelingOfferState(
-                    offerID = encoder.encodeToString(offer.id.asByteArray()),
-                    chainID = offer.chainID.toString(),
+                    offerID = offer.id,
+                    chainID = offer.chainID,
                     state = CancelingOfferState.AWAITING_TRANSACTION_CONFIRMATION.asString
                 )
                 logger.info("cancelOffer: updating cancelingOfferState for ${offer.id} to " +
@@ -954,10 +1221,9 @@ class OfferService (
             } catch (exception: Exception) {
                 logger.error("cancelOffer: encountered exception while canceling ${offer.id}, setting " +
                         "cancelingOfferState to EXCEPTION", exception)
-                val encoder = Base64.getEncoder()
                 databaseService.updateCancelingOfferState(
-                    offerID = encoder.encodeToString(offer.id.asByteArray()),
-                    chainID = offer.chainID.toString(),
+                    offerID = offer.id,
+                    chainID = offer.chainID,
                     state = CancelingOfferState.EXCEPTION.asString
                 )
                 offer.cancelingOfferException = exception
@@ -999,11 +1265,10 @@ class OfferService (
                     logger.error("editOffer: encountered error serializing settlement methods for $offerID", exception)
                     throw exception
                 }
-                val encoder = Base64.getEncoder()
                 logger.info("persistently storing pending settlement methods for $offerID")
                 databaseService.storePendingOfferSettlementMethods(
-                    offerID = encoder.encodeToString(offerID.asByteArray()),
-                    chainID = offer.chainID.toString(),
+                    offerID = offerID,
+                    chainID = offer.chainID,
                     pendingSettlementMethods = serializedSettlementMethodsAndPrivateDetails
                 )
                 val onChainSettlementMethods = serializedSettlementMethodsAndPrivateDetails.map {
@@ -1204,10 +1469,9 @@ class OfferService (
                 val dateString = DateFormatter.createDateString(blockchainTransactionForOfferEditing.timeOfCreation)
                 logger.info("editOffer: persistently storing offer editing data for ${offer.id}, including tx " +
                         "hash ${blockchainTransactionForOfferEditing.transactionHash} for ${offer.id}")
-                val encoder = Base64.getEncoder()
                 databaseService.updateOfferEditingData(
-                    offerID = encoder.encodeToString(offer.id.asByteArray()),
-                    chainID = offer.chainID.toString(),
+                    offerID = offer.id,
+                    chainID = offer.chainID,
                     transactionHash = blockchainTransactionForOfferEditing.transactionHash,
                     creationTime = dateString,
                     blockNumber = blockchainTransactionForOfferEditing.latestBlockNumberAtCreation.toLong()
@@ -1215,14 +1479,14 @@ class OfferService (
                 // TODO: persistently store new settlement methods along with hash of transaction for offer editing here,
                 //  rather than offer ID and chain ID
                 databaseService.storePendingOfferSettlementMethods(
-                    offerID = encoder.encodeToString(offer.id.asByteArray()),
-                    chainID = offer.chainID.toString(),
+                    offerID = offer.id,
+                    chainID = offer.chainID,
                     pendingSettlementMethods = serializedSettlementMethodsAndPrivateDetails
                 )
                 logger.info("editOffer: persistently updating editingOfferState for ${offer.id} to sendingTransaction")
                 databaseService.updateEditingOfferState(
-                    offerID = encoder.encodeToString(offer.id.asByteArray()),
-                    chainID = offer.chainID.toString(),
+                    offerID = offer.id,
+                    chainID = offer.chainID,
                     state = EditingOfferState.SENDING_TRANSACTION.asString,
                 )
                 logger.info("editOffer: updating editingOfferState for ${offer.id} to sendingTransaction and storing " +
@@ -1239,8 +1503,8 @@ class OfferService (
                 )
                 logger.info("persistently updating editingOfferState of ${offer.id} to AWAITING_TRANSACTION_CONFIRMATION")
                 databaseService.updateEditingOfferState(
-                    offerID = encoder.encodeToString(offer.id.asByteArray()),
-                    chainID = offer.chainID.toString(),
+                    offerID = offer.id,
+                    chainID = offer.chainID,
                     state = EditingOfferState.AWAITING_TRANSACTION_CONFIRMATION.asString
                 )
                 withContext(Dispatchers.Main) {
@@ -1249,10 +1513,9 @@ class OfferService (
             } catch (exception: Exception) {
                 logger.error("editOffer: encountered exception while editing ${offer.id}, setting editingOfferState " +
                         "to EXCEPTION", exception)
-                val encoder = Base64.getEncoder()
                 databaseService.updateEditingOfferState(
-                    offerID = encoder.encodeToString(offer.id.asByteArray()),
-                    chainID = offer.chainID.toString(),
+                    offerID = offer.id,
+                    chainID = offer.chainID,
                     state = EditingOfferState.EXCEPTION.asString
                 )
                 offer.editingOfferException = exception
@@ -1270,10 +1533,11 @@ class OfferService (
      * an offer.
      *
      * On the IO coroutine dispatcher, this calls [validateNewSwapData], and uses the resulting [ValidatedNewSwapData]
-     * to calculate the transfer amount that must be approved. Then it calls
-     * [BlockchainService.createApproveTransferTransaction], passing the stablecoin contract address specified in
-     * [offerToTake], the address of the CommutoSwap contract, and the calculated transfer amount, and returns the
-     * result.
+     * to calculate the transfer amount that must be approved. Since an approval replaces the existing allowance, the
+     * amount approved is this amount plus the allowance reserved for other actions, as given by
+     * [BlockchainService.getTokenApprovalAmount]. Then it calls [BlockchainService.createApproveTransferTransaction],
+     * passing the stablecoin contract address specified in [offerToTake], the address of the CommutoSwap contract, and
+     * the amount to approve, and returns the result.
      *
      * @param offerToTake The offer that will be taken, for which this token transfer approval transaction is being
      * created.
@@ -1325,7 +1589,10 @@ class OfferService (
                 blockchainService.createApproveTransferTransaction(
                     tokenAddress = offerToTake.stablecoin,
                     spender = blockchainService.getCommutoSwapAddress(),
-                    amount = tokenAmountForTakingOffer
+                    amount = blockchainService.getTokenApprovalAmount(
+                        tokenAddress = offerToTake.stablecoin,
+                        amount = tokenAmountForTakingOffer,
+                    ),
                 )
             } catch (exception: Exception) {
                 logger.error("createApproveTokenTransferToTakeOfferTransaction, encountered exception", exception)
@@ -1355,6 +1622,15 @@ class OfferService (
      * updates the [Offer.approvingToTakeState] property of [offerToTake] to
      * [TokenTransferApprovalState.AWAITING_TRANSACTION_CONFIRMATION].
      *
+     * If the user has already given the CommutoSwap contract enough unreserved allowance, as determined by
+     * [BlockchainService.reserveTokenAllowance], this does not need [approveTokenTransferToTakeOfferTransaction] and
+     * sends no transaction. Instead, this persistently updates the approving to take state of [offerToTake] to
+     * [TokenTransferApprovalState.COMPLETED], and then does the same to its [Offer.approvingToTakeState] property on
+     * the main coroutine dispatcher. Otherwise, the approval transaction is registered with
+     * [BlockchainService.expectTokenApproval] before it is sent, so that the allowance it gives for taking
+     * [offerToTake] is reserved once it is confirmed. If allowance reserved for other actions has changed since
+     * [approveTokenTransferToTakeOfferTransaction] was created, its data will not match, and this will throw.
+     *
      * @param offerToTake The offer that will be taken, for which this token transfer approval transaction is being
      * created.
      * @param takenSwapAmount The [BigDecimal] amount of stablecoin that the user wants to buy/sell. If the offer has
@@ -1369,10 +1645,9 @@ class OfferService (
      * @param approveTokenTransferToTakeOfferTransaction An optional [RawTransaction] that can approve a token transfer
      * for the proper amount.
      *
-     * @throws [OfferServiceException] if [offerToTake] is not in the [OfferState.OFFER_OPENED] state, if
-     * [approveTokenTransferToTakeOfferTransaction] is `null`, or if the data of
-     * [approveTokenTransferToTakeOfferTransaction] does not match that of the transaction this function creates using
-     * the supplied arguments.
+     * @throws [OfferServiceException] if [offerToTake] is not in the [OfferState.OFFER_OPENED] state, or if approval is
+     * needed and [approveTokenTransferToTakeOfferTransaction] is `null` or its data does not match that of the
+     * transaction this function creates using the supplied arguments.
      */
     suspend fun approveTokenTransferToTakeOffer(
         offerToTake: Offer,
@@ -1383,6 +1658,7 @@ class OfferService (
         approveTokenTransferToTakeOfferTransaction: RawTransaction?,
     ) {
         withContext(Dispatchers.IO) {
+            var isAllowanceReserved = false
             try {
                 logger.info("approveTokenTransferToTakeOffer: validating new swap data for ${offerToTake.id}")
                 if (offerToTake.state != OfferState.OFFER_OPENED) {
@@ -1411,12 +1687,37 @@ class OfferService (
                      */
                     OfferDirection.SELL -> offerToTake.securityDepositAmount + serviceFeeAmount
                 }
+                if (blockchainService.reserveTokenAllowance(
+                        tokenAddress = offerToTake.stablecoin,
+                        amount = tokenAmountForTakingOffer,
+                        purpose = TokenTransferApprovalPurpose.TAKE_OFFER,
+                        id = offerToTake.id,
+                    )) {
+                    isAllowanceReserved = true
+                    logger.info("approveTokenTransferToTakeOffer: allowance already covers " +
+                            "$tokenAmountForTakingOffer tokens at contract ${offerToTake.stablecoin}, persistently " +
+                            "updating approvingToTakeState for ${offerToTake.id} to completed")
+                    databaseService.updateOfferApproveToTakeState(
+                        offerID = offerToTake.id,
+                        chainID = offerToTake.chainID,
+                        state = TokenTransferApprovalState.COMPLETED.asString,
+                    )
+                    withContext(Dispatchers.Main) {
+                        offerToTake.approvingToTakeState.value = TokenTransferApprovalState.COMPLETED
+                    }
+                    return@withContext
+                }
+                // Allowance reserved for other actions must be approved again, since approval replaces allowance
+                val approvalAmount = blockchainService.getTokenApprovalAmount(
+                    tokenAddress = offerToTake.stablecoin,
+                    amount = tokenAmountForTakingOffer,
+                )
                 logger.info("approveTokenTransferToTakeOffer: recreating RawTransaction to approve transfer " +
-                        "of $tokenAmountForTakingOffer tokens at contract ${offerToTake.stablecoin}")
+                        "of $approvalAmount tokens at contract ${offerToTake.stablecoin}")
                 val recreatedTransaction = blockchainService.createApproveTransferTransaction(
                     tokenAddress = offerToTake.stablecoin,
                     spender = blockchainService.getCommutoSwapAddress(),
-                    amount = tokenAmountForTakingOffer,
+                    amount = approvalAmount,
                 )
                 if (approveTokenTransferToTakeOfferTransaction == null) {
                     throw OfferServiceException(message = "Transaction was null during " +
@@ -1443,10 +1744,9 @@ class OfferService (
                 logger.info("approveTokenTransferToTakeOffer: persistently storing approve transfer data for " +
                         "${offerToTake.id}, including tx hash ${blockchainTransactionForApprovingTransfer
                             .transactionHash}")
-                val encoder = Base64.getEncoder()
                 databaseService.updateOfferApproveToTakeData(
-                    offerID = encoder.encodeToString(offerToTake.id.asByteArray()),
-                    chainID = offerToTake.chainID.toString(),
+                    offerID = offerToTake.id,
+                    chainID = offerToTake.chainID,
                     transactionHash = blockchainTransactionForApprovingTransfer.transactionHash,
                     creationTime = dateString,
                     blockNumber = blockchainTransactionForApprovingTransfer.latestBlockNumberAtCreation.toLong()
@@ -1454,8 +1754,8 @@ class OfferService (
                 logger.info("approveTokenTransferToTakeOffer: persistently updating approveToTakeState for " +
                         "${offerToTake.id} to sendingTransaction")
                 databaseService.updateOfferApproveToTakeState(
-                    offerID = encoder.encodeToString(offerToTake.id.asByteArray()),
-                    chainID = offerToTake.chainID.toString(),
+                    offerID = offerToTake.id,
+                    chainID = offerToTake.chainID,
                     state = TokenTransferApprovalState.SENDING_TRANSACTION.asString,
                 )
                 logger.info("approveTokenTransferToTakeOffer: updating approvingToTakeState for " +
@@ -1467,6 +1767,13 @@ class OfferService (
                 }
                 logger.info("approveTokenTransferToTakeOffer: sending ${blockchainTransactionForApprovingTransfer
                     .transactionHash} for ${offerToTake.id}")
+                blockchainService.expectTokenApproval(
+                    transactionHash = blockchainTransactionForApprovingTransfer.transactionHash,
+                    tokenAddress = offerToTake.stablecoin,
+                    amount = tokenAmountForTakingOffer,
+                    purpose = TokenTransferApprovalPurpose.TAKE_OFFER,
+                    id = offerToTake.id,
+                )
                 blockchainService.sendTransaction(
                     transaction = blockchainTransactionForApprovingTransfer,
                     signedRawTransactionDataAsHex = signedTransactionHex,
@@ -1475,8 +1782,8 @@ class OfferService (
                 logger.info("approveTokenTransferToTakeOffer: persistently updating approvingToTakeState of " +
                         "${offerToTake.id} to awaitingTransactionConfirmation")
                 databaseService.updateOfferApproveToTakeState(
-                    offerID = encoder.encodeToString(offerToTake.id.asByteArray()),
-                    chainID = offerToTake.chainID.toString(),
+                    offerID = offerToTake.id,
+                    chainID = offerToTake.chainID,
                     state = TokenTransferApprovalState.AWAITING_TRANSACTION_CONFIRMATION.asString,
                 )
                 logger.info("approveTokenTransferToTakeOffer: updating approvingToTakeState to " +
@@ -1487,6 +1794,9 @@ class OfferService (
                 }
             } catch (exception: Exception) {
                 logger.error("approveTokenTransferToTakeOffer: encountered exception", exception)
+                if (isAllowanceReserved) {
+                    blockchainService.releaseTokenAllowance(TokenTransferApprovalPurpose.TAKE_OFFER, offerToTake.id)
+                }
                 throw exception
             }
         }
@@ -1654,7 +1964,7 @@ class OfferService (
                 keyManagerService.storeKeyPair(keyPair = takerKeyPair)
                 logger.info("takeOffer: persistently storing swap ${newSwap.id}")
                 val swapForDatabase = DatabaseSwap(
-                    id = encoder.encodeToString(offerToTake.id.asByteArray()),
+                    id = offerToTake.id,
                     isCreated = if (newSwap.isCreated) 1L else 0L,
                     requiresFill = if (newSwap.requiresFill) 1L else 0L,
                     maker = newSwap.maker,
@@ -1662,25 +1972,23 @@ class OfferService (
                     taker = newSwap.taker,
                     takerInterfaceID = encoder.encodeToString(newSwap.takerInterfaceID),
                     stablecoin = newSwap.stablecoin,
-                    amountLowerBound = newSwap.amountLowerBound.toString(),
-                    amountUpperBound = newSwap.amountUpperBound.toString(),
-                    securityDepositAmount = newSwap.securityDepositAmount.toString(),
-                    takenSwapAmount = newSwap.takenSwapAmount.toString(),
-                    serviceFeeAmount = newSwap.serviceFeeAmount.toString(),
-                    serviceFeeRate = newSwap.serviceFeeRate.toString(),
+                    amountLowerBound = newSwap.amountLowerBound,
+                    amountUpperBound = newSwap.amountUpperBound,
+                    securityDepositAmount = newSwap.securityDepositAmount,
+                    takenSwapAmount = newSwap.takenSwapAmount,
+                    serviceFeeAmount = newSwap.serviceFeeAmount,
+                    serviceFeeRate = newSwap.serviceFeeRate,
                     onChainDirection = newSwap.onChainDirection.toString(),
                     settlementMethod = encoder.encodeToString(newSwap.onChainSettlementMethod),
                     protocolVersion = newSwap.protocolVersion.toString(),
                     makerPrivateData = null,
-                    makerPrivateDataInitializationVector = null,
-                    takerPrivateData = newSwap.takerPrivateSettlementMethodData,
-                    takerPrivateDataInitializationVector = null,
+                    takerPrivateData = newSwap.takerPrivateSettlementMethodData?.toByteArray(),
                     isPaymentSent = if (newSwap.isPaymentSent) 1L else 0L,
                     isPaymentReceived = if (newSwap.isPaymentReceived) 1L else 0L,
                     hasBuyerClosed = if (newSwap.hasBuyerClosed) 1L else 0L,
                     hasSellerClosed = if (newSwap.hasSellerClosed) 1L else 0L,
                     disputeRaiser = newSwap.onChainDisputeRaiser.toString(),
-                    chainID = newSwap.chainID.toString(),
+                    chainID = newSwap.chainID,
                     state = newSwap.state.value.asString,
                     role = newSwap.role.asString,
                     approveToFillState = newSwap.approvingToFillState.value.asString,
@@ -1726,8 +2034,8 @@ class OfferService (
                 logger.info("takeOffer: persistently storing taking offer data for ${offerToTake.id}, " +
                         "including tx hash ${blockchainTransactionForOfferTaking.transactionHash}")
                 databaseService.updateTakingOfferData(
-                    offerID = encoder.encodeToString(offerToTake.id.asByteArray()),
-                    chainID = offerToTake.chainID.toString(),
+                    offerID = offerToTake.id,
+                    chainID = offerToTake.chainID,
                     transactionHash = blockchainTransactionForOfferTaking.transactionHash,
                     creationTime = dateString,
                     blockNumber = blockchainTransactionForOfferTaking.latestBlockNumberAtCreation.toLong()
@@ -1735,8 +2043,8 @@ class OfferService (
                 logger.info("takeOffer: persistently updating takingOfferState for ${offerToTake.id} to " +
                         "sendingTransaction")
                 databaseService.updateTakingOfferState(
-                    offerID = encoder.encodeToString(offerToTake.id.asByteArray()),
-                    chainID = offerToTake.chainID.toString(),
+                    offerID = offerToTake.id,
+                    chainID = offerToTake.chainID,
                     state = TakingOfferState.SENDING_TRANSACTION.asString,
                 )
                 logger.info("takeOffer: updating takingOfferState to sendingTransaction, storing tx " +
@@ -1746,6 +2054,7 @@ class OfferService (
                 withContext(Dispatchers.Main) {
                     offerToTake.takingOfferTransaction = blockchainTransactionForOfferTaking
                     offerToTake.takingOfferState.value = TakingOfferState.SENDING_TRANSACTION
+                    swapService.attachSwapToTransactionHashIndex(swap = newSwap)
                     swapTruthSource.addSwap(newSwap)
                 }
                 logger.info("takeOffer: sending ${blockchainTransactionForOfferTaking.transactionHash} for " +
@@ -1758,16 +2067,16 @@ class OfferService (
                 logger.info("takeOffer: persistently updating state of swap ${newSwap.id} to ${SwapState
                     .TAKE_OFFER_TRANSACTION_SENT.asString}")
                 databaseService.updateSwapState(
-                    swapID = encoder.encodeToString(newSwap.id.asByteArray()),
-                    chainID = newSwap.chainID.toString(),
+                    swapID = newSwap.id,
+                    chainID = newSwap.chainID,
                     state = SwapState.TAKE_OFFER_TRANSACTION_SENT.asString
                 )
                 logger.info("takeOffer: persistently updating takingOfferState of ${offerToTake.id} to " +
                         TakingOfferState.AWAITING_TRANSACTION_CONFIRMATION.asString
                 )
                 databaseService.updateTakingOfferState(
-                    offerID = encoder.encodeToString(offerToTake.id.asByteArray()),
-                    chainID = offerToTake.chainID.toString(),
+                    offerID = offerToTake.id,
+                    chainID = offerToTake.chainID,
                     state = TakingOfferState.AWAITING_TRANSACTION_CONFIRMATION.asString,
                 )
                 logger.info("takeOffer: updating state of swap ${newSwap.id} to ${SwapState
@@ -1781,8 +2090,8 @@ class OfferService (
                 logger.error("takeOffer: encountered exception while taking ${offerToTake.id}, setting " +
                         "takingOfferState to exception", exception)
                 databaseService.updateTakingOfferState(
-                    offerID = encoder.encodeToString(offerToTake.id.asByteArray()),
-                    chainID = offerToTake.chainID.toString(),
+                    offerID = offerToTake.id,
+                    chainID = offerToTake.chainID,
                     state = TakingOfferState.EXCEPTION.asString,
                 )
                 offerToTake.takingOfferException = exception
@@ -1915,12 +2224,16 @@ class OfferService (
      * chain and is not taken, creates and persistently stores a new key pair and a new [Swap] with the information
      * contained in [offerToTake] and [swapData]. Then, still on the IO coroutine dispatcher, this approves token
      * transfer for the proper amount to the
-     * [CommutoSwap](https://github.com/jimmyneutront/commuto-protocol/blob/main/CommutoSwap.sol) contract, calls the
-     * CommutoSwap contract's [takeOffer](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#take-offer)
-     * function (via [BlockchainService]), passing the offer ID and new [Swap], and then updates the state of
-     * [offerToTake] to [OfferState.TAKEN] and the state of the swap to [SwapState.TAKE_OFFER_TRANSACTION_SENT].
+     * [CommutoSwap](https://github.com/jimmyneutront/commuto-protocol/blob/main/CommutoSwap.sol) contract (unless
+     * [BlockchainService.reserveTokenAllowance] finds that enough allowance has already been given) with
+     * [BlockchainService.approveAndReserveTokenAllowance], calls the CommutoSwap contract's
+     * [takeOffer](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#take-offer) function (via
+     * [BlockchainService]), passing the offer ID and new [Swap], settles the allowance reserved for taking
+     * [offerToTake], and then updates the state of [offerToTake] to [OfferState.TAKEN] and the state of the swap to
+     * [SwapState.TAKE_OFFER_TRANSACTION_SENT]. If this fails after reserving allowance, the reservation is released.
      * Then, on the main coroutine dispatcher, the new [Swap] is added to [swapTruthSource], the value of
      * [offerToTake]'s [Offer.isTaken] property is set to true and [offerToTake] is removed from [offerTruthSource].
+     * Finally, [offerToTake] is archived and its settlement methods are removed from persistent storage.
      *
      * @param offerToTake The [Offer] that this function will take.
      * @param swapData A [ValidatedNewSwapData] containing data necessary for taking [offerToTake].
@@ -1944,6 +2257,7 @@ class OfferService (
     ) {
         withContext(Dispatchers.IO) {
             logger.info("takeOffer: checking that ${offerToTake.id} is created and not taken")
+            var isAllowanceReserved = false
             try {
                 val encoder = Base64.getEncoder()
                 // Try to get the on-chain offer corresponding to offerToTake
@@ -2018,10 +2332,9 @@ class OfferService (
                 afterObjectCreation?.invoke()
                 logger.info("takeOffer: persistently storing ${offerToTake.id}")
                 // Persistently store the new swap
-                val offerIDB64String = encoder.encodeToString(offerToTake.id.asByteArray())
                 // TODO: get actual taker private data here
                 val swapForDatabase = DatabaseSwap(
-                    id = offerIDB64String,
+                    id = offerToTake.id,
                     isCreated = 1L,
                     requiresFill = 0L,
                     maker = newSwap.maker,
@@ -2029,25 +2342,23 @@ class OfferService (
                     taker = newSwap.taker,
                     takerInterfaceID = encoder.encodeToString(newSwap.takerInterfaceID),
                     stablecoin = newSwap.stablecoin,
-                    amountLowerBound = newSwap.amountLowerBound.toString(),
-                    amountUpperBound = newSwap.amountUpperBound.toString(),
-                    securityDepositAmount = newSwap.securityDepositAmount.toString(),
-                    takenSwapAmount = newSwap.takenSwapAmount.toString(),
-                    serviceFeeAmount = newSwap.serviceFeeAmount.toString(),
-                    serviceFeeRate = newSwap.serviceFeeRate.toString(),
+                    amountLowerBound = newSwap.amountLowerBound,
+                    amountUpperBound = newSwap.amountUpperBound,
+                    securityDepositAmount = newSwap.securityDepositAmount,
+                    takenSwapAmount = newSwap.takenSwapAmount,
+                    serviceFeeAmount = newSwap.serviceFeeAmount,
+                    serviceFeeRate = newSwap.serviceFeeRate,
                     onChainDirection = newSwap.onChainDirection.toString(),
                     settlementMethod = encoder.encodeToString(newSwap.onChainSettlementMethod),
                     makerPrivateData = null,
-                    makerPrivateDataInitializationVector = null,
-                    takerPrivateData = newSwap.takerPrivateSettlementMethodData,
-                    takerPrivateDataInitializationVector = null,
+                    takerPrivateData = newSwap.takerPrivateSettlementMethodData?.toByteArray(),
                     protocolVersion = newSwap.protocolVersion.toString(),
                     isPaymentSent = 0L,
                     isPaymentReceived = 0L,
                     hasBuyerClosed = 0L,
                     hasSellerClosed = 0L,
                     disputeRaiser = newSwap.onChainDisputeRaiser.toString(),
-                    chainID = newSwap.chainID.toString(),
+                    chainID = newSwap.chainID,
                     state = newSwap.state.value.asString,
                     role = newSwap.role.asString,
                     approveToFillState = newSwap.approvingToFillState.value.asString,
@@ -2088,13 +2399,26 @@ class OfferService (
                             newSwap.serviceFeeAmount
                     OfferDirection.SELL -> newSwap.securityDepositAmount + newSwap.serviceFeeAmount
                 }
-                logger.info("takeOffer: authorizing transfer for ${offerToTake.id}. Amount: " +
-                        "$tokenAmountForTakingOffer")
-                blockchainService.approveTokenTransferAsync(
-                    tokenAddress = newSwap.stablecoin,
-                    destinationAddress = blockchainService.getCommutoSwapAddress(),
-                    amount = tokenAmountForTakingOffer,
-                ).await()
+                if (blockchainService.reserveTokenAllowance(
+                        tokenAddress = newSwap.stablecoin,
+                        amount = tokenAmountForTakingOffer,
+                        purpose = TokenTransferApprovalPurpose.TAKE_OFFER,
+                        id = offerToTake.id,
+                    )) {
+                    isAllowanceReserved = true
+                    logger.info("takeOffer: allowance already covers transfer for ${offerToTake.id}. Amount: " +
+                            "$tokenAmountForTakingOffer")
+                } else {
+                    logger.info("takeOffer: authorizing transfer for ${offerToTake.id}. Amount: " +
+                            "$tokenAmountForTakingOffer")
+                    isAllowanceReserved = true
+                    blockchainService.approveAndReserveTokenAllowance(
+                        tokenAddress = newSwap.stablecoin,
+                        amount = tokenAmountForTakingOffer,
+                        purpose = TokenTransferApprovalPurpose.TAKE_OFFER,
+                        id = offerToTake.id,
+                    )
+                }
                 afterTransferApproval?.invoke()
                 logger.info("takeOffer: taking ${offerToTake.id}")
                 blockchainService.takeOfferAsync(
@@ -2102,10 +2426,13 @@ class OfferService (
                     swapStruct = newSwap.toSwapStruct()
                 ).await()
                 logger.info("takeOffer: took ${offerToTake.id}")
+                // The transfer made by taking the offer frees the reserved allowance
+                isAllowanceReserved = false
+                blockchainService.settleTokenAllowance(TokenTransferApprovalPurpose.TAKE_OFFER, offerToTake.id)
                 offerToTake.state = OfferState.TAKEN
                 databaseService.updateOfferState(
-                    offerID = offerIDB64String,
-                    chainID = offerToTake.chainID.toString(),
+                    offerID = offerToTake.id,
+                    chainID = offerToTake.chainID,
                     state = OfferState.TAKEN.asString
                 )
                 /*
@@ -2114,34 +2441,49 @@ class OfferService (
                  */
                 newSwap.state.value = SwapState.TAKE_OFFER_TRANSACTION_SENT
                 databaseService.updateSwapState(
-                    swapID = offerIDB64String,
-                    chainID = newSwap.chainID.toString(),
+                    swapID = offerToTake.id,
+                    chainID = newSwap.chainID,
                     state = SwapState.TAKE_OFFER_TRANSACTION_SENT.asString
                 )
                 logger.info("takeOffer: adding ${newSwap.id} to swapTruthSource and removing " +
                         "${offerToTake.id} from offerTruthSource")
                 withContext(Dispatchers.Main) {
+                    swapService.attachSwapToTransactionHashIndex(swap = newSwap)
                     swapTruthSource.addSwap(swap = newSwap)
                     offerToTake.isTaken.value = true
+                    offerToTake.transactionHashIndex = null
                     offerTruthSource.removeOffer(id = offerToTake.id)
                 }
-                logger.info("takeOffer: removing offer ${offerToTake.id} and its settlement methods from persistent " +
-                        "storage")
-                databaseService.deleteOffers(
-                    offerID = offerIDB64String,
-                    chainID = offerToTake.chainID.toString()
-                )
-                databaseService.deleteOfferSettlementMethods(
-                    offerID = offerIDB64String,
-                    chainID = offerToTake.chainID.toString()
+                logger.info("takeOffer: archiving offer ${offerToTake.id} and removing its settlement methods from " +
+                        "persistent storage")
+                databaseService.archiveOffer(
+                    offerID = offerToTake.id,
+                    chainID = offerToTake.chainID
                 )
             } catch (exception: Exception) {
                 logger.error("takeOffer: encountered exception during call for ${offerToTake.id}", exception)
+                if (isAllowanceReserved) {
+                    blockchainService.releaseTokenAllowance(TokenTransferApprovalPurpose.TAKE_OFFER, offerToTake.id)
+                }
                 throw exception
             }
         }
     }
 
+    /**
+     * Finds the offer in [offerTruthSource] to which the [BlockchainTransaction] with hash [transactionHash] and type
+     * [type] is attached, using [offerTransactionHashIndex]. Every offer in [offerTruthSource] is attached to the index
+     * when it is added, so if the transaction is not indexed, no offer in [offerTruthSource] has it attached.
+     *
+     * @param transactionHash The hash of the transaction.
+     * @param type The [BlockchainTransactionType] of the transaction.
+     *
+     * @return The [Offer] to which the transaction is attached, or `null` if no such offer is in [offerTruthSource].
+     */
+    private fun findOfferByTransaction(transactionHash: String, type: BlockchainTransactionType): Offer? {
+        return offerTransactionHashIndex[transactionHash, type]?.takeIf { offerTruthSource.offers[it.id] === it }
+    }
+
     /**
      * The function called by [BlockchainService] to notify [OfferService] that a monitored offer-related
      * [BlockchainTransaction] has failed (either has been confirmed and failed, or has been dropped.)
@@ -2196,29 +2538,24 @@ class OfferService (
     ) {
         logger.warn("handleFailedTransaction: handling ${transaction.transactionHash} of type ${transaction.type
             .asString} with exception ${exception.message}", exception)
-        val encoder = Base64.getEncoder()
         when (transaction.type) {
             BlockchainTransactionType.APPROVE_TOKEN_TRANSFER_TO_OPEN_OFFER -> {
-                offerTruthSource.offers.firstNotNullOfOrNull { uuidOfferEntry ->
-                    if (uuidOfferEntry.value.approvingToOpenTransaction?.transactionHash
-                            .equals(transaction.transactionHash)) {
-                        uuidOfferEntry.value
-                    } else {
-                        null
-                    }
-                }?.let { offer ->
+                findOfferByTransaction(
+                    transactionHash = transaction.transactionHash,
+                    type = BlockchainTransactionType.APPROVE_TOKEN_TRANSFER_TO_OPEN_OFFER
+                )?.let { offer ->
                     logger.warn("handleFailedTransaction: found offer ${offer.id} on ${offer.chainID} with approving " +
                             "to open transaction ${transaction.transactionHash}, updating state to ${OfferState
                                 .TRANSFER_APPROVAL_FAILED.asString} and approvingToOpenState to " +
                             "${TokenTransferApprovalState.EXCEPTION.asString} in persistent storage")
                     databaseService.updateOfferState(
-                        offerID = encoder.encodeToString(offer.id.asByteArray()),
-                        chainID = offer.chainID.toString(),
+                        offerID = offer.id,
+                        chainID = offer.chainID,
                         state = OfferState.TRANSFER_APPROVAL_FAILED.asString,
                     )
                     databaseService.updateOfferApproveToOpenState(
-                        offerID = encoder.encodeToString(offer.id.asByteArray()),
-                        chainID = offer.chainID.toString(),
+                        offerID = offer.id,
+                        chainID = offer.chainID,
                         state = TokenTransferApprovalState.EXCEPTION.asString
                     )
                     logger.warn("handleFailedTransaction: setting state to ${OfferState.TRANSFER_APPROVAL_FAILED
@@ -2235,26 +2572,22 @@ class OfferService (
                 }
             }
             BlockchainTransactionType.OPEN_OFFER -> {
-                offerTruthSource.offers.firstNotNullOfOrNull { uuidOfferEntry ->
-                    if (uuidOfferEntry.value.offerOpeningTransaction?.transactionHash
-                            .equals(transaction.transactionHash)) {
-                        uuidOfferEntry.value
-                    } else {
-                        null
-                    }
-                }?.let { offer ->
+                findOfferByTransaction(
+                    transactionHash = transaction.transactionHash,
+                    type = BlockchainTransactionType.OPEN_OFFER
+                )?.let { offer ->
                     logger.warn("handleFailedTransaction: found offer ${offer.id} on ${offer.chainID} with offer " +
                             "opening transaction ${transaction.transactionHash}, updating state to ${OfferState
                                 .AWAITING_OPENING.asString} and openingOfferState to ${OpeningOfferState.EXCEPTION
                                 .asString} in persistent storage")
                     databaseService.updateOfferState(
-                        offerID = encoder.encodeToString(offer.id.asByteArray()),
-                        chainID = offer.chainID.toString(),
+                        offerID = offer.id,
+                        chainID = offer.chainID,
                         state = OfferState.AWAITING_OPENING.asString,
                     )
                     databaseService.updateOpeningOfferState(
-                        offerID = encoder.encodeToString(offer.id.asByteArray()),
-                        chainID = offer.chainID.toString(),
+                        offerID = offer.id,
+                        chainID = offer.chainID,
                         state = TokenTransferApprovalState.EXCEPTION.asString
                     )
                     logger.warn("handleFailedTransaction: setting state to ${OfferState.AWAITING_OPENING
@@ -2271,21 +2604,17 @@ class OfferService (
                 }
             }
             BlockchainTransactionType.CANCEL_OFFER -> {
-                val offer = offerTruthSource.offers.firstNotNullOfOrNull { uuidOfferEntry ->
-                    if (uuidOfferEntry.value.offerCancellationTransaction?.transactionHash
-                        .equals(transaction.transactionHash)) {
-                        uuidOfferEntry.value
-                    } else {
-                        null
-                    }
-                }
+                val offer = findOfferByTransaction(
+                    transactionHash = transaction.transactionHash,
+                    type = BlockchainTransactionType.CANCEL_OFFER
+                )
                 if (offer != null) {
                     logger.warn("handleFailedTransaction: found offer ${offer.id} on ${offer.chainID} with " +
                             "cancellation transaction ${transaction.transactionHash} updating cancelingOfferState to " +
                             "EXCEPTION in persistent storage")
                     databaseService.updateCancelingOfferState(
-                        offerID = encoder.encodeToString(offer.id.asByteArray()),
-                        chainID = offer.chainID.toString(),
+                        offerID = offer.id,
+                        chainID = offer.chainID,
                         state = CancelingOfferState.EXCEPTION.asString,
                     )
                     logger.warn("handleFailedTransaction: setting cancelingOfferException and updating " +
@@ -2300,21 +2629,17 @@ class OfferService (
                 }
             }
             BlockchainTransactionType.EDIT_OFFER -> {
-                val offer = offerTruthSource.offers.firstNotNullOfOrNull { uuidOfferEntry ->
-                    if (uuidOfferEntry.value.offerEditingTransaction?.transactionHash
-                        .equals(transaction.transactionHash)) {
-                        uuidOfferEntry.value
-                    } else {
-                        null
-                    }
-                }
+                val offer = findOfferByTransaction(
+                    transactionHash = transaction.transactionHash,
+                    type = BlockchainTransactionType.EDIT_OFFER
+                )
                 if (offer != null) {
                     logger.warn("handleFailedTransaction: found offer ${offer.id} on ${offer.chainID} with editing " +
                             "transaction ${transaction.transactionHash}, updating editingOfferState to EXCEPTION in " +
                             "persistent storage")
                     databaseService.updateEditingOfferState(
-                        offerID = encoder.encodeToString(offer.id.asByteArray()),
-                        chainID = offer.chainID.toString(),
+                        offerID = offer.id,
+                        chainID = offer.chainID,
                         state = EditingOfferState.EXCEPTION.asString,
                     )
                     logger.warn("handleFailedTransaction: setting editingOfferException and updating " +
@@ -2326,8 +2651,8 @@ class OfferService (
                     }
                     logger.warn("handleFailedTransaction: deleting pending settlement methods for ${offer.id}")
                     databaseService.deletePendingOfferSettlementMethods(
-                        offerID = encoder.encodeToString(offer.id.asByteArray()),
-                        chainID = offer.chainID.toString()
+                        offerID = offer.id,
+                        chainID = offer.chainID
                     )
                 } else {
                     logger.warn("handleFailedTransaction: offer with editing transaction ${transaction
@@ -2335,20 +2660,16 @@ class OfferService (
                 }
             }
             BlockchainTransactionType.APPROVE_TOKEN_TRANSFER_TO_TAKE_OFFER -> {
-                offerTruthSource.offers.firstNotNullOfOrNull { uuidOfferEntry ->
-                    if (uuidOfferEntry.value.approvingToTakeTransaction?.transactionHash
-                            .equals(transaction.transactionHash)) {
-                        uuidOfferEntry.value
-                    } else {
-                        null
-                    }
-                }?.let { offer ->
+                findOfferByTransaction(
+                    transactionHash = transaction.transactionHash,
+                    type = BlockchainTransactionType.APPROVE_TOKEN_TRANSFER_TO_TAKE_OFFER
+                )?.let { offer ->
                     logger.warn("handleFailedTransaction: found offer ${offer.id} on ${offer.chainID} with " +
                             "approving to take transaction ${transaction.transactionHash}, updating " +
                             "approvingToTakeState to exception in persistent storage")
                     databaseService.updateOfferApproveToTakeState(
-                        offerID = encoder.encodeToString(offer.id.asByteArray()),
-                        chainID = offer.chainID.toString(),
+                        offerID = offer.id,
+                        chainID = offer.chainID,
                         state = TokenTransferApprovalState.EXCEPTION.asString,
                     )
                     logger.warn("handleFailedTransaction: setting approvingToTakeException and updating " +
@@ -2363,20 +2684,16 @@ class OfferService (
                 }
             }
             BlockchainTransactionType.TAKE_OFFER -> {
-                offerTruthSource.offers.firstNotNullOfOrNull { uuidOfferEntry ->
-                    if (uuidOfferEntry.value.takingOfferTransaction?.transactionHash
-                            .equals(transaction.transactionHash)) {
-                        uuidOfferEntry.value
-                    } else {
-                        null
-                    }
-                }?.let { offer ->
+                findOfferByTransaction(
+                    transactionHash = transaction.transactionHash,
+                    type = BlockchainTransactionType.TAKE_OFFER
+                )?.let { offer ->
                     logger.warn("handleFailedTransaction: found offer ${offer.id} on ${offer.chainID} with " +
                             "offer taking transaction ${transaction.transactionHash}, updating takingOfferState to " +
                             "${TakingOfferState.EXCEPTION.asString} in persistent storage")
                     databaseService.updateTakingOfferState(
-                        offerID = encoder.encodeToString(offer.id.asByteArray()),
-                        chainID = offer.chainID.toString(),
+                        offerID = offer.id,
+                        chainID = offer.chainID,
                         state = TakingOfferState.EXCEPTION.asString,
                     )
                     logger.warn("handleFailedTransaction: setting takingOfferException and updating " +
@@ -2386,18 +2703,12 @@ class OfferService (
                         offer.takingOfferState.value = TakingOfferState.EXCEPTION
                     }
                     logger.warn("handleFailedTransaction: searching for swap ${offer.id}")
-                    swapTruthSource.swaps.firstNotNullOfOrNull { uuidSwapEntry ->
-                        if (uuidSwapEntry.value.id == offer.id && uuidSwapEntry.value.chainID == offer.chainID) {
-                            uuidSwapEntry.value
-                        } else {
-                            null
-                        }
-                    }?.let { swap ->
+                    swapTruthSource.swaps[offer.id]?.takeIf { it.chainID == offer.chainID }?.let { swap ->
                         logger.warn("handleFailedTransaction: found swap ${swap.id} on ${swap.chainID}, " +
                                 "updating state to ${SwapState.TAKE_OFFER_TRANSACTION_FAILED.asString}")
                         databaseService.updateSwapState(
-                            swapID = encoder.encodeToString(swap.id.asByteArray()),
-                            chainID = swap.chainID.toString(),
+                            swapID = swap.id,
+                            chainID = swap.chainID,
                             state = SwapState.TAKE_OFFER_TRANSACTION_FAILED.asString
                         )
                         logger.warn("handleFailedTransaction: updating state to ${SwapState
@@ -2444,30 +2755,25 @@ class OfferService (
     override suspend fun handleTokenTransferApprovalEvent(event: ApprovalEvent) {
         logger.info("handleTokenTransferApprovalEvent: handling event with tx hash ${event.transactionHash} " +
                 "and purpose ${event.purpose.asString}")
-        val encoder = Base64.getEncoder()
         when (event.purpose) {
             TokenTransferApprovalPurpose.OPEN_OFFER -> {
-                offerTruthSource.offers.firstNotNullOfOrNull { uuidOfferEntry ->
-                    if (uuidOfferEntry.value.approvingToOpenTransaction?.transactionHash
-                            .equals(event.transactionHash)) {
-                        uuidOfferEntry.value
-                    } else {
-                        null
-                    }
-                }?.let { offer ->
+                findOfferByTransaction(
+                    transactionHash = event.transactionHash,
+                    type = BlockchainTransactionType.APPROVE_TOKEN_TRANSFER_TO_OPEN_OFFER
+                )?.let { offer ->
                     logger.info("handleTokenTransferApprovalEvent: found offer ${offer.id} with " +
                             "approvingToOpen tx hash ${event.transactionHash}, persistently updating state to " +
                             "${OfferState.AWAITING_OPENING.asString} and approvingToOpenState to " +
                             TokenTransferApprovalState.COMPLETED.asString
                     )
                     databaseService.updateOfferState(
-                        offerID = encoder.encodeToString(offer.id.asByteArray()),
-                        chainID = offer.chainID.toString(),
+                        offerID = offer.id,
+                        chainID = offer.chainID,
                         state = OfferState.AWAITING_OPENING.asString,
                     )
                     databaseService.updateOfferApproveToOpenState(
-                        offerID = encoder.encodeToString(offer.id.asByteArray()),
-                        chainID = offer.chainID.toString(),
+                        offerID = offer.id,
+                        chainID = offer.chainID,
                         state = TokenTransferApprovalState.COMPLETED.asString
                     )
                     logger.info("handleTokenTransferApprovalEvent: updating state to ${OfferState
@@ -2483,21 +2789,17 @@ class OfferService (
                 }
             }
             TokenTransferApprovalPurpose.TAKE_OFFER -> {
-                offerTruthSource.offers.firstNotNullOfOrNull { uuidOfferEntry ->
-                    if (uuidOfferEntry.value.approvingToTakeTransaction?.transactionHash
-                            .equals(event.transactionHash)) {
-                        uuidOfferEntry.value
-                    } else {
-                        null
-                    }
-                }?.let { offer ->
+                findOfferByTransaction(
+                    transactionHash = event.transactionHash,
+                    type = BlockchainTransactionType.APPROVE_TOKEN_TRANSFER_TO_TAKE_OFFER
+                )?.let { offer ->
                     logger.info("handleTokenTransferApprovalEvent: found offer ${offer.id} with " +
                             "approvingToTake tx hash ${event.transactionHash}, persistently updating " +
                             "approvingToTakeState to completed"
                     )
                     databaseService.updateOfferApproveToTakeState(
-                        offerID = encoder.encodeToString(offer.id.asByteArray()),
-                        chainID = offer.chainID.toString(),
+                        offerID = offer.id,
+                        chainID = offer.chainID,
                         state = TokenTransferApprovalState.COMPLETED.asString
                     )
                     logger.info("handleTokenTransferApprovalEvent: updating approvingToTakeState to completed for " +
@@ -2522,7 +2824,8 @@ class OfferService (
      * the offer data match, and then checks if the offer with the ID and chain ID specified in [event] exists in
      * [offerTruthSource]. If it does and if the user is the maker of said offer, than this gets retrieves the
      * user's/maker's key pair, persistently updates the offer's state to [OfferState.AWAITING_PUBLIC_KEY_ANNOUNCEMENT],
-     * and persistently updates the offer's opening offer state to [OpeningOfferState.COMPLETED]. Then, on the main
+     * persistently updates the offer's opening offer state to [OpeningOfferState.COMPLETED], and settles the allowance
+     * reserved for opening the offer with [BlockchainService.settleTokenAllowance]. Then, on the main
      * coroutine dispatcher, this sets the [Offer.state] property of the offer to
      * [OfferState.AWAITING_PUBLIC_KEY_ANNOUNCEMENT] and the [Offer.openingOfferState] property to
      * [OpeningOfferState.COMPLETED]. Then this announces the user's/maker's public key. Finally, this updates the
@@ -2535,6 +2838,12 @@ class OfferService (
      * in [offerTruthSource] and whether the user is the maker of such an offer, this removes [event] from
      * [offerOpenedEventRepository].
      *
+     * If [lazyOfferHydration] is `true` and no offer with the ID specified in [event] exists in [offerTruthSource],
+     * then the offer was made by another user, so instead of getting its on-chain data, this only persistently stores
+     * and adds [event] to [pendingOffers] and adds the offer to [offerTruthSource] as a pending offer on the main
+     * coroutine dispatcher, and then removes [event] from [offerOpenedEventRepository]. The on-chain data of the offer
+     * is retrieved when it is requested via [requestOfferDetails] or [requestPendingOfferDetails].
+     *
      * @param event The [OfferOpenedEvent] of which [OfferService] is being notified.
      *
      * @throws [OfferServiceException] if the chain ID of [event] doesn't match the chain ID of the offer obtained from
@@ -2546,6 +2855,23 @@ class OfferService (
     ) {
         logger.info("handleOfferOpenedEvent: handling event for offer ${event.offerID}")
         offerOpenedEventRepository.append(event)
+        val offer = offerTruthSource.offers[event.offerID]
+        if (lazyOfferHydration && offer == null) {
+            logger.info("handleOfferOpenedEvent: deferring retrieval of offer ${event.offerID} until it is needed")
+            databaseService.storePendingOffer(
+                DatabasePendingOffer(
+                    id = event.offerID,
+                    chainID = event.chainID,
+                    interfaceID = Base64.getEncoder().encodeToString(event.interfaceID),
+                )
+            )
+            pendingOffers[event.offerID] = event
+            withContext(Dispatchers.Main) {
+                offerTruthSource.addPendingOffer(id = event.offerID, chainID = event.chainID)
+            }
+            offerOpenedEventRepository.remove(event)
+            return
+        }
         val encoder = Base64.getEncoder()
         val offerStruct = blockchainService.getOffer(event.offerID)
         if (offerStruct == null) {
@@ -2559,7 +2885,6 @@ class OfferService (
                     "handleOfferOpenedEvent call. OfferOpenedEvent.chainID: ${event.chainID}, " +
                     "OfferStruct.chainID: ${offerStruct.chainID}, OfferOpenedEvent.offerID: ${event.offerID}")
         }
-        val offer = offerTruthSource.offers[event.offerID]
         if (offer != null && offer.chainID == event.chainID && offer.isUserMaker) {
             logger.info("handleOfferOpenedEvent: offer ${event.offerID} made by the user")
             // The user of this interface is the maker of this offer, so we must announce the public key.
@@ -2570,16 +2895,21 @@ class OfferService (
             logger.info("handleOfferOpenedEvent: persistently updating state of ${offer.id} to ${OfferState
                 .AWAITING_PUBLIC_KEY_ANNOUNCEMENT.asString} and updating openingOfferState to ${OpeningOfferState
                 .COMPLETED.asString}")
-            databaseService.updateOfferState(
-                offerID = encoder.encodeToString(event.offerID.asByteArray()),
-                chainID = event.chainID.toString(),
-                state = OfferState.AWAITING_PUBLIC_KEY_ANNOUNCEMENT.asString
-            )
-            databaseService.updateOpeningOfferState(
-                offerID = encoder.encodeToString(event.offerID.asByteArray()),
-                chainID = event.chainID.toString(),
-                state = OpeningOfferState.COMPLETED.asString
-            )
+            // Commit both updates in a single transaction
+            databaseService.batchWrites {
+                databaseService.updateOfferState(
+                    offerID = event.offerID,
+                    chainID = event.chainID,
+                    state = OfferState.AWAITING_PUBLIC_KEY_ANNOUNCEMENT.asString
+                )
+                databaseService.updateOpeningOfferState(
+                    offerID = event.offerID,
+                    chainID = event.chainID,
+                    state = OpeningOfferState.COMPLETED.asString
+                )
+            }
+            // The transfer made by opening the offer frees the reserved allowance
+            blockchainService.settleTokenAllowance(TokenTransferApprovalPurpose.OPEN_OFFER, event.offerID)
             logger.info("handleOfferOpenedEvent: updating state of ${offer.id} to ${OfferState
                 .AWAITING_PUBLIC_KEY_ANNOUNCEMENT.asString} and openingOfferState to ${OpeningOfferState.COMPLETED
                 .asString}")
@@ -2593,8 +2923,8 @@ class OfferService (
             logger.info("handleOfferOpenedEvent: persistently updating state of ${offer.id} to ${OfferState
                 .OFFER_OPENED.asString}")
             databaseService.updateOfferState(
-                offerID = encoder.encodeToString(event.offerID.asByteArray()),
-                chainID = event.chainID.toString(),
+                offerID = event.offerID,
+                chainID = event.chainID,
                 state = OfferState.OFFER_OPENED.asString
             )
             logger.info("updating state of ${offer.id} to ${OfferState.OFFER_OPENED.asString}")
@@ -2604,91 +2934,279 @@ class OfferService (
         } else {
             logger.info("handleOfferOpenedEvent: offer ${event.offerID} not made by the user")
             // The user of this interface is not the maker of this offer, so we treat it as a new offer.
-            val havePublicKey = (keyManagerService.getPublicKey(offerStruct.interfaceID) != null)
-            logger.info("handleOfferOpenedEvent: havePublicKey for offer ${event.offerID}: $havePublicKey")
-            val offerState: OfferState = if (havePublicKey) {
-                OfferState.OFFER_OPENED
-            } else {
-                OfferState.AWAITING_PUBLIC_KEY_ANNOUNCEMENT
+            addOfferFromChain(event = event, offerStruct = offerStruct)
+        }
+        offerOpenedEventRepository.remove(event)
+    }
+
+    /**
+     * Creates a new [Offer] made by another user from [offerStruct], checks if [keyManagerService] has the maker's
+     * public key and sets the [Offer]'s [Offer.havePublicKey] and [Offer.state] properties accordingly, persistently
+     * stores the new offer and its settlement methods, and then adds the new [Offer] to [offerTruthSource] on the main
+     * coroutine dispatcher.
+     *
+     * @param event The [OfferOpenedEvent] emitted when the offer was opened.
+     * @param offerStruct The on-chain data of the offer, which must have the same chain ID as [event].
+     */
+    private suspend fun addOfferFromChain(event: OfferOpenedEvent, offerStruct: OfferStruct) {
+        val encoder = Base64.getEncoder()
+        val havePublicKey = (keyManagerService.getPublicKey(offerStruct.interfaceID) != null)
+        logger.info("addOfferFromChain: havePublicKey for offer ${event.offerID}: $havePublicKey")
+        val offerState: OfferState = if (havePublicKey) {
+            OfferState.OFFER_OPENED
+        } else {
+            OfferState.AWAITING_PUBLIC_KEY_ANNOUNCEMENT
+        }
+        val newOffer = Offer.fromOnChainData(
+            isCreated = offerStruct.isCreated,
+            isTaken = offerStruct.isTaken,
+            id = event.offerID,
+            maker = offerStruct.maker,
+            interfaceId = offerStruct.interfaceID,
+            stablecoin = offerStruct.stablecoin,
+            amountLowerBound = offerStruct.amountLowerBound,
+            amountUpperBound = offerStruct.amountUpperBound,
+            securityDepositAmount = offerStruct.securityDepositAmount,
+            serviceFeeRate = offerStruct.serviceFeeRate,
+            onChainDirection = offerStruct.direction,
+            onChainSettlementMethods = offerStruct.settlementMethods,
+            protocolVersion = offerStruct.protocolVersion,
+            chainID = offerStruct.chainID,
+            havePublicKey = havePublicKey,
+            isUserMaker = false,
+            state = offerState
+        )
+        val offerForDatabase = DatabaseOffer(
+            isCreated = if (offerStruct.isCreated) 1L else 0L,
+            isTaken = if (offerStruct.isTaken) 1L else 0L,
+            id = newOffer.id,
+            maker = newOffer.maker,
+            interfaceId = encoder.encodeToString(newOffer.interfaceID),
+            stablecoin = newOffer.stablecoin,
+            amountLowerBound = newOffer.amountLowerBound,
+            amountUpperBound = newOffer.amountUpperBound,
+            securityDepositAmount = newOffer.securityDepositAmount,
+            serviceFeeRate = newOffer.serviceFeeRate,
+            onChainDirection = newOffer.onChainDirection.toString(),
+            protocolVersion = newOffer.protocolVersion.toString(),
+            chainID = newOffer.chainID,
+            havePublicKey = if (newOffer.havePublicKey) 1L else 0L,
+            isUserMaker = if (newOffer.isUserMaker) 1L else 0L,
+            state = newOffer.state.asString,
+            approveToOpenState = TokenTransferApprovalState.NONE.asString,
+            approveToOpenTransactionHash = null,
+            approveToOpenTransactionCreationTime = null,
+            approveToOpenTransactionCreationBlockNumber = null,
+            openingOfferState = OpeningOfferState.NONE.asString,
+            openingOfferTransactionHash = null,
+            openingOfferTransactionCreationTime = null,
+            openingOfferTransactionCreationBlockNumber = null,
+            cancelingOfferState = CancelingOfferState.NONE.asString,
+            offerCancellationTransactionHash = null,
+            offerCancellationTransactionCreationTime = null,
+            offerCancellationTransactionCreationBlockNumber = null,
+            editingOfferState = EditingOfferState.NONE.asString,
+            offerEditingTransactionHash = null,
+            offerEditingTransactionCreationTime = null,
+            offerEditingTransactionCreationBlockNumber = null,
+            approveToTakeState = TokenTransferApprovalState.NONE.asString,
+            approveToTakeTransactionHash = null,
+            approveToTakeTransactionCreationTime = null,
+            approveToTakeTransactionCreationBlockNumber = null,
+            takingOfferState = TakingOfferState.NONE.asString,
+            takingOfferTransactionHash = null,
+            takingOfferTransactionCreationTime = null,
+            takingOfferTransactionCreationBlockNumber = null
+        )
+        logger.info("addOfferFromChain: persistently storing ${newOffer.id}")
+        databaseService.storeOffer(offerForDatabase)
+        logger.info("addOfferFromChain: persistently storing settlement methods for ${newOffer.id}")
+        val settlementMethodStrings = newOffer.onChainSettlementMethods.map {
+            Pair(encoder.encodeToString(it), null)
+        }
+        databaseService.storeOfferSettlementMethods(
+            offerID = offerForDatabase.id,
+            chainID = offerForDatabase.chainID,
+            settlementMethods = settlementMethodStrings,
+        )
+        logger.info("addOfferFromChain: adding offer ${newOffer.id} to offerTruthSource")
+        withContext(Dispatchers.Main) {
+            addOfferToTruthSource(newOffer)
+        }
+    }
+
+    /**
+     * Requests that the on-chain data of the offer in [pendingOffers] with an ID equal to [offerID] be retrieved,
+     * because the offer has become visible to or been focused by the user. If there is no such offer, this does
+     * nothing. Otherwise, this adds [offerID] to [offerPrefetchQueue] and starts retrieving the offers in that queue
+     * via [startPrefetchingOffers].
+     *
+     * @param offerID The ID of the pending offer of which to retrieve the on-chain data.
+     */
+    fun requestOfferDetails(offerID: UUID) {
+        if (!pendingOffers.containsKey(offerID)) {
+            return
+        }
+        synchronized(offerPrefetchQueue) {
+            // Move the ID to the end of the queue, since it is now the most recently requested
+            offerPrefetchQueue.remove(offerID)
+            offerPrefetchQueue.add(offerID)
+            if (offerPrefetchQueue.size > OFFER_PREFETCH_QUEUE_CAPACITY) {
+                offerPrefetchQueue.remove(offerPrefetchQueue.first())
             }
-            val newOffer = Offer.fromOnChainData(
-                isCreated = offerStruct.isCreated,
-                isTaken = offerStruct.isTaken,
-                id = event.offerID,
-                maker = offerStruct.maker,
-                interfaceId = offerStruct.interfaceID,
-                stablecoin = offerStruct.stablecoin,
-                amountLowerBound = offerStruct.amountLowerBound,
-                amountUpperBound = offerStruct.amountUpperBound,
-                securityDepositAmount = offerStruct.securityDepositAmount,
-                serviceFeeRate = offerStruct.serviceFeeRate,
-                onChainDirection = offerStruct.direction,
-                onChainSettlementMethods = offerStruct.settlementMethods,
-                protocolVersion = offerStruct.protocolVersion,
-                chainID = offerStruct.chainID,
-                havePublicKey = havePublicKey,
-                isUserMaker = false,
-                state = offerState
-            )
-            val offerForDatabase = DatabaseOffer(
-                isCreated = if (offerStruct.isCreated) 1L else 0L,
-                isTaken = if (offerStruct.isTaken) 1L else 0L,
-                id = encoder.encodeToString(newOffer.id.asByteArray()),
-                maker = newOffer.maker,
-                interfaceId = encoder.encodeToString(newOffer.interfaceID),
-                stablecoin = newOffer.stablecoin,
-                amountLowerBound = newOffer.amountLowerBound.toString(),
-                amountUpperBound = newOffer.amountUpperBound.toString(),
-                securityDepositAmount = newOffer.securityDepositAmount.toString(),
-                serviceFeeRate = newOffer.serviceFeeRate.toString(),
-                onChainDirection = newOffer.onChainDirection.toString(),
-                protocolVersion = newOffer.protocolVersion.toString(),
-                chainID = newOffer.chainID.toString(),
-                havePublicKey = if (newOffer.havePublicKey) 1L else 0L,
-                isUserMaker = if (newOffer.isUserMaker) 1L else 0L,
-                state = newOffer.state.asString,
-                approveToOpenState = newOffer.approvingToOpenState.value.asString,
-                approveToOpenTransactionHash = null,
-                approveToOpenTransactionCreationTime = null,
-                approveToOpenTransactionCreationBlockNumber = null,
-                openingOfferState = newOffer.openingOfferState.value.asString,
-                openingOfferTransactionHash = null,
-                openingOfferTransactionCreationTime = null,
-                openingOfferTransactionCreationBlockNumber = null,
-                cancelingOfferState = newOffer.cancelingOfferState.value.asString,
-                offerCancellationTransactionHash = null,
-                offerCancellationTransactionCreationTime = null,
-                offerCancellationTransactionCreationBlockNumber = null,
-                editingOfferState = newOffer.editingOfferState.value.asString,
-                offerEditingTransactionHash = null,
-                offerEditingTransactionCreationTime = null,
-                offerEditingTransactionCreationBlockNumber = null,
-                approveToTakeState = newOffer.approvingToTakeState.value.asString,
-                approveToTakeTransactionHash = null,
-                approveToTakeTransactionCreationTime = null,
-                approveToTakeTransactionCreationBlockNumber = null,
-                takingOfferState = newOffer.takingOfferState.value.asString,
-                takingOfferTransactionHash = null,
-                takingOfferTransactionCreationTime = null,
-                takingOfferTransactionCreationBlockNumber = null
-            )
-            logger.info("handleOfferOpenedEvent: persistently storing ${newOffer.id}")
-            databaseService.storeOffer(offerForDatabase)
-            logger.info("handleOfferOpenedEvent: persistently storing settlement methods for ${newOffer.id}")
-            val settlementMethodStrings = newOffer.onChainSettlementMethods.map {
-                Pair(encoder.encodeToString(it), null)
+        }
+        startPrefetchingOffers()
+    }
+
+    /**
+     * Requests that the on-chain data of every offer in [pendingOffers] on the blockchain with an ID equal to [chainID]
+     * be retrieved, because a query of the order book covered the market of those offers and so cannot be answered
+     * fully until they are retrieved. This adds the IDs of those offers to [offerPrefetchBacklog] and starts
+     * retrieving them via [startPrefetchingOffers]. Offers requested via [requestOfferDetails] are retrieved first,
+     * since the user is looking at them.
+     *
+     * @param chainID The ID of the blockchain of the market that was queried.
+     */
+    fun requestPendingOfferDetails(chainID: BigInteger) {
+        val offerIDs = pendingOffers.values.filter { it.chainID == chainID }.map { it.offerID }
+        if (offerIDs.isEmpty()) {
+            return
+        }
+        synchronized(offerPrefetchQueue) {
+            offerPrefetchBacklog.addAll(offerIDs)
+        }
+        startPrefetchingOffers()
+    }
+
+    /**
+     * Launches [OFFER_PREFETCH_CONCURRENCY] coroutines in [offerPrefetchScope] that retrieve the offers in
+     * [offerPrefetchQueue] and [offerPrefetchBacklog] if they have not already been launched, and wakes them.
+     */
+    private fun startPrefetchingOffers() {
+        if (isPrefetchingOffers.compareAndSet(false, true)) {
+            repeat(OFFER_PREFETCH_CONCURRENCY) {
+                offerPrefetchScope.launch {
+                    prefetchOffers()
+                }
             }
-            databaseService.storeOfferSettlementMethods(
-                offerID = offerForDatabase.id,
-                chainID = offerForDatabase.chainID,
-                settlementMethods = settlementMethodStrings,
-            )
-            logger.info("handleOfferOpenedEvent: adding offer ${newOffer.id} to offerTruthSource")
+        }
+        offerPrefetchSignal.trySend(Unit)
+    }
+
+    /**
+     * Repeatedly removes the most recently requested offer ID from [offerPrefetchQueue], or if that is empty, the least
+     * recently requested offer ID from [offerPrefetchBacklog], and retrieves the on-chain data of the corresponding
+     * offer via [hydratePendingOffer], waiting for [offerPrefetchSignal] whenever both are empty. Offers in
+     * [offerPrefetchQueue] are retrieved from most to least recently requested, since the user is most likely to still
+     * be looking at those requested most recently. Since [offerPrefetchSignal] wakes only one waiting coroutine, this
+     * signals it again whenever IDs remain after removing one, so that the other coroutines help retrieve them.
+     */
+    private suspend fun prefetchOffers() {
+        while (true) {
+            val offerID = synchronized(offerPrefetchQueue) {
+                (offerPrefetchQueue.lastOrNull() ?: offerPrefetchBacklog.firstOrNull())?.also {
+                    offerPrefetchQueue.remove(it)
+                    offerPrefetchBacklog.remove(it)
+                    if (offerPrefetchQueue.isNotEmpty() || offerPrefetchBacklog.isNotEmpty()) {
+                        offerPrefetchSignal.trySend(Unit)
+                    }
+                }
+            }
+            if (offerID == null) {
+                offerPrefetchSignal.receive()
+                continue
+            }
+            try {
+                hydratePendingOffer(offerID = offerID)
+            } catch (exception: Exception) {
+                logger.error("prefetchOffers: unable to retrieve pending offer $offerID", exception)
+            }
+        }
+    }
+
+    /**
+     * Retrieves the on-chain data of the offer in [pendingOffers] with an ID equal to [offerID] by calling
+     * [BlockchainService.getOffer], removes the offer from [pendingOffers] and, unless it was removed in the meantime,
+     * adds it to persistent storage and [offerTruthSource] via [addOfferFromChain]. Then this removes the offer from
+     * the persistently stored pending offers, and from the pending offers of [offerTruthSource] on the main coroutine
+     * dispatcher.
+     *
+     * @param offerID The ID of the pending offer of which to retrieve the on-chain data.
+     *
+     * @throws [OfferServiceException] if the chain ID of the offer's [OfferOpenedEvent] doesn't match the chain ID of
+     * the offer obtained from [BlockchainService.getOffer].
+     */
+    private suspend fun hydratePendingOffer(offerID: UUID) {
+        val event = pendingOffers[offerID] ?: return
+        logger.info("hydratePendingOffer: getting offer $offerID")
+        val offerStruct = blockchainService.getOffer(offerID)
+        // The offer may have been canceled, taken or retrieved by another coroutine in the meantime
+        if (!pendingOffers.remove(offerID, event)) {
+            logger.info("hydratePendingOffer: offer $offerID is no longer pending")
+            return
+        }
+        try {
+            if (offerStruct == null) {
+                logger.info("hydratePendingOffer: no on-chain offer was found with ID $offerID")
+                return
+            }
+            if (event.chainID != offerStruct.chainID) {
+                throw OfferServiceException("Chain ID of OfferOpenedEvent did not match chain ID of OfferStruct in " +
+                        "hydratePendingOffer call. OfferOpenedEvent.chainID: ${event.chainID}, " +
+                        "OfferStruct.chainID: ${offerStruct.chainID}, OfferOpenedEvent.offerID: $offerID")
+            }
+            addOfferFromChain(event = event, offerStruct = offerStruct)
+        } finally {
+            databaseService.deletePendingOffer(offerID = offerID, chainID = event.chainID)
             withContext(Dispatchers.Main) {
-                offerTruthSource.addOffer(newOffer)
+                offerTruthSource.removePendingOffer(id = offerID)
             }
         }
-        offerOpenedEventRepository.remove(event)
+    }
+
+    /**
+     * Removes the offer with an ID equal to [offerID] and a chain ID equal to [chainID] and its settlement methods from
+     * the active tables in persistent storage once it has been taken or canceled. If [isUserOffer] is `true`, the offer
+     * is archived so that it remains in the user's history. Otherwise, it is deleted, since offers made and taken by
+     * other users would otherwise fill the archive with every offer this interface has ever seen.
+     *
+     * @param offerID The ID of the offer that has been taken or canceled.
+     * @param chainID The ID of the blockchain on which the offer was taken or canceled.
+     * @param isUserOffer Whether the offer was made or taken by the user of this interface.
+     */
+    private suspend fun archiveOrDeleteOffer(offerID: UUID, chainID: BigInteger, isUserOffer: Boolean) {
+        if (isUserOffer) {
+            databaseService.archiveOffer(offerID = offerID, chainID = chainID)
+            logger.info("archiveOrDeleteOffer: archived offer $offerID and deleted its settlement methods from " +
+                    "persistent storage")
+        } else {
+            databaseService.deleteOffers(offerID = offerID, chainID = chainID)
+            databaseService.deleteOfferSettlementMethods(offerID = offerID, chainID = chainID)
+            logger.info("archiveOrDeleteOffer: deleted offer $offerID and its settlement methods from persistent " +
+                    "storage")
+        }
+    }
+
+    /**
+     * Removes the offer with an ID equal to [offerID] from [pendingOffers], from persistent storage, and from the
+     * pending offers of [offerTruthSource] on the main coroutine dispatcher, if it is pending on the blockchain with an
+     * ID equal to [chainID].
+     *
+     * @param offerID The ID of the offer that has been canceled or taken.
+     * @param chainID The ID of the blockchain on which the offer was canceled or taken.
+     *
+     * @return `true` if the offer was pending and has been removed, `false` otherwise.
+     */
+    private suspend fun discardPendingOffer(offerID: UUID, chainID: BigInteger): Boolean {
+        val event = pendingOffers[offerID]
+        if (event == null || event.chainID != chainID || !pendingOffers.remove(offerID, event)) {
+            return false
+        }
+        databaseService.deletePendingOffer(offerID = offerID, chainID = chainID)
+        withContext(Dispatchers.Main) {
+            offerTruthSource.removePendingOffer(id = offerID)
+        }
+        return true
     }
 
     /**
@@ -2706,21 +3224,25 @@ class OfferService (
      * (matching meaning that price, currency, and fiat currency values are equal; obviously on-chain settlement methods
      * will have no private data). If, for a given [SettlementMethod] in the latter list, a matching [SettlementMethod]
      * (which definitely has associated private data) is found in the former list, the matching element in the former
-     * list is added to a third list of [SettlementMethod]s. Then, this persistently stores the third list of new
-     * [SettlementMethod]s as the offer's settlement methods. Then this checks whether the corresponding [Offer] has a
+     * list is added to a third list of [SettlementMethod]s. Then, this persistently replaces those of the offer's
+     * settlement methods that differ from the third list of new [SettlementMethod]s via
+     * [DatabaseService.updateOfferSettlementMethods]. Then this checks whether the corresponding [Offer] has a
      * non-`null` [Offer.offerEditingTransaction] property. If it does, then this compares the transaction hash of the
      * value of that property to that of [event]. If they match, this sets a flag indicating that these transaction
      * hashes match. If this flag is set, this persistently updates [Offer]s [Offer.editingOfferState] property to
      * [EditingOfferState.COMPLETED]. Then, on the main coroutine dispatcher, if the matching transaction hash flag has
      * been set, this updates the corresponding [Offer]'s [Offer.editingOfferState] to [EditingOfferState.COMPLETED] and
      * clears the [Offer]'s [Offer.selectedSettlementMethods] list. Then, still on the main coroutine dispatcher,
-     * regardless of the status of the flag, this sets the corresponding [Offer]'s settlement methods equal to the
-     * contents of the third list of new [SettlementMethod]s.
+     * regardless of the status of the flag, if any settlement methods changed, this sets the corresponding [Offer]'s
+     * settlement methods equal to the contents of the third list of new [SettlementMethod]s.
      *
-     * If the user of this interface is not the maker of the offer being edited, this creates a new list of
-     * [SettlementMethod]s by deserializing the settlement method data in the new on-chain offer data, persistently
-     * stores the list of new [SettlementMethod]`s as the offer's settlement methods, and sets the corresponding
-     * [Offer]'s settlement methods equal to the contents of this list on the main coroutine dispatcher.
+     * If the user of this interface is not the maker of the offer being edited, this compares the settlement method
+     * data in the new on-chain offer data with the corresponding [Offer]'s [Offer.onChainSettlementMethods]. If they
+     * are the same, this writes nothing. Otherwise, this persistently replaces only the settlement methods that changed
+     * via [DatabaseService.updateOfferSettlementMethods], and updates only the changed elements of the [Offer]'s
+     * settlement methods via [Offer.updateSettlementMethodsFromChain] on the main coroutine dispatcher. If the offer
+     * is not in [offerTruthSource], this persistently stores all the new settlement methods. All of this is done within
+     * [DatabaseService.batchWrites], so that updates deferred when this throws are never committed.
      *
      * @param event The [OfferEditedEvent] of which [OfferService] is being notified.
      *
@@ -2728,164 +3250,199 @@ class OfferService (
      * [BlockchainService.getOffer] when called with [OfferEditedEvent.offerID].
      */
     override suspend fun handleOfferEditedEvent(event: OfferEditedEvent) {
-        logger.info("handleOfferEditedEvent: handling event for offer ${event.offerID}")
-        offerEditedEventRepository.append(event)
-        val offerStruct = blockchainService.getOffer(event.offerID)
-        if (offerStruct == null) {
-            logger.info("No on-chain offer was found with ID specified in OfferEditedEvent in handleOfferEditedEvent " +
-                    "call. OfferEditedEvent.id: ${event.offerID}")
-            return
-        }
-        logger.info("handleOfferEditedEvent: got offer ${event.offerID}")
-        if (event.chainID != offerStruct.chainID) {
-            throw OfferServiceException(
-                "Chain ID of OfferEditedEvent did not match chain ID of OfferStruct in " +
-                        "handleOfferEditedEvent call. OfferEditedEvent.chainID: ${event.chainID}, " +
-                        "OfferStruct.chainID: ${offerStruct.chainID} OfferEditedEvent.offerID: ${event.offerID}"
-            )
-        }
-        val encoder = Base64.getEncoder()
-        val offerIDB64String = encoder.encodeToString(event.offerID.asByteArray())
-        val chainIDString = event.chainID.toString()
-        val offer = offerTruthSource.offers[event.offerID]
-        if (offer != null && offer.isUserMaker) {
-            logger.info("handleOfferEditedEvent: ${event.offerID} was made by interface user")
-            /*
-            The user of this interface is the maker of this offer, and therefore we should have pending settlement
-            methods for this offer in persistent storage.
-             */
-            val newSettlementMethods = mutableListOf<SettlementMethod>()
-            val pendingSettlementMethods = databaseService.getPendingOfferSettlementMethods(
-                offerID = offerIDB64String,
-                chainID = chainIDString,
-            )
-            val deserializedPendingSettlementMethods = mutableListOf<SettlementMethod>()
-            if (pendingSettlementMethods != null) {
-                if (pendingSettlementMethods.size != offerStruct.settlementMethods.size) {
-                    logger.warn("handleOfferEditedEvent: mismatching pending settlement methods counts for " +
-                            "${event.offerID}: ${pendingSettlementMethods.size} pending settlement methods in " +
-                            "persistent storage, ${offerStruct.settlementMethods.size} settlement methods on-chain")
-                }
-                for (pendingSettlementMethod in pendingSettlementMethods) {
-                    try {
-                        val deserializedPendingSettlementMethod =
-                            Json.decodeFromString<SettlementMethod>(pendingSettlementMethod.first)
-                        deserializedPendingSettlementMethod.privateData = pendingSettlementMethod.second
-                        if (deserializedPendingSettlementMethod.privateData == null) {
-                            logger.warn("handleOfferEditedEvent: did not find private data for pending settlement " +
-                                    "method ${pendingSettlementMethod.first} for ${event.offerID}")
+        databaseService.batchWrites {
+            logger.info("handleOfferEditedEvent: handling event for offer ${event.offerID}")
+            offerEditedEventRepository.append(event)
+            if (pendingOffers[event.offerID]?.chainID == event.chainID) {
+                // The edited data will be retrieved along with the rest of the offer when it is needed
+                logger.info("handleOfferEditedEvent: offer ${event.offerID} is pending, ignoring edit")
+                offerEditedEventRepository.remove(event)
+                return@batchWrites
+            }
+            val offerStruct = blockchainService.getOffer(event.offerID)
+            if (offerStruct == null) {
+                logger.info("No on-chain offer was found with ID specified in OfferEditedEvent in " +
+                        "handleOfferEditedEvent call. OfferEditedEvent.id: ${event.offerID}")
+                return@batchWrites
+            }
+            logger.info("handleOfferEditedEvent: got offer ${event.offerID}")
+            if (event.chainID != offerStruct.chainID) {
+                throw OfferServiceException(
+                    "Chain ID of OfferEditedEvent did not match chain ID of OfferStruct in " +
+                            "handleOfferEditedEvent call. OfferEditedEvent.chainID: ${event.chainID}, " +
+                            "OfferStruct.chainID: ${offerStruct.chainID} OfferEditedEvent.offerID: ${event.offerID}"
+                )
+            }
+            val encoder = Base64.getEncoder()
+            val offer = offerTruthSource.offers[event.offerID]
+            if (offer != null && offer.isUserMaker) {
+                logger.info("handleOfferEditedEvent: ${event.offerID} was made by interface user")
+                /*
+                The user of this interface is the maker of this offer, and therefore we should have pending settlement
+                methods for this offer in persistent storage.
+                 */
+                val newSettlementMethods = mutableListOf<SettlementMethod>()
+                val pendingSettlementMethods = databaseService.getPendingOfferSettlementMethods(
+                    offerID = event.offerID,
+                    chainID = event.chainID,
+                )
+                val deserializedPendingSettlementMethods = mutableListOf<SettlementMethod>()
+                if (pendingSettlementMethods != null) {
+                    if (pendingSettlementMethods.size != offerStruct.settlementMethods.size) {
+                        logger.warn("handleOfferEditedEvent: mismatching pending settlement methods counts for " +
+                                "${event.offerID}: ${pendingSettlementMethods.size} pending settlement methods in " +
+                                "persistent storage, ${offerStruct.settlementMethods.size} settlement methods on-chain")
+                    }
+                    for (pendingSettlementMethod in pendingSettlementMethods) {
+                        try {
+                            val deserializedPendingSettlementMethod =
+                                Json.decodeFromString<SettlementMethod>(pendingSettlementMethod.first)
+                            deserializedPendingSettlementMethod.privateData = pendingSettlementMethod.second
+                            if (deserializedPendingSettlementMethod.privateData == null) {
+                                logger.warn("handleOfferEditedEvent: did not find private data for pending " +
+                                        "settlement method ${pendingSettlementMethod.first} for ${event.offerID}")
+                            }
+                            deserializedPendingSettlementMethods.add(deserializedPendingSettlementMethod)
+                        } catch (exception: Exception) {
+                            logger.warn("handleOfferEditedEvent: encountered exception while deserializing " +
+                                    "pending settlement method ${pendingSettlementMethod.first} for ${event.offerID}")
                         }
-                        deserializedPendingSettlementMethods.add(deserializedPendingSettlementMethod)
-                    } catch (exception: Exception) {
-                        logger.warn("handleOfferEditedEvent: encountered exception while deserializing " +
-                                "pending settlement method ${pendingSettlementMethod.first} for ${event.offerID}")
                     }
+                } else {
+                    logger.warn("handleOfferEditedEvent: found no pending settlement methods for ${event.offerID}")
                 }
-            } else {
-                logger.warn("handleOfferEditedEvent: found no pending settlement methods for ${event.offerID}")
-            }
 
-            for (onChainSettlementMethod in offerStruct.settlementMethods) {
-                try {
-                    val onChainSettlementMethodUTF8String = onChainSettlementMethod.decodeToString()
-                    val deserializedOnChainSettlementMethod = Json.decodeFromString<SettlementMethod>(
-                        onChainSettlementMethodUTF8String)
-                    val correspondingDeserializedPendingSettlementMethod = deserializedPendingSettlementMethods
-                        .firstOrNull {
-                            deserializedOnChainSettlementMethod.currency == it.currency &&
-                                    deserializedOnChainSettlementMethod.price == it.price &&
-                                    deserializedOnChainSettlementMethod.method == it.method
+                for (onChainSettlementMethod in offerStruct.settlementMethods) {
+                    try {
+                        val onChainSettlementMethodUTF8String = onChainSettlementMethod.decodeToString()
+                        val deserializedOnChainSettlementMethod = Json.decodeFromString<SettlementMethod>(
+                            onChainSettlementMethodUTF8String)
+                        val correspondingDeserializedPendingSettlementMethod = deserializedPendingSettlementMethods
+                            .firstOrNull {
+                                deserializedOnChainSettlementMethod.currency == it.currency &&
+                                        deserializedOnChainSettlementMethod.price == it.price &&
+                                        deserializedOnChainSettlementMethod.method == it.method
+                            }
+                        if (correspondingDeserializedPendingSettlementMethod != null) {
+                            newSettlementMethods.add(correspondingDeserializedPendingSettlementMethod)
+                        } else {
+                            logger.warn("handleOfferEditedEvent: unable to find pending settlement method for " +
+                                    "on-chain settlement method $onChainSettlementMethodUTF8String for " +
+                                    "${event.offerID}")
                         }
-                    if (correspondingDeserializedPendingSettlementMethod != null) {
-                        newSettlementMethods.add(correspondingDeserializedPendingSettlementMethod)
-                    } else {
-                        logger.warn("handleOfferEditedEvent: unable to find pending settlement method for " +
-                                "on-chain settlement method $onChainSettlementMethodUTF8String for ${event.offerID}")
+                    } catch (exception: Exception) {
+                        logger.warn("handleOfferEditedEvent: encountered exception while deserializing on-chain " +
+                                "settlement method ${encoder.encodeToString(onChainSettlementMethod)} for " +
+                                "${event.offerID}")
                     }
-                } catch (exception: Exception) {
-                    logger.warn("handleOfferEditedEvent: encountered exception while deserializing on-chain " +
-                            "settlement method ${encoder.encodeToString(onChainSettlementMethod)} for ${event.offerID}")
                 }
-            }
 
-            if (newSettlementMethods.size != offerStruct.settlementMethods.size) {
-                logger.warn("handleOfferEditedEvent: mismatching new settlement methods counts for " +
-                        "${event.offerID}: ${newSettlementMethods.size} new settlement methods, ${offerStruct
-                            .settlementMethods.size} settlement methods on-chain")
-            }
+                if (newSettlementMethods.size != offerStruct.settlementMethods.size) {
+                    logger.warn("handleOfferEditedEvent: mismatching new settlement methods counts for " +
+                            "${event.offerID}: ${newSettlementMethods.size} new settlement methods, ${offerStruct
+                                .settlementMethods.size} settlement methods on-chain")
+                }
 
-            val newSerializedSettlementMethods = newSettlementMethods.map {
-                /*
-                Since we just deserialized these settlement methods, we should never get an error while re-serializing
-                them again
-                 */
-                Pair(Json.encodeToString(it), it.privateData)
-            }
-            databaseService.storeOfferSettlementMethods(
-                offerID = offerIDB64String,
-                chainID = chainIDString,
-                settlementMethods = newSerializedSettlementMethods
-            )
-            logger.info("handleOfferEditedEvent: persistently stored ${newSerializedSettlementMethods.size} " +
-                    "settlement methods for ${event.offerID}")
-            databaseService.deletePendingOfferSettlementMethods(offerID = offerIDB64String, chainID = chainIDString)
-            logger.info("handleOfferEditedEvent: removed pending settlement methods from persistent storage " +
-                    "for ${event.offerID}")
-            var gotExpectedOfferEditingTransaction = false
-            val offerEditingTransaction = offer.offerEditingTransaction
-            if (offerEditingTransaction != null) {
-                if (offerEditingTransaction.transactionHash == event.transactionHash) {
-                    logger.info("handleOfferEditedEvent: tx hash ${event.transactionHash} of event matches that " +
-                            "for offer ${event.offerID}: ${offerEditingTransaction.transactionHash}")
-                    gotExpectedOfferEditingTransaction = true
+                val serializeSettlementMethod = { settlementMethod: SettlementMethod ->
+                    /*
+                    Since we just deserialized these settlement methods, we should never get an error while
+                    re-serializing them again
+                     */
+                    Pair(encoder.encodeToString(Json.encodeToString(settlementMethod).encodeToByteArray()),
+                        settlementMethod.privateData)
+                }
+                val newSerializedSettlementMethods = newSettlementMethods.map(serializeSettlementMethod)
+                val settlementMethodsChanged = databaseService.updateOfferSettlementMethods(
+                    offerID = event.offerID,
+                    chainID = event.chainID,
+                    oldSettlementMethods = offer.settlementMethods.map(serializeSettlementMethod),
+                    newSettlementMethods = newSerializedSettlementMethods
+                )
+                logger.info("handleOfferEditedEvent: persistently stored ${newSerializedSettlementMethods.size} " +
+                        "settlement methods for ${event.offerID}, changed: $settlementMethodsChanged")
+                databaseService.deletePendingOfferSettlementMethods(offerID = event.offerID, chainID = event.chainID)
+                logger.info("handleOfferEditedEvent: removed pending settlement methods from persistent storage " +
+                        "for ${event.offerID}")
+                var gotExpectedOfferEditingTransaction = false
+                val offerEditingTransaction = offer.offerEditingTransaction
+                if (offerEditingTransaction != null) {
+                    if (offerEditingTransaction.transactionHash == event.transactionHash) {
+                        logger.info("handleOfferEditedEvent: tx hash ${event.transactionHash} of event matches that " +
+                                "for offer ${event.offerID}: ${offerEditingTransaction.transactionHash}")
+                        gotExpectedOfferEditingTransaction = true
+                    } else {
+                        logger.warn("handleOfferEditedEvent: tx hash ${event.transactionHash} does not match that " +
+                                "for offer ${event.offerID}: ${offerEditingTransaction.transactionHash}")
+                    }
                 } else {
-                    logger.warn("handleOfferEditedEvent: tx hash ${event.transactionHash} does not match that for " +
-                            "offer ${event.offerID}: ${offerEditingTransaction.transactionHash}")
+                    logger.warn("handleOfferEditedEvent: offer ${event.offerID} made by the interface user has no " +
+                            "offer editing transaction")
                 }
-            } else {
-                logger.warn("handleOfferEditedEvent: offer ${event.offerID} made by the interface user has no offer " +
-                        "editing transaction")
-            }
-            if (gotExpectedOfferEditingTransaction) {
-                logger.info("handleOfferEditedEvent: persistently updating editing offer state of " +
-                        "${event.offerID} to COMPLETED")
-                databaseService.updateEditingOfferState(
-                    offerID = encoder.encodeToString(event.offerID.asByteArray()),
-                    chainID = event.chainID.toString(),
-                    state = EditingOfferState.COMPLETED.asString
-                )
-            }
-            logger.info("handleOfferEditedEvent: updating offer ${event.offerID} to offerTruthSource")
-            withContext(Dispatchers.Main) {
                 if (gotExpectedOfferEditingTransaction) {
-                    offer.editingOfferState.value = EditingOfferState.COMPLETED
-                    offer.selectedSettlementMethods.clear()
+                    logger.info("handleOfferEditedEvent: persistently updating editing offer state of " +
+                            "${event.offerID} to COMPLETED")
+                    databaseService.updateEditingOfferState(
+                        offerID = event.offerID,
+                        chainID = event.chainID,
+                        state = EditingOfferState.COMPLETED.asString
+                    )
                 }
-                offer.updateSettlementMethods(settlementMethods = newSettlementMethods)
-            }
-            logger.info("handleOfferEditedEvent: updated offer ${event.offerID} in offerTruthSource")
-        } else {
-            logger.info("handleOfferEditedEvent: ${event.offerID} was not made by interface user")
-            val settlementMethodStrings = offerStruct.settlementMethods.map {
-                Pair<String, String?>(it.decodeToString(), null)
-            }
-            databaseService.storeOfferSettlementMethods(
-                offerID = offerIDB64String,
-                chainID = chainIDString,
-                settlementMethods = settlementMethodStrings
-            )
-            logger.info("handleOfferEditedEvent: persistently stored ${settlementMethodStrings.size} " +
-                    "settlement methods for ${event.offerID}")
-            if (offer != null) {
+                logger.info("handleOfferEditedEvent: updating offer ${event.offerID} to offerTruthSource")
                 withContext(Dispatchers.Main) {
-                    offer.updateSettlementMethodsFromChain(onChainSettlementMethods = offerStruct.settlementMethods)
+                    if (gotExpectedOfferEditingTransaction) {
+                        offer.editingOfferState.value = EditingOfferState.COMPLETED
+                        offer.selectedSettlementMethods.clear()
+                    }
+                    if (settlementMethodsChanged) {
+                        offer.updateSettlementMethods(settlementMethods = newSettlementMethods)
+                        offerTruthSource.offerSettlementMethodsUpdated(offer)
+                    }
                 }
                 logger.info("handleOfferEditedEvent: updated offer ${event.offerID} in offerTruthSource")
             } else {
-                logger.warn("handleOfferEditedEvent: could not find offer ${event.offerID} in offerTruthSource")
+                logger.info("handleOfferEditedEvent: ${event.offerID} was not made by interface user")
+                val settlementMethodStrings = offerStruct.settlementMethods.map {
+                    Pair<String, String?>(encoder.encodeToString(it), null)
+                }
+                if (offer != null) {
+                    val settlementMethodsChanged = databaseService.updateOfferSettlementMethods(
+                        offerID = event.offerID,
+                        chainID = event.chainID,
+                        oldSettlementMethods = offer.onChainSettlementMethods.map {
+                            Pair(encoder.encodeToString(it), null)
+                        },
+                        newSettlementMethods = settlementMethodStrings
+                    )
+                    if (!settlementMethodsChanged) {
+                        logger.info("handleOfferEditedEvent: settlement methods of ${event.offerID} are unchanged")
+                        offerEditedEventRepository.remove(event)
+                        return@batchWrites
+                    }
+                    logger.info("handleOfferEditedEvent: persistently stored ${settlementMethodStrings.size} " +
+                            "settlement methods for ${event.offerID}")
+                    withContext(Dispatchers.Main) {
+                        val offerChanged = offer.updateSettlementMethodsFromChain(
+                            onChainSettlementMethods = offerStruct.settlementMethods,
+                            logger = logger
+                        )
+                        if (offerChanged) {
+                            offerTruthSource.offerSettlementMethodsUpdated(offer)
+                        }
+                    }
+                    logger.info("handleOfferEditedEvent: updated offer ${event.offerID} in offerTruthSource")
+                } else {
+                    databaseService.storeOfferSettlementMethods(
+                        offerID = event.offerID,
+                        chainID = event.chainID,
+                        settlementMethods = settlementMethodStrings
+                    )
+                    logger.info("handleOfferEditedEvent: persistently stored ${settlementMethodStrings.size} " +
+                            "settlement methods for ${event.offerID}")
+                    logger.warn("handleOfferEditedEvent: could not find offer ${event.offerID} in offerTruthSource")
+                }
             }
+            offerEditedEventRepository.remove(event)
         }
-        offerEditedEventRepository.remove(event)
     }
 
     /**
@@ -2900,101 +3457,102 @@ class OfferService (
      * of whether the [Offer] was or was not made by the user of this interface, this sets the offer's [Offer.isCreated]
      * flag to `false` and its [Offer.state] to [OfferState.CANCELED], and then removes the offer from
      * [offerTruthSource] on the main Dispatch Queue. Finally, regardless of whether an [Offer] was found in
-     * [offerTruthSource], this removes the offer with the ID and chain ID specified in [event] (and its settlement
-     * methods) from persistent storage. Finally, this removes [event] from [offerCanceledEventRepository].
+     * [offerTruthSource], this calls [archiveOrDeleteOffer] for the offer with the ID and chain ID specified in
+     * [event], which archives it if it was made by the user of this interface (according to [offerTruthSource] or, if
+     * it isn't there, persistent storage) and deletes it otherwise. Finally, this removes [event] from
+     * [offerCanceledEventRepository]. Since a canceled offer cannot be taken, this also frees any allowance reserved
+     * for taking it with [BlockchainService.releaseTokenAllowance].
+     * The event is handled within [DatabaseService.batchWrites], so updates deferred when this throws are discarded.
      *
      * @param event The [OfferCanceledEvent] of which [OfferService] is being notified.
      */
     override suspend fun handleOfferCanceledEvent(
         event: OfferCanceledEvent
     ) {
-        logger.info("handleOfferCanceledEvent: handling event for offer ${event.offerID}")
-        val offerIDByteBuffer = ByteBuffer.wrap(ByteArray(16))
-        offerIDByteBuffer.putLong(event.offerID.mostSignificantBits)
-        offerIDByteBuffer.putLong(event.offerID.leastSignificantBits)
-        val offerIDByteArray = offerIDByteBuffer.array()
-        val offerIdString = Base64.getEncoder().encodeToString(offerIDByteArray)
-        offerCanceledEventRepository.append(event)
-        logger.info("handleOfferCanceledEvent: persistently updating state for ${event.offerID}")
-        databaseService.updateOfferState(
-            offerID = offerIdString,
-            chainID = event.chainID.toString(),
-            state = OfferState.CANCELED.asString
-        )
-        val offer = offerTruthSource.offers[event.offerID]
-        if (offer != null && offer.chainID == event.chainID) {
-            logger.info("handleOfferCanceledEvent: found offer ${event.offerID} in offerTruthSource")
-            if (offer.isUserMaker) {
-                var mustUpdateOfferCancellationTransaction = false
-                logger.info("handleOfferCanceledEvent: offer ${event.offerID} made by interface user")
-                val offerCancellationTransaction = offer.offerCancellationTransaction
-                if (offerCancellationTransaction != null) {
-                    if (offerCancellationTransaction.transactionHash == event.transactionHash) {
-                        logger.info("handleOfferCanceledEvent: tx hash ${event.transactionHash} of event matches " +
-                                "that for offer ${event.offerID}: ${offerCancellationTransaction.transactionHash}")
+        databaseService.batchWrites {
+            logger.info("handleOfferCanceledEvent: handling event for offer ${event.offerID}")
+            offerCanceledEventRepository.append(event)
+            if (discardPendingOffer(offerID = event.offerID, chainID = event.chainID)) {
+                logger.info("handleOfferCanceledEvent: discarded pending offer ${event.offerID}")
+            }
+            // A canceled offer cannot be taken, so any allowance reserved for taking it is freed
+            blockchainService.releaseTokenAllowance(TokenTransferApprovalPurpose.TAKE_OFFER, event.offerID)
+            logger.info("handleOfferCanceledEvent: persistently updating state for ${event.offerID}")
+            databaseService.updateOfferState(
+                offerID = event.offerID,
+                chainID = event.chainID,
+                state = OfferState.CANCELED.asString
+            )
+            val offer = offerTruthSource.offers[event.offerID]
+            // Only the maker of an offer can cancel it, so a canceled offer belongs to the user only if they made it
+            val isUserMaker = offer?.takeIf { it.chainID == event.chainID }?.isUserMaker
+                ?: (databaseService.getOffer(event.offerID)?.takeIf { it.chainID == event.chainID }?.isUserMaker == 1L)
+            if (offer != null && offer.chainID == event.chainID) {
+                logger.info("handleOfferCanceledEvent: found offer ${event.offerID} in offerTruthSource")
+                if (offer.isUserMaker) {
+                    var mustUpdateOfferCancellationTransaction = false
+                    logger.info("handleOfferCanceledEvent: offer ${event.offerID} made by interface user")
+                    val offerCancellationTransaction = offer.offerCancellationTransaction
+                    if (offerCancellationTransaction != null) {
+                        if (offerCancellationTransaction.transactionHash == event.transactionHash) {
+                            logger.info("handleOfferCanceledEvent: tx hash ${event.transactionHash} of event matches " +
+                                    "that for offer ${event.offerID}: ${offerCancellationTransaction.transactionHash}")
+                        } else {
+                            logger.warn("handleOfferCanceledEvent: tx hash ${event.transactionHash} of event does " +
+                                    "not match that for offer ${event.offerID}: ${offerCancellationTransaction
+                                        .transactionHash}, updating with new transaction hash")
+                            mustUpdateOfferCancellationTransaction = true
+                        }
                     } else {
-                        logger.warn("handleOfferCanceledEvent: tx hash ${event.transactionHash} of event does not " +
-                                "match that for offer ${event.offerID}: ${offerCancellationTransaction
-                                    .transactionHash}, updating with new transaction hash")
+                        logger.warn("handleOfferCanceledEvent: offer ${event.offerID} made by interface user has no " +
+                                "offer cancellation transaction, updating with transaction hash")
                         mustUpdateOfferCancellationTransaction = true
                     }
-                } else {
-                    logger.warn("handleOfferCanceledEvent: offer ${event.offerID} made by interface user has no " +
-                            "offer cancellation transaction, updating with transaction hash")
-                    mustUpdateOfferCancellationTransaction = true
-                }
-                if (mustUpdateOfferCancellationTransaction) {
-                    val updatedOfferCancellationTransaction = BlockchainTransaction(
-                        transactionHash = event.transactionHash,
-                        timeOfCreation = Date(),
-                        latestBlockNumberAtCreation = BigInteger.ZERO,
-                        type = BlockchainTransactionType.CANCEL_OFFER
-                    )
+                    if (mustUpdateOfferCancellationTransaction) {
+                        val updatedOfferCancellationTransaction = BlockchainTransaction(
+                            transactionHash = event.transactionHash,
+                            timeOfCreation = Date(),
+                            latestBlockNumberAtCreation = BigInteger.ZERO,
+                            type = BlockchainTransactionType.CANCEL_OFFER
+                        )
+                        withContext(Dispatchers.Main) {
+                            offer.offerCancellationTransaction = updatedOfferCancellationTransaction
+                        }
+                        logger.warn("handleOfferCanceledEvent: persistently storing tx hash ${event.transactionHash} " +
+                                "for ${event.offerID}")
+                        val dateString = DateFormatter.createDateString(
+                            updatedOfferCancellationTransaction.timeOfCreation
+                        )
+                        databaseService.updateOfferCancellationData(
+                            offerID = event.offerID,
+                            chainID = event.chainID,
+                            transactionHash = updatedOfferCancellationTransaction.transactionHash,
+                            creationTime = dateString,
+                            blockNumber = updatedOfferCancellationTransaction.latestBlockNumberAtCreation.toLong()
+                        )
+                    }
+                    logger.info("handleOfferCanceledEvent: updating cancelingOfferState of user-as-maker offer " +
+                            "${event.offerID} to ${CancelingOfferState.COMPLETED.asString}")
                     withContext(Dispatchers.Main) {
-                        offer.offerCancellationTransaction = updatedOfferCancellationTransaction
+                        offer.cancelingOfferState.value = CancelingOfferState.COMPLETED
                     }
-                    logger.warn("handleOfferCanceledEvent: persistently storing tx hash ${event.transactionHash} " +
-                            "for ${event.offerID}")
-                    val dateString = DateFormatter.createDateString(updatedOfferCancellationTransaction.timeOfCreation)
-                    databaseService.updateOfferCancellationData(
-                        offerID = offerIdString,
-                        chainID = event.chainID.toString(),
-                        transactionHash = updatedOfferCancellationTransaction.transactionHash,
-                        creationTime = dateString,
-                        blockNumber = updatedOfferCancellationTransaction.latestBlockNumberAtCreation.toLong()
-                    )
                 }
-                logger.info("handleOfferCanceledEvent: updating cancelingOfferState of user-as-maker offer " +
-                        "${event.offerID} to ${CancelingOfferState.COMPLETED.asString}")
+                logger.info("handleOfferCanceledEvent: updating state of ${event.offerID} to " +
+                        OfferState.CANCELED.asString
+                )
                 withContext(Dispatchers.Main) {
-                    offer.cancelingOfferState.value = CancelingOfferState.COMPLETED
+                    offer.isCreated.value = false
+                    offer.state = OfferState.CANCELED
+                }
+                logger.info("handleOfferCanceledEvent: removing ${event.offerID} from offerTruthSource")
+                withContext(Dispatchers.Main) {
+                    offerTruthSource.offers[event.offerID]?.transactionHashIndex = null
+                    offerTruthSource.removeOffer(event.offerID)
                 }
             }
-            logger.info("handleOfferCanceledEvent: updating state of ${event.offerID} to " +
-                    OfferState.CANCELED.asString
-            )
-            withContext(Dispatchers.Main) {
-                offer.isCreated.value = false
-                offer.state = OfferState.CANCELED
-            }
-            logger.info("handleOfferCanceledEvent: removing ${event.offerID} from offerTruthSource")
-            withContext(Dispatchers.Main) {
-                offerTruthSource.removeOffer(event.offerID)
-            }
+            archiveOrDeleteOffer(offerID = event.offerID, chainID = event.chainID, isUserOffer = isUserMaker)
+            offerCanceledEventRepository.remove(event)
         }
-        logger.info("handleOfferCanceledEvent: removing ${event.offerID} with chain ID ${event.chainID} from " +
-                "persistent storage")
-        databaseService.deleteOffers(
-            offerID = offerIdString,
-            chainID = event.chainID.toString()
-        )
-        logger.info("handleOfferCanceledEvent: removing settlement methods for ${event.offerID} with chain ID " +
-                "${event.chainID} from persistent storage")
-        databaseService.deleteOfferSettlementMethods(
-            offerID = offerIdString,
-            chainID = event.chainID.toString()
-        )
-        offerCanceledEventRepository.remove(event)
     }
 
     /**
@@ -3005,84 +3563,96 @@ class OfferService (
      * [SwapService.sendTakerInformationMessage], passing the swap ID and chain ID in [event]. If this call returns
      * true, then the user of this interface is the taker of this offer and necessary action has been taken, so this
      * persistently updates the state of the offer to [OfferState.TAKEN] and the taking offer state of the offer to
-     * [TakingOfferState.COMPLETED], and then does the same to the [Offer] object on the main coroutine dispatcher and
-     * then returns. Otherwise, this checks if the user of this interface is the maker of the offer. If so, this calls
-     * [SwapService.handleNewSwap]. Then, regardless of whether the user of this interface is the maker of the offer,
-     * this removes the corresponding offer and its settlement methods from persistent storage, and then synchronously
-     * removes the [Offer] from [offerTruthSource] on the main coroutine dispatcher. Finally, regardless of whether the
-     * user of this interface is the maker or taker of this offer or neither, this removes [event] from
-     * [offerTakenEventRepository].
+     * [TakingOfferState.COMPLETED], does the same to the [Offer] object on the main coroutine dispatcher, settles the
+     * allowance reserved for taking the offer with [BlockchainService.settleTokenAllowance], and then returns.
+     * Otherwise, this releases any allowance reserved for taking the offer with
+     * [BlockchainService.releaseTokenAllowance], and checks if the user of this interface is the maker of the offer. If
+     * so, this calls [SwapService.handleNewSwap]. Then, regardless of whether the user of this interface is the maker
+     * of the offer, this calls [archiveOrDeleteOffer] for the corresponding offer, which archives it if the user of
+     * this interface made it or began taking it and deletes it otherwise, and then synchronously removes the [Offer]
+     * from [offerTruthSource] on the main coroutine dispatcher. Finally, regardless of whether the user of this
+     * interface is the maker or taker of this offer or neither, this removes [event] from [offerTakenEventRepository].
+     * The event is handled within [DatabaseService.batchWrites], so the state updates are committed together, and not
+     * at all if this throws.
      *
      * @param event The [OfferTakenEvent] of which [OfferService] is being notified.
      */
     override suspend fun handleOfferTakenEvent(event: OfferTakenEvent) {
-        logger.info("handleOfferTakenEvent: handling event for offer ${event.offerID}")
-        val offerIdString = Base64.getEncoder().encodeToString(event.offerID.asByteArray())
-        offerTakenEventRepository.append(event)
-        val offer = offerTruthSource.offers[event.offerID]
-        if (offer == null) {
-            logger.warn("handleOfferTakenEvent: got event for offer ${event.offerID} not found in offerTruthSource")
-            offerTakenEventRepository.remove(event)
-            return
-        }
-        if (offer.chainID != event.chainID) {
-            logger.warn("handleOfferTakenEvent: chain ID ${event.chainID} did not match chain ID of offer " +
-                    "${event.offerID}")
-            return
-        }
-        /*
-        We try to send taker information for the swap with the ID specified in the event. If we cannot (possibly because
-        we are not the taker), sendTakerInformationMessage will NOT send a message and will return false, and we handle
-        other possible cases
-          */
-        logger.info("handleOfferTakenEvent: checking role for ${event.offerID}")
-        if (swapService.sendTakerInformationMessage(swapID = event.offerID, chainID = event.chainID)) {
-            logger.info("handleOfferTakenEvent: sent taker info for ${event.offerID}, persistently updating " +
-                    "state of ${offer.id} to ${OfferState.TAKEN.asString}")
-            databaseService.updateOfferState(
-                offerID = offerIdString,
-                chainID = offer.chainID.toString(),
-                state = OfferState.TAKEN.asString
-            )
-            logger.info("handleOfferTakenEvent: persistently updating takingOfferState of ${offer.id} to " +
-                    TakingOfferState.COMPLETED.asString)
-            databaseService.updateTakingOfferState(
-                offerID = offerIdString,
-                chainID = offer.chainID.toString(),
-                state = TakingOfferState.COMPLETED.asString
-            )
-            logger.info("handleOfferTakenEvent: updating state of ${offer.id} to ${OfferState.TAKEN.asString} " +
-                    "and takingOfferState to ${TakingOfferState.COMPLETED.asString}")
-            withContext(Dispatchers.Main) {
-                offer.state = OfferState.TAKEN
-                offer.takingOfferState.value = TakingOfferState.COMPLETED
+        databaseService.batchWrites {
+            logger.info("handleOfferTakenEvent: handling event for offer ${event.offerID}")
+            offerTakenEventRepository.append(event)
+            val offer = offerTruthSource.offers[event.offerID]
+            if (offer == null) {
+                if (discardPendingOffer(offerID = event.offerID, chainID = event.chainID)) {
+                    logger.info("handleOfferTakenEvent: discarded pending offer ${event.offerID}")
+                } else {
+                    logger.warn("handleOfferTakenEvent: got event for offer ${event.offerID} not found in " +
+                            "offerTruthSource")
+                }
+                offerTakenEventRepository.remove(event)
+                return@batchWrites
             }
-        } else {
-            // If we have the offer and we are the maker, then we handle the new swap
-            if (offer.isUserMaker) {
-                logger.info("handleOfferTakenEvent: ${event.offerID} was made by the user of this interface, " +
-                        "handling new swap")
-                swapService.handleNewSwap(takenOffer = offer)
+            if (offer.chainID != event.chainID) {
+                logger.warn("handleOfferTakenEvent: chain ID ${event.chainID} did not match chain ID of offer " +
+                        "${event.offerID}")
+                return@batchWrites
             }
             /*
-            Regardless of whether we are or are not the maker of this offer, we are not the taker, so we remove the
-            offer and its settlement methods.
-             */
-            databaseService.deleteOffers(offerID = offerIdString, chainID = event.chainID.toString())
-            logger.info("handleOfferTakenEvent: deleted offer ${event.offerID} from persistent storage")
-            databaseService.deleteOfferSettlementMethods(
-                offerID = offerIdString,
-                chainID = event.chainID.toString()
-            )
-            logger.info("handleOfferTakenEvent: deleted settlement methods of offer ${event.offerID} from " +
-                    "persistent storage")
-            withContext(Dispatchers.Main) {
-                offer.isTaken.value = true
-                offerTruthSource.offers.remove(offer.id)
+            We try to send taker information for the swap with the ID specified in the event. If we cannot (possibly
+            because we are not the taker), sendTakerInformationMessage will NOT send a message and will return false,
+            and we handle other possible cases
+              */
+            logger.info("handleOfferTakenEvent: checking role for ${event.offerID}")
+            if (swapService.sendTakerInformationMessage(swapID = event.offerID, chainID = event.chainID)) {
+                logger.info("handleOfferTakenEvent: sent taker info for ${event.offerID}, persistently updating " +
+                        "state of ${offer.id} to ${OfferState.TAKEN.asString}")
+                databaseService.updateOfferState(
+                    offerID = event.offerID,
+                    chainID = offer.chainID,
+                    state = OfferState.TAKEN.asString
+                )
+                logger.info("handleOfferTakenEvent: persistently updating takingOfferState of ${offer.id} to " +
+                        TakingOfferState.COMPLETED.asString)
+                databaseService.updateTakingOfferState(
+                    offerID = event.offerID,
+                    chainID = offer.chainID,
+                    state = TakingOfferState.COMPLETED.asString
+                )
+                logger.info("handleOfferTakenEvent: updating state of ${offer.id} to ${OfferState.TAKEN.asString} " +
+                        "and takingOfferState to ${TakingOfferState.COMPLETED.asString}")
+                withContext(Dispatchers.Main) {
+                    offer.state = OfferState.TAKEN
+                    offer.takingOfferState.value = TakingOfferState.COMPLETED
+                }
+                // The transfer made by taking the offer frees the reserved allowance
+                blockchainService.settleTokenAllowance(TokenTransferApprovalPurpose.TAKE_OFFER, event.offerID)
+            } else {
+                // We did not take the offer, so any allowance reserved for taking it is freed
+                blockchainService.releaseTokenAllowance(TokenTransferApprovalPurpose.TAKE_OFFER, event.offerID)
+                // If we have the offer and we are the maker, then we handle the new swap
+                if (offer.isUserMaker) {
+                    logger.info("handleOfferTakenEvent: ${event.offerID} was made by the user of this interface, " +
+                            "handling new swap")
+                    swapService.handleNewSwap(takenOffer = offer)
+                }
+                /*
+                Regardless of whether we are or are not the maker of this offer, we are not the taker, so we remove the
+                offer and its settlement methods, keeping it in the archive only if we made it or began taking it.
+                 */
+                archiveOrDeleteOffer(
+                    offerID = event.offerID,
+                    chainID = event.chainID,
+                    isUserOffer = offer.isUserMaker || offer.takingOfferState.value != TakingOfferState.NONE,
+                )
+                withContext(Dispatchers.Main) {
+                    offer.isTaken.value = true
+                    offer.transactionHashIndex = null
+                    offerTruthSource.removeOffer(offer.id)
+                }
+                logger.info("handleOfferTakenEvent: removed offer ${event.offerID} from offerTruthSource if present")
             }
-            logger.info("handleOfferTakenEvent: removed offer ${event.offerID} from offerTruthSource if present")
+            offerTakenEventRepository.remove(event)
         }
-        offerTakenEventRepository.remove(event)
     }
 
     /**
@@ -3146,18 +3716,12 @@ class OfferService (
                 }
             }
             logger.info("handlePublicKeyAnnouncement: set havePublicKey to true for offer ${offer.id}")
-            val offerIDByteBuffer = ByteBuffer.wrap(ByteArray(16))
-            offerIDByteBuffer.putLong(message.id.mostSignificantBits)
-            offerIDByteBuffer.putLong(message.id.leastSignificantBits)
-            val offerIDByteArray = offerIDByteBuffer.array()
-            val offerIDString = Base64.getEncoder().encodeToString(offerIDByteArray)
-            val chainIDString = offer.chainID.toString()
             if (offer.state.indexNumber <= OfferState.OFFER_OPENED.indexNumber) {
-                databaseService.updateOfferState(offerIDString, chainIDString, OfferState.OFFER_OPENED.asString)
+                databaseService.updateOfferState(message.id, offer.chainID, OfferState.OFFER_OPENED.asString)
                 logger.info("handlePublicKeyAnnouncement: persistently set state as offerOpened for offer " +
                         "${offer.id}")
             }
-            databaseService.updateOfferHavePublicKey(offerIDString, chainIDString, true)
+            databaseService.updateOfferHavePublicKey(message.id, offer.chainID, true)
             logger.info("handlePublicKeyAnnouncement: persistently set havePublicKey to true for offer " +
                     "${offer.id}")
         } else {
@@ -3185,4 +3749,22 @@ class OfferService (
                 "${event.newServiceFeeRate}")
     }
 
+    companion object {
+        /**
+         * The name of the environment variable that, if set to "true", causes the on-chain data of offers opened by
+         * other users to be retrieved lazily.
+         */
+        const val LAZY_OFFER_HYDRATION_ENVIRONMENT_VARIABLE = "COMMUTO_LAZY_OFFER_HYDRATION"
+
+        /**
+         * The maximum number of pending offers that can be waiting in the prefetch queue.
+         */
+        const val OFFER_PREFETCH_QUEUE_CAPACITY = 64
+
+        /**
+         * The number of coroutines that concurrently retrieve the on-chain data of requested pending offers.
+         */
+        const val OFFER_PREFETCH_CONCURRENCY = 4
+    }
+
 }
\ No newline at end of file
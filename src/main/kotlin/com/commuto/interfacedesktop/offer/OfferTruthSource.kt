@@ -24,6 +24,16 @@ interface OfferTruthSource {
      */
     fun addOffer(offer: Offer)
 
+    /**
+     * Should add many new [Offer]s to [offers] at once, such as those restored from persistent storage. By default,
+     * this calls [addOffer] for each [Offer].
+     *
+     * @param offers The new [Offer]s that should be added to [offers].
+     */
+    fun addOffers(offers: Collection<Offer>) {
+        offers.forEach { addOffer(it) }
+    }
+
     /**
      * Should remove from [offers] all [Offer]s with an ID equal to [id]. There should only be one such [Offer].
      *
@@ -31,4 +41,29 @@ interface OfferTruthSource {
      */
     fun removeOffer(id: UUID)
 
+    /**
+     * Should be called after the settlement methods of an [Offer] in [offers] are updated, so that anything derived
+     * from them, such as an order book index, can be updated. By default, this does nothing.
+     *
+     * @param offer The [Offer] with updated settlement methods.
+     */
+    fun offerSettlementMethodsUpdated(offer: Offer) {}
+
+    /**
+     * Should be called when an offer has been opened by another user but its on-chain data has not yet been retrieved,
+     * so that user interfaces can request that data once the offer becomes visible. By default, this does nothing.
+     *
+     * @param id The ID of the pending offer.
+     * @param chainID The ID of the blockchain on which the pending offer exists.
+     */
+    fun addPendingOffer(id: UUID, chainID: BigInteger) {}
+
+    /**
+     * Should be called when the on-chain data of an offer passed to [addPendingOffer] has been retrieved, or when the
+     * offer has been canceled or taken before its data was retrieved. By default, this does nothing.
+     *
+     * @param id The ID of the pending offer.
+     */
+    fun removePendingOffer(id: UUID) {}
+
 }
\ No newline at end of file
@@ -49,4 +49,17 @@ enum class OpeningOfferState {
             EXCEPTION -> "An exception occurred."
         }
 
-}
\ No newline at end of file
+    companion object {
+        /**
+         * Attempts to create an [OpeningOfferState] corresponding to the given [String], or returns `null` if no case
+         * corresponds to the given [String].
+         *
+         * @param string The [String] from which this attempts to create a corresponding [OpeningOfferState].
+         *
+         * @return An [OpeningOfferState] corresponding to [string], or `null` if no such [OpeningOfferState] exists.
+         */
+        fun fromString(string: String?): OpeningOfferState? {
+            return values().firstOrNull { it.asString == string }
+        }
+    }
+}
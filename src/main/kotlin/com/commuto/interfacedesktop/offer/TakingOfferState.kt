@@ -43,4 +43,18 @@ enum class TakingOfferState {
             COMPLETED -> "Offer successfully taken."
             EXCEPTION -> "An error occurred."
         }
-}
\ No newline at end of file
+
+    companion object {
+        /**
+         * Attempts to create a [TakingOfferState] corresponding to the given [String], or returns `null` if no case
+         * corresponds to the given [String].
+         *
+         * @param string The [String] from which this attempts to create a corresponding [TakingOfferState].
+         *
+         * @return A [TakingOfferState] corresponding to [string], or `null` if no such [TakingOfferState] exists.
+         */
+        fun fromString(string: String?): TakingOfferState? {
+            return values().firstOrNull { it.asString == string }
+        }
+    }
+}
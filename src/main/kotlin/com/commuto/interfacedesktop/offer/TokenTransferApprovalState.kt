@@ -34,4 +34,18 @@ enum class TokenTransferApprovalState {
             EXCEPTION -> "error"
         }
 
-}
\ No newline at end of file
+    companion object {
+        /**
+         * Attempts to create a [TokenTransferApprovalState] corresponding to the given [String], or returns `null` if
+         * no case corresponds to the given [String].
+         *
+         * @param string The [String] from which this attempts to create a corresponding [TokenTransferApprovalState].
+         *
+         * @return A [TokenTransferApprovalState] corresponding to [string], or `null` if no such
+         * [TokenTransferApprovalState] exists.
+         */
+        fun fromString(string: String?): TokenTransferApprovalState? {
+            return values().firstOrNull { it.asString == string }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.commuto.interfacedesktop.p2p
+
+/**
+ * Describes the wire format in which [P2PService] creates messages before sending them in the Commuto Interface
+ * Network Matrix room. Messages in either format can always be parsed, regardless of the format in which this interface
+ * creates messages.
+ *
+ * @property JSON Indicates that messages are created as JSON objects with Base64-encoded binary fields, as described in
+ * the [Commuto Interface Specification](https://github.com/jimmyneutront/commuto-whitepaper/blob/main/commuto-interface-specification.txt).
+ * @property BINARY_V2 Indicates that messages are created in the compact, versioned binary format defined in
+ * [com.commuto.interfacedesktop.p2p.serializable.binary], carried as a single Base64 string in the body of a Matrix
+ * text message event. Encrypted messages are encrypted exactly like JSON encrypted messages.
+ * @property BINARY_V2_SINGLE_WRAP Indicates that messages are created in the binary format, and that encrypted messages
+ * are encrypted with AES-GCM with the symmetric key and nonce wrapped together in a single RSA-OAEP block, halving the
+ * number of RSA operations needed to create and parse them. Unencrypted messages are identical to those created in
+ * [BINARY_V2].
+ */
+enum class P2PMessageFormat {
+    JSON,
+    BINARY_V2,
+    BINARY_V2_SINGLE_WRAP;
+}
@@ -0,0 +1,14 @@
+package com.commuto.interfacedesktop.p2p
+
+/**
+ * Describes the priority with which an outbound message is sent by [P2PMessageQueue]. Messages of a higher priority are
+ * always sent before queued messages of a lower priority.
+ *
+ * @property NORMAL Indicates that a message can wait, such as a Public Key Announcement, which can be re-announced.
+ * @property HIGH Indicates that a message is time-critical, such as a Taker Information Message or a Maker Information
+ * Message, which a swap cannot proceed without.
+ */
+enum class P2PMessagePriority {
+    NORMAL,
+    HIGH;
+}
@@ -0,0 +1,352 @@
+package com.commuto.interfacedesktop.p2p
+
+import kotlinx.coroutines.*
+import kotlinx.coroutines.channels.Channel
+import net.folivo.trixnity.core.ErrorResponse
+import net.folivo.trixnity.core.MatrixServerException
+import org.slf4j.LoggerFactory
+import java.io.IOException
+import java.util.*
+import kotlin.math.ceil
+import kotlin.math.max
+
+/**
+ * A rate-limit-aware queue of outbound P2P messages.
+ *
+ * Messages are sent one at a time, in order of [P2PMessagePriority] and then in the order in which they were queued.
+ * Sending is limited by a token bucket that holds at most [bucketCapacity] tokens and gains [tokensPerSecond] tokens per
+ * second, and each message sent consumes one token. If the homeserver rejects a message with an `M_LIMIT_EXCEEDED`
+ * error, no messages are sent until the `retry_after_ms` duration specified by the homeserver has passed, and the
+ * rejected message is sent again. If the homeserver cannot be reached, the message is sent again after an exponential
+ * backoff. Each message is given a transaction ID when it is queued, and every attempt to send it uses that transaction
+ * ID, so the homeserver will not create a duplicate event if an earlier attempt actually succeeded.
+ *
+ * A message that is identical to a message that is already queued and not yet being sent is not queued again; instead,
+ * the caller shares the already-queued message, which is given the higher of the two priorities.
+ *
+ * @param sendMessageEvent A function that sends the given message as a Matrix event with the given transaction ID, and
+ * throws if it cannot.
+ * @param bucketCapacity The maximum number of tokens in the token bucket, which is the largest burst of messages that
+ * will be sent without waiting.
+ * @param tokensPerSecond The number of tokens added to the token bucket every second.
+ * @param maxSendAttempts The maximum number of times this will attempt to send a message before giving up.
+ *
+ * @property logger The [org.slf4j.Logger] that this class uses for logging.
+ * @property queue The messages waiting to be sent, with the message to be sent next at the head.
+ * @property queuedMessagesByContent The messages in [queue], keyed by their contents, used to coalesce identical
+ * messages.
+ * @property statuses The [P2PMessageSendStatus]es of the [MAX_TRACKED_STATUSES] most recently queued messages, keyed by
+ * transaction ID.
+ * @property nextSequenceNumber The sequence number to be given to the next message that is queued.
+ * @property tokens The number of tokens currently in the token bucket.
+ * @property lastRefillNanoTime The [System.nanoTime] value at which [tokens] was last refilled.
+ * @property pausedUntilNanoTime The [System.nanoTime] value before which no messages should be sent, because we were
+ * rate limited or could not reach the homeserver.
+ * @property wakeUpChannel A [Channel] used to wake up [workerJob] when a message is queued.
+ * @property workerJob The coroutine [Job] in which queued messages are sent.
+ */
+class P2PMessageQueue(
+    private val sendMessageEvent: suspend (message: String, transactionID: String) -> Unit,
+    private val bucketCapacity: Int = DEFAULT_BUCKET_CAPACITY,
+    private val tokensPerSecond: Double = DEFAULT_TOKENS_PER_SECOND,
+    private val maxSendAttempts: Int = DEFAULT_MAX_SEND_ATTEMPTS,
+) {
+
+    init {
+        require(bucketCapacity > 0) { "Bucket capacity must be positive, was $bucketCapacity" }
+        require(tokensPerSecond > 0.0) { "Tokens per second must be positive, was $tokensPerSecond" }
+        require(maxSendAttempts > 0) { "Maximum send attempts must be positive, was $maxSendAttempts" }
+    }
+
+    private val logger = LoggerFactory.getLogger(javaClass)
+
+    /**
+     * A message in this queue.
+     *
+     * @property message The message to be sent.
+     * @property transactionID The transaction ID with which every attempt to send [message] is made.
+     * @property priority The [P2PMessagePriority] of [message].
+     * @property sequenceNumber Orders messages of the same priority by the time at which they were queued.
+     * @property result Completed when [message] has been sent, or completed exceptionally when it cannot be sent.
+     * @property attempts The number of attempts made to send [message] so far.
+     */
+    private class QueuedMessage(
+        val message: String,
+        val transactionID: String,
+        var priority: P2PMessagePriority,
+        val sequenceNumber: Long,
+    ) {
+        val result = CompletableDeferred<Unit>()
+        var attempts = 0
+    }
+
+    private val queue = PriorityQueue(
+        compareByDescending<QueuedMessage> { it.priority }.thenBy { it.sequenceNumber }
+    )
+
+    private val queuedMessagesByContent = HashMap<String, QueuedMessage>()
+
+    private val statuses = object : LinkedHashMap<String, P2PMessageSendStatus>() {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, P2PMessageSendStatus>?): Boolean {
+            return size > MAX_TRACKED_STATUSES
+        }
+    }
+
+    private var nextSequenceNumber = 0L
+
+    private var tokens = bucketCapacity.toDouble()
+
+    private var lastRefillNanoTime = System.nanoTime()
+
+    private var pausedUntilNanoTime = lastRefillNanoTime
+
+    private val wakeUpChannel = Channel<Unit>(Channel.CONFLATED)
+
+    private var workerJob: Job? = null
+
+    /**
+     * Queues [message] to be sent with the specified [priority], or, if an identical message is already queued and not
+     * yet being sent, raises the priority of that message if necessary.
+     *
+     * @param message The message to be sent.
+     * @param priority The [P2PMessagePriority] with which [message] should be sent.
+     *
+     * @return The transaction ID with which [message] will be sent, which can be passed to [getStatus].
+     */
+    fun enqueue(message: String, priority: P2PMessagePriority): String {
+        return enqueueMessage(message, priority).transactionID
+    }
+
+    /**
+     * Queues [message] to be sent with the specified [priority] in the same way as [enqueue], and then suspends until it
+     * has been sent.
+     *
+     * @param message The message to be sent.
+     * @param priority The [P2PMessagePriority] with which [message] should be sent.
+     *
+     * @throws Exception The exception thrown by the last attempt to send [message], if it could not be sent.
+     */
+    suspend fun send(message: String, priority: P2PMessagePriority) {
+        enqueueMessage(message, priority).result.await()
+    }
+
+    /**
+     * Gets the [P2PMessageSendStatus] of the message with the specified transaction ID.
+     *
+     * @param transactionID The transaction ID returned by [enqueue].
+     *
+     * @return The [P2PMessageSendStatus] of the message, or `null` if no message with the specified transaction ID was
+     * among the [MAX_TRACKED_STATUSES] most recently queued messages.
+     */
+    fun getStatus(transactionID: String): P2PMessageSendStatus? {
+        return synchronized(this) {
+            statuses[transactionID]
+        }
+    }
+
+    /**
+     * Adds a [QueuedMessage] for [message] to [queue] or coalesces it with an identical [QueuedMessage] that is already
+     * in [queue], and makes sure that [workerJob] is running.
+     *
+     * @param message The message to be sent.
+     * @param priority The [P2PMessagePriority] with which [message] should be sent.
+     *
+     * @return The [QueuedMessage] for [message].
+     */
+    @OptIn(DelicateCoroutinesApi::class)
+    private fun enqueueMessage(message: String, priority: P2PMessagePriority): QueuedMessage {
+        val queuedMessage = synchronized(this) {
+            val existingMessage = queuedMessagesByContent[message]
+            if (existingMessage != null) {
+                logger.info("enqueueMessage: coalescing with queued message ${existingMessage.transactionID}")
+                if (priority > existingMessage.priority) {
+                    queue.remove(existingMessage)
+                    existingMessage.priority = priority
+                    queue.add(existingMessage)
+                }
+                existingMessage
+            } else {
+                val newMessage = QueuedMessage(
+                    message = message,
+                    transactionID = UUID.randomUUID().toString(),
+                    priority = priority,
+                    sequenceNumber = nextSequenceNumber++,
+                )
+                queue.add(newMessage)
+                queuedMessagesByContent[message] = newMessage
+                statuses[newMessage.transactionID] = P2PMessageSendStatus.QUEUED
+                logger.info("enqueueMessage: queued ${newMessage.transactionID} with priority $priority")
+                newMessage
+            }.also {
+                if (workerJob?.isActive != true) {
+                    workerJob = GlobalScope.launch { processQueue() }
+                }
+            }
+        }
+        wakeUpChannel.trySend(Unit)
+        return queuedMessage
+    }
+
+    /**
+     * Sends queued messages as the token bucket and any rate limit pause allow, and waits for new messages when [queue]
+     * is empty.
+     */
+    private suspend fun processQueue() {
+        while (true) {
+            if (synchronized(this) { queue.isEmpty() }) {
+                wakeUpChannel.receive()
+                continue
+            }
+            val millisecondsToWait = getMillisecondsUntilSendAllowed()
+            if (millisecondsToWait > 0L) {
+                delay(millisecondsToWait)
+                continue
+            }
+            /*
+            We poll only once sending is allowed, so that a message of higher priority that was queued while we were
+            waiting is sent first
+             */
+            val queuedMessage = synchronized(this) {
+                queue.poll()?.also {
+                    queuedMessagesByContent.remove(it.message)
+                    statuses[it.transactionID] = P2PMessageSendStatus.SENDING
+                    tokens -= 1.0
+                }
+            } ?: continue
+            attemptToSend(queuedMessage)
+        }
+    }
+
+    /**
+     * Refills the token bucket and determines how long we must wait before sending another message.
+     *
+     * @return The number of milliseconds until a message may be sent, or zero if one may be sent now.
+     */
+    private fun getMillisecondsUntilSendAllowed(): Long {
+        return synchronized(this) {
+            val now = System.nanoTime()
+            tokens = minOf(
+                bucketCapacity.toDouble(),
+                tokens + (now - lastRefillNanoTime) / NANOSECONDS_PER_SECOND * tokensPerSecond
+            )
+            lastRefillNanoTime = now
+            if (pausedUntilNanoTime - now > 0L) {
+                ceil((pausedUntilNanoTime - now) / NANOSECONDS_PER_MILLISECOND).toLong()
+            } else if (tokens >= 1.0) {
+                0L
+            } else {
+                ceil((1.0 - tokens) / tokensPerSecond * 1_000.0).toLong()
+            }
+        }
+    }
+
+    /**
+     * Attempts to send [queuedMessage]. If we are rate limited, cannot reach the homeserver or the attempt times out,
+     * and [maxSendAttempts] has not been reached, this pauses sending and puts [queuedMessage] back in [queue].
+     * Otherwise, this completes the [QueuedMessage.result] of [queuedMessage]. A [CancellationException] is rethrown
+     * only if [workerJob] itself has been cancelled; one thrown by [sendMessageEvent] while the worker is still active,
+     * such as a request timeout, is treated as a failed attempt.
+     *
+     * @param queuedMessage The [QueuedMessage] to send.
+     */
+    private suspend fun attemptToSend(queuedMessage: QueuedMessage) {
+        queuedMessage.attempts++
+        try {
+            sendMessageEvent(queuedMessage.message, queuedMessage.transactionID)
+            logger.info("attemptToSend: sent ${queuedMessage.transactionID}")
+            synchronized(this) {
+                statuses[queuedMessage.transactionID] = P2PMessageSendStatus.SENT
+            }
+            queuedMessage.result.complete(Unit)
+        } catch (exception: Exception) {
+            if (exception is CancellationException && !currentCoroutineContext().isActive) {
+                // The worker itself was cancelled, so it must stop rather than retry
+                synchronized(this) {
+                    statuses[queuedMessage.transactionID] = P2PMessageSendStatus.FAILED
+                }
+                queuedMessage.result.completeExceptionally(exception)
+                throw exception
+            }
+            val retryAfterMilliseconds = getRetryAfterMilliseconds(exception, queuedMessage.attempts)
+            if (retryAfterMilliseconds != null && queuedMessage.attempts < maxSendAttempts) {
+                logger.warn("attemptToSend: retrying ${queuedMessage.transactionID} in " +
+                        "$retryAfterMilliseconds ms", exception)
+                synchronized(this) {
+                    pausedUntilNanoTime = max(
+                        pausedUntilNanoTime,
+                        System.nanoTime() + retryAfterMilliseconds * NANOSECONDS_PER_MILLISECOND.toLong()
+                    )
+                    statuses[queuedMessage.transactionID] = P2PMessageSendStatus.RETRYING
+                    // The retried message keeps its sequence number, so it is sent before messages queued after it
+                    queue.add(queuedMessage)
+                }
+            } else {
+                logger.error("attemptToSend: failed to send ${queuedMessage.transactionID}", exception)
+                synchronized(this) {
+                    statuses[queuedMessage.transactionID] = P2PMessageSendStatus.FAILED
+                }
+                queuedMessage.result.completeExceptionally(exception)
+            }
+        }
+    }
+
+    /**
+     * Determines whether an attempt to send a message that failed with [exception] should be retried, and if so, after
+     * how long.
+     *
+     * @param exception The [Exception] with which the attempt failed.
+     * @param attempts The number of attempts made to send the message so far.
+     *
+     * @return The `retry_after_ms` value specified by the homeserver if [exception] is an `M_LIMIT_EXCEEDED` error, an
+     * exponential backoff if [exception] is an [IOException] or a [CancellationException] caused by a timeout, or
+     * `null` if the attempt should not be retried.
+     */
+    private fun getRetryAfterMilliseconds(exception: Exception, attempts: Int): Long? {
+        val errorResponse = (exception as? MatrixServerException)?.errorResponse
+        return if (errorResponse is ErrorResponse.LimitExceeded) {
+            errorResponse.retryAfterMillis ?: DEFAULT_RETRY_AFTER_MILLISECONDS
+        } else if (exception is IOException || exception is CancellationException) {
+            DEFAULT_RETRY_AFTER_MILLISECONDS shl (attempts - 1).coerceAtMost(MAX_BACKOFF_EXPONENT)
+        } else {
+            null
+        }
+    }
+
+    companion object {
+        /**
+         * The default maximum number of tokens in the token bucket.
+         */
+        const val DEFAULT_BUCKET_CAPACITY = 10
+
+        /**
+         * The default number of tokens added to the token bucket every second.
+         */
+        const val DEFAULT_TOKENS_PER_SECOND = 1.0
+
+        /**
+         * The default maximum number of attempts made to send a message.
+         */
+        const val DEFAULT_MAX_SEND_ATTEMPTS = 5
+
+        /**
+         * The number of milliseconds to wait before retrying when the homeserver doesn't specify `retry_after_ms`, and
+         * the base of the exponential backoff used when the homeserver cannot be reached.
+         */
+        const val DEFAULT_RETRY_AFTER_MILLISECONDS = 1_000L
+
+        /**
+         * The largest exponent of the exponential backoff used when the homeserver cannot be reached.
+         */
+        const val MAX_BACKOFF_EXPONENT = 6
+
+        /**
+         * The maximum number of transaction IDs for which a [P2PMessageSendStatus] is kept.
+         */
+        const val MAX_TRACKED_STATUSES = 1_000
+
+        private const val NANOSECONDS_PER_SECOND = 1_000_000_000.0
+
+        private const val NANOSECONDS_PER_MILLISECOND = 1_000_000.0
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.commuto.interfacedesktop.p2p
+
+/**
+ * Describes the state of an outbound message in [P2PMessageQueue].
+ *
+ * @property QUEUED Indicates that the message is waiting to be sent.
+ * @property SENDING Indicates that the message is currently being sent.
+ * @property RETRYING Indicates that an attempt to send the message failed because we were rate limited or could not
+ * reach the homeserver, and that the message has been queued to be sent again with the same transaction ID.
+ * @property SENT Indicates that the message has been sent.
+ * @property FAILED Indicates that the message could not be sent and will not be sent again.
+ */
+enum class P2PMessageSendStatus {
+    QUEUED,
+    SENDING,
+    RETRYING,
+    SENT,
+    FAILED;
+}
@@ -9,12 +9,16 @@ import com.commuto.interfacedesktop.key.keys.KeyPair
 import com.commuto.interfacedesktop.key.keys.PublicKey
 import com.commuto.interfacedesktop.offer.OfferService
 import com.commuto.interfacedesktop.p2p.create.*
+import com.commuto.interfacedesktop.p2p.parse.getPublicKeyAnnouncementIdentifier
 import com.commuto.interfacedesktop.p2p.parse.parseMakerInformationMessage
 import com.commuto.interfacedesktop.p2p.parse.parsePublicKeyAnnouncement
 import com.commuto.interfacedesktop.p2p.parse.parsePublicKeyAnnouncementAsUserForDispute
 import com.commuto.interfacedesktop.p2p.parse.parseTakerInformationMessage
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryEncryptedMessage
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryMessageType
 import com.commuto.interfacedesktop.p2p.serializable.messages.SerializableEncryptedMessage
 import com.commuto.interfacedesktop.swap.SwapService
+import com.commuto.interfacedesktop.util.BoundedLRUSet
 import io.ktor.client.*
 import io.ktor.client.plugins.*
 import io.ktor.http.*
@@ -58,6 +62,24 @@ import javax.inject.Singleton
  * Homeserver.
  * @property keyManagerService A [KeyManagerService] from which this gets key pairs when attempting to decrypt encrypted
  * messages.
+ * @property messageFormat The [P2PMessageFormat] in which this creates messages before sending them. Messages in every
+ * format are always parsed, regardless of this value. When this is created by Dagger, this is read from the
+ * [MESSAGE_FORMAT_ENVIRONMENT_VARIABLE] environment variable via [getMessageFormat].
+ * @property messageQueue The [P2PMessageQueue] through which this sends all messages, so that bursts of messages
+ * respect the homeserver's rate limits and time-critical swap messages are sent before re-announcements.
+ * @property singleWrapCapableInterfaceIDs The Base64-encoded interface IDs of peers from which this has received valid
+ * single-wrap encrypted messages or binary Public Key Announcements advertising that they can parse single-wrap
+ * encrypted messages, and which therefore can parse them. Encrypted messages sent to these peers are always
+ * created in [P2PMessageFormat.BINARY_V2_SINGLE_WRAP]. This holds at most [MAX_SINGLE_WRAP_CAPABLE_PEERS] entries,
+ * evicting the least recently used.
+ * @property seenEventIDs The IDs of Matrix events containing messages that have already been handled without exception.
+ * After a reconnect or token reset, the homeserver sends us events we have already parsed, and these are skipped before
+ * any parsing or cryptographic work is done. An event is added only once its message has been handled, so an event
+ * that could not be handled yet, such as a Maker Information Message from a peer whose public key we do not yet have,
+ * is parsed again when it is received again.
+ * @property verifiedPublicKeyAnnouncements The identifiers, as created by [getPublicKeyAnnouncementIdentifier], of
+ * Public Key Announcements that have already been verified and handled. Identical announcements in other events are
+ * dropped before any public key is re-created or any signature is re-verified.
  * @property lastNonEmptyBatchToken The token at the end of the last batch of non-empty Matrix
  * events that was parsed. (The value specified here is that from the beginning of the Commuto
  * Interface Network testing room.) This should be updated every time a new batch of events is
@@ -75,6 +97,7 @@ open class P2PService constructor(
     private val disputeService: DisputeMessageNotifiable,
     private val mxClient: MatrixClientServerApiClient,
     private val keyManagerService: KeyManagerService,
+    private val messageFormat: P2PMessageFormat = P2PMessageFormat.JSON,
 ) {
 
     @Inject
@@ -99,7 +122,8 @@ open class P2PService constructor(
                 }
             }
         ).apply { accessToken.value = System.getenv("MXKY") },
-        keyManagerService = keyManagerService
+        keyManagerService = keyManagerService,
+        messageFormat = getMessageFormat(System.getenv(MESSAGE_FORMAT_ENVIRONMENT_VARIABLE)),
     )
 
     init {
@@ -123,6 +147,44 @@ open class P2PService constructor(
         lastNonEmptyBatchToken = newToken
     }
 
+    private val messageQueue = P2PMessageQueue(sendMessageEvent = ::sendMessageEvent)
+
+    private val singleWrapCapableInterfaceIDs = BoundedLRUSet<String>(capacity = MAX_SINGLE_WRAP_CAPABLE_PEERS)
+
+    private val seenEventIDs = BoundedLRUSet<String>(capacity = MAX_SEEN_EVENT_IDS)
+
+    private val verifiedPublicKeyAnnouncements = BoundedLRUSet<String>(capacity = MAX_VERIFIED_PUBLIC_KEY_ANNOUNCEMENTS)
+
+    /**
+     * Records that the peer with the specified interface ID sent us a valid message, so that if that message was a
+     * single-wrap encrypted message, we send single-wrap encrypted messages to that peer from now on.
+     *
+     * @param message The [BinaryEncryptedMessage] that was parsed, or `null` if the message was a JSON message.
+     * @param senderInterfaceID The interface ID of the sender of [message].
+     */
+    private fun recordEncryptedMessageFormat(message: BinaryEncryptedMessage?, senderInterfaceID: ByteArray) {
+        if (message?.messageType == BinaryMessageType.SINGLE_WRAP_ENCRYPTED) {
+            singleWrapCapableInterfaceIDs.add(Base64.getEncoder().encodeToString(senderInterfaceID))
+        }
+    }
+
+    /**
+     * Determines the [P2PMessageFormat] in which to create an encrypted message for the specified recipient: if the
+     * recipient has sent us single-wrap encrypted messages, we know it can parse them, so we use
+     * [P2PMessageFormat.BINARY_V2_SINGLE_WRAP]. Otherwise, we use [messageFormat].
+     *
+     * @param recipientInterfaceID The interface ID of the recipient of the encrypted message.
+     *
+     * @return The [P2PMessageFormat] in which the message should be created.
+     */
+    private fun encryptedMessageFormat(recipientInterfaceID: ByteArray): P2PMessageFormat {
+        return if (singleWrapCapableInterfaceIDs.contains(Base64.getEncoder().encodeToString(recipientInterfaceID))) {
+            P2PMessageFormat.BINARY_V2_SINGLE_WRAP
+        } else {
+            messageFormat
+        }
+    }
+
     private var listenJob: Job = Job()
 
     private var runLoop = true
@@ -212,6 +274,11 @@ open class P2PService constructor(
         }
         logger.info("parseEvents: parsing ${textMessageEvents.size} text message events")
         for (event in textMessageEvents) {
+            val eventID = event.id.full
+            if (seenEventIDs.contains(eventID)) {
+                logger.info("parseEvents: skipping already parsed event with Matrix event ID: $eventID")
+                continue
+            }
             val messageString = try {
                 (event.content as RoomMessageEventContent.TextMessageEventContent).body
             } catch (e: Exception) {
@@ -222,11 +289,25 @@ open class P2PService constructor(
                 break
             }
             // Handle unencrypted messages
+            val pkaIdentifier = getPublicKeyAnnouncementIdentifier(messageString = messageString)
+            if (pkaIdentifier != null && verifiedPublicKeyAnnouncements.contains(pkaIdentifier)) {
+                logger.info("parseEvents: dropping already handled Public Key Announcement in event with Matrix " +
+                        "event ID: ${event.id.full}")
+                seenEventIDs.add(eventID)
+                break
+            }
             val pka = parsePublicKeyAnnouncement(messageString = messageString)
             if (pka != null) {
                 logger.info("parseEvents: got Public Key Announcement message in event with Matrix event ID: " +
                         event.id.full)
+                if (pka.supportsSingleWrap) {
+                    singleWrapCapableInterfaceIDs.add(Base64.getEncoder().encodeToString(pka.publicKey.interfaceId))
+                }
                 offerService.handlePublicKeyAnnouncement(pka)
+                if (pkaIdentifier != null) {
+                    verifiedPublicKeyAnnouncements.add(pkaIdentifier)
+                }
+                seenEventIDs.add(eventID)
                 break
             }
             val disputeUserPka = parsePublicKeyAnnouncementAsUserForDispute(messageString = messageString)
@@ -234,28 +315,34 @@ open class P2PService constructor(
                 logger.info("parseEvents: Got Public Key Announcement As User For Dispute in event with Matrix event " +
                         "ID: ${event.id.full}")
                 disputeService.handlePublicKeyAnnouncementAsUserForDispute(disputeUserPka)
+                seenEventIDs.add(eventID)
                 break
             }
             /*
             If execution reaches this point, then we have already tried to get every possible unencrypted message
             from the event being handled. Therefore, we now try to get an encrypted message from the event: we attempt
-            to create a SerializableEncryptedMessage from the text message event content body. Then we attempt to create
-            an interface ID from the contents of the recipient field. Then we check keyManagerService to determine if
-            we have a key pair with that interface ID. If we do, then we have determined that the event contains an
-            encrypted message sent to us, and we attempt to parse it.
+            to create a BinaryEncryptedMessage or, failing that, a SerializableEncryptedMessage from the text message
+            event content body. Then we attempt to create an interface ID from the contents of the recipient field.
+            Then we check keyManagerService to determine if we have a key pair with that interface ID. If we do, then
+            we have determined that the event contains an encrypted message sent to us, and we attempt to parse it.
              */
-            val message = try {
-                Json.decodeFromString<SerializableEncryptedMessage>(messageString)
-            } catch (e: Exception) {
-                /*
-                If we can't get a SerializableEncryptedMessage from the message, then we stop handling it and move
-                on
-                 */
-                break
+            val binaryMessage = BinaryEncryptedMessage.decode(messageString)
+            val message = if (binaryMessage == null) {
+                try {
+                    Json.decodeFromString<SerializableEncryptedMessage>(messageString)
+                } catch (e: Exception) {
+                    /*
+                    If we can't get a BinaryEncryptedMessage or a SerializableEncryptedMessage from the message, then
+                    we stop handling it and move on
+                     */
+                    break
+                }
+            } else {
+                null
             }
             val decoder = Base64.getDecoder()
-            val recipientInterfaceID = try {
-                decoder.decode(message.recipient)
+            val recipientInterfaceID = binaryMessage?.recipient ?: try {
+                decoder.decode(message!!.recipient)
             } catch (e: Exception) {
                 /*
                 If we can't create a recipient interface ID from the contents of the "recipient" field, then we stop
@@ -270,14 +357,23 @@ open class P2PService constructor(
             */
             val recipientKeyPair = keyManagerService.getKeyPair(recipientInterfaceID)
                 ?: break
-            val takerInformationMessage = parseTakerInformationMessage(
-                message = message,
-                keyPair = recipientKeyPair
-            )
+            val takerInformationMessage = if (binaryMessage != null) {
+                parseTakerInformationMessage(
+                    message = binaryMessage,
+                    keyPair = recipientKeyPair
+                )
+            } else {
+                parseTakerInformationMessage(
+                    message = message,
+                    keyPair = recipientKeyPair
+                )
+            }
             if (takerInformationMessage != null) {
                 logger.info("parseEvents: got Taker Information Message in event with Matrix event ID " +
                         event.id.full)
+                recordEncryptedMessageFormat(binaryMessage, takerInformationMessage.publicKey.interfaceId)
                 swapService.handleTakerInformationMessage(takerInformationMessage)
+                seenEventIDs.add(eventID)
                 break
             }
             /*
@@ -287,45 +383,97 @@ open class P2PService constructor(
             that interface ID. If we do, then we continue attempting to parse the message. If we do not, we log a
             warning and break.
              */
-            val senderInterfaceID = try {
-                decoder.decode(message.sender)
+            val senderInterfaceID = binaryMessage?.sender ?: try {
+                decoder.decode(message!!.sender)
             } catch (e: Exception) {
                 break
             }
             val senderPublicKey = keyManagerService.getPublicKey(senderInterfaceID)
                 ?: break
-            val makerInformationMessage = parseMakerInformationMessage(
-                message = message,
-                keyPair = recipientKeyPair,
-                publicKey = senderPublicKey
-            )
+            val makerInformationMessage = if (binaryMessage != null) {
+                parseMakerInformationMessage(
+                    message = binaryMessage,
+                    keyPair = recipientKeyPair,
+                    publicKey = senderPublicKey
+                )
+            } else {
+                parseMakerInformationMessage(
+                    message = message,
+                    keyPair = recipientKeyPair,
+                    publicKey = senderPublicKey
+                )
+            }
             if (makerInformationMessage != null) {
                 logger.info("parseEvents: got Maker Information Message in event with Matrix event ID " +
                         event.id.full)
+                recordEncryptedMessageFormat(binaryMessage, senderInterfaceID)
                 swapService.handleMakerInformationMessage(
                     message = makerInformationMessage,
                     senderInterfaceID = senderInterfaceID,
                     recipientInterfaceID = recipientInterfaceID
                 )
+                seenEventIDs.add(eventID)
             }
         }
     }
 
     /**
-     * Sends the given message [String] in the Commuto Interface Network Test Room.
+     * Sends the given message [String] in the Commuto Interface Network Test Room as a single Matrix event with the
+     * specified transaction ID. This makes one attempt, and is only called by [messageQueue].
      *
      * @param message The [String] to send in the Commuto Interface Network Test Room.
+     * @param transactionID The transaction ID of the Matrix event, which is the same for every attempt to send
+     * [message], so that the homeserver doesn't create duplicate events.
      */
-    open suspend fun sendMessage(message: String) {
-        logger.info("sendMessage: sending $message")
+    private suspend fun sendMessageEvent(message: String, transactionID: String) {
+        logger.info("sendMessageEvent: sending $message with transaction ID $transactionID")
         val result = mxClient.rooms.sendMessageEvent(
             roomId = RoomId("!WEuJJHaRpDvkbSveLu:matrix.org"),
             eventContent = RoomMessageEventContent.TextMessageEventContent(message),
+            txnId = transactionID,
         ).getOrElse {
-            logger.error("sendMessage: got exception", it)
+            logger.error("sendMessageEvent: got exception", it)
             throw it
         }
-        logger.info("sendMessage: success; ID: $result")
+        logger.info("sendMessageEvent: success; ID: $result")
+    }
+
+    /**
+     * Adds the given message [String] to [messageQueue] with the specified priority, and suspends until it has been sent
+     * in the Commuto Interface Network Test Room.
+     *
+     * @param message The [String] to send in the Commuto Interface Network Test Room.
+     * @param priority The [P2PMessagePriority] with which [message] should be sent.
+     *
+     * @throws Exception The exception thrown by the last attempt to send [message], if it could not be sent.
+     */
+    open suspend fun sendMessage(message: String, priority: P2PMessagePriority = P2PMessagePriority.NORMAL) {
+        logger.info("sendMessage: queueing message with priority $priority")
+        messageQueue.send(message = message, priority = priority)
+    }
+
+    /**
+     * Adds the given message [String] to [messageQueue] with the specified priority without waiting for it to be sent.
+     * The returned transaction ID can be passed to [getMessageSendStatus] to follow the progress of the message.
+     *
+     * @param message The [String] to send in the Commuto Interface Network Test Room.
+     * @param priority The [P2PMessagePriority] with which [message] should be sent.
+     *
+     * @return The transaction ID with which [message] will be sent.
+     */
+    fun enqueueMessage(message: String, priority: P2PMessagePriority = P2PMessagePriority.NORMAL): String {
+        return messageQueue.enqueue(message = message, priority = priority)
+    }
+
+    /**
+     * Gets the [P2PMessageSendStatus] of the message with the specified transaction ID.
+     *
+     * @param transactionID A transaction ID returned by [enqueueMessage].
+     *
+     * @return The [P2PMessageSendStatus] of the message, or `null` if it is unknown.
+     */
+    fun getMessageSendStatus(transactionID: String): P2PMessageSendStatus? {
+        return messageQueue.getStatus(transactionID)
     }
 
     /**
@@ -341,7 +489,7 @@ open class P2PService constructor(
         logger.info("announcePublicKey: creating for offer $offerID and key pair with interface ID " +
                 encoder.encodeToString(keyPair.interfaceId)
         )
-        val announcement = createPublicKeyAnnouncement(offerID = offerID, keyPair = keyPair)
+        val announcement = createPublicKeyAnnouncement(offerID = offerID, keyPair = keyPair, format = messageFormat)
         logger.info("announcePublicKey: sending announcement for offer $offerID")
         sendMessage(announcement)
     }
@@ -368,10 +516,11 @@ open class P2PService constructor(
             makerPublicKey = makerPublicKey,
             takerKeyPair = takerKeyPair,
             swapID = swapID,
-            settlementMethodDetails = settlementMethodDetails
+            settlementMethodDetails = settlementMethodDetails,
+            format = encryptedMessageFormat(makerPublicKey.interfaceId),
         )
         logger.info("sendTakerInformation: sending for $swapID")
-        sendMessage(messageString)
+        sendMessage(messageString, priority = P2PMessagePriority.HIGH)
     }
 
     /**
@@ -396,10 +545,11 @@ open class P2PService constructor(
             takerPublicKey = takerPublicKey,
             makerKeyPair = makerKeyPair,
             swapID = swapID,
-            settlementMethodDetails = settlementMethodDetails
+            settlementMethodDetails = settlementMethodDetails,
+            format = encryptedMessageFormat(takerPublicKey.interfaceId),
         )
         logger.info("sendMakerInformation: sending for $swapID")
-        sendMessage(messageString)
+        sendMessage(messageString, priority = P2PMessagePriority.HIGH)
     }
 
     /**
@@ -422,7 +572,8 @@ open class P2PService constructor(
         val messageString = createPublicKeyAnnouncementAsUserForDispute(
             id = id,
             chainID = chainID,
-            keyPair = keyPair
+            keyPair = keyPair,
+            format = messageFormat,
         )
         logger.info("announcePublicKeyAsUserForDispute: sending for ${encoder.encodeToString(keyPair.interfaceId)}")
         sendMessage(messageString)
@@ -450,6 +601,7 @@ open class P2PService constructor(
             swapId = swapId.toString(),
             disputeRole = role,
             ethereumKeyPair = ethereumKeyPair,
+            format = messageFormat,
         )
         logger.info("announcePublicKeyAsAgentForDispute: sending for ${encoder.encodeToString(keyPair.interfaceId)}")
         sendMessage(messageString)
@@ -483,10 +635,50 @@ open class P2PService constructor(
             chainID = chainID,
             key = key,
             recipientPublicKey = recipientPublicKey,
-            senderKeyPair = senderKeyPair
+            senderKeyPair = senderKeyPair,
+            format = encryptedMessageFormat(recipientPublicKey.interfaceId),
         )
         logger.info("sendCommunicationKey: sending $messageType for $id on $chainID")
-        sendMessage(messageString)
+        sendMessage(messageString, priority = P2PMessagePriority.HIGH)
+    }
+
+    companion object {
+        /**
+         * The maximum number of interface IDs that [singleWrapCapableInterfaceIDs] holds.
+         */
+        const val MAX_SINGLE_WRAP_CAPABLE_PEERS = 1_000
+
+        /**
+         * The maximum number of Matrix event IDs that [seenEventIDs] holds.
+         */
+        const val MAX_SEEN_EVENT_IDS = 50_000
+
+        /**
+         * The maximum number of Public Key Announcement identifiers that [verifiedPublicKeyAnnouncements] holds.
+         */
+        const val MAX_VERIFIED_PUBLIC_KEY_ANNOUNCEMENTS = 10_000
+
+        /**
+         * The name of the environment variable containing the name of the [P2PMessageFormat] in which a [P2PService]
+         * created by Dagger creates messages.
+         */
+        const val MESSAGE_FORMAT_ENVIRONMENT_VARIABLE = "COMMUTO_P2P_MESSAGE_FORMAT"
+
+        /**
+         * Gets the [P2PMessageFormat] with the specified name, ignoring case. If [name] is `null` or does not name a
+         * [P2PMessageFormat], this returns [P2PMessageFormat.BINARY_V2], so that this interface advertises in its
+         * Public Key Announcements that it can parse single-wrap encrypted messages, and peers that do the same
+         * exchange them. [P2PMessageFormat.JSON] can be specified to communicate with peers that cannot parse binary
+         * messages.
+         *
+         * @param name The name of a [P2PMessageFormat], or `null`.
+         *
+         * @return The [P2PMessageFormat] named by [name], or [P2PMessageFormat.BINARY_V2].
+         */
+        fun getMessageFormat(name: String?): P2PMessageFormat {
+            return P2PMessageFormat.values().firstOrNull { it.name.equals(name, ignoreCase = true) }
+                ?: P2PMessageFormat.BINARY_V2
+        }
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,62 @@
+package com.commuto.interfacedesktop.p2p.create
+
+import com.commuto.interfacedesktop.key.keys.KeyPair
+import com.commuto.interfacedesktop.key.keys.PublicKey
+import com.commuto.interfacedesktop.key.keys.SymmetricKey
+import com.commuto.interfacedesktop.p2p.P2PMessageFormat
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryEncryptedMessage
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryMessageType
+import java.security.MessageDigest
+
+/**
+ * Encrypts the supplied binary payload for the owner of [recipientPublicKey], signs it with [senderKeyPair], and
+ * creates a binary message body containing the resulting [BinaryEncryptedMessage].
+ *
+ * If [format] is [P2PMessageFormat.BINARY_V2_SINGLE_WRAP], the payload is encrypted with AES-GCM, using the
+ * concatenated interface IDs of the sender and recipient as associated data, and the symmetric key and nonce are
+ * encrypted together with a single RSA operation. Otherwise, the payload is encrypted with AES-CBC and the symmetric key
+ * and initialization vector are encrypted separately, exactly as they are in JSON encrypted messages.
+ *
+ * @param payloadBytes The binary payload to encrypt, beginning with its
+ * [com.commuto.interfacedesktop.p2p.serializable.binary.BinaryPayloadType.tag].
+ * @param senderKeyPair The [KeyPair] of the sender, with which the encrypted payload will be signed.
+ * @param recipientPublicKey The [PublicKey] of the recipient, with which the symmetric key will be encrypted.
+ * @param format The binary [P2PMessageFormat] in which the message will be created.
+ *
+ * @return The Base64-encoded binary message body.
+ */
+internal fun createBinaryEncryptedMessage(
+    payloadBytes: ByteArray,
+    senderKeyPair: KeyPair,
+    recipientPublicKey: PublicKey,
+    format: P2PMessageFormat,
+): String {
+    val symmetricKey = SymmetricKey()
+    if (format == P2PMessageFormat.BINARY_V2_SINGLE_WRAP) {
+        val associatedData = senderKeyPair.interfaceId + recipientPublicKey.interfaceId
+        val encryptedPayload = symmetricKey.encryptAuthenticated(payloadBytes, associatedData)
+        val encryptedPayloadHash = MessageDigest.getInstance("SHA-256").digest(encryptedPayload.encryptedData)
+        return BinaryEncryptedMessage(
+            messageType = BinaryMessageType.SINGLE_WRAP_ENCRYPTED,
+            sender = senderKeyPair.interfaceId,
+            recipient = recipientPublicKey.interfaceId,
+            encryptedKey = recipientPublicKey.encrypt(
+                symmetricKey.keyBytes + encryptedPayload.initializationVector
+            ),
+            encryptedIV = null,
+            payload = encryptedPayload.encryptedData,
+            signature = senderKeyPair.sign(encryptedPayloadHash),
+        ).encode()
+    }
+    val encryptedPayload = symmetricKey.encrypt(payloadBytes)
+    val encryptedPayloadHash = MessageDigest.getInstance("SHA-256").digest(encryptedPayload.encryptedData)
+    return BinaryEncryptedMessage(
+        messageType = BinaryMessageType.ENCRYPTED,
+        sender = senderKeyPair.interfaceId,
+        recipient = recipientPublicKey.interfaceId,
+        encryptedKey = recipientPublicKey.encrypt(symmetricKey.keyBytes),
+        encryptedIV = recipientPublicKey.encrypt(encryptedPayload.initializationVector),
+        payload = encryptedPayload.encryptedData,
+        signature = senderKeyPair.sign(encryptedPayloadHash),
+    ).encode()
+}
@@ -3,10 +3,14 @@ package com.commuto.interfacedesktop.p2p.create
 import com.commuto.interfacedesktop.key.keys.KeyPair
 import com.commuto.interfacedesktop.key.keys.PublicKey
 import com.commuto.interfacedesktop.key.keys.SymmetricKey
+import com.commuto.interfacedesktop.p2p.P2PMessageFormat
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryMessageWriter
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryPayloadType
 import com.commuto.interfacedesktop.p2p.serializable.messages.SerializableEncryptedMessage
 import com.commuto.interfacedesktop.p2p.serializable.payloads.SerializableCommunicationKeyMessagePayload
 import kotlinx.serialization.encodeToString
 import kotlinx.serialization.json.Json
+import java.math.BigInteger
 import java.security.MessageDigest
 import java.util.*
 
@@ -20,9 +24,11 @@ import java.util.*
  * @param id The ID of the swap for which the user is sending a communication key.
  * @param chainID The ID of the blockchain on which the disputed swap for which the user is sending a communication key
  * exists.
+ * @param key The Base64-encoded communication key being sent.
  * @param recipientPublicKey The [PublicKey] of the recipient, with which the payload encryption key for this message
  * will be encrypted.
  * @param senderKeyPair The user's/first dispute agent's [KeyPair], with which this message will be signed.
+ * @param format The [P2PMessageFormat] in which the message will be created.
  */
 fun createCommunicationKeyMessage(
     messageType: String,
@@ -30,18 +36,45 @@ fun createCommunicationKeyMessage(
     chainID: String,
     key: String,
     recipientPublicKey: PublicKey,
-    senderKeyPair: KeyPair
+    senderKeyPair: KeyPair,
+    format: P2PMessageFormat = P2PMessageFormat.JSON,
 ): String {
     val encoder = Base64.getEncoder()
-    val payload = SerializableCommunicationKeyMessagePayload(
-        msgType = messageType,
-        swapId = id,
-        chainID = chainID,
-        key = key,
-    )
-    val payloadUTF8Bytes = Json.encodeToString(payload).toByteArray()
+    val payloadBytes = when (format) {
+        P2PMessageFormat.JSON -> {
+            val payload = SerializableCommunicationKeyMessagePayload(
+                msgType = messageType,
+                swapId = id,
+                chainID = chainID,
+                key = key,
+            )
+            Json.encodeToString(payload).toByteArray()
+        }
+        P2PMessageFormat.BINARY_V2, P2PMessageFormat.BINARY_V2_SINGLE_WRAP -> {
+            val payloadType = when (messageType) {
+                "MCKAnnouncement" -> BinaryPayloadType.MAKER_COMMUNICATION_KEY
+                "TCKAnnouncement" -> BinaryPayloadType.TAKER_COMMUNICATION_KEY
+                else -> throw IllegalArgumentException("Unknown Communication Key Message type $messageType")
+            }
+            BinaryMessageWriter()
+                .writeByte(payloadType.tag)
+                .writeUUID(UUID.fromString(id))
+                .writeBigInteger(BigInteger(chainID))
+                .writeSizedBytes(Base64.getDecoder().decode(key))
+                .toByteArray()
+        }
+    }
+    if (format != P2PMessageFormat.JSON) {
+        return createBinaryEncryptedMessage(
+            payloadBytes = payloadBytes,
+            senderKeyPair = senderKeyPair,
+            recipientPublicKey = recipientPublicKey,
+            format = format,
+        )
+    }
+
     val symmetricKey = SymmetricKey()
-    val encryptedPayload = symmetricKey.encrypt(payloadUTF8Bytes)
+    val encryptedPayload = symmetricKey.encrypt(payloadBytes)
     val encryptedPayloadHash = MessageDigest.getInstance("SHA-256").digest(encryptedPayload.encryptedData)
     val payloadSignature = senderKeyPair.sign(encryptedPayloadHash)
     val encryptedKey = recipientPublicKey.encrypt(symmetricKey.keyBytes)
@@ -55,4 +88,4 @@ fun createCommunicationKeyMessage(
         signature = encoder.encodeToString(payloadSignature),
     )
     return Json.encodeToString(message)
-}
\ No newline at end of file
+}
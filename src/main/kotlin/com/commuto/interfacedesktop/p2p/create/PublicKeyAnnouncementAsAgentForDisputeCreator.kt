@@ -2,12 +2,16 @@ package com.commuto.interfacedesktop.p2p.create
 
 import com.commuto.interfacedesktop.dispute.DisputeRole
 import com.commuto.interfacedesktop.key.keys.KeyPair
+import com.commuto.interfacedesktop.p2p.P2PMessageFormat
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryMessageWriter
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryPublicKeyAnnouncementAsAgentForDisputeMessage
 import com.commuto.interfacedesktop.p2p.serializable.messages.SerializablePublicKeyAnnouncementAsAgentForDisputeMessage
 import com.commuto.interfacedesktop.p2p.serializable.payloads.SerializablePublicKeyAnnouncementAsAgentForDisputePayload
 import kotlinx.serialization.encodeToString
 import kotlinx.serialization.json.Json
 import org.web3j.crypto.Credentials
 import org.web3j.crypto.Sign
+import org.web3j.utils.Numeric
 import java.nio.charset.Charset
 import java.security.MessageDigest
 import java.util.*
@@ -20,15 +24,34 @@ import java.util.*
  * @param swapId The ID of the disputed swap, for which the user has been selected as a dispute agent.
  * @param disputeRole The role of the user in the dispute.
  * @param ethereumKeyPair The Ethereum key pair of the user/dispute agent.
+ * @param format The [P2PMessageFormat] in which the announcement will be created.
  *
- * @return A JSON [String] that is the Public Key Announcement.
+ * @return A [String] that is the Public Key Announcement, either as JSON or as a binary message body depending on
+ * [format].
  */
 fun createPublicKeyAnnouncementAsAgentForDispute(
     keyPair: KeyPair,
     swapId: String,
     disputeRole: DisputeRole,
     ethereumKeyPair: Credentials,
+    format: P2PMessageFormat = P2PMessageFormat.JSON,
 ): String {
+    if (format != P2PMessageFormat.JSON) {
+        val payloadBytes = BinaryMessageWriter()
+            .writeSizedBytes(keyPair.pubKeyToPkcs1Bytes())
+            .writeUUID(UUID.fromString(swapId))
+            .toByteArray()
+        val payloadDataHash = MessageDigest.getInstance("SHA-256").digest(payloadBytes)
+        val ethSignature = Sign.signPrefixedMessage(payloadDataHash, ethereumKeyPair.ecKeyPair)
+        return BinaryPublicKeyAnnouncementAsAgentForDisputeMessage(
+            sender = keyPair.interfaceId,
+            senderEthAddress = Numeric.hexStringToByteArray(ethereumKeyPair.address),
+            disputeRole = disputeRole.asString,
+            payload = payloadBytes,
+            signature = keyPair.sign(payloadDataHash),
+            signatureEth = ethSignature.r + ethSignature.s + ethSignature.v,
+        ).encode()
+    }
     val encoder = Base64.getEncoder()
     val publicKeyString = encoder.encodeToString(keyPair.pubKeyToPkcs1Bytes())
     val payload = SerializablePublicKeyAnnouncementAsAgentForDisputePayload(
@@ -51,4 +74,4 @@ fun createPublicKeyAnnouncementAsAgentForDispute(
         signatureEth = encoder.encodeToString(payloadDataSignatureBytesWithEthereumKey)
     )
     return Json.encodeToString(message)
-}
\ No newline at end of file
+}
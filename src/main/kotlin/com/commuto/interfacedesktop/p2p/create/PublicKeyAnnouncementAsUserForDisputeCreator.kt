@@ -1,10 +1,15 @@
 package com.commuto.interfacedesktop.p2p.create
 
 import com.commuto.interfacedesktop.key.keys.KeyPair
+import com.commuto.interfacedesktop.p2p.P2PMessageFormat
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryMessageType
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryMessageWriter
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinarySignedMessage
 import com.commuto.interfacedesktop.p2p.serializable.messages.SerializablePublicKeyAnnouncementMessage
 import com.commuto.interfacedesktop.p2p.serializable.payloads.SerializablePublicKeyAnnouncementAsUserForDisputePayload
 import kotlinx.serialization.encodeToString
 import kotlinx.serialization.json.Json
+import java.math.BigInteger
 import java.nio.charset.Charset
 import java.security.MessageDigest
 import java.util.*
@@ -16,14 +21,33 @@ import java.util.*
  * @param chainID The ID of the blockchain on which the disputed swap for which a public key is being announced esists,
  * as a [String].
  * @param keyPair The [KeyPair] containing the public key to be announced.
+ * @param format The [P2PMessageFormat] in which the announcement will be created.
  *
- * @return A JSON [String] that is the Public Key Announcement.
+ * @return A [String] that is the Public Key Announcement, either as JSON or as a binary message body depending on
+ * [format].
  */
 fun createPublicKeyAnnouncementAsUserForDispute(
     id: String,
     chainID: String,
     keyPair: KeyPair,
+    format: P2PMessageFormat = P2PMessageFormat.JSON,
 ): String {
+    if (format != P2PMessageFormat.JSON) {
+        // Create binary payload, and sign its hash
+        val payloadBytes = BinaryMessageWriter()
+            .writeUUID(UUID.fromString(id))
+            .writeBigInteger(BigInteger(chainID))
+            .writeSizedBytes(keyPair.pubKeyToPkcs1Bytes())
+            .toByteArray()
+        val payloadDataHash = MessageDigest.getInstance("SHA-256").digest(payloadBytes)
+        return BinarySignedMessage(
+            messageType = BinaryMessageType.PUBLIC_KEY_ANNOUNCEMENT_AS_USER_FOR_DISPUTE,
+            sender = keyPair.interfaceId,
+            payload = payloadBytes,
+            signature = keyPair.sign(payloadDataHash),
+        ).encode()
+    }
+
     //Setup encoder
     val encoder = Base64.getEncoder()
 
@@ -54,4 +78,4 @@ fun createPublicKeyAnnouncementAsUserForDispute(
 
     // Prepare and return message string
     return Json.encodeToString(message)
-}
\ No newline at end of file
+}
@@ -2,6 +2,10 @@ package com.commuto.interfacedesktop.p2p.create
 
 import com.commuto.interfacedesktop.key.keys.KeyPair
 import com.commuto.interfacedesktop.key.keys.PublicKey
+import com.commuto.interfacedesktop.p2p.P2PMessageFormat
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryMessageType
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryMessageWriter
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinarySignedMessage
 import com.commuto.interfacedesktop.p2p.serializable.messages.SerializablePublicKeyAnnouncementMessage
 import com.commuto.interfacedesktop.p2p.serializable.payloads.SerializablePublicKeyAnnouncementPayload
 import kotlinx.serialization.encodeToString
@@ -17,10 +21,36 @@ import java.util.*
  *
  * @param offerID The ID of the offer for which the [PublicKey] is being announced.
  * @param keyPair The [KeyPair] containing the [PublicKey] to be announced.
+ * @param format The [P2PMessageFormat] in which the announcement will be created.
  *
- * @return A JSON [String] that is the Public Key Announcement.
+ * @return A [String] that is the Public Key Announcement, either as JSON or as a binary message body depending on
+ * [format]. A binary announcement ends with capability flags advertising that the sender can parse single-wrap
+ * encrypted messages, so that peers send us those even if we create other messages in [P2PMessageFormat.BINARY_V2].
  */
-fun createPublicKeyAnnouncement(offerID: UUID, keyPair: KeyPair): String {
+fun createPublicKeyAnnouncement(
+    offerID: UUID,
+    keyPair: KeyPair,
+    format: P2PMessageFormat = P2PMessageFormat.JSON,
+): String {
+    if (format != P2PMessageFormat.JSON) {
+        /*
+        Create binary payload containing the offer ID, the public key in PKCS#1 bytes and our capability flags, and
+        sign its hash
+         */
+        val payloadBytes = BinaryMessageWriter()
+            .writeUUID(offerID)
+            .writeSizedBytes(keyPair.pubKeyToPkcs1Bytes())
+            .writeVarInt(PUBLIC_KEY_ANNOUNCEMENT_SINGLE_WRAP_CAPABILITY)
+            .toByteArray()
+        val payloadDataHash = MessageDigest.getInstance("SHA-256").digest(payloadBytes)
+        return BinarySignedMessage(
+            messageType = BinaryMessageType.PUBLIC_KEY_ANNOUNCEMENT,
+            sender = keyPair.interfaceId,
+            payload = payloadBytes,
+            signature = keyPair.sign(payloadDataHash),
+        ).encode()
+    }
+
     //Setup encoder
     val encoder = Base64.getEncoder()
 
@@ -58,4 +88,10 @@ fun createPublicKeyAnnouncement(offerID: UUID, keyPair: KeyPair): String {
 
     // Prepare and return message string
     return Json.encodeToString(message)
-}
\ No newline at end of file
+}
+
+/**
+ * The capability flag in a binary Public Key Announcement indicating that its sender can parse single-wrap encrypted
+ * messages.
+ */
+const val PUBLIC_KEY_ANNOUNCEMENT_SINGLE_WRAP_CAPABILITY = 1
@@ -3,6 +3,9 @@ package com.commuto.interfacedesktop.p2p.create
 import com.commuto.interfacedesktop.key.keys.KeyPair
 import com.commuto.interfacedesktop.key.keys.PublicKey
 import com.commuto.interfacedesktop.key.keys.SymmetricKey
+import com.commuto.interfacedesktop.p2p.P2PMessageFormat
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryMessageWriter
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryPayloadType
 import com.commuto.interfacedesktop.p2p.serializable.messages.SerializableEncryptedMessage
 import com.commuto.interfacedesktop.p2p.serializable.payloads.SerializableTakerInformationMessagePayload
 import kotlinx.serialization.encodeToString
@@ -20,34 +23,56 @@ import java.util.*
  * @param swapID The ID of the swap for which the taker is sending information.
  * @param settlementMethodDetails The taker's settlement method details to be used for the swap, as an optional string.
  * If this is `null`, the `paymentDetails` field of the payload of the resulting message will be the empty string.
+ * @param format The [P2PMessageFormat] in which the message will be created.
  */
 fun createTakerInformationMessage(
     makerPublicKey: PublicKey,
     takerKeyPair: KeyPair,
     swapID: UUID,
     settlementMethodDetails: String?,
+    format: P2PMessageFormat = P2PMessageFormat.JSON,
 ): String {
     // Setup encoder
     val encoder = Base64.getEncoder()
 
-    // Create Base64-encoded string of the taker's (user's) public key in PKCS#1 bytes
-    val takerPublicKeyString = encoder.encodeToString(takerKeyPair.pubKeyToPkcs1Bytes())
+    // Create payload bytes
+    val payloadBytes = when (format) {
+        P2PMessageFormat.JSON -> {
+            // Create Base64-encoded string of the taker's (user's) public key in PKCS#1 bytes
+            val takerPublicKeyString = encoder.encodeToString(takerKeyPair.pubKeyToPkcs1Bytes())
 
-    // TODO: Note (in interface spec) that we are using a UUID string for the swap UUID
-    // Create payload object
-    val payload = SerializableTakerInformationMessagePayload(
-        msgType = "takerInfo",
-        pubKey = takerPublicKeyString,
-        swapId = swapID.toString(),
-        paymentDetails = settlementMethodDetails ?: "",
-    )
+            // TODO: Note (in interface spec) that we are using a UUID string for the swap UUID
+            // Create payload object
+            val payload = SerializableTakerInformationMessagePayload(
+                msgType = "takerInfo",
+                pubKey = takerPublicKeyString,
+                swapId = swapID.toString(),
+                paymentDetails = settlementMethodDetails ?: "",
+            )
+
+            // Create payload UTF-8 bytes
+            Json.encodeToString(payload).toByteArray()
+        }
+        P2PMessageFormat.BINARY_V2, P2PMessageFormat.BINARY_V2_SINGLE_WRAP -> BinaryMessageWriter()
+            .writeByte(BinaryPayloadType.TAKER_INFORMATION.tag)
+            .writeUUID(swapID)
+            .writeSizedBytes(takerKeyPair.pubKeyToPkcs1Bytes())
+            .writeString(settlementMethodDetails ?: "")
+            .toByteArray()
+    }
 
-    // Create payload UTF-8 bytes
-    val payloadUTF8Bytes = Json.encodeToString(payload).toByteArray()
+    if (format != P2PMessageFormat.JSON) {
+        return createBinaryEncryptedMessage(
+            payloadBytes = payloadBytes,
+            senderKeyPair = takerKeyPair,
+            recipientPublicKey = makerPublicKey,
+            format = format,
+        )
+    }
 
     // Generate a new AES-256 key and initialization vector, and encrypt the payload bytes
     val symmetricKey = SymmetricKey()
-    val encryptedPayload = symmetricKey.encrypt(payloadUTF8Bytes)
+    val encryptedPayload = symmetricKey.encrypt(payloadBytes)
 
     // Create signature of encrypted payload
     val encryptedPayloadHash = MessageDigest.getInstance("SHA-256").digest(encryptedPayload.encryptedData)
@@ -68,4 +93,4 @@ fun createTakerInformationMessage(
     )
     // Create message string
     return Json.encodeToString(message)
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package com.commuto.interfacedesktop.p2p.messages
 
 import com.commuto.interfacedesktop.key.keys.PublicKey
+import com.commuto.interfacedesktop.p2p.P2PMessageFormat
 import java.util.*
 
 /**
@@ -9,5 +10,11 @@ import java.util.*
  *
  * @param id The ID of the offer corresponding to this [PublicKeyAnnouncement].
  * @param publicKey The [PublicKey] that this [PublicKeyAnnouncement] is announcing.
+ * @param supportsSingleWrap Indicates whether the sender of this [PublicKeyAnnouncement] advertised that it can parse
+ * single-wrap encrypted messages, as created in [P2PMessageFormat.BINARY_V2_SINGLE_WRAP].
  */
-data class PublicKeyAnnouncement constructor(val id: UUID, val publicKey: PublicKey)
\ No newline at end of file
+data class PublicKeyAnnouncement constructor(
+    val id: UUID,
+    val publicKey: PublicKey,
+    val supportsSingleWrap: Boolean = false,
+)
\ No newline at end of file
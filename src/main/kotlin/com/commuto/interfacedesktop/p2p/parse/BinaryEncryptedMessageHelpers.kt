@@ -0,0 +1,79 @@
+package com.commuto.interfacedesktop.p2p.parse
+
+import com.commuto.interfacedesktop.key.keys.KeyPair
+import com.commuto.interfacedesktop.key.keys.PublicKey
+import com.commuto.interfacedesktop.key.keys.SymmetricKey
+import com.commuto.interfacedesktop.key.keys.SymmetricallyEncryptedData
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryEncryptedMessage
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryMessageType
+import java.security.MessageDigest
+
+/**
+ * The length of an AES-256 key, in bytes.
+ */
+private const val SYMMETRIC_KEY_LENGTH = 32
+
+/**
+ * Attempts to decrypt the payload of a [BinaryEncryptedMessage] using the supplied [KeyPair]. Messages of type
+ * [BinaryMessageType.SINGLE_WRAP_ENCRYPTED] require only one RSA private key operation and are authenticated with
+ * AES-GCM; messages of type [BinaryMessageType.ENCRYPTED] require two RSA private key operations.
+ *
+ * @param message The [BinaryEncryptedMessage] containing the payload to decrypt.
+ * @param keyPair The [KeyPair] with which this will attempt to decrypt the message's symmetric key and initialization
+ * vector. The interface ID of this key pair should be that in the message's [BinaryEncryptedMessage.recipient] field.
+ *
+ * @return The decrypted payload bytes, or `null` if [message] was not sent to [keyPair] or could not be decrypted.
+ */
+internal fun decryptBinaryEncryptedMessagePayload(message: BinaryEncryptedMessage, keyPair: KeyPair): ByteArray? {
+    // Ensure that the recipient interface ID matches that of our key pair
+    if (!message.recipient.contentEquals(keyPair.interfaceId)) {
+        return null
+    }
+    return try {
+        when (message.messageType) {
+            BinaryMessageType.SINGLE_WRAP_ENCRYPTED -> {
+                // Decrypt the symmetric key and nonce together, and then decrypt and authenticate the payload
+                val keyMaterial = keyPair.decrypt(message.encryptedKey)
+                if (keyMaterial.size != SYMMETRIC_KEY_LENGTH + SymmetricKey.GCM_NONCE_LENGTH) {
+                    return null
+                }
+                val symmetricKey = SymmetricKey(keyMaterial.copyOfRange(0, SYMMETRIC_KEY_LENGTH))
+                val nonce = keyMaterial.copyOfRange(SYMMETRIC_KEY_LENGTH, keyMaterial.size)
+                symmetricKey.decryptAuthenticated(
+                    data = SymmetricallyEncryptedData(data = message.payload, iv = nonce),
+                    associatedData = message.sender + message.recipient,
+                )
+            }
+            else -> {
+                // Decrypt symmetric key and initialization vector separately, and then decrypt the payload
+                val symmetricKey = SymmetricKey(keyPair.decrypt(message.encryptedKey))
+                val decryptedIV = keyPair.decrypt(message.encryptedIV ?: return null)
+                symmetricKey.decrypt(SymmetricallyEncryptedData(data = message.payload, iv = decryptedIV))
+            }
+        }
+    } catch (e: Exception) {
+        null
+    }
+}
+
+/**
+ * Determines whether a [BinaryEncryptedMessage] was sent and signed by the owner of the supplied [PublicKey].
+ *
+ * @param message The [BinaryEncryptedMessage] to check.
+ * @param publicKey The [PublicKey] with which this will attempt to verify the message's signature. The interface ID of
+ * this public key should be that in the message's [BinaryEncryptedMessage.sender] field.
+ *
+ * @return `true` if the sender interface ID of [message] matches that of [publicKey] and the signature of [message] is
+ * a valid signature of the SHA-256 hash of its encrypted payload, `false` otherwise.
+ */
+internal fun verifyBinaryEncryptedMessageSignature(message: BinaryEncryptedMessage, publicKey: PublicKey): Boolean {
+    if (!message.sender.contentEquals(publicKey.interfaceId)) {
+        return false
+    }
+    val encryptedPayloadDataHash = MessageDigest.getInstance("SHA-256").digest(message.payload)
+    return try {
+        publicKey.verifySignature(encryptedPayloadDataHash, message.signature)
+    } catch (e: Exception) {
+        false
+    }
+}
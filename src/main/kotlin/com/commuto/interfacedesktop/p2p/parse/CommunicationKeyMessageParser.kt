@@ -7,6 +7,9 @@ import com.commuto.interfacedesktop.key.keys.SymmetricallyEncryptedData
 import com.commuto.interfacedesktop.p2p.messages.CommunicationKeyMessage
 import com.commuto.interfacedesktop.p2p.serializable.messages.SerializableEncryptedMessage
 import com.commuto.interfacedesktop.p2p.serializable.payloads.SerializableCommunicationKeyMessagePayload
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryEncryptedMessage
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryMessageReader
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryPayloadType
 import kotlinx.serialization.decodeFromString
 import kotlinx.serialization.json.Json
 import java.math.BigInteger
@@ -112,4 +115,49 @@ fun parseCommunicationKeyMessage(
         chainID = chainID,
         key = communicationKey
     )
-}
\ No newline at end of file
+}
+
+/**
+ * Attempts to restore a [CommunicationKeyMessage] from given optional [BinaryEncryptedMessage] using the [PublicKey]
+ * of the sender and the [KeyPair] of the recipient.
+ *
+ * @param message An optional [BinaryEncryptedMessage] from which to try to restore a [CommunicationKeyMessage].
+ * @param senderPublicKey The [PublicKey] of the sender of [message].
+ * @param recipientKeyPair The [KeyPair] of the recipient of [message].
+ *
+ * @return An optional [CommunicationKeyMessage] that will be `null` if [message] does not contain a valid Communication
+ * Key Message encrypted with the public key of [recipientKeyPair], and will be non-`null` if it does.
+ */
+fun parseCommunicationKeyMessage(
+    message: BinaryEncryptedMessage?,
+    senderPublicKey: PublicKey,
+    recipientKeyPair: KeyPair
+): CommunicationKeyMessage? {
+    if (message == null) {
+        return null
+    }
+    if (!verifyBinaryEncryptedMessageSignature(message, senderPublicKey)) {
+        return null
+    }
+    val decryptedPayloadBytes = decryptBinaryEncryptedMessagePayload(message, recipientKeyPair) ?: return null
+    return try {
+        val reader = BinaryMessageReader(decryptedPayloadBytes)
+        val messageType = when (reader.readByte()) {
+            BinaryPayloadType.MAKER_COMMUNICATION_KEY.tag -> "MCKAnnouncement"
+            BinaryPayloadType.TAKER_COMMUNICATION_KEY.tag -> "TCKAnnouncement"
+            else -> return null
+        }
+        val swapID = reader.readUUID()
+        val chainID = reader.readBigInteger()
+        val communicationKey = SymmetricKey(reader.readSizedBytes())
+        reader.requireFullyRead()
+        CommunicationKeyMessage(
+            messageType = messageType,
+            swapID = swapID,
+            chainID = chainID,
+            key = communicationKey,
+        )
+    } catch (e: Exception) {
+        null
+    }
+}
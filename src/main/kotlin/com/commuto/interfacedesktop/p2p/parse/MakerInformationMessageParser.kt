@@ -7,6 +7,9 @@ import com.commuto.interfacedesktop.key.keys.SymmetricallyEncryptedData
 import com.commuto.interfacedesktop.p2p.messages.MakerInformationMessage
 import com.commuto.interfacedesktop.p2p.serializable.messages.SerializableEncryptedMessage
 import com.commuto.interfacedesktop.p2p.serializable.payloads.SerializableMakerInformationMessagePayload
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryEncryptedMessage
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryMessageReader
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryPayloadType
 import kotlinx.serialization.decodeFromString
 import kotlinx.serialization.json.Json
 import java.security.MessageDigest
@@ -118,4 +121,47 @@ fun parseMakerInformationMessage(
         swapID = swapID,
         settlementMethodDetails = optionalSettlementMethodDetails,
     )
-}
\ No newline at end of file
+}
+
+/**
+ * Attempts to restore a [MakerInformationMessage] from a given [BinaryEncryptedMessage] using a supplied [KeyPair] and
+ * [PublicKey].
+ *
+ * @param message An optional [BinaryEncryptedMessage] from which to try to restore a [MakerInformationMessage].
+ * @param keyPair The [KeyPair] with which this will attempt to decrypt the message's symmetric key and initialization
+ * vector. The interface ID of this key pair should be that specified in the message's recipient field.
+ * @param publicKey The [PublicKey] with which this will attempt to verify the message's signature. The interface ID of
+ * this public key should be that specified in the message's sender field.
+ *
+ * @return An optional [MakerInformationMessage] that will be `null` if [message] does not contain a valid Maker
+ * Information Message encrypted with the public key of [keyPair], and will be non-`null` if it does.
+ */
+fun parseMakerInformationMessage(
+    message: BinaryEncryptedMessage?,
+    keyPair: KeyPair,
+    publicKey: PublicKey
+): MakerInformationMessage? {
+    if (message == null) {
+        return null
+    }
+    // The maker's public key is already known, so check the signature before performing any private key operations
+    if (!verifyBinaryEncryptedMessageSignature(message, publicKey)) {
+        return null
+    }
+    val decryptedPayloadBytes = decryptBinaryEncryptedMessagePayload(message, keyPair) ?: return null
+    return try {
+        val reader = BinaryMessageReader(decryptedPayloadBytes)
+        if (reader.readByte() != BinaryPayloadType.MAKER_INFORMATION.tag) {
+            return null
+        }
+        val swapID = reader.readUUID()
+        val settlementMethodDetails = reader.readString()
+        reader.requireFullyRead()
+        MakerInformationMessage(
+            swapID = swapID,
+            settlementMethodDetails = settlementMethodDetails.ifEmpty { null },
+        )
+    } catch (e: Exception) {
+        null
+    }
+}
@@ -4,6 +4,10 @@ import com.commuto.interfacedesktop.key.keys.PublicKey
 import com.commuto.interfacedesktop.p2p.messages.PublicKeyAnnouncementAsUserForDispute
 import com.commuto.interfacedesktop.p2p.serializable.messages.SerializablePublicKeyAnnouncementMessage
 import com.commuto.interfacedesktop.p2p.serializable.payloads.SerializablePublicKeyAnnouncementAsUserForDisputePayload
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryMessageReader
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryMessageType
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinarySignedMessage
+import com.commuto.interfacedesktop.p2p.serializable.binary.isBinaryMessageBody
 import kotlinx.serialization.decodeFromString
 import kotlinx.serialization.json.Json
 import java.math.BigInteger
@@ -26,6 +30,12 @@ fun parsePublicKeyAnnouncementAsUserForDispute(messageString: String?): PublicKe
     if (messageString == null) {
         return null
     }
+    // Handle binary messages
+    if (isBinaryMessageBody(messageString)) {
+        return parsePublicKeyAnnouncementAsUserForDispute(
+            BinarySignedMessage.decode(messageString, BinaryMessageType.PUBLIC_KEY_ANNOUNCEMENT_AS_USER_FOR_DISPUTE)
+        )
+    }
     // Restore message object
     val message = try {
         Json.decodeFromString<SerializablePublicKeyAnnouncementMessage>(messageString)
@@ -93,4 +103,39 @@ fun parsePublicKeyAnnouncementAsUserForDispute(messageString: String?): PublicKe
     } catch (e: Exception) {
         null
     }
-}
\ No newline at end of file
+}
+
+/**
+ * Attempts to restore a [PublicKeyAnnouncementAsUserForDispute] from a given optional [BinarySignedMessage].
+ *
+ * @param message An optional [BinarySignedMessage] from which to try to restore a
+ * [PublicKeyAnnouncementAsUserForDispute].
+ *
+ * @return A [PublicKeyAnnouncementAsUserForDispute] if [message] contains a valid binary Public Key Announcement as the
+ * user for a dispute, or `null` if it does not.
+ */
+fun parsePublicKeyAnnouncementAsUserForDispute(message: BinarySignedMessage?): PublicKeyAnnouncementAsUserForDispute? {
+    if (message == null || message.messageType != BinaryMessageType.PUBLIC_KEY_ANNOUNCEMENT_AS_USER_FOR_DISPUTE) {
+        return null
+    }
+    return try {
+        // Restore payload fields and re-create dispute raiser's public key
+        val reader = BinaryMessageReader(message.payload)
+        val swapID = reader.readUUID()
+        val chainID = reader.readBigInteger()
+        val publicKey = PublicKey(reader.readSizedBytes())
+        reader.requireFullyRead()
+        // Check that interface id of dispute raiser's key matches value in sender field of message, and verify
+        // signature
+        if (!message.sender.contentEquals(publicKey.interfaceId)) {
+            return null
+        }
+        val payloadDataHash = MessageDigest.getInstance("SHA-256").digest(message.payload)
+        when (publicKey.verifySignature(payloadDataHash, message.signature)) {
+            true -> PublicKeyAnnouncementAsUserForDispute(swapID, chainID, publicKey)
+            false -> null
+        }
+    } catch (e: Exception) {
+        null
+    }
+}
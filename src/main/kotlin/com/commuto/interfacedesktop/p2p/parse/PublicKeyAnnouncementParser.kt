@@ -1,9 +1,14 @@
 package com.commuto.interfacedesktop.p2p.parse
 
 import com.commuto.interfacedesktop.key.keys.PublicKey
+import com.commuto.interfacedesktop.p2p.create.PUBLIC_KEY_ANNOUNCEMENT_SINGLE_WRAP_CAPABILITY
 import com.commuto.interfacedesktop.p2p.messages.PublicKeyAnnouncement
 import com.commuto.interfacedesktop.p2p.serializable.messages.SerializablePublicKeyAnnouncementMessage
 import com.commuto.interfacedesktop.p2p.serializable.payloads.SerializablePublicKeyAnnouncementPayload
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryMessageReader
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryMessageType
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinarySignedMessage
+import com.commuto.interfacedesktop.p2p.serializable.binary.isBinaryMessageBody
 import kotlinx.serialization.decodeFromString
 import kotlinx.serialization.json.Json
 import java.nio.ByteBuffer
@@ -27,6 +32,12 @@ fun parsePublicKeyAnnouncement(messageString: String?): PublicKeyAnnouncement? {
     if (messageString == null) {
         return null
     }
+    // Handle binary messages
+    if (isBinaryMessageBody(messageString)) {
+        return parsePublicKeyAnnouncement(
+            BinarySignedMessage.decode(messageString, BinaryMessageType.PUBLIC_KEY_ANNOUNCEMENT)
+        )
+    }
     // Restore message object
     val message = try {
         Json.decodeFromString<SerializablePublicKeyAnnouncementMessage>(messageString)
@@ -93,4 +104,86 @@ fun parsePublicKeyAnnouncement(messageString: String?): PublicKeyAnnouncement? {
     } catch (e: Exception) {
         null
     }
-}
\ No newline at end of file
+}
+
+/**
+ * Attempts to restore a [PublicKeyAnnouncement] from a given optional [BinarySignedMessage].
+ *
+ * @param message An optional [BinarySignedMessage] from which to try to restore a [PublicKeyAnnouncement].
+ *
+ * @return A [PublicKeyAnnouncement] if [message] contains a valid binary Public Key Announcement, or `null` if it does
+ * not. The capability flags at the end of the payload are optional, and if they are absent, the sender is assumed not
+ * to support single-wrap encrypted messages.
+ */
+fun parsePublicKeyAnnouncement(message: BinarySignedMessage?): PublicKeyAnnouncement? {
+    if (message == null || message.messageType != BinaryMessageType.PUBLIC_KEY_ANNOUNCEMENT) {
+        return null
+    }
+    return try {
+        // Restore payload fields and re-create maker's public key
+        val reader = BinaryMessageReader(message.payload)
+        val offerID = reader.readUUID()
+        val publicKey = PublicKey(reader.readSizedBytes())
+        val capabilities = if (reader.hasRemaining()) reader.readVarInt() else 0
+        reader.requireFullyRead()
+        // Check that interface id of maker's key matches value in sender field of message, and verify signature
+        if (!message.sender.contentEquals(publicKey.interfaceId)) {
+            return null
+        }
+        val payloadDataHash = MessageDigest.getInstance("SHA-256").digest(message.payload)
+        when (publicKey.verifySignature(payloadDataHash, message.signature)) {
+            true -> PublicKeyAnnouncement(
+                id = offerID,
+                publicKey = publicKey,
+                supportsSingleWrap = capabilities and PUBLIC_KEY_ANNOUNCEMENT_SINGLE_WRAP_CAPABILITY != 0,
+            )
+            false -> null
+        }
+    } catch (e: Exception) {
+        null
+    }
+}
+
+/**
+ * Creates an identifier for the Public Key Announcement that may be contained in a given [String], made from the ID of
+ * the offer, the interface ID of the sender and the SHA-256 hash of the signature. This neither re-creates the announced
+ * public key nor verifies the signature, so it is much cheaper than [parsePublicKeyAnnouncement], and can be used to
+ * recognize announcements that have already been verified and handled.
+ *
+ * @param messageString An optional [String] that may contain a Public Key Announcement.
+ *
+ * @return An identifier [String] of the form "offerID:senderInterfaceID:signatureHash", where the latter two components
+ * are Base64-encoded, or `null` if [messageString] does not appear to contain a Public Key Announcement.
+ */
+fun getPublicKeyAnnouncementIdentifier(messageString: String?): String? {
+    if (messageString == null) {
+        return null
+    }
+    val encoder = Base64.getEncoder()
+    val decoder = Base64.getDecoder()
+    return try {
+        val (offerID, sender, signature) = if (isBinaryMessageBody(messageString)) {
+            val message = BinarySignedMessage.decode(messageString, BinaryMessageType.PUBLIC_KEY_ANNOUNCEMENT)
+                ?: return null
+            Triple(BinaryMessageReader(message.payload).readUUID(), message.sender, message.signature)
+        } else {
+            val message = Json.decodeFromString<SerializablePublicKeyAnnouncementMessage>(messageString)
+            if (message.msgType != "pka") {
+                return null
+            }
+            val payload = Json.decodeFromString<SerializablePublicKeyAnnouncementPayload>(
+                decoder.decode(message.payload).toString(Charset.forName("UTF-8"))
+            )
+            val offerIDByteBuffer = ByteBuffer.wrap(decoder.decode(payload.offerId))
+            Triple(
+                UUID(offerIDByteBuffer.long, offerIDByteBuffer.long),
+                decoder.decode(message.sender),
+                decoder.decode(message.signature)
+            )
+        }
+        val signatureHash = MessageDigest.getInstance("SHA-256").digest(signature)
+        "$offerID:${encoder.encodeToString(sender)}:${encoder.encodeToString(signatureHash)}"
+    } catch (e: Exception) {
+        null
+    }
+}
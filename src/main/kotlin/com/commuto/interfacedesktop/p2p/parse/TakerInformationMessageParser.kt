@@ -7,6 +7,9 @@ import com.commuto.interfacedesktop.key.keys.SymmetricallyEncryptedData
 import com.commuto.interfacedesktop.p2p.messages.TakerInformationMessage
 import com.commuto.interfacedesktop.p2p.serializable.messages.SerializableEncryptedMessage
 import com.commuto.interfacedesktop.p2p.serializable.payloads.SerializableTakerInformationMessagePayload
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryEncryptedMessage
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryMessageReader
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryPayloadType
 import kotlinx.serialization.decodeFromString
 import kotlinx.serialization.json.Json
 import java.security.MessageDigest
@@ -122,4 +125,49 @@ fun parseTakerInformationMessage(
         publicKey = publicKey,
         settlementMethodDetails = optionalSettlementMethodDetails,
     )
-}
\ No newline at end of file
+}
+
+/**
+ * Attempts to restore a [TakerInformationMessage] from a given optional [BinaryEncryptedMessage] using a supplied
+ * [KeyPair].
+ *
+ * @param message An optional [BinaryEncryptedMessage] from which to try to restore a [TakerInformationMessage].
+ * @param keyPair The [KeyPair] with which this will attempt to decrypt the message's symmetric key and initialization
+ * vector.
+ *
+ * @return An optional [TakerInformationMessage] that will be `null` if [message] does not contain a valid Taker
+ * Information Message encrypted with the public key of [keyPair], and will be non-`null` if it does. If it does, the
+ * [TakerInformationMessage.settlementMethodDetails] field will be `null` if the payload contains empty settlement
+ * method details, and will be non-`null` otherwise.
+ */
+fun parseTakerInformationMessage(
+    message: BinaryEncryptedMessage?,
+    keyPair: KeyPair
+): TakerInformationMessage? {
+    if (message == null) {
+        return null
+    }
+    val decryptedPayloadBytes = decryptBinaryEncryptedMessagePayload(message, keyPair) ?: return null
+    return try {
+        // Restore payload fields, ensuring that the message is a taker information message
+        val reader = BinaryMessageReader(decryptedPayloadBytes)
+        if (reader.readByte() != BinaryPayloadType.TAKER_INFORMATION.tag) {
+            return null
+        }
+        val swapID = reader.readUUID()
+        val publicKey = PublicKey(reader.readSizedBytes())
+        val settlementMethodDetails = reader.readString()
+        reader.requireFullyRead()
+        // Ensure that the message was sent and signed by the owner of the taker's public key
+        if (!verifyBinaryEncryptedMessageSignature(message, publicKey)) {
+            return null
+        }
+        TakerInformationMessage(
+            swapID = swapID,
+            publicKey = publicKey,
+            settlementMethodDetails = settlementMethodDetails.ifEmpty { null },
+        )
+    } catch (e: Exception) {
+        null
+    }
+}
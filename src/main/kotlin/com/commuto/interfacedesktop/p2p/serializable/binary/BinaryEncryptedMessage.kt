@@ -0,0 +1,80 @@
+package com.commuto.interfacedesktop.p2p.serializable.binary
+
+/**
+ * The binary counterpart of [com.commuto.interfacedesktop.p2p.serializable.messages.SerializableEncryptedMessage]. The
+ * decrypted [payload] begins with the [BinaryPayloadType.tag] of the payload it contains.
+ *
+ * A message of type [BinaryMessageType.ENCRYPTED] is encrypted exactly like a JSON encrypted message: the payload is
+ * encrypted with AES-CBC, and the symmetric key and initialization vector are separately encrypted with the recipient's
+ * public key. A message of type [BinaryMessageType.SINGLE_WRAP_ENCRYPTED] is encrypted with AES-GCM, using the
+ * concatenated interface IDs of the sender and recipient as associated data, and the symmetric key and nonce are
+ * encrypted together in [encryptedKey], so that creating and parsing it each require only one RSA operation.
+ *
+ * @property messageType The [BinaryMessageType] of this message, which should be either [BinaryMessageType.ENCRYPTED]
+ * or [BinaryMessageType.SINGLE_WRAP_ENCRYPTED].
+ * @property sender The interface ID of the sender of this message.
+ * @property recipient The interface ID of the recipient of this message.
+ * @property encryptedKey The symmetric key with which [payload] was encrypted, encrypted with the recipient's public
+ * key. If [messageType] is [BinaryMessageType.SINGLE_WRAP_ENCRYPTED], this is the symmetric key followed by the nonce,
+ * encrypted together with the recipient's public key.
+ * @property encryptedIV The initialization vector with which [payload] was encrypted, encrypted with the recipient's
+ * public key, or `null` if [messageType] is [BinaryMessageType.SINGLE_WRAP_ENCRYPTED].
+ * @property payload The encrypted binary payload of this message.
+ * @property signature The signature of the SHA-256 hash of [payload], signed by the sender.
+ */
+class BinaryEncryptedMessage(
+    val messageType: BinaryMessageType = BinaryMessageType.ENCRYPTED,
+    val sender: ByteArray,
+    val recipient: ByteArray,
+    val encryptedKey: ByteArray,
+    val encryptedIV: ByteArray?,
+    val payload: ByteArray,
+    val signature: ByteArray,
+) {
+
+    /**
+     * Encodes this message as a binary message body.
+     *
+     * @return The Base64-encoded binary message body containing this message.
+     */
+    fun encode(): String {
+        return encodeBinaryMessageBody(messageType) {
+            writeSizedBytes(sender)
+            writeSizedBytes(recipient)
+            writeSizedBytes(encryptedKey)
+            if (messageType == BinaryMessageType.ENCRYPTED) {
+                writeSizedBytes(encryptedIV ?: throw IllegalStateException("Missing encrypted initialization vector"))
+            }
+            writeSizedBytes(payload)
+            writeSizedBytes(signature)
+        }
+    }
+
+    companion object {
+        /**
+         * Attempts to restore a [BinaryEncryptedMessage] of either encrypted message type from a binary message body.
+         *
+         * @param messageString An optional [String] that may be a binary message body.
+         *
+         * @return A [BinaryEncryptedMessage], or `null` if [messageString] does not contain a binary encrypted
+         * message.
+         */
+        fun decode(messageString: String?): BinaryEncryptedMessage? {
+            return decodeBinaryMessageBody(
+                messageString,
+                setOf(BinaryMessageType.ENCRYPTED, BinaryMessageType.SINGLE_WRAP_ENCRYPTED)
+            ) { messageType ->
+                BinaryEncryptedMessage(
+                    messageType = messageType,
+                    sender = readSizedBytes(),
+                    recipient = readSizedBytes(),
+                    encryptedKey = readSizedBytes(),
+                    encryptedIV = if (messageType == BinaryMessageType.ENCRYPTED) readSizedBytes() else null,
+                    payload = readSizedBytes(),
+                    signature = readSizedBytes(),
+                )
+            }
+        }
+    }
+
+}
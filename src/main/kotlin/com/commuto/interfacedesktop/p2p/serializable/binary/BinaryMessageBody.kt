@@ -0,0 +1,93 @@
+package com.commuto.interfacedesktop.p2p.serializable.binary
+
+import java.util.*
+
+/**
+ * The version of the binary message format, which is the first byte of every binary message body.
+ */
+const val BINARY_MESSAGE_FORMAT_VERSION = 2
+
+/**
+ * Creates a binary message body: the format version byte and the [BinaryMessageType.tag] of [messageType], followed by
+ * the fields written by [writeFields], all encoded as a single Base64 [String] that can be sent as the body of a Matrix
+ * text message event.
+ *
+ * @param messageType The [BinaryMessageType] of the message being created.
+ * @param writeFields A lambda that writes the fields of the message.
+ *
+ * @return The Base64-encoded binary message body.
+ */
+fun encodeBinaryMessageBody(messageType: BinaryMessageType, writeFields: BinaryMessageWriter.() -> Unit): String {
+    val writer = BinaryMessageWriter()
+        .writeByte(BINARY_MESSAGE_FORMAT_VERSION)
+        .writeByte(messageType.tag)
+    writer.writeFields()
+    return Base64.getEncoder().encodeToString(writer.toByteArray())
+}
+
+/**
+ * Determines whether [messageString] could be a binary message body rather than a JSON message. JSON messages always
+ * begin with "{", which never appears in Base64, so this check is cheap and never mistakes a JSON message for a binary
+ * one.
+ *
+ * @param messageString The Matrix text message event body to check.
+ *
+ * @return `true` if [messageString] could be a binary message body, `false` otherwise.
+ */
+fun isBinaryMessageBody(messageString: String?): Boolean {
+    return !messageString.isNullOrEmpty() && messageString[0] != '{'
+}
+
+/**
+ * Attempts to restore a message of the specified [expectedType] from a binary message body created by
+ * [encodeBinaryMessageBody].
+ *
+ * @param messageString An optional [String] that may be a binary message body.
+ * @param expectedType The [BinaryMessageType] of the message that should be contained in [messageString].
+ * @param readFields A lambda that reads the fields of the message and creates the resulting object.
+ *
+ * @return The result of [readFields], or `null` if [messageString] is not a binary message body of the current format
+ * version, does not contain a message of [expectedType], or is malformed or has trailing bytes.
+ */
+fun <T> decodeBinaryMessageBody(
+    messageString: String?,
+    expectedType: BinaryMessageType,
+    readFields: BinaryMessageReader.() -> T,
+): T? {
+    return decodeBinaryMessageBody(messageString, setOf(expectedType)) { readFields() }
+}
+
+/**
+ * Attempts to restore a message of one of the specified [acceptedTypes] from a binary message body created by
+ * [encodeBinaryMessageBody].
+ *
+ * @param messageString An optional [String] that may be a binary message body.
+ * @param acceptedTypes The [BinaryMessageType]s of the messages that may be contained in [messageString].
+ * @param readFields A lambda that reads the fields of the message given its [BinaryMessageType] and creates the
+ * resulting object.
+ *
+ * @return The result of [readFields], or `null` if [messageString] is not a binary message body of the current format
+ * version, does not contain a message of one of the [acceptedTypes], or is malformed or has trailing bytes.
+ */
+fun <T> decodeBinaryMessageBody(
+    messageString: String?,
+    acceptedTypes: Set<BinaryMessageType>,
+    readFields: BinaryMessageReader.(BinaryMessageType) -> T,
+): T? {
+    if (!isBinaryMessageBody(messageString)) {
+        return null
+    }
+    return try {
+        val reader = BinaryMessageReader(Base64.getDecoder().decode(messageString))
+        if (reader.readByte() != BINARY_MESSAGE_FORMAT_VERSION) {
+            return null
+        }
+        val messageTag = reader.readByte()
+        val messageType = acceptedTypes.firstOrNull { it.tag == messageTag } ?: return null
+        val result = reader.readFields(messageType)
+        reader.requireFullyRead()
+        result
+    } catch (e: Exception) {
+        null
+    }
+}
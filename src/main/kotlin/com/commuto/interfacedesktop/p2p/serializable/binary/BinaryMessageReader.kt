@@ -0,0 +1,115 @@
+package com.commuto.interfacedesktop.p2p.serializable.binary
+
+import java.math.BigInteger
+import java.nio.ByteBuffer
+import java.util.*
+
+/**
+ * Reads the fields of a binary message or binary payload written by a [BinaryMessageWriter]. Every read function
+ * throws an exception if the underlying bytes are malformed or truncated, so callers should treat any exception as an
+ * indication that the bytes do not contain a valid message.
+ *
+ * @param bytes The bytes from which this will read fields.
+ *
+ * @property buffer A [ByteBuffer] wrapping the bytes from which this reads fields.
+ */
+class BinaryMessageReader(bytes: ByteArray) {
+
+    private val buffer = ByteBuffer.wrap(bytes)
+
+    /**
+     * Reads a single byte.
+     *
+     * @return The next byte, as an unsigned [Int].
+     *
+     * @throws java.nio.BufferUnderflowException if no bytes remain.
+     */
+    fun readByte(): Int {
+        return buffer.get().toInt() and 0xFF
+    }
+
+    /**
+     * Reads an unsigned LEB128 variable-length integer.
+     *
+     * @return The integer that was read.
+     *
+     * @throws IllegalArgumentException if the encoded integer does not fit in a non-negative [Int].
+     */
+    fun readVarInt(): Int {
+        var result = 0
+        var shift = 0
+        while (true) {
+            val byte = readByte()
+            result = result or ((byte and 0x7F) shl shift)
+            if (byte and 0x80 == 0) {
+                require(result >= 0) { "Variable-length integer is negative" }
+                return result
+            }
+            shift += 7
+            require(shift < 32) { "Variable-length integer is too long" }
+        }
+    }
+
+    /**
+     * Reads a length-prefixed [ByteArray].
+     *
+     * @return The bytes that were read.
+     *
+     * @throws IllegalArgumentException if the length prefix exceeds the number of remaining bytes.
+     */
+    fun readSizedBytes(): ByteArray {
+        val size = readVarInt()
+        require(size <= buffer.remaining()) { "Field length $size exceeds remaining ${buffer.remaining()} bytes" }
+        val bytes = ByteArray(size)
+        buffer.get(bytes)
+        return bytes
+    }
+
+    /**
+     * Reads the 16 bytes of a [UUID], most significant bits first.
+     *
+     * @return The [UUID] that was read.
+     */
+    fun readUUID(): UUID {
+        val mostSignificantBits = buffer.long
+        val leastSignificantBits = buffer.long
+        return UUID(mostSignificantBits, leastSignificantBits)
+    }
+
+    /**
+     * Reads a length-prefixed UTF-8 [String].
+     *
+     * @return The [String] that was read.
+     */
+    fun readString(): String {
+        return String(readSizedBytes(), Charsets.UTF_8)
+    }
+
+    /**
+     * Reads a length-prefixed two's-complement big-endian [BigInteger].
+     *
+     * @return The [BigInteger] that was read.
+     */
+    fun readBigInteger(): BigInteger {
+        return BigInteger(readSizedBytes())
+    }
+
+    /**
+     * Determines whether any bytes remain to be read, so that optional trailing fields can be read only if present.
+     *
+     * @return `true` if at least one byte remains, or `false` otherwise.
+     */
+    fun hasRemaining(): Boolean {
+        return buffer.hasRemaining()
+    }
+
+    /**
+     * Ensures that every byte has been read, so that messages with trailing data are rejected.
+     *
+     * @throws IllegalArgumentException if any bytes remain.
+     */
+    fun requireFullyRead() {
+        require(!buffer.hasRemaining()) { "Found ${buffer.remaining()} unexpected trailing bytes" }
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.commuto.interfacedesktop.p2p.serializable.binary
+
+/**
+ * Describes the type of outer (unencrypted) message contained in a binary message body. The [tag] of a message type is
+ * the second byte of every binary message body, immediately following the format version byte.
+ *
+ * @property PUBLIC_KEY_ANNOUNCEMENT Indicates that a message is a Public Key Announcement.
+ * @property PUBLIC_KEY_ANNOUNCEMENT_AS_USER_FOR_DISPUTE Indicates that a message is a Public Key Announcement as a
+ * user for a dispute.
+ * @property PUBLIC_KEY_ANNOUNCEMENT_AS_AGENT_FOR_DISPUTE Indicates that a message is a Public Key Announcement as an
+ * agent for a dispute.
+ * @property ENCRYPTED Indicates that a message is an encrypted message, the payload of which is described by a
+ * [BinaryPayloadType], and the symmetric key and initialization vector of which are separately encrypted with the
+ * recipient's public key.
+ * @property SINGLE_WRAP_ENCRYPTED Indicates that a message is an encrypted message, the payload of which is described
+ * by a [BinaryPayloadType] and is encrypted with AES-GCM, and the symmetric key and nonce of which are encrypted
+ * together in a single block with the recipient's public key.
+ * @property tag The single-byte tag that identifies a particular case of [BinaryMessageType] on the wire.
+ */
+enum class BinaryMessageType {
+    PUBLIC_KEY_ANNOUNCEMENT,
+    PUBLIC_KEY_ANNOUNCEMENT_AS_USER_FOR_DISPUTE,
+    PUBLIC_KEY_ANNOUNCEMENT_AS_AGENT_FOR_DISPUTE,
+    ENCRYPTED,
+    SINGLE_WRAP_ENCRYPTED;
+
+    val tag: Int
+        get() = when (this) {
+            PUBLIC_KEY_ANNOUNCEMENT -> 1
+            PUBLIC_KEY_ANNOUNCEMENT_AS_USER_FOR_DISPUTE -> 2
+            PUBLIC_KEY_ANNOUNCEMENT_AS_AGENT_FOR_DISPUTE -> 3
+            ENCRYPTED -> 4
+            SINGLE_WRAP_ENCRYPTED -> 5
+        }
+
+}
@@ -0,0 +1,103 @@
+package com.commuto.interfacedesktop.p2p.serializable.binary
+
+import java.io.ByteArrayOutputStream
+import java.math.BigInteger
+import java.util.*
+
+/**
+ * Writes the fields of a binary message or binary payload. Variable-length fields are prefixed with their length,
+ * encoded as an unsigned LEB128 variable-length integer, so that most fields carry only a single byte of overhead.
+ *
+ * @property outputStream The [ByteArrayOutputStream] to which this writes bytes.
+ */
+class BinaryMessageWriter {
+
+    private val outputStream = ByteArrayOutputStream()
+
+    /**
+     * Writes the lowest eight bits of [value] as a single byte.
+     *
+     * @param value The value to write.
+     */
+    fun writeByte(value: Int): BinaryMessageWriter {
+        outputStream.write(value)
+        return this
+    }
+
+    /**
+     * Writes [value], which must not be negative, as an unsigned LEB128 variable-length integer.
+     *
+     * @param value The value to write.
+     *
+     * @throws IllegalArgumentException if [value] is negative.
+     */
+    fun writeVarInt(value: Int): BinaryMessageWriter {
+        require(value >= 0) { "Cannot write negative variable-length integer $value" }
+        var remaining = value
+        while (remaining >= 0x80) {
+            outputStream.write((remaining and 0x7F) or 0x80)
+            remaining = remaining ushr 7
+        }
+        outputStream.write(remaining)
+        return this
+    }
+
+    /**
+     * Writes [bytes] prefixed with their length.
+     *
+     * @param bytes The [ByteArray] to write.
+     */
+    fun writeSizedBytes(bytes: ByteArray): BinaryMessageWriter {
+        writeVarInt(bytes.size)
+        outputStream.write(bytes)
+        return this
+    }
+
+    /**
+     * Writes the 16 bytes of [uuid], most significant bits first. Since a [UUID] always has the same size, no length
+     * prefix is written.
+     *
+     * @param uuid The [UUID] to write.
+     */
+    fun writeUUID(uuid: UUID): BinaryMessageWriter {
+        var mostSignificantBits = uuid.mostSignificantBits
+        var leastSignificantBits = uuid.leastSignificantBits
+        val bytes = ByteArray(16)
+        for (index in 7 downTo 0) {
+            bytes[index] = mostSignificantBits.toByte()
+            bytes[index + 8] = leastSignificantBits.toByte()
+            mostSignificantBits = mostSignificantBits ushr 8
+            leastSignificantBits = leastSignificantBits ushr 8
+        }
+        outputStream.write(bytes)
+        return this
+    }
+
+    /**
+     * Writes the UTF-8 bytes of [value] prefixed with their length.
+     *
+     * @param value The [String] to write.
+     */
+    fun writeString(value: String): BinaryMessageWriter {
+        return writeSizedBytes(value.toByteArray(Charsets.UTF_8))
+    }
+
+    /**
+     * Writes the minimal two's-complement big-endian representation of [value] prefixed with its length.
+     *
+     * @param value The [BigInteger] to write.
+     */
+    fun writeBigInteger(value: BigInteger): BinaryMessageWriter {
+        return writeSizedBytes(value.toByteArray())
+    }
+
+    /**
+     * Returns all bytes written so far.
+     *
+     * @return A [ByteArray] containing every byte written to this [BinaryMessageWriter].
+     */
+    fun toByteArray(): ByteArray {
+        return outputStream.toByteArray()
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.commuto.interfacedesktop.p2p.serializable.binary
+
+/**
+ * Describes the type of payload contained in a [BinaryEncryptedMessage]. The [tag] of a payload type is the first byte
+ * of every decrypted binary payload.
+ *
+ * @property TAKER_INFORMATION Indicates that a payload is that of a Taker Information Message.
+ * @property MAKER_INFORMATION Indicates that a payload is that of a Maker Information Message.
+ * @property MAKER_COMMUNICATION_KEY Indicates that a payload is that of a Communication Key Message containing a maker
+ * communication key.
+ * @property TAKER_COMMUNICATION_KEY Indicates that a payload is that of a Communication Key Message containing a taker
+ * communication key.
+ * @property tag The single-byte tag that identifies a particular case of [BinaryPayloadType] on the wire.
+ */
+enum class BinaryPayloadType {
+    TAKER_INFORMATION,
+    MAKER_INFORMATION,
+    MAKER_COMMUNICATION_KEY,
+    TAKER_COMMUNICATION_KEY;
+
+    val tag: Int
+        get() = when (this) {
+            TAKER_INFORMATION -> 1
+            MAKER_INFORMATION -> 2
+            MAKER_COMMUNICATION_KEY -> 3
+            TAKER_COMMUNICATION_KEY -> 4
+        }
+
+}
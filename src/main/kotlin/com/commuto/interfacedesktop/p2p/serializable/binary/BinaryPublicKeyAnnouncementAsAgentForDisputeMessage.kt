@@ -0,0 +1,68 @@
+package com.commuto.interfacedesktop.p2p.serializable.binary
+
+/**
+ * The binary counterpart of
+ * [com.commuto.interfacedesktop.p2p.serializable.messages.SerializablePublicKeyAnnouncementAsAgentForDisputeMessage].
+ *
+ * @property sender The interface ID of the sender of this message.
+ * @property senderEthAddress The 20 bytes of the Ethereum address of the dispute agent sending this message.
+ * @property disputeRole The role of the sender in the dispute, as the [String] returned by
+ * [com.commuto.interfacedesktop.dispute.DisputeRole.asString].
+ * @property payload The binary payload of this message.
+ * @property signature A signature of the SHA-256 hash of [payload], signed with the private key corresponding to the
+ * public key from which the interface ID in [sender] is derived.
+ * @property signatureEth A signature of the SHA-256 hash of [payload], signed with the Ethereum key corresponding to
+ * [senderEthAddress].
+ */
+class BinaryPublicKeyAnnouncementAsAgentForDisputeMessage(
+    val sender: ByteArray,
+    val senderEthAddress: ByteArray,
+    val disputeRole: String,
+    val payload: ByteArray,
+    val signature: ByteArray,
+    val signatureEth: ByteArray,
+) {
+
+    /**
+     * Encodes this message as a binary message body.
+     *
+     * @return The Base64-encoded binary message body containing this message.
+     */
+    fun encode(): String {
+        return encodeBinaryMessageBody(BinaryMessageType.PUBLIC_KEY_ANNOUNCEMENT_AS_AGENT_FOR_DISPUTE) {
+            writeSizedBytes(sender)
+            writeSizedBytes(senderEthAddress)
+            writeString(disputeRole)
+            writeSizedBytes(payload)
+            writeSizedBytes(signature)
+            writeSizedBytes(signatureEth)
+        }
+    }
+
+    companion object {
+        /**
+         * Attempts to restore a [BinaryPublicKeyAnnouncementAsAgentForDisputeMessage] from a binary message body.
+         *
+         * @param messageString An optional [String] that may be a binary message body.
+         *
+         * @return A [BinaryPublicKeyAnnouncementAsAgentForDisputeMessage], or `null` if [messageString] does not
+         * contain such a message.
+         */
+        fun decode(messageString: String?): BinaryPublicKeyAnnouncementAsAgentForDisputeMessage? {
+            return decodeBinaryMessageBody(
+                messageString,
+                BinaryMessageType.PUBLIC_KEY_ANNOUNCEMENT_AS_AGENT_FOR_DISPUTE
+            ) {
+                BinaryPublicKeyAnnouncementAsAgentForDisputeMessage(
+                    sender = readSizedBytes(),
+                    senderEthAddress = readSizedBytes(),
+                    disputeRole = readString(),
+                    payload = readSizedBytes(),
+                    signature = readSizedBytes(),
+                    signatureEth = readSizedBytes(),
+                )
+            }
+        }
+    }
+
+}
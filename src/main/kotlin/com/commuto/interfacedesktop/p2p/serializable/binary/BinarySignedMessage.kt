@@ -0,0 +1,58 @@
+package com.commuto.interfacedesktop.p2p.serializable.binary
+
+/**
+ * The binary counterpart of
+ * [com.commuto.interfacedesktop.p2p.serializable.messages.SerializablePublicKeyAnnouncementMessage]: an unencrypted
+ * message containing a payload signed by the sender. Unlike the JSON format, binary fields are stored as raw bytes
+ * rather than as Base64 strings, and the payload is itself binary rather than Base64-encoded JSON.
+ *
+ * @property messageType The [BinaryMessageType] of this message, which should be either
+ * [BinaryMessageType.PUBLIC_KEY_ANNOUNCEMENT] or [BinaryMessageType.PUBLIC_KEY_ANNOUNCEMENT_AS_USER_FOR_DISPUTE].
+ * @property sender The interface ID of the sender of this message.
+ * @property payload The binary payload of this message.
+ * @property signature The signature of the SHA-256 hash of [payload], signed with the private key corresponding to the
+ * public key from which the interface ID in [sender] is derived.
+ */
+class BinarySignedMessage(
+    val messageType: BinaryMessageType,
+    val sender: ByteArray,
+    val payload: ByteArray,
+    val signature: ByteArray,
+) {
+
+    /**
+     * Encodes this message as a binary message body.
+     *
+     * @return The Base64-encoded binary message body containing this message.
+     */
+    fun encode(): String {
+        return encodeBinaryMessageBody(messageType) {
+            writeSizedBytes(sender)
+            writeSizedBytes(payload)
+            writeSizedBytes(signature)
+        }
+    }
+
+    companion object {
+        /**
+         * Attempts to restore a [BinarySignedMessage] of the specified [messageType] from a binary message body.
+         *
+         * @param messageString An optional [String] that may be a binary message body.
+         * @param messageType The [BinaryMessageType] of the message that should be contained in [messageString].
+         *
+         * @return A [BinarySignedMessage], or `null` if [messageString] does not contain a binary message of
+         * [messageType].
+         */
+        fun decode(messageString: String?, messageType: BinaryMessageType): BinarySignedMessage? {
+            return decodeBinaryMessageBody(messageString, messageType) {
+                BinarySignedMessage(
+                    messageType = messageType,
+                    sender = readSizedBytes(),
+                    payload = readSizedBytes(),
+                    signature = readSizedBytes(),
+                )
+            }
+        }
+    }
+
+}
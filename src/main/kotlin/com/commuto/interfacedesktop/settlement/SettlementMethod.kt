@@ -7,6 +7,7 @@ import kotlinx.serialization.Serializable
 import kotlinx.serialization.encodeToString
 import kotlinx.serialization.Transient
 import kotlinx.serialization.json.Json
+import java.math.BigDecimal
 import java.util.*
 
 /**
@@ -23,6 +24,8 @@ import java.util.*
  * number of the settlement method's owner.
  * @property onChainData This [SettlementMethod] as encoded to UTF-8 bytes, or `null` if this settlement method cannot
  * be encoded.
+ * @property numericPrice [price] parsed as a [BigDecimal], or `null` if [price] is not a number. This is parsed only
+ * when [price] changes, so settlement methods shared via [SettlementMethodInterner] are parsed once.
  */
 @Serializable
 data class SettlementMethod(
@@ -40,6 +43,25 @@ data class SettlementMethod(
             null
         }
 
+    /**
+     * The [price] string from which [numericPrice] was most recently parsed, and the result.
+     */
+    @Transient
+    private var parsedPrice: Pair<String, BigDecimal?>? = null
+
+    val numericPrice: BigDecimal?
+        get() {
+            val currentPrice = price
+            parsedPrice?.let { (parsedPriceString, parsedPriceValue) ->
+                if (parsedPriceString == currentPrice) {
+                    return parsedPriceValue
+                }
+            }
+            return currentPrice.toBigDecimalOrNull().also {
+                parsedPrice = Pair(currentPrice, it)
+            }
+        }
+
     companion object {
         /**
          * A [List] of sample [SettlementMethod]s with empty price strings. Used for previewing offer-related Composable
@@ -0,0 +1,67 @@
+package com.commuto.interfacedesktop.settlement
+
+import kotlinx.serialization.SerializationException
+import kotlinx.serialization.decodeFromString
+import kotlinx.serialization.json.Json
+import java.nio.ByteBuffer
+
+/**
+ * Decodes on-chain settlement methods, sharing one [SettlementMethod] among all offers with byte-identical on-chain
+ * settlement methods, so that many offers accepting the same currency and method at the same price neither decode the
+ * same bytes repeatedly nor keep their own copies of the result.
+ *
+ * [SettlementMethod]s returned by this are shared, and so must not be modified. Code that needs to attach private data
+ * to one must [SettlementMethod.copy] it first. The most recently used [MAXIMUM_SIZE] settlement methods are kept.
+ */
+object SettlementMethodInterner {
+
+    /**
+     * The maximum number of distinct on-chain settlement methods that are kept.
+     */
+    private const val MAXIMUM_SIZE = 4096
+
+    /**
+     * Shared [SettlementMethod]s by their on-chain bytes, in least to most recently used order.
+     */
+    private val settlementMethods = LeastRecentlyUsedMap<ByteBuffer, Pair<ByteArray, SettlementMethod>>(MAXIMUM_SIZE)
+
+    /**
+     * Gets the shared [SettlementMethod] encoded by [onChainData], decoding it and parsing its
+     * [SettlementMethod.numericPrice] if no settlement method with the same on-chain bytes has been interned.
+     *
+     * @param onChainData A settlement method as encoded on-chain, as UTF-8 JSON bytes.
+     *
+     * @return A [Pair] containing the shared on-chain bytes, which are equal to [onChainData] and which should be
+     * stored instead of [onChainData], and the shared [SettlementMethod] that they encode.
+     *
+     * @throws SerializationException if [onChainData] is not a valid settlement method.
+     */
+    fun intern(onChainData: ByteArray): Pair<ByteArray, SettlementMethod> {
+        synchronized(settlementMethods) {
+            settlementMethods[ByteBuffer.wrap(onChainData)]
+        }?.let {
+            return it
+        }
+        val settlementMethod = Json.decodeFromString<SettlementMethod>(onChainData.decodeToString())
+        settlementMethod.numericPrice
+        // Copy the bytes so that the key cannot be changed by the caller
+        val sharedOnChainData = onChainData.copyOf()
+        val internedSettlementMethod = Pair(sharedOnChainData, settlementMethod)
+        return synchronized(settlementMethods) {
+            settlementMethods.getOrPut(ByteBuffer.wrap(sharedOnChainData)) { internedSettlementMethod }
+        }
+    }
+
+}
+
+/**
+ * A [LinkedHashMap] in access order that removes its least recently used entry whenever it has more than [maximumSize]
+ * entries.
+ *
+ * @property maximumSize The maximum number of entries in this map.
+ */
+private class LeastRecentlyUsedMap<K, V>(private val maximumSize: Int) : LinkedHashMap<K, V>(16, 0.75f, true) {
+    override fun removeEldestEntry(eldest: MutableMap.MutableEntry<K, V>?): Boolean {
+        return size > maximumSize
+    }
+}
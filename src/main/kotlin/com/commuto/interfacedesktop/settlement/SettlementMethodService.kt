@@ -7,9 +7,11 @@ import com.commuto.interfacedesktop.settlement.privatedata.PrivateSWIFTData
 import com.commuto.interfacedesktop.ui.settlement.UISettlementMethodTruthSource
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.withContext
+import kotlinx.serialization.decodeFromString
 import kotlinx.serialization.encodeToString
 import kotlinx.serialization.json.Json
 import org.slf4j.LoggerFactory
+import java.util.*
 import javax.inject.Inject
 import javax.inject.Singleton
 
@@ -42,6 +44,45 @@ class SettlementMethodService @Inject constructor(
         settlementMethodTruthSource = newTruthSource
     }
 
+    /**
+     * Adds all of the user's persistently stored settlement methods to [settlementMethodTruthSource], so that they are
+     * available immediately after startup.
+     *
+     * This reads settlement methods in batches via [DatabaseService.streamUserSettlementMethods], which decrypts their
+     * private data in parallel. Each batch is deserialized on the default coroutine dispatcher and then added to
+     * [settlementMethodTruthSource] all at once on the main coroutine dispatcher, skipping any settlement method with
+     * an ID equal to that of one already present. Settlement methods that cannot be deserialized are logged and
+     * skipped.
+     */
+    suspend fun hydrateSettlementMethods() {
+        logger.info("hydrateSettlementMethods: hydrating settlementMethodTruthSource")
+        var hydratedSettlementMethodCount = 0
+        databaseService.streamUserSettlementMethods().collect { batch ->
+            val settlementMethods = withContext(Dispatchers.Default) {
+                batch.mapNotNull {
+                    try {
+                        Json.decodeFromString<SettlementMethod>(it.settlementMethod).copy(
+                            id = UUID.fromString(it.settlementMethodID),
+                            privateData = it.privateData?.decodeToString(),
+                        )
+                    } catch (exception: Exception) {
+                        logger.error("hydrateSettlementMethods: unable to restore settlement method " +
+                                it.settlementMethodID, exception)
+                        null
+                    }
+                }
+            }
+            withContext(Dispatchers.Main) {
+                val existingIDs = settlementMethodTruthSource.settlementMethods.map { it.id }.toSet()
+                settlementMethodTruthSource.settlementMethods.addAll(
+                    settlementMethods.filter { !existingIDs.contains(it.id) }
+                )
+            }
+            hydratedSettlementMethodCount += settlementMethods.size
+        }
+        logger.info("hydrateSettlementMethods: hydrated $hydratedSettlementMethodCount settlement methods")
+    }
+
     /**
      * Attempts to add a [SettlementMethod] with corresponding [PrivateData] to the list of the user's settlement
      * methods.
@@ -55,4 +55,17 @@ enum class ClosingSwapState {
             EXCEPTION -> "An exception occurred."
         }
 
-}
\ No newline at end of file
+    companion object {
+        /**
+         * Attempts to create a [ClosingSwapState] corresponding to the given [String], or returns `null` if no case
+         * corresponds to the given [String].
+         *
+         * @param string The [String] from which this attempts to create a corresponding [ClosingSwapState].
+         *
+         * @return A [ClosingSwapState] corresponding to [string], or `null` if no such [ClosingSwapState] exists.
+         */
+        fun fromString(string: String?): ClosingSwapState? {
+            return values().firstOrNull { it.asString == string }
+        }
+    }
+}
@@ -51,4 +51,18 @@ enum class FillingSwapState {
             // Note: This should not be used; instead, the actual exception message should be displayed.
             EXCEPTION -> "An exception occurred."
         }
-}
\ No newline at end of file
+
+    companion object {
+        /**
+         * Attempts to create a [FillingSwapState] corresponding to the given [String], or returns `null` if no case
+         * corresponds to the given [String].
+         *
+         * @param string The [String] from which this attempts to create a corresponding [FillingSwapState].
+         *
+         * @return A [FillingSwapState] corresponding to [string], or `null` if no such [FillingSwapState] exists.
+         */
+        fun fromString(string: String?): FillingSwapState? {
+            return values().firstOrNull { it.asString == string }
+        }
+    }
+}
@@ -54,4 +54,20 @@ enum class ReportingPaymentReceivedState {
             // Note: This should not be used; instead, the actual exception message should be displayed.
             EXCEPTION -> "An exception occurred."
         }
-}
\ No newline at end of file
+
+    companion object {
+        /**
+         * Attempts to create a [ReportingPaymentReceivedState] corresponding to the given [String], or returns `null`
+         * if no case corresponds to the given [String].
+         *
+         * @param string The [String] from which this attempts to create a corresponding
+         * [ReportingPaymentReceivedState].
+         *
+         * @return A [ReportingPaymentReceivedState] corresponding to [string], or `null` if no such
+         * [ReportingPaymentReceivedState] exists.
+         */
+        fun fromString(string: String?): ReportingPaymentReceivedState? {
+            return values().firstOrNull { it.asString == string }
+        }
+    }
+}
@@ -53,4 +53,19 @@ enum class ReportingPaymentSentState {
             // Note: This should not be used; instead, the actual exception message should be displayed.
             EXCEPTION -> "An exception occurred."
         }
-}
\ No newline at end of file
+
+    companion object {
+        /**
+         * Attempts to create a [ReportingPaymentSentState] corresponding to the given [String], or returns `null` if no
+         * case corresponds to the given [String].
+         *
+         * @param string The [String] from which this attempts to create a corresponding [ReportingPaymentSentState].
+         *
+         * @return A [ReportingPaymentSentState] corresponding to [string], or `null` if no such
+         * [ReportingPaymentSentState] exists.
+         */
+        fun fromString(string: String?): ReportingPaymentSentState? {
+            return values().firstOrNull { it.asString == string }
+        }
+    }
+}
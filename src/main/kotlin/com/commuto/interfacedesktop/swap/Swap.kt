@@ -3,6 +3,7 @@ package com.commuto.interfacedesktop.swap
 import androidx.compose.runtime.MutableState
 import androidx.compose.runtime.mutableStateOf
 import com.commuto.interfacedesktop.blockchain.BlockchainTransaction
+import com.commuto.interfacedesktop.blockchain.TransactionHashIndex
 import com.commuto.interfacedesktop.blockchain.structs.SwapStruct
 import com.commuto.interfacedesktop.dispute.DisputeState
 import com.commuto.interfacedesktop.dispute.RaisingDisputeState
@@ -117,6 +118,10 @@ import java.util.*
  * [raiseDispute](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#raise-dispute) for this swap. If the
  * user of this interface is not the dispute raiser, all properties of this [BlockchainTransaction] except the
  * transaction hash may not be accurate.
+ * @property transactionHashIndex The [TransactionHashIndex] in which the [BlockchainTransaction]s attached to this
+ * swap are indexed, or `null` if they are not indexed. When this is set, the transactions currently attached to this
+ * swap are moved to the new index, and transactions attached to or cleared from this swap afterwards are added to or
+ * removed from it.
  */
 class Swap(
     val isCreated: Boolean,
@@ -151,28 +156,66 @@ class Swap(
 
     val state: MutableState<SwapState> = mutableStateOf(state)
 
+    var transactionHashIndex: TransactionHashIndex<Swap>? = null
+        set(value) {
+            if (value !== field) {
+                listOfNotNull(
+                    approvingToFillTransaction,
+                    swapFillingTransaction,
+                    reportPaymentSentTransaction,
+                    reportPaymentReceivedTransaction,
+                    closeSwapTransaction,
+                    raisingDisputeTransaction,
+                ).forEach {
+                    field?.remove(it, this)
+                    value?.add(it, this)
+                }
+                field = value
+            }
+        }
+
     val approvingToFillState: MutableState<TokenTransferApprovalState> = mutableStateOf(TokenTransferApprovalState.NONE)
     var approvingToFillException: Exception? = null
     var approvingToFillTransaction: BlockchainTransaction? = null
+        set(value) {
+            transactionHashIndex?.replace(field, value, this)
+            field = value
+        }
 
     val fillingSwapState = mutableStateOf(FillingSwapState.NONE)
     var fillingSwapException: Exception? = null
     var swapFillingTransaction: BlockchainTransaction? = null
+        set(value) {
+            transactionHashIndex?.replace(field, value, this)
+            field = value
+        }
 
     val reportingPaymentSentState = mutableStateOf(ReportingPaymentSentState.NONE)
     var reportingPaymentSentException: Exception? = null
 
     var reportPaymentSentTransaction: BlockchainTransaction? = null
+        set(value) {
+            transactionHashIndex?.replace(field, value, this)
+            field = value
+        }
 
     val reportingPaymentReceivedState = mutableStateOf(ReportingPaymentReceivedState.NONE)
     var reportingPaymentReceivedException: Exception? = null
 
     var reportPaymentReceivedTransaction: BlockchainTransaction? = null
+        set(value) {
+            transactionHashIndex?.replace(field, value, this)
+            field = value
+        }
 
     val closingSwapState = mutableStateOf(ClosingSwapState.NONE)
     var closingSwapException: Exception? = null
 
     var closeSwapTransaction: BlockchainTransaction? = null
+        set(value) {
+            transactionHashIndex?.replace(field, value, this)
+            field = value
+        }
 
     var makerPrivateSettlementMethodData: String? = null
     var takerPrivateSettlementMethodData: String? = null
@@ -182,6 +225,10 @@ class Swap(
     val raisingDisputeState = mutableStateOf(RaisingDisputeState.NONE)
     var raisingDisputeException: Exception? = null
     var raisingDisputeTransaction: BlockchainTransaction? = null
+        set(value) {
+            transactionHashIndex?.replace(field, value, this)
+            field = value
+        }
 
     init {
         when (this.direction) {
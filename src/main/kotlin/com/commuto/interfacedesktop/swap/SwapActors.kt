@@ -0,0 +1,132 @@
+package com.commuto.interfacedesktop.swap
+
+import kotlinx.coroutines.*
+import kotlinx.coroutines.channels.Channel
+import java.util.*
+import kotlin.coroutines.AbstractCoroutineContextElement
+import kotlin.coroutines.ContinuationInterceptor
+import kotlin.coroutines.CoroutineContext
+import kotlin.coroutines.coroutineContext
+
+/**
+ * Serializes all work done on each swap, while letting work on different swaps proceed in parallel.
+ *
+ * Each swap with pending work has a lightweight actor: a coroutine that takes work from the swap's mailbox and runs it
+ * one piece at a time, in the order in which it was submitted. An actor is started when work is submitted for a swap
+ * that has none pending, and it stops once its mailbox is empty, so idle swaps hold no coroutines or channels.
+ *
+ * Each piece of work runs on the dispatcher of the coroutine that submitted it, so work submitted from the main
+ * coroutine dispatcher can update truth sources directly, and actors only decide when work runs, not where.
+ *
+ * Work submitted from within work that is already running on the same swap's actor runs immediately, in the
+ * submitting coroutine, rather than waiting in the mailbox for the submitting work to finish (which it never would).
+ * Work must not be submitted for a different swap from within work running on a swap's actor, since two swaps waiting
+ * for each other in this way would never finish; [process] throws [IllegalStateException] instead of waiting.
+ *
+ * @param scope The [CoroutineScope] in which actors are launched.
+ *
+ * @property lock Guards [mailboxes] and the [Mailbox.pendingWork] count of each mailbox, so that an actor never stops
+ * while work is being submitted to its mailbox.
+ * @property mailboxes The [Mailbox]es of the swaps that currently have pending work, keyed by swap ID.
+ */
+class SwapActors(
+    private val scope: CoroutineScope = CoroutineScope(SupervisorJob() + Dispatchers.Default),
+) {
+
+    private val lock = Any()
+
+    private val mailboxes = HashMap<UUID, Mailbox>()
+
+    /**
+     * The mailbox of a single swap's actor.
+     *
+     * @property channel The work waiting to be run by the actor, in the order in which it was submitted.
+     * @property pendingWork The number of pieces of work that have been submitted to [channel] and have not yet
+     * finished running.
+     */
+    private class Mailbox {
+        val channel = Channel<suspend () -> Unit>(Channel.UNLIMITED)
+        var pendingWork = 0
+    }
+
+    /**
+     * A [CoroutineContext] element identifying the swap on whose actor a coroutine is running.
+     *
+     * @property swapID The ID of the swap on whose actor the coroutine is running.
+     */
+    private class ActiveSwap(val swapID: UUID) : AbstractCoroutineContextElement(ActiveSwap) {
+        companion object Key : CoroutineContext.Key<ActiveSwap>
+    }
+
+    /**
+     * Runs [block] on the actor of the swap with ID [swapID], after all work previously submitted for that swap has
+     * finished, and suspends until [block] finishes.
+     *
+     * [block] runs on the dispatcher of the caller. If the caller is cancelled before [block] has started running,
+     * [block] will not be run.
+     *
+     * @param swapID The ID of the swap on which [block] operates.
+     * @param block The work to be run.
+     *
+     * @return The value returned by [block].
+     *
+     * @throws IllegalStateException if this is called from within work running on the actor of a different swap.
+     * @throws Exception if [block] throws, in which case the same exception is thrown.
+     */
+    suspend fun <T> process(swapID: UUID, block: suspend () -> T): T {
+        val activeSwap = coroutineContext[ActiveSwap]
+        if (activeSwap != null) {
+            check(activeSwap.swapID == swapID) {
+                "Work on swap $swapID cannot be submitted from within work on swap ${activeSwap.swapID}"
+            }
+            return block()
+        }
+        val callerDispatcher = coroutineContext[ContinuationInterceptor] ?: Dispatchers.Default
+        val result = CompletableDeferred<T>()
+        val work: suspend () -> Unit = {
+            if (!result.isCompleted) {
+                try {
+                    result.complete(withContext(callerDispatcher + ActiveSwap(swapID)) { block() })
+                } catch (exception: Throwable) {
+                    result.completeExceptionally(exception)
+                }
+            }
+        }
+        synchronized(lock) {
+            val mailbox = mailboxes.getOrPut(swapID) {
+                Mailbox().also { launchActor(swapID, it) }
+            }
+            mailbox.pendingWork++
+            mailbox.channel.trySend(work)
+        }
+        try {
+            return result.await()
+        } catch (exception: CancellationException) {
+            result.cancel(exception)
+            throw exception
+        }
+    }
+
+    /**
+     * Launches the actor that runs the work in [mailbox] for the swap with ID [swapID], and that removes [mailbox] from
+     * [mailboxes] and stops once all submitted work has finished.
+     *
+     * @param swapID The ID of the swap to which [mailbox] belongs.
+     * @param mailbox The [Mailbox] from which the actor takes work.
+     */
+    private fun launchActor(swapID: UUID, mailbox: Mailbox) {
+        scope.launch {
+            for (work in mailbox.channel) {
+                work()
+                synchronized(lock) {
+                    mailbox.pendingWork--
+                    if (mailbox.pendingWork == 0) {
+                        mailboxes.remove(swapID)
+                        mailbox.channel.close()
+                    }
+                }
+            }
+        }
+    }
+
+}
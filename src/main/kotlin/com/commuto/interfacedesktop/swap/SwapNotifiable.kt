@@ -49,6 +49,15 @@ interface SwapNotifiable {
      */
     suspend fun handleNewSwap(takenOffer: Offer)
 
+    /**
+     * The function called by [OfferService] before it adds a [Swap] that it has created to the swap truth source, so
+     * that the [BlockchainTransaction]s attached to the swap can be found by transaction hash. This must be called on
+     * the main coroutine dispatcher.
+     *
+     * @param swap The [Swap] that is about to be added to the swap truth source.
+     */
+    fun attachSwapToTransactionHashIndex(swap: Swap)
+
     /**
      * The method called by [com.commuto.interfacedesktop.blockchain.BlockchainService] in order to notify the
      * class implementing this interface of an [ApprovalEvent].
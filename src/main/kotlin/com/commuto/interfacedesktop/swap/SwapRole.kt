@@ -26,4 +26,18 @@ enum class SwapRole {
             TAKER_AND_BUYER -> "takerAndBuyer"
             TAKER_AND_SELLER -> "takerAndSeller"
         }
-}
\ No newline at end of file
+
+    companion object {
+        /**
+         * Attempts to create a [SwapRole] corresponding to the given [String], or returns `null` if no case corresponds
+         * to the given [String].
+         *
+         * @param string The [String] from which this attempts to create a corresponding [SwapRole].
+         *
+         * @return A [SwapRole] corresponding to [string], or `null` if no such [SwapRole] exists.
+         */
+        fun fromString(string: String?): SwapRole? {
+            return values().firstOrNull { it.asString == string }
+        }
+    }
+}
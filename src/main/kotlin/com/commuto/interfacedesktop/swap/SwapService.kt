@@ -4,12 +4,14 @@ import com.commuto.interfacedesktop.blockchain.BlockchainService
 import com.commuto.interfacedesktop.blockchain.BlockchainTransaction
 import com.commuto.interfacedesktop.blockchain.BlockchainTransactionException
 import com.commuto.interfacedesktop.blockchain.BlockchainTransactionType
+import com.commuto.interfacedesktop.blockchain.TransactionHashIndex
 import com.commuto.interfacedesktop.blockchain.events.commutoswap.*
 import com.commuto.interfacedesktop.blockchain.events.erc20.ApprovalEvent
 import com.commuto.interfacedesktop.blockchain.events.erc20.TokenTransferApprovalPurpose
 import com.commuto.interfacedesktop.database.DatabaseService
 import com.commuto.interfacedesktop.db.Swap as DatabaseSwap
-import com.commuto.interfacedesktop.extension.asByteArray
+import com.commuto.interfacedesktop.dispute.DisputeState
+import com.commuto.interfacedesktop.dispute.RaisingDisputeState
 import com.commuto.interfacedesktop.key.KeyManagerService
 import com.commuto.interfacedesktop.offer.Offer
 import com.commuto.interfacedesktop.offer.OfferDirection
@@ -50,6 +52,13 @@ import javax.inject.Singleton
  * @property blockchainService The [BlockchainService] that this uses to interact with the blockchain.
  * @property p2pService The [P2PService] that this uses for interacting with the peer-to-peer network.
  * @property logger The [org.slf4j.Logger] that this class uses for logging.
+ * @property swapTransactionHashIndex A [TransactionHashIndex] of the [BlockchainTransaction]s attached to the swaps in
+ * [swapTruthSource], with which this finds the swap to which a failed transaction or approval event belongs. Every
+ * swap in [swapTruthSource] is attached to this index, including those that [OfferService] adds via
+ * [attachSwapToTransactionHashIndex].
+ * @property swapActors The [SwapActors] on which this handles all blockchain events, P2P messages and user actions
+ * concerning existing swaps, so that those concerning a single swap are handled one at a time, in the order in which
+ * they arrive, while those concerning different swaps are handled concurrently.
  */
 @Singleton
 class SwapService @Inject constructor(
@@ -65,8 +74,14 @@ class SwapService @Inject constructor(
 
     private val logger = LoggerFactory.getLogger(javaClass)
 
+    private val swapTransactionHashIndex = TransactionHashIndex<Swap>()
+
+    private val swapActors = SwapActors()
+
     /**
-     * Used to set the [swapTruthSource] property. This can only be called once.
+     * Used to set the [swapTruthSource] property. This can only be called once. Any swaps already in [newTruthSource]
+     * are attached to [swapTransactionHashIndex], since every later swap is attached when it is added, either by this
+     * service or via [attachSwapToTransactionHashIndex].
      *
      * @param newTruthSource The new value of the [swapTruthSource] property, which cannot be null.
      */
@@ -75,6 +90,7 @@ class SwapService @Inject constructor(
             "swapTruthSource is already initialized"
         }
         swapTruthSource = newTruthSource
+        newTruthSource.swaps.values.forEach { it.transactionHashIndex = swapTransactionHashIndex }
     }
 
     /**
@@ -101,6 +117,101 @@ class SwapService @Inject constructor(
         p2pService = newP2PService
     }
 
+    /**
+     * Adds all persistently stored swaps to [swapTruthSource], so that swaps that were in progress when the app was
+     * last closed are available immediately after startup.
+     *
+     * This reads swaps in batches via [DatabaseService.streamSwaps], which decrypts their private settlement method
+     * data in parallel. Each batch is converted to [Swap]s on the default coroutine dispatcher and then added to
+     * [swapTruthSource] all at once on the main coroutine dispatcher, skipping any swap that is already present
+     * (because it was added by an event handler while this was running). Swaps that cannot be converted are logged and
+     * skipped. Note that the [BlockchainTransaction]s of swaps are not restored.
+     */
+    suspend fun hydrateSwaps() {
+        logger.info("hydrateSwaps: hydrating swapTruthSource")
+        var hydratedSwapCount = 0
+        databaseService.streamSwaps().collect { batch ->
+            val swaps = withContext(Dispatchers.Default) {
+                batch.mapNotNull {
+                    try {
+                        createSwapFromDatabase(it)
+                    } catch (exception: Exception) {
+                        logger.error("hydrateSwaps: unable to restore swap with ID ${it.id}", exception)
+                        null
+                    }
+                }
+            }
+            withContext(Dispatchers.Main) {
+                val newSwaps = swaps.filter { !swapTruthSource.swaps.containsKey(it.id) }
+                newSwaps.forEach { it.transactionHashIndex = swapTransactionHashIndex }
+                swapTruthSource.swaps.putAll(newSwaps.associateBy { it.id })
+            }
+            hydratedSwapCount += swaps.size
+        }
+        logger.info("hydrateSwaps: hydrated $hydratedSwapCount swaps")
+    }
+
+    /**
+     * Creates a [Swap] from a persistently stored [DatabaseSwap].
+     *
+     * @param dbSwap The [DatabaseSwap], with decrypted private data, from which to create a [Swap].
+     *
+     * @return A new [Swap] with the data and state stored in [dbSwap].
+     *
+     * @throws IllegalStateException if [dbSwap] has an invalid direction, state or role.
+     */
+    private fun createSwapFromDatabase(dbSwap: DatabaseSwap): Swap {
+        val decoder = Base64.getDecoder()
+        val swap = Swap(
+            isCreated = dbSwap.isCreated == 1L,
+            requiresFill = dbSwap.requiresFill == 1L,
+            id = dbSwap.id,
+            maker = dbSwap.maker,
+            makerInterfaceID = decoder.decode(dbSwap.makerInterfaceID),
+            taker = dbSwap.taker,
+            takerInterfaceID = decoder.decode(dbSwap.takerInterfaceID),
+            stablecoin = dbSwap.stablecoin,
+            amountLowerBound = dbSwap.amountLowerBound,
+            amountUpperBound = dbSwap.amountUpperBound,
+            securityDepositAmount = dbSwap.securityDepositAmount,
+            takenSwapAmount = dbSwap.takenSwapAmount,
+            serviceFeeAmount = dbSwap.serviceFeeAmount,
+            serviceFeeRate = dbSwap.serviceFeeRate,
+            direction = when (dbSwap.onChainDirection) {
+                "0" -> OfferDirection.BUY
+                "1" -> OfferDirection.SELL
+                else -> throw IllegalStateException("Unexpected onChainDirection ${dbSwap.onChainDirection}")
+            },
+            onChainSettlementMethod = decoder.decode(dbSwap.settlementMethod),
+            protocolVersion = BigInteger(dbSwap.protocolVersion),
+            isPaymentSent = dbSwap.isPaymentSent == 1L,
+            isPaymentReceived = dbSwap.isPaymentReceived == 1L,
+            hasBuyerClosed = dbSwap.hasBuyerClosed == 1L,
+            hasSellerClosed = dbSwap.hasSellerClosed == 1L,
+            onChainDisputeRaiser = BigInteger(dbSwap.disputeRaiser),
+            chainID = dbSwap.chainID,
+            state = SwapState.fromString(dbSwap.state)
+                ?: throw IllegalStateException("Unexpected swap state ${dbSwap.state}"),
+            role = SwapRole.fromString(dbSwap.role)
+                ?: throw IllegalStateException("Unexpected swap role ${dbSwap.role}"),
+        )
+        swap.makerPrivateSettlementMethodData = dbSwap.makerPrivateData?.decodeToString()
+        swap.takerPrivateSettlementMethodData = dbSwap.takerPrivateData?.decodeToString()
+        swap.approvingToFillState.value = TokenTransferApprovalState.fromString(dbSwap.approveToFillState)
+            ?: TokenTransferApprovalState.NONE
+        swap.fillingSwapState.value = FillingSwapState.fromString(dbSwap.fillingSwapState) ?: FillingSwapState.NONE
+        swap.reportingPaymentSentState.value = ReportingPaymentSentState.fromString(dbSwap.reportPaymentSentState)
+            ?: ReportingPaymentSentState.NONE
+        swap.reportingPaymentReceivedState.value = ReportingPaymentReceivedState.fromString(
+            dbSwap.reportPaymentReceivedState
+        ) ?: ReportingPaymentReceivedState.NONE
+        swap.closingSwapState.value = ClosingSwapState.fromString(dbSwap.closeSwapState) ?: ClosingSwapState.NONE
+        swap.disputeState.value = DisputeState.fromString(dbSwap.disputeState) ?: DisputeState.NONE
+        swap.raisingDisputeState.value = RaisingDisputeState.fromString(dbSwap.raisingDisputeState)
+            ?: RaisingDisputeState.NONE
+        return swap
+    }
+
     /**
      * If [swapID] and [chainID] correspond to an offer taken by the user of this interface, this sends a
      * [Taker Information Message](https://github.com/jimmyneutront/commuto-whitepaper/blob/main/commuto-interface-specification.txt):
@@ -115,64 +226,64 @@ class SwapService @Inject constructor(
      * @param chainID The ID of the blockchain on which the swap exists.
      */
     override suspend fun sendTakerInformationMessage(swapID: UUID, chainID: BigInteger): Boolean {
-        logger.info("sendTakerInformationMessage: checking if message should be sent for $swapID")
-        val swap = swapTruthSource.swaps[swapID]
-        if (swap == null) {
-            logger.info("sendTakerInformationMessage: could not find $swapID in swapTruthSource")
-            return false
-        }
-        if (swap.chainID != chainID) {
-            throw SwapServiceException("Passed chain ID $chainID does not match that of swap ${swap.id}: " +
-                    "${swap.chainID}")
-        }
-        if (swap.role != SwapRole.TAKER_AND_BUYER && swap.role != SwapRole.TAKER_AND_SELLER) {
-            logger.info("sendTakerInformationMessage: user is not taker in $swapID")
-            return false
-        }
-        logger.info("sendTakerInformationMessage: user is taker in ${swapID}, sending message")
-        val encoder = Base64.getEncoder()
-        val swapIDString = encoder.encodeToString(swapID.asByteArray())
-        databaseService.updateSwapState(
-            swapID = swapIDString,
-            chainID = chainID.toString(),
-            state = SwapState.AWAITING_TAKER_INFORMATION.asString
-        )
-        withContext(Dispatchers.Main) {
-            swap.state.value = SwapState.AWAITING_TAKER_INFORMATION
-        }
-        /*
-        The user of this interface has taken the swap. Since taking a swap is not allowed unless we have a copy of the
-        maker's public key, we should have said public key in storage.
-         */
-        val makerPublicKey = keyManagerService.getPublicKey(swap.makerInterfaceID)
-            ?: throw SwapServiceException("Could not find maker's public key for $swapID")
-        /*
-        Since the user of this interface has taken the swap, we should have a key pair for the swap in persistent
-        storage.
-         */
-        val takerKeyPair = keyManagerService.getKeyPair(swap.takerInterfaceID)
-            ?: throw SwapServiceException("Could not find taker's (user's) key pair for $swapID")
-        if (swap.takerPrivateSettlementMethodData == null) {
-            logger.warn("sendTakerInformationMessage: taker info is null for $swapID")
-        }
-        logger.info("sendTakerInformationMessage: sending for $swapID")
-        p2pService.sendTakerInformation(
-            makerPublicKey = makerPublicKey,
-            takerKeyPair = takerKeyPair,
-            swapID = swapID,
-            settlementMethodDetails = swap.takerPrivateSettlementMethodData
-        )
-        logger.info("sendTakerInformationMessage: sent for $swapID")
-        databaseService.updateSwapState(
-            swapID = swapIDString,
-            chainID = chainID.toString(),
-            state = SwapState.AWAITING_MAKER_INFORMATION.asString
-        )
-        withContext(Dispatchers.Main) {
-            swap.state.value = SwapState.AWAITING_MAKER_INFORMATION
+        return swapActors.process(swapID) {
+            logger.info("sendTakerInformationMessage: checking if message should be sent for $swapID")
+            val swap = swapTruthSource.swaps[swapID]
+            if (swap == null) {
+                logger.info("sendTakerInformationMessage: could not find $swapID in swapTruthSource")
+                return@process false
+            }
+            if (swap.chainID != chainID) {
+                throw SwapServiceException("Passed chain ID $chainID does not match that of swap ${swap.id}: " +
+                        "${swap.chainID}")
+            }
+            if (swap.role != SwapRole.TAKER_AND_BUYER && swap.role != SwapRole.TAKER_AND_SELLER) {
+                logger.info("sendTakerInformationMessage: user is not taker in $swapID")
+                return@process false
+            }
+            logger.info("sendTakerInformationMessage: user is taker in ${swapID}, sending message")
+            databaseService.updateSwapState(
+                swapID = swapID,
+                chainID = chainID,
+                state = SwapState.AWAITING_TAKER_INFORMATION.asString
+            )
+            withContext(Dispatchers.Main) {
+                swap.state.value = SwapState.AWAITING_TAKER_INFORMATION
+            }
+            /*
+            The user of this interface has taken the swap. Since taking a swap is not allowed unless we have a copy of
+            the maker's public key, we should have said public key in storage.
+             */
+            val makerPublicKey = keyManagerService.getPublicKey(swap.makerInterfaceID)
+                ?: throw SwapServiceException("Could not find maker's public key for $swapID")
+            /*
+            Since the user of this interface has taken the swap, we should have a key pair for the swap in persistent
+            storage.
+             */
+            val takerKeyPair = keyManagerService.getKeyPair(swap.takerInterfaceID)
+                ?: throw SwapServiceException("Could not find taker's (user's) key pair for $swapID")
+            if (swap.takerPrivateSettlementMethodData == null) {
+                logger.warn("sendTakerInformationMessage: taker info is null for $swapID")
+            }
+            logger.info("sendTakerInformationMessage: sending for $swapID")
+            p2pService.sendTakerInformation(
+                makerPublicKey = makerPublicKey,
+                takerKeyPair = takerKeyPair,
+                swapID = swapID,
+                settlementMethodDetails = swap.takerPrivateSettlementMethodData
+            )
+            logger.info("sendTakerInformationMessage: sent for $swapID")
+            databaseService.updateSwapState(
+                swapID = swapID,
+                chainID = chainID,
+                state = SwapState.AWAITING_MAKER_INFORMATION.asString
+            )
+            withContext(Dispatchers.Main) {
+                swap.state.value = SwapState.AWAITING_MAKER_INFORMATION
+            }
+            // We have sent a taker info message for this swap, so we return true
+            true
         }
-        // We have sent a taker info message for this swap, so we return true
-        return true
     }
 
     /**
@@ -183,12 +294,14 @@ class SwapService @Inject constructor(
      * On the IO coroutine dispatcher, this ensures that the user is the maker and stablecoin seller of [swapToFill],
      * and that [swapToFill] can actually be filled. Then this approves token transfer for [swapToFill]'s
      * [Swap.takenSwapAmount] to the
-     * [CommutoSwap](https://github.com/jimmyneutront/commuto-protocol/blob/main/CommutoSwap.sol) contract, calls the
-     * CommutoSwap contract's [fillSwap](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#fill-swap)
-     * function (via [blockchainService]), persistently updates the state of [swapToFill] to
-     * [SwapState.FILL_SWAP_TRANSACTION_SENT], and sets [swapToFill]'s [Swap.requiresFill] property to false.
-     * Finally, on the main coroutine dispatcher, this updates [swapToFill]'s [Swap.state] value to
-     * [SwapState.FILL_SWAP_TRANSACTION_SENT].
+     * [CommutoSwap](https://github.com/jimmyneutront/commuto-protocol/blob/main/CommutoSwap.sol) contract (unless
+     * [BlockchainService.reserveTokenAllowance] finds that enough allowance has already been given) with
+     * [BlockchainService.approveAndReserveTokenAllowance], calls the CommutoSwap contract's
+     * [fillSwap](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#fill-swap) function (via
+     * [blockchainService]), settles the allowance reserved for filling [swapToFill], persistently updates the state of
+     * [swapToFill] to [SwapState.FILL_SWAP_TRANSACTION_SENT], and sets [swapToFill]'s [Swap.requiresFill] property to
+     * false. Finally, on the main coroutine dispatcher, this updates [swapToFill]'s [Swap.state] value to
+     * [SwapState.FILL_SWAP_TRANSACTION_SENT]. If this fails after reserving allowance, the reservation is released.
      *
      * @param swapToFill The [Swap] that this function will fill.
      * @param afterPossibilityCheck A lambda that will be executed after this has ensured that the swap can be filled.
@@ -203,49 +316,69 @@ class SwapService @Inject constructor(
         afterPossibilityCheck: (suspend () -> Unit)? = null,
         afterTransferApproval: (suspend () -> Unit)? = null,
     ) {
-        withContext(Dispatchers.IO) {
-            logger.info("fillSwap: checking that ${swapToFill.id} can be filled")
-            try {
-                if (swapToFill.role != SwapRole.MAKER_AND_SELLER) {
-                    throw SwapServiceException("Only Maker-As-Seller swaps can be filled")
-                }
-                if (swapToFill.state.value != SwapState.AWAITING_FILLING) {
-                    throw SwapServiceException("This Swap cannot currently be filled")
-                }
-                afterPossibilityCheck?.invoke()
-                logger.info("fillSwap: authorizing transfer for ${swapToFill.id}. Amount: " +
-                        "${swapToFill.takenSwapAmount}")
-                blockchainService.approveTokenTransferAsync(
-                    tokenAddress = swapToFill.stablecoin,
-                    destinationAddress = blockchainService.getCommutoSwapAddress(),
-                    amount = swapToFill.takenSwapAmount,
-                ).await()
-                afterTransferApproval?.invoke()
-                logger.info("fillSwap: filling ${swapToFill.id}")
-                blockchainService.fillSwapAsync(
-                    id = swapToFill.id
-                ).await()
-                logger.info("fillSwap: filled ${swapToFill.id}")
-                val encoder = Base64.getEncoder()
-                val swapIDB64String = encoder.encodeToString(swapToFill.id.asByteArray())
-                databaseService.updateSwapState(
-                    swapID = swapIDB64String,
-                    chainID = swapToFill.chainID.toString(),
-                    state = SwapState.FILL_SWAP_TRANSACTION_SENT.asString,
-                )
-                databaseService.updateSwapRequiresFill(
-                    swapID = swapIDB64String,
-                    chainID = swapToFill.chainID.toString(),
-                    requiresFill = false,
-                )
-                // This is not a MutableState property, so we can upgrade it from a background thread
-                swapToFill.requiresFill = false
-                withContext(Dispatchers.Main) {
-                    swapToFill.state.value = SwapState.FILL_SWAP_TRANSACTION_SENT
+        swapActors.process(swapToFill.id) {
+            withContext(Dispatchers.IO) {
+                logger.info("fillSwap: checking that ${swapToFill.id} can be filled")
+                var isAllowanceReserved = false
+                try {
+                    if (swapToFill.role != SwapRole.MAKER_AND_SELLER) {
+                        throw SwapServiceException("Only Maker-As-Seller swaps can be filled")
+                    }
+                    if (swapToFill.state.value != SwapState.AWAITING_FILLING) {
+                        throw SwapServiceException("This Swap cannot currently be filled")
+                    }
+                    afterPossibilityCheck?.invoke()
+                    if (blockchainService.reserveTokenAllowance(
+                            tokenAddress = swapToFill.stablecoin,
+                            amount = swapToFill.takenSwapAmount,
+                            purpose = TokenTransferApprovalPurpose.FILL_SWAP,
+                            id = swapToFill.id,
+                        )) {
+                        isAllowanceReserved = true
+                        logger.info("fillSwap: allowance already covers transfer for ${swapToFill.id}. Amount: " +
+                                "${swapToFill.takenSwapAmount}")
+                    } else {
+                        logger.info("fillSwap: authorizing transfer for ${swapToFill.id}. Amount: " +
+                                "${swapToFill.takenSwapAmount}")
+                        isAllowanceReserved = true
+                        blockchainService.approveAndReserveTokenAllowance(
+                            tokenAddress = swapToFill.stablecoin,
+                            amount = swapToFill.takenSwapAmount,
+                            purpose = TokenTransferApprovalPurpose.FILL_SWAP,
+                            id = swapToFill.id,
+                        )
+                    }
+                    afterTransferApproval?.invoke()
+                    logger.info("fillSwap: filling ${swapToFill.id}")
+                    blockchainService.fillSwapAsync(
+                        id = swapToFill.id
+                    ).await()
+                    logger.info("fillSwap: filled ${swapToFill.id}")
+                    // The transfer made by filling the swap frees the reserved allowance
+                    isAllowanceReserved = false
+                    blockchainService.settleTokenAllowance(TokenTransferApprovalPurpose.FILL_SWAP, swapToFill.id)
+                    databaseService.updateSwapState(
+                        swapID = swapToFill.id,
+                        chainID = swapToFill.chainID,
+                        state = SwapState.FILL_SWAP_TRANSACTION_SENT.asString,
+                    )
+                    databaseService.updateSwapRequiresFill(
+                        swapID = swapToFill.id,
+                        chainID = swapToFill.chainID,
+                        requiresFill = false,
+                    )
+                    // This is not a MutableState property, so we can upgrade it from a background thread
+                    swapToFill.requiresFill = false
+                    withContext(Dispatchers.Main) {
+                        swapToFill.state.value = SwapState.FILL_SWAP_TRANSACTION_SENT
+                    }
+                } catch (exception: Exception) {
+                    logger.error("fillSwap: encountered exception during call for ${swapToFill.id}", exception)
+                    if (isAllowanceReserved) {
+                        blockchainService.releaseTokenAllowance(TokenTransferApprovalPurpose.FILL_SWAP, swapToFill.id)
+                    }
+                    throw exception
                 }
-            } catch (exception: Exception) {
-                logger.error("fillSwap: encountered exception during call for ${swapToFill.id}", exception)
-                throw exception
             }
         }
     }
@@ -255,6 +388,9 @@ class SwapService @Inject constructor(
      * [approve](https://ethereum.org/en/developers/docs/standards/tokens/erc-20/) on an ERC20 contract in order to fill
      * a maker-as-seller swap made by the user of this interface.
      *
+     * Since an approval replaces the existing allowance, the amount approved is the taken swap amount of [swapToFill]
+     * plus the allowance reserved for other actions, as given by [BlockchainService.getTokenApprovalAmount].
+     *
      * @param swapToFill The [Swap] to be filled, for which this is creating a token transfer approval transaction.
      *
      * @return A [RawTransaction] capable of approving a token transfer of the taken swap amount of [swapToFill].
@@ -268,7 +404,10 @@ class SwapService @Inject constructor(
                 blockchainService.createApproveTransferTransaction(
                     tokenAddress = swapToFill.stablecoin,
                     spender = blockchainService.getCommutoSwapAddress(),
-                    amount = swapToFill.takenSwapAmount
+                    amount = blockchainService.getTokenApprovalAmount(
+                        tokenAddress = swapToFill.stablecoin,
+                        amount = swapToFill.takenSwapAmount,
+                    ),
                 )
             } catch (exception: Exception) {
                 logger.error("createApproveTokenTransferToFillSwapTransaction, encountered exception", exception)
@@ -297,108 +436,154 @@ class SwapService @Inject constructor(
      * updates the [Swap.approvingToFillState] property of [swapToFill] to
      * [TokenTransferApprovalState.AWAITING_TRANSACTION_CONFIRMATION].
      *
+     * If the user has already given the CommutoSwap contract enough unreserved allowance, as determined by
+     * [BlockchainService.reserveTokenAllowance], this does not need [approveTokenTransferToFillSwapTransaction] and
+     * sends no transaction. Instead, this persistently updates the approving to fill state of [swapToFill] to
+     * [TokenTransferApprovalState.COMPLETED], and then does the same to its [Swap.approvingToFillState] property on the
+     * main coroutine dispatcher. Otherwise, the approval transaction is registered with
+     * [BlockchainService.expectTokenApproval] before it is sent, so that the allowance it gives for filling
+     * [swapToFill] is reserved once it is confirmed. If allowance reserved for other actions has changed since
+     * [approveTokenTransferToFillSwapTransaction] was created, its data will not match, and this will fail.
+     *
      * @param swapToFill The swap that will be filled, for which this is approving a token transfer.
      * @param approveTokenTransferToFillSwapTransaction An optional [RawTransaction] that can approve a token transfer
      * for the proper amount.
      *
-     * @throws [SwapServiceException] if [approveTokenTransferToFillSwapTransaction] is `null` or if the data of
-     * [approveTokenTransferToFillSwapTransaction] does not match that of the transaction this function creates using
-     * the supplied arguments.
+     * @throws [SwapServiceException] if approval is needed and [approveTokenTransferToFillSwapTransaction] is `null` or
+     * its data does not match that of the transaction this function creates using the supplied arguments.
      */
     suspend fun approveTokenTransferToFillSwap(
         swapToFill: Swap,
         approveTokenTransferToFillSwapTransaction: RawTransaction?
     ) {
-        withContext(Dispatchers.IO) {
-            val encoder = Base64.getEncoder()
-            try {
-                logger.info("approveTokenTransferToFillSwap: validating for ${swapToFill.id}")
-                validateSwapForFilling(swap = swapToFill)
-                logger.info("approveTokenTransferToFillSwap: recreating RawTransaction to approve transfer of " +
-                        "${swapToFill.takenSwapAmount} tokens at contract ${swapToFill.stablecoin} for ${swapToFill
-                            .id}")
-                val recreatedTransaction = blockchainService.createApproveTransferTransaction(
-                    tokenAddress = swapToFill.stablecoin,
-                    spender = blockchainService.getCommutoSwapAddress(),
-                    amount = swapToFill.takenSwapAmount
-                )
-                if (approveTokenTransferToFillSwapTransaction == null) {
-                    throw SwapServiceException(message = "Transaction was null during approveTokenTransferToFillSwap " +
-                            "call for ${swapToFill.id}")
-                }
-                if (recreatedTransaction.data != approveTokenTransferToFillSwapTransaction.data) {
-                    throw SwapServiceException(message = "Data of approveTokenTransferToFillSwap did not match that " +
-                            "of transaction created with supplied data for ${swapToFill.id}")
-                }
-                logger.info("approveTokenTransferToFillSwap: signing transaction for ${swapToFill.id}")
-                val signedTransactionData = blockchainService.signTransaction(
-                    transaction = approveTokenTransferToFillSwapTransaction,
-                    chainID = swapToFill.chainID
-                )
-                val signedTransactionHex = Numeric.toHexString(signedTransactionData)
-                val blockchainTransactionForApprovingTransfer = BlockchainTransaction(
-                    transaction = approveTokenTransferToFillSwapTransaction,
-                    transactionHash = Hash.sha3(signedTransactionHex),
-                    latestBlockNumberAtCreation = blockchainService.newestBlockNum,
-                    type = BlockchainTransactionType.APPROVE_TOKEN_TRANSFER_TO_FILL_SWAP
-                )
-                val dateString = DateFormatter.createDateString(blockchainTransactionForApprovingTransfer
-                    .timeOfCreation)
-                logger.info("approveTokenTransferToFillSwap: persistently storing approve transfer data for " +
-                        "${swapToFill.id}, including tx hash ${blockchainTransactionForApprovingTransfer
-                            .transactionHash}")
-                databaseService.updateSwapApproveToFillData(
-                    swapID = encoder.encodeToString(swapToFill.id.asByteArray()),
-                    chainID = swapToFill.chainID.toString(),
-                    transactionHash = blockchainTransactionForApprovingTransfer.transactionHash,
-                    creationTime = dateString,
-                    blockNumber = blockchainTransactionForApprovingTransfer.latestBlockNumberAtCreation.toLong()
-                )
-                logger.info("approveTokenTransferToFillSwap: persistently updating approvingToFillState for " +
-                        "${swapToFill.id} to SENDING_TRANSACTION")
-                databaseService.updateSwapApproveToFillState(
-                    swapID = encoder.encodeToString(swapToFill.id.asByteArray()),
-                    chainID = swapToFill.chainID.toString(),
-                    state = TokenTransferApprovalState.SENDING_TRANSACTION.asString,
-                )
-                logger.info("approveTokenTransferToFillSwap: updating approvingToFillState for ${swapToFill
-                    .id} to SENDING_TRANSACTION and storing tx ${blockchainTransactionForApprovingTransfer
-                    .transactionHash} in swap")
-                withContext(Dispatchers.Main) {
-                    swapToFill.approvingToFillTransaction = blockchainTransactionForApprovingTransfer
-                    swapToFill.approvingToFillState.value = TokenTransferApprovalState.SENDING_TRANSACTION
-                }
-                logger.info("approveTokenTransferToFillSwap: sending ${blockchainTransactionForApprovingTransfer
-                    .transactionHash} for ${swapToFill.id}")
-                blockchainService.sendTransaction(
-                    transaction = blockchainTransactionForApprovingTransfer,
-                    signedRawTransactionDataAsHex = signedTransactionHex,
-                    chainID = swapToFill.chainID
-                )
-                logger.info("approveTokenTransferToFillSwap: persistently updating approvingToFillState of " +
-                        "${swapToFill.id} to AWAITING_TRANSACTION_CONFIRMATION")
-                databaseService.updateSwapApproveToFillState(
-                    swapID = encoder.encodeToString(swapToFill.id.asByteArray()),
-                    chainID = swapToFill.chainID.toString(),
-                    state = TokenTransferApprovalState.AWAITING_TRANSACTION_CONFIRMATION.asString,
-                )
-                logger.info("approveTokenTransferToFillSwap: updating approvingToFillState to " +
-                        "AWAITING_TRANSACTION_CONFIRMATION for ${swapToFill.id}")
-                withContext(Dispatchers.Main) {
-                    swapToFill.approvingToFillState.value = TokenTransferApprovalState.AWAITING_TRANSACTION_CONFIRMATION
-                }
-            } catch (exception: Exception) {
-                logger.error("approveTokenTransferToFillSwap: encountered exception, setting " +
-                        "approvingToFillState of ${swapToFill.id} to exception and setting approvingToFill exception",
-                    exception)
-                databaseService.updateSwapApproveToFillState(
-                    swapID = encoder.encodeToString(swapToFill.id.asByteArray()),
-                    chainID = swapToFill.chainID.toString(),
-                    state = TokenTransferApprovalState.AWAITING_TRANSACTION_CONFIRMATION.asString,
-                )
-                withContext(Dispatchers.Main) {
-                    swapToFill.approvingToFillException = exception
-                    swapToFill.approvingToFillState.value = TokenTransferApprovalState.EXCEPTION
+        swapActors.process(swapToFill.id) {
+            withContext(Dispatchers.IO) {
+                var isAllowanceReserved = false
+                try {
+                    logger.info("approveTokenTransferToFillSwap: validating for ${swapToFill.id}")
+                    validateSwapForFilling(swap = swapToFill)
+                    isAllowanceReserved = blockchainService.reserveTokenAllowance(
+                        tokenAddress = swapToFill.stablecoin,
+                        amount = swapToFill.takenSwapAmount,
+                        purpose = TokenTransferApprovalPurpose.FILL_SWAP,
+                        id = swapToFill.id,
+                    )
+                    if (isAllowanceReserved) {
+                        logger.info("approveTokenTransferToFillSwap: allowance already covers " +
+                                "${swapToFill.takenSwapAmount} tokens at contract ${swapToFill.stablecoin}, " +
+                                "persistently updating approvingToFillState for ${swapToFill.id} to COMPLETED")
+                        databaseService.updateSwapApproveToFillState(
+                            swapID = swapToFill.id,
+                            chainID = swapToFill.chainID,
+                            state = TokenTransferApprovalState.COMPLETED.asString,
+                        )
+                        withContext(Dispatchers.Main) {
+                            swapToFill.approvingToFillState.value = TokenTransferApprovalState.COMPLETED
+                        }
+                        return@withContext
+                    }
+                    // Allowance reserved for other actions must be approved again, since approval replaces allowance
+                    val approvalAmount = blockchainService.getTokenApprovalAmount(
+                        tokenAddress = swapToFill.stablecoin,
+                        amount = swapToFill.takenSwapAmount,
+                    )
+                    logger.info("approveTokenTransferToFillSwap: recreating RawTransaction to approve transfer of " +
+                            "$approvalAmount tokens at contract ${swapToFill.stablecoin} for ${swapToFill.id}")
+                    val recreatedTransaction = blockchainService.createApproveTransferTransaction(
+                        tokenAddress = swapToFill.stablecoin,
+                        spender = blockchainService.getCommutoSwapAddress(),
+                        amount = approvalAmount
+                    )
+                    if (approveTokenTransferToFillSwapTransaction == null) {
+                        throw SwapServiceException(message = "Transaction was null during " +
+                                "approveTokenTransferToFillSwap call for ${swapToFill.id}")
+                    }
+                    if (recreatedTransaction.data != approveTokenTransferToFillSwapTransaction.data) {
+                        throw SwapServiceException(message = "Data of approveTokenTransferToFillSwap did not match " +
+                                "that of transaction created with supplied data for ${swapToFill.id}")
+                    }
+                    logger.info("approveTokenTransferToFillSwap: signing transaction for ${swapToFill.id}")
+                    val signedTransactionData = blockchainService.signTransaction(
+                        transaction = approveTokenTransferToFillSwapTransaction,
+                        chainID = swapToFill.chainID
+                    )
+                    val signedTransactionHex = Numeric.toHexString(signedTransactionData)
+                    val blockchainTransactionForApprovingTransfer = BlockchainTransaction(
+                        transaction = approveTokenTransferToFillSwapTransaction,
+                        transactionHash = Hash.sha3(signedTransactionHex),
+                        latestBlockNumberAtCreation = blockchainService.newestBlockNum,
+                        type = BlockchainTransactionType.APPROVE_TOKEN_TRANSFER_TO_FILL_SWAP
+                    )
+                    val dateString = DateFormatter.createDateString(blockchainTransactionForApprovingTransfer
+                        .timeOfCreation)
+                    logger.info("approveTokenTransferToFillSwap: persistently storing approve transfer data for " +
+                            "${swapToFill.id}, including tx hash ${blockchainTransactionForApprovingTransfer
+                                .transactionHash}")
+                    databaseService.updateSwapApproveToFillData(
+                        swapID = swapToFill.id,
+                        chainID = swapToFill.chainID,
+                        transactionHash = blockchainTransactionForApprovingTransfer.transactionHash,
+                        creationTime = dateString,
+                        blockNumber = blockchainTransactionForApprovingTransfer.latestBlockNumberAtCreation.toLong()
+                    )
+                    logger.info("approveTokenTransferToFillSwap: persistently updating approvingToFillState for " +
+                            "${swapToFill.id} to SENDING_TRANSACTION")
+                    databaseService.updateSwapApproveToFillState(
+                        swapID = swapToFill.id,
+                        chainID = swapToFill.chainID,
+                        state = TokenTransferApprovalState.SENDING_TRANSACTION.asString,
+                    )
+                    logger.info("approveTokenTransferToFillSwap: updating approvingToFillState for ${swapToFill
+                        .id} to SENDING_TRANSACTION and storing tx ${blockchainTransactionForApprovingTransfer
+                        .transactionHash} in swap")
+                    withContext(Dispatchers.Main) {
+                        swapToFill.approvingToFillTransaction = blockchainTransactionForApprovingTransfer
+                        swapToFill.approvingToFillState.value = TokenTransferApprovalState.SENDING_TRANSACTION
+                    }
+                    logger.info("approveTokenTransferToFillSwap: sending ${blockchainTransactionForApprovingTransfer
+                        .transactionHash} for ${swapToFill.id}")
+                    blockchainService.expectTokenApproval(
+                        transactionHash = blockchainTransactionForApprovingTransfer.transactionHash,
+                        tokenAddress = swapToFill.stablecoin,
+                        amount = swapToFill.takenSwapAmount,
+                        purpose = TokenTransferApprovalPurpose.FILL_SWAP,
+                        id = swapToFill.id,
+                    )
+                    blockchainService.sendTransaction(
+                        transaction = blockchainTransactionForApprovingTransfer,
+                        signedRawTransactionDataAsHex = signedTransactionHex,
+                        chainID = swapToFill.chainID
+                    )
+                    logger.info("approveTokenTransferToFillSwap: persistently updating approvingToFillState of " +
+                            "${swapToFill.id} to AWAITING_TRANSACTION_CONFIRMATION")
+                    databaseService.updateSwapApproveToFillState(
+                        swapID = swapToFill.id,
+                        chainID = swapToFill.chainID,
+                        state = TokenTransferApprovalState.AWAITING_TRANSACTION_CONFIRMATION.asString,
+                    )
+                    logger.info("approveTokenTransferToFillSwap: updating approvingToFillState to " +
+                            "AWAITING_TRANSACTION_CONFIRMATION for ${swapToFill.id}")
+                    withContext(Dispatchers.Main) {
+                        swapToFill.approvingToFillState.value =
+                            TokenTransferApprovalState.AWAITING_TRANSACTION_CONFIRMATION
+                    }
+                } catch (exception: Exception) {
+                    logger.error("approveTokenTransferToFillSwap: encountered exception, setting " +
+                            "approvingToFillState of ${swapToFill.id} to exception and setting approvingToFill " +
+                            "exception",
+                        exception)
+                    if (isAllowanceReserved) {
+                        blockchainService.releaseTokenAllowance(TokenTransferApprovalPurpose.FILL_SWAP, swapToFill.id)
+                    }
+                    databaseService.updateSwapApproveToFillState(
+                        swapID = swapToFill.id,
+                        chainID = swapToFill.chainID,
+                        state = TokenTransferApprovalState.AWAITING_TRANSACTION_CONFIRMATION.asString,
+                    )
+                    withContext(Dispatchers.Main) {
+                        swapToFill.approvingToFillException = exception
+                        swapToFill.approvingToFillState.value = TokenTransferApprovalState.EXCEPTION
+                    }
                 }
             }
         }
@@ -460,98 +645,99 @@ class SwapService @Inject constructor(
         swap: Swap,
         swapFillingTransaction: RawTransaction?
     ) {
-        withContext(Dispatchers.IO) {
-            val encoder = Base64.getEncoder()
-            try {
-                logger.info("fillSwap: filling ${swap.id}")
-                validateSwapForFilling(swap = swap)
-                logger.info("fillSwap: recreating RawTransaction to fill ${swap.id} to ensure " +
-                        "swapFillingTransaction was created with the contents of swap")
-                val recreatedTransaction = blockchainService.createFillSwapTransaction(
-                    swapID = swap.id,
-                    chainID = swap.chainID
-                )
-                if (swapFillingTransaction == null) {
-                    throw SwapServiceException(message = "Transaction was null during fillSwap call for ${swap.id}")
-                }
-                if (recreatedTransaction.data != swapFillingTransaction.data) {
-                    throw SwapServiceException(message = "Data of swapFillingTransaction did not match that of " +
-                            "transaction created with swap ${swap.id}")
-                }
-                logger.info("fillSwap: signing transaction for ${swap.id}")
-                val signedTransactionData = blockchainService.signTransaction(
-                    transaction = swapFillingTransaction,
-                    chainID = swap.chainID,
-                )
-                val signedTransactionHex = Numeric.toHexString(signedTransactionData)
-                val blockchainTransactionForSwapFilling = BlockchainTransaction(
-                    transaction = swapFillingTransaction,
-                    transactionHash = Hash.sha3(signedTransactionHex),
-                    latestBlockNumberAtCreation = blockchainService.newestBlockNum,
-                    type = BlockchainTransactionType.FILL_SWAP
-                )
-                val dateString = DateFormatter.createDateString(blockchainTransactionForSwapFilling.timeOfCreation)
-                logger.info("fillSwap: persistently storing swap filling data for ${swap.id}, including tx " +
-                        "hash ${blockchainTransactionForSwapFilling.transactionHash}")
-                databaseService.updateFillingSwapData(
-                    swapID = encoder.encodeToString(swap.id.asByteArray()),
-                    chainID = swap.chainID.toString(),
-                    transactionHash = blockchainTransactionForSwapFilling.transactionHash,
-                    creationTime = dateString,
-                    blockNumber = blockchainTransactionForSwapFilling.latestBlockNumberAtCreation.toLong()
-                )
-                logger.info("fillSwap: persistently updating fillingSwapState for ${swap.id} to " +
-                        FillingSwapState.SENDING_TRANSACTION.asString
-                )
-                databaseService.updateFillingSwapState(
-                    swapID = encoder.encodeToString(swap.id.asByteArray()),
-                    chainID = swap.chainID.toString(),
-                    state = FillingSwapState.SENDING_TRANSACTION.asString,
-                )
-                logger.info("fillSwap: updating fillingSwapState to SENDING_TRANSACTION and storing tx " +
-                        "${blockchainTransactionForSwapFilling.transactionHash} in ${swap.id}")
-                withContext(Dispatchers.Main) {
-                    swap.swapFillingTransaction = blockchainTransactionForSwapFilling
-                    swap.fillingSwapState.value = FillingSwapState.SENDING_TRANSACTION
-                }
-                logger.info("fillSwap: sending ${blockchainTransactionForSwapFilling.transactionHash} for " +
-                        swap.id)
-                blockchainService.sendTransaction(
-                    transaction = blockchainTransactionForSwapFilling,
-                    signedRawTransactionDataAsHex = signedTransactionHex,
-                    chainID = swap.chainID
-                )
-                logger.info("fillSwap: persistently updating state of ${swap.id} to ${SwapState
-                    .FILL_SWAP_TRANSACTION_SENT.asString}")
-                databaseService.updateSwapState(
-                    swapID = encoder.encodeToString(swap.id.asByteArray()),
-                    chainID = swap.chainID.toString(),
-                    state = SwapState.FILL_SWAP_TRANSACTION_SENT.asString
-                )
-                logger.info("fillSwap: persistently updating fillingSwapState of ${swap.id} to " +
-                        "AWAITING_TRANSACTION_CONFIRMATION")
-                databaseService.updateFillingSwapState(
-                    swapID = encoder.encodeToString(swap.id.asByteArray()),
-                    chainID = swap.chainID.toString(),
-                    state = FillingSwapState.AWAITING_TRANSACTION_CONFIRMATION.asString,
-                )
-                logger.info("fillSwap: updating state to ${SwapState.FILL_SWAP_TRANSACTION_SENT.asString} and " +
-                        "fillingSwapState to AWAITING_TRANSACTION_CONFIRMATION for ${swap.id}")
-                withContext(Dispatchers.Main) {
-                    swap.state.value = SwapState.FILL_SWAP_TRANSACTION_SENT
-                    swap.fillingSwapState.value = FillingSwapState.AWAITING_TRANSACTION_CONFIRMATION
-                }
-            } catch (exception: Exception) {
-                logger.error("fillSwap: encountered exception while filling ${swap.id}, setting " +
-                        "fillingSwapState to EXCEPTION", exception)
-                databaseService.updateFillingSwapState(
-                    swapID = encoder.encodeToString(swap.id.asByteArray()),
-                    chainID = swap.chainID.toString(),
-                    state = FillingSwapState.EXCEPTION.asString,
-                )
-                withContext(Dispatchers.Main) {
-                    swap.fillingSwapException = exception
-                    swap.fillingSwapState.value = FillingSwapState.EXCEPTION
+        swapActors.process(swap.id) {
+            withContext(Dispatchers.IO) {
+                try {
+                    logger.info("fillSwap: filling ${swap.id}")
+                    validateSwapForFilling(swap = swap)
+                    logger.info("fillSwap: recreating RawTransaction to fill ${swap.id} to ensure " +
+                            "swapFillingTransaction was created with the contents of swap")
+                    val recreatedTransaction = blockchainService.createFillSwapTransaction(
+                        swapID = swap.id,
+                        chainID = swap.chainID
+                    )
+                    if (swapFillingTransaction == null) {
+                        throw SwapServiceException(message = "Transaction was null during fillSwap call for ${swap.id}")
+                    }
+                    if (recreatedTransaction.data != swapFillingTransaction.data) {
+                        throw SwapServiceException(message = "Data of swapFillingTransaction did not match that of " +
+                                "transaction created with swap ${swap.id}")
+                    }
+                    logger.info("fillSwap: signing transaction for ${swap.id}")
+                    val signedTransactionData = blockchainService.signTransaction(
+                        transaction = swapFillingTransaction,
+                        chainID = swap.chainID,
+                    )
+                    val signedTransactionHex = Numeric.toHexString(signedTransactionData)
+                    val blockchainTransactionForSwapFilling = BlockchainTransaction(
+                        transaction = swapFillingTransaction,
+                        transactionHash = Hash.sha3(signedTransactionHex),
+                        latestBlockNumberAtCreation = blockchainService.newestBlockNum,
+                        type = BlockchainTransactionType.FILL_SWAP
+                    )
+                    val dateString = DateFormatter.createDateString(blockchainTransactionForSwapFilling.timeOfCreation)
+                    logger.info("fillSwap: persistently storing swap filling data for ${swap.id}, including tx " +
+                            "hash ${blockchainTransactionForSwapFilling.transactionHash}")
+                    databaseService.updateFillingSwapData(
+                        swapID = swap.id,
+                        chainID = swap.chainID,
+                        transactionHash = blockchainTransactionForSwapFilling.transactionHash,
+                        creationTime = dateString,
+                        blockNumber = blockchainTransactionForSwapFilling.latestBlockNumberAtCreation.toLong()
+                    )
+                    logger.info("fillSwap: persistently updating fillingSwapState for ${swap.id} to " +
+                            FillingSwapState.SENDING_TRANSACTION.asString
+                    )
+                    databaseService.updateFillingSwapState(
+                        swapID = swap.id,
+                        chainID = swap.chainID,
+                        state = FillingSwapState.SENDING_TRANSACTION.asString,
+                    )
+                    logger.info("fillSwap: updating fillingSwapState to SENDING_TRANSACTION and storing tx " +
+                            "${blockchainTransactionForSwapFilling.transactionHash} in ${swap.id}")
+                    withContext(Dispatchers.Main) {
+                        swap.swapFillingTransaction = blockchainTransactionForSwapFilling
+                        swap.fillingSwapState.value = FillingSwapState.SENDING_TRANSACTION
+                    }
+                    logger.info("fillSwap: sending ${blockchainTransactionForSwapFilling.transactionHash} for " +
+                            swap.id)
+                    blockchainService.sendTransaction(
+                        transaction = blockchainTransactionForSwapFilling,
+                        signedRawTransactionDataAsHex = signedTransactionHex,
+                        chainID = swap.chainID
+                    )
+                    logger.info("fillSwap: persistently updating state of ${swap.id} to ${SwapState
+                        .FILL_SWAP_TRANSACTION_SENT.asString}")
+                    databaseService.updateSwapState(
+                        swapID = swap.id,
+                        chainID = swap.chainID,
+                        state = SwapState.FILL_SWAP_TRANSACTION_SENT.asString
+                    )
+                    logger.info("fillSwap: persistently updating fillingSwapState of ${swap.id} to " +
+                            "AWAITING_TRANSACTION_CONFIRMATION")
+                    databaseService.updateFillingSwapState(
+                        swapID = swap.id,
+                        chainID = swap.chainID,
+                        state = FillingSwapState.AWAITING_TRANSACTION_CONFIRMATION.asString,
+                    )
+                    logger.info("fillSwap: updating state to ${SwapState.FILL_SWAP_TRANSACTION_SENT.asString} and " +
+                            "fillingSwapState to AWAITING_TRANSACTION_CONFIRMATION for ${swap.id}")
+                    withContext(Dispatchers.Main) {
+                        swap.state.value = SwapState.FILL_SWAP_TRANSACTION_SENT
+                        swap.fillingSwapState.value = FillingSwapState.AWAITING_TRANSACTION_CONFIRMATION
+                    }
+                } catch (exception: Exception) {
+                    logger.error("fillSwap: encountered exception while filling ${swap.id}, setting " +
+                            "fillingSwapState to EXCEPTION", exception)
+                    databaseService.updateFillingSwapState(
+                        swapID = swap.id,
+                        chainID = swap.chainID,
+                        state = FillingSwapState.EXCEPTION.asString,
+                    )
+                    withContext(Dispatchers.Main) {
+                        swap.fillingSwapException = exception
+                        swap.fillingSwapState.value = FillingSwapState.EXCEPTION
+                    }
                 }
             }
         }
@@ -580,32 +766,34 @@ class SwapService @Inject constructor(
         swap: Swap,
         afterPossibilityCheck: (suspend () -> Unit)? = null,
     ) {
-        withContext(Dispatchers.IO) {
-            logger.info("reportPaymentSent: checking reporting is possible for ${swap.id}")
-            try {
-                // Ensure that the user is the buyer for the swap
-                if (swap.role != SwapRole.MAKER_AND_BUYER && swap.role != SwapRole.TAKER_AND_BUYER) {
-                    throw SwapServiceException("Only the Buyer can report sending payment")
-                }
-                // Ensure that this swap is awaiting reporting of payment sent
-                if (swap.state.value != SwapState.AWAITING_PAYMENT_SENT) {
-                    throw SwapServiceException("Payment sending cannot currently be reported for this swap")
-                }
-                afterPossibilityCheck?.invoke()
-                logger.info("reportPaymentSent: reporting ${swap.id}")
-                blockchainService.reportPaymentSentAsync(id = swap.id).await()
-                logger.info("reportPaymentSent: reported for ${swap.id}")
-                databaseService.updateSwapState(
-                    swapID = Base64.getEncoder().encodeToString(swap.id.asByteArray()),
-                    chainID = swap.chainID.toString(),
-                    state = SwapState.REPORT_PAYMENT_SENT_TRANSACTION_BROADCAST.asString,
-                )
-                withContext(Dispatchers.Main) {
-                    swap.state.value = SwapState.REPORT_PAYMENT_SENT_TRANSACTION_BROADCAST
+        swapActors.process(swap.id) {
+            withContext(Dispatchers.IO) {
+                logger.info("reportPaymentSent: checking reporting is possible for ${swap.id}")
+                try {
+                    // Ensure that the user is the buyer for the swap
+                    if (swap.role != SwapRole.MAKER_AND_BUYER && swap.role != SwapRole.TAKER_AND_BUYER) {
+                        throw SwapServiceException("Only the Buyer can report sending payment")
+                    }
+                    // Ensure that this swap is awaiting reporting of payment sent
+                    if (swap.state.value != SwapState.AWAITING_PAYMENT_SENT) {
+                        throw SwapServiceException("Payment sending cannot currently be reported for this swap")
+                    }
+                    afterPossibilityCheck?.invoke()
+                    logger.info("reportPaymentSent: reporting ${swap.id}")
+                    blockchainService.reportPaymentSentAsync(id = swap.id).await()
+                    logger.info("reportPaymentSent: reported for ${swap.id}")
+                    databaseService.updateSwapState(
+                        swapID = swap.id,
+                        chainID = swap.chainID,
+                        state = SwapState.REPORT_PAYMENT_SENT_TRANSACTION_BROADCAST.asString,
+                    )
+                    withContext(Dispatchers.Main) {
+                        swap.state.value = SwapState.REPORT_PAYMENT_SENT_TRANSACTION_BROADCAST
+                    }
+                } catch (exception: Exception) {
+                    logger.error("reportPaymentSent: encountered exception during call for ${swap.id}", exception)
+                    throw exception
                 }
-            } catch (exception: Exception) {
-                logger.error("reportPaymentSent: encountered exception during call for ${swap.id}", exception)
-                throw exception
             }
         }
     }
@@ -667,93 +855,94 @@ class SwapService @Inject constructor(
      * @throws [SwapServiceException] if [reportPaymentSentTransaction] is `null`.
      */
     suspend fun reportPaymentSent(swap: Swap, reportPaymentSentTransaction: RawTransaction?) {
-        withContext(Dispatchers.IO) {
-            logger.info("reportPaymentSent: checking reporting is possible for ${swap.id}")
-            validateSwapForReportingPaymentSent(swap = swap)
-            try {
-                if (reportPaymentSentTransaction == null) {
-                    throw SwapServiceException(message = "Transaction was null during reportPaymentSent call for " +
-                            swap.id)
-                }
-                logger.info("reportPaymentSent: signing transaction for ${swap.id}")
-                val signedTransactionData = blockchainService.signTransaction(
-                    transaction = reportPaymentSentTransaction,
-                    chainID = swap.chainID
-                )
-                val signedTransactionHex = Numeric.toHexString(signedTransactionData)
-                val transactionHash = Hash.sha3(signedTransactionHex)
-                val blockchainTransactionForReportingPaymentSent = BlockchainTransaction(
-                    transaction = reportPaymentSentTransaction,
-                    transactionHash = transactionHash,
-                    latestBlockNumberAtCreation = blockchainService.newestBlockNum,
-                    type = BlockchainTransactionType.REPORT_PAYMENT_SENT
-                )
-                val dateString = DateFormatter.createDateString(blockchainTransactionForReportingPaymentSent
-                    .timeOfCreation)
-                logger.info("reportPaymentSent: persistently storing report payment sent data for ${swap.id}, " +
-                        "including tx hash ${blockchainTransactionForReportingPaymentSent.transactionHash}")
-                val encoder = Base64.getEncoder()
-                databaseService.updateReportPaymentSentData(
-                    swapID = encoder.encodeToString(swap.id.asByteArray()),
-                    chainID = swap.chainID.toString(),
-                    transactionHash = blockchainTransactionForReportingPaymentSent.transactionHash,
-                    creationTime = dateString,
-                    blockNumber = blockchainTransactionForReportingPaymentSent.latestBlockNumberAtCreation.toLong()
-                )
-                logger.info("reportPaymentSent: persistently updating reportingPaymentSentState for ${swap.id} to " +
-                        "sendingTransaction")
-                databaseService.updateReportPaymentSentState(
-                    swapID = encoder.encodeToString(swap.id.asByteArray()),
-                    chainID = swap.chainID.toString(),
-                    state = ReportingPaymentSentState.SENDING_TRANSACTION.asString
-                )
-                logger.info("reportPaymentSent: updating reportingPaymentSentState for ${swap.id} to " +
-                        "sendingTransaction and storing tx hash ${blockchainTransactionForReportingPaymentSent
-                            .transactionHash} in swap")
-                withContext(Dispatchers.Main) {
-                    swap.reportingPaymentSentState.value = ReportingPaymentSentState.SENDING_TRANSACTION
-                    swap.reportPaymentSentTransaction = blockchainTransactionForReportingPaymentSent
-                }
-                logger.info("reportPaymentSent: sending $transactionHash for ${swap.id}")
-                blockchainService.sendTransaction(
-                    transaction = blockchainTransactionForReportingPaymentSent,
-                    signedRawTransactionDataAsHex = signedTransactionHex,
-                    chainID = swap.chainID
-                )
-                logger.info("reportPaymentSent: persistently updating reportingPaymentSentState of ${swap.id} " +
-                        "to awaitingTransactionConfirmation")
-                databaseService.updateReportPaymentSentState(
-                    swapID = encoder.encodeToString(swap.id.asByteArray()),
-                    chainID = swap.chainID.toString(),
-                    state = ReportingPaymentSentState.AWAITING_TRANSACTION_CONFIRMATION.asString
-                )
-                logger.info("reportPaymentSent: persistently updating state of ${swap.id} to " +
-                        "reportPaymentSentTransactionBroadcast")
-                databaseService.updateSwapState(
-                    swapID = encoder.encodeToString(swap.id.asByteArray()),
-                    chainID = swap.chainID.toString(),
-                    state = SwapState.REPORT_PAYMENT_SENT_TRANSACTION_BROADCAST.asString
-                )
-                logger.info("reportPaymentSent: updating reportingPaymentSentState for ${swap.id} to " +
-                        "awaitingTransactionConfirmation and state to reportPaymentSentTransactionBroadcast")
-                withContext(Dispatchers.Main) {
-                    swap.reportingPaymentSentState.value = ReportingPaymentSentState.AWAITING_TRANSACTION_CONFIRMATION
-                    swap.state.value = SwapState.REPORT_PAYMENT_SENT_TRANSACTION_BROADCAST
-                }
-            } catch (exception: Exception) {
-                logger.error("reportPaymentSent: encountered exception while reporting for ${swap.id}, setting " +
-                        "reportingPaymentSentState to exception", exception)
-                val encoder = Base64.getEncoder()
-                databaseService.updateReportPaymentSentState(
-                    swapID = encoder.encodeToString(swap.id.asByteArray()),
-                    chainID = swap.chainID.toString(),
-                    state = ReportingPaymentSentState.EXCEPTION.asString
-                )
-                swap.reportingPaymentSentException = exception
-                withContext(Dispatchers.Main) {
-                    swap.reportingPaymentSentState.value = ReportingPaymentSentState.EXCEPTION
+        swapActors.process(swap.id) {
+            withContext(Dispatchers.IO) {
+                logger.info("reportPaymentSent: checking reporting is possible for ${swap.id}")
+                validateSwapForReportingPaymentSent(swap = swap)
+                try {
+                    if (reportPaymentSentTransaction == null) {
+                        throw SwapServiceException(message = "Transaction was null during reportPaymentSent call for " +
+                                swap.id)
+                    }
+                    logger.info("reportPaymentSent: signing transaction for ${swap.id}")
+                    val signedTransactionData = blockchainService.signTransaction(
+                        transaction = reportPaymentSentTransaction,
+                        chainID = swap.chainID
+                    )
+                    val signedTransactionHex = Numeric.toHexString(signedTransactionData)
+                    val transactionHash = Hash.sha3(signedTransactionHex)
+                    val blockchainTransactionForReportingPaymentSent = BlockchainTransaction(
+                        transaction = reportPaymentSentTransaction,
+                        transactionHash = transactionHash,
+                        latestBlockNumberAtCreation = blockchainService.newestBlockNum,
+                        type = BlockchainTransactionType.REPORT_PAYMENT_SENT
+                    )
+                    val dateString = DateFormatter.createDateString(blockchainTransactionForReportingPaymentSent
+                        .timeOfCreation)
+                    logger.info("reportPaymentSent: persistently storing report payment sent data for ${swap.id}, " +
+                            "including tx hash ${blockchainTransactionForReportingPaymentSent.transactionHash}")
+                    databaseService.updateReportPaymentSentData(
+                        swapID = swap.id,
+                        chainID = swap.chainID,
+                        transactionHash = blockchainTransactionForReportingPaymentSent.transactionHash,
+                        creationTime = dateString,
+                        blockNumber = blockchainTransactionForReportingPaymentSent.latestBlockNumberAtCreation.toLong()
+                    )
+                    logger.info("reportPaymentSent: persistently updating reportingPaymentSentState for ${swap.id} " +
+                            "to sendingTransaction")
+                    databaseService.updateReportPaymentSentState(
+                        swapID = swap.id,
+                        chainID = swap.chainID,
+                        state = ReportingPaymentSentState.SENDING_TRANSACTION.asString
+                    )
+                    logger.info("reportPaymentSent: updating reportingPaymentSentState for ${swap.id} to " +
+                            "sendingTransaction and storing tx hash ${blockchainTransactionForReportingPaymentSent
+                                .transactionHash} in swap")
+                    withContext(Dispatchers.Main) {
+                        swap.reportingPaymentSentState.value = ReportingPaymentSentState.SENDING_TRANSACTION
+                        swap.reportPaymentSentTransaction = blockchainTransactionForReportingPaymentSent
+                    }
+                    logger.info("reportPaymentSent: sending $transactionHash for ${swap.id}")
+                    blockchainService.sendTransaction(
+                        transaction = blockchainTransactionForReportingPaymentSent,
+                        signedRawTransactionDataAsHex = signedTransactionHex,
+                        chainID = swap.chainID
+                    )
+                    logger.info("reportPaymentSent: persistently updating reportingPaymentSentState of ${swap.id} " +
+                            "to awaitingTransactionConfirmation")
+                    databaseService.updateReportPaymentSentState(
+                        swapID = swap.id,
+                        chainID = swap.chainID,
+                        state = ReportingPaymentSentState.AWAITING_TRANSACTION_CONFIRMATION.asString
+                    )
+                    logger.info("reportPaymentSent: persistently updating state of ${swap.id} to " +
+                            "reportPaymentSentTransactionBroadcast")
+                    databaseService.updateSwapState(
+                        swapID = swap.id,
+                        chainID = swap.chainID,
+                        state = SwapState.REPORT_PAYMENT_SENT_TRANSACTION_BROADCAST.asString
+                    )
+                    logger.info("reportPaymentSent: updating reportingPaymentSentState for ${swap.id} to " +
+                            "awaitingTransactionConfirmation and state to reportPaymentSentTransactionBroadcast")
+                    withContext(Dispatchers.Main) {
+                        swap.reportingPaymentSentState.value =
+                            ReportingPaymentSentState.AWAITING_TRANSACTION_CONFIRMATION
+                        swap.state.value = SwapState.REPORT_PAYMENT_SENT_TRANSACTION_BROADCAST
+                    }
+                } catch (exception: Exception) {
+                    logger.error("reportPaymentSent: encountered exception while reporting for ${swap.id}, setting " +
+                            "reportingPaymentSentState to exception", exception)
+                    databaseService.updateReportPaymentSentState(
+                        swapID = swap.id,
+                        chainID = swap.chainID,
+                        state = ReportingPaymentSentState.EXCEPTION.asString
+                    )
+                    swap.reportingPaymentSentException = exception
+                    withContext(Dispatchers.Main) {
+                        swap.reportingPaymentSentState.value = ReportingPaymentSentState.EXCEPTION
+                    }
+                    throw exception
                 }
-                throw exception
             }
         }
     }
@@ -781,32 +970,34 @@ class SwapService @Inject constructor(
         swap: Swap,
         afterPossibilityCheck: (suspend () -> Unit)? = null,
     ) {
-        withContext(Dispatchers.IO) {
-            logger.info("reportPaymentReceived: checking reporting is possible for ${swap.id}")
-            try {
-                // Ensure that the user is the seller for the swap
-                if (swap.role != SwapRole.MAKER_AND_SELLER && swap.role != SwapRole.TAKER_AND_SELLER) {
-                    throw SwapServiceException("Only the Seller can report receiving payment")
-                }
-                // Ensure that this swap is awaiting reporting of payment received
-                if (swap.state.value != SwapState.AWAITING_PAYMENT_RECEIVED) {
-                    throw SwapServiceException("Receiving payment cannot currently be reported for this swap")
-                }
-                afterPossibilityCheck?.invoke()
-                logger.info("reportPaymentReceived: reporting ${swap.id}")
-                blockchainService.reportPaymentReceivedAsync(id = swap.id).await()
-                logger.info("reportPaymentReceived: reported for ${swap.id}")
-                databaseService.updateSwapState(
-                    swapID = Base64.getEncoder().encodeToString(swap.id.asByteArray()),
-                    chainID = swap.chainID.toString(),
-                    state = SwapState.REPORT_PAYMENT_RECEIVED_TRANSACTION_BROADCAST.asString,
-                )
-                withContext(Dispatchers.Main) {
-                    swap.state.value = SwapState.REPORT_PAYMENT_RECEIVED_TRANSACTION_BROADCAST
+        swapActors.process(swap.id) {
+            withContext(Dispatchers.IO) {
+                logger.info("reportPaymentReceived: checking reporting is possible for ${swap.id}")
+                try {
+                    // Ensure that the user is the seller for the swap
+                    if (swap.role != SwapRole.MAKER_AND_SELLER && swap.role != SwapRole.TAKER_AND_SELLER) {
+                        throw SwapServiceException("Only the Seller can report receiving payment")
+                    }
+                    // Ensure that this swap is awaiting reporting of payment received
+                    if (swap.state.value != SwapState.AWAITING_PAYMENT_RECEIVED) {
+                        throw SwapServiceException("Receiving payment cannot currently be reported for this swap")
+                    }
+                    afterPossibilityCheck?.invoke()
+                    logger.info("reportPaymentReceived: reporting ${swap.id}")
+                    blockchainService.reportPaymentReceivedAsync(id = swap.id).await()
+                    logger.info("reportPaymentReceived: reported for ${swap.id}")
+                    databaseService.updateSwapState(
+                        swapID = swap.id,
+                        chainID = swap.chainID,
+                        state = SwapState.REPORT_PAYMENT_RECEIVED_TRANSACTION_BROADCAST.asString,
+                    )
+                    withContext(Dispatchers.Main) {
+                        swap.state.value = SwapState.REPORT_PAYMENT_RECEIVED_TRANSACTION_BROADCAST
+                    }
+                } catch (exception: Exception) {
+                    logger.error("reportPaymentReceived: encountered exception during call for ${swap.id}", exception)
+                    throw exception
                 }
-            } catch (exception: Exception) {
-                logger.error("reportPaymentReceived: encountered exception during call for ${swap.id}", exception)
-                throw exception
             }
         }
     }
@@ -868,94 +1059,95 @@ class SwapService @Inject constructor(
      * @throws [SwapServiceException] if [reportPaymentReceivedTransaction] is `null`.
      */
     suspend fun reportPaymentReceived(swap: Swap, reportPaymentReceivedTransaction: RawTransaction?) {
-        withContext(Dispatchers.IO) {
-            logger.info("reportPaymentReceived: checking reporting is possible for ${swap.id}")
-            validateSwapForReportingPaymentReceived(swap = swap)
-            try {
-                if (reportPaymentReceivedTransaction == null) {
-                    throw SwapServiceException(message = "Transaction was null during reportPaymentReceived call for " +
-                            swap.id)
-                }
-                logger.info("reportPaymentReceived: signing transaction for ${swap.id}")
-                val signedTransactionData = blockchainService.signTransaction(
-                    transaction = reportPaymentReceivedTransaction,
-                    chainID = swap.chainID
-                )
-                val signedTransactionHex = Numeric.toHexString(signedTransactionData)
-                val transactionHash = Hash.sha3(signedTransactionHex)
-                val blockchainTransactionForReportingPaymentReceived = BlockchainTransaction(
-                    transaction = reportPaymentReceivedTransaction,
-                    transactionHash = transactionHash,
-                    latestBlockNumberAtCreation = blockchainService.newestBlockNum,
-                    type = BlockchainTransactionType.REPORT_PAYMENT_RECEIVED
-                )
-                val dateString = DateFormatter.createDateString(blockchainTransactionForReportingPaymentReceived
-                    .timeOfCreation)
-                logger.info("reportPaymentReceived: persistently storing report payment received data for ${swap
-                    .id}, including tx hash ${blockchainTransactionForReportingPaymentReceived.transactionHash}")
-                val encoder = Base64.getEncoder()
-                databaseService.updateReportPaymentReceivedData(
-                    swapID = encoder.encodeToString(swap.id.asByteArray()),
-                    chainID = swap.chainID.toString(),
-                    transactionHash = blockchainTransactionForReportingPaymentReceived.transactionHash,
-                    creationTime = dateString,
-                    blockNumber = blockchainTransactionForReportingPaymentReceived.latestBlockNumberAtCreation.toLong()
-                )
-                logger.info("reportPaymentReceived: persistently updating reportingPaymentReceivedState for " +
-                        "${swap.id} to sendingTransaction")
-                databaseService.updateReportPaymentReceivedState(
-                    swapID = encoder.encodeToString(swap.id.asByteArray()),
-                    chainID = swap.chainID.toString(),
-                    state = ReportingPaymentReceivedState.SENDING_TRANSACTION.asString
-                )
-                logger.info("reportPaymentReceived: updating reportingPaymentReceivedState for ${swap.id} to " +
-                        "sendingTransaction and storing tx hash ${blockchainTransactionForReportingPaymentReceived
-                            .transactionHash} in swap")
-                withContext(Dispatchers.Main) {
-                    swap.reportingPaymentReceivedState.value = ReportingPaymentReceivedState.SENDING_TRANSACTION
-                    swap.reportPaymentReceivedTransaction = blockchainTransactionForReportingPaymentReceived
-                }
-                logger.info("reportPaymentReceived: sending $transactionHash for ${swap.id}")
-                blockchainService.sendTransaction(
-                    transaction = blockchainTransactionForReportingPaymentReceived,
-                    signedRawTransactionDataAsHex = signedTransactionHex,
-                    chainID = swap.chainID
-                )
-                logger.info("reportPaymentReceived: persistently updating reportingPaymentReceivedState of ${swap
-                    .id} to awaitingTransactionConfirmation")
-                databaseService.updateReportPaymentReceivedState(
-                    swapID = encoder.encodeToString(swap.id.asByteArray()),
-                    chainID = swap.chainID.toString(),
-                    state = ReportingPaymentReceivedState.AWAITING_TRANSACTION_CONFIRMATION.asString
-                )
-                logger.info("reportPaymentReceived: persistently updating state of ${swap.id} to " +
-                        "reportPaymentReceivedTransactionBroadcast")
-                databaseService.updateSwapState(
-                    swapID = encoder.encodeToString(swap.id.asByteArray()),
-                    chainID = swap.chainID.toString(),
-                    state = SwapState.REPORT_PAYMENT_RECEIVED_TRANSACTION_BROADCAST.asString
-                )
-                logger.info("reportPaymentReceived: updating reportingPaymentReceivedState for ${swap.id} to " +
-                        "awaitingTransactionConfirmation and state to reportPaymentReceivedTransactionBroadcast")
-                withContext(Dispatchers.Main) {
-                    swap.reportingPaymentReceivedState.value = ReportingPaymentReceivedState
-                        .AWAITING_TRANSACTION_CONFIRMATION
-                    swap.state.value = SwapState.REPORT_PAYMENT_RECEIVED_TRANSACTION_BROADCAST
-                }
-            } catch (exception: Exception) {
-                logger.error("reportPaymentReceived: encountered exception while reporting for ${swap.id}, setting " +
-                        "reportingPaymentReceivedState to exception", exception)
-                val encoder = Base64.getEncoder()
-                databaseService.updateReportPaymentReceivedState(
-                    swapID = encoder.encodeToString(swap.id.asByteArray()),
-                    chainID = swap.chainID.toString(),
-                    state = ReportingPaymentReceivedState.EXCEPTION.asString
-                )
-                swap.reportingPaymentReceivedException = exception
-                withContext(Dispatchers.Main) {
-                    swap.reportingPaymentReceivedState.value = ReportingPaymentReceivedState.EXCEPTION
+        swapActors.process(swap.id) {
+            withContext(Dispatchers.IO) {
+                logger.info("reportPaymentReceived: checking reporting is possible for ${swap.id}")
+                validateSwapForReportingPaymentReceived(swap = swap)
+                try {
+                    if (reportPaymentReceivedTransaction == null) {
+                        throw SwapServiceException(message = "Transaction was null during reportPaymentReceived call " +
+                                "for " + swap.id)
+                    }
+                    logger.info("reportPaymentReceived: signing transaction for ${swap.id}")
+                    val signedTransactionData = blockchainService.signTransaction(
+                        transaction = reportPaymentReceivedTransaction,
+                        chainID = swap.chainID
+                    )
+                    val signedTransactionHex = Numeric.toHexString(signedTransactionData)
+                    val transactionHash = Hash.sha3(signedTransactionHex)
+                    val blockchainTransactionForReportingPaymentReceived = BlockchainTransaction(
+                        transaction = reportPaymentReceivedTransaction,
+                        transactionHash = transactionHash,
+                        latestBlockNumberAtCreation = blockchainService.newestBlockNum,
+                        type = BlockchainTransactionType.REPORT_PAYMENT_RECEIVED
+                    )
+                    val dateString = DateFormatter.createDateString(blockchainTransactionForReportingPaymentReceived
+                        .timeOfCreation)
+                    logger.info("reportPaymentReceived: persistently storing report payment received data for ${swap
+                        .id}, including tx hash ${blockchainTransactionForReportingPaymentReceived.transactionHash}")
+                    databaseService.updateReportPaymentReceivedData(
+                        swapID = swap.id,
+                        chainID = swap.chainID,
+                        transactionHash = blockchainTransactionForReportingPaymentReceived.transactionHash,
+                        creationTime = dateString,
+                        blockNumber = blockchainTransactionForReportingPaymentReceived.latestBlockNumberAtCreation
+                            .toLong()
+                    )
+                    logger.info("reportPaymentReceived: persistently updating reportingPaymentReceivedState for " +
+                            "${swap.id} to sendingTransaction")
+                    databaseService.updateReportPaymentReceivedState(
+                        swapID = swap.id,
+                        chainID = swap.chainID,
+                        state = ReportingPaymentReceivedState.SENDING_TRANSACTION.asString
+                    )
+                    logger.info("reportPaymentReceived: updating reportingPaymentReceivedState for ${swap.id} to " +
+                            "sendingTransaction and storing tx hash ${blockchainTransactionForReportingPaymentReceived
+                                .transactionHash} in swap")
+                    withContext(Dispatchers.Main) {
+                        swap.reportingPaymentReceivedState.value = ReportingPaymentReceivedState.SENDING_TRANSACTION
+                        swap.reportPaymentReceivedTransaction = blockchainTransactionForReportingPaymentReceived
+                    }
+                    logger.info("reportPaymentReceived: sending $transactionHash for ${swap.id}")
+                    blockchainService.sendTransaction(
+                        transaction = blockchainTransactionForReportingPaymentReceived,
+                        signedRawTransactionDataAsHex = signedTransactionHex,
+                        chainID = swap.chainID
+                    )
+                    logger.info("reportPaymentReceived: persistently updating reportingPaymentReceivedState of ${swap
+                        .id} to awaitingTransactionConfirmation")
+                    databaseService.updateReportPaymentReceivedState(
+                        swapID = swap.id,
+                        chainID = swap.chainID,
+                        state = ReportingPaymentReceivedState.AWAITING_TRANSACTION_CONFIRMATION.asString
+                    )
+                    logger.info("reportPaymentReceived: persistently updating state of ${swap.id} to " +
+                            "reportPaymentReceivedTransactionBroadcast")
+                    databaseService.updateSwapState(
+                        swapID = swap.id,
+                        chainID = swap.chainID,
+                        state = SwapState.REPORT_PAYMENT_RECEIVED_TRANSACTION_BROADCAST.asString
+                    )
+                    logger.info("reportPaymentReceived: updating reportingPaymentReceivedState for ${swap.id} to " +
+                            "awaitingTransactionConfirmation and state to reportPaymentReceivedTransactionBroadcast")
+                    withContext(Dispatchers.Main) {
+                        swap.reportingPaymentReceivedState.value = ReportingPaymentReceivedState
+                            .AWAITING_TRANSACTION_CONFIRMATION
+                        swap.state.value = SwapState.REPORT_PAYMENT_RECEIVED_TRANSACTION_BROADCAST
+                    }
+                } catch (exception: Exception) {
+                    logger.error("reportPaymentReceived: encountered exception while reporting for ${swap.id}, " +
+                            "setting reportingPaymentReceivedState to exception", exception)
+                    databaseService.updateReportPaymentReceivedState(
+                        swapID = swap.id,
+                        chainID = swap.chainID,
+                        state = ReportingPaymentReceivedState.EXCEPTION.asString
+                    )
+                    swap.reportingPaymentReceivedException = exception
+                    withContext(Dispatchers.Main) {
+                        swap.reportingPaymentReceivedState.value = ReportingPaymentReceivedState.EXCEPTION
+                    }
+                    throw exception
                 }
-                throw exception
             }
         }
     }
@@ -980,28 +1172,30 @@ class SwapService @Inject constructor(
         swap: Swap,
         afterPossibilityCheck: (suspend () -> Unit)? = null,
     ) {
-        withContext(Dispatchers.IO) {
-            logger.info("closeSwap: checking if ${swap.id} can be closed")
-            try {
-                // Ensure that this swap is awaiting closing
-                if (swap.state.value != SwapState.AWAITING_CLOSING) {
-                    throw SwapServiceException("This swap cannot currently be closed")
-                }
-                afterPossibilityCheck?.invoke()
-                logger.info("closeSwap: closing ${swap.id}")
-                blockchainService.closeSwapAsync(id = swap.id).await()
-                logger.info("closeSwap: closed ${swap.id}")
-                databaseService.updateSwapState(
-                    swapID = Base64.getEncoder().encodeToString(swap.id.asByteArray()),
-                    chainID = swap.chainID.toString(),
-                    state = SwapState.CLOSE_SWAP_TRANSACTION_BROADCAST.asString,
-                )
-                withContext(Dispatchers.Main) {
-                    swap.state.value = SwapState.CLOSE_SWAP_TRANSACTION_BROADCAST
+        swapActors.process(swap.id) {
+            withContext(Dispatchers.IO) {
+                logger.info("closeSwap: checking if ${swap.id} can be closed")
+                try {
+                    // Ensure that this swap is awaiting closing
+                    if (swap.state.value != SwapState.AWAITING_CLOSING) {
+                        throw SwapServiceException("This swap cannot currently be closed")
+                    }
+                    afterPossibilityCheck?.invoke()
+                    logger.info("closeSwap: closing ${swap.id}")
+                    blockchainService.closeSwapAsync(id = swap.id).await()
+                    logger.info("closeSwap: closed ${swap.id}")
+                    databaseService.updateSwapState(
+                        swapID = swap.id,
+                        chainID = swap.chainID,
+                        state = SwapState.CLOSE_SWAP_TRANSACTION_BROADCAST.asString,
+                    )
+                    withContext(Dispatchers.Main) {
+                        swap.state.value = SwapState.CLOSE_SWAP_TRANSACTION_BROADCAST
+                    }
+                } catch (exception: Exception) {
+                    logger.error("reportPaymentReceived: encountered exception during call for ${swap.id}", exception)
+                    throw exception
                 }
-            } catch (exception: Exception) {
-                logger.error("reportPaymentReceived: encountered exception during call for ${swap.id}", exception)
-                throw exception
             }
         }
     }
@@ -1058,95 +1252,120 @@ class SwapService @Inject constructor(
      * @throws [SwapServiceException] if [closeSwapTransaction] is `null`.
      */
     suspend fun closeSwap(swap: Swap, closeSwapTransaction: RawTransaction?) {
-        withContext(Dispatchers.IO) {
-            logger.info("closeSwap: checking closing is possible for ${swap.id}")
-            validateSwapForClosing(swap = swap)
-            try {
-                if (closeSwapTransaction == null) {
-                    throw SwapServiceException(message = "Transaction was null during closeSwap call for ${swap.id}")
-                }
-                logger.info("closeSwap: signing transaction for ${swap.id}")
-                val signedTransactionData = blockchainService.signTransaction(
-                    transaction = closeSwapTransaction,
-                    chainID = swap.chainID
-                )
-                val signedTransactionHex = Numeric.toHexString(signedTransactionData)
-                val transactionHash = Hash.sha3(signedTransactionHex)
-                val blockchainTransactionForClosingSwap = BlockchainTransaction(
-                    transaction = closeSwapTransaction,
-                    transactionHash = transactionHash,
-                    latestBlockNumberAtCreation = blockchainService.newestBlockNum,
-                    type = BlockchainTransactionType.CLOSE_SWAP
-                )
-                val dateString = DateFormatter.createDateString(blockchainTransactionForClosingSwap
-                    .timeOfCreation)
-                logger.info("closeSwap: persistently storing close swap data for ${swap.id}, including tx " +
-                        "hash ${blockchainTransactionForClosingSwap.transactionHash}")
-                val encoder = Base64.getEncoder()
-                databaseService.updateCloseSwapData(
-                    swapID = encoder.encodeToString(swap.id.asByteArray()),
-                    chainID = swap.chainID.toString(),
-                    transactionHash = blockchainTransactionForClosingSwap.transactionHash,
-                    creationTime = dateString,
-                    blockNumber = blockchainTransactionForClosingSwap.latestBlockNumberAtCreation.toLong()
-                )
-                logger.info("closeSwap: persistently updating closeSwapState for ${swap.id} to ${ClosingSwapState
-                    .SENDING_TRANSACTION.asString}")
-                databaseService.updateCloseSwapState(
-                    swapID = encoder.encodeToString(swap.id.asByteArray()),
-                    chainID = swap.chainID.toString(),
-                    state = ClosingSwapState.SENDING_TRANSACTION.asString
-                )
-                logger.info("closeSwap: updating closeSwapState for ${swap.id} to sendingTransaction and storing tx " +
-                        "hash ${blockchainTransactionForClosingSwap.transactionHash} in swap")
-                withContext(Dispatchers.Main) {
-                    swap.closingSwapState.value = ClosingSwapState.SENDING_TRANSACTION
-                    swap.closeSwapTransaction = blockchainTransactionForClosingSwap
-                }
-                logger.info("closeSwap: sending $transactionHash for ${swap.id}")
-                blockchainService.sendTransaction(
-                    transaction = blockchainTransactionForClosingSwap,
-                    signedRawTransactionDataAsHex = signedTransactionHex,
-                    chainID = swap.chainID
-                )
-                logger.info("closeSwap: persistently updating closeSwapState of ${swap.id} to ${ClosingSwapState
-                    .AWAITING_TRANSACTION_CONFIRMATION.asString}")
-                databaseService.updateCloseSwapState(
-                    swapID = encoder.encodeToString(swap.id.asByteArray()),
-                    chainID = swap.chainID.toString(),
-                    state = ClosingSwapState.AWAITING_TRANSACTION_CONFIRMATION.asString
-                )
-                logger.info("closeSwap: persistently updating state of ${swap.id} to ${SwapState
-                    .CLOSE_SWAP_TRANSACTION_BROADCAST.asString}")
-                databaseService.updateSwapState(
-                    swapID = encoder.encodeToString(swap.id.asByteArray()),
-                    chainID = swap.chainID.toString(),
-                    state = SwapState.CLOSE_SWAP_TRANSACTION_BROADCAST.asString
-                )
-                logger.info("closeSwap: updating closeSwapState for ${swap.id} to ${ClosingSwapState
-                    .AWAITING_TRANSACTION_CONFIRMATION} and state to ${SwapState.CLOSE_SWAP_TRANSACTION_BROADCAST}")
-                withContext(Dispatchers.Main) {
-                    swap.closingSwapState.value = ClosingSwapState.AWAITING_TRANSACTION_CONFIRMATION
-                    swap.state.value = SwapState.CLOSE_SWAP_TRANSACTION_BROADCAST
-                }
-            } catch (exception: Exception) {
-                logger.error("closeSwap: encountered exception while closing ${swap.id}, setting closingSwapState to " +
-                        "exception", exception)
-                val encoder = Base64.getEncoder()
-                databaseService.updateCloseSwapState(
-                    swapID = encoder.encodeToString(swap.id.asByteArray()),
-                    chainID = swap.chainID.toString(),
-                    state = ClosingSwapState.EXCEPTION.asString
-                )
-                swap.closingSwapException = exception
-                withContext(Dispatchers.Main) {
-                    swap.closingSwapState.value = ClosingSwapState.EXCEPTION
+        swapActors.process(swap.id) {
+            withContext(Dispatchers.IO) {
+                logger.info("closeSwap: checking closing is possible for ${swap.id}")
+                validateSwapForClosing(swap = swap)
+                try {
+                    if (closeSwapTransaction == null) {
+                        throw SwapServiceException(message = "Transaction was null during closeSwap call for " +
+                                "${swap.id}")
+                    }
+                    logger.info("closeSwap: signing transaction for ${swap.id}")
+                    val signedTransactionData = blockchainService.signTransaction(
+                        transaction = closeSwapTransaction,
+                        chainID = swap.chainID
+                    )
+                    val signedTransactionHex = Numeric.toHexString(signedTransactionData)
+                    val transactionHash = Hash.sha3(signedTransactionHex)
+                    val blockchainTransactionForClosingSwap = BlockchainTransaction(
+                        transaction = closeSwapTransaction,
+                        transactionHash = transactionHash,
+                        latestBlockNumberAtCreation = blockchainService.newestBlockNum,
+                        type = BlockchainTransactionType.CLOSE_SWAP
+                    )
+                    val dateString = DateFormatter.createDateString(blockchainTransactionForClosingSwap
+                        .timeOfCreation)
+                    logger.info("closeSwap: persistently storing close swap data for ${swap.id}, including tx " +
+                            "hash ${blockchainTransactionForClosingSwap.transactionHash}")
+                    databaseService.updateCloseSwapData(
+                        swapID = swap.id,
+                        chainID = swap.chainID,
+                        transactionHash = blockchainTransactionForClosingSwap.transactionHash,
+                        creationTime = dateString,
+                        blockNumber = blockchainTransactionForClosingSwap.latestBlockNumberAtCreation.toLong()
+                    )
+                    logger.info("closeSwap: persistently updating closeSwapState for ${swap.id} to ${ClosingSwapState
+                        .SENDING_TRANSACTION.asString}")
+                    databaseService.updateCloseSwapState(
+                        swapID = swap.id,
+                        chainID = swap.chainID,
+                        state = ClosingSwapState.SENDING_TRANSACTION.asString
+                    )
+                    logger.info("closeSwap: updating closeSwapState for ${swap.id} to sendingTransaction and storing " +
+                            "tx hash ${blockchainTransactionForClosingSwap.transactionHash} in swap")
+                    withContext(Dispatchers.Main) {
+                        swap.closingSwapState.value = ClosingSwapState.SENDING_TRANSACTION
+                        swap.closeSwapTransaction = blockchainTransactionForClosingSwap
+                    }
+                    logger.info("closeSwap: sending $transactionHash for ${swap.id}")
+                    blockchainService.sendTransaction(
+                        transaction = blockchainTransactionForClosingSwap,
+                        signedRawTransactionDataAsHex = signedTransactionHex,
+                        chainID = swap.chainID
+                    )
+                    logger.info("closeSwap: persistently updating closeSwapState of ${swap.id} to ${ClosingSwapState
+                        .AWAITING_TRANSACTION_CONFIRMATION.asString}")
+                    databaseService.updateCloseSwapState(
+                        swapID = swap.id,
+                        chainID = swap.chainID,
+                        state = ClosingSwapState.AWAITING_TRANSACTION_CONFIRMATION.asString
+                    )
+                    logger.info("closeSwap: persistently updating state of ${swap.id} to ${SwapState
+                        .CLOSE_SWAP_TRANSACTION_BROADCAST.asString}")
+                    databaseService.updateSwapState(
+                        swapID = swap.id,
+                        chainID = swap.chainID,
+                        state = SwapState.CLOSE_SWAP_TRANSACTION_BROADCAST.asString
+                    )
+                    logger.info("closeSwap: updating closeSwapState for ${swap.id} to ${ClosingSwapState
+                        .AWAITING_TRANSACTION_CONFIRMATION} and state to ${SwapState.CLOSE_SWAP_TRANSACTION_BROADCAST}")
+                    withContext(Dispatchers.Main) {
+                        swap.closingSwapState.value = ClosingSwapState.AWAITING_TRANSACTION_CONFIRMATION
+                        swap.state.value = SwapState.CLOSE_SWAP_TRANSACTION_BROADCAST
+                    }
+                } catch (exception: Exception) {
+                    logger.error("closeSwap: encountered exception while closing ${swap.id}, setting " +
+                            "closingSwapState to exception", exception)
+                    databaseService.updateCloseSwapState(
+                        swapID = swap.id,
+                        chainID = swap.chainID,
+                        state = ClosingSwapState.EXCEPTION.asString
+                    )
+                    swap.closingSwapException = exception
+                    withContext(Dispatchers.Main) {
+                        swap.closingSwapState.value = ClosingSwapState.EXCEPTION
+                    }
+                    throw exception
                 }
-                throw exception
             }
         }
     }
 
+    /**
+     * Finds the swap in [swapTruthSource] to which the [BlockchainTransaction] with hash [transactionHash] and type
+     * [type] is attached, using [swapTransactionHashIndex]. Every swap in [swapTruthSource] is attached to the index
+     * when it is added, so if the transaction is not indexed, no swap in [swapTruthSource] has it attached.
+     *
+     * @param transactionHash The hash of the transaction.
+     * @param type The [BlockchainTransactionType] of the transaction.
+     *
+     * @return The [Swap] to which the transaction is attached, or `null` if no such swap is in [swapTruthSource].
+     */
+    private fun findSwapByTransaction(transactionHash: String, type: BlockchainTransactionType): Swap? {
+        return swapTransactionHashIndex[transactionHash, type]?.takeIf { swapTruthSource.swaps[it.id] === it }
+    }
+
+    /**
+     * Attaches [swap] to [swapTransactionHashIndex], so that it can be found by [findSwapByTransaction] once it has
+     * been added to [swapTruthSource]. This must be called on the main coroutine dispatcher.
+     *
+     * @param swap The [Swap] that is about to be added to [swapTruthSource].
+     */
+    override fun attachSwapToTransactionHashIndex(swap: Swap) {
+        swap.transactionHashIndex = swapTransactionHashIndex
+    }
+
     /**
      * The function called by [BlockchainService] in order to notify [SwapService] that a monitored swap-related
      * [BlockchainTransaction] has failed (either has been confirmed and failed, or has been dropped.)
@@ -1189,7 +1408,6 @@ class SwapService @Inject constructor(
     ) {
         logger.warn("handleFailedTransaction: handling ${transaction.transactionHash} of type ${transaction.type
             .asString} with exception ${exception.message}")
-        val encoder = Base64.getEncoder()
         when (transaction.type) {
             BlockchainTransactionType.APPROVE_TOKEN_TRANSFER_TO_OPEN_OFFER, BlockchainTransactionType.OPEN_OFFER,
             BlockchainTransactionType.CANCEL_OFFER, BlockchainTransactionType.EDIT_OFFER,
@@ -1199,28 +1417,26 @@ class SwapService @Inject constructor(
                         "transaction ${transaction.transactionHash}")
             }
             BlockchainTransactionType.APPROVE_TOKEN_TRANSFER_TO_FILL_SWAP -> {
-                val swap = swapTruthSource.swaps.firstNotNullOfOrNull { uuidSwapEntry ->
-                    if (uuidSwapEntry.value.approvingToFillTransaction?.transactionHash
-                            .equals(transaction.transactionHash)) {
-                        uuidSwapEntry.value
-                    } else {
-                        null
-                    }
-                }
+                val swap = findSwapByTransaction(
+                    transactionHash = transaction.transactionHash,
+                    type = BlockchainTransactionType.APPROVE_TOKEN_TRANSFER_TO_FILL_SWAP
+                )
                 if (swap != null) {
-                    logger.warn("handleFailedTransaction: found swap ${swap.id} on ${swap.chainID} with " +
-                            "approve to fill transaction ${transaction.transactionHash}, updating " +
-                            "approvingToFillState to EXCEPTION in persistent storage")
-                    databaseService.updateSwapApproveToFillState(
-                        swapID = encoder.encodeToString(swap.id.asByteArray()),
-                        chainID = swap.chainID.toString(),
-                        state = TokenTransferApprovalState.EXCEPTION.asString,
-                    )
-                    logger.warn("handleFailedTransaction: setting approvingToFillException and updating " +
-                            "approvingToFillState to EXCEPTION for ${swap.id}")
-                    withContext(Dispatchers.Main) {
-                        swap.approvingToFillException = exception
-                        swap.approvingToFillState.value = TokenTransferApprovalState.EXCEPTION
+                    swapActors.process(swap.id) {
+                        logger.warn("handleFailedTransaction: found swap ${swap.id} on ${swap.chainID} with " +
+                                "approve to fill transaction ${transaction.transactionHash}, updating " +
+                                "approvingToFillState to EXCEPTION in persistent storage")
+                        databaseService.updateSwapApproveToFillState(
+                            swapID = swap.id,
+                            chainID = swap.chainID,
+                            state = TokenTransferApprovalState.EXCEPTION.asString,
+                        )
+                        logger.warn("handleFailedTransaction: setting approvingToFillException and updating " +
+                                "approvingToFillState to EXCEPTION for ${swap.id}")
+                        withContext(Dispatchers.Main) {
+                            swap.approvingToFillException = exception
+                            swap.approvingToFillState.value = TokenTransferApprovalState.EXCEPTION
+                        }
                     }
                 } else {
                     logger.warn("handleFailedTransaction: swap with approve to fill transaction ${transaction
@@ -1228,36 +1444,34 @@ class SwapService @Inject constructor(
                 }
             }
             BlockchainTransactionType.FILL_SWAP -> {
-                val swap = swapTruthSource.swaps.firstNotNullOfOrNull { uuidSwapEntry ->
-                    if (uuidSwapEntry.value.swapFillingTransaction?.transactionHash
-                            .equals(transaction.transactionHash)) {
-                        uuidSwapEntry.value
-                    } else {
-                        null
-                    }
-                }
+                val swap = findSwapByTransaction(
+                    transactionHash = transaction.transactionHash,
+                    type = BlockchainTransactionType.FILL_SWAP
+                )
                 if (swap != null) {
-                    logger.warn("handleFailedTransaction: found swap ${swap.id} on ${swap.chainID} with swap " +
-                            "filling transaction ${transaction.transactionHash}, updating state to ${SwapState
-                                .AWAITING_FILLING.asString} and fillingSwapState to ${FillingSwapState.EXCEPTION
-                                .asString} in persistent storage")
-                    databaseService.updateSwapState(
-                        swapID = encoder.encodeToString(swap.id.asByteArray()),
-                        chainID = swap.chainID.toString(),
-                        state = SwapState.AWAITING_FILLING.asString
-                    )
-                    databaseService.updateFillingSwapState(
-                        swapID = encoder.encodeToString(swap.id.asByteArray()),
-                        chainID = swap.chainID.toString(),
-                        state = FillingSwapState.EXCEPTION.asString,
-                    )
-                    logger.warn("handleFailedTransaction: setting state to ${SwapState.AWAITING_FILLING
-                        .asString}, setting fillingSwapException and updating fillingSwapState to ${FillingSwapState
-                        .EXCEPTION.asString} for ${swap.id}")
-                    withContext(Dispatchers.Main) {
-                        swap.state.value = SwapState.AWAITING_FILLING
-                        swap.fillingSwapException = exception
-                        swap.fillingSwapState.value = FillingSwapState.EXCEPTION
+                    swapActors.process(swap.id) {
+                        logger.warn("handleFailedTransaction: found swap ${swap.id} on ${swap.chainID} with swap " +
+                                "filling transaction ${transaction.transactionHash}, updating state to ${SwapState
+                                    .AWAITING_FILLING.asString} and fillingSwapState to ${FillingSwapState.EXCEPTION
+                                    .asString} in persistent storage")
+                        databaseService.updateSwapState(
+                            swapID = swap.id,
+                            chainID = swap.chainID,
+                            state = SwapState.AWAITING_FILLING.asString
+                        )
+                        databaseService.updateFillingSwapState(
+                            swapID = swap.id,
+                            chainID = swap.chainID,
+                            state = FillingSwapState.EXCEPTION.asString,
+                        )
+                        logger.warn("handleFailedTransaction: setting state to ${SwapState.AWAITING_FILLING
+                            .asString}, setting fillingSwapException and updating fillingSwapState to ${FillingSwapState
+                            .EXCEPTION.asString} for ${swap.id}")
+                        withContext(Dispatchers.Main) {
+                            swap.state.value = SwapState.AWAITING_FILLING
+                            swap.fillingSwapException = exception
+                            swap.fillingSwapState.value = FillingSwapState.EXCEPTION
+                        }
                     }
                 } else {
                     logger.warn("handleFailedTransaction: swap with swap filling transaction ${transaction
@@ -1265,35 +1479,34 @@ class SwapService @Inject constructor(
                 }
             }
             BlockchainTransactionType.REPORT_PAYMENT_SENT -> {
-                val swap = swapTruthSource.swaps.firstNotNullOfOrNull { uuidSwapEntry ->
-                    if (uuidSwapEntry.value.reportPaymentSentTransaction?.transactionHash
-                            .equals(transaction.transactionHash)) {
-                        uuidSwapEntry.value
-                    } else {
-                        null
-                    }
-                }
+                val swap = findSwapByTransaction(
+                    transactionHash = transaction.transactionHash,
+                    type = BlockchainTransactionType.REPORT_PAYMENT_SENT
+                )
                 if (swap != null) {
-                    logger.warn("handleFailedTransaction: found swap ${swap.id} on ${swap.chainID} with " +
-                            "report payment sent transaction ${transaction.transactionHash}, updating " +
-                            "reportingPaymentSentState to EXCEPTION and state to AWAITING_PAYMENT_SENT in persistent " +
-                            "storage")
-                    databaseService.updateReportPaymentSentState(
-                        swapID = encoder.encodeToString(swap.id.asByteArray()),
-                        chainID = swap.chainID.toString(),
-                        state = ReportingPaymentSentState.EXCEPTION.asString,
-                    )
-                    databaseService.updateSwapState(
-                        swapID = encoder.encodeToString(swap.id.asByteArray()),
-                        chainID = swap.chainID.toString(),
-                        state = SwapState.AWAITING_PAYMENT_SENT.asString
-                    )
-                    logger.warn("handleFailedTransaction: setting reportingPaymentSentException, updating " +
-                            "reportingPaymentSentState to EXCEPTION and state to AWAITING_PAYMENT_SENT for ${swap.id}")
-                    withContext(Dispatchers.Main) {
-                        swap.reportingPaymentSentException = exception
-                        swap.reportingPaymentSentState.value = ReportingPaymentSentState.EXCEPTION
-                        swap.state.value = SwapState.AWAITING_PAYMENT_SENT
+                    swapActors.process(swap.id) {
+                        logger.warn("handleFailedTransaction: found swap ${swap.id} on ${swap.chainID} with " +
+                                "report payment sent transaction ${transaction.transactionHash}, updating " +
+                                "reportingPaymentSentState to EXCEPTION and state to AWAITING_PAYMENT_SENT in " +
+                                "persistent storage")
+                        databaseService.updateReportPaymentSentState(
+                            swapID = swap.id,
+                            chainID = swap.chainID,
+                            state = ReportingPaymentSentState.EXCEPTION.asString,
+                        )
+                        databaseService.updateSwapState(
+                            swapID = swap.id,
+                            chainID = swap.chainID,
+                            state = SwapState.AWAITING_PAYMENT_SENT.asString
+                        )
+                        logger.warn("handleFailedTransaction: setting reportingPaymentSentException, updating " +
+                                "reportingPaymentSentState to EXCEPTION and state to AWAITING_PAYMENT_SENT for " +
+                                "${swap.id}")
+                        withContext(Dispatchers.Main) {
+                            swap.reportingPaymentSentException = exception
+                            swap.reportingPaymentSentState.value = ReportingPaymentSentState.EXCEPTION
+                            swap.state.value = SwapState.AWAITING_PAYMENT_SENT
+                        }
                     }
                 } else {
                     logger.warn("handleFailedTransaction: swap with report payment sent transaction " +
@@ -1301,36 +1514,34 @@ class SwapService @Inject constructor(
                 }
             }
             BlockchainTransactionType.REPORT_PAYMENT_RECEIVED -> {
-                val swap = swapTruthSource.swaps.firstNotNullOfOrNull { uuidSwapEntry ->
-                    if (uuidSwapEntry.value.reportPaymentReceivedTransaction?.transactionHash
-                            .equals(transaction.transactionHash)) {
-                        uuidSwapEntry.value
-                    } else {
-                        null
-                    }
-                }
+                val swap = findSwapByTransaction(
+                    transactionHash = transaction.transactionHash,
+                    type = BlockchainTransactionType.REPORT_PAYMENT_RECEIVED
+                )
                 if (swap != null) {
-                    logger.warn("handleFailedTransaction: found swap ${swap.id} on ${swap.chainID} with " +
-                            "report payment received transaction ${transaction.transactionHash}, updating " +
-                            "reportingPaymentReceivedState to EXCEPTION and state to AWAITING_PAYMENT_RECEIVED in " +
-                            "persistent storage")
-                    databaseService.updateReportPaymentReceivedState(
-                        swapID = encoder.encodeToString(swap.id.asByteArray()),
-                        chainID = swap.chainID.toString(),
-                        state = ReportingPaymentReceivedState.EXCEPTION.asString,
-                    )
-                    databaseService.updateSwapState(
-                        swapID = encoder.encodeToString(swap.id.asByteArray()),
-                        chainID = swap.chainID.toString(),
-                        state = SwapState.AWAITING_PAYMENT_RECEIVED.asString
-                    )
-                    logger.warn("handleFailedTransaction: setting reportingPaymentReceivedException, updating " +
-                            "reportingPaymentReceivedState to EXCEPTION and state to AWAITING_PAYMENT_RECEIVED for " +
-                            "${swap.id}")
-                    withContext(Dispatchers.Main) {
-                        swap.reportingPaymentReceivedException = exception
-                        swap.reportingPaymentReceivedState.value = ReportingPaymentReceivedState.EXCEPTION
-                        swap.state.value = SwapState.AWAITING_PAYMENT_RECEIVED
+                    swapActors.process(swap.id) {
+                        logger.warn("handleFailedTransaction: found swap ${swap.id} on ${swap.chainID} with " +
+                                "report payment received transaction ${transaction.transactionHash}, updating " +
+                                "reportingPaymentReceivedState to EXCEPTION and state to AWAITING_PAYMENT_RECEIVED " +
+                                "in persistent storage")
+                        databaseService.updateReportPaymentReceivedState(
+                            swapID = swap.id,
+                            chainID = swap.chainID,
+                            state = ReportingPaymentReceivedState.EXCEPTION.asString,
+                        )
+                        databaseService.updateSwapState(
+                            swapID = swap.id,
+                            chainID = swap.chainID,
+                            state = SwapState.AWAITING_PAYMENT_RECEIVED.asString
+                        )
+                        logger.warn("handleFailedTransaction: setting reportingPaymentReceivedException, updating " +
+                                "reportingPaymentReceivedState to EXCEPTION and state to AWAITING_PAYMENT_RECEIVED " +
+                                "for ${swap.id}")
+                        withContext(Dispatchers.Main) {
+                            swap.reportingPaymentReceivedException = exception
+                            swap.reportingPaymentReceivedState.value = ReportingPaymentReceivedState.EXCEPTION
+                            swap.state.value = SwapState.AWAITING_PAYMENT_RECEIVED
+                        }
                     }
                 } else {
                     logger.warn("handleFailedTransaction: swap with report payment received transaction ${transaction
@@ -1338,33 +1549,32 @@ class SwapService @Inject constructor(
                 }
             }
             BlockchainTransactionType.CLOSE_SWAP -> {
-                val swap = swapTruthSource.swaps.firstNotNullOfOrNull { uuidSwapEntry ->
-                    if (uuidSwapEntry.value.closeSwapTransaction?.transactionHash.equals(transaction.transactionHash)) {
-                        uuidSwapEntry.value
-                    } else {
-                        null
-                    }
-                }
+                val swap = findSwapByTransaction(
+                    transactionHash = transaction.transactionHash,
+                    type = BlockchainTransactionType.CLOSE_SWAP
+                )
                 if (swap != null) {
-                    logger.warn("handleFailedTransaction: found swap ${swap.id} on ${swap.chainID} with close " +
-                            "swap transaction ${transaction.transactionHash}, updating closeSwapState to EXCEPTION " +
-                            "and state to AWAITING_CLOSING in persistent storage")
-                    databaseService.updateCloseSwapState(
-                        swapID = encoder.encodeToString(swap.id.asByteArray()),
-                        chainID = swap.chainID.toString(),
-                        state = ClosingSwapState.EXCEPTION.asString,
-                    )
-                    databaseService.updateSwapState(
-                        swapID = encoder.encodeToString(swap.id.asByteArray()),
-                        chainID = swap.chainID.toString(),
-                        state = SwapState.AWAITING_CLOSING.asString
-                    )
-                    logger.warn("handleFailedTransaction: setting closingSwapException, updating " +
-                            "closingSwapState to EXCEPTION and state to AWAITING_CLOSING for ${swap.id}")
-                    withContext(Dispatchers.Main) {
-                        swap.closingSwapException = exception
-                        swap.closingSwapState.value = ClosingSwapState.EXCEPTION
-                        swap.state.value = SwapState.AWAITING_CLOSING
+                    swapActors.process(swap.id) {
+                        logger.warn("handleFailedTransaction: found swap ${swap.id} on ${swap.chainID} with close " +
+                                "swap transaction ${transaction.transactionHash}, updating closeSwapState to " +
+                                "EXCEPTION and state to AWAITING_CLOSING in persistent storage")
+                        databaseService.updateCloseSwapState(
+                            swapID = swap.id,
+                            chainID = swap.chainID,
+                            state = ClosingSwapState.EXCEPTION.asString,
+                        )
+                        databaseService.updateSwapState(
+                            swapID = swap.id,
+                            chainID = swap.chainID,
+                            state = SwapState.AWAITING_CLOSING.asString
+                        )
+                        logger.warn("handleFailedTransaction: setting closingSwapException, updating " +
+                                "closingSwapState to EXCEPTION and state to AWAITING_CLOSING for ${swap.id}")
+                        withContext(Dispatchers.Main) {
+                            swap.closingSwapException = exception
+                            swap.closingSwapState.value = ClosingSwapState.EXCEPTION
+                            swap.state.value = SwapState.AWAITING_CLOSING
+                        }
                     }
                 } else {
                     logger.warn("handleFailedTransaction: swap with close swap transaction ${transaction
@@ -1386,134 +1596,136 @@ class SwapService @Inject constructor(
      * swap.
      */
     override suspend fun handleNewSwap(takenOffer: Offer) {
-        logger.info("handleNewSwap: getting on-chain struct for ${takenOffer.id}")
-        val swapOnChain = blockchainService.getSwap(id = takenOffer.id)
-        if (swapOnChain == null) {
-            logger.error("handleNewSwap: could not find ${takenOffer.id} on chain, throwing exception")
-            throw SwapServiceException("Could not find ${takenOffer.id} on chain")
-        }
-        val direction: OfferDirection = when (swapOnChain.direction) {
-            BigInteger.ZERO -> OfferDirection.BUY
-            BigInteger.ONE -> OfferDirection.SELL
-            else -> throw SwapServiceException("Swap ${takenOffer.id} has invalid direction: ${swapOnChain.direction}")
-        }
-        val swapRole = when (direction) {
-            OfferDirection.BUY -> SwapRole.MAKER_AND_BUYER
-            OfferDirection.SELL -> SwapRole.MAKER_AND_SELLER
-        }
-        val newSwap = Swap(
-            isCreated = swapOnChain.isCreated,
-            requiresFill = swapOnChain.requiresFill,
-            id = takenOffer.id,
-            maker = swapOnChain.maker,
-            makerInterfaceID = swapOnChain.makerInterfaceID,
-            taker = swapOnChain.taker,
-            takerInterfaceID = swapOnChain.takerInterfaceID,
-            stablecoin = swapOnChain.stablecoin,
-            amountLowerBound = swapOnChain.amountLowerBound,
-            amountUpperBound = swapOnChain.amountUpperBound,
-            securityDepositAmount = swapOnChain.securityDepositAmount,
-            takenSwapAmount = swapOnChain.takenSwapAmount,
-            serviceFeeAmount = swapOnChain.serviceFeeAmount,
-            serviceFeeRate = swapOnChain.serviceFeeRate,
-            direction = direction,
-            onChainSettlementMethod = swapOnChain.settlementMethod,
-            protocolVersion = swapOnChain.protocolVersion,
-            isPaymentSent = swapOnChain.isPaymentSent,
-            isPaymentReceived = swapOnChain.isPaymentReceived,
-            hasBuyerClosed = swapOnChain.hasBuyerClosed,
-            hasSellerClosed = swapOnChain.hasSellerClosed,
-            onChainDisputeRaiser = swapOnChain.disputeRaiser,
-            chainID = swapOnChain.chainID,
-            state = SwapState.AWAITING_TAKER_INFORMATION,
-            role = swapRole,
-        )
-        val deserializedSelectedSettlementMethod = try {
-            Json.decodeFromString<SettlementMethod>(swapOnChain.settlementMethod.decodeToString())
-        } catch (exception: Exception) {
-            null
-        }
-        val encoder = Base64.getEncoder()
-        if (deserializedSelectedSettlementMethod != null) {
-            val selectedSettlementMethod = takenOffer.settlementMethods.firstOrNull {
-                deserializedSelectedSettlementMethod.currency == it.currency &&
-                        deserializedSelectedSettlementMethod.price == it.price &&
-                        deserializedSelectedSettlementMethod.method == it.method
+        swapActors.process(takenOffer.id) {
+            logger.info("handleNewSwap: getting on-chain struct for ${takenOffer.id}")
+            val swapOnChain = blockchainService.getSwap(id = takenOffer.id)
+            if (swapOnChain == null) {
+                logger.error("handleNewSwap: could not find ${takenOffer.id} on chain, throwing exception")
+                throw SwapServiceException("Could not find ${takenOffer.id} on chain")
             }
-            if (selectedSettlementMethod != null) {
-                newSwap.makerPrivateSettlementMethodData = selectedSettlementMethod.privateData
+            val direction: OfferDirection = when (swapOnChain.direction) {
+                BigInteger.ZERO -> OfferDirection.BUY
+                BigInteger.ONE -> OfferDirection.SELL
+                else -> throw SwapServiceException("Swap ${takenOffer.id} has invalid direction: " +
+                        "${swapOnChain.direction}")
+            }
+            val swapRole = when (direction) {
+                OfferDirection.BUY -> SwapRole.MAKER_AND_BUYER
+                OfferDirection.SELL -> SwapRole.MAKER_AND_SELLER
+            }
+            val newSwap = Swap(
+                isCreated = swapOnChain.isCreated,
+                requiresFill = swapOnChain.requiresFill,
+                id = takenOffer.id,
+                maker = swapOnChain.maker,
+                makerInterfaceID = swapOnChain.makerInterfaceID,
+                taker = swapOnChain.taker,
+                takerInterfaceID = swapOnChain.takerInterfaceID,
+                stablecoin = swapOnChain.stablecoin,
+                amountLowerBound = swapOnChain.amountLowerBound,
+                amountUpperBound = swapOnChain.amountUpperBound,
+                securityDepositAmount = swapOnChain.securityDepositAmount,
+                takenSwapAmount = swapOnChain.takenSwapAmount,
+                serviceFeeAmount = swapOnChain.serviceFeeAmount,
+                serviceFeeRate = swapOnChain.serviceFeeRate,
+                direction = direction,
+                onChainSettlementMethod = swapOnChain.settlementMethod,
+                protocolVersion = swapOnChain.protocolVersion,
+                isPaymentSent = swapOnChain.isPaymentSent,
+                isPaymentReceived = swapOnChain.isPaymentReceived,
+                hasBuyerClosed = swapOnChain.hasBuyerClosed,
+                hasSellerClosed = swapOnChain.hasSellerClosed,
+                onChainDisputeRaiser = swapOnChain.disputeRaiser,
+                chainID = swapOnChain.chainID,
+                state = SwapState.AWAITING_TAKER_INFORMATION,
+                role = swapRole,
+            )
+            val deserializedSelectedSettlementMethod = try {
+                Json.decodeFromString<SettlementMethod>(swapOnChain.settlementMethod.decodeToString())
+            } catch (exception: Exception) {
+                null
+            }
+            val encoder = Base64.getEncoder()
+            if (deserializedSelectedSettlementMethod != null) {
+                val selectedSettlementMethod = takenOffer.settlementMethods.firstOrNull {
+                    deserializedSelectedSettlementMethod.currency == it.currency &&
+                            deserializedSelectedSettlementMethod.price == it.price &&
+                            deserializedSelectedSettlementMethod.method == it.method
+                }
+                if (selectedSettlementMethod != null) {
+                    newSwap.makerPrivateSettlementMethodData = selectedSettlementMethod.privateData
+                } else {
+                    logger.warn("handleNewSwap: unable to find settlement for offer ${takenOffer.id} matching " +
+                            "that selected by taker: ${encoder.encodeToString(swapOnChain.settlementMethod)}")
+                }
             } else {
-                logger.warn("handleNewSwap: unable to find settlement for offer ${takenOffer.id} matching " +
-                        "that selected by taker: ${encoder.encodeToString(swapOnChain.settlementMethod)}")
+                logger.warn("handleNewSwap: unable to deserialize selected settlement method ${encoder
+                    .encodeToString(swapOnChain.settlementMethod)} for ${takenOffer.id}")
             }
-        } else {
-            logger.warn("handleNewSwap: unable to deserialize selected settlement method ${encoder
-                .encodeToString(swapOnChain.settlementMethod)} for ${takenOffer.id}")
-        }
-        // TODO: check for taker information once SettlementMethodService is implemented
-        logger.info("handleNewSwap: persistently storing ${takenOffer.id}")
-        val swapForDatabase = DatabaseSwap(
-            id = encoder.encodeToString(takenOffer.id.asByteArray()),
-            isCreated = if (newSwap.isCreated) 1L else 0L,
-            requiresFill = if (newSwap.requiresFill) 1L else 0L,
-            maker = newSwap.maker,
-            makerInterfaceID = encoder.encodeToString(newSwap.makerInterfaceID),
-            taker = newSwap.taker,
-            takerInterfaceID = encoder.encodeToString(newSwap.takerInterfaceID),
-            stablecoin = newSwap.stablecoin,
-            amountLowerBound = newSwap.amountLowerBound.toString(),
-            amountUpperBound = newSwap.amountUpperBound.toString(),
-            securityDepositAmount = newSwap.securityDepositAmount.toString(),
-            takenSwapAmount = newSwap.takenSwapAmount.toString(),
-            serviceFeeAmount = newSwap.serviceFeeAmount.toString(),
-            serviceFeeRate = newSwap.serviceFeeRate.toString(),
-            onChainDirection = newSwap.onChainDirection.toString(),
-            settlementMethod = encoder.encodeToString(newSwap.onChainSettlementMethod),
-            makerPrivateData = newSwap.makerPrivateSettlementMethodData,
-            makerPrivateDataInitializationVector = null,
-            takerPrivateData = null,
-            takerPrivateDataInitializationVector = null,
-            protocolVersion = newSwap.protocolVersion.toString(),
-            isPaymentSent = if (newSwap.isPaymentSent) 1L else 0L,
-            isPaymentReceived = if (newSwap.isPaymentReceived) 1L else 0L,
-            hasBuyerClosed = if (newSwap.hasBuyerClosed) 1L else 0L,
-            hasSellerClosed = if (newSwap.hasSellerClosed) 1L else 0L,
-            disputeRaiser = newSwap.onChainDisputeRaiser.toString(),
-            chainID = newSwap.chainID.toString(),
-            state = newSwap.state.value.asString,
-            role = newSwap.role.asString,
-            approveToFillState = newSwap.approvingToFillState.value.asString,
-            approveToFillTransactionHash = null,
-            approveToFillTransactionCreationTime = null,
-            approveToFillTransactionCreationBlockNumber = null,
-            fillingSwapState = newSwap.fillingSwapState.value.asString,
-            fillingSwapTransactionHash = null,
-            fillingSwapTransactionCreationTime = null,
-            fillingSwapTransactionCreationBlockNumber = null,
-            reportPaymentSentState = newSwap.reportingPaymentSentState.value.asString,
-            reportPaymentSentTransactionHash = null,
-            reportPaymentSentTransactionCreationTime = null,
-            reportPaymentSentTransactionCreationBlockNumber = null,
-            reportPaymentReceivedState = newSwap.reportingPaymentReceivedState.value.asString,
-            reportPaymentReceivedTransactionHash = null,
-            reportPaymentReceivedTransactionCreationTime = null,
-            reportPaymentReceivedTransactionCreationBlockNumber = null,
-            closeSwapState = newSwap.closingSwapState.value.asString,
-            closeSwapTransactionHash = null,
-            closeSwapTransactionCreationTime = null,
-            closeSwapTransactionCreationBlockNumber = null,
-            disputeState = newSwap.disputeState.value.asString,
-            raisingDisputeState = newSwap.raisingDisputeState.value.asString,
-            raisingDisputeTransactionHash = null,
-            raisingDisputeTransactionCreationTime = null,
-            raisingDisputeTransactionCreationBlockNumber = null,
-        )
-        databaseService.storeSwap(swapForDatabase)
-        // Add new Swap to swapTruthSource
-        withContext(Dispatchers.Main) {
-            swapTruthSource.addSwap(newSwap)
+            // TODO: check for taker information once SettlementMethodService is implemented
+            logger.info("handleNewSwap: persistently storing ${takenOffer.id}")
+            val swapForDatabase = DatabaseSwap(
+                id = takenOffer.id,
+                isCreated = if (newSwap.isCreated) 1L else 0L,
+                requiresFill = if (newSwap.requiresFill) 1L else 0L,
+                maker = newSwap.maker,
+                makerInterfaceID = encoder.encodeToString(newSwap.makerInterfaceID),
+                taker = newSwap.taker,
+                takerInterfaceID = encoder.encodeToString(newSwap.takerInterfaceID),
+                stablecoin = newSwap.stablecoin,
+                amountLowerBound = newSwap.amountLowerBound,
+                amountUpperBound = newSwap.amountUpperBound,
+                securityDepositAmount = newSwap.securityDepositAmount,
+                takenSwapAmount = newSwap.takenSwapAmount,
+                serviceFeeAmount = newSwap.serviceFeeAmount,
+                serviceFeeRate = newSwap.serviceFeeRate,
+                onChainDirection = newSwap.onChainDirection.toString(),
+                settlementMethod = encoder.encodeToString(newSwap.onChainSettlementMethod),
+                makerPrivateData = newSwap.makerPrivateSettlementMethodData?.toByteArray(),
+                takerPrivateData = null,
+                protocolVersion = newSwap.protocolVersion.toString(),
+                isPaymentSent = if (newSwap.isPaymentSent) 1L else 0L,
+                isPaymentReceived = if (newSwap.isPaymentReceived) 1L else 0L,
+                hasBuyerClosed = if (newSwap.hasBuyerClosed) 1L else 0L,
+                hasSellerClosed = if (newSwap.hasSellerClosed) 1L else 0L,
+                disputeRaiser = newSwap.onChainDisputeRaiser.toString(),
+                chainID = newSwap.chainID,
+                state = newSwap.state.value.asString,
+                role = newSwap.role.asString,
+                approveToFillState = newSwap.approvingToFillState.value.asString,
+                approveToFillTransactionHash = null,
+                approveToFillTransactionCreationTime = null,
+                approveToFillTransactionCreationBlockNumber = null,
+                fillingSwapState = newSwap.fillingSwapState.value.asString,
+                fillingSwapTransactionHash = null,
+                fillingSwapTransactionCreationTime = null,
+                fillingSwapTransactionCreationBlockNumber = null,
+                reportPaymentSentState = newSwap.reportingPaymentSentState.value.asString,
+                reportPaymentSentTransactionHash = null,
+                reportPaymentSentTransactionCreationTime = null,
+                reportPaymentSentTransactionCreationBlockNumber = null,
+                reportPaymentReceivedState = newSwap.reportingPaymentReceivedState.value.asString,
+                reportPaymentReceivedTransactionHash = null,
+                reportPaymentReceivedTransactionCreationTime = null,
+                reportPaymentReceivedTransactionCreationBlockNumber = null,
+                closeSwapState = newSwap.closingSwapState.value.asString,
+                closeSwapTransactionHash = null,
+                closeSwapTransactionCreationTime = null,
+                closeSwapTransactionCreationBlockNumber = null,
+                disputeState = newSwap.disputeState.value.asString,
+                raisingDisputeState = newSwap.raisingDisputeState.value.asString,
+                raisingDisputeTransactionHash = null,
+                raisingDisputeTransactionCreationTime = null,
+                raisingDisputeTransactionCreationBlockNumber = null,
+            )
+            databaseService.storeSwap(swapForDatabase)
+            // Add new Swap to swapTruthSource
+            withContext(Dispatchers.Main) {
+                attachSwapToTransactionHashIndex(newSwap)
+                swapTruthSource.addSwap(newSwap)
+            }
+            logger.info("handleNewSwap: successfully handled ${takenOffer.id}")
         }
-        logger.info("handleNewSwap: successfully handled ${takenOffer.id}")
     }
 
     /**
@@ -1535,99 +1747,100 @@ class SwapService @Inject constructor(
      * [message].
      */
     override suspend fun handleTakerInformationMessage(message: TakerInformationMessage) {
-       logger.info("handleTakerInformationMessage: handling for ${message.swapID}")
-        val swap = swapTruthSource.swaps[message.swapID]
-        if (swap != null) {
-            if (message.publicKey.interfaceId.contentEquals(swap.takerInterfaceID)) {
-                /*
-                We should only handle this message if we are the maker of the swap; otherwise, we are the taker and we
-                would be handling our own message
-                 */
-                if (swap.role == SwapRole.MAKER_AND_BUYER || swap.role == SwapRole.MAKER_AND_SELLER) {
-                    val encoder = Base64.getEncoder()
-                    logger.info("handleTakerInformationMessage: persistently storing public key " +
-                            "${encoder.encodeToString(message.publicKey.interfaceId)} for ${message.swapID}")
-                    keyManagerService.storePublicKey(pubKey = message.publicKey)
-                    val swapIDB64String = encoder.encodeToString(message.swapID.asByteArray())
-                    if (message.settlementMethodDetails == null) {
-                        logger.warn("handleTakerInformationMessage: private data in message was null for " +
-                                "${message.swapID}")
-                    } else {
-                        logger.info("handleTakerInformationMessage: persistently storing private data in message " +
-                                "for ${message.swapID}")
-                        databaseService.updateSwapTakerPrivateSettlementMethodData(
-                            swapID = swapIDB64String,
-                            chainID = swap.chainID.toString(),
-                            data = message.settlementMethodDetails
-                        )
+        swapActors.process(message.swapID) {
+            logger.info("handleTakerInformationMessage: handling for ${message.swapID}")
+            val swap = swapTruthSource.swaps[message.swapID]
+            if (swap != null) {
+                if (message.publicKey.interfaceId.contentEquals(swap.takerInterfaceID)) {
+                    /*
+                    We should only handle this message if we are the maker of the swap; otherwise, we are the taker and
+                    we would be handling our own message
+                     */
+                    if (swap.role == SwapRole.MAKER_AND_BUYER || swap.role == SwapRole.MAKER_AND_SELLER) {
+                        val encoder = Base64.getEncoder()
+                        logger.info("handleTakerInformationMessage: persistently storing public key " +
+                                "${encoder.encodeToString(message.publicKey.interfaceId)} for ${message.swapID}")
+                        keyManagerService.storePublicKey(pubKey = message.publicKey)
+                        if (message.settlementMethodDetails == null) {
+                            logger.warn("handleTakerInformationMessage: private data in message was null for " +
+                                    "${message.swapID}")
+                        } else {
+                            logger.info("handleTakerInformationMessage: persistently storing private data in message " +
+                                    "for ${message.swapID}")
+                            databaseService.updateSwapTakerPrivateSettlementMethodData(
+                                swapID = message.swapID,
+                                chainID = swap.chainID,
+                                data = message.settlementMethodDetails
+                            )
+                            logger.info("handleTakerInformationMessage: updating ${swap.id} with private data")
+                            withContext(Dispatchers.Main) {
+                                swap.takerPrivateSettlementMethodData = message.settlementMethodDetails
+                            }
+                        }
                         logger.info("handleTakerInformationMessage: updating ${swap.id} with private data")
                         withContext(Dispatchers.Main) {
                             swap.takerPrivateSettlementMethodData = message.settlementMethodDetails
                         }
-                    }
-                    logger.info("handleTakerInformationMessage: updating ${swap.id} with private data")
-                    withContext(Dispatchers.Main) {
-                        swap.takerPrivateSettlementMethodData = message.settlementMethodDetails
-                    }
-                    logger.info("handleTakerInformationMessage: updating ${swap.id} to " +
-                            SwapState.AWAITING_MAKER_INFORMATION.asString)
-                    databaseService.updateSwapState(
-                        swapID = swapIDB64String,
-                        chainID = swap.chainID.toString(),
-                        state = SwapState.AWAITING_MAKER_INFORMATION.asString,
-                    )
-                    withContext(Dispatchers.Main) {
-                        swap.state.value = SwapState.AWAITING_MAKER_INFORMATION
-                    }
-                    val makerKeyPair = keyManagerService.getKeyPair(swap.makerInterfaceID)
-                        ?: throw SwapServiceException("Could not find key pair for ${message.swapID} while handling " +
-                                "Taker Information Message")
-                    logger.info("handleTakerInformationMessage: sending for ${message.swapID}")
-                    if (swap.makerPrivateSettlementMethodData == null) {
-                        logger.warn("handleTakerInformationMessage: maker info is null for ${swap.id}")
-                    }
-                    p2pService.sendMakerInformation(
-                        takerPublicKey = message.publicKey,
-                        makerKeyPair = makerKeyPair,
-                        swapID = message.swapID,
-                        settlementMethodDetails = swap.makerPrivateSettlementMethodData
-                    )
-                    logger.info("handleTakerInformationMessage: sent for ${message.swapID}")
-                    when (swap.direction) {
-                        OfferDirection.BUY -> {
-                            logger.info("handleTakerInformationMessage: updating state of BUY swap " +
-                                    "${message.swapID} to ${SwapState.AWAITING_PAYMENT_SENT.asString}")
-                            databaseService.updateSwapState(
-                                swapID = swapIDB64String,
-                                chainID = swap.chainID.toString(),
-                                state = SwapState.AWAITING_PAYMENT_SENT.asString,
-                            )
-                            withContext(Dispatchers.Main) {
-                                swap.state.value = SwapState.AWAITING_PAYMENT_SENT
-                            }
+                        logger.info("handleTakerInformationMessage: updating ${swap.id} to " +
+                                SwapState.AWAITING_MAKER_INFORMATION.asString)
+                        databaseService.updateSwapState(
+                            swapID = message.swapID,
+                            chainID = swap.chainID,
+                            state = SwapState.AWAITING_MAKER_INFORMATION.asString,
+                        )
+                        withContext(Dispatchers.Main) {
+                            swap.state.value = SwapState.AWAITING_MAKER_INFORMATION
                         }
-                        OfferDirection.SELL -> {
-                            logger.info("handleTakerInformationMessage: updating state of SELL swap " +
-                                    "${message.swapID} to ${SwapState.AWAITING_FILLING.asString}")
-                            databaseService.updateSwapState(
-                                swapID = swapIDB64String,
-                                chainID = swap.chainID.toString(),
-                                state = SwapState.AWAITING_FILLING.asString,
-                            )
-                            withContext(Dispatchers.Main) {
-                                swap.state.value = SwapState.AWAITING_FILLING
+                        val makerKeyPair = keyManagerService.getKeyPair(swap.makerInterfaceID)
+                            ?: throw SwapServiceException("Could not find key pair for ${message.swapID} while " +
+                                    "handling Taker Information Message")
+                        logger.info("handleTakerInformationMessage: sending for ${message.swapID}")
+                        if (swap.makerPrivateSettlementMethodData == null) {
+                            logger.warn("handleTakerInformationMessage: maker info is null for ${swap.id}")
+                        }
+                        p2pService.sendMakerInformation(
+                            takerPublicKey = message.publicKey,
+                            makerKeyPair = makerKeyPair,
+                            swapID = message.swapID,
+                            settlementMethodDetails = swap.makerPrivateSettlementMethodData
+                        )
+                        logger.info("handleTakerInformationMessage: sent for ${message.swapID}")
+                        when (swap.direction) {
+                            OfferDirection.BUY -> {
+                                logger.info("handleTakerInformationMessage: updating state of BUY swap " +
+                                        "${message.swapID} to ${SwapState.AWAITING_PAYMENT_SENT.asString}")
+                                databaseService.updateSwapState(
+                                    swapID = message.swapID,
+                                    chainID = swap.chainID,
+                                    state = SwapState.AWAITING_PAYMENT_SENT.asString,
+                                )
+                                withContext(Dispatchers.Main) {
+                                    swap.state.value = SwapState.AWAITING_PAYMENT_SENT
+                                }
+                            }
+                            OfferDirection.SELL -> {
+                                logger.info("handleTakerInformationMessage: updating state of SELL swap " +
+                                        "${message.swapID} to ${SwapState.AWAITING_FILLING.asString}")
+                                databaseService.updateSwapState(
+                                    swapID = message.swapID,
+                                    chainID = swap.chainID,
+                                    state = SwapState.AWAITING_FILLING.asString,
+                                )
+                                withContext(Dispatchers.Main) {
+                                    swap.state.value = SwapState.AWAITING_FILLING
+                                }
                             }
                         }
+                        logger.info("handleTakerInformation: detected own message for ${message.swapID}")
                     }
-                    logger.info("handleTakerInformation: detected own message for ${message.swapID}")
+                } else {
+                    logger.warn("handleTakerInformationMessage: got message for ${message.swapID} that was not sent " +
+                            "by swap taker")
                 }
             } else {
-                logger.warn("handleTakerInformationMessage: got message for ${message.swapID} that was not sent by " +
-                        "swap taker")
+                logger.warn("handleTakerInformationMessage: got message for ${message.swapID} which was not found in " +
+                        "swapTruthSource")
             }
-        } else {
-            logger.warn("handleTakerInformationMessage: got message for ${message.swapID} which was not found in " +
-                    "swapTruthSource")
         }
     }
 
@@ -1651,75 +1864,76 @@ class SwapService @Inject constructor(
         senderInterfaceID: ByteArray,
         recipientInterfaceID: ByteArray
     ) {
-        logger.info("handleMakerInformationMessage: handling for ${message.swapID}")
-        val swap = swapTruthSource.swaps[message.swapID]
-        if (swap != null) {
-            /*
-            We should only handle this message if we are the taker of the swap; otherwise, we are the maker and we would
-            be handling our own message
-             */
-            if (swap.role == SwapRole.TAKER_AND_BUYER || swap.role == SwapRole.TAKER_AND_SELLER) {
-                if (!senderInterfaceID.contentEquals(swap.makerInterfaceID)) {
-                    logger.warn("handleMakerInformationMessage: got message for ${message.swapID} that was not sent " +
-                            "by swap maker")
-                    return
-                }
-                val encoder = Base64.getEncoder()
-                if (!recipientInterfaceID.contentEquals(swap.takerInterfaceID)) {
-                    logger.warn("handleMakerInformationMessage: got message for ${message.swapID} with recipient " +
-                            "interface ID ${encoder.encodeToString(recipientInterfaceID)} that doesn't match taker " +
-                            "interface ID ${encoder.encodeToString(swap.takerInterfaceID)}")
-                    return
-                }
-                val swapIDB64String = encoder.encodeToString(message.swapID.asByteArray())
-                if (message.settlementMethodDetails == null) {
-                    logger.warn("handleMakerInformationMessage: private data in message was null for " +
-                            "${message.swapID}")
-                } else {
-                    logger.info("handleMakerInformationMessage: persistently storing private data in message for " +
-                            "${message.swapID}")
-                    databaseService.updateSwapMakerPrivateSettlementMethodData(
-                        swapID = swapIDB64String,
-                        chainID = swap.chainID.toString(),
-                        data = message.settlementMethodDetails,
-                    )
-                    logger.info("handleMakerInformationMessage: updating ${swap.id} with private data")
-                    withContext(Dispatchers.Main) {
-                        swap.makerPrivateSettlementMethodData = message.settlementMethodDetails
+        swapActors.process<Unit>(message.swapID) {
+            logger.info("handleMakerInformationMessage: handling for ${message.swapID}")
+            val swap = swapTruthSource.swaps[message.swapID]
+            if (swap != null) {
+                /*
+                We should only handle this message if we are the taker of the swap; otherwise, we are the maker and we
+                would be handling our own message
+                 */
+                if (swap.role == SwapRole.TAKER_AND_BUYER || swap.role == SwapRole.TAKER_AND_SELLER) {
+                    if (!senderInterfaceID.contentEquals(swap.makerInterfaceID)) {
+                        logger.warn("handleMakerInformationMessage: got message for ${message.swapID} that was not " +
+                                "sent by swap maker")
+                        return@process
                     }
-                }
-                when (swap.direction) {
-                    OfferDirection.BUY -> {
-                        logger.info("handleMakerInformationMessage: updating state of BUY swap ${message.swapID} " +
-                                "to ${SwapState.AWAITING_PAYMENT_SENT.asString}")
-                        databaseService.updateSwapState(
-                            swapID = swapIDB64String,
-                            chainID = swap.chainID.toString(),
-                            state = SwapState.AWAITING_PAYMENT_SENT.asString,
+                    val encoder = Base64.getEncoder()
+                    if (!recipientInterfaceID.contentEquals(swap.takerInterfaceID)) {
+                        logger.warn("handleMakerInformationMessage: got message for ${message.swapID} with recipient " +
+                                "interface ID ${encoder.encodeToString(recipientInterfaceID)} that doesn't match " +
+                                "taker interface ID ${encoder.encodeToString(swap.takerInterfaceID)}")
+                        return@process
+                    }
+                    if (message.settlementMethodDetails == null) {
+                        logger.warn("handleMakerInformationMessage: private data in message was null for " +
+                                "${message.swapID}")
+                    } else {
+                        logger.info("handleMakerInformationMessage: persistently storing private data in message for " +
+                                "${message.swapID}")
+                        databaseService.updateSwapMakerPrivateSettlementMethodData(
+                            swapID = message.swapID,
+                            chainID = swap.chainID,
+                            data = message.settlementMethodDetails,
                         )
+                        logger.info("handleMakerInformationMessage: updating ${swap.id} with private data")
                         withContext(Dispatchers.Main) {
-                            swap.state.value = SwapState.AWAITING_PAYMENT_SENT
+                            swap.makerPrivateSettlementMethodData = message.settlementMethodDetails
                         }
                     }
-                    OfferDirection.SELL -> {
-                        logger.info("handleMakerInformationMessage: updating state of SELL swap ${message.swapID} " +
-                                "to ${SwapState.AWAITING_FILLING.asString}")
-                        databaseService.updateSwapState(
-                            swapID = swapIDB64String,
-                            chainID = swap.chainID.toString(),
-                            state = SwapState.AWAITING_FILLING.asString,
-                        )
-                        withContext(Dispatchers.Main) {
-                            swap.state.value = SwapState.AWAITING_FILLING
+                    when (swap.direction) {
+                        OfferDirection.BUY -> {
+                            logger.info("handleMakerInformationMessage: updating state of BUY swap ${message.swapID} " +
+                                    "to ${SwapState.AWAITING_PAYMENT_SENT.asString}")
+                            databaseService.updateSwapState(
+                                swapID = message.swapID,
+                                chainID = swap.chainID,
+                                state = SwapState.AWAITING_PAYMENT_SENT.asString,
+                            )
+                            withContext(Dispatchers.Main) {
+                                swap.state.value = SwapState.AWAITING_PAYMENT_SENT
+                            }
+                        }
+                        OfferDirection.SELL -> {
+                            logger.info("handleMakerInformationMessage: updating state of SELL swap " +
+                                    "${message.swapID} to ${SwapState.AWAITING_FILLING.asString}")
+                            databaseService.updateSwapState(
+                                swapID = message.swapID,
+                                chainID = swap.chainID,
+                                state = SwapState.AWAITING_FILLING.asString,
+                            )
+                            withContext(Dispatchers.Main) {
+                                swap.state.value = SwapState.AWAITING_FILLING
+                            }
                         }
                     }
+                } else {
+                    logger.info("handleMakerInformationMessage: detected own message for ${message.swapID}")
                 }
             } else {
-                logger.info("handleMakerInformationMessage: detected own message for ${message.swapID}")
+                logger.warn("handleMakerInformationMessage: got message for ${message.swapID} which was not found " +
+                        "in swapTruthSource")
             }
-        } else {
-            logger.warn("handleMakerInformationMessage: got message for ${message.swapID} which was not found " +
-                    "in swapTruthSource")
         }
     }
 
@@ -1738,33 +1952,31 @@ class SwapService @Inject constructor(
     override suspend fun handleTokenTransferApprovalEvent(event: ApprovalEvent) {
         logger.info("handleTokenTransferApprovalEvent: handling event with tx hash ${event.transactionHash} " +
                 "and purpose ${event.purpose.asString}")
-        val encoder = Base64.getEncoder()
         when (event.purpose) {
             TokenTransferApprovalPurpose.OPEN_OFFER, TokenTransferApprovalPurpose.TAKE_OFFER -> {
                 throw SwapServiceException(message = "handleTokenTransferApprovalEvent: received a offer-related " +
                         "event of purpose ${event.purpose.asString} with tx hash ${event.transactionHash}")
             }
             TokenTransferApprovalPurpose.FILL_SWAP -> {
-                swapTruthSource.swaps.firstNotNullOfOrNull { uuidSwapEntry ->
-                    if (uuidSwapEntry.value.approvingToFillTransaction?.transactionHash.equals(event.transactionHash)) {
-                        uuidSwapEntry.value
-                    } else {
-                        null
-                    }
-                }?.let { swap ->
-                    logger.info("handleTokenTransferApprovalEvent: found swap ${swap.id} with approvingToFill tx " +
-                            "hash ${event.transactionHash}, persistently updating approvingToFillState to " +
-                            TokenTransferApprovalState.COMPLETED.asString
-                    )
-                    databaseService.updateSwapApproveToFillState(
-                        swapID = encoder.encodeToString(swap.id.asByteArray()),
-                        chainID = swap.chainID.toString(),
-                        state = TokenTransferApprovalState.COMPLETED.asString
-                    )
-                    logger.info("handleTokenTransferApprovalEvent: updating approvingToFillState to " +
-                            "${TokenTransferApprovalState.COMPLETED.asString} for ${swap.id}")
-                    withContext(Dispatchers.Main) {
-                        swap.approvingToFillState.value = TokenTransferApprovalState.COMPLETED
+                findSwapByTransaction(
+                    transactionHash = event.transactionHash,
+                    type = BlockchainTransactionType.APPROVE_TOKEN_TRANSFER_TO_FILL_SWAP
+                )?.let { swap ->
+                    swapActors.process(swap.id) {
+                        logger.info("handleTokenTransferApprovalEvent: found swap ${swap.id} with approvingToFill tx " +
+                                "hash ${event.transactionHash}, persistently updating approvingToFillState to " +
+                                TokenTransferApprovalState.COMPLETED.asString
+                        )
+                        databaseService.updateSwapApproveToFillState(
+                            swapID = swap.id,
+                            chainID = swap.chainID,
+                            state = TokenTransferApprovalState.COMPLETED.asString
+                        )
+                        logger.info("handleTokenTransferApprovalEvent: updating approvingToFillState to " +
+                                "${TokenTransferApprovalState.COMPLETED.asString} for ${swap.id}")
+                        withContext(Dispatchers.Main) {
+                            swap.approvingToFillState.value = TokenTransferApprovalState.COMPLETED
+                        }
                     }
                 } ?: run {
                     logger.info("handleTokenTransferApprovalEvent: swap with approving to fill transaction " +
@@ -1774,6 +1986,22 @@ class SwapService @Inject constructor(
         }
     }
 
+    /**
+     * Handles a blockchain event concerning the swap with ID [swapID] by running [block] on that swap's actor as a
+     * single unit of work with [DatabaseService.batchWrites], so that the persistent updates made while handling the
+     * event are committed together, and are discarded if [block] throws.
+     *
+     * @param swapID The ID of the swap that the event concerns.
+     * @param block The code that handles the event.
+     *
+     * @return The value returned by [block].
+     */
+    private suspend fun <T> processEvent(swapID: UUID, block: suspend () -> T): T {
+        return swapActors.process(swapID) {
+            databaseService.batchWrites(block)
+        }
+    }
+
     /**
      * The function called by [BlockchainService] to notify [SwapService] of a [SwapFilledEvent].
      *
@@ -1793,7 +2021,8 @@ class SwapService @Inject constructor(
      * dispatcher, sets the [Swap.requiresFill] property of the [Swap] to `false` and sets the [Swap.state] property of
      * the [Swap] to [SwapState.AWAITING_PAYMENT_SENT]. Then, no longer on the main coroutine dispatcher, if the user is
      * the maker and seller in this [Swap], this updates the [Swap.fillingSwapState] of the [Swap] to
-     * [FillingSwapState.COMPLETED], both in persistent storage and in the [Swap] itself.
+     * [FillingSwapState.COMPLETED], both in persistent storage and in the [Swap] itself, and settles the allowance
+     * reserved for filling the [Swap] with [BlockchainService.settleTokenAllowance].
      *
      * @param event The [SwapFilledEvent] of which [SwapService] is being notified.
      *
@@ -1801,116 +2030,123 @@ class SwapService @Inject constructor(
      * [event] do not match.
      */
     override suspend fun handleSwapFilledEvent(event: SwapFilledEvent) {
-        logger.info("handleSwapFilledEvent: handing for ${event.swapID}")
-        swapTruthSource.swaps[event.swapID]?.let { swap ->
-            // Executed if we have a Swap with the ID specified in event
-            if (swap.chainID != event.chainID) {
-                throw SwapServiceException("Chain ID of SwapFilledEvent did not match chain ID of Swap in " +
-                        "handleSwapFilledEvent call. SwapFilledEvent.chainID: ${event.chainID}, Swap.chainID: " +
-                        "${swap.chainID}, SwapFilledEvent.id: ${event.swapID}")
-            }
-            /*
-            At this point, we have ensured that the chain ID of the event and the swap match, so we can proceed safely
-             */
-            when (swap.role) {
-                SwapRole.MAKER_AND_BUYER, SwapRole.TAKER_AND_SELLER -> {
-                    /*
-                    If we are the maker of and buyer in or taker of and seller in the swap, no SwapFilled event should
-                    be emitted for that swap
-                     */
-                    logger.warn("handleSwapFilledEvent: unexpectedly got event for ${event.swapID} with role " +
-                            swap.role.asString)
+        processEvent<Unit>(event.swapID) {
+            logger.info("handleSwapFilledEvent: handing for ${event.swapID}")
+            swapTruthSource.swaps[event.swapID]?.let { swap ->
+                // Executed if we have a Swap with the ID specified in event
+                if (swap.chainID != event.chainID) {
+                    throw SwapServiceException("Chain ID of SwapFilledEvent did not match chain ID of Swap in " +
+                            "handleSwapFilledEvent call. SwapFilledEvent.chainID: ${event.chainID}, Swap.chainID: " +
+                            "${swap.chainID}, SwapFilledEvent.id: ${event.swapID}")
                 }
-                SwapRole.MAKER_AND_SELLER, SwapRole.TAKER_AND_BUYER -> {
-                    val encoder = Base64.getEncoder()
-                    logger.info("handleSwapFilledEvent: handing for ${event.swapID} as ${swap.role.asString}")
-                    var mustUpdateSwapFilledTransaction = false
-                    if (swap.role == SwapRole.MAKER_AND_SELLER) {
-                        val swapFillingTransaction = swap.swapFillingTransaction
-                        if (swapFillingTransaction != null) {
-                            if (swapFillingTransaction.transactionHash == event.transactionHash) {
-                                logger.info("handleSwapFilledEvent: tx hash ${event.transactionHash} of event " +
-                                        "matches that for swap ${swap.id}: ${swapFillingTransaction.transactionHash}")
+                /*
+                At this point, we have ensured that the chain ID of the event and the swap match, so we can proceed
+                safely
+                 */
+                when (swap.role) {
+                    SwapRole.MAKER_AND_BUYER, SwapRole.TAKER_AND_SELLER -> {
+                        /*
+                        If we are the maker of and buyer in or taker of and seller in the swap, no SwapFilled event
+                        should be emitted for that swap
+                         */
+                        logger.warn("handleSwapFilledEvent: unexpectedly got event for ${event.swapID} with role " +
+                                swap.role.asString)
+                    }
+                    SwapRole.MAKER_AND_SELLER, SwapRole.TAKER_AND_BUYER -> {
+                        logger.info("handleSwapFilledEvent: handing for ${event.swapID} as ${swap.role.asString}")
+                        var mustUpdateSwapFilledTransaction = false
+                        if (swap.role == SwapRole.MAKER_AND_SELLER) {
+                            val swapFillingTransaction = swap.swapFillingTransaction
+                            if (swapFillingTransaction != null) {
+                                if (swapFillingTransaction.transactionHash == event.transactionHash) {
+                                    logger.info("handleSwapFilledEvent: tx hash ${event.transactionHash} of event " +
+                                            "matches that for swap ${swap.id}: " +
+                                            "${swapFillingTransaction.transactionHash}")
+                                } else {
+                                    logger.info("handleSwapFilledEvent: tx hash ${event.transactionHash} of event " +
+                                            "does not match that for swap ${event.swapID}: ${swapFillingTransaction
+                                                .transactionHash}, updating with new transaction hash")
+                                    mustUpdateSwapFilledTransaction = true
+                                }
                             } else {
-                                logger.info("handleSwapFilledEvent: tx hash ${event.transactionHash} of event does " +
-                                        "not match that for swap ${event.swapID}: ${swapFillingTransaction
-                                            .transactionHash}, updating with new transaction hash")
+                                logger.info("handleSwapFilledEvent: swap ${event.swapID} for which user is maker and " +
+                                        "seller has no swap filling transaction, updating with transaction hash ${event
+                                            .transactionHash}")
                                 mustUpdateSwapFilledTransaction = true
                             }
                         } else {
-                            logger.info("handleSwapFilledEvent: swap ${event.swapID} for which user is maker and " +
-                                    "seller has no swap filling transaction, updating with transaction hash ${event
-                                        .transactionHash}")
+                            logger.info("handleSwapFilledEvent: user is taker and buyer for ${event.swapID}, " +
+                                    "updating with transaction hash ${event.transactionHash}")
                             mustUpdateSwapFilledTransaction = true
                         }
-                    } else {
-                        logger.info("handleSwapFilledEvent: user is taker and buyer for ${event.swapID}, updating " +
-                                "with transaction hash ${event.transactionHash}")
-                        mustUpdateSwapFilledTransaction = true
-                    }
-                    if (mustUpdateSwapFilledTransaction) {
-                        val swapFillingTransaction = BlockchainTransaction(
-                            transactionHash = event.transactionHash,
-                            timeOfCreation = Date(),
-                            latestBlockNumberAtCreation = BigInteger.ZERO,
-                            type = BlockchainTransactionType.FILL_SWAP
-                        )
-                        withContext(Dispatchers.Main) {
-                            swap.swapFillingTransaction = swapFillingTransaction
+                        if (mustUpdateSwapFilledTransaction) {
+                            val swapFillingTransaction = BlockchainTransaction(
+                                transactionHash = event.transactionHash,
+                                timeOfCreation = Date(),
+                                latestBlockNumberAtCreation = BigInteger.ZERO,
+                                type = BlockchainTransactionType.FILL_SWAP
+                            )
+                            withContext(Dispatchers.Main) {
+                                swap.swapFillingTransaction = swapFillingTransaction
+                            }
+                            logger.warn("handleSwapFilledEvent: persistently storing tx data, including hash ${event
+                                .transactionHash} for ${event.swapID}")
+                            val dateString = DateFormatter.createDateString(swapFillingTransaction.timeOfCreation)
+                            databaseService.updateFillingSwapData(
+                                swapID = swap.id,
+                                chainID = event.chainID,
+                                transactionHash = swapFillingTransaction.transactionHash,
+                                creationTime = dateString,
+                                blockNumber = swapFillingTransaction.latestBlockNumberAtCreation.toLong()
+                            )
                         }
-                        logger.warn("handleSwapFilledEvent: persistently storing tx data, including hash ${event
-                            .transactionHash} for ${event.swapID}")
-                        val dateString = DateFormatter.createDateString(swapFillingTransaction.timeOfCreation)
-                        databaseService.updateFillingSwapData(
-                            swapID = encoder.encodeToString(swap.id.asByteArray()),
-                            chainID = event.chainID.toString(),
-                            transactionHash = swapFillingTransaction.transactionHash,
-                            creationTime = dateString,
-                            blockNumber = swapFillingTransaction.latestBlockNumberAtCreation.toLong()
+                        logger.info("handleSwapFilledEvent: persistently setting requiresFill property of ${event
+                            .swapID} to false")
+                        databaseService.updateSwapRequiresFill(
+                            swapID = swap.id,
+                            chainID = event.chainID,
+                            requiresFill = false
                         )
-                    }
-                    logger.info("handleSwapFilledEvent: persistently setting requiresFill property of ${event
-                        .swapID} to false")
-                    databaseService.updateSwapRequiresFill(
-                        swapID = encoder.encodeToString(swap.id.asByteArray()),
-                        chainID = event.chainID.toString(),
-                        requiresFill = false
-                    )
-                    logger.info("handleSwapFilledEvent: persistently updating state of ${event.swapID} to ${SwapState
-                        .AWAITING_PAYMENT_SENT.asString}")
-                    databaseService.updateSwapState(
-                        swapID = encoder.encodeToString(swap.id.asByteArray()),
-                        chainID = event.chainID.toString(),
-                        state = SwapState.AWAITING_PAYMENT_SENT.asString
-                    )
-                    logger.info("handleSwapFilledEvent: setting requiresFill property of ${event.swapID} to false " +
-                            "and setting state of ${SwapState.AWAITING_PAYMENT_SENT.asString}")
-                    withContext(Dispatchers.Main) {
-                        swap.requiresFill = false
-                        swap.state.value = SwapState.AWAITING_PAYMENT_SENT
-                    }
-                    if (swap.role == SwapRole.MAKER_AND_SELLER) {
-                        logger.info("handleSwapFilledEvent: user is maker and seller for ${event.swapID} so " +
-                                "persistently updating fillingSwapState to ${FillingSwapState.COMPLETED.asString}")
-                        databaseService.updateFillingSwapState(
-                            swapID = encoder.encodeToString(swap.id.asByteArray()),
-                            chainID = swap.chainID.toString(),
-                            state = FillingSwapState.COMPLETED.asString
+                        logger.info("handleSwapFilledEvent: persistently updating state of ${event.swapID} to " +
+                                "${SwapState
+                            .AWAITING_PAYMENT_SENT.asString}")
+                        databaseService.updateSwapState(
+                            swapID = swap.id,
+                            chainID = event.chainID,
+                            state = SwapState.AWAITING_PAYMENT_SENT.asString
                         )
-                        logger.info("handleSwapFilledEvent: updating fillingSwapState to ${FillingSwapState.COMPLETED
-                            .asString}")
+                        logger.info("handleSwapFilledEvent: setting requiresFill property of ${event.swapID} to " +
+                                "false and setting state of ${SwapState.AWAITING_PAYMENT_SENT.asString}")
                         withContext(Dispatchers.Main) {
-                            swap.fillingSwapState.value = FillingSwapState.COMPLETED
+                            swap.requiresFill = false
+                            swap.state.value = SwapState.AWAITING_PAYMENT_SENT
+                        }
+                        if (swap.role == SwapRole.MAKER_AND_SELLER) {
+                            logger.info("handleSwapFilledEvent: user is maker and seller for ${event.swapID} so " +
+                                    "persistently updating fillingSwapState to ${FillingSwapState.COMPLETED.asString}")
+                            databaseService.updateFillingSwapState(
+                                swapID = swap.id,
+                                chainID = swap.chainID,
+                                state = FillingSwapState.COMPLETED.asString
+                            )
+                            logger.info("handleSwapFilledEvent: updating fillingSwapState to " +
+                                    "${FillingSwapState.COMPLETED
+                                .asString}")
+                            withContext(Dispatchers.Main) {
+                                swap.fillingSwapState.value = FillingSwapState.COMPLETED
+                            }
+                            // The transfer made by filling the swap frees the reserved allowance
+                            blockchainService.settleTokenAllowance(TokenTransferApprovalPurpose.FILL_SWAP, swap.id)
+                        } else {
+                            logger.info("handleSwapFilledEvent: user is taker and buyer for ${event.swapID}")
                         }
-                    } else {
-                        logger.info("handleSwapFilledEvent: user is taker and buyer for ${event.swapID}")
                     }
                 }
+            } ?: run {
+                // Executed if we do not have a Swap with the ID specified in event
+                logger.info("handleSwapFilledEvent: ${event.swapID} not made or taken by user")
+                return@processEvent
             }
-        } ?: run {
-            // Executed if we do not have a Swap with the ID specified in event
-            logger.info("handleSwapFilledEvent: ${event.swapID} not made or taken by user")
-            return
         }
     }
 
@@ -1929,102 +2165,104 @@ class SwapService @Inject constructor(
      * in [event] do not match.
      */
     override suspend fun handlePaymentSentEvent(event: PaymentSentEvent) {
-        logger.info("handlePaymentSentEvent: handing for ${event.swapID}")
-        swapTruthSource.swaps[event.swapID]?.let { swap ->
-            // Executed if we have a Swap with the ID specified in event
-            if (swap.chainID != event.chainID) {
-                throw SwapServiceException("Chain ID of PaymentSentEvent did not match chain ID of Swap in " +
-                        "handlePaymentSentEvent call. PaymentSentEvent.chainID: ${event.chainID}, Swap.chainID: " +
-                        "${swap.chainID}, PaymentSentEvent.id: ${event.swapID}")
-            }
-            /*
-            At this point, we have ensured that the chain ID of the event and the swap match, so we can proceed safely
-             */
-            var mustUpdateReportPaymentSentTransaction = false
-            if (swap.role == SwapRole.MAKER_AND_BUYER || swap.role == SwapRole.TAKER_AND_BUYER) {
-                logger.info("handlePaymentSentEvent: user is buyer for ${event.swapID}")
-                swap.reportPaymentSentTransaction?.let { reportPaymentSentTransaction ->
-                    if (reportPaymentSentTransaction.transactionHash == event.transactionHash) {
-                        logger.info("handlePaymentSentEvent: tx hash ${event.transactionHash} of event " +
-                                "matches that for swap ${swap.id}: ${reportPaymentSentTransaction.transactionHash}")
-                    } else {
-                        logger.warn("handlePaymentSentEvent: tx hash ${event.transactionHash} of event does " +
-                                "not match that for swap ${event.swapID}: ${reportPaymentSentTransaction
-                                    .transactionHash}, updating with new transaction hash")
+        processEvent(event.swapID) {
+            logger.info("handlePaymentSentEvent: handing for ${event.swapID}")
+            swapTruthSource.swaps[event.swapID]?.let { swap ->
+                // Executed if we have a Swap with the ID specified in event
+                if (swap.chainID != event.chainID) {
+                    throw SwapServiceException("Chain ID of PaymentSentEvent did not match chain ID of Swap in " +
+                            "handlePaymentSentEvent call. PaymentSentEvent.chainID: ${event.chainID}, Swap.chainID: " +
+                            "${swap.chainID}, PaymentSentEvent.id: ${event.swapID}")
+                }
+                /*
+                At this point, we have ensured that the chain ID of the event and the swap match, so we can proceed
+                safely
+                 */
+                var mustUpdateReportPaymentSentTransaction = false
+                if (swap.role == SwapRole.MAKER_AND_BUYER || swap.role == SwapRole.TAKER_AND_BUYER) {
+                    logger.info("handlePaymentSentEvent: user is buyer for ${event.swapID}")
+                    swap.reportPaymentSentTransaction?.let { reportPaymentSentTransaction ->
+                        if (reportPaymentSentTransaction.transactionHash == event.transactionHash) {
+                            logger.info("handlePaymentSentEvent: tx hash ${event.transactionHash} of event " +
+                                    "matches that for swap ${swap.id}: ${reportPaymentSentTransaction.transactionHash}")
+                        } else {
+                            logger.warn("handlePaymentSentEvent: tx hash ${event.transactionHash} of event does " +
+                                    "not match that for swap ${event.swapID}: ${reportPaymentSentTransaction
+                                        .transactionHash}, updating with new transaction hash")
+                            mustUpdateReportPaymentSentTransaction = true
+                        }
+                    } ?: run {
+                        logger.warn("handlePaymentSentEvent: swap ${event.swapID} for which user is buyer has no " +
+                                "reporting payment sent transaction, updating with transaction hash ${event
+                                    .transactionHash}")
                         mustUpdateReportPaymentSentTransaction = true
                     }
-                } ?: run {
-                    logger.warn("handlePaymentSentEvent: swap ${event.swapID} for which user is buyer has no " +
-                            "reporting payment sent transaction, updating with transaction hash ${event
-                                .transactionHash}")
+                } else {
+                    logger.info("handlePaymentSentEvent: user is seller for ${event.swapID}, updating with " +
+                            "transaction hash ${event.transactionHash}")
                     mustUpdateReportPaymentSentTransaction = true
                 }
-            } else {
-                logger.info("handlePaymentSentEvent: user is seller for ${event.swapID}, updating with " +
-                        "transaction hash ${event.transactionHash}")
-                mustUpdateReportPaymentSentTransaction = true
-            }
-            val encoder = Base64.getEncoder()
-            if (mustUpdateReportPaymentSentTransaction) {
-                val reportPaymentSentTransaction = BlockchainTransaction(
-                    transactionHash = event.transactionHash,
-                    timeOfCreation = Date(),
-                    latestBlockNumberAtCreation = BigInteger.ZERO,
-                    type = BlockchainTransactionType.REPORT_PAYMENT_SENT
-                )
-                withContext(Dispatchers.Main) {
-                    swap.reportPaymentSentTransaction = reportPaymentSentTransaction
+                if (mustUpdateReportPaymentSentTransaction) {
+                    val reportPaymentSentTransaction = BlockchainTransaction(
+                        transactionHash = event.transactionHash,
+                        timeOfCreation = Date(),
+                        latestBlockNumberAtCreation = BigInteger.ZERO,
+                        type = BlockchainTransactionType.REPORT_PAYMENT_SENT
+                    )
+                    withContext(Dispatchers.Main) {
+                        swap.reportPaymentSentTransaction = reportPaymentSentTransaction
+                    }
+                    logger.info("handlePaymentSentEvent: persistently storing tx data, including hash ${event
+                        .transactionHash} for ${event.swapID}")
+                    val dateString = DateFormatter.createDateString(reportPaymentSentTransaction.timeOfCreation)
+                    databaseService.updateReportPaymentSentData(
+                        swapID = event.swapID,
+                        chainID = event.chainID,
+                        transactionHash = reportPaymentSentTransaction.transactionHash,
+                        creationTime = dateString,
+                        blockNumber = reportPaymentSentTransaction.latestBlockNumberAtCreation.toLong()
+                    )
                 }
-                logger.info("handlePaymentSentEvent: persistently storing tx data, including hash ${event
-                    .transactionHash} for ${event.swapID}")
-                val dateString = DateFormatter.createDateString(reportPaymentSentTransaction.timeOfCreation)
-                databaseService.updateReportPaymentSentData(
-                    swapID = encoder.encodeToString(event.swapID.asByteArray()),
-                    chainID = event.chainID.toString(),
-                    transactionHash = reportPaymentSentTransaction.transactionHash,
-                    creationTime = dateString,
-                    blockNumber = reportPaymentSentTransaction.latestBlockNumberAtCreation.toLong()
-                )
-            }
-            logger.info("handlePaymentSentEvent: persistently setting isPaymentSent property of ${event
-                .swapID} to true")
-            databaseService.updateSwapIsPaymentSent(
-                swapID = encoder.encodeToString(event.swapID.asByteArray()),
-                chainID = event.chainID.toString(),
-                isPaymentSent = true
-            )
-            logger.info("handlePaymentSentEvent: persistently updating state of ${event.swapID} to " +
-                    SwapState.AWAITING_PAYMENT_RECEIVED.asString)
-            databaseService.updateSwapState(
-                swapID = encoder.encodeToString(event.swapID.asByteArray()),
-                chainID = event.chainID.toString(),
-                state = SwapState.AWAITING_PAYMENT_RECEIVED.asString
-            )
-            logger.info("handlePaymentSentEvent: setting isPaymentSent property of ${event.swapID} to true " +
-                    "and setting state to ${SwapState.AWAITING_PAYMENT_RECEIVED.asString}")
-            withContext(Dispatchers.Main) {
-                swap.isPaymentSent = true
-                swap.state.value = SwapState.AWAITING_PAYMENT_RECEIVED
-            }
-            if (swap.role == SwapRole.MAKER_AND_BUYER || swap.role == SwapRole.TAKER_AND_BUYER) {
-                logger.info("handlePaymentSentEvent: user is buyer for ${event.swapID} so persistently " +
-                        "updating reportingPaymentSentState to ${ReportingPaymentSentState.COMPLETED.asString}")
-                databaseService.updateReportPaymentSentState(
-                    swapID = encoder.encodeToString(event.swapID.asByteArray()),
-                    chainID = event.chainID.toString(),
-                    state = ReportingPaymentSentState.COMPLETED.asString
+                logger.info("handlePaymentSentEvent: persistently setting isPaymentSent property of ${event
+                    .swapID} to true")
+                databaseService.updateSwapIsPaymentSent(
+                    swapID = event.swapID,
+                    chainID = event.chainID,
+                    isPaymentSent = true
                 )
-                logger.info("handlePaymentSentEvent: updating reportingPaymentSentState to " +
-                        ReportingPaymentSentState.COMPLETED.asString
+                logger.info("handlePaymentSentEvent: persistently updating state of ${event.swapID} to " +
+                        SwapState.AWAITING_PAYMENT_RECEIVED.asString)
+                databaseService.updateSwapState(
+                    swapID = event.swapID,
+                    chainID = event.chainID,
+                    state = SwapState.AWAITING_PAYMENT_RECEIVED.asString
                 )
+                logger.info("handlePaymentSentEvent: setting isPaymentSent property of ${event.swapID} to true " +
+                        "and setting state to ${SwapState.AWAITING_PAYMENT_RECEIVED.asString}")
                 withContext(Dispatchers.Main) {
-                    swap.reportingPaymentSentState.value = ReportingPaymentSentState.COMPLETED
+                    swap.isPaymentSent = true
+                    swap.state.value = SwapState.AWAITING_PAYMENT_RECEIVED
+                }
+                if (swap.role == SwapRole.MAKER_AND_BUYER || swap.role == SwapRole.TAKER_AND_BUYER) {
+                    logger.info("handlePaymentSentEvent: user is buyer for ${event.swapID} so persistently " +
+                            "updating reportingPaymentSentState to ${ReportingPaymentSentState.COMPLETED.asString}")
+                    databaseService.updateReportPaymentSentState(
+                        swapID = event.swapID,
+                        chainID = event.chainID,
+                        state = ReportingPaymentSentState.COMPLETED.asString
+                    )
+                    logger.info("handlePaymentSentEvent: updating reportingPaymentSentState to " +
+                            ReportingPaymentSentState.COMPLETED.asString
+                    )
+                    withContext(Dispatchers.Main) {
+                        swap.reportingPaymentSentState.value = ReportingPaymentSentState.COMPLETED
+                    }
                 }
+            } ?: run {
+                // Executed if we do not have a Swap with the ID specified in event
+                logger.info("handlePaymentSentEvent: got event for ${event.swapID} which was not found in " +
+                        "swapTruthSource")
             }
-        } ?: run {
-            // Executed if we do not have a Swap with the ID specified in event
-            logger.info("handlePaymentSentEvent: got event for ${event.swapID} which was not found in " +
-                    "swapTruthSource")
         }
     }
 
@@ -2042,102 +2280,106 @@ class SwapService @Inject constructor(
      * in [event] do not match.
      */
     override suspend fun handlePaymentReceivedEvent(event: PaymentReceivedEvent) {
-        logger.info("handlePaymentReceivedEvent: handing for ${event.swapID}")
-        swapTruthSource.swaps[event.swapID]?.let { swap ->
-            // Executed if we have a Swap with the ID specified in event
-            if (swap.chainID != event.chainID) {
-                throw SwapServiceException("Chain ID of PaymentReceivedEvent did not match chain ID of Swap in " +
-                        "handlePaymentReceivedEvent call. PaymentReceivedEvent.chainID: ${event.chainID}, " +
-                        "Swap.chainID: ${swap.chainID}, PaymentReceivedEvent.id: ${event.swapID}")
-            }
-            /*
-            At this point, we have ensured that the chain ID of the event and the swap match, so we can proceed safely
-             */
-            var mustUpdateReportPaymentReceivedTransaction = false
-            if (swap.role == SwapRole.MAKER_AND_SELLER || swap.role == SwapRole.TAKER_AND_SELLER) {
-                logger.info("handlePaymentReceivedEvent: user is buyer for ${event.swapID}")
-                swap.reportPaymentReceivedTransaction?.let { reportPaymentReceivedTransaction ->
-                    if (reportPaymentReceivedTransaction.transactionHash == event.transactionHash) {
-                        logger.info("handlePaymentReceivedEvent: tx hash ${event.transactionHash} of event " +
-                                "matches that for swap ${swap.id}: ${reportPaymentReceivedTransaction.transactionHash}")
-                    } else {
-                        logger.info("handlePaymentReceivedEvent: tx hash ${event.transactionHash} of event " +
-                                "does not match that for swap ${event.swapID}: ${reportPaymentReceivedTransaction
-                                    .transactionHash}, updating with new transaction hash")
+        processEvent(event.swapID) {
+            logger.info("handlePaymentReceivedEvent: handing for ${event.swapID}")
+            swapTruthSource.swaps[event.swapID]?.let { swap ->
+                // Executed if we have a Swap with the ID specified in event
+                if (swap.chainID != event.chainID) {
+                    throw SwapServiceException("Chain ID of PaymentReceivedEvent did not match chain ID of Swap in " +
+                            "handlePaymentReceivedEvent call. PaymentReceivedEvent.chainID: ${event.chainID}, " +
+                            "Swap.chainID: ${swap.chainID}, PaymentReceivedEvent.id: ${event.swapID}")
+                }
+                /*
+                At this point, we have ensured that the chain ID of the event and the swap match, so we can proceed
+                safely
+                 */
+                var mustUpdateReportPaymentReceivedTransaction = false
+                if (swap.role == SwapRole.MAKER_AND_SELLER || swap.role == SwapRole.TAKER_AND_SELLER) {
+                    logger.info("handlePaymentReceivedEvent: user is buyer for ${event.swapID}")
+                    swap.reportPaymentReceivedTransaction?.let { reportPaymentReceivedTransaction ->
+                        if (reportPaymentReceivedTransaction.transactionHash == event.transactionHash) {
+                            logger.info("handlePaymentReceivedEvent: tx hash ${event.transactionHash} of event " +
+                                    "matches that for swap ${swap.id}: " +
+                                    "${reportPaymentReceivedTransaction.transactionHash}")
+                        } else {
+                            logger.info("handlePaymentReceivedEvent: tx hash ${event.transactionHash} of event " +
+                                    "does not match that for swap ${event.swapID}: ${reportPaymentReceivedTransaction
+                                        .transactionHash}, updating with new transaction hash")
+                            mustUpdateReportPaymentReceivedTransaction = true
+                        }
+                    } ?: run {
+                        logger.warn("handlePaymentReceivedEvent: swap ${event.swapID} for which user is buyer has " +
+                                "no reporting payment sent transaction, updating with transaction hash ${event
+                                    .transactionHash}")
                         mustUpdateReportPaymentReceivedTransaction = true
                     }
-                } ?: run {
-                    logger.warn("handlePaymentReceivedEvent: swap ${event.swapID} for which user is buyer has " +
-                            "no reporting payment sent transaction, updating with transaction hash ${event
-                                .transactionHash}")
+                } else {
+                    logger.info("handlePaymentReceivedEvent: user is seller for ${event.swapID}, updating with " +
+                            "transaction hash ${event.transactionHash}")
                     mustUpdateReportPaymentReceivedTransaction = true
                 }
-            } else {
-                logger.info("handlePaymentReceivedEvent: user is seller for ${event.swapID}, updating with " +
-                        "transaction hash ${event.transactionHash}")
-                mustUpdateReportPaymentReceivedTransaction = true
-            }
-            val encoder = Base64.getEncoder()
-            if (mustUpdateReportPaymentReceivedTransaction) {
-                val reportPaymentReceivedTransaction = BlockchainTransaction(
-                    transactionHash = event.transactionHash,
-                    timeOfCreation = Date(),
-                    latestBlockNumberAtCreation = BigInteger.ZERO,
-                    type = BlockchainTransactionType.REPORT_PAYMENT_SENT
-                )
-                withContext(Dispatchers.Main) {
-                    swap.reportPaymentReceivedTransaction = reportPaymentReceivedTransaction
+                if (mustUpdateReportPaymentReceivedTransaction) {
+                    val reportPaymentReceivedTransaction = BlockchainTransaction(
+                        transactionHash = event.transactionHash,
+                        timeOfCreation = Date(),
+                        latestBlockNumberAtCreation = BigInteger.ZERO,
+                        type = BlockchainTransactionType.REPORT_PAYMENT_SENT
+                    )
+                    withContext(Dispatchers.Main) {
+                        swap.reportPaymentReceivedTransaction = reportPaymentReceivedTransaction
+                    }
+                    logger.info("handlePaymentReceivedEvent: persistently storing tx data, including hash ${event
+                        .transactionHash} for ${event.swapID}")
+                    val dateString = DateFormatter.createDateString(reportPaymentReceivedTransaction.timeOfCreation)
+                    databaseService.updateReportPaymentReceivedData(
+                        swapID = event.swapID,
+                        chainID = event.chainID,
+                        transactionHash = reportPaymentReceivedTransaction.transactionHash,
+                        creationTime = dateString,
+                        blockNumber = reportPaymentReceivedTransaction.latestBlockNumberAtCreation.toLong()
+                    )
                 }
-                logger.info("handlePaymentReceivedEvent: persistently storing tx data, including hash ${event
-                    .transactionHash} for ${event.swapID}")
-                val dateString = DateFormatter.createDateString(reportPaymentReceivedTransaction.timeOfCreation)
-                databaseService.updateReportPaymentReceivedData(
-                    swapID = encoder.encodeToString(event.swapID.asByteArray()),
-                    chainID = event.chainID.toString(),
-                    transactionHash = reportPaymentReceivedTransaction.transactionHash,
-                    creationTime = dateString,
-                    blockNumber = reportPaymentReceivedTransaction.latestBlockNumberAtCreation.toLong()
-                )
-            }
-            logger.info("handlePaymentReceivedEvent: persistently setting isPaymentReceived property of ${event
-                .swapID} to true")
-            databaseService.updateSwapIsPaymentReceived(
-                swapID = encoder.encodeToString(event.swapID.asByteArray()),
-                chainID = event.chainID.toString(),
-                isPaymentReceived = true
-            )
-            logger.info("handlePaymentReceivedEvent: persistently updating state of ${event.swapID} to " +
-                    SwapState.AWAITING_CLOSING.asString)
-            databaseService.updateSwapState(
-                swapID = encoder.encodeToString(event.swapID.asByteArray()),
-                chainID = event.chainID.toString(),
-                state = SwapState.AWAITING_CLOSING.asString
-            )
-            logger.info("handlePaymentReceivedEvent: setting isPaymentReceived property of ${event.swapID} to " +
-                    "true and setting state to ${SwapState.AWAITING_CLOSING.asString}")
-            withContext(Dispatchers.Main) {
-                swap.isPaymentReceived = true
-                swap.state.value = SwapState.AWAITING_CLOSING
-            }
-            if (swap.role == SwapRole.MAKER_AND_SELLER || swap.role == SwapRole.TAKER_AND_SELLER) {
-                logger.info("handlePaymentReceivedEvent: user is seller for ${event.swapID} so persistently " +
-                        "updating reportingPaymentReceivedState to ${ReportingPaymentReceivedState.COMPLETED.asString}")
-                databaseService.updateReportPaymentReceivedState(
-                    swapID = encoder.encodeToString(event.swapID.asByteArray()),
-                    chainID = event.chainID.toString(),
-                    state = ReportingPaymentReceivedState.COMPLETED.asString
+                logger.info("handlePaymentReceivedEvent: persistently setting isPaymentReceived property of ${event
+                    .swapID} to true")
+                databaseService.updateSwapIsPaymentReceived(
+                    swapID = event.swapID,
+                    chainID = event.chainID,
+                    isPaymentReceived = true
                 )
-                logger.info("handlePaymentReceivedEvent: updating reportingPaymentReceivedState to " +
-                        ReportingPaymentReceivedState.COMPLETED.asString
+                logger.info("handlePaymentReceivedEvent: persistently updating state of ${event.swapID} to " +
+                        SwapState.AWAITING_CLOSING.asString)
+                databaseService.updateSwapState(
+                    swapID = event.swapID,
+                    chainID = event.chainID,
+                    state = SwapState.AWAITING_CLOSING.asString
                 )
+                logger.info("handlePaymentReceivedEvent: setting isPaymentReceived property of ${event.swapID} to " +
+                        "true and setting state to ${SwapState.AWAITING_CLOSING.asString}")
                 withContext(Dispatchers.Main) {
-                    swap.reportingPaymentReceivedState.value = ReportingPaymentReceivedState.COMPLETED
+                    swap.isPaymentReceived = true
+                    swap.state.value = SwapState.AWAITING_CLOSING
+                }
+                if (swap.role == SwapRole.MAKER_AND_SELLER || swap.role == SwapRole.TAKER_AND_SELLER) {
+                    logger.info("handlePaymentReceivedEvent: user is seller for ${event.swapID} so persistently " +
+                            "updating reportingPaymentReceivedState to " +
+                            "${ReportingPaymentReceivedState.COMPLETED.asString}")
+                    databaseService.updateReportPaymentReceivedState(
+                        swapID = event.swapID,
+                        chainID = event.chainID,
+                        state = ReportingPaymentReceivedState.COMPLETED.asString
+                    )
+                    logger.info("handlePaymentReceivedEvent: updating reportingPaymentReceivedState to " +
+                            ReportingPaymentReceivedState.COMPLETED.asString
+                    )
+                    withContext(Dispatchers.Main) {
+                        swap.reportingPaymentReceivedState.value = ReportingPaymentReceivedState.COMPLETED
+                    }
                 }
+            } ?: run {
+                // Executed if we do not have a Swap with the ID specified in event
+                logger.info("handlePaymentReceivedEvent: got event for ${event.swapID} which was not found in " +
+                        "swapTruthSource")
             }
-        } ?: run {
-            // Executed if we do not have a Swap with the ID specified in event
-            logger.info("handlePaymentReceivedEvent: got event for ${event.swapID} which was not found in " +
-                    "swapTruthSource")
         }
     }
 
@@ -2166,92 +2408,93 @@ class SwapService @Inject constructor(
      * [event] do not match.
      */
     override suspend fun handleBuyerClosedEvent(event: BuyerClosedEvent) {
-        logger.info("handleBuyerClosedEvent: handling for ${event.swapID}")
-        swapTruthSource.swaps[event.swapID]?.let { swap ->
-            if (swap.chainID != event.chainID) {
-                throw SwapServiceException("Chain ID of BuyerClosedEvent did not match chain ID of Swap in " +
-                        "handleBuyerClosedEvent call. BuyerClosedEvent.chainID: ${event.chainID}, Swap.chainID: " +
-                        "${swap.chainID}, BuyerClosedEvent.id: ${event.swapID}")
-            }
-            val encoder = Base64.getEncoder()
-            if (swap.role == SwapRole.MAKER_AND_BUYER || swap.role == SwapRole.TAKER_AND_BUYER) {
-                logger.info("handleBuyerClosedEvent: user is buyer for ${event.swapID}")
-                var mustUpdateCloseSwapTransaction = false
-                swap.closeSwapTransaction?.let { closeSwapTransaction ->
-                    if (closeSwapTransaction.transactionHash == event.transactionHash) {
-                        logger.info("handleBuyerClosedEvent: tx hash ${event.transactionHash} of event matches " +
-                                "that for swap ${swap.id}: ${closeSwapTransaction.transactionHash}")
-                    } else {
-                        logger.warn("handleBuyerClosedEvent: tx hash ${event.transactionHash} of event does not " +
-                                "match that for swap ${event.swapID}: ${closeSwapTransaction.transactionHash}")
+        processEvent(event.swapID) {
+            logger.info("handleBuyerClosedEvent: handling for ${event.swapID}")
+            swapTruthSource.swaps[event.swapID]?.let { swap ->
+                if (swap.chainID != event.chainID) {
+                    throw SwapServiceException("Chain ID of BuyerClosedEvent did not match chain ID of Swap in " +
+                            "handleBuyerClosedEvent call. BuyerClosedEvent.chainID: ${event.chainID}, Swap.chainID: " +
+                            "${swap.chainID}, BuyerClosedEvent.id: ${event.swapID}")
+                }
+                if (swap.role == SwapRole.MAKER_AND_BUYER || swap.role == SwapRole.TAKER_AND_BUYER) {
+                    logger.info("handleBuyerClosedEvent: user is buyer for ${event.swapID}")
+                    var mustUpdateCloseSwapTransaction = false
+                    swap.closeSwapTransaction?.let { closeSwapTransaction ->
+                        if (closeSwapTransaction.transactionHash == event.transactionHash) {
+                            logger.info("handleBuyerClosedEvent: tx hash ${event.transactionHash} of event matches " +
+                                    "that for swap ${swap.id}: ${closeSwapTransaction.transactionHash}")
+                        } else {
+                            logger.warn("handleBuyerClosedEvent: tx hash ${event.transactionHash} of event does not " +
+                                    "match that for swap ${event.swapID}: ${closeSwapTransaction.transactionHash}")
+                            mustUpdateCloseSwapTransaction = true
+                        }
+                    } ?: run {
+                        logger.warn("handleBuyerClosedEvent: swap ${event.swapID} for which user is buyer has no " +
+                                "closing swap transaction, updating with transaction hash ${event.transactionHash}")
                         mustUpdateCloseSwapTransaction = true
                     }
-                } ?: run {
-                    logger.warn("handleBuyerClosedEvent: swap ${event.swapID} for which user is buyer has no " +
-                            "closing swap transaction, updating with transaction hash ${event.transactionHash}")
-                    mustUpdateCloseSwapTransaction = true
-                }
-                if (mustUpdateCloseSwapTransaction) {
-                    val closeSwapTransaction = BlockchainTransaction(
-                        transactionHash = event.transactionHash,
-                        timeOfCreation = Date(),
-                        latestBlockNumberAtCreation = BigInteger.ZERO,
-                        type = BlockchainTransactionType.CLOSE_SWAP
+                    if (mustUpdateCloseSwapTransaction) {
+                        val closeSwapTransaction = BlockchainTransaction(
+                            transactionHash = event.transactionHash,
+                            timeOfCreation = Date(),
+                            latestBlockNumberAtCreation = BigInteger.ZERO,
+                            type = BlockchainTransactionType.CLOSE_SWAP
+                        )
+                        withContext(Dispatchers.Main) {
+                            swap.closeSwapTransaction = closeSwapTransaction
+                        }
+                        logger.info("handleBuyerClosedEvent: persistently storing tx data, including hash ${event
+                            .transactionHash} for ${event.swapID}")
+                        val dateString = DateFormatter.createDateString(closeSwapTransaction.timeOfCreation)
+                        databaseService.updateCloseSwapData(
+                            swapID = swap.id,
+                            chainID = swap.chainID,
+                            transactionHash = closeSwapTransaction.transactionHash,
+                            creationTime = dateString,
+                            blockNumber = closeSwapTransaction.latestBlockNumberAtCreation.toLong()
+                        )
+                    }
+                    logger.info("handleBuyerClosedEvent: persistently updating state of ${event.swapID} to ${SwapState
+                        .CLOSED.asString}")
+                    databaseService.updateSwapState(
+                        swapID = swap.id,
+                        chainID = swap.chainID,
+                        state = SwapState.CLOSED.asString
                     )
+                    logger.info("handleBuyerClosedEvent: setting state of ${event.swapID} to ${SwapState.CLOSED
+                        .asString}")
                     withContext(Dispatchers.Main) {
-                        swap.closeSwapTransaction = closeSwapTransaction
+                        swap.state.value = SwapState.CLOSED
                     }
-                    logger.info("handleBuyerClosedEvent: persistently storing tx data, including hash ${event
-                        .transactionHash} for ${event.swapID}")
-                    val dateString = DateFormatter.createDateString(closeSwapTransaction.timeOfCreation)
-                    databaseService.updateCloseSwapData(
-                        swapID = encoder.encodeToString(swap.id.asByteArray()),
-                        chainID = swap.chainID.toString(),
-                        transactionHash = closeSwapTransaction.transactionHash,
-                        creationTime = dateString,
-                        blockNumber = closeSwapTransaction.latestBlockNumberAtCreation.toLong()
+                    logger.info("handleBuyerClosedEvent: user is buyer for ${event.swapID} so persistently " +
+                            "updating closingSwapState to ${ClosingSwapState.COMPLETED.asString}")
+                    databaseService.updateCloseSwapState(
+                        swapID = swap.id,
+                        chainID = swap.chainID,
+                        state = ClosingSwapState.COMPLETED.asString
                     )
+                    withContext(Dispatchers.Main) {
+                        swap.closingSwapState.value = ClosingSwapState.COMPLETED
+                    }
+                } else {
+                    logger.info("handleBuyerClosedEvent: user is seller for ${event.swapID}")
                 }
-                logger.info("handleBuyerClosedEvent: persistently updating state of ${event.swapID} to ${SwapState
-                    .CLOSED.asString}")
-                databaseService.updateSwapState(
-                    swapID = encoder.encodeToString(swap.id.asByteArray()),
-                    chainID = swap.chainID.toString(),
-                    state = SwapState.CLOSED.asString
-                )
-                logger.info("handleBuyerClosedEvent: setting state of ${event.swapID} to ${SwapState.CLOSED
-                    .asString}")
-                withContext(Dispatchers.Main) {
-                    swap.state.value = SwapState.CLOSED
-                }
-                logger.info("handleBuyerClosedEvent: user is buyer for ${event.swapID} so persistently " +
-                        "updating closingSwapState to ${ClosingSwapState.COMPLETED.asString}")
-                databaseService.updateCloseSwapState(
-                    swapID = encoder.encodeToString(swap.id.asByteArray()),
-                    chainID = swap.chainID.toString(),
-                    state = ClosingSwapState.COMPLETED.asString
+                logger.info("handleBuyerClosedEvent: persistently setting hasBuyerClosed property of ${event.swapID} " +
+                        "to true")
+                databaseService.updateSwapHasBuyerClosed(
+                    swapID = swap.id,
+                    chainID = event.chainID,
+                    hasBuyerClosed = true
                 )
+                logger.info("handleBuyerClosedEvent: setting hasBuyerClosed property of ${event.swapID} to true")
                 withContext(Dispatchers.Main) {
-                    swap.closingSwapState.value = ClosingSwapState.COMPLETED
+                    swap.hasBuyerClosed = true
                 }
-            } else {
-                logger.info("handleBuyerClosedEvent: user is seller for ${event.swapID}")
+            } ?: run {
+                // Executed if we do not have a Swap with the ID specified in event
+                logger.info("handleBuyerClosedEvent: got event for ${event.swapID} which was not found in " +
+                        "swapTruthSource")
             }
-            logger.info("handleBuyerClosedEvent: persistently setting hasBuyerClosed property of ${event.swapID} to " +
-                    "true")
-            databaseService.updateSwapHasBuyerClosed(
-                swapID = encoder.encodeToString(swap.id.asByteArray()),
-                chainID = event.chainID.toString(),
-                hasBuyerClosed = true
-            )
-            logger.info("handleBuyerClosedEvent: setting hasBuyerClosed property of ${event.swapID} to true")
-            withContext(Dispatchers.Main) {
-                swap.hasBuyerClosed = true
-            }
-        } ?: run {
-            // Executed if we do not have a Swap with the ID specified in event
-            logger.info("handleBuyerClosedEvent: got event for ${event.swapID} which was not found in " +
-                    "swapTruthSource")
         }
     }
 
@@ -2280,93 +2523,94 @@ class SwapService @Inject constructor(
      * [event] do not match.
      */
     override suspend fun handleSellerClosedEvent(event: SellerClosedEvent) {
-        logger.info("handleSellerClosedEvent: handling for ${event.swapID}")
-        swapTruthSource.swaps[event.swapID]?.let { swap ->
-            if (swap.chainID != event.chainID) {
-                throw SwapServiceException("Chain ID of SellerClosedEvent did not match chain ID of Swap in " +
-                        "handleSellerClosedEvent call. SellerClosedEvent.chainID: ${event.chainID}, Swap.chainID: " +
-                        "${swap.chainID}, SellerClosedEvent.id: ${event.swapID}")
-            }
-            val encoder = Base64.getEncoder()
-            if (swap.role == SwapRole.MAKER_AND_SELLER || swap.role == SwapRole.TAKER_AND_SELLER) {
-                logger.info("handleSellerClosedEvent: user is seller for ${event.swapID}")
-                var mustUpdateCloseSwapTransaction = false
-                swap.closeSwapTransaction?.let { closeSwapTransaction ->
-                    if (closeSwapTransaction.transactionHash == event.transactionHash) {
-                        logger.info("handleSellerClosedEvent: tx hash ${event.transactionHash} of event " +
-                                "matches that for swap ${swap.id}: ${closeSwapTransaction.transactionHash}")
-                    } else {
-                        logger.warn("handleSellerClosedEvent: tx hash ${event.transactionHash} of event does " +
-                                "not match that for swap ${event.swapID}: ${closeSwapTransaction.transactionHash}")
+        processEvent(event.swapID) {
+            logger.info("handleSellerClosedEvent: handling for ${event.swapID}")
+            swapTruthSource.swaps[event.swapID]?.let { swap ->
+                if (swap.chainID != event.chainID) {
+                    throw SwapServiceException("Chain ID of SellerClosedEvent did not match chain ID of Swap in " +
+                            "handleSellerClosedEvent call. SellerClosedEvent.chainID: ${event.chainID}, " +
+                            "Swap.chainID: ${swap.chainID}, SellerClosedEvent.id: ${event.swapID}")
+                }
+                if (swap.role == SwapRole.MAKER_AND_SELLER || swap.role == SwapRole.TAKER_AND_SELLER) {
+                    logger.info("handleSellerClosedEvent: user is seller for ${event.swapID}")
+                    var mustUpdateCloseSwapTransaction = false
+                    swap.closeSwapTransaction?.let { closeSwapTransaction ->
+                        if (closeSwapTransaction.transactionHash == event.transactionHash) {
+                            logger.info("handleSellerClosedEvent: tx hash ${event.transactionHash} of event " +
+                                    "matches that for swap ${swap.id}: ${closeSwapTransaction.transactionHash}")
+                        } else {
+                            logger.warn("handleSellerClosedEvent: tx hash ${event.transactionHash} of event does " +
+                                    "not match that for swap ${event.swapID}: ${closeSwapTransaction.transactionHash}")
+                            mustUpdateCloseSwapTransaction = true
+                        }
+                    } ?: run {
+                        logger.warn("handleSellerClosedEvent: swap ${event.swapID} for which user is seller has " +
+                                "no closing swap transaction, updating with transaction hash ${event.transactionHash}")
                         mustUpdateCloseSwapTransaction = true
                     }
-                } ?: run {
-                    logger.warn("handleSellerClosedEvent: swap ${event.swapID} for which user is seller has " +
-                            "no closing swap transaction, updating with transaction hash ${event.transactionHash}")
-                    mustUpdateCloseSwapTransaction = true
-                }
-                if (mustUpdateCloseSwapTransaction) {
-                    val closeSwapTransaction = BlockchainTransaction(
-                        transactionHash = event.transactionHash,
-                        timeOfCreation = Date(),
-                        latestBlockNumberAtCreation = BigInteger.ZERO,
-                        type = BlockchainTransactionType.CLOSE_SWAP
+                    if (mustUpdateCloseSwapTransaction) {
+                        val closeSwapTransaction = BlockchainTransaction(
+                            transactionHash = event.transactionHash,
+                            timeOfCreation = Date(),
+                            latestBlockNumberAtCreation = BigInteger.ZERO,
+                            type = BlockchainTransactionType.CLOSE_SWAP
+                        )
+                        withContext(Dispatchers.Main) {
+                            swap.closeSwapTransaction = closeSwapTransaction
+                        }
+                        logger.info("handleSellerClosedEvent: persistently storing tx data, including hash ${event
+                            .transactionHash} for ${event.swapID}")
+                        val dateString = DateFormatter.createDateString(closeSwapTransaction.timeOfCreation)
+                        databaseService.updateCloseSwapData(
+                            swapID = swap.id,
+                            chainID = swap.chainID,
+                            transactionHash = closeSwapTransaction.transactionHash,
+                            creationTime = dateString,
+                            blockNumber = closeSwapTransaction.latestBlockNumberAtCreation.toLong()
+                        )
+                    }
+                    logger.info("handleSellerClosedEvent: persistently updating state of ${event.swapID} to " +
+                            SwapState.CLOSED.asString
                     )
+                    databaseService.updateSwapState(
+                        swapID = swap.id,
+                        chainID = swap.chainID,
+                        state = SwapState.CLOSED.asString
+                    )
+                    logger.info("handleSellerClosedEvent: setting state of ${event.swapID} to ${SwapState.CLOSED
+                        .asString}")
                     withContext(Dispatchers.Main) {
-                        swap.closeSwapTransaction = closeSwapTransaction
+                        swap.state.value = SwapState.CLOSED
                     }
-                    logger.info("handleSellerClosedEvent: persistently storing tx data, including hash ${event
-                        .transactionHash} for ${event.swapID}")
-                    val dateString = DateFormatter.createDateString(closeSwapTransaction.timeOfCreation)
-                    databaseService.updateCloseSwapData(
-                        swapID = encoder.encodeToString(swap.id.asByteArray()),
-                        chainID = swap.chainID.toString(),
-                        transactionHash = closeSwapTransaction.transactionHash,
-                        creationTime = dateString,
-                        blockNumber = closeSwapTransaction.latestBlockNumberAtCreation.toLong()
+                    logger.info("handleSellerClosedEvent: user is seller for ${event.swapID} so persistently " +
+                            "updating closingSwapState to ${ClosingSwapState.COMPLETED.asString}")
+                    databaseService.updateCloseSwapState(
+                        swapID = swap.id,
+                        chainID = swap.chainID,
+                        state = ClosingSwapState.COMPLETED.asString
                     )
+                    withContext(Dispatchers.Main) {
+                        swap.closingSwapState.value = ClosingSwapState.COMPLETED
+                    }
+                } else {
+                    logger.info("handleSellerClosedEvent: user is buyer for ${event.swapID}")
                 }
-                logger.info("handleSellerClosedEvent: persistently updating state of ${event.swapID} to " +
-                        SwapState.CLOSED.asString
-                )
-                databaseService.updateSwapState(
-                    swapID = encoder.encodeToString(swap.id.asByteArray()),
-                    chainID = swap.chainID.toString(),
-                    state = SwapState.CLOSED.asString
-                )
-                logger.info("handleSellerClosedEvent: setting state of ${event.swapID} to ${SwapState.CLOSED
-                    .asString}")
-                withContext(Dispatchers.Main) {
-                    swap.state.value = SwapState.CLOSED
-                }
-                logger.info("handleSellerClosedEvent: user is seller for ${event.swapID} so persistently " +
-                        "updating closingSwapState to ${ClosingSwapState.COMPLETED.asString}")
-                databaseService.updateCloseSwapState(
-                    swapID = encoder.encodeToString(swap.id.asByteArray()),
-                    chainID = swap.chainID.toString(),
-                    state = ClosingSwapState.COMPLETED.asString
+                logger.info("handleSellerClosedEvent: persistently setting hasSellerClosed property of ${event
+                    .swapID} to true")
+                databaseService.updateSwapHasSellerClosed(
+                    swapID = swap.id,
+                    chainID = event.chainID,
+                    hasSellerClosed = true
                 )
+                logger.info("handleSellerClosedEvent: setting hasSellerClosed property of ${event.swapID} to true")
                 withContext(Dispatchers.Main) {
-                    swap.closingSwapState.value = ClosingSwapState.COMPLETED
+                    swap.hasSellerClosed = true
                 }
-            } else {
-                logger.info("handleSellerClosedEvent: user is buyer for ${event.swapID}")
-            }
-            logger.info("handleSellerClosedEvent: persistently setting hasSellerClosed property of ${event
-                .swapID} to true")
-            databaseService.updateSwapHasSellerClosed(
-                swapID = encoder.encodeToString(swap.id.asByteArray()),
-                chainID = event.chainID.toString(),
-                hasSellerClosed = true
-            )
-            logger.info("handleSellerClosedEvent: setting hasSellerClosed property of ${event.swapID} to true")
-            withContext(Dispatchers.Main) {
-                swap.hasSellerClosed = true
+            } ?: run {
+                // Executed if we do not have a Swap with the ID specified in event
+                logger.info("handleSellerClosedEvent: got event for ${event.swapID} which was not found in " +
+                        "swapTruthSource")
             }
-        } ?: run {
-            // Executed if we do not have a Swap with the ID specified in event
-            logger.info("handleSellerClosedEvent: got event for ${event.swapID} which was not found in " +
-                    "swapTruthSource")
         }
     }
 
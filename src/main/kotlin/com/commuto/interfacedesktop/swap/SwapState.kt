@@ -74,4 +74,17 @@ enum class SwapState {
             CLOSED -> "closed"
         }
 
-}
\ No newline at end of file
+    companion object {
+        /**
+         * Attempts to create a [SwapState] corresponding to the given [String], or returns `null` if no case
+         * corresponds to the given [String].
+         *
+         * @param string The [String] from which this attempts to create a corresponding [SwapState].
+         *
+         * @return A [SwapState] corresponding to [string], or `null` if no such [SwapState] exists.
+         */
+        fun fromString(string: String?): SwapState? {
+            return values().firstOrNull { it.asString == string }
+        }
+    }
+}
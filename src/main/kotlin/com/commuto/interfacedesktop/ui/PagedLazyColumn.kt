@@ -0,0 +1,102 @@
+package com.commuto.interfacedesktop.ui
+
+import androidx.compose.foundation.lazy.LazyColumn
+import androidx.compose.foundation.lazy.LazyItemScope
+import androidx.compose.foundation.lazy.items
+import androidx.compose.foundation.lazy.rememberLazyListState
+import androidx.compose.runtime.*
+import androidx.compose.ui.Modifier
+import kotlinx.coroutines.flow.filter
+
+/**
+ * Loads the rows of a list from a truth source one page at a time, as the user scrolls towards the end of the rows that
+ * have been loaded so far.
+ *
+ * [rows] is derived from the truth source with [derivedStateOf], so it is recomputed only when snapshot state read by
+ * [loadRows] changes or another page is loaded, rather than whenever the Composable displaying it is recomposed. If
+ * [loadRows] stops reading the truth source once it has enough rows, the work done to recompute [rows] depends on the
+ * number of loaded rows rather than on the size of the truth source. Rows should be immutable models with structural
+ * equality, so that rows that did not change compare equal and are skipped when the list is recomposed.
+ *
+ * @param pageSize The number of rows in a page.
+ * @param loadRows A function that gets at most the specified number of rows from the truth source, in the order in
+ * which they are displayed.
+ *
+ * @property loadedPageCount The number of pages that have been loaded.
+ * @property rows The rows of all loaded pages.
+ */
+@Stable
+class PagingSource<R>(
+    private val pageSize: Int = PAGE_SIZE,
+    private val loadRows: (limit: Int) -> List<R>,
+) {
+
+    private val loadedPageCount = mutableStateOf(1)
+
+    val rows: State<List<R>> = derivedStateOf { loadRows(loadedPageCount.value * pageSize) }
+
+    /**
+     * Indicates whether another page should be loaded, which is the case if the last page that was loaded is full and
+     * the last visible row is within [PREFETCH_DISTANCE] rows of the end of [rows].
+     *
+     * @param lastVisibleIndex The index of the last visible row.
+     *
+     * @return `true` if another page should be loaded, or `false` otherwise.
+     */
+    fun shouldLoadNextPage(lastVisibleIndex: Int): Boolean {
+        val loadedRowCount = rows.value.size
+        return loadedRowCount >= loadedPageCount.value * pageSize &&
+                lastVisibleIndex >= loadedRowCount - PREFETCH_DISTANCE
+    }
+
+    /**
+     * Loads another page of rows.
+     */
+    fun loadNextPage() {
+        loadedPageCount.value++
+    }
+
+    companion object {
+        /**
+         * The default number of rows in a page.
+         */
+        const val PAGE_SIZE = 50
+
+        /**
+         * The number of rows before the end of the loaded rows at which the next page is loaded.
+         */
+        const val PREFETCH_DISTANCE = 10
+    }
+
+}
+
+/**
+ * Displays the rows of [pagingSource] in a [LazyColumn], and loads another page of [pagingSource] when the user scrolls
+ * near the end of the loaded rows. Only visible rows are composed, and each item is identified by the key of its row,
+ * so adding, removing, moving or updating a row does not cause the other rows to be recomposed.
+ *
+ * @param pagingSource The [PagingSource] of the rows to be displayed.
+ * @param key A function that gets the key of a row, which must be unique among the rows of [pagingSource] and must not
+ * change when the contents of the row change.
+ * @param modifier A [Modifier] to be applied to the [LazyColumn].
+ * @param rowContent The Composable content displayed for a row.
+ */
+@Composable
+fun <R> PagedLazyColumn(
+    pagingSource: PagingSource<R>,
+    key: (R) -> Any,
+    modifier: Modifier = Modifier,
+    rowContent: @Composable LazyItemScope.(R) -> Unit,
+) {
+    val listState = rememberLazyListState()
+    LaunchedEffect(pagingSource, listState) {
+        snapshotFlow {
+            pagingSource.shouldLoadNextPage(listState.layoutInfo.visibleItemsInfo.lastOrNull()?.index ?: 0)
+        }.filter { it }.collect {
+            pagingSource.loadNextPage()
+        }
+    }
+    LazyColumn(modifier = modifier, state = listState) {
+        items(items = pagingSource.rows.value, key = key, itemContent = rowContent)
+    }
+}
@@ -11,7 +11,7 @@ import java.math.BigInteger
  * stablecoin corresponding to their Ethereum address key. The outer dictionary maps blockchain IDs to inner maps,
  * containing information about all the supported stablecoin contracts on the blockchain with the specified ID.
  */
-class StablecoinInformationRepository(
+open class StablecoinInformationRepository(
     val stablecoinInformation: Map<BigInteger, Map<String, StablecoinInformation>>
 ) {
 
@@ -25,7 +25,7 @@ class StablecoinInformationRepository(
      * @return A [StablecoinInformation] for the stablecoin with the specified [chainID] and [contractAddress], or
      * null if no such [StablecoinInformation] is found.
      */
-    fun getStablecoinInformation(chainID: BigInteger, contractAddress: String?): StablecoinInformation? {
+    open fun getStablecoinInformation(chainID: BigInteger, contractAddress: String?): StablecoinInformation? {
         return stablecoinInformation[chainID]?.get(contractAddress)
     }
 
@@ -104,5 +104,13 @@ class StablecoinInformationRepository(
  * @param decimal The number of token base units that make up one token unit. For example, DAI has a decimal value of
  * 18, so one US Dollar = 10^18 DAI token base units. So when we display a DAI value to the user, we display the number
  * of DAI token base units divided by 10^18.
+ * @param isVerified Whether this information is known to be correct, which is the case if it comes from a built-in list
+ * of stablecoins. Information read from a stablecoin's contract is not verified, since any contract can report any
+ * currency code and name.
  */
-data class StablecoinInformation(val currencyCode: String, val name: String, val decimal: Int)
\ No newline at end of file
+data class StablecoinInformation(
+    val currencyCode: String,
+    val name: String,
+    val decimal: Int,
+    val isVerified: Boolean = true,
+)
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.commuto.interfacedesktop.ui
+
+import dagger.Binds
+import dagger.Module
+
+/**
+ * A Dagger [Module] that tells Dagger what to inject into objects that depend on a
+ * [StablecoinInformationRepository].
+ */
+@Module
+interface StablecoinInformationRepositoryModule {
+    /**
+     * A Dagger Binding that tells Dagger to inject an instance of [StablecoinMetadataRegistry] into objects that depend
+     * on a [StablecoinInformationRepository].
+     *
+     * @param impl The type of object that will be injected into objects that depend on a
+     * [StablecoinInformationRepository].
+     */
+    @Binds
+    fun bindStablecoinInformationRepository(impl: StablecoinMetadataRegistry): StablecoinInformationRepository
+}
\ No newline at end of file
@@ -0,0 +1,249 @@
+package com.commuto.interfacedesktop.ui
+
+import androidx.compose.runtime.mutableStateOf
+import com.commuto.interfacedesktop.blockchain.BlockchainService
+import com.commuto.interfacedesktop.database.DatabaseService
+import com.commuto.interfacedesktop.db.StablecoinMetadata
+import kotlinx.coroutines.*
+import kotlinx.coroutines.channels.Channel
+import org.slf4j.LoggerFactory
+import java.math.BigInteger
+import java.util.concurrent.ConcurrentHashMap
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * A [StablecoinInformationRepository] that knows about every stablecoin contract that it is asked about, rather than
+ * only about a fixed set of stablecoins.
+ *
+ * Lookups are served from [stablecoins], a [ConcurrentHashMap] that is read without locking, so that user interfaces
+ * can look up the stablecoin of every visible offer whenever they are recomposed. A lookup of a stablecoin that is not
+ * yet known returns `null` and queues the stablecoin's contract address to be resolved. [resolveQueuedStablecoins]
+ * collects the addresses that are queued within [BATCH_WINDOW_MILLISECONDS] of each other and gets the currency codes,
+ * names and decimals of up to [MAX_BATCH_SIZE] contracts at a time with [readStablecoinInformation], which sends all
+ * the necessary calls in a single batch request. Resolved information is persistently stored with [databaseService]
+ * and restored by [hydrate] when the app starts, so each stablecoin contract is read from the blockchain only once.
+ * Each address is queued at most once, so repeated lookups of a stablecoin that is being resolved, or that could not be
+ * resolved because its contract does not implement the ERC20 metadata functions, cause no additional requests. Since a
+ * contract can report any currency code and name, information that was read from the blockchain, or restored after
+ * being read, is marked as unverified, so that user interfaces can warn users about it. Only the information in
+ * [builtInStablecoins] is verified.
+ *
+ * @param readStablecoinInformation A function that gets [StablecoinInformation]s about the stablecoin contracts at the
+ * given addresses on the blockchain with the given ID, omitting contracts that are not ERC20 contracts with metadata.
+ * @param builtInStablecoins A [StablecoinInformationRepository] containing stablecoins that are known without reading
+ * any contracts. This also provides the stablecoins that users can choose between when opening offers.
+ * @param scope The [CoroutineScope] in which queued stablecoins are resolved.
+ *
+ * @property databaseService The [DatabaseService] in which this persistently stores resolved stablecoin information.
+ * @property logger The [org.slf4j.Logger] that this class uses for logging.
+ * @property stablecoins The [StablecoinInformation]s of all known stablecoins, keyed by chain ID and lowercase contract
+ * address.
+ * @property queuedStablecoins The keys of stablecoins that have been queued to be resolved, including those that could
+ * not be resolved.
+ * @property stablecoinQueue The keys of stablecoins that [resolveQueuedStablecoins] has yet to resolve.
+ * @property resolvedStablecoinCount The number of stablecoins that have been resolved or restored. Lookups of unknown
+ * stablecoins read this, so that composables that displayed an unknown stablecoin are recomposed once stablecoins are
+ * resolved.
+ * @property isHydrated Completed once [hydrate] has restored stored stablecoin information, so that stablecoins are not
+ * read from the blockchain before their stored information has been restored.
+ */
+@Singleton
+class StablecoinMetadataRegistry(
+    private val databaseService: DatabaseService,
+    private val readStablecoinInformation: suspend (
+        chainID: BigInteger,
+        contractAddresses: List<String>
+    ) -> Map<String, StablecoinInformation>,
+    builtInStablecoins: StablecoinInformationRepository,
+    scope: CoroutineScope = CoroutineScope(SupervisorJob() + Dispatchers.IO),
+) : StablecoinInformationRepository(builtInStablecoins.stablecoinInformation) {
+
+    /**
+     * Creates a new [StablecoinMetadataRegistry] that reads stablecoin contracts with [blockchainService] and already
+     * knows the stablecoins in [StablecoinInformationRepository.hardhatStablecoinInfoRepo].
+     *
+     * @param databaseService The [DatabaseService] in which the returned registry will store stablecoin information.
+     * @param blockchainService The [BlockchainService] with which the returned registry will read stablecoin contracts.
+     */
+    @Inject constructor(databaseService: DatabaseService, blockchainService: BlockchainService): this(
+        databaseService = databaseService,
+        readStablecoinInformation = blockchainService::getStablecoinInformation,
+        builtInStablecoins = StablecoinInformationRepository.hardhatStablecoinInfoRepo,
+    )
+
+    /**
+     * Identifies a stablecoin.
+     *
+     * @property chainID The ID of the blockchain on which the stablecoin exists.
+     * @property contractAddress The lowercase address of the stablecoin's contract.
+     */
+    private data class StablecoinKey(val chainID: BigInteger, val contractAddress: String)
+
+    private val logger = LoggerFactory.getLogger(javaClass)
+
+    private val stablecoins = ConcurrentHashMap<StablecoinKey, StablecoinInformation>().also { map ->
+        builtInStablecoins.stablecoinInformation.forEach { (chainID, stablecoinsOnChain) ->
+            stablecoinsOnChain.forEach { (contractAddress, information) ->
+                map[keyOf(chainID, contractAddress)] = information
+            }
+        }
+    }
+
+    private val queuedStablecoins = ConcurrentHashMap.newKeySet<StablecoinKey>()
+
+    private val stablecoinQueue = Channel<StablecoinKey>(Channel.UNLIMITED)
+
+    private val resolvedStablecoinCount = mutableStateOf(0)
+
+    private val isHydrated = CompletableDeferred<Unit>()
+
+    init {
+        scope.launch {
+            resolveQueuedStablecoins()
+        }
+    }
+
+    /**
+     * Returns a [StablecoinInformation] for the stablecoin at [contractAddress] on the blockchain with ID [chainID], or
+     * returns `null` and queues the stablecoin to be resolved if it is not yet known. This never blocks or suspends.
+     *
+     * @param chainID The ID of the blockchain on which the stablecoin for which to get information exists.
+     * @param contractAddress The contract address of the stablecoin for which to get information, in any case.
+     *
+     * @return A [StablecoinInformation] for the stablecoin with the specified [chainID] and [contractAddress], or
+     * `null` if the stablecoin is not yet known.
+     */
+    override fun getStablecoinInformation(chainID: BigInteger, contractAddress: String?): StablecoinInformation? {
+        if (contractAddress == null) {
+            return null
+        }
+        val key = keyOf(chainID, contractAddress)
+        stablecoins[key]?.let {
+            return it
+        }
+        // Read this so that the caller is recomposed, and can look up the stablecoin again, once it is resolved
+        resolvedStablecoinCount.value
+        if (queuedStablecoins.add(key)) {
+            stablecoinQueue.trySend(key)
+        }
+        return null
+    }
+
+    /**
+     * Restores all persistently stored stablecoin information, and then allows queued stablecoins to be resolved.
+     */
+    suspend fun hydrate() {
+        try {
+            val storedMetadata = databaseService.getAllStablecoinMetadata()
+            storedMetadata.forEach {
+                stablecoins.putIfAbsent(
+                    keyOf(it.chainID, it.contractAddress),
+                    StablecoinInformation(
+                        currencyCode = it.currencyCode,
+                        name = it.name,
+                        decimal = it.decimals.toInt(),
+                        isVerified = false,
+                    )
+                )
+            }
+            withContext(Dispatchers.Main) {
+                resolvedStablecoinCount.value += storedMetadata.size
+            }
+            logger.info("hydrate: restored information about ${storedMetadata.size} stablecoins")
+        } finally {
+            isHydrated.complete(Unit)
+        }
+    }
+
+    /**
+     * Waits for [hydrate] to finish, and then repeatedly takes all stablecoins queued within
+     * [BATCH_WINDOW_MILLISECONDS] of the first one that is queued, and resolves those that are still unknown, grouped
+     * by chain and at most [MAX_BATCH_SIZE] at a time.
+     */
+    private suspend fun resolveQueuedStablecoins() {
+        isHydrated.await()
+        while (true) {
+            val keys = mutableListOf(stablecoinQueue.receive())
+            // Wait briefly, so that stablecoins looked up in the same recomposition are resolved together
+            delay(BATCH_WINDOW_MILLISECONDS)
+            while (true) {
+                keys.add(stablecoinQueue.tryReceive().getOrNull() ?: break)
+            }
+            keys.filterNot { stablecoins.containsKey(it) }
+                .groupBy { it.chainID }
+                .forEach { (chainID, keysOnChain) ->
+                    keysOnChain.chunked(MAX_BATCH_SIZE).forEach { resolveStablecoins(chainID, it) }
+                }
+        }
+    }
+
+    /**
+     * Gets information about the stablecoins with the specified keys on the blockchain with ID [chainID] with
+     * [readStablecoinInformation], adds it to [stablecoins], and persistently stores it. If this information cannot be
+     * read, the stablecoins are removed from [queuedStablecoins] so that they are queued again when next looked up.
+     *
+     * @param chainID The ID of the blockchain on which the stablecoins exist.
+     * @param keys The [StablecoinKey]s of the stablecoins to resolve.
+     */
+    private suspend fun resolveStablecoins(chainID: BigInteger, keys: List<StablecoinKey>) {
+        val resolvedStablecoins = try {
+            readStablecoinInformation(chainID, keys.map { it.contractAddress })
+        } catch (exception: Exception) {
+            logger.error("resolveStablecoins: unable to resolve ${keys.size} stablecoins on chain $chainID", exception)
+            queuedStablecoins.removeAll(keys.toSet())
+            return
+        }
+        if (resolvedStablecoins.isEmpty()) {
+            return
+        }
+        resolvedStablecoins.forEach { (contractAddress, information) ->
+            stablecoins[keyOf(chainID, contractAddress)] = information.copy(isVerified = false)
+        }
+        withContext(Dispatchers.Main) {
+            resolvedStablecoinCount.value += resolvedStablecoins.size
+        }
+        logger.info("resolveStablecoins: resolved ${resolvedStablecoins.size} stablecoins on chain $chainID")
+        try {
+            databaseService.storeStablecoinMetadata(
+                resolvedStablecoins.map { (contractAddress, information) ->
+                    StablecoinMetadata(
+                        chainID = chainID,
+                        contractAddress = contractAddress.lowercase(),
+                        currencyCode = information.currencyCode,
+                        name = information.name,
+                        decimals = information.decimal.toLong(),
+                    )
+                }
+            )
+        } catch (exception: Exception) {
+            logger.error("resolveStablecoins: unable to store ${resolvedStablecoins.size} stablecoins", exception)
+        }
+    }
+
+    /**
+     * Creates the [StablecoinKey] of a stablecoin from a contract address of any case.
+     *
+     * @param chainID The ID of the blockchain on which the stablecoin exists.
+     * @param contractAddress The address of the stablecoin's contract.
+     *
+     * @return A [StablecoinKey] with [chainID] and the lowercase form of [contractAddress].
+     */
+    private fun keyOf(chainID: BigInteger, contractAddress: String): StablecoinKey {
+        return StablecoinKey(chainID, contractAddress.lowercase())
+    }
+
+    companion object {
+        /**
+         * The number of milliseconds for which stablecoins queued after the first one are collected into the same
+         * batch.
+         */
+        const val BATCH_WINDOW_MILLISECONDS = 50L
+
+        /**
+         * The maximum number of stablecoin contracts that are read in a single batch request.
+         */
+        const val MAX_BATCH_SIZE = 25
+    }
+
+}
@@ -6,6 +6,7 @@ import androidx.compose.material.MaterialTheme
 import androidx.compose.material.Text
 import androidx.compose.runtime.Composable
 import androidx.compose.ui.Modifier
+import androidx.compose.ui.graphics.Color
 import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.unit.dp
 import com.commuto.interfacedesktop.offer.Offer
@@ -16,9 +17,11 @@ import com.commuto.interfacedesktop.offer.Offer
  *
  * @param offerDirection The direction of the offer that this card represents, as a [String].
  * @param stablecoinCode The currency code of the offer's stablecoin.
+ * @param isStablecoinVerified Whether [stablecoinCode] is known to be correct. If it is not, because it was read from
+ * the stablecoin's contract, a warning is displayed below it.
  */
 @Composable
-fun OfferCardComposable(offerDirection: String, stablecoinCode: String) {
+fun OfferCardComposable(offerDirection: String, stablecoinCode: String, isStablecoinVerified: Boolean = true) {
     Box {
         Row {
             Column {
@@ -32,6 +35,13 @@ fun OfferCardComposable(offerDirection: String, stablecoinCode: String) {
                     text = stablecoinCode,
                     style = MaterialTheme.typography.h5
                 )
+                if (!isStablecoinVerified) {
+                    Text(
+                        text = "Unverified Stablecoin",
+                        style = MaterialTheme.typography.caption,
+                        color = Color.Red,
+                    )
+                }
             }
             Spacer(modifier = Modifier.fillMaxWidth())
         }
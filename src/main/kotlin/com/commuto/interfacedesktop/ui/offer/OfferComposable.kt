@@ -40,16 +40,15 @@ import java.util.*
  * @param settlementMethodTruthSource An object implementing [UISettlementMethodTruthSource] that acts as a single
  * source of truth for all settlement-method-related data.
  * @param stablecoinInfoRepo The [StablecoinInformationRepository] that this [Composable] uses to get stablecoin name
- * and currency code information. Defaults to [StablecoinInformationRepository.hardhatStablecoinInfoRepo] if no other
- * value is passed.
+ * and currency code information. Defaults to the [UIOfferTruthSource.stablecoinInformationRepository] of
+ * [offerTruthSource] if no other value is passed.
  */
 @Composable
 fun OfferComposable(
     offerTruthSource: UIOfferTruthSource,
     id: UUID?,
     settlementMethodTruthSource: UISettlementMethodTruthSource,
-    stablecoinInfoRepo: StablecoinInformationRepository =
-        StablecoinInformationRepository.hardhatStablecoinInfoRepo,
+    stablecoinInfoRepo: StablecoinInformationRepository = offerTruthSource.stablecoinInformationRepository,
     focusedOfferComposable: MutableState<FocusedOfferComposable>,
 ) {
 
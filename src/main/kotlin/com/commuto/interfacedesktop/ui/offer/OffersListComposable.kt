@@ -2,12 +2,10 @@ package com.commuto.interfacedesktop.ui.offer
 
 import androidx.compose.desktop.ui.tooling.preview.Preview
 import androidx.compose.foundation.BorderStroke
+import androidx.compose.foundation.border
 import androidx.compose.foundation.layout.*
-import androidx.compose.foundation.lazy.LazyColumn
 import androidx.compose.material.*
-import androidx.compose.runtime.Composable
-import androidx.compose.runtime.MutableState
-import androidx.compose.runtime.mutableStateOf
+import androidx.compose.runtime.*
 import androidx.compose.ui.Alignment
 import androidx.compose.ui.Modifier
 import androidx.compose.ui.graphics.Color
@@ -15,13 +13,19 @@ import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.unit.dp
 import com.commuto.interfacedesktop.i18n.I18n
 import com.commuto.interfacedesktop.offer.Offer
-import com.commuto.interfacedesktop.ui.StablecoinInformationRepository
+import com.commuto.interfacedesktop.ui.PagedLazyColumn
+import com.commuto.interfacedesktop.ui.PagingSource
+import java.util.*
 
 /**
  * Displays a [OffersNoneFoundComposable] if there are no open offers in [offerTruthSource], or, if there
  * are open offers in [offerTruthSource], displays a list containing an [OfferCardComposable]-labeled
  * [Button] for each open offer in [offerTruthSource] that sets [focusedOffer] equal to that offer and sets
- * [focusedOfferComposable] to [FocusedOfferComposable.OfferComposable] when pressed.
+ * [focusedOfferComposable] to [FocusedOfferComposable.OfferComposable] when pressed. The list also contains a
+ * placeholder card for each pending offer in [offerTruthSource], which requests the offer's on-chain data when it
+ * becomes visible. The list is a [PagedLazyColumn] of immutable [OfferListRow]s keyed by offer ID, which are derived
+ * from [offerTruthSource]'s order book one page at a time, so only visible rows are composed and only rows of offers
+ * that changed are recomposed.
  *
  * @param modifier A [Modifier] to be applied to the outer column inside this [Composable].
  * @param offerTruthSource An object implementing [UIOfferTruthSource] that acts as a single source of truth for all
@@ -38,7 +42,9 @@ fun OffersListComposable(
     focusedOfferComposable: MutableState<FocusedOfferComposable>,
     focusedOffer: MutableState<Offer?>
 ) {
-    val stablecoinInformationRepository = StablecoinInformationRepository.hardhatStablecoinInfoRepo
+    val pagingSource = remember(offerTruthSource) {
+        PagingSource { limit -> getOfferListRows(offerTruthSource, limit) }
+    }
     Column(modifier = modifier) {
         Row(
             modifier = Modifier.padding(PaddingValues(start = 10.dp)).fillMaxWidth(),
@@ -69,15 +75,18 @@ fun OffersListComposable(
             )
         }
         OffersDividerComposable()
-        if (offerTruthSource.offers.size == 0) {
+        if (offerTruthSource.offers.size == 0 && offerTruthSource.pendingOffers.size == 0) {
             OffersNoneFoundComposable()
         } else {
-            LazyColumn {
-                for (entry in offerTruthSource.offers) {
-                    item {
+            PagedLazyColumn(
+                pagingSource = pagingSource,
+                key = { it.id },
+            ) { row ->
+                when (row) {
+                    is OfferListRow.OpenOfferRow -> {
                         Button(
                             onClick = {
-                                focusedOffer.value = entry.value
+                                focusedOffer.value = offerTruthSource.offers[row.id]
                                 focusedOfferComposable.value = FocusedOfferComposable.OfferComposable
                             },
                             border = BorderStroke(1.dp, Color.Black),
@@ -90,19 +99,100 @@ fun OffersListComposable(
                             elevation = null,
                         ) {
                             OfferCardComposable(
-                                offerDirection = entry.value.direction.string,
-                                stablecoinCode = stablecoinInformationRepository
-                                    .getStablecoinInformation(entry.value.chainID, entry.value.stablecoin)?.currencyCode
-                                    ?: "Unknown Stablecoin"
+                                offerDirection = row.direction,
+                                stablecoinCode = row.stablecoinCode,
+                                isStablecoinVerified = row.isStablecoinVerified,
                             )
                         }
                     }
+                    is OfferListRow.PendingOfferRow -> {
+                        // Items are only composed when visible, so this retrieves only the offers the user can see
+                        LaunchedEffect(row.id) {
+                            offerTruthSource.requestOfferDetails(row.id)
+                        }
+                        PendingOfferCardComposable()
+                    }
                 }
             }
         }
     }
 }
 
+/**
+ * An immutable row of [OffersListComposable], derived from an offer in a [UIOfferTruthSource].
+ *
+ * @property id The ID of the offer that this row displays, which is also the key of this row.
+ */
+@Immutable
+private sealed class OfferListRow {
+    abstract val id: UUID
+
+    /**
+     * A row displaying an open offer of which the on-chain data has been retrieved.
+     *
+     * @property direction The direction of the offer, as a human-readable string.
+     * @property stablecoinCode The currency code of the offer's stablecoin.
+     * @property isStablecoinVerified Whether [stablecoinCode] is known to be correct, rather than read from the
+     * stablecoin's contract.
+     */
+    data class OpenOfferRow(
+        override val id: UUID,
+        val direction: String,
+        val stablecoinCode: String,
+        val isStablecoinVerified: Boolean,
+    ) : OfferListRow()
+
+    /**
+     * A row displaying an offer of which the on-chain data has not yet been retrieved.
+     */
+    data class PendingOfferRow(override val id: UUID) : OfferListRow()
+}
+
+/**
+ * Gets the rows of [OffersListComposable]: the open offers in [offerTruthSource]'s order book, ordered by ID, followed
+ * by the pending offers that are not yet open offers.
+ *
+ * @param offerTruthSource The [UIOfferTruthSource] from which to get offers.
+ * @param limit The maximum number of rows to get.
+ *
+ * @return A [List] of at most [limit] [OfferListRow]s.
+ */
+private fun getOfferListRows(offerTruthSource: UIOfferTruthSource, limit: Int): List<OfferListRow> {
+    val openOfferRows = offerTruthSource.orderBook.getAllOffers(limit = limit).map { offer ->
+        val stablecoinInformation = offerTruthSource.stablecoinInformationRepository
+            .getStablecoinInformation(offer.chainID, offer.stablecoin)
+        OfferListRow.OpenOfferRow(
+            id = offer.id,
+            direction = offer.direction.string,
+            stablecoinCode = stablecoinInformation?.currencyCode ?: "Unknown Stablecoin",
+            isStablecoinVerified = stablecoinInformation?.isVerified ?: true,
+        )
+    }
+    val pendingOfferRows = offerTruthSource.pendingOffers.keys.asSequence()
+        .filterNot { offerTruthSource.offers.containsKey(it) }
+        .take(limit - openOfferRows.size)
+        .map { OfferListRow.PendingOfferRow(it) }
+    return openOfferRows + pendingOfferRows
+}
+
+/**
+ * Displays a card in place of an offer of which the on-chain data has not yet been retrieved.
+ */
+@Composable
+private fun PendingOfferCardComposable() {
+    Box(
+        modifier = Modifier
+            .padding(PaddingValues(top = 5.dp, start = 5.dp))
+            .border(BorderStroke(1.dp, Color.Black), MaterialTheme.shapes.small)
+            .padding(10.dp)
+    ) {
+        Text(
+            text = "Loading offer...",
+            style = MaterialTheme.typography.h5,
+        )
+    }
+}
+
 /**
  * Displays a horizontal divider.
  */
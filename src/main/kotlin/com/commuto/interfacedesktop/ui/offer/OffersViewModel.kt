@@ -24,9 +24,16 @@ import javax.inject.Singleton
  *
  * @property offerService The [OfferService] responsible for adding and removing [Offer]s from the list of open offers
  * as they are created, canceled and taken.
+ * @property stablecoinInformationRepository The [StablecoinInformationRepository] from which this and user interfaces
+ * get information about the stablecoins of offers.
  * @property logger The [org.slf4j.Logger] that this class uses for logging.
+ * @property orderBook An [OfferOrderBook] indexing the offers in [offers] by market and settlement method, which is
+ * updated whenever [offers] or the settlement methods of an offer in [offers] change. Whenever a market is queried,
+ * this requests the on-chain data of the pending offers on that market's chain, since any of them may be in it.
  * @property offers A mutable state map of [UUID]s to [Offer]s that acts as a single source of truth for all
  * offer-related data.
+ * @property pendingOffers The IDs of offers opened by other users of which [offerService] has not yet retrieved the
+ * on-chain data, mapped to the IDs of the blockchains on which they exist.
  * @property serviceFeeRate The current
  * [service fee rate](https://github.com/jimmyneutront/commuto-whitepaper/blob/main/commuto-whitepaper.txt) as a
  * percentage times 100, or `null` if the current service fee rate is not known.
@@ -37,7 +44,10 @@ import javax.inject.Singleton
  * process, or `null` if no such exception has occurred.
  */
 @Singleton
-class OffersViewModel @Inject constructor(private val offerService: OfferService): UIOfferTruthSource {
+class OffersViewModel @Inject constructor(
+    private val offerService: OfferService,
+    override val stablecoinInformationRepository: StablecoinInformationRepository,
+): UIOfferTruthSource {
 
     init {
         offerService.setOfferTruthSource(this)
@@ -45,12 +55,17 @@ class OffersViewModel @Inject constructor(private val offerService: OfferService
 
     private val logger = LoggerFactory.getLogger(javaClass)
 
+    override val orderBook = OfferOrderBook { offerService.requestPendingOfferDetails(chainID = it.chainID) }
+
     override var offers = mutableStateMapOf<UUID, Offer>().also { map ->
         Offer.sampleOffers.map {
             map[it.id] = it
+            orderBook.add(it)
         }
     }
 
+    override val pendingOffers = mutableStateMapOf<UUID, BigInteger>()
+
     override var serviceFeeRate: MutableState<BigInteger?> = mutableStateOf(null)
 
     override var isGettingServiceFeeRate = mutableStateOf(false)
@@ -62,21 +77,72 @@ class OffersViewModel @Inject constructor(private val offerService: OfferService
     private val viewModelScope = CoroutineScope(Dispatchers.IO)
 
     /**
-     * Adds a new [Offer] to [offers].
+     * Adds a new [Offer] to [offers] and to [orderBook].
      *
      * @param offer The new [Offer] to be added to [offers].
      */
     override fun addOffer(offer: Offer) {
         offers[offer.id] = offer
+        orderBook.add(offer)
+    }
+
+    /**
+     * Adds new [Offer]s to [offers] and to [orderBook], updating each only once.
+     *
+     * @param offers The new [Offer]s to be added to [offers].
+     */
+    override fun addOffers(offers: Collection<Offer>) {
+        this.offers.putAll(offers.associateBy { it.id })
+        orderBook.addAll(offers)
     }
 
     /**
-     * Removes the [Offer] with an ID equal to [id] from [offers].
+     * Removes the [Offer] with an ID equal to [id] from [offers] and from [orderBook].
      *
      * @param id The ID of the [Offer] to remove.
      */
     override fun removeOffer(id: UUID) {
         offers.remove(id)
+        orderBook.remove(id)
+    }
+
+    /**
+     * Re-indexes [offer] in [orderBook] using its updated settlement methods, if it is in [offers].
+     *
+     * @param offer The [Offer] with updated settlement methods.
+     */
+    override fun offerSettlementMethodsUpdated(offer: Offer) {
+        if (offers[offer.id] === offer) {
+            orderBook.add(offer)
+        }
+    }
+
+    /**
+     * Adds the offer with an ID equal to [id] to [pendingOffers].
+     *
+     * @param id The ID of the pending offer.
+     * @param chainID The ID of the blockchain on which the pending offer exists.
+     */
+    override fun addPendingOffer(id: UUID, chainID: BigInteger) {
+        pendingOffers[id] = chainID
+    }
+
+    /**
+     * Removes the offer with an ID equal to [id] from [pendingOffers].
+     *
+     * @param id The ID of the pending offer.
+     */
+    override fun removePendingOffer(id: UUID) {
+        pendingOffers.remove(id)
+    }
+
+    /**
+     * Requests that [offerService] retrieve the on-chain data of the pending offer with an ID equal to [id].
+     *
+     * @param id The ID of the pending offer of which to retrieve the on-chain data.
+     */
+    override fun requestOfferDetails(id: UUID) {
+        offerService.requestOfferDetails(offerID = id)
     }
 
     // TODO: Remove this once old openOffer method is removed
@@ -521,6 +587,7 @@ class OffersViewModel @Inject constructor(private val offerService: OfferService
                     offer.updateSettlementMethods(
                         settlementMethods = validatedSettlementmethods
                     )
+                    offerSettlementMethodsUpdated(offer)
                 }
                 // We have successfully edited the offer, so we empty the selected settlement method list.
                 offer.selectedSettlementMethods.clear()
@@ -651,7 +718,7 @@ class OffersViewModel @Inject constructor(private val offerService: OfferService
                     takenSwapAmount = takenSwapAmount,
                     makerSettlementMethod = makerSettlementMethod,
                     takerSettlementMethod = takerSettlementMethod,
-                    stablecoinInformationRepository = StablecoinInformationRepository.hardhatStablecoinInfoRepo
+                    stablecoinInformationRepository = stablecoinInformationRepository
                 )
                 withContext(Dispatchers.Main) {
                     createdTransactionHandler(createdTransaction)
@@ -704,7 +771,7 @@ class OffersViewModel @Inject constructor(private val offerService: OfferService
                     takenSwapAmount = takenSwapAmount,
                     makerSettlementMethod = makerSettlementMethod,
                     takerSettlementMethod = takerSettlementMethod,
-                    stablecoinInformationRepository = StablecoinInformationRepository.hardhatStablecoinInfoRepo,
+                    stablecoinInformationRepository = stablecoinInformationRepository,
                     approveTokenTransferToTakeOfferTransaction = approveTokenTransferToOpenOfferTransaction
                 )
                 logger.info("approveTokenTransferToTakeOffer: successfully")
@@ -760,7 +827,7 @@ class OffersViewModel @Inject constructor(private val offerService: OfferService
                     takenSwapAmount = takenSwapAmount,
                     makerSettlementMethod = makerSettlementMethod,
                     takerSettlementMethod = takerSettlementMethod,
-                    stablecoinInformationRepository = StablecoinInformationRepository.hardhatStablecoinInfoRepo
+                    stablecoinInformationRepository = stablecoinInformationRepository
                 )
                 withContext(Dispatchers.Main) {
                     createdTransactionAndKeyPairHandler(
@@ -813,7 +880,7 @@ class OffersViewModel @Inject constructor(private val offerService: OfferService
                     takenSwapAmount = takenSwapAmount,
                     makerSettlementMethod = makerSettlementMethod,
                     takerSettlementMethod = takerSettlementMethod,
-                    stablecoinInformationRepository = StablecoinInformationRepository.hardhatStablecoinInfoRepo,
+                    stablecoinInformationRepository = stablecoinInformationRepository,
                     takerKeyPair = keyPair,
                     offerTakingTransaction = offerTakingTransaction,
                 )
@@ -856,7 +923,7 @@ class OffersViewModel @Inject constructor(private val offerService: OfferService
                     takenSwapAmount = takenSwapAmount,
                     selectedMakerSettlementMethod = makerSettlementMethod,
                     selectedTakerSettlementMethod = takerSettlementMethod,
-                    stablecoinInformationRepository = StablecoinInformationRepository.hardhatStablecoinInfoRepo
+                    stablecoinInformationRepository = stablecoinInformationRepository
                 )
                 //setTakingOfferState(offerID = offer.id, state = TakingOfferState.CHECKING)
                 offerService.takeOffer(
@@ -6,9 +6,11 @@ import androidx.compose.runtime.snapshots.SnapshotStateMap
 import com.commuto.interfacedesktop.key.keys.KeyPair
 import com.commuto.interfacedesktop.offer.Offer
 import com.commuto.interfacedesktop.offer.OfferDirection
+import com.commuto.interfacedesktop.offer.OfferOrderBook
 import com.commuto.interfacedesktop.offer.TokenTransferApprovalState
 import com.commuto.interfacedesktop.settlement.SettlementMethod
 import com.commuto.interfacedesktop.ui.StablecoinInformation
+import com.commuto.interfacedesktop.ui.StablecoinInformationRepository
 import org.web3j.crypto.RawTransaction
 import java.math.BigDecimal
 import java.math.BigInteger
@@ -17,22 +19,30 @@ import java.util.*
 /**
  * A [UIOfferTruthSource] implementation used for previewing user interfaces.
  *
+ * @property orderBook An [OfferOrderBook] indexing the sample offers in [offers].
  * @property offers A [SnapshotStateMap] mapping [UUID]s to [Offer]s, which acts as a single source of truth for all
  * offer-related data.
+ * @property pendingOffers An empty [SnapshotStateMap], since all sample offers are complete.
  * @property serviceFeeRate The current
  * [service fee rate](https://github.com/jimmyneutront/commuto-whitepaper/blob/main/commuto-whitepaper.txt) as a
  * percentage times 100, or `null` if the current service fee rate is not known.
  * @property isGettingServiceFeeRate Indicates whether this is currently getting the current service fee rate. This will
  * always be false, this class is used only for previewing user interfaces.
+ * @property stablecoinInformationRepository [StablecoinInformationRepository.hardhatStablecoinInfoRepo], which contains
+ * the stablecoins of the sample offers.
  */
 class PreviewableOfferTruthSource: UIOfferTruthSource {
+    override val orderBook = OfferOrderBook()
     override var offers = SnapshotStateMap<UUID, Offer>().also { map ->
         Offer.sampleOffers.map {
             map[it.id] = it
+            orderBook.add(it)
         }
     }
+    override val pendingOffers = SnapshotStateMap<UUID, BigInteger>()
     override var serviceFeeRate: MutableState<BigInteger?> = mutableStateOf(null)
     override var isGettingServiceFeeRate = mutableStateOf(false)
+    override val stablecoinInformationRepository = StablecoinInformationRepository.hardhatStablecoinInfoRepo
 
     /**
      * Not used since this class is for previewing user interfaces, but required for implementing [UIOfferTruthSource].
@@ -54,6 +64,11 @@ class PreviewableOfferTruthSource: UIOfferTruthSource {
      */
     override fun removeOffer(id: UUID) {}
 
+    /**
+     * Does nothing, since this class is only used for previewing user interfaces.
+     */
+    override fun requestOfferDetails(id: UUID) {}
+
     /**
      * Does nothing, since this class is only used for previewing user interfaces.
      */
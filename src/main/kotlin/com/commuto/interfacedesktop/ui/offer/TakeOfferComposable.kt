@@ -34,7 +34,8 @@ import java.util.*
 /**
  * Allows the user to specify a stablecoin amount, select a settlement method and take an
  * [Offer](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#offer). This should be contained by a
- * dialog.
+ * dialog. If the information about the offer's stablecoin was read from its contract rather than being verified, this
+ * warns the user.
  *
  * @param closeDialog The lambda that can close the dialog in which this [Composable] is displayed.
  * @param offerTruthSource The OffersViewModel that acts as a single source of truth for all offer-related data.
@@ -42,8 +43,8 @@ import java.util.*
  * @param settlementMethodTruthSource An object implementing [UISettlementMethodTruthSource] that acts as a single
  * source of truth for all settlement-method-related data.
  * @param stablecoinInfoRepo The [StablecoinInformationRepository] that this [Composable] uses to get stablecoin name
- * and currency code information. Defaults to [StablecoinInformationRepository.hardhatStablecoinInfoRepo] if no
- * other value is passed.
+ * and currency code information. Defaults to the [UIOfferTruthSource.stablecoinInformationRepository] of
+ * [offerTruthSource] if no other value is passed.
  */
 @Composable
 fun TakeOfferComposable(
@@ -51,7 +52,7 @@ fun TakeOfferComposable(
     offerTruthSource: UIOfferTruthSource,
     id: UUID?,
     settlementMethodTruthSource: UISettlementMethodTruthSource,
-    stablecoinInfoRepo: StablecoinInformationRepository = StablecoinInformationRepository.hardhatStablecoinInfoRepo
+    stablecoinInfoRepo: StablecoinInformationRepository = offerTruthSource.stablecoinInformationRepository
 ) {
 
     val offer = offerTruthSource.offers[id]
@@ -159,6 +160,18 @@ fun TakeOfferComposable(
                             elevation = null,
                         )
                     }
+                    if (stablecoinInformation?.isVerified == false) {
+                        /*
+                        The currency code and name of this stablecoin were reported by its contract, which can report
+                        any values, so we warn the user before they take the offer
+                         */
+                        Text(
+                            text = "The currency code and name of this offer's stablecoin were read from its " +
+                                    "contract and are not verified. Make sure that ${offer.stablecoin} is the " +
+                                    "stablecoin contract that you expect.",
+                            color = Color.Red,
+                        )
+                    }
                     Text(
                         text = "You are:",
                         style = MaterialTheme.typography.h6,
@@ -1,19 +1,30 @@
 package com.commuto.interfacedesktop.ui.offer
 
 import androidx.compose.runtime.MutableState
+import androidx.compose.runtime.snapshots.SnapshotStateMap
 import com.commuto.interfacedesktop.key.keys.KeyPair
 import com.commuto.interfacedesktop.offer.*
 import com.commuto.interfacedesktop.settlement.SettlementMethod
 import com.commuto.interfacedesktop.ui.StablecoinInformation
+import com.commuto.interfacedesktop.ui.StablecoinInformationRepository
 import org.web3j.crypto.RawTransaction
 import java.math.BigDecimal
 import java.math.BigInteger
+import java.util.*
 
 /**
  * An interface that a class must adopt in order to act as a single source of truth for open-offer-related data in an
  * application with a graphical user interface.
+ * @property orderBook An [OfferOrderBook] indexing the offers in [offers] by market and by settlement method, with which
+ * user interfaces can get pages of offers sorted by price without iterating over every offer.
+ * @property pendingOffers The IDs of offers opened by other users of which the on-chain data has not yet been
+ * retrieved, mapped to the IDs of the blockchains on which they exist. User interfaces should call
+ * [requestOfferDetails] for those that become visible or are focused by the user. Those that may be in a market
+ * queried via [orderBook] should be retrieved by the implementing class when the query is made.
  * @property isGettingServiceFeeRate Indicates whether the class implementing this interface is currently getting the
  * current service fee rate.
+ * @property stablecoinInformationRepository The [StablecoinInformationRepository] from which user interfaces should get
+ * information about the stablecoins of offers.
  * @property approvingTransferToOpenOfferState Indicates whether we are currently opening an offer, and if so, the point
  * of the
  * [offer opening process](https://github.com/jimmyneutront/commuto-whitepaper/blob/main/commuto-interface-specification.txt)
@@ -22,7 +33,18 @@ import java.math.BigInteger
  * `null` if no such exception has occurred.
  */
 interface UIOfferTruthSource: OfferTruthSource {
+    val orderBook: OfferOrderBook
+    val pendingOffers: SnapshotStateMap<UUID, BigInteger>
     var isGettingServiceFeeRate: MutableState<Boolean>
+    val stablecoinInformationRepository: StablecoinInformationRepository
+
+    /**
+     * Should request that the on-chain data of the offer in [pendingOffers] with an ID equal to [id] be retrieved,
+     * because it has become visible to or been focused by the user.
+     *
+     * @param id The ID of the pending offer of which to retrieve the on-chain data.
+     */
+    fun requestOfferDetails(id: UUID)
 
     /**
      * Should attempt to get the current service fee rate and set the value of [serviceFeeRate] equal to the result.
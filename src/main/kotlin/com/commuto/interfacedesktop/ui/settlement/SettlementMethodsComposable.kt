@@ -3,7 +3,6 @@ package com.commuto.interfacedesktop.ui.settlement
 import androidx.compose.desktop.ui.tooling.preview.Preview
 import androidx.compose.foundation.BorderStroke
 import androidx.compose.foundation.layout.*
-import androidx.compose.foundation.lazy.LazyColumn
 import androidx.compose.foundation.rememberScrollState
 import androidx.compose.foundation.verticalScroll
 import androidx.compose.material.*
@@ -19,11 +18,16 @@ import com.commuto.interfacedesktop.settlement.privatedata.PrivateData
 import com.commuto.interfacedesktop.settlement.privatedata.PrivateSEPAData
 import com.commuto.interfacedesktop.settlement.privatedata.PrivateSWIFTData
 import com.commuto.interfacedesktop.settlement.privatedata.createPrivateDataObject
+import com.commuto.interfacedesktop.ui.PagedLazyColumn
+import com.commuto.interfacedesktop.ui.PagingSource
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.withContext
+import java.util.*
 
 /**
- * Displays the list of the user's settlement methods as [SettlementMethodCardComposable]s in a [LazyColumn].
+ * Displays the list of the user's settlement methods as [SettlementMethodCardComposable]s in a [PagedLazyColumn] of
+ * immutable [SettlementMethodRow]s keyed by settlement method ID, so that only visible rows are composed and only rows
+ * of settlement methods that changed are recomposed.
  *
  * @param settlementMethodViewModel An object implementing [UISettlementMethodTruthSource] that acts as a single source
  * of truth for all settlement-method-related data.
@@ -53,6 +57,17 @@ fun SettlementMethodsComposable(
      */
     val privateData = remember { mutableStateOf<PrivateData?>(null) }
 
+    /**
+     * Pages of [SettlementMethodRow]s derived from the user's settlement methods.
+     */
+    val pagingSource = remember(settlementMethodViewModel) {
+        PagingSource { limit ->
+            settlementMethodViewModel.settlementMethods.asSequence().take(limit).map {
+                SettlementMethodRow(id = it.id, settlementMethod = it.copy())
+            }.toList()
+        }
+    }
+
     Row {
         Column(
             modifier = Modifier.widthIn(100.dp, 300.dp),
@@ -95,29 +110,29 @@ fun SettlementMethodsComposable(
             if (settlementMethodViewModel.settlementMethods.size == 0) {
                 SettlementMethodsNoneFoundComposable()
             } else {
-                LazyColumn {
-                    for (entry in settlementMethodViewModel.settlementMethods) {
-                        item {
-                            Button(
-                                onClick = {
-                                    focusedSettlementMethod.value = entry
-                                    focusedSettlementMethodComposable.value = FocusedSettlementMethodComposable
-                                        .SettlementMethodComposable
-                                },
-                                border = BorderStroke(1.dp, Color.Black),
-                                colors = ButtonDefaults.buttonColors(
-                                    backgroundColor = Color.Transparent
-                                ),
-                                modifier = Modifier
-                                    .padding(PaddingValues(top = 5.dp, start = 5.dp)),
-                                contentPadding = PaddingValues(10.dp),
-                                elevation = null,
-                            ) {
-                                SettlementMethodCardComposable(
-                                    settlementMethod = entry
-                                )
-                            }
-                        }
+                PagedLazyColumn(
+                    pagingSource = pagingSource,
+                    key = { it.id },
+                ) { row ->
+                    Button(
+                        onClick = {
+                            focusedSettlementMethod.value = settlementMethodViewModel.settlementMethods
+                                .firstOrNull { it.id == row.id }
+                            focusedSettlementMethodComposable.value = FocusedSettlementMethodComposable
+                                .SettlementMethodComposable
+                        },
+                        border = BorderStroke(1.dp, Color.Black),
+                        colors = ButtonDefaults.buttonColors(
+                            backgroundColor = Color.Transparent
+                        ),
+                        modifier = Modifier
+                            .padding(PaddingValues(top = 5.dp, start = 5.dp)),
+                        contentPadding = PaddingValues(10.dp),
+                        elevation = null,
+                    ) {
+                        SettlementMethodCardComposable(
+                            settlementMethod = row.settlementMethod
+                        )
                     }
                 }
             }
@@ -563,6 +578,16 @@ fun EditableSWIFTDetailComposable(
     }
 }
 
+/**
+ * An immutable row of the list in [SettlementMethodsComposable], derived from one of the user's settlement methods.
+ *
+ * @property id The ID of the settlement method that this row displays, which is also the key of this row.
+ * @property settlementMethod A copy of the settlement method, taken when this row was derived, so that this row is not
+ * changed by later changes to the user's settlement method and is only replaced when the settlement method changes.
+ */
+@Immutable
+private data class SettlementMethodRow(val id: UUID, val settlementMethod: SettlementMethod)
+
 /**
  * A card displaying basic information about a settlement method belonging to the user, to be shown in the list of the
  * user's settlement methods.
@@ -580,7 +605,7 @@ fun SettlementMethodCardComposable(settlementMethod: SettlementMethod) {
      */
     val finishedParsingData = remember { mutableStateOf(false) }
 
-    LaunchedEffect(true) {
+    LaunchedEffect(settlementMethod.privateData) {
         createPrivateDataObjectForUI(
             settlementMethod = settlementMethod,
             privateData = privateData,
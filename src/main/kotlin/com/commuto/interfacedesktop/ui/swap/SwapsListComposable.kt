@@ -3,22 +3,24 @@ package com.commuto.interfacedesktop.ui.swap
 import androidx.compose.desktop.ui.tooling.preview.Preview
 import androidx.compose.foundation.BorderStroke
 import androidx.compose.foundation.layout.*
-import androidx.compose.foundation.lazy.LazyColumn
 import androidx.compose.material.*
-import androidx.compose.runtime.Composable
-import androidx.compose.runtime.MutableState
-import androidx.compose.runtime.mutableStateOf
+import androidx.compose.runtime.*
 import androidx.compose.ui.Alignment
 import androidx.compose.ui.Modifier
 import androidx.compose.ui.graphics.Color
 import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.unit.dp
 import com.commuto.interfacedesktop.swap.Swap
+import com.commuto.interfacedesktop.ui.PagedLazyColumn
+import com.commuto.interfacedesktop.ui.PagingSource
+import java.util.*
 
 /**
  * Displays a list containing a [SwapCardComposable]-labeled [Button] for each swap in [Swap.sampleSwaps] that sets
  * [focusedSwap] equal to that swap and sets [focusedSwapComposable] to [FocusedSwapComposable.SwapComposable] when
- * pressed.
+ * pressed. The list is a [PagedLazyColumn] of immutable [SwapRow]s keyed by swap ID, which are derived from
+ * [swapTruthSource] one page at a time, so only visible rows are composed and only rows of swaps that changed are
+ * recomposed.
  *
  * @param modifier A [Modifier] to be applied to the outer column inside this [Composable].
  * @param swapTruthSource An object implementing [UISwapTruthSource] that acts as a single source of truth for all
@@ -35,6 +37,13 @@ fun SwapsListComposable(
     focusedSwapComposable: MutableState<FocusedSwapComposable>,
     focusedSwap: MutableState<Swap?>
 ) {
+    val pagingSource = remember(swapTruthSource) {
+        PagingSource { limit ->
+            swapTruthSource.swaps.values.asSequence().take(limit).map {
+                SwapRow(id = it.id, direction = it.direction.string)
+            }.toList()
+        }
+    }
     Column(modifier = modifier) {
         Row(
             modifier = Modifier.padding(PaddingValues(start = 10.dp)).fillMaxWidth(),
@@ -54,36 +63,44 @@ fun SwapsListComposable(
         if (swapTruthSource.swaps.size == 0) {
             SwapsNoneFoundComposable()
         } else {
-            LazyColumn {
-                for (entry in swapTruthSource.swaps) {
-                    item {
-                        Button(
-                            onClick = {
-                                focusedSwap.value = entry.value
-                                focusedSwapComposable.value = FocusedSwapComposable.SwapComposable
-                            },
-                            border = BorderStroke(1.dp, Color.Black),
-                            colors = ButtonDefaults.buttonColors(
-                                backgroundColor = Color.Transparent
-                            ),
-                            modifier = Modifier
-                                .padding(PaddingValues(top = 5.dp))
-                                .padding(horizontal = 5.dp),
-                            contentPadding = PaddingValues(10.dp),
-                            elevation = null,
-                        ) {
-                            SwapCardComposable(
-                                swapDirection = entry.value.direction.string,
-                                stablecoinCode = "STBL"
-                            )
-                        }
-                    }
+            PagedLazyColumn(
+                pagingSource = pagingSource,
+                key = { it.id },
+            ) { row ->
+                Button(
+                    onClick = {
+                        focusedSwap.value = swapTruthSource.swaps[row.id]
+                        focusedSwapComposable.value = FocusedSwapComposable.SwapComposable
+                    },
+                    border = BorderStroke(1.dp, Color.Black),
+                    colors = ButtonDefaults.buttonColors(
+                        backgroundColor = Color.Transparent
+                    ),
+                    modifier = Modifier
+                        .padding(PaddingValues(top = 5.dp))
+                        .padding(horizontal = 5.dp),
+                    contentPadding = PaddingValues(10.dp),
+                    elevation = null,
+                ) {
+                    SwapCardComposable(
+                        swapDirection = row.direction,
+                        stablecoinCode = "STBL"
+                    )
                 }
             }
         }
     }
 }
 
+/**
+ * An immutable row of [SwapsListComposable], derived from a swap in a [UISwapTruthSource].
+ *
+ * @property id The ID of the swap that this row displays, which is also the key of this row.
+ * @property direction The direction of the swap, as a human-readable string.
+ */
+@Immutable
+private data class SwapRow(val id: UUID, val direction: String)
+
 /**
  * Displays the vertically and horizontally centered words "No Swaps Found".
  */
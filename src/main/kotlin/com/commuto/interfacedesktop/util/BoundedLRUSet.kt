@@ -0,0 +1,65 @@
+package com.commuto.interfacedesktop.util
+
+/**
+ * A thread-safe set that holds at most [capacity] elements. When an element is added to a full set, the least recently
+ * added or queried element is evicted.
+ *
+ * @param capacity The maximum number of elements this set holds.
+ *
+ * @property elements A [LinkedHashMap] in access order, the keys of which are the elements of this set.
+ */
+class BoundedLRUSet<T>(private val capacity: Int) {
+
+    init {
+        require(capacity > 0) { "Capacity must be positive, was $capacity" }
+    }
+
+    private val elements = object : LinkedHashMap<T, Boolean>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<T, Boolean>?): Boolean {
+            return size > capacity
+        }
+    }
+
+    /**
+     * The number of elements in this set.
+     */
+    val size: Int
+        @Synchronized get() = elements.size
+
+    /**
+     * Adds [element] to this set, evicting the least recently used element if this set is full.
+     *
+     * @param element The element to add.
+     *
+     * @return `true` if [element] was not already in this set, `false` if it was.
+     */
+    @Synchronized
+    fun add(element: T): Boolean {
+        return elements.put(element, true) == null
+    }
+
+    /**
+     * Determines whether [element] is in this set, marking it as recently used if it is.
+     *
+     * @param element The element to look for.
+     *
+     * @return `true` if [element] is in this set, `false` otherwise.
+     */
+    @Synchronized
+    fun contains(element: T): Boolean {
+        return elements[element] != null
+    }
+
+    /**
+     * Removes [element] from this set.
+     *
+     * @param element The element to remove.
+     *
+     * @return `true` if [element] was in this set, `false` otherwise.
+     */
+    @Synchronized
+    fun remove(element: T): Boolean {
+        return elements.remove(element) != null
+    }
+
+}
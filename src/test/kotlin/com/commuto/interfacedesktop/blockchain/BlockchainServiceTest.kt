@@ -9,9 +9,11 @@ import com.commuto.interfacedesktop.dispute.DisputeNotifiable
 import com.commuto.interfacedesktop.dispute.TestDisputeService
 import com.commuto.interfacedesktop.key.KeyManagerService
 import com.commuto.interfacedesktop.offer.*
+import com.commuto.interfacedesktop.swap.Swap
 import com.commuto.interfacedesktop.swap.SwapNotifiable
 import com.commuto.interfacedesktop.swap.SwapServiceTests
 import com.commuto.interfacedesktop.swap.TestSwapService
+import com.commuto.interfacedesktop.ui.StablecoinInformationRepository
 import com.commuto.interfacedesktop.ui.offer.OffersViewModel
 import io.ktor.client.*
 import io.ktor.client.call.*
@@ -51,7 +53,7 @@ class BlockchainServiceTest {
             keyManagerService = KeyManagerService(databaseService),
             swapService = TestSwapService()
         )
-        OffersViewModel(offersService)
+        OffersViewModel(offersService, StablecoinInformationRepository.hardhatStablecoinInfoRepo)
         val blockchainService = BlockchainService(
             errorHandler = TestBlockchainExceptionHandler(),
             offerService = offersService,
@@ -672,6 +674,7 @@ class BlockchainServiceTest {
                 exception: BlockchainTransactionException
             ) {}
             override suspend fun handleNewSwap(takenOffer: Offer) {}
+            override fun attachSwapToTransactionHashIndex(swap: Swap) {}
             override suspend fun handleTokenTransferApprovalEvent(event: ApprovalEvent) {}
             override suspend fun handleSwapFilledEvent(event: SwapFilledEvent) {
                 swapFilledEventChannel.send(event)
@@ -742,6 +745,7 @@ class BlockchainServiceTest {
                 exception: BlockchainTransactionException
             ) {}
             override suspend fun handleNewSwap(takenOffer: Offer) {}
+            override fun attachSwapToTransactionHashIndex(swap: Swap) {}
             override suspend fun handleTokenTransferApprovalEvent(event: ApprovalEvent) {}
             override suspend fun handleSwapFilledEvent(event: SwapFilledEvent) {}
             override suspend fun handlePaymentSentEvent(event: PaymentSentEvent) {
@@ -812,6 +816,7 @@ class BlockchainServiceTest {
                 exception: BlockchainTransactionException
             ) {}
             override suspend fun handleNewSwap(takenOffer: Offer) {}
+            override fun attachSwapToTransactionHashIndex(swap: Swap) {}
             override suspend fun handleTokenTransferApprovalEvent(event: ApprovalEvent) {}
             override suspend fun handleSwapFilledEvent(event: SwapFilledEvent) {}
             override suspend fun handlePaymentSentEvent(event: PaymentSentEvent) {}
@@ -885,6 +890,7 @@ class BlockchainServiceTest {
                 exception: BlockchainTransactionException
             ) {}
             override suspend fun handleNewSwap(takenOffer: Offer) {}
+            override fun attachSwapToTransactionHashIndex(swap: Swap) {}
             override suspend fun handleTokenTransferApprovalEvent(event: ApprovalEvent) {}
             override suspend fun handleSwapFilledEvent(event: SwapFilledEvent) {}
             override suspend fun handlePaymentSentEvent(event: PaymentSentEvent) {}
@@ -958,6 +964,7 @@ class BlockchainServiceTest {
                 exception: BlockchainTransactionException
             ) {}
             override suspend fun handleNewSwap(takenOffer: Offer) {}
+            override fun attachSwapToTransactionHashIndex(swap: Swap) {}
             override suspend fun handleTokenTransferApprovalEvent(event: ApprovalEvent) {}
             override suspend fun handleSwapFilledEvent(event: SwapFilledEvent) {}
             override suspend fun handlePaymentSentEvent(event: PaymentSentEvent) {}
@@ -0,0 +1,133 @@
+package com.commuto.interfacedesktop.blockchain
+
+import com.commuto.interfacedesktop.blockchain.events.erc20.TokenTransferApprovalPurpose
+import kotlinx.coroutines.runBlocking
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.web3j.abi.EventEncoder
+import org.web3j.contracts.eip20.generated.ERC20
+import org.web3j.protocol.core.methods.response.Log
+import org.web3j.protocol.core.methods.response.TransactionReceipt
+import org.web3j.utils.Numeric
+import java.math.BigInteger
+import java.util.*
+
+/**
+ * Tests for [TokenAllowanceTracker].
+ */
+class TokenAllowanceTrackerTests {
+
+    private val token = "0x0000000000000000000000000000000000000001"
+    private val owner = "0x0000000000000000000000000000000000000002"
+    private val spender = "0x0000000000000000000000000000000000000003"
+
+    /**
+     * Ensures that an allowance is read from the token contract only once, and that reserved allowance cannot be
+     * reserved again until it is released.
+     */
+    @Test
+    fun testReserveAndRelease() = runBlocking {
+        var onChainReads = 0
+        val tracker = TokenAllowanceTracker { _, _, _ ->
+            onChainReads++
+            BigInteger.valueOf(100L)
+        }
+        val firstID = UUID.randomUUID()
+        assertTrue(tracker.reserve(token, owner, spender, BigInteger.valueOf(60L),
+            TokenTransferApprovalPurpose.OPEN_OFFER, firstID))
+        assertFalse(tracker.reserve(token, owner.uppercase(), spender, BigInteger.valueOf(60L),
+            TokenTransferApprovalPurpose.TAKE_OFFER, UUID.randomUUID()))
+        tracker.release(TokenTransferApprovalPurpose.OPEN_OFFER, firstID)
+        assertTrue(tracker.reserve(token, owner, spender, BigInteger.valueOf(100L),
+            TokenTransferApprovalPurpose.TAKE_OFFER, UUID.randomUUID()))
+        assertEquals(1, onChainReads)
+    }
+
+    /**
+     * Ensures that `Approval` events replace tracked allowances, and that `Transfer` events reduce limited allowances
+     * but not unlimited ones.
+     */
+    @Test
+    fun testApprovalAndTransfer() = runBlocking {
+        val tracker = TokenAllowanceTracker { _, _, _ -> BigInteger.ZERO }
+        val id = UUID.randomUUID()
+        assertFalse(tracker.reserve(token, owner, spender, BigInteger.TEN, TokenTransferApprovalPurpose.OPEN_OFFER, id))
+        tracker.handleApproval(token, owner, spender, BigInteger.valueOf(15L))
+        assertTrue(tracker.reserve(token, owner, spender, BigInteger.TEN, TokenTransferApprovalPurpose.OPEN_OFFER, id))
+        tracker.handleTransfer(token, owner, spender, BigInteger.TEN)
+        tracker.settle(TokenTransferApprovalPurpose.OPEN_OFFER, id)
+        assertFalse(tracker.reserve(token, owner, spender, BigInteger.TEN, TokenTransferApprovalPurpose.OPEN_OFFER,
+            UUID.randomUUID()))
+        assertTrue(tracker.reserve(token, owner, spender, BigInteger.valueOf(5L),
+            TokenTransferApprovalPurpose.OPEN_OFFER, UUID.randomUUID()))
+        tracker.handleApproval(token, owner, spender, TokenAllowanceTracker.MAX_UINT256)
+        tracker.handleTransfer(token, owner, spender, BigInteger.valueOf(5L))
+        assertTrue(tracker.reserve(token, owner, spender, TokenAllowanceTracker.MAX_UINT256,
+            TokenTransferApprovalPurpose.FILL_SWAP, UUID.randomUUID()))
+    }
+
+    /**
+     * Ensures that when one action reserves allowance without approval and another action needs an approval, the
+     * approval covers the first action's reservation as well as the second action's amount, that no allowance can be
+     * reserved while the approval is unconfirmed, and that the second action's amount is reserved when the approval is
+     * confirmed, until the actions settle or release their reservations.
+     */
+    @Test
+    fun testInterleavedReservationAndApproval() = runBlocking {
+        val tracker = TokenAllowanceTracker { _, _, _ -> BigInteger.valueOf(100L) }
+        val openedOfferID = UUID.randomUUID()
+        val takenOfferID = UUID.randomUUID()
+        assertTrue(tracker.reserve(token, owner, spender, BigInteger.valueOf(60L),
+            TokenTransferApprovalPurpose.OPEN_OFFER, openedOfferID))
+        assertFalse(tracker.reserve(token, owner, spender, BigInteger.valueOf(70L),
+            TokenTransferApprovalPurpose.TAKE_OFFER, takenOfferID))
+        val approvalAmount = tracker.getApprovalAmount(token, owner, spender, BigInteger.valueOf(70L))
+        assertEquals(BigInteger.valueOf(130L), approvalAmount)
+        tracker.expectApproval("0xAB", token, owner, spender, BigInteger.valueOf(70L),
+            TokenTransferApprovalPurpose.TAKE_OFFER, takenOfferID)
+        // The pending approval would replace any allowance reserved now, so nothing may be reserved
+        assertFalse(tracker.reserve(token, owner, spender, BigInteger.ONE, TokenTransferApprovalPurpose.FILL_SWAP,
+            UUID.randomUUID()))
+        assertEquals(BigInteger.valueOf(131L), tracker.getApprovalAmount(token, owner, spender, BigInteger.ONE))
+        tracker.handleReceipt(createApprovalReceipt(transactionHash = "0xab", value = approvalAmount))
+        // Both the skipped and the confirmed approval are now reserved
+        assertFalse(tracker.reserve(token, owner, spender, BigInteger.ONE, TokenTransferApprovalPurpose.FILL_SWAP,
+            UUID.randomUUID()))
+        tracker.handleTransfer(token, owner, spender, BigInteger.valueOf(60L))
+        tracker.settle(TokenTransferApprovalPurpose.OPEN_OFFER, openedOfferID)
+        assertFalse(tracker.reserve(token, owner, spender, BigInteger.ONE, TokenTransferApprovalPurpose.FILL_SWAP,
+            UUID.randomUUID()))
+        tracker.release(TokenTransferApprovalPurpose.TAKE_OFFER, takenOfferID)
+        assertTrue(tracker.reserve(token, owner, spender, BigInteger.valueOf(70L),
+            TokenTransferApprovalPurpose.FILL_SWAP, UUID.randomUUID()))
+    }
+
+    /**
+     * Creates a [TransactionReceipt] of an approval of [value] of [owner]'s [token] tokens for [spender].
+     *
+     * @param transactionHash The hash of the approval transaction.
+     * @param value The approved amount.
+     *
+     * @return A [TransactionReceipt] containing the `Approval` event of the approval.
+     */
+    private fun createApprovalReceipt(transactionHash: String, value: BigInteger): TransactionReceipt {
+        val approvalLog = Log().apply {
+            address = token
+            topics = listOf(
+                EventEncoder.encode(ERC20.APPROVAL_EVENT),
+                "0x" + Numeric.cleanHexPrefix(owner).padStart(64, '0'),
+                "0x" + Numeric.cleanHexPrefix(spender).padStart(64, '0'),
+            )
+            data = Numeric.toHexStringWithPrefixZeroPadded(value, 64)
+        }
+        return TransactionReceipt().apply {
+            this.transactionHash = transactionHash
+            to = token
+            status = "0x1"
+            logs = listOf(approvalLog)
+        }
+    }
+
+}
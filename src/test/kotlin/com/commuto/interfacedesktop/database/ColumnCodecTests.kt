@@ -0,0 +1,102 @@
+package com.commuto.interfacedesktop.database
+
+import com.commuto.interfacedesktop.key.keys.SymmetricKey
+import javax.crypto.AEADBadTagException
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertFalse
+
+/**
+ * Tests for [AuthenticatedColumnCodec].
+ */
+class ColumnCodecTests {
+
+    private val key = SymmetricKey()
+
+    private val codec = AuthenticatedColumnCodec(key)
+
+    private val associatedData = ColumnCodec.associatedData(
+        "UserSettlementMethod",
+        "privateData",
+        "a_settlement_method"
+    )
+
+    /**
+     * Ensures that values encoded by [AuthenticatedColumnCodec] are decoded to the original values, and that encoding
+     * the same value twice produces different encoded values.
+     */
+    @Test
+    fun testEncodeAndDecode() {
+        val encodedValue = codec.encode("some_private_data".toByteArray(), associatedData)
+        assertEquals("some_private_data", codec.decode(encodedValue, associatedData).decodeToString())
+        assertFalse(encodedValue.contentEquals(codec.encode("some_private_data".toByteArray(), associatedData)))
+        assertEquals(0, codec.decode(codec.encode(ByteArray(0), associatedData), associatedData).size)
+    }
+
+    /**
+     * Ensures that [AuthenticatedColumnCodec.decode] fails for modified values rather than returning garbage.
+     */
+    @Test
+    fun testDecodeModifiedValue() {
+        val encodedValue = codec.encode("some_private_data".toByteArray(), associatedData)
+        encodedValue[encodedValue.size - 1] = (encodedValue.last() + 1).toByte()
+        assertFailsWith<AEADBadTagException> {
+            codec.decode(encodedValue, associatedData)
+        }
+        assertFailsWith<IllegalArgumentException> {
+            codec.decode(byteArrayOf(AuthenticatedColumnCodec.FORMAT_VERSION), associatedData)
+        }
+    }
+
+    /**
+     * Ensures that [AuthenticatedColumnCodec.decode] fails for values that are moved to a different row or column than
+     * that in which they were stored.
+     */
+    @Test
+    fun testDecodeMovedValue() {
+        val encodedValue = codec.encode("some_private_data".toByteArray(), associatedData)
+        assertFailsWith<AEADBadTagException> {
+            codec.decode(
+                encodedValue,
+                ColumnCodec.associatedData("UserSettlementMethod", "privateData", "another_settlement_method")
+            )
+        }
+        assertFailsWith<AEADBadTagException> {
+            codec.decode(
+                encodedValue,
+                ColumnCodec.associatedData("OfferSettlementMethod", "privateData", "a_settlement_method")
+            )
+        }
+    }
+
+    /**
+     * Ensures that [AuthenticatedColumnCodec.decodeAll] returns `null` for `null` values and values that cannot be
+     * decoded, and that exceptions other than decoding failures are propagated.
+     */
+    @Test
+    fun testDecodeAll() {
+        val decodedValues = codec.decodeAll(listOf(
+            StoredColumnValue(codec.encode("new_data".toByteArray(), associatedData), associatedData),
+            StoredColumnValue(null, associatedData),
+            StoredColumnValue(byteArrayOf(AuthenticatedColumnCodec.FORMAT_VERSION), associatedData),
+            StoredColumnValue(
+                AuthenticatedColumnCodec(SymmetricKey()).encode("other_key_data".toByteArray(), associatedData),
+                associatedData
+            ),
+        ))
+        assertEquals(listOf("new_data", null, null, null), decodedValues.map { it?.decodeToString() })
+        val failingCodec = object : ColumnCodec {
+            override fun encode(value: ByteArray, associatedData: String): ByteArray {
+                return codec.encode(value, associatedData)
+            }
+            override fun decode(storedValue: ByteArray, associatedData: String): ByteArray {
+                throw IllegalStateException("Cipher is unavailable")
+            }
+        }
+        assertFailsWith<IllegalStateException> {
+            failingCodec.decodeAll(listOf(StoredColumnValue(ByteArray(1), associatedData)))
+        }
+    }
+
+}
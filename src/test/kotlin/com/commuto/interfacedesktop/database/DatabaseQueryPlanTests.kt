@@ -0,0 +1,52 @@
+package com.commuto.interfacedesktop.database
+
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.io.File
+
+/**
+ * Tests the query plans of the statements in CommutoInterfaceDB.sq.
+ */
+class DatabaseQueryPlanTests {
+
+    /**
+     * Ensures that every statement in CommutoInterfaceDB.sq that filters rows finds them using an index or the rowid
+     * rather than a full table scan.
+     */
+    @Test
+    fun testFilteringStatementsUseIndexes() {
+        val statements = Regex("""(?ms)^(\w+):\n(.*?);""")
+            .findAll(File("src/main/sqldelight/com/commuto/interfacedesktop/db/CommutoInterfaceDB.sq").readText())
+            .associate { it.groupValues[1] to it.groupValues[2].trim() }
+        val driver = DatabaseDriverFactory().createDriver()
+        // Create all tables and indexes, removing the Kotlin types of columns that SQLite doesn't understand
+        statements.filterKeys { it.startsWith("create") }.values.forEach {
+            driver.execute(null, it.replace(Regex("""\b(TEXT|BLOB|INTEGER) AS \w+"""), "$1"), 0)
+        }
+        // Partial indexes are created with WHERE clauses, but have no query plans of their own
+        val filteringStatements = statements.filter { (label, statement) ->
+            !label.startsWith("create") && statement.contains("WHERE")
+        }
+        assertTrue(filteringStatements.isNotEmpty())
+        for ((label, statement) in filteringStatements) {
+            val cursor = driver.executeQuery(null, "EXPLAIN QUERY PLAN ${statement.replace("?", "'0'")}", 0)
+            val planDetails = mutableListOf<String>()
+            try {
+                while (cursor.next()) {
+                    planDetails.add(cursor.getString(3) ?: "")
+                }
+            } finally {
+                cursor.close()
+            }
+            assertTrue("$label has no query plan", planDetails.isNotEmpty())
+            assertTrue(
+                "$label does not use an index: $planDetails",
+                planDetails.all {
+                    it.contains("USING INDEX") || it.contains("USING COVERING INDEX") ||
+                            it.contains("USING INTEGER PRIMARY KEY")
+                }
+            )
+        }
+    }
+
+}
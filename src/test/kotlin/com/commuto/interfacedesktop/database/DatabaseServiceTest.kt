@@ -1,17 +1,31 @@
 package com.commuto.interfacedesktop.database
 
 import com.commuto.interfacedesktop.db.*
+import com.commuto.interfacedesktop.extension.asByteArray
+import com.commuto.interfacedesktop.key.keys.SymmetricKey
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.currentCoroutineContext
 import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.withContext
 import org.junit.Assert
 import kotlin.test.BeforeTest
 import kotlin.test.Test
 import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
 import org.junit.Assert.assertNull
+import java.io.File
+import java.math.BigInteger
 import java.util.*
 
 class DatabaseServiceTest {
     private var driver = DatabaseDriverFactory()
     private var databaseService = DatabaseService(driver)
+    private val anID = UUID.randomUUID()
+    private val aChainID = BigInteger.valueOf(31337L)
 
     @BeforeTest
     fun testCreateTables() {
@@ -21,19 +35,19 @@ class DatabaseServiceTest {
     @Test
     fun testStoreAndGetAndDeleteOffer() = runBlocking {
         val offerToStore = Offer(
-            "a_uuid",
+            anID,
             1L,
             0L,
             "maker_address",
             "interface_id",
             "stablecoin_address",
-            "lower_bound_amount",
-            "upper_bound_amount",
-            "security_deposit_amount",
-            "service_fee_rate",
+            BigInteger.valueOf(100L),
+            BigInteger.valueOf(200L),
+            BigInteger.valueOf(20L),
+            BigInteger.valueOf(100L),
             "direction",
             "some_version",
-            "a_chain_id",
+            aChainID,
             0L,
             0L,
             "a_state_here",
@@ -64,19 +78,19 @@ class DatabaseServiceTest {
         )
         databaseService.storeOffer(offerToStore)
         val anotherOfferToStore = Offer(
-            "a_uuid",
+            anID,
             1L,
             0L,
             "another_maker_address",
             "another_interface_id",
             "another_stablecoin_address",
-            "another_lower_bound_amount",
-            "another_upper_bound_amount",
-            "another_security_deposit_amount",
-            "another_service_fee_rate",
+            BigInteger.valueOf(101L),
+            BigInteger.valueOf(201L),
+            BigInteger.valueOf(21L),
+            BigInteger.valueOf(101L),
             "opposite_direction",
             "some_other_version",
-            "another_chain_id",
+            BigInteger.valueOf(31338L),
             0L,
             0L,
             "a_state_here",
@@ -108,29 +122,29 @@ class DatabaseServiceTest {
         // This should do nothing and not throw
         databaseService.storeOffer(anotherOfferToStore)
         // This should not throw since only one such Offer should exist in the database
-        val returnedOffer = databaseService.getOffer("a_uuid")
+        val returnedOffer = databaseService.getOffer(anID)
         assertEquals(returnedOffer, offerToStore)
-        databaseService.deleteOffers("a_uuid", "a_chain_id")
-        val returnedOfferAfterDeletion = databaseService.getOffer("a_uuid")
+        databaseService.deleteOffers(anID, aChainID)
+        val returnedOfferAfterDeletion = databaseService.getOffer(anID)
         assertEquals(null, returnedOfferAfterDeletion)
     }
 
     @org.junit.Test
     fun testUpdateOfferHavePublicKey() = runBlocking {
         val offerToStore = Offer(
-            "a_uuid",
+            anID,
             1L,
             0L,
             "maker_address",
             "interface_id",
             "stablecoin_address",
-            "lower_bound_amount",
-            "upper_bound_amount",
-            "security_deposit_amount",
-            "service_fee_rate",
+            BigInteger.valueOf(100L),
+            BigInteger.valueOf(200L),
+            BigInteger.valueOf(20L),
+            BigInteger.valueOf(100L),
             "direction",
             "some_version",
-            "a_chain_id",
+            aChainID,
             0L,
             0L,
             "a_state_here",
@@ -160,30 +174,308 @@ class DatabaseServiceTest {
             -1,
         )
         databaseService.storeOffer(offerToStore)
-        databaseService.updateOfferHavePublicKey("a_uuid", "a_chain_id", true)
-        val returnedOffer = databaseService.getOffer("a_uuid")
+        databaseService.updateOfferHavePublicKey(anID, aChainID, true)
+        val returnedOffer = databaseService.getOffer(anID)
         Assert.assertEquals(returnedOffer!!.havePublicKey, 1L)
     }
 
+    /**
+     * Ensures that updates made within [DatabaseService.batchWrites] are coalesced, can be read within the unit of work,
+     * and are committed when it ends.
+     */
+    @org.junit.Test
+    fun testBatchWrites() = runBlocking {
+        val offerToStore = Offer(
+            anID,
+            1L,
+            0L,
+            "maker_address",
+            "interface_id",
+            "stablecoin_address",
+            BigInteger.valueOf(100L),
+            BigInteger.valueOf(200L),
+            BigInteger.valueOf(20L),
+            BigInteger.valueOf(100L),
+            "direction",
+            "some_version",
+            aChainID,
+            0L,
+            0L,
+            "a_state_here",
+            "a_tokenTransferApprovalState_here",
+            "a_tx_hash_here",
+            "a_time_here",
+            -1,
+            "an_openingOfferState_here",
+            "a_tx_hash_here",
+            "a_time_here",
+            -1,
+            "a_cancelingOfferState_here",
+            "a_tx_hash_here",
+            "a_time_here",
+            -1,
+            "an_editingOfferState_here",
+            "a_tx_hash_here",
+            "a_time_here",
+            -1,
+            "a_tokenTransferApprovalState_here",
+            "a_tx_hash_here",
+            "a_time_here",
+            -1,
+            "a_takingOfferState_here",
+            "a_tx_hash_here",
+            "a_time_here",
+            -1,
+        )
+        databaseService.storeOffer(offerToStore)
+        databaseService.batchWrites {
+            databaseService.updateOfferState(anID, aChainID, "an_intermediate_state_here")
+            databaseService.updateOpeningOfferState(anID, aChainID, "a_new_openingOfferState_here")
+            databaseService.updateOfferState(anID, aChainID, "a_new_state_here")
+            // Reads within the unit of work see its writes
+            assertEquals("a_new_state_here", databaseService.getOffer(anID)!!.state)
+            databaseService.updateCancelingOfferState(anID, aChainID, "a_new_cancelingOfferState_here")
+        }
+        val returnedOffer = databaseService.getOffer(anID)!!
+        assertEquals("a_new_state_here", returnedOffer.state)
+        assertEquals("a_new_openingOfferState_here", returnedOffer.openingOfferState)
+        assertEquals("a_new_cancelingOfferState_here", returnedOffer.cancelingOfferState)
+    }
+
+    /**
+     * Ensures that updates deferred within [DatabaseService.batchWrites] are discarded if the unit of work throws, and
+     * that updates made with the unit of work's context after it has ended are executed rather than lost.
+     */
+    @Test
+    fun testBatchWritesFailureAndLateWrites() = runBlocking {
+        val offerToStore = Offer(
+            anID,
+            1L,
+            0L,
+            "maker_address",
+            "interface_id",
+            "stablecoin_address",
+            BigInteger.valueOf(100L),
+            BigInteger.valueOf(200L),
+            BigInteger.valueOf(20L),
+            BigInteger.valueOf(100L),
+            "direction",
+            "some_version",
+            aChainID,
+            0L,
+            0L,
+            "a_state_here",
+            "a_tokenTransferApprovalState_here",
+            "a_tx_hash_here",
+            "a_time_here",
+            -1,
+            "an_openingOfferState_here",
+            "a_tx_hash_here",
+            "a_time_here",
+            -1,
+            "a_cancelingOfferState_here",
+            "a_tx_hash_here",
+            "a_time_here",
+            -1,
+            "an_editingOfferState_here",
+            "a_tx_hash_here",
+            "a_time_here",
+            -1,
+            "a_tokenTransferApprovalState_here",
+            "a_tx_hash_here",
+            "a_time_here",
+            -1,
+            "a_takingOfferState_here",
+            "a_tx_hash_here",
+            "a_time_here",
+            -1,
+        )
+        databaseService.storeOffer(offerToStore)
+        try {
+            databaseService.batchWrites {
+                databaseService.updateOfferState(anID, aChainID, "a_discarded_state_here")
+                throw IllegalStateException("test")
+            }
+        } catch (exception: IllegalStateException) { }
+        assertEquals("a_state_here", databaseService.getOffer(anID)!!.state)
+        val batch = databaseService.batchWrites {
+            currentCoroutineContext()[DatabaseWriteBatch]!!
+        }
+        assertTrue(batch.isClosed)
+        // Simulates a child coroutine of the unit of work that writes after the unit of work has ended
+        withContext(batch) {
+            databaseService.updateOfferState(anID, aChainID, "a_late_state_here")
+        }
+        assertEquals("a_late_state_here", databaseService.getOffer(anID)!!.state)
+    }
+
+    /**
+     * Ensures that [DatabaseService.streamOffers] reads all offers in batches of the specified size, including offers
+     * with the same ID on different chains, each with its own settlement methods and decrypted private data.
+     */
+    @Test
+    fun testStreamOffers() = runBlocking {
+        // The second offer ID is used on two chains, and the offers with it are split across batches
+        val offerKeys = listOf(
+            Pair(UUID(0L, 1L), aChainID),
+            Pair(UUID(0L, 2L), aChainID),
+            Pair(UUID(0L, 2L), aChainID + BigInteger.ONE),
+        )
+        offerKeys.forEach { (offerID, chainID) ->
+            databaseService.storeOffer(Offer(
+                offerID,
+                1L,
+                0L,
+                "maker_address",
+                "interface_id",
+                "stablecoin_address",
+                BigInteger.valueOf(100L),
+                BigInteger.valueOf(200L),
+                BigInteger.valueOf(20L),
+                BigInteger.valueOf(100L),
+                "direction",
+                "some_version",
+                chainID,
+                0L,
+                0L,
+                "a_state_here",
+                "a_tokenTransferApprovalState_here",
+                null,
+                null,
+                null,
+                "an_openingOfferState_here",
+                null,
+                null,
+                null,
+                "a_cancelingOfferState_here",
+                null,
+                null,
+                null,
+                "an_editingOfferState_here",
+                null,
+                null,
+                null,
+                "a_tokenTransferApprovalState_here",
+                null,
+                null,
+                null,
+                "a_takingOfferState_here",
+                null,
+                null,
+                null,
+            ))
+            databaseService.storeOfferSettlementMethods(offerID, chainID, listOf(
+                Pair("settlement_method_for_$chainID", "private_data_for_$chainID"),
+            ))
+        }
+        val batches = mutableListOf<List<Pair<Offer, List<OfferSettlementMethod>>>>()
+        databaseService.streamOffers(batchSize = 2L).collect {
+            batches.add(it)
+        }
+        assertEquals(listOf(2, 1), batches.map { it.size })
+        assertEquals(offerKeys, batches.flatten().map { Pair(it.first.id, it.first.chainID) })
+        batches.flatten().forEach { (offer, settlementMethods) ->
+            assertEquals(1, settlementMethods.size)
+            assertEquals("settlement_method_for_${offer.chainID}", settlementMethods.first().settlementMethod)
+            assertEquals("private_data_for_${offer.chainID}", settlementMethods.first().privateData?.decodeToString())
+        }
+    }
+
+    /**
+     * Ensures that [DatabaseService.archiveInactiveEntities] moves taken and canceled offers into the archive, removing
+     * them and their settlement methods from the active tables, and that archived offers can be retrieved in pages,
+     * most recently archived first.
+     */
+    @Test
+    fun testArchiveInactiveOffers() = runBlocking {
+        val offerStates = listOf(
+            Pair(UUID(0L, 1L), "taken"),
+            Pair(UUID(0L, 2L), "canceled"),
+            Pair(UUID(0L, 3L), "offerOpened"),
+        )
+        offerStates.forEach { (offerID, state) ->
+            databaseService.storeOffer(Offer(
+                offerID,
+                1L,
+                0L,
+                "maker_address",
+                "interface_id",
+                "stablecoin_address",
+                BigInteger.valueOf(100L),
+                BigInteger.valueOf(200L),
+                BigInteger.valueOf(20L),
+                BigInteger.valueOf(100L),
+                "direction",
+                "some_version",
+                aChainID,
+                0L,
+                0L,
+                state,
+                "a_tokenTransferApprovalState_here",
+                null,
+                null,
+                null,
+                "an_openingOfferState_here",
+                null,
+                null,
+                null,
+                "a_cancelingOfferState_here",
+                null,
+                null,
+                null,
+                "an_editingOfferState_here",
+                null,
+                null,
+                null,
+                "a_tokenTransferApprovalState_here",
+                null,
+                null,
+                null,
+                "a_takingOfferState_here",
+                null,
+                null,
+                null,
+            ))
+            databaseService.storeOfferSettlementMethods(offerID, aChainID, listOf(
+                Pair("settlement_method_for_$offerID", "private_data_for_$offerID"),
+            ))
+        }
+        assertEquals(2, databaseService.archiveInactiveEntities(batchSize = 1L))
+        assertNull(databaseService.getOffer(UUID(0L, 1L)))
+        assertNull(databaseService.getOffer(UUID(0L, 2L)))
+        assertNull(databaseService.getOfferSettlementMethods(UUID(0L, 1L), aChainID))
+        assertEquals("offerOpened", databaseService.getOffer(UUID(0L, 3L))?.state)
+        val firstPage = databaseService.getArchivedOffers(limit = 1L)
+        assertEquals(listOf(UUID(0L, 2L)), firstPage.map { it.id })
+        assertEquals("canceled", firstPage.first().state)
+        val secondPage = databaseService.getArchivedOffers(beforeArchiveNumber = firstPage.last().archiveNumber)
+        assertEquals(listOf(UUID(0L, 1L)), secondPage.map { it.id })
+        // Archiving an offer directly archives it regardless of its state
+        databaseService.archiveOffer(UUID(0L, 3L), aChainID)
+        assertNull(databaseService.getOffer(UUID(0L, 3L)))
+        assertEquals(UUID(0L, 3L), databaseService.getArchivedOffers().first().id)
+        assertEquals(0, databaseService.archiveInactiveEntities())
+    }
+
     /**
      * Ensures that code to update a persistently stored [Offer.state] property works properly.
      */
     @org.junit.Test
     fun testUpdateOfferState() = runBlocking {
         val offerToStore = Offer(
-            "a_uuid",
+            anID,
             1L,
             0L,
             "maker_address",
             "interface_id",
             "stablecoin_address",
-            "lower_bound_amount",
-            "upper_bound_amount",
-            "security_deposit_amount",
-            "service_fee_rate",
+            BigInteger.valueOf(100L),
+            BigInteger.valueOf(200L),
+            BigInteger.valueOf(20L),
+            BigInteger.valueOf(100L),
             "direction",
             "some_version",
-            "a_chain_id",
+            aChainID,
             0L,
             0L,
             "a_state_here",
@@ -213,8 +505,8 @@ class DatabaseServiceTest {
             -1,
         )
         databaseService.storeOffer(offerToStore)
-        databaseService.updateOfferState("a_uuid", "a_chain_id", "a_new_state_here")
-        val returnedOffer = databaseService.getOffer("a_uuid")
+        databaseService.updateOfferState(anID, aChainID, "a_new_state_here")
+        val returnedOffer = databaseService.getOffer(anID)
         assertEquals("a_new_state_here", returnedOffer!!.state)
     }
 
@@ -224,19 +516,19 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateApproveToOpenState() = runBlocking {
         val offerToStore = Offer(
-            "a_uuid",
+            anID,
             1L,
             0L,
             "maker_address",
             "interface_id",
             "stablecoin_address",
-            "lower_bound_amount",
-            "upper_bound_amount",
-            "security_deposit_amount",
-            "service_fee_rate",
+            BigInteger.valueOf(100L),
+            BigInteger.valueOf(200L),
+            BigInteger.valueOf(20L),
+            BigInteger.valueOf(100L),
             "direction",
             "some_version",
-            "a_chain_id",
+            aChainID,
             0L,
             0L,
             "a_state_here",
@@ -267,11 +559,11 @@ class DatabaseServiceTest {
         )
         databaseService.storeOffer(offerToStore)
         databaseService.updateOfferApproveToOpenState(
-            offerID = "a_uuid",
-            chainID = "a_chain_id",
+            offerID = anID,
+            chainID = aChainID,
             state = "a_new_tokenTransferApprovalState_here",
         )
-        val returnedOffer = databaseService.getOffer(id = "a_uuid")
+        val returnedOffer = databaseService.getOffer(id = anID)
         assertEquals("a_new_tokenTransferApprovalState_here", returnedOffer!!.approveToOpenState)
     }
 
@@ -282,19 +574,19 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateApproveToOpenData() = runBlocking {
         val offerToStore = Offer(
-            "a_uuid",
+            anID,
             1L,
             0L,
             "maker_address",
             "interface_id",
             "stablecoin_address",
-            "lower_bound_amount",
-            "upper_bound_amount",
-            "security_deposit_amount",
-            "service_fee_rate",
+            BigInteger.valueOf(100L),
+            BigInteger.valueOf(200L),
+            BigInteger.valueOf(20L),
+            BigInteger.valueOf(100L),
             "direction",
             "some_version",
-            "a_chain_id",
+            aChainID,
             0L,
             0L,
             "a_state_here",
@@ -324,42 +616,173 @@ class DatabaseServiceTest {
             -1,
         )
         databaseService.storeOffer(offerToStore)
-        val returnedOfferBeforeUpdate = databaseService.getOffer(id = "a_uuid")
+        val returnedOfferBeforeUpdate = databaseService.getOffer(id = anID)
         assertNull(returnedOfferBeforeUpdate!!.approveToOpenTransactionHash)
         assertNull(returnedOfferBeforeUpdate.approveToOpenTransactionCreationTime)
         assertNull(returnedOfferBeforeUpdate.approveToOpenTransactionCreationBlockNumber)
         databaseService.updateOfferApproveToOpenData(
-            offerID = "a_uuid",
-            chainID = "a_chain_id",
+            offerID = anID,
+            chainID = aChainID,
             transactionHash = "a_tx_hash_here",
             creationTime = "a_creation_time",
             blockNumber = -1L
         )
-        val returnedOfferAfterUpdate = databaseService.getOffer(id = "a_uuid")
+        val returnedOfferAfterUpdate = databaseService.getOffer(id = anID)
         assertEquals("a_tx_hash_here", returnedOfferAfterUpdate!!.approveToOpenTransactionHash)
         assertEquals("a_creation_time", returnedOfferAfterUpdate.approveToOpenTransactionCreationTime)
         assertEquals(-1L, returnedOfferAfterUpdate.approveToOpenTransactionCreationBlockNumber)
     }
 
+    /**
+     * Ensures that the state and transaction data of an offer's actions are found by transaction hash, that actions
+     * that have not begun are read as having the state "none" and no transaction data, and that the actions of an
+     * offer are deleted along with it.
+     */
+    @Test
+    fun testGetEntityTransactions() = runBlocking {
+        val offerToStore = Offer(
+            anID,
+            1L,
+            0L,
+            "maker_address",
+            "interface_id",
+            "stablecoin_address",
+            BigInteger.valueOf(100L),
+            BigInteger.valueOf(200L),
+            BigInteger.valueOf(20L),
+            BigInteger.valueOf(100L),
+            "direction",
+            "some_version",
+            aChainID,
+            0L,
+            0L,
+            "a_state_here",
+            "none",
+            null,
+            null,
+            null,
+            "an_openingOfferState_here",
+            "an_opening_tx_hash",
+            "a_time_here",
+            -1,
+            "none",
+            null,
+            null,
+            null,
+            "none",
+            null,
+            null,
+            null,
+            "none",
+            null,
+            null,
+            null,
+            "none",
+            null,
+            null,
+            null,
+        )
+        databaseService.storeOffer(offerToStore)
+        assertEquals(offerToStore, databaseService.getOffer(id = anID))
+        val openingTransactions = databaseService.getEntityTransactions(transactionHash = "an_opening_tx_hash")
+        assertEquals(1, openingTransactions.size)
+        assertEquals(anID, openingTransactions[0].entityID)
+        assertEquals(aChainID, openingTransactions[0].chainID)
+        assertEquals(EntityTransactionAction.OPENING_OFFER.asString, openingTransactions[0].actionType)
+        assertEquals("an_openingOfferState_here", openingTransactions[0].state)
+        databaseService.updateOfferCancellationData(
+            offerID = anID,
+            chainID = aChainID,
+            transactionHash = "a_cancellation_tx_hash",
+            creationTime = "a_creation_time",
+            blockNumber = -1L
+        )
+        val cancellationTransactions = databaseService.getEntityTransactions(
+            transactionHash = "a_cancellation_tx_hash"
+        )
+        assertEquals(1, cancellationTransactions.size)
+        assertEquals(EntityTransactionAction.CANCELING_OFFER.asString, cancellationTransactions[0].actionType)
+        // Updating the transaction data of an action that has not begun doesn't change its state
+        assertEquals("none", databaseService.getOffer(id = anID)!!.cancelingOfferState)
+        databaseService.deleteOffers(offerID = anID, chainID = aChainID)
+        assertEquals(0, databaseService.getEntityTransactions(transactionHash = "an_opening_tx_hash").size)
+        assertEquals(0, databaseService.getEntityTransactions(transactionHash = "a_cancellation_tx_hash").size)
+    }
+
+    /**
+     * Ensures that storing an [Offer] with the same ID as an already stored offer, as happens when an event is replayed,
+     * neither throws nor changes the stored offer or the transaction data of its actions.
+     */
+    @Test
+    fun testDuplicateOfferProtection() = runBlocking {
+        val offerToStore = Offer(
+            anID,
+            1L,
+            0L,
+            "maker_address",
+            "interface_id",
+            "stablecoin_address",
+            BigInteger.valueOf(100L),
+            BigInteger.valueOf(200L),
+            BigInteger.valueOf(20L),
+            BigInteger.valueOf(100L),
+            "direction",
+            "some_version",
+            aChainID,
+            0L,
+            0L,
+            "a_state_here",
+            "none",
+            null,
+            null,
+            null,
+            "an_openingOfferState_here",
+            "an_opening_tx_hash",
+            "a_time_here",
+            -1,
+            "none",
+            null,
+            null,
+            null,
+            "none",
+            null,
+            null,
+            null,
+            "none",
+            null,
+            null,
+            null,
+            "none",
+            null,
+            null,
+            null,
+        )
+        assertTrue(databaseService.storeOffer(offerToStore))
+        // This should do nothing and not throw, even though the offer has an action with transaction data
+        assertFalse(databaseService.storeOffer(offerToStore.copy(maker = "another_maker_address")))
+        assertEquals(offerToStore, databaseService.getOffer(id = anID))
+        assertEquals(1, databaseService.getEntityTransactions(transactionHash = "an_opening_tx_hash").size)
+    }
+
     /**
      * Ensures that code to update a persistently stored offer's [Offer.openingOfferState] property works properly.
      */
     @Test
     fun testUpdateOpeningOfferState() = runBlocking {
         val offerToStore = Offer(
-            "a_uuid",
+            anID,
             1L,
             0L,
             "maker_address",
             "interface_id",
             "stablecoin_address",
-            "lower_bound_amount",
-            "upper_bound_amount",
-            "security_deposit_amount",
-            "service_fee_rate",
+            BigInteger.valueOf(100L),
+            BigInteger.valueOf(200L),
+            BigInteger.valueOf(20L),
+            BigInteger.valueOf(100L),
             "direction",
             "some_version",
-            "a_chain_id",
+            aChainID,
             0L,
             0L,
             "a_state_here",
@@ -390,11 +813,11 @@ class DatabaseServiceTest {
         )
         databaseService.storeOffer(offerToStore)
         databaseService.updateOpeningOfferState(
-            offerID = "a_uuid",
-            chainID = "a_chain_id",
+            offerID = anID,
+            chainID = aChainID,
             state = "a_new_openingOfferState_here",
         )
-        val returnedOffer = databaseService.getOffer(id = "a_uuid")
+        val returnedOffer = databaseService.getOffer(id = anID)
         assertEquals("a_new_openingOfferState_here", returnedOffer!!.openingOfferState)
     }
 
@@ -405,19 +828,19 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateOpeningOfferStateData() = runBlocking {
         val offerToStore = Offer(
-            "a_uuid",
+            anID,
             1L,
             0L,
             "maker_address",
             "interface_id",
             "stablecoin_address",
-            "lower_bound_amount",
-            "upper_bound_amount",
-            "security_deposit_amount",
-            "service_fee_rate",
+            BigInteger.valueOf(100L),
+            BigInteger.valueOf(200L),
+            BigInteger.valueOf(20L),
+            BigInteger.valueOf(100L),
             "direction",
             "some_version",
-            "a_chain_id",
+            aChainID,
             0L,
             0L,
             "a_state_here",
@@ -447,18 +870,18 @@ class DatabaseServiceTest {
             -1,
         )
         databaseService.storeOffer(offerToStore)
-        val returnedOfferBeforeUpdate = databaseService.getOffer(id = "a_uuid")
+        val returnedOfferBeforeUpdate = databaseService.getOffer(id = anID)
         assertNull(returnedOfferBeforeUpdate!!.openingOfferTransactionHash)
         assertNull(returnedOfferBeforeUpdate.openingOfferTransactionCreationTime)
         assertNull(returnedOfferBeforeUpdate.openingOfferTransactionCreationBlockNumber)
         databaseService.updateOpeningOfferData(
-            offerID = "a_uuid",
-            chainID = "a_chain_id",
+            offerID = anID,
+            chainID = aChainID,
             transactionHash = "a_tx_hash_here",
             creationTime = "a_creation_time",
             blockNumber = -1L
         )
-        val returnedOfferAfterUpdate = databaseService.getOffer(id = "a_uuid")
+        val returnedOfferAfterUpdate = databaseService.getOffer(id = anID)
         assertEquals("a_tx_hash_here", returnedOfferAfterUpdate!!.openingOfferTransactionHash)
         assertEquals("a_creation_time", returnedOfferAfterUpdate.openingOfferTransactionCreationTime)
         assertEquals(-1L, returnedOfferAfterUpdate.openingOfferTransactionCreationBlockNumber)
@@ -470,19 +893,19 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateCancelingOfferState() = runBlocking {
         val offerToStore = Offer(
-            "a_uuid",
+            anID,
             1L,
             0L,
             "maker_address",
             "interface_id",
             "stablecoin_address",
-            "lower_bound_amount",
-            "upper_bound_amount",
-            "security_deposit_amount",
-            "service_fee_rate",
+            BigInteger.valueOf(100L),
+            BigInteger.valueOf(200L),
+            BigInteger.valueOf(20L),
+            BigInteger.valueOf(100L),
             "direction",
             "some_version",
-            "a_chain_id",
+            aChainID,
             0L,
             0L,
             "a_state_here",
@@ -513,11 +936,11 @@ class DatabaseServiceTest {
         )
         databaseService.storeOffer(offerToStore)
         databaseService.updateCancelingOfferState(
-            offerID = "a_uuid",
-            chainID = "a_chain_id",
+            offerID = anID,
+            chainID = aChainID,
             state = "a_new_cancelingOfferState_here",
         )
-        val returnedOffer = databaseService.getOffer(id = "a_uuid")
+        val returnedOffer = databaseService.getOffer(id = anID)
         assertEquals("a_new_cancelingOfferState_here", returnedOffer!!.cancelingOfferState)
     }
 
@@ -528,19 +951,19 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateOfferCancellationData() = runBlocking {
         val offerToStore = Offer(
-            "a_uuid",
+            anID,
             1L,
             0L,
             "maker_address",
             "interface_id",
             "stablecoin_address",
-            "lower_bound_amount",
-            "upper_bound_amount",
-            "security_deposit_amount",
-            "service_fee_rate",
+            BigInteger.valueOf(100L),
+            BigInteger.valueOf(200L),
+            BigInteger.valueOf(20L),
+            BigInteger.valueOf(100L),
             "direction",
             "some_version",
-            "a_chain_id",
+            aChainID,
             0L,
             0L,
             "a_state_here",
@@ -570,18 +993,18 @@ class DatabaseServiceTest {
             -1,
         )
         databaseService.storeOffer(offerToStore)
-        val returnedOfferBeforeUpdate = databaseService.getOffer(id = "a_uuid")
+        val returnedOfferBeforeUpdate = databaseService.getOffer(id = anID)
         assertNull(returnedOfferBeforeUpdate!!.offerCancellationTransactionHash)
         assertNull(returnedOfferBeforeUpdate.offerCancellationTransactionCreationTime)
         assertNull(returnedOfferBeforeUpdate.offerCancellationTransactionCreationBlockNumber)
         databaseService.updateOfferCancellationData(
-            offerID = "a_uuid",
-            chainID = "a_chain_id",
+            offerID = anID,
+            chainID = aChainID,
             transactionHash = "a_tx_hash_here",
             creationTime = "a_creation_time",
             blockNumber = -1L
         )
-        val returnedOfferAfterUpdate = databaseService.getOffer(id = "a_uuid")
+        val returnedOfferAfterUpdate = databaseService.getOffer(id = anID)
         assertEquals("a_tx_hash_here", returnedOfferAfterUpdate!!.offerCancellationTransactionHash)
         assertEquals("a_creation_time", returnedOfferAfterUpdate.offerCancellationTransactionCreationTime)
         assertEquals(-1L, returnedOfferAfterUpdate.offerCancellationTransactionCreationBlockNumber)
@@ -593,19 +1016,19 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateEditingOfferState() = runBlocking {
         val offerToStore = Offer(
-            "a_uuid",
+            anID,
             1L,
             0L,
             "maker_address",
             "interface_id",
             "stablecoin_address",
-            "lower_bound_amount",
-            "upper_bound_amount",
-            "security_deposit_amount",
-            "service_fee_rate",
+            BigInteger.valueOf(100L),
+            BigInteger.valueOf(200L),
+            BigInteger.valueOf(20L),
+            BigInteger.valueOf(100L),
             "direction",
             "some_version",
-            "a_chain_id",
+            aChainID,
             0L,
             0L,
             "a_state_here",
@@ -636,11 +1059,11 @@ class DatabaseServiceTest {
         )
         databaseService.storeOffer(offerToStore)
         databaseService.updateEditingOfferState(
-            offerID = "a_uuid",
-            chainID = "a_chain_id",
+            offerID = anID,
+            chainID = aChainID,
             state = "a_new_editingOfferState_here",
         )
-        val returnedOffer = databaseService.getOffer(id = "a_uuid")
+        val returnedOffer = databaseService.getOffer(id = anID)
         assertEquals("a_new_editingOfferState_here", returnedOffer!!.editingOfferState)
     }
 
@@ -651,19 +1074,19 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateOfferEditingData() = runBlocking {
         val offerToStore = Offer(
-            "a_uuid",
+            anID,
             1L,
             0L,
             "maker_address",
             "interface_id",
             "stablecoin_address",
-            "lower_bound_amount",
-            "upper_bound_amount",
-            "security_deposit_amount",
-            "service_fee_rate",
+            BigInteger.valueOf(100L),
+            BigInteger.valueOf(200L),
+            BigInteger.valueOf(20L),
+            BigInteger.valueOf(100L),
             "direction",
             "some_version",
-            "a_chain_id",
+            aChainID,
             0L,
             0L,
             "a_state_here",
@@ -693,18 +1116,18 @@ class DatabaseServiceTest {
             -1,
         )
         databaseService.storeOffer(offerToStore)
-        val returnedOfferBeforeUpdate = databaseService.getOffer(id = "a_uuid")
+        val returnedOfferBeforeUpdate = databaseService.getOffer(id = anID)
         assertNull(returnedOfferBeforeUpdate!!.offerEditingTransactionHash)
         assertNull(returnedOfferBeforeUpdate.offerEditingTransactionCreationTime)
         assertNull(returnedOfferBeforeUpdate.offerEditingTransactionCreationBlockNumber)
         databaseService.updateOfferEditingData(
-            offerID = "a_uuid",
-            chainID = "a_chain_id",
+            offerID = anID,
+            chainID = aChainID,
             transactionHash = "a_tx_hash_here",
             creationTime = "a_creation_time",
             blockNumber = -1L
         )
-        val returnedOfferAfterUpdate = databaseService.getOffer(id = "a_uuid")
+        val returnedOfferAfterUpdate = databaseService.getOffer(id = anID)
         assertEquals("a_tx_hash_here", returnedOfferAfterUpdate!!.offerEditingTransactionHash)
         assertEquals("a_creation_time", returnedOfferAfterUpdate.offerEditingTransactionCreationTime)
         assertEquals(-1L, returnedOfferAfterUpdate.offerEditingTransactionCreationBlockNumber)
@@ -716,19 +1139,19 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateApproveToTakeState() = runBlocking {
         val offerToStore = Offer(
-            "a_uuid",
+            anID,
             1L,
             0L,
             "maker_address",
             "interface_id",
             "stablecoin_address",
-            "lower_bound_amount",
-            "upper_bound_amount",
-            "security_deposit_amount",
-            "service_fee_rate",
+            BigInteger.valueOf(100L),
+            BigInteger.valueOf(200L),
+            BigInteger.valueOf(20L),
+            BigInteger.valueOf(100L),
             "direction",
             "some_version",
-            "a_chain_id",
+            aChainID,
             0L,
             0L,
             "a_state_here",
@@ -759,11 +1182,11 @@ class DatabaseServiceTest {
         )
         databaseService.storeOffer(offerToStore)
         databaseService.updateOfferApproveToTakeState(
-            offerID = "a_uuid",
-            chainID = "a_chain_id",
+            offerID = anID,
+            chainID = aChainID,
             state = "a_new_tokenTransferApprovalState_here",
         )
-        val returnedOffer = databaseService.getOffer(id = "a_uuid")
+        val returnedOffer = databaseService.getOffer(id = anID)
         Assert.assertEquals("a_new_tokenTransferApprovalState_here", returnedOffer!!.approveToTakeState)
     }
 
@@ -774,19 +1197,19 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateApproveToTakeData() = runBlocking {
         val offerToStore = Offer(
-            "a_uuid",
+            anID,
             1L,
             0L,
             "maker_address",
             "interface_id",
             "stablecoin_address",
-            "lower_bound_amount",
-            "upper_bound_amount",
-            "security_deposit_amount",
-            "service_fee_rate",
+            BigInteger.valueOf(100L),
+            BigInteger.valueOf(200L),
+            BigInteger.valueOf(20L),
+            BigInteger.valueOf(100L),
             "direction",
             "some_version",
-            "a_chain_id",
+            aChainID,
             0L,
             0L,
             "a_state_here",
@@ -816,18 +1239,18 @@ class DatabaseServiceTest {
             -1,
         )
         databaseService.storeOffer(offerToStore)
-        val returnedOfferBeforeUpdate = databaseService.getOffer(id = "a_uuid")
+        val returnedOfferBeforeUpdate = databaseService.getOffer(id = anID)
         assertNull(returnedOfferBeforeUpdate!!.approveToTakeTransactionHash)
         assertNull(returnedOfferBeforeUpdate.approveToTakeTransactionCreationTime)
         assertNull(returnedOfferBeforeUpdate.approveToTakeTransactionCreationBlockNumber)
         databaseService.updateOfferApproveToTakeData(
-            offerID = "a_uuid",
-            chainID = "a_chain_id",
+            offerID = anID,
+            chainID = aChainID,
             transactionHash = "a_tx_hash_here",
             creationTime = "a_creation_time",
             blockNumber = -1L
         )
-        val returnedOfferAfterUpdate = databaseService.getOffer(id = "a_uuid")
+        val returnedOfferAfterUpdate = databaseService.getOffer(id = anID)
         Assert.assertEquals("a_tx_hash_here", returnedOfferAfterUpdate!!.approveToTakeTransactionHash)
         Assert.assertEquals("a_creation_time", returnedOfferAfterUpdate.approveToTakeTransactionCreationTime)
         Assert.assertEquals(-1L, returnedOfferAfterUpdate.approveToTakeTransactionCreationBlockNumber)
@@ -839,19 +1262,19 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateTakingOfferState() = runBlocking {
         val offerToStore = Offer(
-            "a_uuid",
+            anID,
             1L,
             0L,
             "maker_address",
             "interface_id",
             "stablecoin_address",
-            "lower_bound_amount",
-            "upper_bound_amount",
-            "security_deposit_amount",
-            "service_fee_rate",
+            BigInteger.valueOf(100L),
+            BigInteger.valueOf(200L),
+            BigInteger.valueOf(20L),
+            BigInteger.valueOf(100L),
             "direction",
             "some_version",
-            "a_chain_id",
+            aChainID,
             0L,
             0L,
             "a_state_here",
@@ -882,11 +1305,11 @@ class DatabaseServiceTest {
         )
         databaseService.storeOffer(offerToStore)
         databaseService.updateTakingOfferState(
-            offerID = "a_uuid",
-            chainID = "a_chain_id",
+            offerID = anID,
+            chainID = aChainID,
             state = "a_new_takingOfferState_here",
         )
-        val returnedOffer = databaseService.getOffer(id = "a_uuid")
+        val returnedOffer = databaseService.getOffer(id = anID)
         Assert.assertEquals("a_new_takingOfferState_here", returnedOffer!!.takingOfferState)
     }
 
@@ -897,19 +1320,19 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateTakingOfferStateData() = runBlocking {
         val offerToStore = Offer(
-            "a_uuid",
+            anID,
             1L,
             0L,
             "maker_address",
             "interface_id",
             "stablecoin_address",
-            "lower_bound_amount",
-            "upper_bound_amount",
-            "security_deposit_amount",
-            "service_fee_rate",
+            BigInteger.valueOf(100L),
+            BigInteger.valueOf(200L),
+            BigInteger.valueOf(20L),
+            BigInteger.valueOf(100L),
             "direction",
             "some_version",
-            "a_chain_id",
+            aChainID,
             0L,
             0L,
             "a_state_here",
@@ -939,18 +1362,18 @@ class DatabaseServiceTest {
             null,
         )
         databaseService.storeOffer(offerToStore)
-        val returnedOfferBeforeUpdate = databaseService.getOffer(id = "a_uuid")
+        val returnedOfferBeforeUpdate = databaseService.getOffer(id = anID)
         assertNull(returnedOfferBeforeUpdate!!.takingOfferTransactionHash)
         assertNull(returnedOfferBeforeUpdate.takingOfferTransactionCreationTime)
         assertNull(returnedOfferBeforeUpdate.takingOfferTransactionCreationBlockNumber)
         databaseService.updateTakingOfferData(
-            offerID = "a_uuid",
-            chainID = "a_chain_id",
+            offerID = anID,
+            chainID = aChainID,
             transactionHash = "a_tx_hash_here",
             creationTime = "a_creation_time",
             blockNumber = -1L
         )
-        val returnedOfferAfterUpdate = databaseService.getOffer(id = "a_uuid")
+        val returnedOfferAfterUpdate = databaseService.getOffer(id = anID)
         Assert.assertEquals("a_tx_hash_here", returnedOfferAfterUpdate!!.takingOfferTransactionHash)
         Assert.assertEquals("a_creation_time", returnedOfferAfterUpdate.takingOfferTransactionCreationTime)
         Assert.assertEquals(-1L, returnedOfferAfterUpdate.takingOfferTransactionCreationBlockNumber)
@@ -961,9 +1384,9 @@ class DatabaseServiceTest {
      */
     @Test
     fun testStoreAndGetAndDeleteSettlementMethods() = runBlocking {
-        val offerId = "an_offer_id"
-        val chainID = "a_chain_id"
-        val differentChainID = "different_chain_id"
+        val offerId = UUID.randomUUID()
+        val chainID = aChainID
+        val differentChainID = BigInteger.valueOf(31338L)
         val settlementMethods = listOf(
             Pair("settlement_method_zero", "private_data_zero"),
             Pair("settlement_method_one", "private_data_one"),
@@ -1006,14 +1429,52 @@ class DatabaseServiceTest {
         assertEquals("private_data_two", differentSettlementMethods[2].second)
     }
 
+    /**
+     * Ensures that [DatabaseService.updateOfferSettlementMethods] writes nothing when settlement methods are unchanged,
+     * and otherwise replaces only the changed settlement methods.
+     */
+    @Test
+    fun testUpdateOfferSettlementMethods() = runBlocking {
+        val offerId = UUID.randomUUID()
+        val chainID = aChainID
+        val settlementMethods = listOf(
+            Pair("settlement_method_zero", "private_data_zero"),
+            Pair("settlement_method_one", null),
+            Pair("settlement_method_two", "private_data_two"),
+        )
+        databaseService.storeOfferSettlementMethods(offerId, chainID, settlementMethods)
+        assertFalse(databaseService.updateOfferSettlementMethods(
+            offerID = offerId,
+            chainID = chainID,
+            oldSettlementMethods = settlementMethods,
+            newSettlementMethods = settlementMethods.reversed(),
+        ))
+        val newSettlementMethods = listOf(
+            Pair("settlement_method_zero", "private_data_zero"),
+            Pair("settlement_method_two", "new_private_data_two"),
+            Pair("settlement_method_three", null),
+        )
+        assertTrue(databaseService.updateOfferSettlementMethods(
+            offerID = offerId,
+            chainID = chainID,
+            oldSettlementMethods = settlementMethods,
+            newSettlementMethods = newSettlementMethods,
+        ))
+        val returnedSettlementMethods = databaseService.getOfferSettlementMethods(offerId, chainID)!!
+        assertEquals(3, returnedSettlementMethods.size)
+        assertEquals(newSettlementMethods.toSet(), returnedSettlementMethods.toSet())
+        // The unchanged settlement method is not rewritten, so it keeps its original position
+        assertEquals(Pair("settlement_method_zero", "private_data_zero"), returnedSettlementMethods[0])
+    }
+
     /**
      * Ensures code to store, get and delete pending settlement methods works properly.
      */
     @Test
     fun testStoreAndGetAndDeletePendingSettlementMethods() = runBlocking {
-        val offerID = "an_offer_id"
-        val chainID = "a_chain_id"
-        val differentChainID = "different_chain_id"
+        val offerID = UUID.randomUUID()
+        val chainID = aChainID
+        val differentChainID = BigInteger.valueOf(31338L)
         val settlementMethods = listOf(
             Pair("settlement_method_zero", "private_data_zero"),
             Pair("settlement_method_one", "private_data_one"),
@@ -1062,7 +1523,7 @@ class DatabaseServiceTest {
     @Test
     fun testStoreAndGetAndDeleteSwap() = runBlocking {
         val swapToStore = Swap(
-            id = "a_uuid",
+            id = anID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = "maker_address",
@@ -1070,25 +1531,23 @@ class DatabaseServiceTest {
             taker = "taker_address",
             takerInterfaceID = "taker_interface_id",
             stablecoin = "stablecoin_address",
-            amountLowerBound = "lower_bound_amount",
-            amountUpperBound = "upper_bound_amount",
-            securityDepositAmount = "security_deposit_amount",
-            takenSwapAmount = "taken_swap_amount",
-            serviceFeeAmount = "service_fee_amount",
-            serviceFeeRate = "service_fee_rate",
+            amountLowerBound = BigInteger.valueOf(100L),
+            amountUpperBound = BigInteger.valueOf(200L),
+            securityDepositAmount = BigInteger.valueOf(20L),
+            takenSwapAmount = BigInteger.valueOf(150L),
+            serviceFeeAmount = BigInteger.valueOf(15L),
+            serviceFeeRate = BigInteger.valueOf(100L),
             onChainDirection = "direction",
             settlementMethod = "settlement_method",
             protocolVersion = "some_version",
-            makerPrivateData = "maker_private_data",
-            makerPrivateDataInitializationVector = null,
-            takerPrivateData = "taker_private_data",
-            takerPrivateDataInitializationVector = null,
+            makerPrivateData = "maker_private_data".toByteArray(),
+            takerPrivateData = "taker_private_data".toByteArray(),
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = "dispute_raiser",
-            chainID = "a_chain_id",
+            chainID = aChainID,
             state = "a_state_here",
             role = "a_role_here",
             approveToFillState = "a_tokenTransferApprovalState_here",
@@ -1119,7 +1578,7 @@ class DatabaseServiceTest {
         )
         databaseService.storeSwap(swapToStore)
         val anotherSwapToStore = Swap(
-            id = "a_uuid",
+            id = anID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = "another_maker_address",
@@ -1127,25 +1586,23 @@ class DatabaseServiceTest {
             taker = "another_taker_address",
             takerInterfaceID = "another_taker_interface_id",
             stablecoin = "another_stablecoin_address",
-            amountLowerBound = "another_lower_bound_amount",
-            amountUpperBound = "another_upper_bound_amount",
-            securityDepositAmount = "another_security_deposit_amount",
-            takenSwapAmount = "another_taken_swap_amount",
-            serviceFeeAmount = "another_service_fee_amount",
-            serviceFeeRate = "another_service_fee_rate",
+            amountLowerBound = BigInteger.valueOf(101L),
+            amountUpperBound = BigInteger.valueOf(201L),
+            securityDepositAmount = BigInteger.valueOf(21L),
+            takenSwapAmount = BigInteger.valueOf(151L),
+            serviceFeeAmount = BigInteger.valueOf(16L),
+            serviceFeeRate = BigInteger.valueOf(101L),
             onChainDirection = "another_direction",
             settlementMethod = "another_settlement_method",
             protocolVersion = "another_some_version",
-            makerPrivateData = "maker_private_data",
-            makerPrivateDataInitializationVector = null,
-            takerPrivateData = "taker_private_data",
-            takerPrivateDataInitializationVector = null,
+            makerPrivateData = "maker_private_data".toByteArray(),
+            takerPrivateData = "taker_private_data".toByteArray(),
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = "another_dispute_raiser",
-            chainID = "another_chain_id",
+            chainID = BigInteger.valueOf(31338L),
             state = "another_state_here",
             role = "another_role_here",
             approveToFillState = "a_tokenTransferApprovalState_here",
@@ -1177,10 +1634,16 @@ class DatabaseServiceTest {
         // This should do nothing and not throw
         databaseService.storeSwap(anotherSwapToStore)
         // This should not throw since only one such Swap should exist in the database
-        val returnedSwap = databaseService.getSwap("a_uuid")
-        assertEquals(swapToStore, returnedSwap)
-        databaseService.deleteSwaps("a_uuid", "a_chain_id")
-        assertNull(databaseService.getSwap("a_uuid"))
+        val returnedSwap = databaseService.getSwap(anID)!!
+        // Private data is compared by content, since ByteArrays are compared by reference
+        assertEquals(
+            swapToStore.copy(makerPrivateData = null, takerPrivateData = null),
+            returnedSwap.copy(makerPrivateData = null, takerPrivateData = null)
+        )
+        assertEquals("maker_private_data", returnedSwap.makerPrivateData?.decodeToString())
+        assertEquals("taker_private_data", returnedSwap.takerPrivateData?.decodeToString())
+        databaseService.deleteSwaps(anID, aChainID)
+        assertNull(databaseService.getSwap(anID))
     }
 
     /**
@@ -1189,7 +1652,7 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateSwapRequiresFill() = runBlocking {
         val swapToStore = Swap(
-            id = "a_uuid",
+            id = anID,
             isCreated = 1L,
             requiresFill = 1L,
             maker = "maker_address",
@@ -1197,25 +1660,23 @@ class DatabaseServiceTest {
             taker = "taker_address",
             takerInterfaceID = "taker_interface_id",
             stablecoin = "stablecoin_address",
-            amountLowerBound = "lower_bound_amount",
-            amountUpperBound = "upper_bound_amount",
-            securityDepositAmount = "security_deposit_amount",
-            takenSwapAmount = "taken_swap_amount",
-            serviceFeeAmount = "service_fee_amount",
-            serviceFeeRate = "service_fee_rate",
+            amountLowerBound = BigInteger.valueOf(100L),
+            amountUpperBound = BigInteger.valueOf(200L),
+            securityDepositAmount = BigInteger.valueOf(20L),
+            takenSwapAmount = BigInteger.valueOf(150L),
+            serviceFeeAmount = BigInteger.valueOf(15L),
+            serviceFeeRate = BigInteger.valueOf(100L),
             onChainDirection = "direction",
             settlementMethod = "settlement_method",
-            makerPrivateData = "maker_private_data",
-            makerPrivateDataInitializationVector = "maker_init_vector",
-            takerPrivateData = "taker_private_data",
-            takerPrivateDataInitializationVector = "taker_private_data",
+            makerPrivateData = "maker_private_data".toByteArray(),
+            takerPrivateData = "taker_private_data".toByteArray(),
             protocolVersion = "some_version",
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = "dispute_raiser",
-            chainID = "a_chain_id",
+            chainID = aChainID,
             state = "a_state_here",
             role = "a_role_here",
             approveToFillState = "a_tokenTransferApprovalState_here",
@@ -1245,8 +1706,8 @@ class DatabaseServiceTest {
             raisingDisputeTransactionCreationBlockNumber = -1L,
         )
         databaseService.storeSwap(swapToStore)
-        databaseService.updateSwapRequiresFill("a_uuid", "a_chain_id", false)
-        val returnedSwap = databaseService.getSwap("a_uuid")
+        databaseService.updateSwapRequiresFill(anID, aChainID, false)
+        val returnedSwap = databaseService.getSwap(anID)
         assertEquals(0L, returnedSwap!!.requiresFill)
     }
 
@@ -1257,7 +1718,7 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateSwapMakerPrivateSettlementMethodData() = runBlocking {
         val swapToStore = Swap(
-            id = "a_uuid",
+            id = anID,
             isCreated = 1L,
             requiresFill = 1L,
             maker = "maker_address",
@@ -1265,25 +1726,23 @@ class DatabaseServiceTest {
             taker = "taker_address",
             takerInterfaceID = "taker_interface_id",
             stablecoin = "stablecoin_address",
-            amountLowerBound = "lower_bound_amount",
-            amountUpperBound = "upper_bound_amount",
-            securityDepositAmount = "security_deposit_amount",
-            takenSwapAmount = "taken_swap_amount",
-            serviceFeeAmount = "service_fee_amount",
-            serviceFeeRate = "service_fee_rate",
+            amountLowerBound = BigInteger.valueOf(100L),
+            amountUpperBound = BigInteger.valueOf(200L),
+            securityDepositAmount = BigInteger.valueOf(20L),
+            takenSwapAmount = BigInteger.valueOf(150L),
+            serviceFeeAmount = BigInteger.valueOf(15L),
+            serviceFeeRate = BigInteger.valueOf(100L),
             onChainDirection = "direction",
             settlementMethod = "settlement_method",
-            makerPrivateData = "maker_private_data",
-            makerPrivateDataInitializationVector = "maker_init_vector",
-            takerPrivateData = "taker_private_data",
-            takerPrivateDataInitializationVector = "taker_init_vector",
+            makerPrivateData = "maker_private_data".toByteArray(),
+            takerPrivateData = "taker_private_data".toByteArray(),
             protocolVersion = "some_version",
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = "dispute_raiser",
-            chainID = "a_chain_id",
+            chainID = aChainID,
             state = "a_state_here",
             role = "a_role_here",
             approveToFillState = "a_tokenTransferApprovalState_here",
@@ -1314,12 +1773,12 @@ class DatabaseServiceTest {
         )
         databaseService.storeSwap(swapToStore)
         databaseService.updateSwapMakerPrivateSettlementMethodData(
-            swapID = "a_uuid",
-            chainID = "a_chain_id",
+            swapID = anID,
+            chainID = aChainID,
             data = "new_maker_private_data"
         )
-        val returnedSwap = databaseService.getSwap("a_uuid")
-        assertEquals("new_maker_private_data", returnedSwap!!.makerPrivateData)
+        val returnedSwap = databaseService.getSwap(anID)
+        assertEquals("new_maker_private_data", returnedSwap!!.makerPrivateData?.decodeToString())
     }
 
     /**
@@ -1329,7 +1788,7 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateSwapTakerPrivateSettlementMethodData() = runBlocking {
         val swapToStore = Swap(
-            id = "a_uuid",
+            id = anID,
             isCreated = 1L,
             requiresFill = 1L,
             maker = "maker_address",
@@ -1337,25 +1796,23 @@ class DatabaseServiceTest {
             taker = "taker_address",
             takerInterfaceID = "taker_interface_id",
             stablecoin = "stablecoin_address",
-            amountLowerBound = "lower_bound_amount",
-            amountUpperBound = "upper_bound_amount",
-            securityDepositAmount = "security_deposit_amount",
-            takenSwapAmount = "taken_swap_amount",
-            serviceFeeAmount = "service_fee_amount",
-            serviceFeeRate = "service_fee_rate",
+            amountLowerBound = BigInteger.valueOf(100L),
+            amountUpperBound = BigInteger.valueOf(200L),
+            securityDepositAmount = BigInteger.valueOf(20L),
+            takenSwapAmount = BigInteger.valueOf(150L),
+            serviceFeeAmount = BigInteger.valueOf(15L),
+            serviceFeeRate = BigInteger.valueOf(100L),
             onChainDirection = "direction",
             settlementMethod = "settlement_method",
-            makerPrivateData = "maker_private_data",
-            makerPrivateDataInitializationVector = "maker_init_vector",
-            takerPrivateData = "taker_private_data",
-            takerPrivateDataInitializationVector = "taker_private_vector",
+            makerPrivateData = "maker_private_data".toByteArray(),
+            takerPrivateData = "taker_private_data".toByteArray(),
             protocolVersion = "some_version",
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = "dispute_raiser",
-            chainID = "a_chain_id",
+            chainID = aChainID,
             state = "a_state_here",
             role = "a_role_here",
             approveToFillState = "a_tokenTransferApprovalState_here",
@@ -1386,12 +1843,12 @@ class DatabaseServiceTest {
         )
         databaseService.storeSwap(swapToStore)
         databaseService.updateSwapTakerPrivateSettlementMethodData(
-            swapID = "a_uuid",
-            chainID = "a_chain_id",
+            swapID = anID,
+            chainID = aChainID,
             data = "new_taker_private_data"
         )
-        val returnedSwap = databaseService.getSwap("a_uuid")
-        assertEquals("new_taker_private_data", returnedSwap!!.takerPrivateData)
+        val returnedSwap = databaseService.getSwap(anID)
+        assertEquals("new_taker_private_data", returnedSwap!!.takerPrivateData?.decodeToString())
     }
 
     /**
@@ -1400,7 +1857,7 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateSwapIsPaymentSent() = runBlocking {
         val swapToStore = Swap(
-            id = "a_uuid",
+            id = anID,
             isCreated = 1L,
             requiresFill = 1L,
             maker = "maker_address",
@@ -1408,25 +1865,23 @@ class DatabaseServiceTest {
             taker = "taker_address",
             takerInterfaceID = "taker_interface_id",
             stablecoin = "stablecoin_address",
-            amountLowerBound = "lower_bound_amount",
-            amountUpperBound = "upper_bound_amount",
-            securityDepositAmount = "security_deposit_amount",
-            takenSwapAmount = "taken_swap_amount",
-            serviceFeeAmount = "service_fee_amount",
-            serviceFeeRate = "service_fee_rate",
+            amountLowerBound = BigInteger.valueOf(100L),
+            amountUpperBound = BigInteger.valueOf(200L),
+            securityDepositAmount = BigInteger.valueOf(20L),
+            takenSwapAmount = BigInteger.valueOf(150L),
+            serviceFeeAmount = BigInteger.valueOf(15L),
+            serviceFeeRate = BigInteger.valueOf(100L),
             onChainDirection = "direction",
             settlementMethod = "settlement_method",
-            makerPrivateData = "maker_private_data",
-            makerPrivateDataInitializationVector = "maker_init_vector",
-            takerPrivateData = "taker_private_data",
-            takerPrivateDataInitializationVector = "taker_private_data",
+            makerPrivateData = "maker_private_data".toByteArray(),
+            takerPrivateData = "taker_private_data".toByteArray(),
             protocolVersion = "some_version",
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = "dispute_raiser",
-            chainID = "a_chain_id",
+            chainID = aChainID,
             state = "a_state_here",
             role = "a_role_here",
             approveToFillState = "a_tokenTransferApprovalState_here",
@@ -1456,8 +1911,8 @@ class DatabaseServiceTest {
             raisingDisputeTransactionCreationBlockNumber = -1L,
         )
         databaseService.storeSwap(swapToStore)
-        databaseService.updateSwapIsPaymentSent("a_uuid", "a_chain_id", true)
-        val returnedSwap = databaseService.getSwap("a_uuid")
+        databaseService.updateSwapIsPaymentSent(anID, aChainID, true)
+        val returnedSwap = databaseService.getSwap(anID)
         assertEquals(1L, returnedSwap!!.isPaymentSent)
     }
 
@@ -1467,7 +1922,7 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateSwapIsPaymentReceived() = runBlocking {
         val swapToStore = Swap(
-            id = "a_uuid",
+            id = anID,
             isCreated = 1L,
             requiresFill = 1L,
             maker = "maker_address",
@@ -1475,25 +1930,23 @@ class DatabaseServiceTest {
             taker = "taker_address",
             takerInterfaceID = "taker_interface_id",
             stablecoin = "stablecoin_address",
-            amountLowerBound = "lower_bound_amount",
-            amountUpperBound = "upper_bound_amount",
-            securityDepositAmount = "security_deposit_amount",
-            takenSwapAmount = "taken_swap_amount",
-            serviceFeeAmount = "service_fee_amount",
-            serviceFeeRate = "service_fee_rate",
+            amountLowerBound = BigInteger.valueOf(100L),
+            amountUpperBound = BigInteger.valueOf(200L),
+            securityDepositAmount = BigInteger.valueOf(20L),
+            takenSwapAmount = BigInteger.valueOf(150L),
+            serviceFeeAmount = BigInteger.valueOf(15L),
+            serviceFeeRate = BigInteger.valueOf(100L),
             onChainDirection = "direction",
             settlementMethod = "settlement_method",
-            makerPrivateData = "maker_private_data",
-            makerPrivateDataInitializationVector = "maker_init_vector",
-            takerPrivateData = "taker_private_data",
-            takerPrivateDataInitializationVector = "taker_private_data",
+            makerPrivateData = "maker_private_data".toByteArray(),
+            takerPrivateData = "taker_private_data".toByteArray(),
             protocolVersion = "some_version",
             isPaymentSent = 1L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = "dispute_raiser",
-            chainID = "a_chain_id",
+            chainID = aChainID,
             state = "a_state_here",
             role = "a_role_here",
             approveToFillState = "a_tokenTransferApprovalState_here",
@@ -1523,8 +1976,8 @@ class DatabaseServiceTest {
             raisingDisputeTransactionCreationBlockNumber = -1L,
         )
         databaseService.storeSwap(swapToStore)
-        databaseService.updateSwapIsPaymentReceived("a_uuid", "a_chain_id", true)
-        val returnedSwap = databaseService.getSwap("a_uuid")
+        databaseService.updateSwapIsPaymentReceived(anID, aChainID, true)
+        val returnedSwap = databaseService.getSwap(anID)
         assertEquals(1L, returnedSwap!!.isPaymentReceived)
     }
 
@@ -1534,7 +1987,7 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateSwapHasBuyerClosed() = runBlocking {
         val swapToStore = Swap(
-            id = "a_uuid",
+            id = anID,
             isCreated = 1L,
             requiresFill = 1L,
             maker = "maker_address",
@@ -1542,25 +1995,23 @@ class DatabaseServiceTest {
             taker = "taker_address",
             takerInterfaceID = "taker_interface_id",
             stablecoin = "stablecoin_address",
-            amountLowerBound = "lower_bound_amount",
-            amountUpperBound = "upper_bound_amount",
-            securityDepositAmount = "security_deposit_amount",
-            takenSwapAmount = "taken_swap_amount",
-            serviceFeeAmount = "service_fee_amount",
-            serviceFeeRate = "service_fee_rate",
+            amountLowerBound = BigInteger.valueOf(100L),
+            amountUpperBound = BigInteger.valueOf(200L),
+            securityDepositAmount = BigInteger.valueOf(20L),
+            takenSwapAmount = BigInteger.valueOf(150L),
+            serviceFeeAmount = BigInteger.valueOf(15L),
+            serviceFeeRate = BigInteger.valueOf(100L),
             onChainDirection = "direction",
             settlementMethod = "settlement_method",
-            makerPrivateData = "maker_private_data",
-            makerPrivateDataInitializationVector = "maker_init_vector",
-            takerPrivateData = "taker_private_data",
-            takerPrivateDataInitializationVector = "taker_private_data",
+            makerPrivateData = "maker_private_data".toByteArray(),
+            takerPrivateData = "taker_private_data".toByteArray(),
             protocolVersion = "some_version",
             isPaymentSent = 1L,
             isPaymentReceived = 1L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = "dispute_raiser",
-            chainID = "a_chain_id",
+            chainID = aChainID,
             state = "a_state_here",
             role = "a_role_here",
             approveToFillState = "a_tokenTransferApprovalState_here",
@@ -1590,8 +2041,8 @@ class DatabaseServiceTest {
             raisingDisputeTransactionCreationBlockNumber = -1L,
         )
         databaseService.storeSwap(swapToStore)
-        databaseService.updateSwapHasBuyerClosed("a_uuid", "a_chain_id", true)
-        val returnedSwap = databaseService.getSwap("a_uuid")
+        databaseService.updateSwapHasBuyerClosed(anID, aChainID, true)
+        val returnedSwap = databaseService.getSwap(anID)
         assertEquals(1L, returnedSwap!!.hasBuyerClosed)
     }
 
@@ -1601,7 +2052,7 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateSwapHasSellerClosed() = runBlocking {
         val swapToStore = Swap(
-            id = "a_uuid",
+            id = anID,
             isCreated = 1L,
             requiresFill = 1L,
             maker = "maker_address",
@@ -1609,25 +2060,23 @@ class DatabaseServiceTest {
             taker = "taker_address",
             takerInterfaceID = "taker_interface_id",
             stablecoin = "stablecoin_address",
-            amountLowerBound = "lower_bound_amount",
-            amountUpperBound = "upper_bound_amount",
-            securityDepositAmount = "security_deposit_amount",
-            takenSwapAmount = "taken_swap_amount",
-            serviceFeeAmount = "service_fee_amount",
-            serviceFeeRate = "service_fee_rate",
+            amountLowerBound = BigInteger.valueOf(100L),
+            amountUpperBound = BigInteger.valueOf(200L),
+            securityDepositAmount = BigInteger.valueOf(20L),
+            takenSwapAmount = BigInteger.valueOf(150L),
+            serviceFeeAmount = BigInteger.valueOf(15L),
+            serviceFeeRate = BigInteger.valueOf(100L),
             onChainDirection = "direction",
             settlementMethod = "settlement_method",
-            makerPrivateData = "maker_private_data",
-            makerPrivateDataInitializationVector = "maker_init_vector",
-            takerPrivateData = "taker_private_data",
-            takerPrivateDataInitializationVector = "taker_private_data",
+            makerPrivateData = "maker_private_data".toByteArray(),
+            takerPrivateData = "taker_private_data".toByteArray(),
             protocolVersion = "some_version",
             isPaymentSent = 1L,
             isPaymentReceived = 1L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = "dispute_raiser",
-            chainID = "a_chain_id",
+            chainID = aChainID,
             state = "a_state_here",
             role = "a_role_here",
             approveToFillState = "a_tokenTransferApprovalState_here",
@@ -1657,8 +2106,8 @@ class DatabaseServiceTest {
             raisingDisputeTransactionCreationBlockNumber = -1L,
         )
         databaseService.storeSwap(swapToStore)
-        databaseService.updateSwapHasSellerClosed("a_uuid", "a_chain_id", true)
-        val returnedSwap = databaseService.getSwap("a_uuid")
+        databaseService.updateSwapHasSellerClosed(anID, aChainID, true)
+        val returnedSwap = databaseService.getSwap(anID)
         assertEquals(1L, returnedSwap!!.hasSellerClosed)
     }
 
@@ -1668,7 +2117,7 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateSwapState() = runBlocking {
         val swapToStore = Swap(
-            id = "a_uuid",
+            id = anID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = "maker_address",
@@ -1676,25 +2125,23 @@ class DatabaseServiceTest {
             taker = "taker_address",
             takerInterfaceID = "taker_interface_id",
             stablecoin = "stablecoin_address",
-            amountLowerBound = "lower_bound_amount",
-            amountUpperBound = "upper_bound_amount",
-            securityDepositAmount = "security_deposit_amount",
-            takenSwapAmount = "taken_swap_amount",
-            serviceFeeAmount = "service_fee_amount",
-            serviceFeeRate = "service_fee_rate",
+            amountLowerBound = BigInteger.valueOf(100L),
+            amountUpperBound = BigInteger.valueOf(200L),
+            securityDepositAmount = BigInteger.valueOf(20L),
+            takenSwapAmount = BigInteger.valueOf(150L),
+            serviceFeeAmount = BigInteger.valueOf(15L),
+            serviceFeeRate = BigInteger.valueOf(100L),
             onChainDirection = "direction",
             settlementMethod = "settlement_method",
-            makerPrivateData = "maker_private_data",
-            makerPrivateDataInitializationVector = "maker_init_vector",
-            takerPrivateData = "taker_private_data",
-            takerPrivateDataInitializationVector = "taker_private_data",
+            makerPrivateData = "maker_private_data".toByteArray(),
+            takerPrivateData = "taker_private_data".toByteArray(),
             protocolVersion = "some_version",
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = "dispute_raiser",
-            chainID = "a_chain_id",
+            chainID = aChainID,
             state = "a_state_here",
             role = "a_role_here",
             approveToFillState = "a_tokenTransferApprovalState_here",
@@ -1724,8 +2171,8 @@ class DatabaseServiceTest {
             raisingDisputeTransactionCreationBlockNumber = -1L,
         )
         databaseService.storeSwap(swapToStore)
-        databaseService.updateSwapState("a_uuid", "a_chain_id", "a_new_state_here")
-        val returnedSwap = databaseService.getSwap("a_uuid")
+        databaseService.updateSwapState(anID, aChainID, "a_new_state_here")
+        val returnedSwap = databaseService.getSwap(anID)
         assertEquals("a_new_state_here", returnedSwap!!.state)
     }
 
@@ -1736,7 +2183,7 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateSwapApproveToFillState() = runBlocking {
         val swapToStore = Swap(
-            id = "a_uuid",
+            id = anID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = "maker_address",
@@ -1744,25 +2191,23 @@ class DatabaseServiceTest {
             taker = "taker_address",
             takerInterfaceID = "taker_interface_id",
             stablecoin = "stablecoin_address",
-            amountLowerBound = "lower_bound_amount",
-            amountUpperBound = "upper_bound_amount",
-            securityDepositAmount = "security_deposit_amount",
-            takenSwapAmount = "taken_swap_amount",
-            serviceFeeAmount = "service_fee_amount",
-            serviceFeeRate = "service_fee_rate",
+            amountLowerBound = BigInteger.valueOf(100L),
+            amountUpperBound = BigInteger.valueOf(200L),
+            securityDepositAmount = BigInteger.valueOf(20L),
+            takenSwapAmount = BigInteger.valueOf(150L),
+            serviceFeeAmount = BigInteger.valueOf(15L),
+            serviceFeeRate = BigInteger.valueOf(100L),
             onChainDirection = "direction",
             settlementMethod = "settlement_method",
-            makerPrivateData = "maker_private_data",
-            makerPrivateDataInitializationVector = "maker_init_vector",
-            takerPrivateData = "taker_private_data",
-            takerPrivateDataInitializationVector = "taker_private_data",
+            makerPrivateData = "maker_private_data".toByteArray(),
+            takerPrivateData = "taker_private_data".toByteArray(),
             protocolVersion = "some_version",
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = "dispute_raiser",
-            chainID = "a_chain_id",
+            chainID = aChainID,
             state = "a_state_here",
             role = "a_role_here",
             approveToFillState = "a_tokenTransferApprovalState_here",
@@ -1793,11 +2238,11 @@ class DatabaseServiceTest {
         )
         databaseService.storeSwap(swapToStore)
         databaseService.updateSwapApproveToFillState(
-            swapID = "a_uuid",
-            chainID = "a_chain_id",
+            swapID = anID,
+            chainID = aChainID,
             state = "a_new_tokenTransferApprovalState_here",
         )
-        val returnedSwap = databaseService.getSwap(id = "a_uuid")
+        val returnedSwap = databaseService.getSwap(id = anID)
         Assert.assertEquals("a_new_tokenTransferApprovalState_here", returnedSwap!!.approveToFillState)
     }
 
@@ -1809,7 +2254,7 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateSwapApproveToFillData() = runBlocking {
         val swapToStore = Swap(
-            id = "a_uuid",
+            id = anID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = "maker_address",
@@ -1817,25 +2262,23 @@ class DatabaseServiceTest {
             taker = "taker_address",
             takerInterfaceID = "taker_interface_id",
             stablecoin = "stablecoin_address",
-            amountLowerBound = "lower_bound_amount",
-            amountUpperBound = "upper_bound_amount",
-            securityDepositAmount = "security_deposit_amount",
-            takenSwapAmount = "taken_swap_amount",
-            serviceFeeAmount = "service_fee_amount",
-            serviceFeeRate = "service_fee_rate",
+            amountLowerBound = BigInteger.valueOf(100L),
+            amountUpperBound = BigInteger.valueOf(200L),
+            securityDepositAmount = BigInteger.valueOf(20L),
+            takenSwapAmount = BigInteger.valueOf(150L),
+            serviceFeeAmount = BigInteger.valueOf(15L),
+            serviceFeeRate = BigInteger.valueOf(100L),
             onChainDirection = "direction",
             settlementMethod = "settlement_method",
-            makerPrivateData = "maker_private_data",
-            makerPrivateDataInitializationVector = "maker_init_vector",
-            takerPrivateData = "taker_private_data",
-            takerPrivateDataInitializationVector = "taker_private_data",
+            makerPrivateData = "maker_private_data".toByteArray(),
+            takerPrivateData = "taker_private_data".toByteArray(),
             protocolVersion = "some_version",
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = "dispute_raiser",
-            chainID = "a_chain_id",
+            chainID = aChainID,
             state = "a_state_here",
             role = "a_role_here",
             approveToFillState = "a_tokenTransferApprovalState_here",
@@ -1866,13 +2309,13 @@ class DatabaseServiceTest {
         )
         databaseService.storeSwap(swapToStore)
         databaseService.updateSwapApproveToFillData(
-            swapID = "a_uuid",
-            chainID = "a_chain_id",
+            swapID = anID,
+            chainID = aChainID,
             transactionHash = "a_tx_hash_here",
             creationTime = "a_creation_time",
             blockNumber = -1L
         )
-        val returnedSwapAfterUpdate = databaseService.getSwap(id = "a_uuid")
+        val returnedSwapAfterUpdate = databaseService.getSwap(id = anID)
         Assert.assertEquals("a_tx_hash_here", returnedSwapAfterUpdate!!.approveToFillTransactionHash)
         Assert.assertEquals("a_creation_time", returnedSwapAfterUpdate.approveToFillTransactionCreationTime)
         Assert.assertEquals(-1L, returnedSwapAfterUpdate.approveToFillTransactionCreationBlockNumber)
@@ -1885,7 +2328,7 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateFillingSwapState() = runBlocking {
         val swapToStore = Swap(
-            id = "a_uuid",
+            id = anID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = "maker_address",
@@ -1893,25 +2336,23 @@ class DatabaseServiceTest {
             taker = "taker_address",
             takerInterfaceID = "taker_interface_id",
             stablecoin = "stablecoin_address",
-            amountLowerBound = "lower_bound_amount",
-            amountUpperBound = "upper_bound_amount",
-            securityDepositAmount = "security_deposit_amount",
-            takenSwapAmount = "taken_swap_amount",
-            serviceFeeAmount = "service_fee_amount",
-            serviceFeeRate = "service_fee_rate",
+            amountLowerBound = BigInteger.valueOf(100L),
+            amountUpperBound = BigInteger.valueOf(200L),
+            securityDepositAmount = BigInteger.valueOf(20L),
+            takenSwapAmount = BigInteger.valueOf(150L),
+            serviceFeeAmount = BigInteger.valueOf(15L),
+            serviceFeeRate = BigInteger.valueOf(100L),
             onChainDirection = "direction",
             settlementMethod = "settlement_method",
-            makerPrivateData = "maker_private_data",
-            makerPrivateDataInitializationVector = "maker_init_vector",
-            takerPrivateData = "taker_private_data",
-            takerPrivateDataInitializationVector = "taker_private_data",
+            makerPrivateData = "maker_private_data".toByteArray(),
+            takerPrivateData = "taker_private_data".toByteArray(),
             protocolVersion = "some_version",
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = "dispute_raiser",
-            chainID = "a_chain_id",
+            chainID = aChainID,
             state = "a_state_here",
             role = "a_role_here",
             approveToFillState = "a_tokenTransferApprovalState_here",
@@ -1942,11 +2383,11 @@ class DatabaseServiceTest {
         )
         databaseService.storeSwap(swapToStore)
         databaseService.updateFillingSwapState(
-            swapID = "a_uuid",
-            chainID = "a_chain_id",
+            swapID = anID,
+            chainID = aChainID,
             state = "a_new_fillingSwapState_here",
         )
-        val returnedSwap = databaseService.getSwap(id = "a_uuid")
+        val returnedSwap = databaseService.getSwap(id = anID)
         Assert.assertEquals("a_new_fillingSwapState_here", returnedSwap!!.fillingSwapState)
     }
 
@@ -1958,7 +2399,7 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateFillingSwapData() = runBlocking {
         val swapToStore = Swap(
-            id = "a_uuid",
+            id = anID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = "maker_address",
@@ -1966,25 +2407,23 @@ class DatabaseServiceTest {
             taker = "taker_address",
             takerInterfaceID = "taker_interface_id",
             stablecoin = "stablecoin_address",
-            amountLowerBound = "lower_bound_amount",
-            amountUpperBound = "upper_bound_amount",
-            securityDepositAmount = "security_deposit_amount",
-            takenSwapAmount = "taken_swap_amount",
-            serviceFeeAmount = "service_fee_amount",
-            serviceFeeRate = "service_fee_rate",
+            amountLowerBound = BigInteger.valueOf(100L),
+            amountUpperBound = BigInteger.valueOf(200L),
+            securityDepositAmount = BigInteger.valueOf(20L),
+            takenSwapAmount = BigInteger.valueOf(150L),
+            serviceFeeAmount = BigInteger.valueOf(15L),
+            serviceFeeRate = BigInteger.valueOf(100L),
             onChainDirection = "direction",
             settlementMethod = "settlement_method",
-            makerPrivateData = "maker_private_data",
-            makerPrivateDataInitializationVector = "maker_init_vector",
-            takerPrivateData = "taker_private_data",
-            takerPrivateDataInitializationVector = "taker_private_data",
+            makerPrivateData = "maker_private_data".toByteArray(),
+            takerPrivateData = "taker_private_data".toByteArray(),
             protocolVersion = "some_version",
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = "dispute_raiser",
-            chainID = "a_chain_id",
+            chainID = aChainID,
             state = "a_state_here",
             role = "a_role_here",
             approveToFillState = "a_tokenTransferApprovalState_here",
@@ -2015,13 +2454,13 @@ class DatabaseServiceTest {
         )
         databaseService.storeSwap(swapToStore)
         databaseService.updateFillingSwapData(
-            swapID = "a_uuid",
-            chainID = "a_chain_id",
+            swapID = anID,
+            chainID = aChainID,
             transactionHash = "a_tx_hash_here",
             creationTime = "a_creation_time",
             blockNumber = -1L
         )
-        val returnedSwapAfterUpdate = databaseService.getSwap(id = "a_uuid")
+        val returnedSwapAfterUpdate = databaseService.getSwap(id = anID)
         Assert.assertEquals("a_tx_hash_here", returnedSwapAfterUpdate!!.fillingSwapTransactionHash)
         Assert.assertEquals("a_creation_time", returnedSwapAfterUpdate.fillingSwapTransactionCreationTime)
         Assert.assertEquals(-1L, returnedSwapAfterUpdate.fillingSwapTransactionCreationBlockNumber)
@@ -2034,7 +2473,7 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateReportingPaymentSentState() = runBlocking {
         val swapToStore = Swap(
-            id = "a_uuid",
+            id = anID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = "maker_address",
@@ -2042,25 +2481,23 @@ class DatabaseServiceTest {
             taker = "taker_address",
             takerInterfaceID = "taker_interface_id",
             stablecoin = "stablecoin_address",
-            amountLowerBound = "lower_bound_amount",
-            amountUpperBound = "upper_bound_amount",
-            securityDepositAmount = "security_deposit_amount",
-            takenSwapAmount = "taken_swap_amount",
-            serviceFeeAmount = "service_fee_amount",
-            serviceFeeRate = "service_fee_rate",
+            amountLowerBound = BigInteger.valueOf(100L),
+            amountUpperBound = BigInteger.valueOf(200L),
+            securityDepositAmount = BigInteger.valueOf(20L),
+            takenSwapAmount = BigInteger.valueOf(150L),
+            serviceFeeAmount = BigInteger.valueOf(15L),
+            serviceFeeRate = BigInteger.valueOf(100L),
             onChainDirection = "direction",
             settlementMethod = "settlement_method",
-            makerPrivateData = "maker_private_data",
-            makerPrivateDataInitializationVector = "maker_init_vector",
-            takerPrivateData = "taker_private_data",
-            takerPrivateDataInitializationVector = "taker_private_data",
+            makerPrivateData = "maker_private_data".toByteArray(),
+            takerPrivateData = "taker_private_data".toByteArray(),
             protocolVersion = "some_version",
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = "dispute_raiser",
-            chainID = "a_chain_id",
+            chainID = aChainID,
             state = "a_state_here",
             role = "a_role_here",
             approveToFillState = "a_tokenTransferApprovalState_here",
@@ -2091,11 +2528,11 @@ class DatabaseServiceTest {
         )
         databaseService.storeSwap(swapToStore)
         databaseService.updateReportPaymentSentState(
-            swapID = "a_uuid",
-            chainID = "a_chain_id",
+            swapID = anID,
+            chainID = aChainID,
             state = "a_new_reportingPaymentSentState_here",
         )
-        val returnedSwap = databaseService.getSwap(id = "a_uuid")
+        val returnedSwap = databaseService.getSwap(id = anID)
         assertEquals("a_new_reportingPaymentSentState_here", returnedSwap!!.reportPaymentSentState)
     }
 
@@ -2107,7 +2544,7 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateReportingPaymentSentData() = runBlocking {
         val swapToStore = Swap(
-            id = "a_uuid",
+            id = anID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = "maker_address",
@@ -2115,25 +2552,23 @@ class DatabaseServiceTest {
             taker = "taker_address",
             takerInterfaceID = "taker_interface_id",
             stablecoin = "stablecoin_address",
-            amountLowerBound = "lower_bound_amount",
-            amountUpperBound = "upper_bound_amount",
-            securityDepositAmount = "security_deposit_amount",
-            takenSwapAmount = "taken_swap_amount",
-            serviceFeeAmount = "service_fee_amount",
-            serviceFeeRate = "service_fee_rate",
+            amountLowerBound = BigInteger.valueOf(100L),
+            amountUpperBound = BigInteger.valueOf(200L),
+            securityDepositAmount = BigInteger.valueOf(20L),
+            takenSwapAmount = BigInteger.valueOf(150L),
+            serviceFeeAmount = BigInteger.valueOf(15L),
+            serviceFeeRate = BigInteger.valueOf(100L),
             onChainDirection = "direction",
             settlementMethod = "settlement_method",
-            makerPrivateData = "maker_private_data",
-            makerPrivateDataInitializationVector = "maker_init_vector",
-            takerPrivateData = "taker_private_data",
-            takerPrivateDataInitializationVector = "taker_private_data",
+            makerPrivateData = "maker_private_data".toByteArray(),
+            takerPrivateData = "taker_private_data".toByteArray(),
             protocolVersion = "some_version",
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = "dispute_raiser",
-            chainID = "a_chain_id",
+            chainID = aChainID,
             state = "a_state_here",
             role = "a_role_here",
             approveToFillState = "a_tokenTransferApprovalState_here",
@@ -2164,13 +2599,13 @@ class DatabaseServiceTest {
         )
         databaseService.storeSwap(swapToStore)
         databaseService.updateReportPaymentSentData(
-            swapID = "a_uuid",
-            chainID = "a_chain_id",
+            swapID = anID,
+            chainID = aChainID,
             transactionHash = "a_tx_hash_here",
             creationTime = "a_creation_time",
             blockNumber = -1L
         )
-        val returnedSwapAfterUpdate = databaseService.getSwap(id = "a_uuid")
+        val returnedSwapAfterUpdate = databaseService.getSwap(id = anID)
         assertEquals("a_tx_hash_here", returnedSwapAfterUpdate!!.reportPaymentSentTransactionHash)
         assertEquals("a_creation_time", returnedSwapAfterUpdate.reportPaymentSentTransactionCreationTime)
         assertEquals(-1L, returnedSwapAfterUpdate.reportPaymentSentTransactionCreationBlockNumber)
@@ -2183,7 +2618,7 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateReportingPaymentReceivedState() = runBlocking {
         val swapToStore = Swap(
-            id = "a_uuid",
+            id = anID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = "maker_address",
@@ -2191,25 +2626,23 @@ class DatabaseServiceTest {
             taker = "taker_address",
             takerInterfaceID = "taker_interface_id",
             stablecoin = "stablecoin_address",
-            amountLowerBound = "lower_bound_amount",
-            amountUpperBound = "upper_bound_amount",
-            securityDepositAmount = "security_deposit_amount",
-            takenSwapAmount = "taken_swap_amount",
-            serviceFeeAmount = "service_fee_amount",
-            serviceFeeRate = "service_fee_rate",
+            amountLowerBound = BigInteger.valueOf(100L),
+            amountUpperBound = BigInteger.valueOf(200L),
+            securityDepositAmount = BigInteger.valueOf(20L),
+            takenSwapAmount = BigInteger.valueOf(150L),
+            serviceFeeAmount = BigInteger.valueOf(15L),
+            serviceFeeRate = BigInteger.valueOf(100L),
             onChainDirection = "direction",
             settlementMethod = "settlement_method",
-            makerPrivateData = "maker_private_data",
-            makerPrivateDataInitializationVector = "maker_init_vector",
-            takerPrivateData = "taker_private_data",
-            takerPrivateDataInitializationVector = "taker_private_data",
+            makerPrivateData = "maker_private_data".toByteArray(),
+            takerPrivateData = "taker_private_data".toByteArray(),
             protocolVersion = "some_version",
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = "dispute_raiser",
-            chainID = "a_chain_id",
+            chainID = aChainID,
             state = "a_state_here",
             role = "a_role_here",
             approveToFillState = "a_tokenTransferApprovalState_here",
@@ -2240,11 +2673,11 @@ class DatabaseServiceTest {
         )
         databaseService.storeSwap(swapToStore)
         databaseService.updateReportPaymentReceivedState(
-            swapID = "a_uuid",
-            chainID = "a_chain_id",
+            swapID = anID,
+            chainID = aChainID,
             state = "a_new_reportingPaymentReceivedState_here",
         )
-        val returnedSwap = databaseService.getSwap(id = "a_uuid")
+        val returnedSwap = databaseService.getSwap(id = anID)
         assertEquals("a_new_reportingPaymentReceivedState_here", returnedSwap!!.reportPaymentReceivedState)
     }
 
@@ -2256,7 +2689,7 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateReportingPaymentReceivedData() = runBlocking {
         val swapToStore = Swap(
-            id = "a_uuid",
+            id = anID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = "maker_address",
@@ -2264,25 +2697,23 @@ class DatabaseServiceTest {
             taker = "taker_address",
             takerInterfaceID = "taker_interface_id",
             stablecoin = "stablecoin_address",
-            amountLowerBound = "lower_bound_amount",
-            amountUpperBound = "upper_bound_amount",
-            securityDepositAmount = "security_deposit_amount",
-            takenSwapAmount = "taken_swap_amount",
-            serviceFeeAmount = "service_fee_amount",
-            serviceFeeRate = "service_fee_rate",
+            amountLowerBound = BigInteger.valueOf(100L),
+            amountUpperBound = BigInteger.valueOf(200L),
+            securityDepositAmount = BigInteger.valueOf(20L),
+            takenSwapAmount = BigInteger.valueOf(150L),
+            serviceFeeAmount = BigInteger.valueOf(15L),
+            serviceFeeRate = BigInteger.valueOf(100L),
             onChainDirection = "direction",
             settlementMethod = "settlement_method",
-            makerPrivateData = "maker_private_data",
-            makerPrivateDataInitializationVector = "maker_init_vector",
-            takerPrivateData = "taker_private_data",
-            takerPrivateDataInitializationVector = "taker_private_data",
+            makerPrivateData = "maker_private_data".toByteArray(),
+            takerPrivateData = "taker_private_data".toByteArray(),
             protocolVersion = "some_version",
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = "dispute_raiser",
-            chainID = "a_chain_id",
+            chainID = aChainID,
             state = "a_state_here",
             role = "a_role_here",
             approveToFillState = "a_tokenTransferApprovalState_here",
@@ -2313,13 +2744,13 @@ class DatabaseServiceTest {
         )
         databaseService.storeSwap(swapToStore)
         databaseService.updateReportPaymentReceivedData(
-            swapID = "a_uuid",
-            chainID = "a_chain_id",
+            swapID = anID,
+            chainID = aChainID,
             transactionHash = "a_tx_hash_here",
             creationTime = "a_creation_time",
             blockNumber = -1L
         )
-        val returnedSwapAfterUpdate = databaseService.getSwap(id = "a_uuid")
+        val returnedSwapAfterUpdate = databaseService.getSwap(id = anID)
         assertEquals("a_tx_hash_here", returnedSwapAfterUpdate!!.reportPaymentReceivedTransactionHash)
         assertEquals("a_creation_time", returnedSwapAfterUpdate.reportPaymentReceivedTransactionCreationTime)
         assertEquals(-1L, returnedSwapAfterUpdate.reportPaymentReceivedTransactionCreationBlockNumber)
@@ -2331,7 +2762,7 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateCloseSwapState() = runBlocking {
         val swapToStore = Swap(
-            id = "a_uuid",
+            id = anID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = "maker_address",
@@ -2339,25 +2770,23 @@ class DatabaseServiceTest {
             taker = "taker_address",
             takerInterfaceID = "taker_interface_id",
             stablecoin = "stablecoin_address",
-            amountLowerBound = "lower_bound_amount",
-            amountUpperBound = "upper_bound_amount",
-            securityDepositAmount = "security_deposit_amount",
-            takenSwapAmount = "taken_swap_amount",
-            serviceFeeAmount = "service_fee_amount",
-            serviceFeeRate = "service_fee_rate",
+            amountLowerBound = BigInteger.valueOf(100L),
+            amountUpperBound = BigInteger.valueOf(200L),
+            securityDepositAmount = BigInteger.valueOf(20L),
+            takenSwapAmount = BigInteger.valueOf(150L),
+            serviceFeeAmount = BigInteger.valueOf(15L),
+            serviceFeeRate = BigInteger.valueOf(100L),
             onChainDirection = "direction",
             settlementMethod = "settlement_method",
-            makerPrivateData = "maker_private_data",
-            makerPrivateDataInitializationVector = "maker_init_vector",
-            takerPrivateData = "taker_private_data",
-            takerPrivateDataInitializationVector = "taker_private_data",
+            makerPrivateData = "maker_private_data".toByteArray(),
+            takerPrivateData = "taker_private_data".toByteArray(),
             protocolVersion = "some_version",
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = "dispute_raiser",
-            chainID = "a_chain_id",
+            chainID = aChainID,
             state = "a_state_here",
             role = "a_role_here",
             approveToFillState = "a_tokenTransferApprovalState_here",
@@ -2388,11 +2817,11 @@ class DatabaseServiceTest {
         )
         databaseService.storeSwap(swapToStore)
         databaseService.updateCloseSwapState(
-            swapID = "a_uuid",
-            chainID = "a_chain_id",
+            swapID = anID,
+            chainID = aChainID,
             state = "a_new_closeSwapState_here",
         )
-        val returnedSwap = databaseService.getSwap(id = "a_uuid")
+        val returnedSwap = databaseService.getSwap(id = anID)
         Assert.assertEquals("a_new_closeSwapState_here", returnedSwap!!.closeSwapState)
     }
 
@@ -2404,7 +2833,7 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateCloseSwapData() = runBlocking {
         val swapToStore = Swap(
-            id = "a_uuid",
+            id = anID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = "maker_address",
@@ -2412,25 +2841,23 @@ class DatabaseServiceTest {
             taker = "taker_address",
             takerInterfaceID = "taker_interface_id",
             stablecoin = "stablecoin_address",
-            amountLowerBound = "lower_bound_amount",
-            amountUpperBound = "upper_bound_amount",
-            securityDepositAmount = "security_deposit_amount",
-            takenSwapAmount = "taken_swap_amount",
-            serviceFeeAmount = "service_fee_amount",
-            serviceFeeRate = "service_fee_rate",
+            amountLowerBound = BigInteger.valueOf(100L),
+            amountUpperBound = BigInteger.valueOf(200L),
+            securityDepositAmount = BigInteger.valueOf(20L),
+            takenSwapAmount = BigInteger.valueOf(150L),
+            serviceFeeAmount = BigInteger.valueOf(15L),
+            serviceFeeRate = BigInteger.valueOf(100L),
             onChainDirection = "direction",
             settlementMethod = "settlement_method",
-            makerPrivateData = "maker_private_data",
-            makerPrivateDataInitializationVector = "maker_init_vector",
-            takerPrivateData = "taker_private_data",
-            takerPrivateDataInitializationVector = "taker_private_data",
+            makerPrivateData = "maker_private_data".toByteArray(),
+            takerPrivateData = "taker_private_data".toByteArray(),
             protocolVersion = "some_version",
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = "dispute_raiser",
-            chainID = "a_chain_id",
+            chainID = aChainID,
             state = "a_state_here",
             role = "a_role_here",
             approveToFillState = "a_tokenTransferApprovalState_here",
@@ -2461,13 +2888,13 @@ class DatabaseServiceTest {
         )
         databaseService.storeSwap(swapToStore)
         databaseService.updateCloseSwapData(
-            swapID = "a_uuid",
-            chainID = "a_chain_id",
+            swapID = anID,
+            chainID = aChainID,
             transactionHash = "a_tx_hash_here",
             creationTime = "a_creation_time",
             blockNumber = -1L
         )
-        val returnedSwapAfterUpdate = databaseService.getSwap(id = "a_uuid")
+        val returnedSwapAfterUpdate = databaseService.getSwap(id = anID)
         Assert.assertEquals("a_tx_hash_here", returnedSwapAfterUpdate!!.closeSwapTransactionHash)
         Assert.assertEquals("a_creation_time", returnedSwapAfterUpdate.closeSwapTransactionCreationTime)
         Assert.assertEquals(-1L, returnedSwapAfterUpdate.closeSwapTransactionCreationBlockNumber)
@@ -2479,7 +2906,7 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateRaisingDisputeState() = runBlocking {
         val swapToStore = Swap(
-            id = "a_uuid",
+            id = anID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = "maker_address",
@@ -2487,25 +2914,23 @@ class DatabaseServiceTest {
             taker = "taker_address",
             takerInterfaceID = "taker_interface_id",
             stablecoin = "stablecoin_address",
-            amountLowerBound = "lower_bound_amount",
-            amountUpperBound = "upper_bound_amount",
-            securityDepositAmount = "security_deposit_amount",
-            takenSwapAmount = "taken_swap_amount",
-            serviceFeeAmount = "service_fee_amount",
-            serviceFeeRate = "service_fee_rate",
+            amountLowerBound = BigInteger.valueOf(100L),
+            amountUpperBound = BigInteger.valueOf(200L),
+            securityDepositAmount = BigInteger.valueOf(20L),
+            takenSwapAmount = BigInteger.valueOf(150L),
+            serviceFeeAmount = BigInteger.valueOf(15L),
+            serviceFeeRate = BigInteger.valueOf(100L),
             onChainDirection = "direction",
             settlementMethod = "settlement_method",
-            makerPrivateData = "maker_private_data",
-            makerPrivateDataInitializationVector = "maker_init_vector",
-            takerPrivateData = "taker_private_data",
-            takerPrivateDataInitializationVector = "taker_private_data",
+            makerPrivateData = "maker_private_data".toByteArray(),
+            takerPrivateData = "taker_private_data".toByteArray(),
             protocolVersion = "some_version",
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = "dispute_raiser",
-            chainID = "a_chain_id",
+            chainID = aChainID,
             state = "a_state_here",
             role = "a_role_here",
             approveToFillState = "a_tokenTransferApprovalState_here",
@@ -2536,18 +2961,18 @@ class DatabaseServiceTest {
         )
         databaseService.storeSwap(swapToStore)
         databaseService.updateRaisingDisputeState(
-            swapID = "a_uuid",
-            chainID = "a_chain_id",
+            swapID = anID,
+            chainID = aChainID,
             state = "a_new_raisingDisputeState_here",
         )
-        val returnedSwap = databaseService.getSwap(id = "a_uuid")
+        val returnedSwap = databaseService.getSwap(id = anID)
         Assert.assertEquals("a_new_raisingDisputeState_here", returnedSwap!!.raisingDisputeState)
     }
 
     @Test
     fun testUpdateSwapDisputeState() = runBlocking {
         val swapToStore = Swap(
-            id = "a_uuid",
+            id = anID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = "maker_address",
@@ -2555,25 +2980,23 @@ class DatabaseServiceTest {
             taker = "taker_address",
             takerInterfaceID = "taker_interface_id",
             stablecoin = "stablecoin_address",
-            amountLowerBound = "lower_bound_amount",
-            amountUpperBound = "upper_bound_amount",
-            securityDepositAmount = "security_deposit_amount",
-            takenSwapAmount = "taken_swap_amount",
-            serviceFeeAmount = "service_fee_amount",
-            serviceFeeRate = "service_fee_rate",
+            amountLowerBound = BigInteger.valueOf(100L),
+            amountUpperBound = BigInteger.valueOf(200L),
+            securityDepositAmount = BigInteger.valueOf(20L),
+            takenSwapAmount = BigInteger.valueOf(150L),
+            serviceFeeAmount = BigInteger.valueOf(15L),
+            serviceFeeRate = BigInteger.valueOf(100L),
             onChainDirection = "direction",
             settlementMethod = "settlement_method",
-            makerPrivateData = "maker_private_data",
-            makerPrivateDataInitializationVector = "maker_init_vector",
-            takerPrivateData = "taker_private_data",
-            takerPrivateDataInitializationVector = "taker_private_data",
+            makerPrivateData = "maker_private_data".toByteArray(),
+            takerPrivateData = "taker_private_data".toByteArray(),
             protocolVersion = "some_version",
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = "dispute_raiser",
-            chainID = "a_chain_id",
+            chainID = aChainID,
             state = "a_state_here",
             role = "a_role_here",
             approveToFillState = "a_tokenTransferApprovalState_here",
@@ -2604,11 +3027,11 @@ class DatabaseServiceTest {
         )
         databaseService.storeSwap(swapToStore)
         databaseService.updateSwapDisputeState(
-            "a_uuid",
-            "a_chain_id",
+            anID,
+            aChainID,
             "a_new_swap_dispute_state_here"
         )
-        val returnedSwap = databaseService.getSwap("a_uuid")
+        val returnedSwap = databaseService.getSwap(anID)
         assertEquals("a_new_swap_dispute_state_here", returnedSwap?.disputeState)
     }
 
@@ -2620,7 +3043,7 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateRaisingDisputeData() = runBlocking {
         val swapToStore = Swap(
-            id = "a_uuid",
+            id = anID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = "maker_address",
@@ -2628,25 +3051,23 @@ class DatabaseServiceTest {
             taker = "taker_address",
             takerInterfaceID = "taker_interface_id",
             stablecoin = "stablecoin_address",
-            amountLowerBound = "lower_bound_amount",
-            amountUpperBound = "upper_bound_amount",
-            securityDepositAmount = "security_deposit_amount",
-            takenSwapAmount = "taken_swap_amount",
-            serviceFeeAmount = "service_fee_amount",
-            serviceFeeRate = "service_fee_rate",
+            amountLowerBound = BigInteger.valueOf(100L),
+            amountUpperBound = BigInteger.valueOf(200L),
+            securityDepositAmount = BigInteger.valueOf(20L),
+            takenSwapAmount = BigInteger.valueOf(150L),
+            serviceFeeAmount = BigInteger.valueOf(15L),
+            serviceFeeRate = BigInteger.valueOf(100L),
             onChainDirection = "direction",
             settlementMethod = "settlement_method",
-            makerPrivateData = "maker_private_data",
-            makerPrivateDataInitializationVector = "maker_init_vector",
-            takerPrivateData = "taker_private_data",
-            takerPrivateDataInitializationVector = "taker_private_data",
+            makerPrivateData = "maker_private_data".toByteArray(),
+            takerPrivateData = "taker_private_data".toByteArray(),
             protocolVersion = "some_version",
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = "dispute_raiser",
-            chainID = "a_chain_id",
+            chainID = aChainID,
             state = "a_state_here",
             role = "a_role_here",
             approveToFillState = "a_tokenTransferApprovalState_here",
@@ -2677,13 +3098,13 @@ class DatabaseServiceTest {
         )
         databaseService.storeSwap(swapToStore)
         databaseService.updateRaisingDisputeData(
-            swapID = "a_uuid",
-            chainID = "a_chain_id",
+            swapID = anID,
+            chainID = aChainID,
             transactionHash = "a_tx_hash_here",
             creationTime = "a_creation_time",
             blockNumber = -1L
         )
-        val returnedSwapAfterUpdate = databaseService.getSwap(id = "a_uuid")
+        val returnedSwapAfterUpdate = databaseService.getSwap(id = anID)
         Assert.assertEquals("a_tx_hash_here", returnedSwapAfterUpdate!!.raisingDisputeTransactionHash)
         Assert.assertEquals("a_creation_time", returnedSwapAfterUpdate.raisingDisputeTransactionCreationTime)
         Assert.assertEquals(-1L, returnedSwapAfterUpdate.raisingDisputeTransactionCreationBlockNumber)
@@ -2695,7 +3116,7 @@ class DatabaseServiceTest {
     @Test
     fun testStoreAndGetSwapAndDispute() = runBlocking {
         val swapAndDisputeToStore = SwapAndDispute(
-            id = "a_uuid",
+            id = anID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = "maker_address",
@@ -2703,12 +3124,12 @@ class DatabaseServiceTest {
             taker = "taker_address",
             takerInterfaceID = "taker_interface_id",
             stablecoin = "stablecoin_address",
-            amountLowerBound = "lower_bound_amount",
-            amountUpperBound = "upper_bound_amount",
-            securityDepositAmount = "security_deposit_amount",
-            takenSwapAmount = "taken_swap_amount",
-            serviceFeeAmount = "service_fee_amount",
-            serviceFeeRate = "service_fee_rate",
+            amountLowerBound = BigInteger.valueOf(100L),
+            amountUpperBound = BigInteger.valueOf(200L),
+            securityDepositAmount = BigInteger.valueOf(20L),
+            takenSwapAmount = BigInteger.valueOf(150L),
+            serviceFeeAmount = BigInteger.valueOf(15L),
+            serviceFeeRate = BigInteger.valueOf(100L),
             onChainDirection = "direction",
             settlementMethod = "settlement_method",
             protocolVersion = "some_version",
@@ -2717,47 +3138,44 @@ class DatabaseServiceTest {
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = "dispute_raiser",
-            chainID = "a_chain_id",
+            chainID = aChainID,
             disputeRaisedBlockNumber = "a_block_number",
             disputeAgent0 = "da0_address",
             disputeAgent1 = "da1_address",
             disputeAgent2 = "da2_address",
             hasDisputeAgent0Proposed = 0L,
-            disputeAgent0MakerPayout = "an_amount_here",
-            disputeAgent0TakerPayout = "an_amount_here",
-            disputeAgent0ConfiscationPayout = "an_amount_here",
+            disputeAgent0MakerPayout = BigInteger.valueOf(10L),
+            disputeAgent0TakerPayout = BigInteger.valueOf(10L),
+            disputeAgent0ConfiscationPayout = BigInteger.valueOf(10L),
             hasDisputeAgent1Proposed = 0L,
-            disputeAgent1MakerPayout = "an_amount_here",
-            disputeAgent1TakerPayout = "an_amount_here",
-            disputeAgent1ConfiscationPayout = "an_amount_here",
+            disputeAgent1MakerPayout = BigInteger.valueOf(10L),
+            disputeAgent1TakerPayout = BigInteger.valueOf(10L),
+            disputeAgent1ConfiscationPayout = BigInteger.valueOf(10L),
             hasDisputeAgent2Proposed = 0L,
-            disputeAgent2MakerPayout = "an_amount_here",
-            disputeAgent2TakerPayout = "an_amount_here",
-            disputeAgent2ConfiscationPayout = "an_amount_here",
+            disputeAgent2MakerPayout = BigInteger.valueOf(10L),
+            disputeAgent2TakerPayout = BigInteger.valueOf(10L),
+            disputeAgent2ConfiscationPayout = BigInteger.valueOf(10L),
             matchingProposals = 0L,
             makerReaction = 0L,
             takerReaction = 0L,
             onChainState = 0L,
             hasMakerPaidOut = 0L,
             hasTakerPaidOut = 0L,
-            totalWithoutSpentServiceFees = "an_amount_here",
+            totalWithoutSpentServiceFees = BigInteger.valueOf(10L),
             role = "a_role_here",
             disputeAgent0InterfaceID = "an_interface_id",
             disputeAgent1InterfaceID = "an_interface_id",
             disputeAgent2InterfaceID = "an_interface_id",
             state = "a_state_here",
             makerCommunicationKey = null,
-            mCKInitializationVector = null,
             takerCommunicationKey = null,
-            tCKInitializationVector = null,
             disputeAgentCommunicationKey = null,
-            dACKInitializationVector = null,
             sentKeyToMaker = 0L,
             sentKeyToTaker = 0L,
         )
         databaseService.storeSwapAndDispute(swapAndDisputeToStore)
         val anotherSwapAndDisputeToStore = SwapAndDispute(
-            id = "a_uuid",
+            id = anID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = "maker_address",
@@ -2765,12 +3183,12 @@ class DatabaseServiceTest {
             taker = "taker_address",
             takerInterfaceID = "taker_interface_id",
             stablecoin = "stablecoin_address",
-            amountLowerBound = "lower_bound_amount",
-            amountUpperBound = "upper_bound_amount",
-            securityDepositAmount = "security_deposit_amount",
-            takenSwapAmount = "taken_swap_amount",
-            serviceFeeAmount = "service_fee_amount",
-            serviceFeeRate = "service_fee_rate",
+            amountLowerBound = BigInteger.valueOf(100L),
+            amountUpperBound = BigInteger.valueOf(200L),
+            securityDepositAmount = BigInteger.valueOf(20L),
+            takenSwapAmount = BigInteger.valueOf(150L),
+            serviceFeeAmount = BigInteger.valueOf(15L),
+            serviceFeeRate = BigInteger.valueOf(100L),
             onChainDirection = "direction",
             settlementMethod = "settlement_method",
             protocolVersion = "some_version",
@@ -2779,48 +3197,45 @@ class DatabaseServiceTest {
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = "dispute_raiser",
-            chainID = "a_chain_id",
+            chainID = aChainID,
             disputeRaisedBlockNumber = "a_block_number",
             disputeAgent0 = "da0_address",
             disputeAgent1 = "da1_address",
             disputeAgent2 = "da2_address",
             hasDisputeAgent0Proposed = 0L,
-            disputeAgent0MakerPayout = "an_amount_here",
-            disputeAgent0TakerPayout = "an_amount_here",
-            disputeAgent0ConfiscationPayout = "an_amount_here",
+            disputeAgent0MakerPayout = BigInteger.valueOf(10L),
+            disputeAgent0TakerPayout = BigInteger.valueOf(10L),
+            disputeAgent0ConfiscationPayout = BigInteger.valueOf(10L),
             hasDisputeAgent1Proposed = 0L,
-            disputeAgent1MakerPayout = "an_amount_here",
-            disputeAgent1TakerPayout = "an_amount_here",
-            disputeAgent1ConfiscationPayout = "an_amount_here",
+            disputeAgent1MakerPayout = BigInteger.valueOf(10L),
+            disputeAgent1TakerPayout = BigInteger.valueOf(10L),
+            disputeAgent1ConfiscationPayout = BigInteger.valueOf(10L),
             hasDisputeAgent2Proposed = 0L,
-            disputeAgent2MakerPayout = "an_amount_here",
-            disputeAgent2TakerPayout = "an_amount_here",
-            disputeAgent2ConfiscationPayout = "an_amount_here",
+            disputeAgent2MakerPayout = BigInteger.valueOf(10L),
+            disputeAgent2TakerPayout = BigInteger.valueOf(10L),
+            disputeAgent2ConfiscationPayout = BigInteger.valueOf(10L),
             matchingProposals = 0L,
             makerReaction = 0L,
             takerReaction = 0L,
             onChainState = 0L,
             hasMakerPaidOut = 0L,
             hasTakerPaidOut = 0L,
-            totalWithoutSpentServiceFees = "an_amount_here",
+            totalWithoutSpentServiceFees = BigInteger.valueOf(10L),
             role = "a_role_here",
             disputeAgent0InterfaceID = "an_interface_id",
             disputeAgent1InterfaceID = "an_interface_id",
             disputeAgent2InterfaceID = "an_interface_id",
             state = "a_state_here",
             makerCommunicationKey = null,
-            mCKInitializationVector = null,
             takerCommunicationKey = null,
-            tCKInitializationVector = null,
             disputeAgentCommunicationKey = null,
-            dACKInitializationVector = null,
             sentKeyToMaker = 0L,
             sentKeyToTaker = 0L,
         )
         // This should do nothing and not throw
         databaseService.storeSwapAndDispute(anotherSwapAndDisputeToStore)
         // This should not throw since only one such SwapAndDispute should exist in the database
-        val returnedSwapAndDispute = databaseService.getSwapAndDispute("a_uuid")
+        val returnedSwapAndDispute = databaseService.getSwapAndDispute(anID)
         assertEquals(swapAndDisputeToStore, returnedSwapAndDispute)
     }
 
@@ -2831,7 +3246,7 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateSwapAndDisputeAgent0InterfaceID() = runBlocking {
         val swapAndDisputeToStore = SwapAndDispute(
-            id = "a_uuid",
+            id = anID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = "maker_address",
@@ -2839,12 +3254,12 @@ class DatabaseServiceTest {
             taker = "taker_address",
             takerInterfaceID = "taker_interface_id",
             stablecoin = "stablecoin_address",
-            amountLowerBound = "lower_bound_amount",
-            amountUpperBound = "upper_bound_amount",
-            securityDepositAmount = "security_deposit_amount",
-            takenSwapAmount = "taken_swap_amount",
-            serviceFeeAmount = "service_fee_amount",
-            serviceFeeRate = "service_fee_rate",
+            amountLowerBound = BigInteger.valueOf(100L),
+            amountUpperBound = BigInteger.valueOf(200L),
+            securityDepositAmount = BigInteger.valueOf(20L),
+            takenSwapAmount = BigInteger.valueOf(150L),
+            serviceFeeAmount = BigInteger.valueOf(15L),
+            serviceFeeRate = BigInteger.valueOf(100L),
             onChainDirection = "direction",
             settlementMethod = "settlement_method",
             protocolVersion = "some_version",
@@ -2853,51 +3268,48 @@ class DatabaseServiceTest {
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = "dispute_raiser",
-            chainID = "a_chain_id",
+            chainID = aChainID,
             disputeRaisedBlockNumber = "a_block_number",
             disputeAgent0 = "da0_address",
             disputeAgent1 = "da1_address",
             disputeAgent2 = "da2_address",
             hasDisputeAgent0Proposed = 0L,
-            disputeAgent0MakerPayout = "an_amount_here",
-            disputeAgent0TakerPayout = "an_amount_here",
-            disputeAgent0ConfiscationPayout = "an_amount_here",
+            disputeAgent0MakerPayout = BigInteger.valueOf(10L),
+            disputeAgent0TakerPayout = BigInteger.valueOf(10L),
+            disputeAgent0ConfiscationPayout = BigInteger.valueOf(10L),
             hasDisputeAgent1Proposed = 0L,
-            disputeAgent1MakerPayout = "an_amount_here",
-            disputeAgent1TakerPayout = "an_amount_here",
-            disputeAgent1ConfiscationPayout = "an_amount_here",
+            disputeAgent1MakerPayout = BigInteger.valueOf(10L),
+            disputeAgent1TakerPayout = BigInteger.valueOf(10L),
+            disputeAgent1ConfiscationPayout = BigInteger.valueOf(10L),
             hasDisputeAgent2Proposed = 0L,
-            disputeAgent2MakerPayout = "an_amount_here",
-            disputeAgent2TakerPayout = "an_amount_here",
-            disputeAgent2ConfiscationPayout = "an_amount_here",
+            disputeAgent2MakerPayout = BigInteger.valueOf(10L),
+            disputeAgent2TakerPayout = BigInteger.valueOf(10L),
+            disputeAgent2ConfiscationPayout = BigInteger.valueOf(10L),
             matchingProposals = 0L,
             makerReaction = 0L,
             takerReaction = 0L,
             onChainState = 0L,
             hasMakerPaidOut = 0L,
             hasTakerPaidOut = 0L,
-            totalWithoutSpentServiceFees = "an_amount_here",
+            totalWithoutSpentServiceFees = BigInteger.valueOf(10L),
             role = "a_role_here",
             disputeAgent0InterfaceID = null,
             disputeAgent1InterfaceID = null,
             disputeAgent2InterfaceID = null,
             state = "a_state_here",
             makerCommunicationKey = null,
-            mCKInitializationVector = null,
             takerCommunicationKey = null,
-            tCKInitializationVector = null,
             disputeAgentCommunicationKey = null,
-            dACKInitializationVector = null,
             sentKeyToMaker = 0L,
             sentKeyToTaker = 0L,
         )
         databaseService.storeSwapAndDispute(swapAndDisputeToStore)
         databaseService.updateSwapAndDisputeAgent0InterfaceID(
-            id = "a_uuid",
-            chainID = "a_chain_id",
+            id = anID,
+            chainID = aChainID,
             interfaceID = "an_interface_id"
         )
-        val returnedSwapAndDispute = databaseService.getSwapAndDispute("a_uuid")
+        val returnedSwapAndDispute = databaseService.getSwapAndDispute(anID)
         assertEquals("an_interface_id", returnedSwapAndDispute?.disputeAgent0InterfaceID)
     }
 
@@ -2908,7 +3320,7 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateSwapAndDisputeAgent1InterfaceID() = runBlocking {
         val swapAndDisputeToStore = SwapAndDispute(
-            id = "a_uuid",
+            id = anID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = "maker_address",
@@ -2916,12 +3328,12 @@ class DatabaseServiceTest {
             taker = "taker_address",
             takerInterfaceID = "taker_interface_id",
             stablecoin = "stablecoin_address",
-            amountLowerBound = "lower_bound_amount",
-            amountUpperBound = "upper_bound_amount",
-            securityDepositAmount = "security_deposit_amount",
-            takenSwapAmount = "taken_swap_amount",
-            serviceFeeAmount = "service_fee_amount",
-            serviceFeeRate = "service_fee_rate",
+            amountLowerBound = BigInteger.valueOf(100L),
+            amountUpperBound = BigInteger.valueOf(200L),
+            securityDepositAmount = BigInteger.valueOf(20L),
+            takenSwapAmount = BigInteger.valueOf(150L),
+            serviceFeeAmount = BigInteger.valueOf(15L),
+            serviceFeeRate = BigInteger.valueOf(100L),
             onChainDirection = "direction",
             settlementMethod = "settlement_method",
             protocolVersion = "some_version",
@@ -2930,51 +3342,48 @@ class DatabaseServiceTest {
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = "dispute_raiser",
-            chainID = "a_chain_id",
+            chainID = aChainID,
             disputeRaisedBlockNumber = "a_block_number",
             disputeAgent0 = "da0_address",
             disputeAgent1 = "da1_address",
             disputeAgent2 = "da2_address",
             hasDisputeAgent0Proposed = 0L,
-            disputeAgent0MakerPayout = "an_amount_here",
-            disputeAgent0TakerPayout = "an_amount_here",
-            disputeAgent0ConfiscationPayout = "an_amount_here",
+            disputeAgent0MakerPayout = BigInteger.valueOf(10L),
+            disputeAgent0TakerPayout = BigInteger.valueOf(10L),
+            disputeAgent0ConfiscationPayout = BigInteger.valueOf(10L),
             hasDisputeAgent1Proposed = 0L,
-            disputeAgent1MakerPayout = "an_amount_here",
-            disputeAgent1TakerPayout = "an_amount_here",
-            disputeAgent1ConfiscationPayout = "an_amount_here",
+            disputeAgent1MakerPayout = BigInteger.valueOf(10L),
+            disputeAgent1TakerPayout = BigInteger.valueOf(10L),
+            disputeAgent1ConfiscationPayout = BigInteger.valueOf(10L),
             hasDisputeAgent2Proposed = 0L,
-            disputeAgent2MakerPayout = "an_amount_here",
-            disputeAgent2TakerPayout = "an_amount_here",
-            disputeAgent2ConfiscationPayout = "an_amount_here",
+            disputeAgent2MakerPayout = BigInteger.valueOf(10L),
+            disputeAgent2TakerPayout = BigInteger.valueOf(10L),
+            disputeAgent2ConfiscationPayout = BigInteger.valueOf(10L),
             matchingProposals = 0L,
             makerReaction = 0L,
             takerReaction = 0L,
             onChainState = 0L,
             hasMakerPaidOut = 0L,
             hasTakerPaidOut = 0L,
-            totalWithoutSpentServiceFees = "an_amount_here",
+            totalWithoutSpentServiceFees = BigInteger.valueOf(10L),
             role = "a_role_here",
             disputeAgent0InterfaceID = null,
             disputeAgent1InterfaceID = null,
             disputeAgent2InterfaceID = null,
             state = "a_state_here",
             makerCommunicationKey = null,
-            mCKInitializationVector = null,
             takerCommunicationKey = null,
-            tCKInitializationVector = null,
             disputeAgentCommunicationKey = null,
-            dACKInitializationVector = null,
             sentKeyToMaker = 0L,
             sentKeyToTaker = 0L,
         )
         databaseService.storeSwapAndDispute(swapAndDisputeToStore)
         databaseService.updateSwapAndDisputeAgent1InterfaceID(
-            id = "a_uuid",
-            chainID = "a_chain_id",
+            id = anID,
+            chainID = aChainID,
             interfaceID = "an_interface_id"
         )
-        val returnedSwapAndDispute = databaseService.getSwapAndDispute("a_uuid")
+        val returnedSwapAndDispute = databaseService.getSwapAndDispute(anID)
         assertEquals("an_interface_id", returnedSwapAndDispute?.disputeAgent1InterfaceID)
     }
 
@@ -2985,7 +3394,7 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateSwapAndDisputeAgent2InterfaceID() = runBlocking {
         val swapAndDisputeToStore = SwapAndDispute(
-            id = "a_uuid",
+            id = anID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = "maker_address",
@@ -2993,12 +3402,12 @@ class DatabaseServiceTest {
             taker = "taker_address",
             takerInterfaceID = "taker_interface_id",
             stablecoin = "stablecoin_address",
-            amountLowerBound = "lower_bound_amount",
-            amountUpperBound = "upper_bound_amount",
-            securityDepositAmount = "security_deposit_amount",
-            takenSwapAmount = "taken_swap_amount",
-            serviceFeeAmount = "service_fee_amount",
-            serviceFeeRate = "service_fee_rate",
+            amountLowerBound = BigInteger.valueOf(100L),
+            amountUpperBound = BigInteger.valueOf(200L),
+            securityDepositAmount = BigInteger.valueOf(20L),
+            takenSwapAmount = BigInteger.valueOf(150L),
+            serviceFeeAmount = BigInteger.valueOf(15L),
+            serviceFeeRate = BigInteger.valueOf(100L),
             onChainDirection = "direction",
             settlementMethod = "settlement_method",
             protocolVersion = "some_version",
@@ -3007,51 +3416,48 @@ class DatabaseServiceTest {
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = "dispute_raiser",
-            chainID = "a_chain_id",
+            chainID = aChainID,
             disputeRaisedBlockNumber = "a_block_number",
             disputeAgent0 = "da0_address",
             disputeAgent1 = "da1_address",
             disputeAgent2 = "da2_address",
             hasDisputeAgent0Proposed = 0L,
-            disputeAgent0MakerPayout = "an_amount_here",
-            disputeAgent0TakerPayout = "an_amount_here",
-            disputeAgent0ConfiscationPayout = "an_amount_here",
+            disputeAgent0MakerPayout = BigInteger.valueOf(10L),
+            disputeAgent0TakerPayout = BigInteger.valueOf(10L),
+            disputeAgent0ConfiscationPayout = BigInteger.valueOf(10L),
             hasDisputeAgent1Proposed = 0L,
-            disputeAgent1MakerPayout = "an_amount_here",
-            disputeAgent1TakerPayout = "an_amount_here",
-            disputeAgent1ConfiscationPayout = "an_amount_here",
+            disputeAgent1MakerPayout = BigInteger.valueOf(10L),
+            disputeAgent1TakerPayout = BigInteger.valueOf(10L),
+            disputeAgent1ConfiscationPayout = BigInteger.valueOf(10L),
             hasDisputeAgent2Proposed = 0L,
-            disputeAgent2MakerPayout = "an_amount_here",
-            disputeAgent2TakerPayout = "an_amount_here",
-            disputeAgent2ConfiscationPayout = "an_amount_here",
+            disputeAgent2MakerPayout = BigInteger.valueOf(10L),
+            disputeAgent2TakerPayout = BigInteger.valueOf(10L),
+            disputeAgent2ConfiscationPayout = BigInteger.valueOf(10L),
             matchingProposals = 0L,
             makerReaction = 0L,
             takerReaction = 0L,
             onChainState = 0L,
             hasMakerPaidOut = 0L,
             hasTakerPaidOut = 0L,
-            totalWithoutSpentServiceFees = "an_amount_here",
+            totalWithoutSpentServiceFees = BigInteger.valueOf(10L),
             role = "a_role_here",
             disputeAgent0InterfaceID = null,
             disputeAgent1InterfaceID = null,
             disputeAgent2InterfaceID = null,
             state = "a_state_here",
             makerCommunicationKey = null,
-            mCKInitializationVector = null,
             takerCommunicationKey = null,
-            tCKInitializationVector = null,
             disputeAgentCommunicationKey = null,
-            dACKInitializationVector = null,
             sentKeyToMaker = 0L,
             sentKeyToTaker = 0L,
         )
         databaseService.storeSwapAndDispute(swapAndDisputeToStore)
         databaseService.updateSwapAndDisputeAgent2InterfaceID(
-            id = "a_uuid",
-            chainID = "a_chain_id",
+            id = anID,
+            chainID = aChainID,
             interfaceID = "an_interface_id"
         )
-        val returnedSwapAndDispute = databaseService.getSwapAndDispute("a_uuid")
+        val returnedSwapAndDispute = databaseService.getSwapAndDispute(anID)
         assertEquals("an_interface_id", returnedSwapAndDispute?.disputeAgent2InterfaceID)
     }
 
@@ -3061,7 +3467,7 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateSwapAndDisputeState() = runBlocking {
         val swapAndDisputeToStore = SwapAndDispute(
-            id = "a_uuid",
+            id = anID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = "maker_address",
@@ -3069,12 +3475,12 @@ class DatabaseServiceTest {
             taker = "taker_address",
             takerInterfaceID = "taker_interface_id",
             stablecoin = "stablecoin_address",
-            amountLowerBound = "lower_bound_amount",
-            amountUpperBound = "upper_bound_amount",
-            securityDepositAmount = "security_deposit_amount",
-            takenSwapAmount = "taken_swap_amount",
-            serviceFeeAmount = "service_fee_amount",
-            serviceFeeRate = "service_fee_rate",
+            amountLowerBound = BigInteger.valueOf(100L),
+            amountUpperBound = BigInteger.valueOf(200L),
+            securityDepositAmount = BigInteger.valueOf(20L),
+            takenSwapAmount = BigInteger.valueOf(150L),
+            serviceFeeAmount = BigInteger.valueOf(15L),
+            serviceFeeRate = BigInteger.valueOf(100L),
             onChainDirection = "direction",
             settlementMethod = "settlement_method",
             protocolVersion = "some_version",
@@ -3083,51 +3489,48 @@ class DatabaseServiceTest {
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = "dispute_raiser",
-            chainID = "a_chain_id",
+            chainID = aChainID,
             disputeRaisedBlockNumber = "a_block_number",
             disputeAgent0 = "da0_address",
             disputeAgent1 = "da1_address",
             disputeAgent2 = "da2_address",
             hasDisputeAgent0Proposed = 0L,
-            disputeAgent0MakerPayout = "an_amount_here",
-            disputeAgent0TakerPayout = "an_amount_here",
-            disputeAgent0ConfiscationPayout = "an_amount_here",
+            disputeAgent0MakerPayout = BigInteger.valueOf(10L),
+            disputeAgent0TakerPayout = BigInteger.valueOf(10L),
+            disputeAgent0ConfiscationPayout = BigInteger.valueOf(10L),
             hasDisputeAgent1Proposed = 0L,
-            disputeAgent1MakerPayout = "an_amount_here",
-            disputeAgent1TakerPayout = "an_amount_here",
-            disputeAgent1ConfiscationPayout = "an_amount_here",
+            disputeAgent1MakerPayout = BigInteger.valueOf(10L),
+            disputeAgent1TakerPayout = BigInteger.valueOf(10L),
+            disputeAgent1ConfiscationPayout = BigInteger.valueOf(10L),
             hasDisputeAgent2Proposed = 0L,
-            disputeAgent2MakerPayout = "an_amount_here",
-            disputeAgent2TakerPayout = "an_amount_here",
-            disputeAgent2ConfiscationPayout = "an_amount_here",
+            disputeAgent2MakerPayout = BigInteger.valueOf(10L),
+            disputeAgent2TakerPayout = BigInteger.valueOf(10L),
+            disputeAgent2ConfiscationPayout = BigInteger.valueOf(10L),
             matchingProposals = 0L,
             makerReaction = 0L,
             takerReaction = 0L,
             onChainState = 0L,
             hasMakerPaidOut = 0L,
             hasTakerPaidOut = 0L,
-            totalWithoutSpentServiceFees = "an_amount_here",
+            totalWithoutSpentServiceFees = BigInteger.valueOf(10L),
             role = "a_role_here",
             disputeAgent0InterfaceID = "an_interface_id",
             disputeAgent1InterfaceID = "an_interface_id",
             disputeAgent2InterfaceID = "an_interface_id",
             state = "a_state_here",
             makerCommunicationKey = null,
-            mCKInitializationVector = null,
             takerCommunicationKey = null,
-            tCKInitializationVector = null,
             disputeAgentCommunicationKey = null,
-            dACKInitializationVector = null,
             sentKeyToMaker = 0L,
             sentKeyToTaker = 0L,
         )
         databaseService.storeSwapAndDispute(swapAndDisputeToStore)
         databaseService.updateSwapAndDisputeState(
-            id = "a_uuid",
-            chainID = "a_chain_id",
+            id = anID,
+            chainID = aChainID,
             state = "a_new_state_here",
         )
-        val returnedSwapAndDispute = databaseService.getSwapAndDispute("a_uuid")
+        val returnedSwapAndDispute = databaseService.getSwapAndDispute(anID)
         assertEquals("a_new_state_here", returnedSwapAndDispute?.state)
     }
 
@@ -3137,7 +3540,7 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateSwapAndDisputeCommunicationKeys() = runBlocking {
         val swapAndDisputeToStore = SwapAndDispute(
-            id = "a_uuid",
+            id = anID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = "maker_address",
@@ -3145,12 +3548,12 @@ class DatabaseServiceTest {
             taker = "taker_address",
             takerInterfaceID = "taker_interface_id",
             stablecoin = "stablecoin_address",
-            amountLowerBound = "lower_bound_amount",
-            amountUpperBound = "upper_bound_amount",
-            securityDepositAmount = "security_deposit_amount",
-            takenSwapAmount = "taken_swap_amount",
-            serviceFeeAmount = "service_fee_amount",
-            serviceFeeRate = "service_fee_rate",
+            amountLowerBound = BigInteger.valueOf(100L),
+            amountUpperBound = BigInteger.valueOf(200L),
+            securityDepositAmount = BigInteger.valueOf(20L),
+            takenSwapAmount = BigInteger.valueOf(150L),
+            serviceFeeAmount = BigInteger.valueOf(15L),
+            serviceFeeRate = BigInteger.valueOf(100L),
             onChainDirection = "direction",
             settlementMethod = "settlement_method",
             protocolVersion = "some_version",
@@ -3159,61 +3562,58 @@ class DatabaseServiceTest {
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = "dispute_raiser",
-            chainID = "a_chain_id",
+            chainID = aChainID,
             disputeRaisedBlockNumber = "a_block_number",
             disputeAgent0 = "da0_address",
             disputeAgent1 = "da1_address",
             disputeAgent2 = "da2_address",
             hasDisputeAgent0Proposed = 0L,
-            disputeAgent0MakerPayout = "an_amount_here",
-            disputeAgent0TakerPayout = "an_amount_here",
-            disputeAgent0ConfiscationPayout = "an_amount_here",
+            disputeAgent0MakerPayout = BigInteger.valueOf(10L),
+            disputeAgent0TakerPayout = BigInteger.valueOf(10L),
+            disputeAgent0ConfiscationPayout = BigInteger.valueOf(10L),
             hasDisputeAgent1Proposed = 0L,
-            disputeAgent1MakerPayout = "an_amount_here",
-            disputeAgent1TakerPayout = "an_amount_here",
-            disputeAgent1ConfiscationPayout = "an_amount_here",
+            disputeAgent1MakerPayout = BigInteger.valueOf(10L),
+            disputeAgent1TakerPayout = BigInteger.valueOf(10L),
+            disputeAgent1ConfiscationPayout = BigInteger.valueOf(10L),
             hasDisputeAgent2Proposed = 0L,
-            disputeAgent2MakerPayout = "an_amount_here",
-            disputeAgent2TakerPayout = "an_amount_here",
-            disputeAgent2ConfiscationPayout = "an_amount_here",
+            disputeAgent2MakerPayout = BigInteger.valueOf(10L),
+            disputeAgent2TakerPayout = BigInteger.valueOf(10L),
+            disputeAgent2ConfiscationPayout = BigInteger.valueOf(10L),
             matchingProposals = 0L,
             makerReaction = 0L,
             takerReaction = 0L,
             onChainState = 0L,
             hasMakerPaidOut = 0L,
             hasTakerPaidOut = 0L,
-            totalWithoutSpentServiceFees = "an_amount_here",
+            totalWithoutSpentServiceFees = BigInteger.valueOf(10L),
             role = "a_role_here",
             disputeAgent0InterfaceID = "an_interface_id",
             disputeAgent1InterfaceID = "an_interface_id",
             disputeAgent2InterfaceID = "an_interface_id",
             state = "a_state_here",
             makerCommunicationKey = null,
-            mCKInitializationVector = null,
             takerCommunicationKey = null,
-            tCKInitializationVector = null,
             disputeAgentCommunicationKey = null,
-            dACKInitializationVector = null,
             sentKeyToMaker = 0L,
             sentKeyToTaker = 0L,
         )
         databaseService.storeSwapAndDispute(swapAndDisputeToStore)
         databaseService.updateSwapAndDisputeMakerCommunicationKey(
-            id = "a_uuid",
-            chainID = "a_chain_id",
+            id = anID,
+            chainID = aChainID,
             key = "a_maker_key_here",
         )
         databaseService.updateSwapAndDisputeTakerCommunicationKey(
-            id = "a_uuid",
-            chainID = "a_chain_id",
+            id = anID,
+            chainID = aChainID,
             key = "a_taker_key_here",
         )
         databaseService.updateSwapAndDisputeAgentCommunicationKey(
-            id = "a_uuid",
-            chainID = "a_chain_id",
+            id = anID,
+            chainID = aChainID,
             key = "a_dispute_agent_key_here",
         )
-        val returnedSwapAndDispute = databaseService.getSwapAndDispute("a_uuid")
+        val returnedSwapAndDispute = databaseService.getSwapAndDispute(anID)
         val returnedMakerCommunicationKey = databaseService
             .decryptMakerCommunicationKeyFromSwapAndDispute(returnedSwapAndDispute!!)
         val returnedTakerCommunicationKey = databaseService
@@ -3232,7 +3632,7 @@ class DatabaseServiceTest {
     @Test
     fun testUpdateSwapAndDisputeSentKeys() = runBlocking {
         val swapAndDisputeToStore = SwapAndDispute(
-            id = "a_uuid",
+            id = anID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = "maker_address",
@@ -3240,12 +3640,12 @@ class DatabaseServiceTest {
             taker = "taker_address",
             takerInterfaceID = "taker_interface_id",
             stablecoin = "stablecoin_address",
-            amountLowerBound = "lower_bound_amount",
-            amountUpperBound = "upper_bound_amount",
-            securityDepositAmount = "security_deposit_amount",
-            takenSwapAmount = "taken_swap_amount",
-            serviceFeeAmount = "service_fee_amount",
-            serviceFeeRate = "service_fee_rate",
+            amountLowerBound = BigInteger.valueOf(100L),
+            amountUpperBound = BigInteger.valueOf(200L),
+            securityDepositAmount = BigInteger.valueOf(20L),
+            takenSwapAmount = BigInteger.valueOf(150L),
+            serviceFeeAmount = BigInteger.valueOf(15L),
+            serviceFeeRate = BigInteger.valueOf(100L),
             onChainDirection = "direction",
             settlementMethod = "settlement_method",
             protocolVersion = "some_version",
@@ -3254,56 +3654,53 @@ class DatabaseServiceTest {
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = "dispute_raiser",
-            chainID = "a_chain_id",
+            chainID = aChainID,
             disputeRaisedBlockNumber = "a_block_number",
             disputeAgent0 = "da0_address",
             disputeAgent1 = "da1_address",
             disputeAgent2 = "da2_address",
             hasDisputeAgent0Proposed = 0L,
-            disputeAgent0MakerPayout = "an_amount_here",
-            disputeAgent0TakerPayout = "an_amount_here",
-            disputeAgent0ConfiscationPayout = "an_amount_here",
+            disputeAgent0MakerPayout = BigInteger.valueOf(10L),
+            disputeAgent0TakerPayout = BigInteger.valueOf(10L),
+            disputeAgent0ConfiscationPayout = BigInteger.valueOf(10L),
             hasDisputeAgent1Proposed = 0L,
-            disputeAgent1MakerPayout = "an_amount_here",
-            disputeAgent1TakerPayout = "an_amount_here",
-            disputeAgent1ConfiscationPayout = "an_amount_here",
+            disputeAgent1MakerPayout = BigInteger.valueOf(10L),
+            disputeAgent1TakerPayout = BigInteger.valueOf(10L),
+            disputeAgent1ConfiscationPayout = BigInteger.valueOf(10L),
             hasDisputeAgent2Proposed = 0L,
-            disputeAgent2MakerPayout = "an_amount_here",
-            disputeAgent2TakerPayout = "an_amount_here",
-            disputeAgent2ConfiscationPayout = "an_amount_here",
+            disputeAgent2MakerPayout = BigInteger.valueOf(10L),
+            disputeAgent2TakerPayout = BigInteger.valueOf(10L),
+            disputeAgent2ConfiscationPayout = BigInteger.valueOf(10L),
             matchingProposals = 0L,
             makerReaction = 0L,
             takerReaction = 0L,
             onChainState = 0L,
             hasMakerPaidOut = 0L,
             hasTakerPaidOut = 0L,
-            totalWithoutSpentServiceFees = "an_amount_here",
+            totalWithoutSpentServiceFees = BigInteger.valueOf(10L),
             role = "a_role_here",
             disputeAgent0InterfaceID = "an_interface_id",
             disputeAgent1InterfaceID = "an_interface_id",
             disputeAgent2InterfaceID = "an_interface_id",
             state = "a_state_here",
             makerCommunicationKey = null,
-            mCKInitializationVector = null,
             takerCommunicationKey = null,
-            tCKInitializationVector = null,
             disputeAgentCommunicationKey = null,
-            dACKInitializationVector = null,
             sentKeyToMaker = 0L,
             sentKeyToTaker = 0L,
         )
         databaseService.storeSwapAndDispute(swapAndDisputeToStore)
         databaseService.updateSwapAndDisputeSentKeyToMaker(
-            id = "a_uuid",
-            chainID = "a_chain_id",
+            id = anID,
+            chainID = aChainID,
             sentKeyToMaker = true,
         )
         databaseService.updateSwapAndDisputeSentKeyToTaker(
-            id = "a_uuid",
-            chainID = "a_chain_id",
+            id = anID,
+            chainID = aChainID,
             sentKeyToTaker = true,
         )
-        val returnedSwapAndDispute = databaseService.getSwapAndDispute("a_uuid")
+        val returnedSwapAndDispute = databaseService.getSwapAndDispute(anID)
         assertEquals(1L, returnedSwapAndDispute?.sentKeyToMaker)
         assertEquals(1L, returnedSwapAndDispute?.sentKeyToTaker)
     }
@@ -3368,9 +3765,9 @@ class DatabaseServiceTest {
 
     @Test
     fun testDuplicateKeyPairProtection(): Unit = runBlocking {
-        databaseService.storeKeyPair("interf_id", "pub_key", "priv_key")
+        assertTrue(databaseService.storeKeyPair("interf_id", "pub_key", "priv_key"))
         // This should do nothing and not throw
-        databaseService.storeKeyPair("interf_id", "another_pub_key", "another_priv_key")
+        assertFalse(databaseService.storeKeyPair("interf_id", "another_pub_key", "another_priv_key"))
         // This should not throw, since only one such key pair should exist in the database
         val keyPair = databaseService.getKeyPair("interf_id")
         assertEquals(keyPair!!.publicKey, "pub_key")
@@ -3379,12 +3776,411 @@ class DatabaseServiceTest {
 
     @Test
     fun testDuplicatePublicKeyProtection() = runBlocking {
-        databaseService.storePublicKey("interf_id", "pub_key")
+        assertTrue(databaseService.storePublicKey("interf_id", "pub_key"))
         // This should do nothing and not throw
-        databaseService.storePublicKey("interf_id", "another_pub_key")
+        assertFalse(databaseService.storePublicKey("interf_id", "another_pub_key"))
         // This should not throw, since only one such key pair should exist in the database
         val pubKey = databaseService.getPublicKey("interf_id")
         assertEquals(pubKey!!.publicKey, "pub_key")
     }
 
-}
\ No newline at end of file
+    /**
+     * Ensures that stablecoin metadata is stored and retrieved for each chain, and that metadata for a contract that
+     * is already stored is not replaced.
+     */
+    @Test
+    fun testStoreAndGetStablecoinMetadata() = runBlocking {
+        val dai = StablecoinMetadata(aChainID, "0xdai", "DAI", "Dai", 18L)
+        val usdcOnMainnet = StablecoinMetadata(BigInteger.ONE, "0xusdc", "USDC", "USD Coin", 6L)
+        databaseService.storeStablecoinMetadata(listOf(dai, usdcOnMainnet))
+        databaseService.storeStablecoinMetadata(listOf(dai.copy(currencyCode = "FAKE", decimals = 6L)))
+        assertEquals(
+            setOf(dai, usdcOnMainnet),
+            databaseService.getAllStablecoinMetadata().toSet()
+        )
+    }
+
+    /**
+     * Ensures that a file-backed database is created by [DatabaseService.prepareDatabase], that it is opened rather than
+     * recreated when the app is started again, and that data stored in it persists.
+     */
+    @Test
+    fun testPrepareFileDatabase() = runBlocking {
+        val databaseFile = File.createTempFile("commuto_test", ".db")
+        databaseFile.delete()
+        try {
+            val firstDatabaseService = DatabaseService(DatabaseDriverFactory(databaseFile = databaseFile))
+            firstDatabaseService.prepareDatabase()
+            firstDatabaseService.storePublicKey("interf_id", "pub_key")
+            // Simulates starting the app again
+            val secondDatabaseService = DatabaseService(DatabaseDriverFactory(databaseFile = databaseFile))
+            secondDatabaseService.prepareDatabase()
+            assertEquals("pub_key", secondDatabaseService.getPublicKey("interf_id")!!.publicKey)
+            // Preparing a database that already has the current schema is a no-op
+            databaseService.prepareDatabase()
+        } finally {
+            databaseFile.delete()
+            File(databaseFile.path + "-wal").delete()
+            File(databaseFile.path + "-shm").delete()
+        }
+    }
+
+    /**
+     * Ensures that reads from a file-backed database, which are made using a pool of read-only connections, can run
+     * concurrently with each other and with writes, and see every committed write.
+     */
+    @Test
+    fun testConcurrentReadsFromFileDatabase() = runBlocking {
+        val databaseFile = File.createTempFile("commuto_test", ".db")
+        databaseFile.delete()
+        try {
+            val fileDatabaseService = DatabaseService(DatabaseDriverFactory(databaseFile = databaseFile))
+            fileDatabaseService.prepareDatabase()
+            (0 until 20).forEach {
+                fileDatabaseService.storePublicKey("interf_id_$it", "pub_key_$it")
+            }
+            val reads = (0 until 20).map {
+                async(Dispatchers.Default) {
+                    fileDatabaseService.getPublicKey("interf_id_$it")?.publicKey
+                }
+            }
+            val write = async(Dispatchers.Default) {
+                fileDatabaseService.storePublicKey("another_interf_id", "another_pub_key")
+            }
+            assertEquals((0 until 20).map { "pub_key_$it" }, reads.awaitAll())
+            write.await()
+            assertEquals("another_pub_key", fileDatabaseService.getPublicKey("another_interf_id")!!.publicKey)
+        } finally {
+            databaseFile.delete()
+            File(databaseFile.path + "-wal").delete()
+            File(databaseFile.path + "-shm").delete()
+        }
+    }
+
+    /**
+     * Ensures that [DatabaseService.prepareDatabase] migrates a version 1 database file, which stores the state and
+     * transaction data of each action of an offer or swap in columns of the `Offer` and `Swap` tables, to the current
+     * schema: actions that have begun are moved into `EntityTransaction`, actions that have not begun are read as not
+     * begun, and data in tables of which the layout didn't change is kept. Also ensures that databases with schema
+     * versions that were never released are rejected rather than migrated.
+     */
+    @Test
+    fun testMigrateFromVersion1() = runBlocking {
+        val databaseFile = File.createTempFile("commuto_test", ".db")
+        databaseFile.delete()
+        try {
+            val encodedID = Base64.getEncoder().encodeToString(anID.asByteArray())
+            createVersion1Database(
+                databaseFile,
+                "INSERT INTO Offer VALUES ('$encodedID', 1, 0, 'maker_address', 'interface_id', " +
+                        "'stablecoin_address', '100', '200', '20', '100', 'direction', 'some_version', '31337', 1, " +
+                        "1, 'openOfferTxPublished', 'completed', 'approve_tx_hash', 'approve_time', 5, " +
+                        "'sendingTransaction', 'open_tx_hash', 'open_time', 6, 'none', NULL, NULL, NULL, 'none', " +
+                        "NULL, NULL, NULL, 'none', NULL, NULL, NULL, 'none', NULL, NULL, NULL)",
+                "INSERT INTO Swap VALUES ('$encodedID', 1, 1, 'maker_address', 'maker_interface_id', " +
+                        "'taker_address', 'taker_interface_id', 'stablecoin_address', '100', '200', '20', '150', " +
+                        "'15', '100', 'direction', 'some_settlement_method', NULL, NULL, NULL, NULL, 'some_version', " +
+                        "0, 0, 0, 0, 'dispute_raiser', '31337', 'a_state_here', 'maker', 'completed', " +
+                        "'fill_tx_hash', 'fill_time', 7, 'none', NULL, NULL, NULL, 'none', NULL, NULL, NULL, " +
+                        "'none', NULL, NULL, NULL, 'none', NULL, NULL, NULL, 'none', 'none', NULL, NULL, NULL)",
+                "INSERT INTO PublicKey VALUES ('interf_id', 'pub_key')",
+            )
+            val migratedDatabaseService = DatabaseService(DatabaseDriverFactory(databaseFile = databaseFile))
+            migratedDatabaseService.prepareDatabase()
+            val migratedOffer = migratedDatabaseService.getOffer(anID)!!
+            assertEquals("openOfferTxPublished", migratedOffer.state)
+            assertEquals("completed", migratedOffer.approveToOpenState)
+            assertEquals("approve_tx_hash", migratedOffer.approveToOpenTransactionHash)
+            assertEquals("approve_time", migratedOffer.approveToOpenTransactionCreationTime)
+            assertEquals(5L, migratedOffer.approveToOpenTransactionCreationBlockNumber)
+            assertEquals("sendingTransaction", migratedOffer.openingOfferState)
+            assertEquals("open_tx_hash", migratedOffer.openingOfferTransactionHash)
+            assertEquals(6L, migratedOffer.openingOfferTransactionCreationBlockNumber)
+            assertEquals("none", migratedOffer.cancelingOfferState)
+            assertNull(migratedOffer.offerCancellationTransactionHash)
+            val migratedSwap = migratedDatabaseService.getSwap(anID)!!
+            assertEquals("completed", migratedSwap.approveToFillState)
+            assertEquals("fill_tx_hash", migratedSwap.approveToFillTransactionHash)
+            assertEquals(7L, migratedSwap.approveToFillTransactionCreationBlockNumber)
+            assertEquals("none", migratedSwap.fillingSwapState)
+            assertNull(migratedSwap.fillingSwapTransactionHash)
+            assertEquals(
+                listOf(Triple(anID, aChainID, EntityTransactionAction.OPENING_OFFER.asString)),
+                migratedDatabaseService.getEntityTransactions("open_tx_hash").map {
+                    Triple(it.entityID, it.chainID, it.actionType)
+                }
+            )
+            assertEquals("pub_key", migratedDatabaseService.getPublicKey("interf_id")!!.publicKey)
+            // Preparing the migrated database again is a no-op
+            DatabaseService(DatabaseDriverFactory(databaseFile = databaseFile)).prepareDatabase()
+        } finally {
+            deleteDatabaseFile(databaseFile)
+        }
+        val unreleasedDatabaseFile = File.createTempFile("commuto_test", ".db")
+        unreleasedDatabaseFile.delete()
+        try {
+            DatabaseDriverFactory(databaseFile = unreleasedDatabaseFile).createDriver().apply {
+                execute(null, "PRAGMA user_version = 6", 0)
+            }.close()
+            val unreleasedDatabaseService = DatabaseService(
+                DatabaseDriverFactory(databaseFile = unreleasedDatabaseFile)
+            )
+            assertFailsWith<IllegalStateException> {
+                unreleasedDatabaseService.prepareDatabase()
+            }
+        } finally {
+            deleteDatabaseFile(unreleasedDatabaseFile)
+        }
+    }
+
+    /**
+     * Ensures that [DatabaseService.prepareDatabase] converts the Base64 and hyphenated [UUID] IDs, decimal chain IDs
+     * and decimal amounts stored as TEXT in a version 1 database file to their binary forms, so that they are read back
+     * unchanged after the upgrade, including amounts that need all 32 bytes.
+     */
+    @Test
+    fun testMigrateBinaryColumnsFromVersion1() = runBlocking {
+        val databaseFile = File.createTempFile("commuto_test", ".db")
+        databaseFile.delete()
+        val maximumAmount = BigInteger.TWO.pow(256) - BigInteger.ONE
+        try {
+            val encodedID = Base64.getEncoder().encodeToString(anID.asByteArray())
+            val noAction = "'none', NULL, NULL, NULL"
+            createVersion1Database(
+                databaseFile,
+                "INSERT INTO Offer VALUES ('$encodedID', 1, 0, 'maker_address', 'interface_id', " +
+                        "'stablecoin_address', '100', '$maximumAmount', '20', '1', 'direction', 'some_version', " +
+                        "'31337', 1, 1, 'a_state_here', " + List(6) { noAction }.joinToString() + ")",
+                "INSERT INTO OfferSettlementMethod VALUES ('$encodedID', '31337', 'settlement_method', NULL, NULL)",
+                "INSERT INTO PendingOfferSettlementMethod VALUES ('$encodedID', '31337', " +
+                        "'pending_settlement_method', NULL, NULL)",
+                "INSERT INTO Swap VALUES ('$encodedID', 1, 1, 'maker_address', 'maker_interface_id', " +
+                        "'taker_address', 'taker_interface_id', 'stablecoin_address', '100', '$maximumAmount', " +
+                        "'20', '150', '15', '1', 'direction', 'some_settlement_method', NULL, NULL, NULL, NULL, " +
+                        "'some_version', 0, 0, 0, 0, 'dispute_raiser', '31337', 'a_state_here', 'maker', " +
+                        List(5) { noAction }.joinToString() + ", 'none', $noAction)",
+                "INSERT INTO SwapAndDispute VALUES ('$anID', 1, 1, 'maker_address', 'maker_interface_id', " +
+                        "'taker_address', 'taker_interface_id', 'stablecoin_address', '100', '$maximumAmount', " +
+                        "'20', '150', '15', '1', 'direction', 'some_settlement_method', 'some_version', 0, 0, 0, 0, " +
+                        "'dispute_raiser', '31337', '42', 'agent_0', 'agent_1', 'agent_2', " +
+                        "1, '10', '20', '30', 0, '0', '0', '0', 0, '0', '0', '$maximumAmount', " +
+                        "0, 0, 0, 0, 0, 0, '270', 'maker', NULL, NULL, NULL, 'a_state_here', " +
+                        "NULL, NULL, NULL, NULL, NULL, NULL, 0, 0)",
+            )
+            val migratedDatabaseService = DatabaseService(DatabaseDriverFactory(databaseFile = databaseFile))
+            migratedDatabaseService.prepareDatabase()
+            val migratedOffer = migratedDatabaseService.getOffer(anID)!!
+            assertEquals(anID, migratedOffer.id)
+            assertEquals(aChainID, migratedOffer.chainID)
+            assertEquals(BigInteger.valueOf(100L), migratedOffer.amountLowerBound)
+            assertEquals(maximumAmount, migratedOffer.amountUpperBound)
+            assertEquals(BigInteger.valueOf(20L), migratedOffer.securityDepositAmount)
+            assertEquals(BigInteger.ONE, migratedOffer.serviceFeeRate)
+            assertEquals(
+                listOf(Pair("settlement_method", null)),
+                migratedDatabaseService.getOfferSettlementMethods(anID, aChainID)
+            )
+            assertEquals(
+                listOf(Pair("pending_settlement_method", null)),
+                migratedDatabaseService.getPendingOfferSettlementMethods(anID, aChainID)
+            )
+            val migratedSwap = migratedDatabaseService.getSwap(anID)!!
+            assertEquals(anID, migratedSwap.id)
+            assertEquals(aChainID, migratedSwap.chainID)
+            assertEquals(maximumAmount, migratedSwap.amountUpperBound)
+            assertEquals(BigInteger.valueOf(150L), migratedSwap.takenSwapAmount)
+            assertEquals(BigInteger.valueOf(15L), migratedSwap.serviceFeeAmount)
+            val migratedSwapAndDispute = migratedDatabaseService.getSwapAndDispute(anID)!!
+            assertEquals(anID, migratedSwapAndDispute.id)
+            assertEquals(aChainID, migratedSwapAndDispute.chainID)
+            assertEquals("42", migratedSwapAndDispute.disputeRaisedBlockNumber)
+            assertEquals(maximumAmount, migratedSwapAndDispute.amountUpperBound)
+            assertEquals(BigInteger.valueOf(10L), migratedSwapAndDispute.disputeAgent0MakerPayout)
+            assertEquals(BigInteger.valueOf(30L), migratedSwapAndDispute.disputeAgent0ConfiscationPayout)
+            assertEquals(maximumAmount, migratedSwapAndDispute.disputeAgent2ConfiscationPayout)
+            assertEquals(BigInteger.valueOf(270L), migratedSwapAndDispute.totalWithoutSpentServiceFees)
+        } finally {
+            deleteDatabaseFile(databaseFile)
+        }
+    }
+
+    /**
+     * Ensures that [DatabaseService.prepareDatabase] re-encrypts the values that a version 1 database file stores as
+     * AES-CBC encrypted Base64 TEXT with separate initialization vectors, so that they are read back unchanged after
+     * the upgrade without initialization vectors.
+     */
+    @Test
+    fun testMigrateEncryptedColumnsFromVersion1() = runBlocking {
+        val databaseFile = File.createTempFile("commuto_test", ".db")
+        databaseFile.delete()
+        val key = SymmetricKey()
+        val encoder = Base64.getEncoder()
+        // Gets the encrypted value and initialization vector of the data as the values of two version 1 columns
+        val encrypt: (String) -> String = { data ->
+            val encryptedData = key.encrypt(data.toByteArray())
+            "'${encoder.encodeToString(encryptedData.encryptedData)}', " +
+                    "'${encoder.encodeToString(encryptedData.initializationVector)}'"
+        }
+        try {
+            val encodedID = encoder.encodeToString(anID.asByteArray())
+            val noAction = "'none', NULL, NULL, NULL"
+            createVersion1Database(
+                databaseFile,
+                "INSERT INTO OfferSettlementMethod VALUES ('$encodedID', '31337', 'settlement_method', " +
+                        "${encrypt("offer_private_data")})",
+                "INSERT INTO Swap VALUES ('$encodedID', 1, 1, 'maker_address', 'maker_interface_id', " +
+                        "'taker_address', 'taker_interface_id', 'stablecoin_address', '100', '200', '20', '150', " +
+                        "'15', '1', 'direction', 'some_settlement_method', ${encrypt("maker_private_data")}, " +
+                        "NULL, NULL, 'some_version', 0, 0, 0, 0, 'dispute_raiser', '31337', 'a_state_here', " +
+                        "'maker', " + List(5) { noAction }.joinToString() + ", 'none', $noAction)",
+                "INSERT INTO SwapAndDispute VALUES ('$anID', 1, 1, 'maker_address', 'maker_interface_id', " +
+                        "'taker_address', 'taker_interface_id', 'stablecoin_address', '100', '200', '20', '150', " +
+                        "'15', '1', 'direction', 'some_settlement_method', 'some_version', 0, 0, 0, 0, " +
+                        "'dispute_raiser', '31337', '42', 'agent_0', 'agent_1', 'agent_2', " +
+                        List(3) { "0, '0', '0', '0'" }.joinToString() + ", 0, 0, 0, 0, 0, 0, '270', 'maker', " +
+                        "NULL, NULL, NULL, 'a_state_here', ${encrypt("maker_communication_key")}, " +
+                        "NULL, NULL, NULL, NULL, 0, 0)",
+                "INSERT INTO UserSettlementMethod VALUES ('a_settlement_method_id', 'settlement_method', " +
+                        "${encrypt("user_private_data")})",
+            )
+            val migratedDatabaseService = DatabaseService(DatabaseDriverFactory(databaseFile = databaseFile), key)
+            migratedDatabaseService.prepareDatabase()
+            assertEquals(
+                listOf(Pair("settlement_method", "offer_private_data")),
+                migratedDatabaseService.getOfferSettlementMethods(anID, aChainID)
+            )
+            val migratedSwap = migratedDatabaseService.getSwap(anID)!!
+            assertEquals("maker_private_data", migratedSwap.makerPrivateData?.decodeToString())
+            val migratedSwapAndDispute = migratedDatabaseService.getSwapAndDispute(anID)!!
+            assertEquals(
+                "maker_communication_key",
+                migratedDatabaseService.decryptMakerCommunicationKeyFromSwapAndDispute(migratedSwapAndDispute)
+            )
+            assertEquals(
+                Pair("settlement_method", "user_private_data"),
+                migratedDatabaseService.getUserSettlementMethod("a_settlement_method_id")
+            )
+        } finally {
+            deleteDatabaseFile(databaseFile)
+        }
+    }
+
+    /**
+     * Creates a database file with the version 1 schema, which was the schema of the first released version of this
+     * app, and executes the specified statements in it.
+     *
+     * @param databaseFile The database file to create.
+     * @param statements Statements that insert rows into the version 1 tables.
+     */
+    private fun createVersion1Database(databaseFile: File, vararg statements: String) {
+        DatabaseDriverFactory(databaseFile = databaseFile).createDriver().apply {
+            (VERSION_1_SCHEMA + statements).forEach { execute(null, it, 0) }
+            execute(null, "PRAGMA user_version = 1", 0)
+        }.close()
+    }
+
+    /**
+     * Deletes a database file, along with its write-ahead log and shared-memory files.
+     *
+     * @param databaseFile The database file to delete.
+     */
+    private fun deleteDatabaseFile(databaseFile: File) {
+        databaseFile.delete()
+        File(databaseFile.path + "-wal").delete()
+        File(databaseFile.path + "-shm").delete()
+    }
+
+    companion object {
+        /**
+         * The statements that created the tables of a version 1 database, frozen so that migrations from version 1 can
+         * be tested no matter how the current schema changes.
+         */
+        private val VERSION_1_SCHEMA = listOf(
+            "CREATE TABLE Offer (id TEXT UNIQUE NOT NULL, isCreated INTEGER NOT NULL, isTaken INTEGER NOT NULL, " +
+                    "maker TEXT NOT NULL, interfaceId TEXT NOT NULL, stablecoin TEXT NOT NULL, " +
+                    "amountLowerBound TEXT NOT NULL, amountUpperBound TEXT NOT NULL, " +
+                    "securityDepositAmount TEXT NOT NULL, serviceFeeRate TEXT NOT NULL, " +
+                    "onChainDirection TEXT NOT NULL, protocolVersion TEXT NOT NULL, chainID TEXT NOT NULL, " +
+                    "havePublicKey INTEGER NOT NULL, isUserMaker INTEGER NOT NULL, state TEXT NOT NULL, " +
+                    version1ActionColumns(
+                        "approveToOpenState" to "approveToOpenTransaction",
+                        "openingOfferState" to "openingOfferTransaction",
+                        "cancelingOfferState" to "offerCancellationTransaction",
+                        "editingOfferState" to "offerEditingTransaction",
+                        "approveToTakeState" to "approveToTakeTransaction",
+                        "takingOfferState" to "takingOfferTransaction",
+                    ) + ")",
+            "CREATE TABLE OfferSettlementMethod (id TEXT NOT NULL, chainID TEXT NOT NULL, " +
+                    "settlementMethod TEXT NOT NULL, privateData TEXT, privateDataInitializationVector TEXT)",
+            "CREATE TABLE PendingOfferSettlementMethod (id TEXT NOT NULL, chainID TEXT NOT NULL, " +
+                    "settlementMethod TEXT NOT NULL, privateData TEXT, privateDataInitializationVector TEXT)",
+            "CREATE TABLE KeyPair (interfaceId TEXT UNIQUE NOT NULL, publicKey TEXT NOT NULL, " +
+                    "privateKey TEXT NOT NULL)",
+            "CREATE TABLE PublicKey (interfaceId TEXT UNIQUE NOT NULL, publicKey TEXT NOT NULL)",
+            "CREATE TABLE Swap (id TEXT UNIQUE NOT NULL, isCreated INTEGER NOT NULL, requiresFill INTEGER NOT NULL, " +
+                    "maker TEXT NOT NULL, makerInterfaceID TEXT NOT NULL, taker TEXT NOT NULL, " +
+                    "takerInterfaceID TEXT NOT NULL, stablecoin TEXT NOT NULL, amountLowerBound TEXT NOT NULL, " +
+                    "amountUpperBound TEXT NOT NULL, securityDepositAmount TEXT NOT NULL, " +
+                    "takenSwapAmount TEXT NOT NULL, serviceFeeAmount TEXT NOT NULL, serviceFeeRate TEXT NOT NULL, " +
+                    "onChainDirection TEXT NOT NULL, settlementMethod TEXT NOT NULL, makerPrivateData TEXT, " +
+                    "makerPrivateDataInitializationVector TEXT, takerPrivateData TEXT, " +
+                    "takerPrivateDataInitializationVector TEXT, protocolVersion TEXT NOT NULL, " +
+                    "isPaymentSent INTEGER NOT NULL, isPaymentReceived INTEGER NOT NULL, " +
+                    "hasBuyerClosed INTEGER NOT NULL, hasSellerClosed INTEGER NOT NULL, " +
+                    "disputeRaiser TEXT NOT NULL, chainID TEXT NOT NULL, state TEXT NOT NULL, role TEXT NOT NULL, " +
+                    version1ActionColumns(
+                        "approveToFillState" to "approveToFillTransaction",
+                        "fillingSwapState" to "fillingSwapTransaction",
+                        "reportPaymentSentState" to "reportPaymentSentTransaction",
+                        "reportPaymentReceivedState" to "reportPaymentReceivedTransaction",
+                        "closeSwapState" to "closeSwapTransaction",
+                    ) + ", disputeState TEXT NOT NULL, " +
+                    version1ActionColumns("raisingDisputeState" to "raisingDisputeTransaction") + ")",
+            "CREATE TABLE SwapAndDispute(id TEXT UNIQUE NOT NULL, isCreated INTEGER NOT NULL, " +
+                    "requiresFill INTEGER NOT NULL, maker TEXT NOT NULL, makerInterfaceID TEXT NOT NULL, " +
+                    "taker TEXT NOT NULL, takerInterfaceID TEXT NOT NULL, stablecoin TEXT NOT NULL, " +
+                    "amountLowerBound TEXT NOT NULL, amountUpperBound TEXT NOT NULL, " +
+                    "securityDepositAmount TEXT NOT NULL, takenSwapAmount TEXT NOT NULL, " +
+                    "serviceFeeAmount TEXT NOT NULL, serviceFeeRate TEXT NOT NULL, onChainDirection TEXT NOT NULL, " +
+                    "settlementMethod TEXT NOT NULL, protocolVersion TEXT NOT NULL, isPaymentSent INTEGER NOT NULL, " +
+                    "isPaymentReceived INTEGER NOT NULL, hasBuyerClosed INTEGER NOT NULL, " +
+                    "hasSellerClosed INTEGER NOT NULL, disputeRaiser TEXT NOT NULL, chainID TEXT NOT NULL, " +
+                    "disputeRaisedBlockNumber TEXT NOT NULL, disputeAgent0 TEXT NOT NULL, " +
+                    "disputeAgent1 TEXT NOT NULL, disputeAgent2 TEXT NOT NULL, " +
+                    (0..2).joinToString(separator = "") { agent ->
+                        "hasDisputeAgent${agent}Proposed INTEGER NOT NULL, " +
+                                "disputeAgent${agent}MakerPayout TEXT NOT NULL, " +
+                                "disputeAgent${agent}TakerPayout TEXT NOT NULL, " +
+                                "disputeAgent${agent}ConfiscationPayout TEXT NOT NULL, "
+                    } +
+                    "matchingProposals INTEGER NOT NULL, makerReaction INTEGER NOT NULL, " +
+                    "takerReaction INTEGER NOT NULL, onChainState INTEGER NOT NULL, " +
+                    "hasMakerPaidOut INTEGER NOT NULL, hasTakerPaidOut INTEGER NOT NULL, " +
+                    "totalWithoutSpentServiceFees TEXT NOT NULL, role TEXT NOT NULL, " +
+                    "disputeAgent0InterfaceID TEXT, disputeAgent1InterfaceID TEXT, disputeAgent2InterfaceID TEXT, " +
+                    "state TEXT NOT NULL, makerCommunicationKey TEXT, mCKInitializationVector TEXT, " +
+                    "takerCommunicationKey TEXT, tCKInitializationVector TEXT, " +
+                    "disputeAgentCommunicationKey TEXT, dACKInitializationVector TEXT, " +
+                    "sentKeyToMaker INTEGER NOT NULL, sentKeyToTaker INTEGER NOT NULL)",
+            "CREATE TABLE UserSettlementMethod(settlementMethodID TEXT UNIQUE NOT NULL, " +
+                    "settlementMethod TEXT NOT NULL, privateData TEXT, privateDataInitializationVector TEXT)",
+        )
+
+        /**
+         * Gets the definitions of the four columns in which a version 1 table stores the state and transaction data of
+         * each of the specified actions.
+         *
+         * @param actions Pairs of the name of the column containing the state of an action and the prefix of the names
+         * of the columns containing its transaction data.
+         *
+         * @return The column definitions, separated by commas.
+         */
+        private fun version1ActionColumns(vararg actions: Pair<String, String>): String {
+            return actions.joinToString { (stateColumn, transactionPrefix) ->
+                "$stateColumn TEXT NOT NULL, ${transactionPrefix}Hash TEXT, ${transactionPrefix}CreationTime TEXT, " +
+                        "${transactionPrefix}CreationBlockNumber INTEGER"
+            }
+        }
+    }
+
+}
@@ -6,7 +6,6 @@ import com.commuto.interfacedesktop.blockchain.events.commutoswap.DisputeRaisedE
 import com.commuto.interfacedesktop.database.DatabaseDriverFactory
 import com.commuto.interfacedesktop.database.DatabaseService
 import com.commuto.interfacedesktop.db.Swap as DatabaseSwap
-import com.commuto.interfacedesktop.extension.asByteArray
 import com.commuto.interfacedesktop.key.KeyManagerService
 import com.commuto.interfacedesktop.key.keys.KeyPair
 import com.commuto.interfacedesktop.key.keys.PublicKey
@@ -102,7 +101,7 @@ class DisputeServiceTests {
         swapTruthSource.swaps[swapID] = swap
         val encoder = Base64.getEncoder()
         val swapForDatabase = DatabaseSwap(
-            id = encoder.encodeToString(swapID.asByteArray()),
+            id = swapID,
             isCreated = 1L,
             requiresFill = 1L,
             maker = swap.maker,
@@ -110,25 +109,23 @@ class DisputeServiceTests {
             taker = swap.taker,
             takerInterfaceID = encoder.encodeToString(swap.takerInterfaceID),
             stablecoin = swap.stablecoin,
-            amountLowerBound = swap.amountLowerBound.toString(),
-            amountUpperBound = swap.amountUpperBound.toString(),
-            securityDepositAmount = swap.securityDepositAmount.toString(),
-            takenSwapAmount = swap.takenSwapAmount.toString(),
-            serviceFeeAmount = swap.serviceFeeAmount.toString(),
-            serviceFeeRate = swap.serviceFeeRate.toString(),
+            amountLowerBound = swap.amountLowerBound,
+            amountUpperBound = swap.amountUpperBound,
+            securityDepositAmount = swap.securityDepositAmount,
+            takenSwapAmount = swap.takenSwapAmount,
+            serviceFeeAmount = swap.serviceFeeAmount,
+            serviceFeeRate = swap.serviceFeeRate,
             onChainDirection = swap.onChainDirection.toString(),
             settlementMethod = encoder.encodeToString(swap.onChainSettlementMethod),
             makerPrivateData = null,
-            makerPrivateDataInitializationVector = null,
             takerPrivateData = null,
-            takerPrivateDataInitializationVector = null,
             protocolVersion = swap.protocolVersion.toString(),
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = swap.onChainDisputeRaiser.toString(),
-            chainID = swap.chainID.toString(),
+            chainID = swap.chainID,
             state = swap.state.value.asString,
             role = swap.role.asString,
             approveToFillState = swap.approvingToFillState.value.asString,
@@ -172,7 +169,7 @@ class DisputeServiceTests {
 
         assertEquals(RaisingDisputeState.EXCEPTION, swap.raisingDisputeState.value)
         assertNotNull(swap.raisingDisputeException)
-        val swapInDatabase = databaseService.getSwap(id = encoder.encodeToString(swapID.asByteArray()))
+        val swapInDatabase = databaseService.getSwap(id = swapID)
         assertEquals(RaisingDisputeState.EXCEPTION.asString, swapInDatabase?.raisingDisputeState)
     }
 
@@ -275,7 +272,7 @@ class DisputeServiceTests {
         swapTruthSource.swaps[swapID] = swap
         val encoder = Base64.getEncoder()
         val swapForDatabase = DatabaseSwap(
-            id = encoder.encodeToString(swapID.asByteArray()),
+            id = swapID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = swap.maker,
@@ -283,25 +280,23 @@ class DisputeServiceTests {
             taker = swap.taker,
             takerInterfaceID = encoder.encodeToString(swap.takerInterfaceID),
             stablecoin = swap.stablecoin,
-            amountLowerBound = swap.amountLowerBound.toString(),
-            amountUpperBound = swap.amountUpperBound.toString(),
-            securityDepositAmount = swap.securityDepositAmount.toString(),
-            takenSwapAmount = swap.takenSwapAmount.toString(),
-            serviceFeeAmount = swap.serviceFeeAmount.toString(),
-            serviceFeeRate = swap.serviceFeeRate.toString(),
+            amountLowerBound = swap.amountLowerBound,
+            amountUpperBound = swap.amountUpperBound,
+            securityDepositAmount = swap.securityDepositAmount,
+            takenSwapAmount = swap.takenSwapAmount,
+            serviceFeeAmount = swap.serviceFeeAmount,
+            serviceFeeRate = swap.serviceFeeRate,
             onChainDirection = swap.onChainDirection.toString(),
             settlementMethod = encoder.encodeToString(swap.onChainSettlementMethod),
             makerPrivateData = null,
-            makerPrivateDataInitializationVector = null,
             takerPrivateData = null,
-            takerPrivateDataInitializationVector = null,
             protocolVersion = swap.protocolVersion.toString(),
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = swap.onChainDisputeRaiser.toString(),
-            chainID = swap.chainID.toString(),
+            chainID = swap.chainID,
             state = swap.state.value.asString,
             role = swap.role.asString,
             approveToFillState = swap.approvingToFillState.value.asString,
@@ -472,7 +467,7 @@ class DisputeServiceTests {
         swapTruthSource.swaps[swapID] = swap
         val encoder = Base64.getEncoder()
         val swapForDatabase = DatabaseSwap(
-            id = encoder.encodeToString(swapID.asByteArray()),
+            id = swapID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = swap.maker,
@@ -480,25 +475,23 @@ class DisputeServiceTests {
             taker = swap.taker,
             takerInterfaceID = encoder.encodeToString(swap.takerInterfaceID),
             stablecoin = swap.stablecoin,
-            amountLowerBound = swap.amountLowerBound.toString(),
-            amountUpperBound = swap.amountUpperBound.toString(),
-            securityDepositAmount = swap.securityDepositAmount.toString(),
-            takenSwapAmount = swap.takenSwapAmount.toString(),
-            serviceFeeAmount = swap.serviceFeeAmount.toString(),
-            serviceFeeRate = swap.serviceFeeRate.toString(),
+            amountLowerBound = swap.amountLowerBound,
+            amountUpperBound = swap.amountUpperBound,
+            securityDepositAmount = swap.securityDepositAmount,
+            takenSwapAmount = swap.takenSwapAmount,
+            serviceFeeAmount = swap.serviceFeeAmount,
+            serviceFeeRate = swap.serviceFeeRate,
             onChainDirection = swap.onChainDirection.toString(),
             settlementMethod = encoder.encodeToString(swap.onChainSettlementMethod),
             makerPrivateData = null,
-            makerPrivateDataInitializationVector = null,
             takerPrivateData = null,
-            takerPrivateDataInitializationVector = null,
             protocolVersion = swap.protocolVersion.toString(),
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = swap.onChainDisputeRaiser.toString(),
-            chainID = swap.chainID.toString(),
+            chainID = swap.chainID,
             state = swap.state.value.asString,
             role = swap.role.asString,
             approveToFillState = swap.approvingToFillState.value.asString,
@@ -671,7 +664,7 @@ class DisputeServiceTests {
 
         disputeService.handleDisputeRaisedEvent(event = event)
 
-        val swapAndDisputeInDatabase = databaseService.getSwapAndDispute(id = swapID.toString())
+        val swapAndDisputeInDatabase = databaseService.getSwapAndDispute(id = swapID)
         assertEquals(DisputeRole.DISPUTE_AGENT_0.asString, swapAndDisputeInDatabase?.role)
         assertNotNull(swapAndDisputeInDatabase?.disputeAgent0InterfaceID)
         assertNotNull(databaseService.decryptMakerCommunicationKeyFromSwapAndDispute(swapAndDisputeInDatabase!!))
@@ -840,7 +833,7 @@ class DisputeServiceTests {
         assert(makerCommunicationKey.keyBytes.contentEquals(Base64.getDecoder().decode(p2pService.key)))
         assert(makerKeyPair.interfaceId.contentEquals(p2pService.recipientPublicKey!!.interfaceId))
         assert(disputeAgent0KeyPair.interfaceId.contentEquals(p2pService.senderKeyPair!!.interfaceId))
-        val swapAndDisputeInDatabase = databaseService.getSwapAndDispute(id = swapID.toString())
+        val swapAndDisputeInDatabase = databaseService.getSwapAndDispute(id = swapID)
         assertEquals(1L, swapAndDisputeInDatabase!!.sentKeyToMaker)
         assert(swapAndDispute.sentKeyToMaker)
     }
@@ -994,7 +987,7 @@ class DisputeServiceTests {
         assert(takerCommunicationKey.keyBytes.contentEquals(Base64.getDecoder().decode(p2pService.key)))
         assert(takerKeyPair.interfaceId.contentEquals(p2pService.recipientPublicKey!!.interfaceId))
         assert(disputeAgent0KeyPair.interfaceId.contentEquals(p2pService.senderKeyPair!!.interfaceId))
-        val swapAndDisputeInDatabase = databaseService.getSwapAndDispute(id = swapID.toString())
+        val swapAndDisputeInDatabase = databaseService.getSwapAndDispute(id = swapID)
         assertEquals(1L, swapAndDisputeInDatabase!!.sentKeyToTaker)
         assert(swapAndDispute.sentKeyToTaker)
     }
@@ -1149,7 +1142,7 @@ class DisputeServiceTests {
         assert(makerCommunicationKey.keyBytes.contentEquals(Base64.getDecoder().decode(p2pService.key)))
         assert(makerKeyPair.interfaceId.contentEquals(p2pService.recipientPublicKey!!.interfaceId))
         assert(disputeAgent0KeyPair.interfaceId.contentEquals(p2pService.senderKeyPair!!.interfaceId))
-        val swapAndDisputeInDatabase = databaseService.getSwapAndDispute(id = swapID.toString())
+        val swapAndDisputeInDatabase = databaseService.getSwapAndDispute(id = swapID)
         assertEquals(1L, swapAndDisputeInDatabase!!.sentKeyToMaker)
         assert(swapAndDispute.sentKeyToMaker)
     }
@@ -1304,7 +1297,7 @@ class DisputeServiceTests {
         assert(takerCommunicationKey.keyBytes.contentEquals(Base64.getDecoder().decode(p2pService.key)))
         assert(takerKeyPair.interfaceId.contentEquals(p2pService.recipientPublicKey!!.interfaceId))
         assert(disputeAgent0KeyPair.interfaceId.contentEquals(p2pService.senderKeyPair!!.interfaceId))
-        val swapAndDisputeInDatabase = databaseService.getSwapAndDispute(id = swapID.toString())
+        val swapAndDisputeInDatabase = databaseService.getSwapAndDispute(id = swapID)
         assertEquals(1L, swapAndDisputeInDatabase!!.sentKeyToTaker)
         assert(swapAndDispute.sentKeyToTaker)
     }
@@ -1398,7 +1391,7 @@ class DisputeServiceTests {
 
         val encoder = Base64.getEncoder()
         val swapForDatabase = com.commuto.interfacedesktop.db.Swap(
-            id = encoder.encodeToString(swapID.asByteArray()),
+            id = swapID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = swap.maker,
@@ -1406,25 +1399,23 @@ class DisputeServiceTests {
             taker = swap.taker,
             takerInterfaceID = encoder.encodeToString(swap.takerInterfaceID),
             stablecoin = swap.stablecoin,
-            amountLowerBound = swap.amountLowerBound.toString(),
-            amountUpperBound = swap.amountUpperBound.toString(),
-            securityDepositAmount = swap.securityDepositAmount.toString(),
-            takenSwapAmount = swap.takenSwapAmount.toString(),
-            serviceFeeAmount = swap.serviceFeeAmount.toString(),
-            serviceFeeRate = swap.serviceFeeRate.toString(),
+            amountLowerBound = swap.amountLowerBound,
+            amountUpperBound = swap.amountUpperBound,
+            securityDepositAmount = swap.securityDepositAmount,
+            takenSwapAmount = swap.takenSwapAmount,
+            serviceFeeAmount = swap.serviceFeeAmount,
+            serviceFeeRate = swap.serviceFeeRate,
             onChainDirection = swap.onChainDirection.toString(),
             settlementMethod = encoder.encodeToString(swap.onChainSettlementMethod),
             makerPrivateData = null,
-            makerPrivateDataInitializationVector = null,
             takerPrivateData = null,
-            takerPrivateDataInitializationVector = null,
             protocolVersion = swap.protocolVersion.toString(),
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = swap.onChainDisputeRaiser.toString(),
-            chainID = swap.chainID.toString(),
+            chainID = swap.chainID,
             state = swap.state.value.asString,
             role = swap.role.asString,
             approveToFillState = swap.approvingToFillState.value.asString,
@@ -1467,7 +1458,7 @@ class DisputeServiceTests {
 
         assertEquals(RaisingDisputeState.AWAITING_TRANSACTION_CONFIRMATION, swap.raisingDisputeState.value)
 
-        val swapInDatabase = databaseService.getSwap(encoder.encodeToString(swapID.asByteArray()))
+        val swapInDatabase = databaseService.getSwap(swapID)
         assertEquals(RaisingDisputeState.AWAITING_TRANSACTION_CONFIRMATION.asString,
             swapInDatabase!!.raisingDisputeState)
         assertNotNull(swapInDatabase.raisingDisputeTransactionHash)
@@ -1,6 +1,7 @@
 package com.commuto.interfacedesktop.key.keys
 
 import java.nio.charset.Charset
+import javax.crypto.AEADBadTagException
 import kotlin.test.Test
 
 class SymmetricKeyTests {
@@ -14,4 +15,18 @@ class SymmetricKeyTests {
         assert(originalData.contentEquals(key.decrypt(encryptedData)))
     }
 
+    @Test
+    fun testAuthenticatedSymmetricEncryption() {
+        val key = SymmetricKey()
+        val originalData = "test".toByteArray(Charset.forName("UTF-8"))
+        val associatedData = byteArrayOf(1, 2, 3)
+        val encryptedData = key.encryptAuthenticated(originalData, associatedData)
+        assert(originalData.contentEquals(key.decryptAuthenticated(encryptedData, associatedData)))
+        // Decryption must fail if the associated data has been modified
+        try {
+            key.decryptAuthenticated(encryptedData, byteArrayOf(1, 2, 4))
+            throw AssertionError("Expected authentication failure")
+        } catch (e: AEADBadTagException) { }
+    }
+
 }
\ No newline at end of file
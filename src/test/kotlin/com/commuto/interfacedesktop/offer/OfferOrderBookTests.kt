@@ -0,0 +1,196 @@
+package com.commuto.interfacedesktop.offer
+
+import androidx.compose.runtime.mutableStateListOf
+import com.commuto.interfacedesktop.settlement.SettlementMethod
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import java.math.BigInteger
+import java.util.*
+
+/**
+ * Tests for [OfferOrderBook].
+ */
+class OfferOrderBookTests {
+
+    /**
+     * Creates an [Offer] with the specified ID, direction, settlement methods and amount bounds, for indexing in an
+     * [OfferOrderBook].
+     */
+    private fun makeOffer(
+        id: UUID,
+        direction: OfferDirection,
+        settlementMethods: List<SettlementMethod>,
+        amountLowerBound: BigInteger = BigInteger.ONE,
+        amountUpperBound: BigInteger = BigInteger.ONE,
+    ): Offer {
+        return Offer(
+            isCreated = true,
+            isTaken = false,
+            id = id,
+            maker = "maker_address",
+            interfaceID = ByteArray(0),
+            stablecoin = "stablecoin_address",
+            amountLowerBound = amountLowerBound,
+            amountUpperBound = amountUpperBound,
+            securityDepositAmount = BigInteger.valueOf(10L),
+            serviceFeeRate = BigInteger.valueOf(100L),
+            direction = direction,
+            settlementMethods = mutableStateListOf<SettlementMethod>().apply { addAll(settlementMethods) },
+            protocolVersion = BigInteger.ONE,
+            chainID = BigInteger.ONE,
+            havePublicKey = true,
+            isUserMaker = false,
+            state = OfferState.OFFER_OPENED
+        )
+    }
+
+    /**
+     * Ensures that [OfferOrderBook] indexes offers by market and by settlement method, orders offers by price from best
+     * to worst, returns pages properly, and updates its indices when offers are removed or their settlement methods
+     * change.
+     */
+    @Test
+    fun testOrderBook() {
+        val orderBook = OfferOrderBook()
+        val sellMarket = OfferMarket(BigInteger.ONE, "stablecoin_address", OfferDirection.SELL)
+        val eurSEPASellMarket = OfferSettlementMarket(sellMarket, "EUR", "SEPA")
+        val eurSEPABuyMarket = OfferSettlementMarket(sellMarket.copy(direction = OfferDirection.BUY), "EUR", "SEPA")
+        val sellOffers = listOf("0.99", "0.95", "1.01").mapIndexed { index, price ->
+            makeOffer(UUID(0L, index.toLong()), OfferDirection.SELL, listOf(
+                SettlementMethod(currency = "EUR", method = "SEPA", price = price),
+                SettlementMethod(currency = "USD", method = "SWIFT", price = "not_a_price"),
+            ))
+        }
+        val buyOffers = listOf("0.94", "0.97").mapIndexed { index, price ->
+            makeOffer(UUID(1L, index.toLong()), OfferDirection.BUY, listOf(
+                SettlementMethod(currency = "EUR", method = "SEPA", price = price),
+            ))
+        }
+        (sellOffers + buyOffers).forEach { orderBook.add(it) }
+
+        assertEquals(3, orderBook.countOffers(sellMarket))
+        assertEquals(sellOffers.map { it.id }, orderBook.getOffers(sellMarket).map { it.id })
+        assertEquals((sellOffers + buyOffers).map { it.id }, orderBook.getAllOffers().map { it.id })
+        assertEquals(
+            listOf(sellOffers[2], buyOffers[0]).map { it.id },
+            orderBook.getAllOffers(offset = 2, limit = 2).map { it.id }
+        )
+        // Settlement methods without numeric prices are not indexed by price
+        assertEquals(listOf(eurSEPASellMarket), orderBook.getSettlementMarkets(sellMarket))
+        // Offers selling stablecoin are ordered from lowest to highest price
+        assertEquals(
+            listOf(sellOffers[1], sellOffers[0], sellOffers[2]).map { it.id },
+            orderBook.getOffersByPrice(eurSEPASellMarket).map { it.id }
+        )
+        assertEquals(
+            listOf(sellOffers[0].id),
+            orderBook.getOffersByPrice(eurSEPASellMarket, offset = 1, limit = 1).map { it.id }
+        )
+        // Offers buying stablecoin are ordered from highest to lowest price
+        assertEquals(
+            listOf(buyOffers[1], buyOffers[0]).map { it.id },
+            orderBook.getOffersByPrice(eurSEPABuyMarket).map { it.id }
+        )
+
+        sellOffers[1].updateSettlementMethods(listOf(
+            SettlementMethod(currency = "EUR", method = "SEPA", price = "1.05"),
+        ))
+        orderBook.add(sellOffers[1])
+        assertEquals(
+            listOf(sellOffers[0], sellOffers[2], sellOffers[1]).map { it.id },
+            orderBook.getOffersByPrice(eurSEPASellMarket).map { it.id }
+        )
+        assertEquals(3, orderBook.countOffers(eurSEPASellMarket))
+
+        orderBook.remove(sellOffers[0].id)
+        assertEquals(2, orderBook.countOffers(sellMarket))
+        assertEquals(
+            listOf(sellOffers[2], sellOffers[1]).map { it.id },
+            orderBook.getOffersByPrice(eurSEPASellMarket).map { it.id }
+        )
+        buyOffers.forEach { orderBook.remove(it.id) }
+        assertEquals(listOf(sellOffers[1], sellOffers[2]).map { it.id }, orderBook.getAllOffers().map { it.id })
+        assertEquals(emptyList<Offer>(), orderBook.getOffersByPrice(eurSEPABuyMarket))
+        assertEquals(0, orderBook.countOffers(eurSEPABuyMarket.market))
+    }
+
+    /**
+     * Ensures that [OfferOrderBook.findMatchingOffers] returns only offers that can be taken for the requested amount,
+     * ordered from best to worst price, with the correct service fee and security deposit amounts.
+     */
+    @Test
+    fun testFindMatchingOffers() {
+        val orderBook = OfferOrderBook()
+        val eurSEPASellMarket = OfferSettlementMarket(
+            OfferMarket(BigInteger.ONE, "stablecoin_address", OfferDirection.SELL),
+            "EUR",
+            "SEPA"
+        )
+        val bounds = listOf(
+            Pair(100L, 1_000L),
+            Pair(500L, 2_000L),
+            Pair(1_500L, 3_000L),
+            Pair(100L, 10_000L),
+        )
+        val prices = listOf("0.95", "0.97", "0.90", "0.99")
+        val offers = bounds.zip(prices).mapIndexed { index, (bound, price) ->
+            makeOffer(
+                id = UUID(0L, index.toLong()),
+                direction = OfferDirection.SELL,
+                settlementMethods = listOf(SettlementMethod(currency = "EUR", method = "SEPA", price = price)),
+                amountLowerBound = BigInteger.valueOf(bound.first),
+                amountUpperBound = BigInteger.valueOf(bound.second),
+            )
+        }
+        offers.forEach { orderBook.add(it) }
+        val amount = BigInteger.valueOf(800L)
+        val matches = orderBook.findMatchingOffers(eurSEPASellMarket, amount)
+        assertEquals(listOf(offers[0], offers[1], offers[3]).map { it.id }, matches.map { it.offer.id })
+        matches.forEach {
+            assertEquals(amount, it.takenSwapAmount)
+            assertEquals(BigInteger.valueOf(8L), it.serviceFeeAmount)
+            assertEquals(BigInteger.valueOf(10L), it.securityDepositAmount)
+            assertEquals(it.offer.settlementMethods.first(), it.settlementMethod)
+        }
+        assertEquals(
+            listOf(offers[0].id),
+            orderBook.findMatchingOffers(eurSEPASellMarket, amount, limit = 1).map { it.offer.id }
+        )
+        // Offers made by the user of this interface cannot be taken by them
+        offers[0].isUserMaker = true
+        assertEquals(
+            listOf(offers[1], offers[3]).map { it.id },
+            orderBook.findMatchingOffers(eurSEPASellMarket, amount).map { it.offer.id }
+        )
+        assertEquals(emptyList<OfferMatch>(), orderBook.findMatchingOffers(eurSEPASellMarket, BigInteger.TEN))
+    }
+
+    /**
+     * Ensures that [OfferOrderBook.findMatchingOffers] skips offers that are no longer open or have been taken, even
+     * while they are still indexed.
+     */
+    @Test
+    fun testFindMatchingOffersSkipsUnavailableOffers() {
+        val orderBook = OfferOrderBook()
+        val eurSEPASellMarket = OfferSettlementMarket(
+            OfferMarket(BigInteger.ONE, "stablecoin_address", OfferDirection.SELL),
+            "EUR",
+            "SEPA"
+        )
+        val offers = (0L until 3L).map {
+            makeOffer(
+                id = UUID(0L, it),
+                direction = OfferDirection.SELL,
+                settlementMethods = listOf(SettlementMethod(currency = "EUR", method = "SEPA", price = "1.00")),
+            )
+        }
+        offers.forEach { orderBook.add(it) }
+        offers[0].state = OfferState.CANCELED
+        offers[1].isTaken.value = true
+        assertEquals(
+            listOf(offers[2].id),
+            orderBook.findMatchingOffers(eurSEPASellMarket, BigInteger.ONE).map { it.offer.id }
+        )
+    }
+
+}
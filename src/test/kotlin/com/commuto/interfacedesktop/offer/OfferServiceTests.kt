@@ -11,7 +11,6 @@ import com.commuto.interfacedesktop.blockchain.events.erc20.TokenTransferApprova
 import com.commuto.interfacedesktop.database.DatabaseDriverFactory
 import com.commuto.interfacedesktop.database.DatabaseService
 import com.commuto.interfacedesktop.dispute.TestDisputeService
-import com.commuto.interfacedesktop.extension.asByteArray
 import com.commuto.interfacedesktop.key.KeyManagerService
 import com.commuto.interfacedesktop.key.keys.KeyPair
 import com.commuto.interfacedesktop.key.keys.PublicKey
@@ -26,6 +25,7 @@ import com.commuto.interfacedesktop.settlement.privatedata.PrivateSWIFTData
 import com.commuto.interfacedesktop.swap.*
 import com.commuto.interfacedesktop.ui.StablecoinInformation
 import com.commuto.interfacedesktop.ui.StablecoinInformationRepository
+import com.commuto.interfacedesktop.ui.offer.OffersViewModel
 import com.commuto.interfacedesktop.ui.offer.PreviewableOfferTruthSource
 import io.ktor.client.*
 import io.ktor.client.call.*
@@ -50,7 +50,6 @@ import org.junit.Test
 import org.web3j.protocol.http.HttpService
 import java.math.BigDecimal
 import java.math.BigInteger
-import java.nio.ByteBuffer
 import java.util.*
 import com.commuto.interfacedesktop.db.Offer as DatabaseOffer
 import com.commuto.interfacedesktop.db.Swap as DatabaseSwap
@@ -110,19 +109,19 @@ class OfferServiceTests {
         offerTruthSource.offers[offerID] = offer
         val encoder = Base64.getEncoder()
         val offerForDatabase = DatabaseOffer(
-            id = encoder.encodeToString(offerID.asByteArray()),
+            id = offerID,
             isCreated = 1L,
             isTaken = 0L,
             maker = offer.maker,
             interfaceId = encoder.encodeToString(offer.interfaceID),
             stablecoin = offer.stablecoin,
-            amountLowerBound = offer.amountLowerBound.toString(),
-            amountUpperBound = offer.amountUpperBound.toString(),
-            securityDepositAmount = offer.securityDepositAmount.toString(),
-            serviceFeeRate = offer.serviceFeeRate.toString(),
+            amountLowerBound = offer.amountLowerBound,
+            amountUpperBound = offer.amountUpperBound,
+            securityDepositAmount = offer.securityDepositAmount,
+            serviceFeeRate = offer.serviceFeeRate,
             onChainDirection = offer.direction.string,
             protocolVersion = offer.protocolVersion.toString(),
-            chainID = offer.chainID.toString(),
+            chainID = offer.chainID,
             havePublicKey = 1L,
             isUserMaker = 1L,
             state = offer.state.asString,
@@ -168,7 +167,7 @@ class OfferServiceTests {
         assertEquals(OfferState.TRANSFER_APPROVAL_FAILED, offer.state)
         assertEquals(TokenTransferApprovalState.EXCEPTION, offer.approvingToOpenState.value)
         assertNotNull(offer.approvingToOpenException)
-        val offerInDatabase = databaseService.getOffer(id = encoder.encodeToString(offerID.asByteArray()))
+        val offerInDatabase = databaseService.getOffer(id = offerID)
         assertEquals(OfferState.TRANSFER_APPROVAL_FAILED.asString, offerInDatabase?.state)
         assertEquals(TokenTransferApprovalState.EXCEPTION.asString, offerInDatabase?.approveToOpenState)
     }
@@ -216,19 +215,19 @@ class OfferServiceTests {
         offerTruthSource.offers[offerID] = offer
         val encoder = Base64.getEncoder()
         val offerForDatabase = DatabaseOffer(
-            id = encoder.encodeToString(offerID.asByteArray()),
+            id = offerID,
             isCreated = 1L,
             isTaken = 0L,
             maker = offer.maker,
             interfaceId = encoder.encodeToString(offer.interfaceID),
             stablecoin = offer.stablecoin,
-            amountLowerBound = offer.amountLowerBound.toString(),
-            amountUpperBound = offer.amountUpperBound.toString(),
-            securityDepositAmount = offer.securityDepositAmount.toString(),
-            serviceFeeRate = offer.serviceFeeRate.toString(),
+            amountLowerBound = offer.amountLowerBound,
+            amountUpperBound = offer.amountUpperBound,
+            securityDepositAmount = offer.securityDepositAmount,
+            serviceFeeRate = offer.serviceFeeRate,
             onChainDirection = offer.direction.string,
             protocolVersion = offer.protocolVersion.toString(),
-            chainID = offer.chainID.toString(),
+            chainID = offer.chainID,
             havePublicKey = 1L,
             isUserMaker = 1L,
             state = offer.state.asString,
@@ -274,7 +273,7 @@ class OfferServiceTests {
         assertEquals(OfferState.AWAITING_OPENING, offer.state)
         assertEquals(OpeningOfferState.EXCEPTION, offer.openingOfferState.value)
         assertNotNull(offer.openingOfferException)
-        val offerInDatabase = databaseService.getOffer(id = encoder.encodeToString(offerID.asByteArray()))
+        val offerInDatabase = databaseService.getOffer(id = offerID)
         assertEquals(OfferState.AWAITING_OPENING.asString, offerInDatabase?.state)
         assertEquals(OpeningOfferState.EXCEPTION.asString, offerInDatabase?.openingOfferState)
     }
@@ -322,19 +321,19 @@ class OfferServiceTests {
         offerTruthSource.offers[offerID] = offer
         val encoder = Base64.getEncoder()
         val offerForDatabase = DatabaseOffer(
-            id = encoder.encodeToString(offerID.asByteArray()),
+            id = offerID,
             isCreated = 1L,
             isTaken = 0L,
             maker = offer.maker,
             interfaceId = encoder.encodeToString(offer.interfaceID),
             stablecoin = offer.stablecoin,
-            amountLowerBound = offer.amountLowerBound.toString(),
-            amountUpperBound = offer.amountUpperBound.toString(),
-            securityDepositAmount = offer.securityDepositAmount.toString(),
-            serviceFeeRate = offer.serviceFeeRate.toString(),
+            amountLowerBound = offer.amountLowerBound,
+            amountUpperBound = offer.amountUpperBound,
+            securityDepositAmount = offer.securityDepositAmount,
+            serviceFeeRate = offer.serviceFeeRate,
             onChainDirection = offer.direction.string,
             protocolVersion = offer.protocolVersion.toString(),
-            chainID = offer.chainID.toString(),
+            chainID = offer.chainID,
             havePublicKey = 1L,
             isUserMaker = 1L,
             state = offer.state.asString,
@@ -380,7 +379,7 @@ class OfferServiceTests {
         val offerInTruthSource = offerTruthSource.offers[offerID]
         assertEquals(CancelingOfferState.EXCEPTION, offerInTruthSource!!.cancelingOfferState.value)
         assertNotNull(offerInTruthSource.cancelingOfferException)
-        val offerInDatabase = databaseService.getOffer(id = encoder.encodeToString(offerID.asByteArray()))
+        val offerInDatabase = databaseService.getOffer(id = offerID)
         assertEquals(CancelingOfferState.EXCEPTION.asString, offerInDatabase!!.cancelingOfferState)
     }
 
@@ -426,19 +425,19 @@ class OfferServiceTests {
         offerTruthSource.offers[offerID] = offer
         val encoder = Base64.getEncoder()
         val offerForDatabase = DatabaseOffer(
-            id = encoder.encodeToString(offerID.asByteArray()),
+            id = offerID,
             isCreated = 1L,
             isTaken = 0L,
             maker = offer.maker,
             interfaceId = encoder.encodeToString(offer.interfaceID),
             stablecoin = offer.stablecoin,
-            amountLowerBound = offer.amountLowerBound.toString(),
-            amountUpperBound = offer.amountUpperBound.toString(),
-            securityDepositAmount = offer.securityDepositAmount.toString(),
-            serviceFeeRate = offer.serviceFeeRate.toString(),
+            amountLowerBound = offer.amountLowerBound,
+            amountUpperBound = offer.amountUpperBound,
+            securityDepositAmount = offer.securityDepositAmount,
+            serviceFeeRate = offer.serviceFeeRate,
             onChainDirection = offer.direction.string,
             protocolVersion = offer.protocolVersion.toString(),
-            chainID = offer.chainID.toString(),
+            chainID = offer.chainID,
             havePublicKey = 1L,
             isUserMaker = 1L,
             state = offer.state.asString,
@@ -488,7 +487,7 @@ class OfferServiceTests {
             Pair(Json.encodeToString(it), it.privateData)
         }
         databaseService.storePendingOfferSettlementMethods(
-            offerID = encoder.encodeToString(offerID.asByteArray()),
+            offerID = offerID,
             chainID = offerForDatabase.chainID,
             pendingSettlementMethods = serializedPendingSettlementMethodsAndPrivateDetails
         )
@@ -508,11 +507,11 @@ class OfferServiceTests {
         assertEquals(EditingOfferState.EXCEPTION, offer.editingOfferState.value)
         assertNotNull(offer.editingOfferException)
         assertEquals(0, offer.selectedSettlementMethods.count())
-        val offerInDatabase = databaseService.getOffer(id = encoder.encodeToString(offerID.asByteArray()))
+        val offerInDatabase = databaseService.getOffer(id = offerID)
         assertEquals(EditingOfferState.EXCEPTION.asString, offerInDatabase!!.editingOfferState)
 
         val pendingSettlementMethodsInDatabase = databaseService.getPendingOfferSettlementMethods(
-            offerID = encoder.encodeToString(offerID.asByteArray()),
+            offerID = offerID,
             chainID = offerForDatabase.chainID
         )
         assertNull(pendingSettlementMethodsInDatabase)
@@ -563,19 +562,19 @@ class OfferServiceTests {
         offerTruthSource.offers[offerID] = offer
         val encoder = Base64.getEncoder()
         val offerForDatabase = DatabaseOffer(
-            id = encoder.encodeToString(offerID.asByteArray()),
+            id = offerID,
             isCreated = 1L,
             isTaken = 0L,
             maker = offer.maker,
             interfaceId = encoder.encodeToString(offer.interfaceID),
             stablecoin = offer.stablecoin,
-            amountLowerBound = offer.amountLowerBound.toString(),
-            amountUpperBound = offer.amountUpperBound.toString(),
-            securityDepositAmount = offer.securityDepositAmount.toString(),
-            serviceFeeRate = offer.serviceFeeRate.toString(),
+            amountLowerBound = offer.amountLowerBound,
+            amountUpperBound = offer.amountUpperBound,
+            securityDepositAmount = offer.securityDepositAmount,
+            serviceFeeRate = offer.serviceFeeRate,
             onChainDirection = offer.direction.string,
             protocolVersion = offer.protocolVersion.toString(),
-            chainID = offer.chainID.toString(),
+            chainID = offer.chainID,
             havePublicKey = 1L,
             isUserMaker = 1L,
             state = offer.state.asString,
@@ -620,7 +619,7 @@ class OfferServiceTests {
 
         assertEquals(TokenTransferApprovalState.EXCEPTION, offer.approvingToTakeState.value)
         assertNotNull(offer.approvingToTakeException)
-        val offerInDatabase = databaseService.getOffer(id = encoder.encodeToString(offerID.asByteArray()))
+        val offerInDatabase = databaseService.getOffer(id = offerID)
         assertEquals(TokenTransferApprovalState.EXCEPTION.asString, offerInDatabase?.approveToTakeState)
     }
 
@@ -667,19 +666,19 @@ class OfferServiceTests {
         offerTruthSource.offers[offerID] = offer
         val encoder = Base64.getEncoder()
         val offerForDatabase = DatabaseOffer(
-            id = encoder.encodeToString(offerID.asByteArray()),
+            id = offerID,
             isCreated = 1L,
             isTaken = 0L,
             maker = offer.maker,
             interfaceId = encoder.encodeToString(offer.interfaceID),
             stablecoin = offer.stablecoin,
-            amountLowerBound = offer.amountLowerBound.toString(),
-            amountUpperBound = offer.amountUpperBound.toString(),
-            securityDepositAmount = offer.securityDepositAmount.toString(),
-            serviceFeeRate = offer.serviceFeeRate.toString(),
+            amountLowerBound = offer.amountLowerBound,
+            amountUpperBound = offer.amountUpperBound,
+            securityDepositAmount = offer.securityDepositAmount,
+            serviceFeeRate = offer.serviceFeeRate,
             onChainDirection = offer.direction.string,
             protocolVersion = offer.protocolVersion.toString(),
-            chainID = offer.chainID.toString(),
+            chainID = offer.chainID,
             havePublicKey = 1L,
             isUserMaker = 1L,
             state = offer.state.asString,
@@ -748,7 +747,7 @@ class OfferServiceTests {
         )
         swapTruthSource.swaps[offerID] = swap
         val swapForDatabase = DatabaseSwap(
-            id = encoder.encodeToString(swap.id.asByteArray()),
+            id = swap.id,
             isCreated = if (swap.isCreated) 1L else 0L,
             requiresFill = if (swap.requiresFill) 1L else 0L,
             maker = swap.maker,
@@ -756,25 +755,23 @@ class OfferServiceTests {
             taker = swap.taker,
             takerInterfaceID = encoder.encodeToString(swap.takerInterfaceID),
             stablecoin = swap.stablecoin,
-            amountLowerBound = swap.amountLowerBound.toString(),
-            amountUpperBound = swap.amountUpperBound.toString(),
-            securityDepositAmount = swap.securityDepositAmount.toString(),
-            takenSwapAmount = swap.takenSwapAmount.toString(),
-            serviceFeeAmount = swap.serviceFeeAmount.toString(),
-            serviceFeeRate = swap.serviceFeeRate.toString(),
+            amountLowerBound = swap.amountLowerBound,
+            amountUpperBound = swap.amountUpperBound,
+            securityDepositAmount = swap.securityDepositAmount,
+            takenSwapAmount = swap.takenSwapAmount,
+            serviceFeeAmount = swap.serviceFeeAmount,
+            serviceFeeRate = swap.serviceFeeRate,
             onChainDirection = swap.onChainDirection.toString(),
             settlementMethod = encoder.encodeToString(swap.onChainSettlementMethod),
-            makerPrivateData = swap.makerPrivateSettlementMethodData,
-            makerPrivateDataInitializationVector = null,
+            makerPrivateData = swap.makerPrivateSettlementMethodData?.toByteArray(),
             takerPrivateData = null,
-            takerPrivateDataInitializationVector = null,
             protocolVersion = swap.protocolVersion.toString(),
             isPaymentSent = if (swap.isPaymentSent) 1L else 0L,
             isPaymentReceived = if (swap.isPaymentReceived) 1L else 0L,
             hasBuyerClosed = if (swap.hasBuyerClosed) 1L else 0L,
             hasSellerClosed = if (swap.hasSellerClosed) 1L else 0L,
             disputeRaiser = swap.onChainDisputeRaiser.toString(),
-            chainID = swap.chainID.toString(),
+            chainID = swap.chainID,
             state = swap.state.value.asString,
             role = swap.role.asString,
             approveToFillState = swap.approvingToFillState.value.asString,
@@ -821,9 +818,9 @@ class OfferServiceTests {
         assertEquals(TakingOfferState.EXCEPTION, offer.takingOfferState.value)
         assertNotNull(offer.takingOfferException)
         assertEquals(SwapState.TAKE_OFFER_TRANSACTION_FAILED, swap.state.value)
-        val offerInDatabase = databaseService.getOffer(id = encoder.encodeToString(offerID.asByteArray()))
+        val offerInDatabase = databaseService.getOffer(id = offerID)
         assertEquals(TakingOfferState.EXCEPTION.asString, offerInDatabase?.takingOfferState)
-        val swapInDatabase = databaseService.getSwap(id = encoder.encodeToString(offerID.asByteArray()))
+        val swapInDatabase = databaseService.getSwap(id = offerID)
         assertEquals(SwapState.TAKE_OFFER_TRANSACTION_FAILED.asString, swapInDatabase?.state)
 
     }
@@ -850,7 +847,6 @@ class OfferServiceTests {
             keyManagerService,
             TestSwapService(),
         )
-        offerService.setOfferTruthSource(offerTruthSource)
 
         val offer = Offer(
             isCreated = true,
@@ -880,21 +876,22 @@ class OfferServiceTests {
         )
         offer.approvingToOpenTransaction = approvingToOpenTransaction
         offerTruthSource.offers[offerID] = offer
+        offerService.setOfferTruthSource(offerTruthSource)
         val encoder = Base64.getEncoder()
         val offerForDatabase = DatabaseOffer(
-            id = encoder.encodeToString(offerID.asByteArray()),
+            id = offerID,
             isCreated = 1L,
             isTaken = 0L,
             maker = offer.maker,
             interfaceId = encoder.encodeToString(offer.interfaceID),
             stablecoin = offer.stablecoin,
-            amountLowerBound = offer.amountLowerBound.toString(),
-            amountUpperBound = offer.amountUpperBound.toString(),
-            securityDepositAmount = offer.securityDepositAmount.toString(),
-            serviceFeeRate = offer.serviceFeeRate.toString(),
+            amountLowerBound = offer.amountLowerBound,
+            amountUpperBound = offer.amountUpperBound,
+            securityDepositAmount = offer.securityDepositAmount,
+            serviceFeeRate = offer.serviceFeeRate,
             onChainDirection = offer.direction.string,
             protocolVersion = offer.protocolVersion.toString(),
-            chainID = offer.chainID.toString(),
+            chainID = offer.chainID,
             havePublicKey = 1L,
             isUserMaker = 1L,
             state = offer.state.asString,
@@ -939,7 +936,7 @@ class OfferServiceTests {
         assertEquals(OfferState.AWAITING_OPENING, offer.state)
         assertEquals(TokenTransferApprovalState.COMPLETED, offer.approvingToOpenState.value)
         assertNull(offer.approvingToOpenException)
-        val offerInDatabase = databaseService.getOffer(id = encoder.encodeToString(offerID.asByteArray()))
+        val offerInDatabase = databaseService.getOffer(id = offerID)
         assertEquals(OfferState.AWAITING_OPENING.asString, offerInDatabase?.state)
         assertEquals(TokenTransferApprovalState.COMPLETED.asString, offerInDatabase?.approveToOpenState)
 
@@ -973,7 +970,6 @@ class OfferServiceTests {
             }.body()
         }
         val expectedOfferId = UUID.fromString(testingServerResponse.offerId)
-        val expectedOfferIdByteArray = expectedOfferId.asByteArray()
 
         val w3 = CommutoWeb3j(HttpService(System.getenv("BLOCKCHAIN_NODE")))
 
@@ -1051,20 +1047,20 @@ class OfferServiceTests {
                 assertEquals(offerTruthSource.offers[expectedOfferId]!!.id, expectedOfferId)
                 assertEquals(offerOpenedEventRepository.appendedEvent!!.offerID, expectedOfferId)
                 assertEquals(offerOpenedEventRepository.removedEvent!!.offerID, expectedOfferId)
-                val offerInDatabase = databaseService.getOffer(encoder.encodeToString(expectedOfferIdByteArray))
+                val offerInDatabase = databaseService.getOffer(expectedOfferId)
                 assert(offerInDatabase!!.isCreated == 1L)
                 assert(offerInDatabase.isTaken == 0L)
                 assertEquals(offerInDatabase.interfaceId, encoder.encodeToString("maker interface Id here"
                     .encodeToByteArray()))
-                assertEquals(offerInDatabase.amountLowerBound, "10000")
-                assertEquals(offerInDatabase.amountUpperBound, "10000")
-                assertEquals(offerInDatabase.securityDepositAmount, "1000")
-                assertEquals(offerInDatabase.serviceFeeRate, "100")
+                assertEquals(offerInDatabase.amountLowerBound, BigInteger.valueOf(10000L))
+                assertEquals(offerInDatabase.amountUpperBound, BigInteger.valueOf(10000L))
+                assertEquals(offerInDatabase.securityDepositAmount, BigInteger.valueOf(1000L))
+                assertEquals(offerInDatabase.serviceFeeRate, BigInteger.valueOf(100L))
                 assertEquals(offerInDatabase.onChainDirection, "1")
                 assertEquals(offerInDatabase.protocolVersion, "1")
                 assertEquals(offerInDatabase.state, OfferState.AWAITING_PUBLIC_KEY_ANNOUNCEMENT.asString)
-                val settlementMethodsInDatabase = databaseService.getOfferSettlementMethods(encoder
-                    .encodeToString(expectedOfferIdByteArray), offerInDatabase.chainID)
+                val settlementMethodsInDatabase = databaseService.getOfferSettlementMethods(expectedOfferId,
+                    offerInDatabase.chainID)
                 assertEquals(settlementMethodsInDatabase!!.size, 1)
                 val decoder = Base64.getDecoder()
                 val settlementMethodInDatabase = Json.decodeFromString<SettlementMethod>(
@@ -1173,19 +1169,19 @@ class OfferServiceTests {
         offerTruthSource.addOffer(offer)
         val encoder = Base64.getEncoder()
         val offerForDatabase = DatabaseOffer(
-            id = encoder.encodeToString(newOfferID.asByteArray()),
+            id = newOfferID,
             isCreated = 1L,
             isTaken = 0L,
             maker = offer.maker,
             interfaceId = encoder.encodeToString(offer.interfaceID),
             stablecoin = offer.stablecoin,
-            amountLowerBound = offer.amountLowerBound.toString(),
-            amountUpperBound = offer.amountUpperBound.toString(),
-            securityDepositAmount = offer.securityDepositAmount.toString(),
-            serviceFeeRate = offer.serviceFeeRate.toString(),
+            amountLowerBound = offer.amountLowerBound,
+            amountUpperBound = offer.amountUpperBound,
+            securityDepositAmount = offer.securityDepositAmount,
+            serviceFeeRate = offer.serviceFeeRate,
             onChainDirection = offer.direction.string,
             protocolVersion = offer.protocolVersion.toString(),
-            chainID = offer.chainID.toString(),
+            chainID = offer.chainID,
             havePublicKey = 1L,
             isUserMaker = 1L,
             state = offer.state.asString,
@@ -1242,7 +1238,7 @@ class OfferServiceTests {
         assertEquals(OfferState.OFFER_OPENED, offer.state)
         assertEquals(OpeningOfferState.COMPLETED, offer.openingOfferState.value)
         assertNull(offer.openingOfferException)
-        val offerInDatabase = databaseService.getOffer(encoder.encodeToString(newOfferID.asByteArray()))
+        val offerInDatabase = databaseService.getOffer(newOfferID)
         assertEquals(OfferState.OFFER_OPENED.asString, offerInDatabase?.state)
         assertEquals(OpeningOfferState.COMPLETED.asString, offerInDatabase?.openingOfferState)
 
@@ -1276,10 +1272,6 @@ class OfferServiceTests {
             }.body()
         }
         val expectedOfferId = UUID.fromString(testingServerResponse.offerId)
-        val expectedOfferIdByteBuffer = ByteBuffer.wrap(ByteArray(16))
-        expectedOfferIdByteBuffer.putLong(expectedOfferId.mostSignificantBits)
-        expectedOfferIdByteBuffer.putLong(expectedOfferId.leastSignificantBits)
-        val expectedOfferIdByteArray = expectedOfferIdByteBuffer.array()
 
         val w3 = CommutoWeb3j(HttpService(System.getenv("BLOCKCHAIN_NODE")))
 
@@ -1390,7 +1382,7 @@ class OfferServiceTests {
                 assertEquals(OfferState.CANCELED, openedOffer.state)
                 assertEquals(expectedOfferId, appendedEvent.offerID)
                 assertEquals(expectedOfferId, removedEvent.offerID)
-                val offerInDatabase = databaseService.getOffer(encoder.encodeToString(expectedOfferIdByteArray))
+                val offerInDatabase = databaseService.getOffer(expectedOfferId)
                 assertEquals(offerInDatabase, null)
             }
         }
@@ -1427,19 +1419,19 @@ class OfferServiceTests {
         )
         val encoder = Base64.getEncoder()
         val offerForDatabase = DatabaseOffer(
-            id = encoder.encodeToString(expectedOfferId.asByteArray()),
+            id = expectedOfferId,
             isCreated = 1L,
             isTaken = 0L,
             maker = offer.maker,
             interfaceId = encoder.encodeToString(offer.interfaceID),
             stablecoin = offer.stablecoin,
-            amountLowerBound = offer.amountLowerBound.toString(),
-            amountUpperBound = offer.amountUpperBound.toString(),
-            securityDepositAmount = offer.securityDepositAmount.toString(),
-            serviceFeeRate = offer.serviceFeeRate.toString(),
+            amountLowerBound = offer.amountLowerBound,
+            amountUpperBound = offer.amountUpperBound,
+            securityDepositAmount = offer.securityDepositAmount,
+            serviceFeeRate = offer.serviceFeeRate,
             onChainDirection = offer.direction.string,
             protocolVersion = offer.protocolVersion.toString(),
-            chainID = offer.chainID.toString(),
+            chainID = offer.chainID,
             havePublicKey = 1L,
             isUserMaker = 1L,
             state = offer.state.asString,
@@ -1517,7 +1509,7 @@ class OfferServiceTests {
                     offer.offerCancellationTransaction!!.transactionHash)
                 assertEquals(expectedOfferId, appendedEvent.offerID)
                 assertEquals(expectedOfferId, removedEvent.offerID)
-                assertNull(databaseService.getOffer(encoder.encodeToString(expectedOfferIdByteArray)))
+                assertNull(databaseService.getOffer(expectedOfferId))
             }
         }
 
@@ -1543,7 +1535,6 @@ class OfferServiceTests {
             keyManagerService,
             TestSwapService(),
         )
-        offerService.setOfferTruthSource(offerTruthSource)
 
         val offer = Offer(
             isCreated = true,
@@ -1573,21 +1564,22 @@ class OfferServiceTests {
         )
         offer.approvingToTakeTransaction = approvingToTakeTransaction
         offerTruthSource.offers[offerID] = offer
+        offerService.setOfferTruthSource(offerTruthSource)
         val encoder = Base64.getEncoder()
         val offerForDatabase = DatabaseOffer(
-            id = encoder.encodeToString(offerID.asByteArray()),
+            id = offerID,
             isCreated = 1L,
             isTaken = 0L,
             maker = offer.maker,
             interfaceId = encoder.encodeToString(offer.interfaceID),
             stablecoin = offer.stablecoin,
-            amountLowerBound = offer.amountLowerBound.toString(),
-            amountUpperBound = offer.amountUpperBound.toString(),
-            securityDepositAmount = offer.securityDepositAmount.toString(),
-            serviceFeeRate = offer.serviceFeeRate.toString(),
+            amountLowerBound = offer.amountLowerBound,
+            amountUpperBound = offer.amountUpperBound,
+            securityDepositAmount = offer.securityDepositAmount,
+            serviceFeeRate = offer.serviceFeeRate,
             onChainDirection = offer.direction.string,
             protocolVersion = offer.protocolVersion.toString(),
-            chainID = offer.chainID.toString(),
+            chainID = offer.chainID,
             havePublicKey = 1L,
             isUserMaker = 0L,
             state = offer.state.asString,
@@ -1631,7 +1623,7 @@ class OfferServiceTests {
 
         assertEquals(TokenTransferApprovalState.COMPLETED, offer.approvingToTakeState.value)
         assertNull(offer.approvingToTakeException)
-        val offerInDatabase = databaseService.getOffer(id = encoder.encodeToString(offerID.asByteArray()))
+        val offerInDatabase = databaseService.getOffer(id = offerID)
         assertEquals(TokenTransferApprovalState.COMPLETED.asString, offerInDatabase?.approveToTakeState)
 
     }
@@ -1697,8 +1689,7 @@ class OfferServiceTests {
         offerService.handleOfferOpenedEvent(event = offerOpenedEvent)
         assertEquals(1, offerTruthSource.offers.size)
         assertNotNull(offerTruthSource.offers[expectedOfferId])
-        val encoder = Base64.getEncoder()
-        val offerInDatabase = databaseService.getOffer(encoder.encodeToString(expectedOfferId.asByteArray()))
+        val offerInDatabase = databaseService.getOffer(expectedOfferId)
         assertNotNull(offerInDatabase)
 
         val offerTakenEvent = OfferTakenEvent(
@@ -1710,8 +1701,10 @@ class OfferServiceTests {
         offerService.handleOfferTakenEvent(event = offerTakenEvent)
         assertEquals(0, offerTruthSource.offers.size)
         assertNull(offerTruthSource.offers[expectedOfferId])
-        val offerInDatabaseAfterTaking = databaseService.getOffer(encoder.encodeToString(expectedOfferId.asByteArray()))
+        val offerInDatabaseAfterTaking = databaseService.getOffer(expectedOfferId)
         assertNull(offerInDatabaseAfterTaking)
+        // Offers neither made nor taken by the user are deleted rather than archived
+        assertTrue(databaseService.getArchivedOffers().isEmpty())
     }
 
     /**
@@ -1793,19 +1786,19 @@ class OfferServiceTests {
         offer.takingOfferState.value = TakingOfferState.AWAITING_TRANSACTION_CONFIRMATION
         offerTruthSource.offers[newOfferID] = offer
         val offerForDatabase = DatabaseOffer(
-            id = encoder.encodeToString(newOfferID.asByteArray()),
+            id = newOfferID,
             isCreated = if (offer.isCreated.value) 1L else 0L,
             isTaken = if (offer.isTaken.value) 1L else 0L,
             maker = offer.maker,
             interfaceId = encoder.encodeToString(offer.interfaceID),
             stablecoin = offer.stablecoin,
-            amountLowerBound = offer.amountLowerBound.toString(),
-            amountUpperBound = offer.amountUpperBound.toString(),
-            securityDepositAmount = offer.securityDepositAmount.toString(),
-            serviceFeeRate = offer.serviceFeeRate.toString(),
+            amountLowerBound = offer.amountLowerBound,
+            amountUpperBound = offer.amountUpperBound,
+            securityDepositAmount = offer.securityDepositAmount,
+            serviceFeeRate = offer.serviceFeeRate,
             onChainDirection = offer.direction.string,
             protocolVersion = offer.protocolVersion.toString(),
-            chainID = offer.chainID.toString(),
+            chainID = offer.chainID,
             havePublicKey = if (offer.havePublicKey) 1L else 0L,
             isUserMaker = if (offer.isUserMaker) 1L else 0L,
             state = offer.state.asString,
@@ -1855,6 +1848,7 @@ class OfferServiceTests {
                 exception: BlockchainTransactionException
             ) {}
             override suspend fun handleNewSwap(takenOffer: Offer) {}
+            override fun attachSwapToTransactionHashIndex(swap: Swap) {}
             override suspend fun handleTokenTransferApprovalEvent(event: ApprovalEvent) {}
             override suspend fun handleSwapFilledEvent(event: SwapFilledEvent) {}
             override suspend fun handlePaymentSentEvent(event: PaymentSentEvent) {}
@@ -1894,7 +1888,7 @@ class OfferServiceTests {
         assertEquals(OfferState.TAKEN, offer.state)
         assertEquals(TakingOfferState.COMPLETED, offer.takingOfferState.value)
 
-        val offerInDatabase = databaseService.getOffer(id = encoder.encodeToString(newOfferID.asByteArray()))
+        val offerInDatabase = databaseService.getOffer(id = newOfferID)
         assertEquals(OfferState.TAKEN.asString, offerInDatabase?.state)
         assertEquals(TakingOfferState.COMPLETED.asString, offerInDatabase?.takingOfferState)
 
@@ -1968,19 +1962,19 @@ class OfferServiceTests {
         )
         offerTruthSource.addOffer(offer)
         val offerForDatabase = DatabaseOffer(
-            id = encoder.encodeToString(offerID.asByteArray()),
+            id = offerID,
             isCreated = if (offer.isCreated.value) 1L else 0L,
             isTaken = if (offer.isTaken.value) 1L else 0L,
             maker = offer.maker,
             interfaceId = encoder.encodeToString(offer.interfaceID),
             stablecoin = offer.stablecoin,
-            amountLowerBound = offer.amountLowerBound.toString(),
-            amountUpperBound = offer.amountUpperBound.toString(),
-            securityDepositAmount = offer.securityDepositAmount.toString(),
-            serviceFeeRate = offer.serviceFeeRate.toString(),
+            amountLowerBound = offer.amountLowerBound,
+            amountUpperBound = offer.amountUpperBound,
+            securityDepositAmount = offer.securityDepositAmount,
+            serviceFeeRate = offer.serviceFeeRate,
             onChainDirection = offer.direction.string,
             protocolVersion = offer.protocolVersion.toString(),
-            chainID = offer.chainID.toString(),
+            chainID = offer.chainID,
             havePublicKey = if (offer.havePublicKey) 1L else 0L,
             isUserMaker = if (offer.isUserMaker) 1L else 0L,
             state = offer.state.asString,
@@ -2026,6 +2020,7 @@ class OfferServiceTests {
                 this.swapID = takenOffer.id
                 this.chainID = takenOffer.chainID
             }
+            override fun attachSwapToTransactionHashIndex(swap: Swap) {}
             override suspend fun handleTokenTransferApprovalEvent(event: ApprovalEvent) {}
             override suspend fun handleSwapFilledEvent(event: SwapFilledEvent) {}
             override suspend fun handlePaymentSentEvent(event: PaymentSentEvent) {}
@@ -2080,12 +2075,60 @@ class OfferServiceTests {
         assertEquals(BigInteger.valueOf(31337L), swapService.chainID)
         assert(offer.isTaken.value)
         assertNull(offerTruthSource.offers[offerID])
-        assertNull(databaseService.getOffer(id = encoder.encodeToString(offerID.asByteArray())))
+        assertNull(databaseService.getOffer(id = offerID))
         assertNull(databaseService.getOfferSettlementMethods(
-            offerID = encoder.encodeToString(offerID.asByteArray()),
-            chainID = offer.chainID.toString())
+            offerID = offerID,
+            chainID = offer.chainID)
+        )
+        assertEquals(listOf(offerID), databaseService.getArchivedOffers().map { it.id })
+
+    }
+
+    /**
+     * Ensures that [OfferService] removes offers taken by other users from the [OfferOrderBook] of an
+     * [OffersViewModel], and not just from its map of offers, when handling
+     * [OfferTaken](https://www.commuto.xyz/docs/technical-reference/core-tec-ref#offertaken) events.
+     */
+    @Test
+    fun testHandleOfferTakenEventRemovesOfferFromOrderBook() = runBlocking {
+        val databaseService = DatabaseService(DatabaseDriverFactory())
+        databaseService.createTables()
+        val offerService = OfferService(
+            databaseService,
+            KeyManagerService(databaseService),
+            TestSwapService(),
+        )
+        val offersViewModel = OffersViewModel(offerService, StablecoinInformationRepository.hardhatStablecoinInfoRepo)
+
+        val offer = Offer(
+            isCreated = true,
+            isTaken = false,
+            id = UUID.randomUUID(),
+            maker = "0x0000000000000000000000000000000000000000",
+            interfaceID = ByteArray(0),
+            stablecoin = "0x0000000000000000000000000000000000000000",
+            amountLowerBound = BigInteger.ZERO,
+            amountUpperBound = BigInteger.ZERO,
+            securityDepositAmount = BigInteger.ZERO,
+            serviceFeeRate = BigInteger.ZERO,
+            direction = OfferDirection.BUY,
+            settlementMethods = mutableStateListOf(),
+            protocolVersion = BigInteger.ZERO,
+            chainID = BigInteger.valueOf(31337L),
+            havePublicKey = false,
+            isUserMaker = false,
+            state = OfferState.OFFER_OPENED
+        )
+        offersViewModel.addOffers(listOf(offer))
+        assertTrue(offersViewModel.orderBook.getAllOffers(limit = Int.MAX_VALUE).contains(offer))
+
+        offerService.handleOfferTakenEvent(
+            event = OfferTakenEvent(offerID = offer.id, takerInterfaceID = ByteArray(0), chainID = offer.chainID)
         )
 
+        assertTrue(offer.isTaken.value)
+        assertNull(offersViewModel.offers[offer.id])
+        assertFalse(offersViewModel.orderBook.getAllOffers(limit = Int.MAX_VALUE).any { it.id == offer.id })
     }
 
     /**
@@ -2181,21 +2224,20 @@ class OfferServiceTests {
         )
         offerTruthSource.addOffer(offer)
         val encoder = Base64.getEncoder()
-        val offerIDB64String = encoder.encodeToString(offer.id.asByteArray())
         val offerForDatabase = DatabaseOffer(
-            id = offerIDB64String,
+            id = offer.id,
             isCreated = 1L,
             isTaken = 0L,
             maker = offer.maker,
             interfaceId = encoder.encodeToString(offer.interfaceID),
             stablecoin = offer.stablecoin,
-            amountLowerBound = offer.amountLowerBound.toString(),
-            amountUpperBound = offer.amountUpperBound.toString(),
-            securityDepositAmount = offer.securityDepositAmount.toString(),
-            serviceFeeRate = offer.serviceFeeRate.toString(),
+            amountLowerBound = offer.amountLowerBound,
+            amountUpperBound = offer.amountUpperBound,
+            securityDepositAmount = offer.securityDepositAmount,
+            serviceFeeRate = offer.serviceFeeRate,
             onChainDirection = offer.onChainDirection.toString(),
             protocolVersion = offer.protocolVersion.toString(),
-            chainID = offer.chainID.toString(),
+            chainID = offer.chainID,
             havePublicKey = 1L,
             isUserMaker = 1L,
             state = offer.state.asString,
@@ -2264,7 +2306,7 @@ class OfferServiceTests {
                 assertEquals("SANDDOLLAR", offer.settlementMethods[1].method)
 
                 val settlementMethodsInDatabase = databaseService.getOfferSettlementMethods(
-                    offerID = offerIDB64String,
+                    offerID = offer.id,
                     chainID = offerForDatabase.chainID
                 )
                 assertEquals(settlementMethodsInDatabase!!.size, 2)
@@ -2379,21 +2421,20 @@ class OfferServiceTests {
         )
         offerTruthSource.addOffer(offer)
         val encoder = Base64.getEncoder()
-        val offerIDB64String = encoder.encodeToString(offer.id.asByteArray())
         val offerForDatabase = DatabaseOffer(
-            id = offerIDB64String,
+            id = offer.id,
             isCreated = 1L,
             isTaken = 0L,
             maker = offer.maker,
             interfaceId = encoder.encodeToString(offer.interfaceID),
             stablecoin = offer.stablecoin,
-            amountLowerBound = offer.amountLowerBound.toString(),
-            amountUpperBound = offer.amountUpperBound.toString(),
-            securityDepositAmount = offer.securityDepositAmount.toString(),
-            serviceFeeRate = offer.serviceFeeRate.toString(),
+            amountLowerBound = offer.amountLowerBound,
+            amountUpperBound = offer.amountUpperBound,
+            securityDepositAmount = offer.securityDepositAmount,
+            serviceFeeRate = offer.serviceFeeRate,
             onChainDirection = offer.onChainDirection.toString(),
             protocolVersion = offer.protocolVersion.toString(),
-            chainID = offer.chainID.toString(),
+            chainID = offer.chainID,
             havePublicKey = 1L,
             isUserMaker = 1L,
             state = offer.state.asString,
@@ -2430,7 +2471,7 @@ class OfferServiceTests {
         }
         runBlocking {
             databaseService.storeOfferSettlementMethods(
-                offerID = encoder.encodeToString(expectedOfferId.asByteArray()),
+                offerID = expectedOfferId,
                 chainID = offerForDatabase.chainID,
                 settlementMethods = serializedSettlementMethodsAndPrivateDetails
             )
@@ -2456,7 +2497,7 @@ class OfferServiceTests {
         }
         runBlocking {
             databaseService.storePendingOfferSettlementMethods(
-                offerID = offerIDB64String,
+                offerID = offer.id,
                 chainID = offerForDatabase.chainID,
                 pendingSettlementMethods = serializedPendingSettlementMethodsAndPrivateDetails
             )
@@ -2494,7 +2535,7 @@ class OfferServiceTests {
                 assertEquals(0, offer.selectedSettlementMethods.size)
 
                 val settlementMethodsInDatabase = databaseService.getOfferSettlementMethods(
-                    offerID = offerIDB64String,
+                    offerID = offer.id,
                     chainID = offerForDatabase.chainID
                 )
                 assertEquals(settlementMethodsInDatabase!!.size, 2)
@@ -2508,7 +2549,7 @@ class OfferServiceTests {
                     settlementMethodsInDatabase[1].second)
 
                 val pendingSettlementMethodsInDatabase = databaseService.getPendingOfferSettlementMethods(
-                    offerID = offerIDB64String,
+                    offerID = offer.id,
                     chainID = offerForDatabase.chainID
                 )
                 assertNull(pendingSettlementMethodsInDatabase)
@@ -2525,8 +2566,8 @@ class OfferServiceTests {
     fun testHandlePublicKeyAnnouncement() {
 
         class TestDatabaseService: DatabaseService(DatabaseDriverFactory()) {
-            val updatedOfferIDChannel = Channel<String>()
-            override suspend fun updateOfferHavePublicKey(offerID: String, chainID: String, havePublicKey: Boolean) {
+            val updatedOfferIDChannel = Channel<UUID>()
+            override suspend fun updateOfferHavePublicKey(offerID: UUID, chainID: BigInteger, havePublicKey: Boolean) {
                 super.updateOfferHavePublicKey(offerID, chainID, havePublicKey)
                 updatedOfferIDChannel.send(offerID)
             }
@@ -2547,10 +2588,6 @@ class OfferServiceTests {
         val publicKey = PublicKey(keyPair.keyPair.public)
 
         val offerID = UUID.randomUUID()
-        val offerIDByteBuffer = ByteBuffer.wrap(ByteArray(16))
-        offerIDByteBuffer.putLong(offerID.mostSignificantBits)
-        offerIDByteBuffer.putLong(offerID.leastSignificantBits)
-        val offerIDByteArray = offerIDByteBuffer.array()
         val offer = Offer.fromOnChainData(
             isCreated = true,
             isTaken = false,
@@ -2579,17 +2616,17 @@ class OfferServiceTests {
         val offerForDatabase = DatabaseOffer(
             isCreated = isCreated,
             isTaken = isTaken,
-            id = encoder.encodeToString(offerIDByteArray),
+            id = offerID,
             maker = offer.maker,
             interfaceId = encoder.encodeToString(offer.interfaceID),
             stablecoin = offer.stablecoin,
-            amountLowerBound = offer.amountLowerBound.toString(),
-            amountUpperBound = offer.amountUpperBound.toString(),
-            securityDepositAmount = offer.securityDepositAmount.toString(),
-            serviceFeeRate = offer.serviceFeeRate.toString(),
+            amountLowerBound = offer.amountLowerBound,
+            amountUpperBound = offer.amountUpperBound,
+            securityDepositAmount = offer.securityDepositAmount,
+            serviceFeeRate = offer.serviceFeeRate,
             onChainDirection = offer.onChainDirection.toString(),
             protocolVersion = offer.protocolVersion.toString(),
-            chainID = offer.chainID.toString(),
+            chainID = offer.chainID,
             havePublicKey = havePublicKey,
             isUserMaker = isUserMaker,
             state = offer.state.asString,
@@ -2632,7 +2669,7 @@ class OfferServiceTests {
                 withTimeout(20_000) {
                     databaseService.updatedOfferIDChannel.receive()
                     assert(offerTruthSource.offers[offerID]!!.havePublicKey)
-                    val offerInDatabase = databaseService.getOffer(encoder.encodeToString(offerIDByteArray))
+                    val offerInDatabase = databaseService.getOffer(offerID)
                     assertEquals(offerInDatabase!!.havePublicKey, 1L)
                     assertEquals(offerInDatabase.state, "offerOpened")
                     val keyInDatabase = keyManagerService.getPublicKey(publicKey.interfaceId)
@@ -2858,22 +2895,22 @@ class OfferServiceTests {
         assertNotNull(keyManagerService.getKeyPair(offer.interfaceID))
 
         val encoder = Base64.getEncoder()
-        val offerInDatabase = databaseService.getOffer(encoder.encodeToString(offer.id.asByteArray()))!!
+        val offerInDatabase = databaseService.getOffer(offer.id)!!
         //TODO: check proper maker address once WalletService is implemented
         val mostlyExpectedOfferInDatabase = DatabaseOffer(
-            id = encoder.encodeToString(offer.id.asByteArray()),
+            id = offer.id,
             isCreated = 1L,
             isTaken = 0L,
             maker = "0x0000000000000000000000000000000000000000",
             interfaceId = encoder.encodeToString(offer.interfaceID),
             stablecoin = offer.stablecoin,
-            amountLowerBound = offer.amountLowerBound.toString(),
-            amountUpperBound = offer.amountUpperBound.toString(),
-            securityDepositAmount = offer.securityDepositAmount.toString(),
-            serviceFeeRate = offer.serviceFeeRate.toString(),
+            amountLowerBound = offer.amountLowerBound,
+            amountUpperBound = offer.amountUpperBound,
+            securityDepositAmount = offer.securityDepositAmount,
+            serviceFeeRate = offer.serviceFeeRate,
             onChainDirection = offer.onChainDirection.toString(),
             protocolVersion = offer.protocolVersion.toString(),
-            chainID = offer.chainID.toString(),
+            chainID = offer.chainID,
             havePublicKey = 1L,
             isUserMaker = 1L,
             state = OfferState.OPEN_OFFER_TRANSACTION_SENT.asString,
@@ -2917,8 +2954,8 @@ class OfferServiceTests {
         assertEquals(mostlyExpectedOfferInDatabase.isUserMaker, offerInDatabase.isUserMaker)
 
         val settlementMethodsInDatabase = databaseService.getOfferSettlementMethods(
-            offerID = encoder.encodeToString(offer.id.asByteArray()),
-            chainID = offer.chainID.toString()
+            offerID = offer.id,
+            chainID = offer.chainID
         )!!
         val expectedSettlementMethodsInDatabase = offer.onChainSettlementMethods.map {
             encoder.encodeToString(it)
@@ -3032,26 +3069,21 @@ class OfferServiceTests {
             state = OfferState.OFFER_OPENED
         )
         offerTruthSource.addOffer(offer)
-        val offerIDByteBuffer = ByteBuffer.wrap(ByteArray(16))
-        offerIDByteBuffer.putLong(offerID.mostSignificantBits)
-        offerIDByteBuffer.putLong(offerID.leastSignificantBits)
-        val offerIDByteArray = offerIDByteBuffer.array()
         val encoder = Base64.getEncoder()
-        val offerIDString = encoder.encodeToString(offerIDByteArray)
         val offerForDatabase = DatabaseOffer(
-            id = offerIDString,
+            id = offerID,
             isCreated = 1L,
             isTaken = 0L,
             maker = offer.maker,
             interfaceId = encoder.encodeToString(offer.interfaceID),
             stablecoin = offer.stablecoin,
-            amountLowerBound = offer.amountLowerBound.toString(),
-            amountUpperBound = offer.amountUpperBound.toString(),
-            securityDepositAmount = offer.securityDepositAmount.toString(),
-            serviceFeeRate = offer.serviceFeeRate.toString(),
+            amountLowerBound = offer.amountLowerBound,
+            amountUpperBound = offer.amountUpperBound,
+            securityDepositAmount = offer.securityDepositAmount,
+            serviceFeeRate = offer.serviceFeeRate,
             onChainDirection = offer.direction.string,
             protocolVersion = offer.protocolVersion.toString(),
-            chainID = offer.chainID.toString(),
+            chainID = offer.chainID,
             havePublicKey = 1L,
             isUserMaker = 1L,
             state = offer.state.asString,
@@ -3097,7 +3129,7 @@ class OfferServiceTests {
                 .offers[offerID]?.cancelingOfferState?.value)
             assertNotNull(offerTruthSource.offers[offerID]?.offerCancellationTransaction?.transactionHash)
 
-            val offerInDatabase = databaseService.getOffer(offerIDString)
+            val offerInDatabase = databaseService.getOffer(offerID)
             assertEquals(CancelingOfferState.AWAITING_TRANSACTION_CONFIRMATION.asString, offerInDatabase!!
                 .cancelingOfferState)
             assertNotNull(offerInDatabase.offerCancellationTransactionHash)
@@ -3193,19 +3225,19 @@ class OfferServiceTests {
         offerTruthSource.offers[offerID] = offer
         val encoder = Base64.getEncoder()
         val offerForDatabase = DatabaseOffer(
-            id = encoder.encodeToString(offerID.asByteArray()),
+            id = offerID,
             isCreated = 1L,
             isTaken = 0L,
             maker = offer.maker,
             interfaceId = encoder.encodeToString(offer.interfaceID),
             stablecoin = offer.stablecoin,
-            amountLowerBound = offer.amountLowerBound.toString(),
-            amountUpperBound = offer.amountUpperBound.toString(),
-            securityDepositAmount = offer.securityDepositAmount.toString(),
-            serviceFeeRate = offer.serviceFeeRate.toString(),
+            amountLowerBound = offer.amountLowerBound,
+            amountUpperBound = offer.amountUpperBound,
+            securityDepositAmount = offer.securityDepositAmount,
+            serviceFeeRate = offer.serviceFeeRate,
             onChainDirection = offer.direction.string,
             protocolVersion = offer.protocolVersion.toString(),
-            chainID = offer.chainID.toString(),
+            chainID = offer.chainID,
             havePublicKey = 1L,
             isUserMaker = 1L,
             state = offer.state.asString,
@@ -3274,7 +3306,7 @@ class OfferServiceTests {
                     price = "1.00"
                 )
             )
-            val offerInDatabase = databaseService.getOffer(encoder.encodeToString(offer.id.asByteArray()))
+            val offerInDatabase = databaseService.getOffer(offer.id)
             assertEquals(EditingOfferState.AWAITING_TRANSACTION_CONFIRMATION.asString, offerInDatabase!!
                 .editingOfferState)
             assertNotNull(offerInDatabase.offerEditingTransactionHash)
@@ -3284,8 +3316,8 @@ class OfferServiceTests {
                 assert(expectedSettlementMethods[it].onChainData!!.contentEquals(offerStruct.settlementMethods[it]))
             }
             val pendingSettlementMethodsInDatabase = databaseService.getPendingOfferSettlementMethods(
-                offerID = encoder.encodeToString(offerID.asByteArray()),
-                chainID = BigInteger.valueOf(31337L).toString()
+                offerID = offerID,
+                chainID = BigInteger.valueOf(31337L)
             )
             assertEquals(1, pendingSettlementMethodsInDatabase!!.size)
             assertEquals(Json.encodeToString(expectedSettlementMethods[0]), pendingSettlementMethodsInDatabase[0].first)
@@ -3391,19 +3423,19 @@ class OfferServiceTests {
         offerTruthSource.addOffer(offer)
         val encoder = Base64.getEncoder()
         val offerForDatabase = DatabaseOffer(
-            id = encoder.encodeToString(offerID.asByteArray()),
+            id = offerID,
             isCreated = if (offer.isCreated.value) 1L else 0L,
             isTaken = if (offer.isTaken.value) 1L else 0L,
             maker = offer.maker,
             interfaceId = encoder.encodeToString(offer.interfaceID),
             stablecoin = offer.stablecoin,
-            amountLowerBound = offer.amountLowerBound.toString(),
-            amountUpperBound = offer.amountUpperBound.toString(),
-            securityDepositAmount = offer.securityDepositAmount.toString(),
-            serviceFeeRate = offer.serviceFeeRate.toString(),
+            amountLowerBound = offer.amountLowerBound,
+            amountUpperBound = offer.amountUpperBound,
+            securityDepositAmount = offer.securityDepositAmount,
+            serviceFeeRate = offer.serviceFeeRate,
             onChainDirection = offer.direction.string,
             protocolVersion = offer.protocolVersion.toString(),
-            chainID = offer.chainID.toString(),
+            chainID = offer.chainID,
             havePublicKey = if (offer.havePublicKey) 1L else 0L,
             isUserMaker = if (offer.isUserMaker) 1L else 0L,
             state = offer.state.asString,
@@ -3434,7 +3466,7 @@ class OfferServiceTests {
         )
         databaseService.storeOffer(offerForDatabase)
 
-        val offerInDatabaseBeforeTaking = databaseService.getOffer(id = encoder.encodeToString(offer.id.asByteArray()))
+        val offerInDatabaseBeforeTaking = databaseService.getOffer(id = offer.id)
         assertEquals(offerForDatabase, offerInDatabaseBeforeTaking)
 
         val tokenTransferApprovalTransaction = offerService.createApproveTokenTransferToTakeOfferTransaction(
@@ -3597,10 +3629,10 @@ class OfferServiceTests {
         assertEquals(SwapState.TAKE_OFFER_TRANSACTION_SENT, swapInTruthSource.state.value)
 
         // Test the persistently stored swap
-        val swapInDatabase = databaseService.getSwap(id = encoder.encodeToString(offerID.asByteArray()))
+        val swapInDatabase = databaseService.getSwap(id = offerID)
         // TODO: check proper taker address once WalletService is implemented
         val expectedSwapInDatabase = DatabaseSwap(
-            id = encoder.encodeToString(offerID.asByteArray()),
+            id = offerID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = swapInTruthSource.maker,
@@ -3608,12 +3640,12 @@ class OfferServiceTests {
             taker = swapInTruthSource.taker,
             takerInterfaceID = encoder.encodeToString(swapInTruthSource.takerInterfaceID),
             stablecoin = swapInTruthSource.stablecoin,
-            amountLowerBound = swapInTruthSource.amountLowerBound.toString(),
-            amountUpperBound = swapInTruthSource.amountUpperBound.toString(),
-            securityDepositAmount = swapInTruthSource.securityDepositAmount.toString(),
-            takenSwapAmount = swapInTruthSource.takenSwapAmount.toString(),
-            serviceFeeAmount = swapInTruthSource.serviceFeeAmount.toString(),
-            serviceFeeRate = swapInTruthSource.serviceFeeRate.toString(),
+            amountLowerBound = swapInTruthSource.amountLowerBound,
+            amountUpperBound = swapInTruthSource.amountUpperBound,
+            securityDepositAmount = swapInTruthSource.securityDepositAmount,
+            takenSwapAmount = swapInTruthSource.takenSwapAmount,
+            serviceFeeAmount = swapInTruthSource.serviceFeeAmount,
+            serviceFeeRate = swapInTruthSource.serviceFeeRate,
             onChainDirection = swapInTruthSource.onChainDirection.toString(),
             settlementMethod = encoder.encodeToString(Json.encodeToString(
                 SettlementMethod(
@@ -3623,7 +3655,6 @@ class OfferServiceTests {
                 ),
             ).encodeToByteArray()),
             makerPrivateData = null,
-            makerPrivateDataInitializationVector = null,
             takerPrivateData = Json.encodeToString(
                 PrivateSEPAData(
                     accountHolder = "account_holder",
@@ -3631,15 +3662,14 @@ class OfferServiceTests {
                     iban = "iban",
                     address = "address"
                 )
-            ),
-            takerPrivateDataInitializationVector = null,
+            ).toByteArray(),
             protocolVersion = swapInTruthSource.protocolVersion.toString(),
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = swapInTruthSource.onChainDisputeRaiser.toString(),
-            chainID = swapInTruthSource.chainID.toString(),
+            chainID = swapInTruthSource.chainID,
             state = swapInTruthSource.state.value.asString,
             role = "takerAndSeller",
             approveToFillState = swapInTruthSource.approvingToFillState.value.asString,
@@ -3672,4 +3702,194 @@ class OfferServiceTests {
 
     }
 
-}
\ No newline at end of file
+    /**
+     * Ensures that [OfferService.hydrateOffers] adds persistently stored offers, with their settlement methods, private
+     * data and states, to the offer truth source.
+     */
+    @Test
+    fun testHydrateOffers() = runBlocking {
+        val databaseService = DatabaseService(DatabaseDriverFactory())
+        databaseService.createTables()
+        val keyManagerService = KeyManagerService(databaseService)
+        val encoder = Base64.getEncoder()
+
+        val offerIDs = List(3) { UUID.randomUUID() }
+        offerIDs.forEach { offerID ->
+            databaseService.storeOffer(DatabaseOffer(
+                id = offerID,
+                isCreated = 1L,
+                isTaken = 0L,
+                maker = "0x0000000000000000000000000000000000000000",
+                interfaceId = encoder.encodeToString("interface-id".toByteArray()),
+                stablecoin = "0x0000000000000000000000000000000000000000",
+                amountLowerBound = BigInteger.valueOf(10000L),
+                amountUpperBound = BigInteger.valueOf(20000L),
+                securityDepositAmount = BigInteger.valueOf(2000L),
+                serviceFeeRate = BigInteger.valueOf(100L),
+                onChainDirection = "1",
+                protocolVersion = "1",
+                chainID = BigInteger.valueOf(31337L),
+                havePublicKey = 1L,
+                isUserMaker = 1L,
+                state = OfferState.OFFER_OPENED.asString,
+                approveToOpenState = TokenTransferApprovalState.COMPLETED.asString,
+                approveToOpenTransactionHash = null,
+                approveToOpenTransactionCreationTime = null,
+                approveToOpenTransactionCreationBlockNumber = null,
+                openingOfferState = OpeningOfferState.COMPLETED.asString,
+                openingOfferTransactionHash = null,
+                openingOfferTransactionCreationTime = null,
+                openingOfferTransactionCreationBlockNumber = null,
+                cancelingOfferState = CancelingOfferState.NONE.asString,
+                offerCancellationTransactionHash = null,
+                offerCancellationTransactionCreationTime = null,
+                offerCancellationTransactionCreationBlockNumber = null,
+                editingOfferState = EditingOfferState.NONE.asString,
+                offerEditingTransactionHash = null,
+                offerEditingTransactionCreationTime = null,
+                offerEditingTransactionCreationBlockNumber = null,
+                approveToTakeState = TokenTransferApprovalState.NONE.asString,
+                approveToTakeTransactionHash = null,
+                approveToTakeTransactionCreationTime = null,
+                approveToTakeTransactionCreationBlockNumber = null,
+                takingOfferState = TakingOfferState.NONE.asString,
+                takingOfferTransactionHash = null,
+                takingOfferTransactionCreationTime = null,
+                takingOfferTransactionCreationBlockNumber = null,
+            ))
+            val settlementMethod = SettlementMethod(currency = "EUR", price = "0.94", method = "SEPA")
+            databaseService.storeOfferSettlementMethods(
+                offerID = offerID,
+                chainID = BigInteger.valueOf(31337L),
+                settlementMethods = listOf(
+                    Pair(encoder.encodeToString(settlementMethod.onChainData), "private data for $offerID")
+                )
+            )
+        }
+
+        val offerService = OfferService(
+            databaseService,
+            keyManagerService,
+            TestSwapService(),
+        )
+        val offerTruthSource = TestOfferTruthSource()
+        offerService.setOfferTruthSource(offerTruthSource)
+
+        offerService.hydrateOffers()
+
+        assertEquals(offerIDs.toSet(), offerTruthSource.offers.keys)
+        offerIDs.forEach { offerID ->
+            val offer = offerTruthSource.offers[offerID]!!
+            assertEquals(OfferDirection.SELL, offer.direction)
+            assertEquals(BigInteger.valueOf(31337L), offer.chainID)
+            assertEquals(OfferState.OFFER_OPENED, offer.state)
+            assertEquals(OpeningOfferState.COMPLETED, offer.openingOfferState.value)
+            assertEquals(1, offer.settlementMethods.size)
+            assertEquals("SEPA", offer.settlementMethods.first().method)
+            assertEquals("private data for $offerID", offer.settlementMethods.first().privateData)
+        }
+    }
+
+    /**
+     * Ensures that, when lazy offer hydration is enabled, [OfferService.handleOfferOpenedEvent] records offers opened
+     * by other users as pending without retrieving or storing their on-chain data, and that
+     * [OfferService.handleOfferCanceledEvent] and [OfferService.handleOfferTakenEvent] discard pending offers.
+     */
+    @Test
+    fun testLazyOfferHydration() = runBlocking {
+        val databaseService = DatabaseService(DatabaseDriverFactory())
+        databaseService.createTables()
+        val offerService = OfferService(
+            databaseService,
+            KeyManagerService(databaseService),
+            TestSwapService(),
+            BlockchainEventRepository(),
+            BlockchainEventRepository(),
+            BlockchainEventRepository(),
+            BlockchainEventRepository(),
+            BlockchainEventRepository(),
+            lazyOfferHydration = true,
+        )
+        val offerTruthSource = TestOfferTruthSource()
+        offerService.setOfferTruthSource(offerTruthSource)
+
+        val chainID = BigInteger.valueOf(31337L)
+        val canceledOfferID = UUID.randomUUID()
+        val takenOfferID = UUID.randomUUID()
+        listOf(canceledOfferID, takenOfferID).forEach {
+            offerService.handleOfferOpenedEvent(OfferOpenedEvent(it, "interface-id".toByteArray(), chainID))
+        }
+        assertEquals(mapOf(canceledOfferID to chainID, takenOfferID to chainID), offerTruthSource.pendingOffers.toMap())
+        assertTrue(offerTruthSource.offers.isEmpty())
+        assertNull(databaseService.getOffer(canceledOfferID))
+        assertEquals(setOf(canceledOfferID, takenOfferID), databaseService.getPendingOffers().map { it.id }.toSet())
+
+        offerService.handleOfferCanceledEvent(OfferCanceledEvent(canceledOfferID, chainID, "0xa"))
+        offerService.handleOfferTakenEvent(OfferTakenEvent(takenOfferID, "taker-interface-id".toByteArray(), chainID))
+        assertTrue(offerTruthSource.pendingOffers.isEmpty())
+        assertTrue(offerTruthSource.offers.isEmpty())
+        assertTrue(databaseService.getPendingOffers().isEmpty())
+    }
+
+    /**
+     * Ensures that [OfferService.hydratePendingOffers] restores the persistently stored pending offers of another
+     * [OfferService], as if the app had been closed before their on-chain data was retrieved, and skips those that are
+     * already in the [OfferTruthSource].
+     */
+    @Test
+    fun testHydratePendingOffers() = runBlocking {
+        val databaseService = DatabaseService(DatabaseDriverFactory())
+        databaseService.createTables()
+        val createOfferService = {
+            OfferService(
+                databaseService,
+                KeyManagerService(databaseService),
+                TestSwapService(),
+                BlockchainEventRepository(),
+                BlockchainEventRepository(),
+                BlockchainEventRepository(),
+                BlockchainEventRepository(),
+                BlockchainEventRepository(),
+                lazyOfferHydration = true,
+            )
+        }
+        val previousOfferService = createOfferService()
+        previousOfferService.setOfferTruthSource(TestOfferTruthSource())
+        val chainID = BigInteger.valueOf(31337L)
+        val pendingOfferID = UUID.randomUUID()
+        val retrievedOfferID = UUID.randomUUID()
+        listOf(pendingOfferID, retrievedOfferID).forEach {
+            previousOfferService.handleOfferOpenedEvent(OfferOpenedEvent(it, "interface-id".toByteArray(), chainID))
+        }
+
+        val offerService = createOfferService()
+        val offerTruthSource = TestOfferTruthSource()
+        offerTruthSource.addOffer(
+            Offer(
+                isCreated = true,
+                isTaken = false,
+                id = retrievedOfferID,
+                maker = "0xf39fd6e51aad88f6f4ce6ab8827279cfffb92266",
+                interfaceID = "interface-id".toByteArray(),
+                stablecoin = "0x663F3ad617193148711d28f5334eE4Ed07016602",
+                amountLowerBound = BigInteger.valueOf(10_000L) * BigInteger.TEN.pow(18),
+                amountUpperBound = BigInteger.valueOf(20_000L) * BigInteger.TEN.pow(18),
+                securityDepositAmount = BigInteger.valueOf(2_000L) * BigInteger.TEN.pow(18),
+                serviceFeeRate = BigInteger.valueOf(100L),
+                direction = OfferDirection.BUY,
+                settlementMethods = mutableStateListOf(),
+                protocolVersion = BigInteger.ONE,
+                chainID = chainID,
+                havePublicKey = false,
+                isUserMaker = false,
+                state = OfferState.OFFER_OPENED
+            )
+        )
+        offerService.setOfferTruthSource(offerTruthSource)
+        offerService.hydratePendingOffers()
+
+        assertEquals(mapOf(pendingOfferID to chainID), offerTruthSource.pendingOffers.toMap())
+        assertEquals(listOf(pendingOfferID), databaseService.getPendingOffers().map { it.id })
+    }
+
+}
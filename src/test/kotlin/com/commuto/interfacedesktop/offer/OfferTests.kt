@@ -1,10 +1,17 @@
 package com.commuto.interfacedesktop.offer
 
 import androidx.compose.runtime.mutableStateListOf
+import com.commuto.interfacedesktop.blockchain.BlockchainTransaction
+import com.commuto.interfacedesktop.blockchain.BlockchainTransactionType
+import com.commuto.interfacedesktop.blockchain.TransactionHashIndex
 import com.commuto.interfacedesktop.settlement.SettlementMethod
 import kotlinx.serialization.encodeToString
 import kotlinx.serialization.json.Json
 import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
 import org.junit.Test
 import java.math.BigInteger
 import java.util.*
@@ -97,16 +104,111 @@ class OfferTests {
             method = "SWIFT",
             price = "1.00"
         )
-        offer.updateSettlementMethodsFromChain(
+        val settlementMethods = offer.settlementMethods
+        assertTrue(offer.updateSettlementMethodsFromChain(
             onChainSettlementMethods = listOf(
                 Json.encodeToString(newSettlementMethod)
                     .encodeToByteArray()
             )
-        )
+        ))
+        // The settlement methods are updated in place
+        assertSame(settlementMethods, offer.settlementMethods)
         assertEquals(offer.settlementMethods.size, 1)
         assertEquals(offer.settlementMethods[0], newSettlementMethod)
         assertEquals(offer.onChainSettlementMethods.size, 1)
         assert(offer.onChainSettlementMethods[0].contentEquals(Json.encodeToString(newSettlementMethod)
             .encodeToByteArray()))
+        // Nothing is changed if the on-chain settlement methods are the same
+        val unchangedSettlementMethod = offer.settlementMethods[0]
+        assertFalse(offer.updateSettlementMethodsFromChain(
+            onChainSettlementMethods = listOf(Json.encodeToString(newSettlementMethod).encodeToByteArray())
+        ))
+        assertSame(unchangedSettlementMethod, offer.settlementMethods[0])
+    }
+
+    /**
+     * Ensures that [Offer] adds its [BlockchainTransaction]s to and removes them from its
+     * [Offer.transactionHashIndex] as they are attached and cleared, and as the offer is attached to and detached from
+     * the index.
+     */
+    @Test
+    fun testTransactionHashIndex() {
+        val offer = Offer(
+            isCreated = true,
+            isTaken = false,
+            id = UUID.randomUUID(),
+            maker = "maker_address",
+            interfaceID = ByteArray(0),
+            stablecoin = "stablecoin_address",
+            amountLowerBound = BigInteger.ONE,
+            amountUpperBound = BigInteger.ONE,
+            securityDepositAmount = BigInteger.ONE,
+            serviceFeeRate = BigInteger.ONE,
+            direction = OfferDirection.BUY,
+            settlementMethods = mutableStateListOf(),
+            protocolVersion = BigInteger.ONE,
+            chainID = BigInteger.ONE,
+            havePublicKey = true,
+            isUserMaker = true,
+            state = OfferState.OFFER_OPENED
+        )
+        fun makeTransaction(transactionHash: String, type: BlockchainTransactionType) = BlockchainTransaction(
+            transaction = null,
+            transactionHash = transactionHash,
+            timeOfCreation = Date(),
+            latestBlockNumberAtCreation = BigInteger.ZERO,
+            type = type,
+        )
+        val index = TransactionHashIndex<Offer>()
+        offer.approvingToOpenTransaction = makeTransaction(
+            transactionHash = "0xa",
+            type = BlockchainTransactionType.APPROVE_TOKEN_TRANSFER_TO_OPEN_OFFER
+        )
+        offer.transactionHashIndex = index
+        assertEquals(offer, index["0xa", BlockchainTransactionType.APPROVE_TOKEN_TRANSFER_TO_OPEN_OFFER])
+        assertNull(index["0xa", BlockchainTransactionType.OPEN_OFFER])
+        offer.offerOpeningTransaction = makeTransaction("0xb", BlockchainTransactionType.OPEN_OFFER)
+        assertEquals(offer, index["0xb", BlockchainTransactionType.OPEN_OFFER])
+        offer.offerOpeningTransaction = makeTransaction("0xc", BlockchainTransactionType.OPEN_OFFER)
+        assertNull(index["0xb", BlockchainTransactionType.OPEN_OFFER])
+        assertEquals(offer, index["0xc", BlockchainTransactionType.OPEN_OFFER])
+        offer.transactionHashIndex = null
+        assertNull(index["0xa", BlockchainTransactionType.APPROVE_TOKEN_TRANSFER_TO_OPEN_OFFER])
+        assertNull(index["0xc", BlockchainTransactionType.OPEN_OFFER])
+    }
+
+    /**
+     * Ensures that [Offer.interaction] is not allocated until the offer is acted upon, and that reading the exceptions
+     * and transactions of an offer that has not been acted upon does not allocate it.
+     */
+    @Test
+    fun testLazyInteractionState() {
+        val offer = Offer(
+            isCreated = true,
+            isTaken = false,
+            id = UUID.randomUUID(),
+            maker = "maker_address",
+            interfaceID = ByteArray(0),
+            stablecoin = "stablecoin_address",
+            amountLowerBound = BigInteger.ONE,
+            amountUpperBound = BigInteger.ONE,
+            securityDepositAmount = BigInteger.ONE,
+            serviceFeeRate = BigInteger.ONE,
+            direction = OfferDirection.SELL,
+            settlementMethods = mutableStateListOf(),
+            protocolVersion = BigInteger.ONE,
+            chainID = BigInteger.ONE,
+            havePublicKey = true,
+            isUserMaker = false,
+            state = OfferState.OFFER_OPENED
+        )
+        offer.transactionHashIndex = TransactionHashIndex()
+        assertFalse(offer.hasInteractionState)
+        assertNull(offer.takingOfferTransaction)
+        assertNull(offer.takingOfferException)
+        assertFalse(offer.hasInteractionState)
+        offer.takingOfferState.value = TakingOfferState.VALIDATING
+        assertTrue(offer.hasInteractionState)
+        assertEquals(TakingOfferState.VALIDATING, offer.interaction.takingOfferState.value)
     }
-}
\ No newline at end of file
+}
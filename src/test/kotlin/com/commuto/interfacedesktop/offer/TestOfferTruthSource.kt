@@ -17,4 +17,11 @@ class TestOfferTruthSource: OfferTruthSource {
     override fun removeOffer(id: UUID) {
         offers.remove(id)
     }
+    val pendingOffers = mutableStateMapOf<UUID, BigInteger>()
+    override fun addPendingOffer(id: UUID, chainID: BigInteger) {
+        pendingOffers[id] = chainID
+    }
+    override fun removePendingOffer(id: UUID) {
+        pendingOffers.remove(id)
+    }
 }
\ No newline at end of file
@@ -0,0 +1,253 @@
+package com.commuto.interfacedesktop.p2p
+
+import com.commuto.interfacedesktop.key.keys.KeyPair
+import com.commuto.interfacedesktop.key.keys.SymmetricKey
+import com.commuto.interfacedesktop.p2p.create.*
+import com.commuto.interfacedesktop.p2p.parse.*
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryEncryptedMessage
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryMessageReader
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryMessageType
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryMessageWriter
+import com.commuto.interfacedesktop.p2p.serializable.messages.SerializableEncryptedMessage
+import kotlinx.serialization.decodeFromString
+import kotlinx.serialization.json.Json
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.math.BigInteger
+import java.util.*
+
+/**
+ * Tests for the binary P2P message format, [P2PMessageFormat.BINARY_V2].
+ */
+class BinaryMessageFormatTests {
+
+    /**
+     * Ensures that [BinaryMessageWriter] and [BinaryMessageReader] round-trip every field type, and that
+     * [BinaryMessageReader] rejects truncated fields.
+     */
+    @Test
+    fun testBinaryMessageWriterAndReader() {
+        val uuid = UUID.randomUUID()
+        val bytes = BinaryMessageWriter()
+            .writeByte(7)
+            .writeVarInt(300)
+            .writeUUID(uuid)
+            .writeSizedBytes(byteArrayOf(1, 2, 3))
+            .writeString("EUR/SEPA")
+            .writeBigInteger(BigInteger.valueOf(31337L))
+            .toByteArray()
+        val reader = BinaryMessageReader(bytes)
+        assertEquals(7, reader.readByte())
+        assertEquals(300, reader.readVarInt())
+        assertEquals(uuid, reader.readUUID())
+        assert(byteArrayOf(1, 2, 3).contentEquals(reader.readSizedBytes()))
+        assertEquals("EUR/SEPA", reader.readString())
+        assertEquals(BigInteger.valueOf(31337L), reader.readBigInteger())
+        reader.requireFullyRead()
+
+        val truncatedReader = BinaryMessageReader(byteArrayOf(5, 1, 2))
+        try {
+            truncatedReader.readSizedBytes()
+            throw AssertionError("Expected truncated field to be rejected")
+        } catch (e: IllegalArgumentException) { }
+    }
+
+    /**
+     * Ensures that Public Key Announcements and Public Key Announcements as users for disputes are created and parsed
+     * properly in the binary format, and that a binary Public Key Announcement is not mistaken for another message type.
+     */
+    @Test
+    fun testBinaryPublicKeyAnnouncements() {
+        val keyPair = KeyPair()
+        val offerID = UUID.randomUUID()
+        val pkaString = createPublicKeyAnnouncement(offerID, keyPair, P2PMessageFormat.BINARY_V2)
+        val pka = parsePublicKeyAnnouncement(pkaString)
+        assertEquals(offerID, pka!!.id)
+        assert(keyPair.interfaceId.contentEquals(pka.publicKey.interfaceId))
+        assertNull(parsePublicKeyAnnouncementAsUserForDispute(pkaString))
+
+        val swapID = UUID.randomUUID()
+        val disputePkaString = createPublicKeyAnnouncementAsUserForDispute(
+            id = swapID.toString(),
+            chainID = "31337",
+            keyPair = keyPair,
+            format = P2PMessageFormat.BINARY_V2,
+        )
+        val disputePka = parsePublicKeyAnnouncementAsUserForDispute(disputePkaString)
+        assertEquals(swapID, disputePka!!.id)
+        assertEquals(BigInteger.valueOf(31337L), disputePka.chainID)
+        assert(keyPair.interfaceId.contentEquals(disputePka.publicKey.interfaceId))
+        assertNull(parsePublicKeyAnnouncement(disputePkaString))
+    }
+
+    /**
+     * Ensures that Taker Information Messages, Maker Information Messages and Communication Key Messages are created
+     * and parsed properly in the binary format, and that messages with tampered payloads are rejected.
+     */
+    @Test
+    fun testBinaryEncryptedMessages() {
+        val makerKeyPair = KeyPair()
+        val takerKeyPair = KeyPair()
+        val swapID = UUID.randomUUID()
+
+        val takerInformationMessage = parseTakerInformationMessage(
+            message = BinaryEncryptedMessage.decode(createTakerInformationMessage(
+                makerPublicKey = makerKeyPair.getPublicKey(),
+                takerKeyPair = takerKeyPair,
+                swapID = swapID,
+                settlementMethodDetails = "taker_details",
+                format = P2PMessageFormat.BINARY_V2,
+            )),
+            keyPair = makerKeyPair,
+        )
+        assertEquals(swapID, takerInformationMessage!!.swapID)
+        assert(takerKeyPair.interfaceId.contentEquals(takerInformationMessage.publicKey.interfaceId))
+        assertEquals("taker_details", takerInformationMessage.settlementMethodDetails)
+
+        val makerInformationMessageString = createMakerInformationMessage(
+            takerPublicKey = takerKeyPair.getPublicKey(),
+            makerKeyPair = makerKeyPair,
+            swapID = swapID,
+            settlementMethodDetails = null,
+            format = P2PMessageFormat.BINARY_V2,
+        )
+        val makerInformationMessage = parseMakerInformationMessage(
+            message = BinaryEncryptedMessage.decode(makerInformationMessageString),
+            keyPair = takerKeyPair,
+            publicKey = makerKeyPair.getPublicKey(),
+        )
+        assertEquals(swapID, makerInformationMessage!!.swapID)
+        assertNull(makerInformationMessage.settlementMethodDetails)
+
+        // A message with a tampered payload must fail signature verification
+        val originalMessage = BinaryEncryptedMessage.decode(makerInformationMessageString)!!
+        val tamperedMessage = BinaryEncryptedMessage(
+            sender = originalMessage.sender,
+            recipient = originalMessage.recipient,
+            messageType = originalMessage.messageType,
+            encryptedKey = originalMessage.encryptedKey,
+            encryptedIV = originalMessage.encryptedIV,
+            payload = originalMessage.payload.copyOf().also { it[0] = (it[0] + 1).toByte() },
+            signature = originalMessage.signature,
+        )
+        assertNull(parseMakerInformationMessage(tamperedMessage, takerKeyPair, makerKeyPair.getPublicKey()))
+
+        val communicationKey = SymmetricKey()
+        val communicationKeyMessage = parseCommunicationKeyMessage(
+            message = BinaryEncryptedMessage.decode(createCommunicationKeyMessage(
+                messageType = "TCKAnnouncement",
+                id = swapID.toString(),
+                chainID = "31337",
+                key = Base64.getEncoder().encodeToString(communicationKey.keyBytes),
+                recipientPublicKey = takerKeyPair.getPublicKey(),
+                senderKeyPair = makerKeyPair,
+                format = P2PMessageFormat.BINARY_V2,
+            )),
+            senderPublicKey = makerKeyPair.getPublicKey(),
+            recipientKeyPair = takerKeyPair,
+        )
+        assertEquals("TCKAnnouncement", communicationKeyMessage!!.messageType)
+        assertEquals(swapID, communicationKeyMessage.swapID)
+        assertEquals(BigInteger.valueOf(31337L), communicationKeyMessage.chainID)
+        assert(communicationKey.keyBytes.contentEquals(communicationKeyMessage.key.keyBytes))
+    }
+
+    /**
+     * Ensures that single-wrap encrypted messages are created and parsed properly, that they contain a single wrapped
+     * key block, and that they cannot be parsed if their sender field has been altered.
+     */
+    @Test
+    fun testSingleWrapEncryptedMessages() {
+        val makerKeyPair = KeyPair()
+        val takerKeyPair = KeyPair()
+        val swapID = UUID.randomUUID()
+
+        val takerInformationMessageString = createTakerInformationMessage(
+            makerPublicKey = makerKeyPair.getPublicKey(),
+            takerKeyPair = takerKeyPair,
+            swapID = swapID,
+            settlementMethodDetails = "taker_details",
+            format = P2PMessageFormat.BINARY_V2_SINGLE_WRAP,
+        )
+        val binaryMessage = BinaryEncryptedMessage.decode(takerInformationMessageString)!!
+        assertEquals(BinaryMessageType.SINGLE_WRAP_ENCRYPTED, binaryMessage.messageType)
+        assertNull(binaryMessage.encryptedIV)
+        val takerInformationMessage = parseTakerInformationMessage(binaryMessage, makerKeyPair)
+        assertEquals(swapID, takerInformationMessage!!.swapID)
+        assertEquals("taker_details", takerInformationMessage.settlementMethodDetails)
+
+        // The sender and recipient are authenticated as associated data, so altering them must prevent decryption
+        val reroutedMessage = BinaryEncryptedMessage(
+            messageType = binaryMessage.messageType,
+            sender = KeyPair().interfaceId,
+            recipient = binaryMessage.recipient,
+            encryptedKey = binaryMessage.encryptedKey,
+            encryptedIV = null,
+            payload = binaryMessage.payload,
+            signature = binaryMessage.signature,
+        )
+        assertNull(parseTakerInformationMessage(reroutedMessage, makerKeyPair))
+
+        val makerInformationMessage = parseMakerInformationMessage(
+            message = BinaryEncryptedMessage.decode(createMakerInformationMessage(
+                takerPublicKey = takerKeyPair.getPublicKey(),
+                makerKeyPair = makerKeyPair,
+                swapID = swapID,
+                settlementMethodDetails = "maker_details",
+                format = P2PMessageFormat.BINARY_V2_SINGLE_WRAP,
+            )),
+            keyPair = takerKeyPair,
+            publicKey = makerKeyPair.getPublicKey(),
+        )
+        assertEquals("maker_details", makerInformationMessage!!.settlementMethodDetails)
+    }
+
+    /**
+     * Ensures that JSON messages are never mistaken for binary messages, so that messages created by older interfaces
+     * still parse.
+     */
+    @Test
+    fun testJSONMessagesStillParse() {
+        val makerKeyPair = KeyPair()
+        val takerKeyPair = KeyPair()
+        val swapID = UUID.randomUUID()
+        val jsonMessageString = createTakerInformationMessage(
+            makerPublicKey = makerKeyPair.getPublicKey(),
+            takerKeyPair = takerKeyPair,
+            swapID = swapID,
+            settlementMethodDetails = "taker_details",
+        )
+        assertNull(BinaryEncryptedMessage.decode(jsonMessageString))
+        val takerInformationMessage = parseTakerInformationMessage(
+            message = Json.decodeFromString<SerializableEncryptedMessage>(jsonMessageString),
+            keyPair = makerKeyPair,
+        )
+        assertEquals(swapID, takerInformationMessage!!.swapID)
+
+        val offerID = UUID.randomUUID()
+        assertEquals(offerID, parsePublicKeyAnnouncement(createPublicKeyAnnouncement(offerID, makerKeyPair))!!.id)
+    }
+
+    /**
+     * Ensures that messages in the binary format are smaller than the same messages in the JSON format.
+     */
+    @Test
+    fun testMessageFormatSizeComparison() {
+        val makerKeyPair = KeyPair()
+        val takerKeyPair = KeyPair()
+        val swapID = UUID.randomUUID()
+        val offerID = UUID.randomUUID()
+        assertTrue(createPublicKeyAnnouncement(offerID, makerKeyPair, P2PMessageFormat.BINARY_V2).length <
+                createPublicKeyAnnouncement(offerID, makerKeyPair, P2PMessageFormat.JSON).length)
+        assertTrue(
+            createMakerInformationMessage(
+                takerKeyPair.getPublicKey(), makerKeyPair, swapID, "details", P2PMessageFormat.BINARY_V2
+            ).length < createMakerInformationMessage(
+                takerKeyPair.getPublicKey(), makerKeyPair, swapID, "details", P2PMessageFormat.JSON
+            ).length
+        )
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.commuto.interfacedesktop.p2p
+
+import io.ktor.http.*
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.async
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.withTimeout
+import net.folivo.trixnity.core.ErrorResponse
+import net.folivo.trixnity.core.MatrixServerException
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.util.*
+
+/**
+ * Tests for [P2PMessageQueue].
+ */
+class P2PMessageQueueTests {
+
+    /**
+     * Ensures that [P2PMessageQueue] retries a message that was rejected with an `M_LIMIT_EXCEEDED` error, using the
+     * same transaction ID.
+     */
+    @Test
+    fun testRetryAfterRateLimit() = runBlocking {
+        val transactionIDs = Collections.synchronizedList(mutableListOf<String>())
+        val queue = P2PMessageQueue(
+            sendMessageEvent = { _, transactionID ->
+                transactionIDs.add(transactionID)
+                if (transactionIDs.size == 1) {
+                    throw MatrixServerException(
+                        HttpStatusCode.TooManyRequests,
+                        ErrorResponse.LimitExceeded("M_LIMIT_EXCEEDED", 50L)
+                    )
+                }
+            }
+        )
+        val transactionID = queue.enqueue(message = "message", priority = P2PMessagePriority.NORMAL)
+        withTimeout(10_000) {
+            while (queue.getStatus(transactionID) != P2PMessageSendStatus.SENT) {
+                delay(10L)
+            }
+        }
+        assertEquals(listOf(transactionID, transactionID), transactionIDs.toList())
+    }
+
+    /**
+     * Ensures that [P2PMessageQueue] retries a message whose send attempt timed out, and keeps sending messages
+     * afterward.
+     */
+    @Test
+    fun testRetryAfterTimeout() = runBlocking {
+        var attempts = 0
+        val queue = P2PMessageQueue(
+            sendMessageEvent = { _, _ ->
+                attempts++
+                if (attempts == 1) {
+                    withTimeout(1L) {
+                        delay(1_000L)
+                    }
+                }
+            }
+        )
+        withTimeout(10_000) {
+            queue.send(message = "first", priority = P2PMessagePriority.HIGH)
+            queue.send(message = "second", priority = P2PMessagePriority.HIGH)
+        }
+        assertEquals(3, attempts)
+    }
+
+    /**
+     * Ensures that [P2PMessageQueue] sends messages of higher priority first and coalesces identical queued messages.
+     */
+    @Test
+    fun testPriorityAndCoalescing() = runBlocking {
+        val firstMessageGate = CompletableDeferred<Unit>()
+        val firstMessageSending = CompletableDeferred<Unit>()
+        val sentMessages = Collections.synchronizedList(mutableListOf<String>())
+        val queue = P2PMessageQueue(
+            sendMessageEvent = { message, _ ->
+                if (message == "first") {
+                    firstMessageSending.complete(Unit)
+                    firstMessageGate.await()
+                }
+                sentMessages.add(message)
+            }
+        )
+        val firstSend = async { queue.send(message = "first", priority = P2PMessagePriority.NORMAL) }
+        withTimeout(10_000) {
+            firstMessageSending.await()
+        }
+        // These are queued while "first" is being sent
+        val announcementTransactionID = queue.enqueue(message = "announcement", priority = P2PMessagePriority.NORMAL)
+        val duplicateTransactionID = queue.enqueue(message = "announcement", priority = P2PMessagePriority.NORMAL)
+        assertEquals(announcementTransactionID, duplicateTransactionID)
+        assertEquals(P2PMessageSendStatus.QUEUED, queue.getStatus(announcementTransactionID))
+        val swapMessageTransactionID = queue.enqueue(message = "swapMessage", priority = P2PMessagePriority.HIGH)
+        firstMessageGate.complete(Unit)
+        withTimeout(10_000) {
+            firstSend.await()
+            while (queue.getStatus(announcementTransactionID) != P2PMessageSendStatus.SENT) {
+                delay(10L)
+            }
+        }
+        assertEquals(P2PMessageSendStatus.SENT, queue.getStatus(swapMessageTransactionID))
+        assertEquals(listOf("first", "swapMessage", "announcement"), sentMessages.toList())
+    }
+
+    /**
+     * Ensures that [P2PMessageQueue] does not retry a message that failed with an error that is not caused by rate
+     * limiting or connection problems, and that [P2PMessageQueue.send] throws that error.
+     */
+    @Test
+    fun testNonRetryableFailure() = runBlocking {
+        var attempts = 0
+        val queue = P2PMessageQueue(
+            sendMessageEvent = { _, _ ->
+                attempts++
+                throw IllegalStateException("Not retryable")
+            }
+        )
+        val exception = try {
+            withTimeout(10_000) {
+                queue.send(message = "message", priority = P2PMessagePriority.HIGH)
+            }
+            null
+        } catch (exception: IllegalStateException) {
+            exception
+        }
+        assertTrue(exception != null)
+        assertEquals(1, attempts)
+    }
+
+}
@@ -7,6 +7,7 @@ import com.commuto.interfacedesktop.key.keys.KeyPair
 import com.commuto.interfacedesktop.key.keys.PublicKey
 import com.commuto.interfacedesktop.key.keys.SymmetricKey
 import com.commuto.interfacedesktop.p2p.create.createMakerInformationMessage
+import com.commuto.interfacedesktop.p2p.create.createPublicKeyAnnouncement
 import com.commuto.interfacedesktop.p2p.create.createPublicKeyAnnouncementAsUserForDispute
 import com.commuto.interfacedesktop.p2p.create.createTakerInformationMessage
 import com.commuto.interfacedesktop.p2p.messages.MakerInformationMessage
@@ -14,6 +15,8 @@ import com.commuto.interfacedesktop.p2p.messages.PublicKeyAnnouncement
 import com.commuto.interfacedesktop.p2p.messages.PublicKeyAnnouncementAsUserForDispute
 import com.commuto.interfacedesktop.p2p.messages.TakerInformationMessage
 import com.commuto.interfacedesktop.p2p.parse.*
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryEncryptedMessage
+import com.commuto.interfacedesktop.p2p.serializable.binary.BinaryMessageType
 import com.commuto.interfacedesktop.p2p.serializable.messages.SerializableEncryptedMessage
 import com.commuto.interfacedesktop.p2p.serializable.messages.SerializablePublicKeyAnnouncementMessage
 import com.commuto.interfacedesktop.p2p.serializable.payloads.SerializablePublicKeyAnnouncementPayload
@@ -242,7 +245,7 @@ class P2PServiceTest {
             keyManagerService
         ) {
             var receivedMessage: String? = null
-            override suspend fun sendMessage(message: String) {
+            override suspend fun sendMessage(message: String, priority: P2PMessagePriority) {
                 receivedMessage = message
             }
         }
@@ -295,7 +298,7 @@ class P2PServiceTest {
             keyManagerService
         ) {
             var receivedMessage: String? = null
-            override suspend fun sendMessage(message: String) {
+            override suspend fun sendMessage(message: String, priority: P2PMessagePriority) {
                 receivedMessage = message
             }
         }
@@ -432,7 +435,7 @@ class P2PServiceTest {
             keyManagerService
         ) {
             var receivedMessage: String? = null
-            override suspend fun sendMessage(message: String) {
+            override suspend fun sendMessage(message: String, priority: P2PMessagePriority) {
                 receivedMessage = message
             }
         }
@@ -574,7 +577,7 @@ class P2PServiceTest {
             keyManagerService
         ) {
             var receivedMessage: String? = null
-            override suspend fun sendMessage(message: String) {
+            override suspend fun sendMessage(message: String, priority: P2PMessagePriority) {
                 receivedMessage = message
             }
         }
@@ -667,6 +670,71 @@ class P2PServiceTest {
 
     }
 
+    /**
+     * Ensure that [P2PService.parseEvents] handles each Public Key Announcement only once, both when the same event is
+     * received again and when an identical announcement is received in a different event.
+     */
+    @Test
+    fun testParseDuplicatePublicKeyAnnouncements() = runBlocking {
+        val databaseService = DatabaseService(DatabaseDriverFactory())
+        databaseService.createTables()
+        val keyManagerService = KeyManagerService(databaseService)
+
+        val offerID = UUID.randomUUID()
+        val keyPair = KeyPair()
+        val pkaMessageString = createPublicKeyAnnouncement(
+            offerID = offerID,
+            keyPair = keyPair,
+        )
+
+        fun createMessageEvent(eventID: String) = Event.MessageEvent(
+            content = RoomMessageEventContent.TextMessageEventContent(body = pkaMessageString),
+            id = EventId(full = eventID),
+            sender = UserId(full = ""),
+            roomId = RoomId(full = ""),
+            originTimestamp = 0L,
+        )
+
+        val mxClient = MatrixClientServerApiClient(
+            baseUrl = Url("https://matrix.org"),
+            httpClientFactory = {
+                HttpClient(it).config {
+                    install(HttpTimeout) {
+                        socketTimeoutMillis = 60_000
+                    }
+                }
+            }
+        ).apply { accessToken.value = System.getenv("MXKY") }
+
+        class TestOfferService : OfferMessageNotifiable {
+            var handledAnnouncementsCount = 0
+            override suspend fun handlePublicKeyAnnouncement(message: PublicKeyAnnouncement) {
+                if (message.id == offerID) {
+                    handledAnnouncementsCount++
+                }
+            }
+        }
+        val offerService = TestOfferService()
+
+        val p2pService = P2PService(
+            exceptionHandler = TestP2PExceptionHandler(),
+            offerService = offerService,
+            swapService = TestSwapMessageNotifiable(),
+            disputeService = TestDisputeMessageNotifiable(),
+            mxClient,
+            keyManagerService
+        )
+        // The first event is handled
+        p2pService.parseEvents(events = listOf(createMessageEvent(eventID = "\$first")))
+        assertEquals(1, offerService.handledAnnouncementsCount)
+        // The same event, received again after a reconnect, is skipped
+        p2pService.parseEvents(events = listOf(createMessageEvent(eventID = "\$first")))
+        assertEquals(1, offerService.handledAnnouncementsCount)
+        // An identical announcement in a different event is dropped
+        p2pService.parseEvents(events = listOf(createMessageEvent(eventID = "\$second")))
+        assertEquals(1, offerService.handledAnnouncementsCount)
+    }
+
     /**
      * Ensures that [P2PService.sendCommunicationKey] functions properly.
      */
@@ -697,7 +765,7 @@ class P2PServiceTest {
             keyManagerService
         ) {
             var receivedMessage: String? = null
-            override suspend fun sendMessage(message: String) {
+            override suspend fun sendMessage(message: String, priority: P2PMessagePriority) {
                 receivedMessage = message
             }
         }
@@ -734,4 +802,78 @@ class P2PServiceTest {
 
     }
 
+    /**
+     * Ensures that a maker and a taker whose [P2PService]s are created with the same default message format as those
+     * created by Dagger exchange single-wrap encrypted Taker and Maker Information Messages, because the maker
+     * advertises that it can parse them in its Public Key Announcement.
+     */
+    @Test
+    fun testSingleWrapNegotiationWithInjectedDefaults() = runBlocking {
+        // P2PServices created with the same constructor as that used by Dagger, which send no messages
+        class TestP2PService(keyManagerService: KeyManagerService) : P2PService(
+            TestP2PExceptionHandler(),
+            TestOfferMessageNotifiable(),
+            TestSwapMessageNotifiable(),
+            TestDisputeMessageNotifiable(),
+            keyManagerService,
+        ) {
+            var receivedMessage: String? = null
+            override suspend fun sendMessage(message: String, priority: P2PMessagePriority) {
+                receivedMessage = message
+            }
+        }
+        fun createMessageEvent(eventID: String, body: String) = Event.MessageEvent(
+            content = RoomMessageEventContent.TextMessageEventContent(body = body),
+            id = EventId(full = eventID),
+            sender = UserId(full = ""),
+            roomId = RoomId(full = ""),
+            originTimestamp = 0L,
+        )
+
+        val makerDatabaseService = DatabaseService(DatabaseDriverFactory())
+        makerDatabaseService.createTables()
+        val makerKeyManagerService = KeyManagerService(makerDatabaseService)
+        val makerKeyPair = makerKeyManagerService.generateKeyPair(storeResult = true)
+        val makerP2PService = TestP2PService(makerKeyManagerService)
+
+        val takerDatabaseService = DatabaseService(DatabaseDriverFactory())
+        takerDatabaseService.createTables()
+        val takerKeyManagerService = KeyManagerService(takerDatabaseService)
+        val takerKeyPair = takerKeyManagerService.generateKeyPair(storeResult = true)
+        takerKeyManagerService.storePublicKey(makerKeyPair.getPublicKey())
+        val takerP2PService = TestP2PService(takerKeyManagerService)
+
+        val swapID = UUID.randomUUID()
+
+        // The taker receives the maker's Public Key Announcement
+        makerP2PService.announcePublicKey(offerID = swapID, keyPair = makerKeyPair)
+        takerP2PService.parseEvents(events = listOf(createMessageEvent("\$pka", makerP2PService.receivedMessage!!)))
+
+        // The taker sends a single-wrap encrypted Taker Information Message, and the maker receives it
+        takerP2PService.sendTakerInformation(
+            makerPublicKey = makerKeyPair.getPublicKey(),
+            takerKeyPair = takerKeyPair,
+            swapID = swapID,
+            settlementMethodDetails = "taker_settlement_method_details",
+        )
+        val takerInformationMessageString = takerP2PService.receivedMessage!!
+        assertEquals(
+            BinaryMessageType.SINGLE_WRAP_ENCRYPTED,
+            BinaryEncryptedMessage.decode(takerInformationMessageString)?.messageType
+        )
+        makerP2PService.parseEvents(events = listOf(createMessageEvent("\$tim", takerInformationMessageString)))
+
+        // The maker replies with a single-wrap encrypted Maker Information Message
+        makerP2PService.sendMakerInformation(
+            takerPublicKey = takerKeyPair.getPublicKey(),
+            makerKeyPair = makerKeyPair,
+            swapID = swapID,
+            settlementMethodDetails = "maker_settlement_method_details",
+        )
+        assertEquals(
+            BinaryMessageType.SINGLE_WRAP_ENCRYPTED,
+            BinaryEncryptedMessage.decode(makerP2PService.receivedMessage!!)?.messageType
+        )
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.commuto.interfacedesktop.settlement
+
+import androidx.compose.runtime.mutableStateListOf
+import com.commuto.interfacedesktop.offer.Offer
+import com.commuto.interfacedesktop.offer.OfferState
+import kotlinx.serialization.encodeToString
+import kotlinx.serialization.json.Json
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Test
+import java.math.BigDecimal
+import java.math.BigInteger
+import java.util.*
+
+/**
+ * Tests for [SettlementMethodInterner]
+ */
+class SettlementMethodInternerTests {
+
+    /**
+     * Creates an [Offer] from on-chain data with the specified serialized settlement methods.
+     */
+    private fun makeOffer(onChainSettlementMethods: List<ByteArray>): Offer {
+        return Offer.fromOnChainData(
+            isCreated = true,
+            isTaken = false,
+            id = UUID.randomUUID(),
+            maker = "maker_address",
+            interfaceId = ByteArray(0),
+            stablecoin = "stablecoin_address",
+            amountLowerBound = BigInteger.ONE,
+            amountUpperBound = BigInteger.ONE,
+            securityDepositAmount = BigInteger.ONE,
+            serviceFeeRate = BigInteger.ONE,
+            onChainDirection = BigInteger.ZERO,
+            onChainSettlementMethods = onChainSettlementMethods,
+            protocolVersion = BigInteger.ONE,
+            chainID = BigInteger.ONE,
+            havePublicKey = true,
+            isUserMaker = false,
+            state = OfferState.OFFER_OPENED,
+        )
+    }
+
+    /**
+     * Ensures that offers created from identical on-chain settlement methods share the same decoded [SettlementMethod]
+     * and on-chain bytes, that undecodable settlement methods are skipped, and that prices are parsed.
+     */
+    @Test
+    fun testInternSettlementMethods() {
+        val onChainSettlementMethod = {
+            Json.encodeToString(SettlementMethod(currency = "EUR", method = "SEPA", price = "0.98"))
+                .encodeToByteArray()
+        }
+        val firstOffer = makeOffer(listOf(onChainSettlementMethod(), "not_json".encodeToByteArray()))
+        val secondOffer = makeOffer(listOf(onChainSettlementMethod()))
+        assertEquals(1, firstOffer.settlementMethods.size)
+        assertEquals(1, firstOffer.onChainSettlementMethods.size)
+        assertSame(firstOffer.settlementMethods[0], secondOffer.settlementMethods[0])
+        assertSame(firstOffer.onChainSettlementMethods[0], secondOffer.onChainSettlementMethods[0])
+        assertEquals(0, BigDecimal("0.98").compareTo(firstOffer.settlementMethods[0].numericPrice))
+
+        val nonNumericSettlementMethod = SettlementMethod(currency = "USD", method = "SWIFT", price = "not_a_price")
+        assertNull(nonNumericSettlementMethod.numericPrice)
+        nonNumericSettlementMethod.price = "1.01"
+        assertEquals(0, BigDecimal("1.01").compareTo(nonNumericSettlementMethod.numericPrice))
+
+        val userOffer = Offer(
+            isCreated = true,
+            isTaken = false,
+            id = UUID.randomUUID(),
+            maker = "maker_address",
+            interfaceID = ByteArray(0),
+            stablecoin = "stablecoin_address",
+            amountLowerBound = BigInteger.ONE,
+            amountUpperBound = BigInteger.ONE,
+            securityDepositAmount = BigInteger.ONE,
+            serviceFeeRate = BigInteger.ONE,
+            direction = firstOffer.direction,
+            settlementMethods = mutableStateListOf(
+                SettlementMethodInterner.intern(onChainSettlementMethod()).second.copy(privateData = "private_data")
+            ),
+            protocolVersion = BigInteger.ONE,
+            chainID = BigInteger.ONE,
+            havePublicKey = true,
+            isUserMaker = true,
+            state = OfferState.OFFER_OPENED,
+        )
+        // Attaching private data must not modify the shared settlement method
+        assertNull(firstOffer.settlementMethods[0].privateData)
+        assertEquals("private_data", userOffer.settlementMethods[0].privateData)
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.commuto.interfacedesktop.swap
+
+import kotlinx.coroutines.*
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.util.*
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Tests for [SwapActors].
+ */
+class SwapActorsTests {
+
+    /**
+     * Ensures that work submitted for a single swap runs one piece at a time, in the order in which it was submitted.
+     */
+    @Test
+    fun testWorkForSameSwapIsSerialized() = runBlocking {
+        val swapActors = SwapActors()
+        val swapID = UUID.randomUUID()
+        val running = AtomicInteger(0)
+        var maxRunning = 0
+        val order = Collections.synchronizedList(mutableListOf<Int>())
+        (0 until 20).map { index ->
+            // Undispatched, so that each piece of work is submitted before the next coroutine starts
+            launch(start = CoroutineStart.UNDISPATCHED) {
+                swapActors.process(swapID) {
+                    maxRunning = maxOf(maxRunning, running.incrementAndGet())
+                    delay(5L)
+                    order.add(index)
+                    running.decrementAndGet()
+                }
+            }
+        }.joinAll()
+        assertEquals(1, maxRunning)
+        assertEquals((0 until 20).toList(), order)
+    }
+
+    /**
+     * Ensures that work submitted for different swaps runs concurrently.
+     */
+    @Test
+    fun testWorkForDifferentSwapsRunsConcurrently() = runBlocking {
+        val swapActors = SwapActors()
+        val firstStarted = CompletableDeferred<Unit>()
+        val secondStarted = CompletableDeferred<Unit>()
+        withTimeout(5_000L) {
+            listOf(
+                async { swapActors.process(UUID.randomUUID()) { firstStarted.complete(Unit); secondStarted.await() } },
+                async { swapActors.process(UUID.randomUUID()) { secondStarted.complete(Unit); firstStarted.await() } },
+            ).awaitAll()
+        }
+        Unit
+    }
+
+    /**
+     * Ensures that values and exceptions are returned to the caller, that work submitted from within work on the same
+     * swap runs immediately, and that a swap's actor keeps running work after a piece of work throws.
+     */
+    @Test
+    fun testResultsExceptionsAndReentrancy() = runBlocking {
+        val swapActors = SwapActors()
+        val swapID = UUID.randomUUID()
+        val result = withTimeout(5_000L) {
+            swapActors.process(swapID) {
+                swapActors.process(swapID) { 21 } * 2
+            }
+        }
+        assertEquals(42, result)
+        var caughtException: Exception? = null
+        try {
+            swapActors.process<Unit>(swapID) { throw SwapServiceException("test") }
+        } catch (exception: SwapServiceException) {
+            caughtException = exception
+        }
+        assertTrue(caughtException is SwapServiceException)
+        assertEquals("after", swapActors.process(swapID) { "after" })
+    }
+
+    /**
+     * Ensures that work runs on the dispatcher of the coroutine that submitted it, and that submitting work for a
+     * different swap from within work on a swap's actor fails rather than waiting.
+     */
+    @Test
+    fun testCallerDispatcherAndCrossSwapSubmission() = runBlocking {
+        val swapActors = SwapActors()
+        val callerThread = Thread.currentThread()
+        assertEquals(callerThread, swapActors.process(UUID.randomUUID()) { Thread.currentThread() })
+        var caughtException: Exception? = null
+        withTimeout(5_000L) {
+            swapActors.process(UUID.randomUUID()) {
+                try {
+                    swapActors.process(UUID.randomUUID()) { }
+                } catch (exception: IllegalStateException) {
+                    caughtException = exception
+                }
+            }
+        }
+        assertTrue(caughtException is IllegalStateException)
+    }
+
+}
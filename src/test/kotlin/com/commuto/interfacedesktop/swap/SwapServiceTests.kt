@@ -10,7 +10,6 @@ import com.commuto.interfacedesktop.database.DatabaseService
 import com.commuto.interfacedesktop.database.DatabaseDriverFactory
 import com.commuto.interfacedesktop.dispute.TestDisputeService
 import com.commuto.interfacedesktop.db.Swap as DatabaseSwap
-import com.commuto.interfacedesktop.extension.asByteArray
 import com.commuto.interfacedesktop.key.KeyManagerService
 import com.commuto.interfacedesktop.key.keys.KeyPair
 import com.commuto.interfacedesktop.key.keys.PublicKey
@@ -111,7 +110,7 @@ class SwapServiceTests {
         swapTruthSource.swaps[swapID] = swap
         val encoder = Base64.getEncoder()
         val swapForDatabase = DatabaseSwap(
-            id = encoder.encodeToString(swapID.asByteArray()),
+            id = swapID,
             isCreated = 1L,
             requiresFill = 1L,
             maker = swap.maker,
@@ -119,25 +118,23 @@ class SwapServiceTests {
             taker = swap.taker,
             takerInterfaceID = encoder.encodeToString(swap.takerInterfaceID),
             stablecoin = swap.stablecoin,
-            amountLowerBound = swap.amountLowerBound.toString(),
-            amountUpperBound = swap.amountUpperBound.toString(),
-            securityDepositAmount = swap.securityDepositAmount.toString(),
-            takenSwapAmount = swap.takenSwapAmount.toString(),
-            serviceFeeAmount = swap.serviceFeeAmount.toString(),
-            serviceFeeRate = swap.serviceFeeRate.toString(),
+            amountLowerBound = swap.amountLowerBound,
+            amountUpperBound = swap.amountUpperBound,
+            securityDepositAmount = swap.securityDepositAmount,
+            takenSwapAmount = swap.takenSwapAmount,
+            serviceFeeAmount = swap.serviceFeeAmount,
+            serviceFeeRate = swap.serviceFeeRate,
             onChainDirection = swap.onChainDirection.toString(),
             settlementMethod = encoder.encodeToString(swap.onChainSettlementMethod),
             makerPrivateData = null,
-            makerPrivateDataInitializationVector = null,
             takerPrivateData = null,
-            takerPrivateDataInitializationVector = null,
             protocolVersion = swap.protocolVersion.toString(),
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = swap.onChainDisputeRaiser.toString(),
-            chainID = swap.chainID.toString(),
+            chainID = swap.chainID,
             state = swap.state.value.asString,
             role = swap.role.asString,
             approveToFillState = swap.approvingToFillState.value.asString,
@@ -181,7 +178,7 @@ class SwapServiceTests {
 
         assertEquals(TokenTransferApprovalState.EXCEPTION, swap.approvingToFillState.value)
         assertNotNull(swap.approvingToFillException)
-        val swapInDatabase = databaseService.getSwap(id = encoder.encodeToString(swapID.asByteArray()))
+        val swapInDatabase = databaseService.getSwap(id = swapID)
         assertEquals(TokenTransferApprovalState.EXCEPTION.asString, swapInDatabase!!.approveToFillState)
     }
 
@@ -243,7 +240,7 @@ class SwapServiceTests {
         swapTruthSource.swaps[swapID] = swap
         val encoder = Base64.getEncoder()
         val swapForDatabase = DatabaseSwap(
-            id = encoder.encodeToString(swapID.asByteArray()),
+            id = swapID,
             isCreated = 1L,
             requiresFill = 1L,
             maker = swap.maker,
@@ -251,25 +248,23 @@ class SwapServiceTests {
             taker = swap.taker,
             takerInterfaceID = encoder.encodeToString(swap.takerInterfaceID),
             stablecoin = swap.stablecoin,
-            amountLowerBound = swap.amountLowerBound.toString(),
-            amountUpperBound = swap.amountUpperBound.toString(),
-            securityDepositAmount = swap.securityDepositAmount.toString(),
-            takenSwapAmount = swap.takenSwapAmount.toString(),
-            serviceFeeAmount = swap.serviceFeeAmount.toString(),
-            serviceFeeRate = swap.serviceFeeRate.toString(),
+            amountLowerBound = swap.amountLowerBound,
+            amountUpperBound = swap.amountUpperBound,
+            securityDepositAmount = swap.securityDepositAmount,
+            takenSwapAmount = swap.takenSwapAmount,
+            serviceFeeAmount = swap.serviceFeeAmount,
+            serviceFeeRate = swap.serviceFeeRate,
             onChainDirection = swap.onChainDirection.toString(),
             settlementMethod = encoder.encodeToString(swap.onChainSettlementMethod),
             makerPrivateData = null,
-            makerPrivateDataInitializationVector = null,
             takerPrivateData = null,
-            takerPrivateDataInitializationVector = null,
             protocolVersion = swap.protocolVersion.toString(),
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = swap.onChainDisputeRaiser.toString(),
-            chainID = swap.chainID.toString(),
+            chainID = swap.chainID,
             state = swap.state.value.asString,
             role = swap.role.asString,
             approveToFillState = swap.approvingToFillState.value.asString,
@@ -314,7 +309,7 @@ class SwapServiceTests {
         assertEquals(SwapState.AWAITING_FILLING, swap.state.value)
         assertEquals(FillingSwapState.EXCEPTION, swap.fillingSwapState.value)
         assertNotNull(swap.fillingSwapException)
-        val swapInDatabase = databaseService.getSwap(id = encoder.encodeToString(swapID.asByteArray()))
+        val swapInDatabase = databaseService.getSwap(id = swapID)
         assertEquals(SwapState.AWAITING_FILLING.asString, swapInDatabase!!.state)
         assertEquals(FillingSwapState.EXCEPTION.asString, swapInDatabase.fillingSwapState)
 
@@ -377,7 +372,7 @@ class SwapServiceTests {
         swapTruthSource.swaps[swapID] = swap
         val encoder = Base64.getEncoder()
         val swapForDatabase = DatabaseSwap(
-            id = encoder.encodeToString(swapID.asByteArray()),
+            id = swapID,
             isCreated = 1L,
             requiresFill = 1L,
             maker = swap.maker,
@@ -385,25 +380,23 @@ class SwapServiceTests {
             taker = swap.taker,
             takerInterfaceID = encoder.encodeToString(swap.takerInterfaceID),
             stablecoin = swap.stablecoin,
-            amountLowerBound = swap.amountLowerBound.toString(),
-            amountUpperBound = swap.amountUpperBound.toString(),
-            securityDepositAmount = swap.securityDepositAmount.toString(),
-            takenSwapAmount = swap.takenSwapAmount.toString(),
-            serviceFeeAmount = swap.serviceFeeAmount.toString(),
-            serviceFeeRate = swap.serviceFeeRate.toString(),
+            amountLowerBound = swap.amountLowerBound,
+            amountUpperBound = swap.amountUpperBound,
+            securityDepositAmount = swap.securityDepositAmount,
+            takenSwapAmount = swap.takenSwapAmount,
+            serviceFeeAmount = swap.serviceFeeAmount,
+            serviceFeeRate = swap.serviceFeeRate,
             onChainDirection = swap.onChainDirection.toString(),
             settlementMethod = encoder.encodeToString(swap.onChainSettlementMethod),
             makerPrivateData = null,
-            makerPrivateDataInitializationVector = null,
             takerPrivateData = null,
-            takerPrivateDataInitializationVector = null,
             protocolVersion = swap.protocolVersion.toString(),
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = swap.onChainDisputeRaiser.toString(),
-            chainID = swap.chainID.toString(),
+            chainID = swap.chainID,
             state = swap.state.value.asString,
             role = swap.role.asString,
             approveToFillState = swap.approvingToFillState.value.asString,
@@ -447,7 +440,7 @@ class SwapServiceTests {
 
         assertEquals(ReportingPaymentSentState.EXCEPTION, swap.reportingPaymentSentState.value)
         assertNotNull(swap.reportingPaymentSentException)
-        val swapInDatabase = databaseService.getSwap(id = encoder.encodeToString(swapID.asByteArray()))
+        val swapInDatabase = databaseService.getSwap(id = swapID)
         assertEquals(ReportingPaymentSentState.EXCEPTION.asString, swapInDatabase!!.reportPaymentSentState)
     }
 
@@ -508,7 +501,7 @@ class SwapServiceTests {
         swapTruthSource.swaps[swapID] = swap
         val encoder = Base64.getEncoder()
         val swapForDatabase = DatabaseSwap(
-            id = encoder.encodeToString(swapID.asByteArray()),
+            id = swapID,
             isCreated = 1L,
             requiresFill = 1L,
             maker = swap.maker,
@@ -516,25 +509,23 @@ class SwapServiceTests {
             taker = swap.taker,
             takerInterfaceID = encoder.encodeToString(swap.takerInterfaceID),
             stablecoin = swap.stablecoin,
-            amountLowerBound = swap.amountLowerBound.toString(),
-            amountUpperBound = swap.amountUpperBound.toString(),
-            securityDepositAmount = swap.securityDepositAmount.toString(),
-            takenSwapAmount = swap.takenSwapAmount.toString(),
-            serviceFeeAmount = swap.serviceFeeAmount.toString(),
-            serviceFeeRate = swap.serviceFeeRate.toString(),
+            amountLowerBound = swap.amountLowerBound,
+            amountUpperBound = swap.amountUpperBound,
+            securityDepositAmount = swap.securityDepositAmount,
+            takenSwapAmount = swap.takenSwapAmount,
+            serviceFeeAmount = swap.serviceFeeAmount,
+            serviceFeeRate = swap.serviceFeeRate,
             onChainDirection = swap.onChainDirection.toString(),
             settlementMethod = encoder.encodeToString(swap.onChainSettlementMethod),
             makerPrivateData = null,
-            makerPrivateDataInitializationVector = null,
             takerPrivateData = null,
-            takerPrivateDataInitializationVector = null,
             protocolVersion = swap.protocolVersion.toString(),
             isPaymentSent = 1L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = swap.onChainDisputeRaiser.toString(),
-            chainID = swap.chainID.toString(),
+            chainID = swap.chainID,
             state = swap.state.value.asString,
             role = swap.role.asString,
             approveToFillState = swap.approvingToFillState.value.asString,
@@ -578,7 +569,7 @@ class SwapServiceTests {
 
         assertEquals(ReportingPaymentReceivedState.EXCEPTION, swap.reportingPaymentReceivedState.value)
         assertNotNull(swap.reportingPaymentReceivedException)
-        val swapInDatabase = databaseService.getSwap(id = encoder.encodeToString(swapID.asByteArray()))
+        val swapInDatabase = databaseService.getSwap(id = swapID)
         assertEquals(ReportingPaymentReceivedState.EXCEPTION.asString, swapInDatabase!!.reportPaymentReceivedState)
     }
 
@@ -639,7 +630,7 @@ class SwapServiceTests {
         swapTruthSource.swaps[swapID] = swap
         val encoder = Base64.getEncoder()
         val swapForDatabase = DatabaseSwap(
-            id = encoder.encodeToString(swapID.asByteArray()),
+            id = swapID,
             isCreated = 1L,
             requiresFill = 1L,
             maker = swap.maker,
@@ -647,25 +638,23 @@ class SwapServiceTests {
             taker = swap.taker,
             takerInterfaceID = encoder.encodeToString(swap.takerInterfaceID),
             stablecoin = swap.stablecoin,
-            amountLowerBound = swap.amountLowerBound.toString(),
-            amountUpperBound = swap.amountUpperBound.toString(),
-            securityDepositAmount = swap.securityDepositAmount.toString(),
-            takenSwapAmount = swap.takenSwapAmount.toString(),
-            serviceFeeAmount = swap.serviceFeeAmount.toString(),
-            serviceFeeRate = swap.serviceFeeRate.toString(),
+            amountLowerBound = swap.amountLowerBound,
+            amountUpperBound = swap.amountUpperBound,
+            securityDepositAmount = swap.securityDepositAmount,
+            takenSwapAmount = swap.takenSwapAmount,
+            serviceFeeAmount = swap.serviceFeeAmount,
+            serviceFeeRate = swap.serviceFeeRate,
             onChainDirection = swap.onChainDirection.toString(),
             settlementMethod = encoder.encodeToString(swap.onChainSettlementMethod),
             makerPrivateData = null,
-            makerPrivateDataInitializationVector = null,
             takerPrivateData = null,
-            takerPrivateDataInitializationVector = null,
             protocolVersion = swap.protocolVersion.toString(),
             isPaymentSent = 1L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = swap.onChainDisputeRaiser.toString(),
-            chainID = swap.chainID.toString(),
+            chainID = swap.chainID,
             state = swap.state.value.asString,
             role = swap.role.asString,
             approveToFillState = swap.approvingToFillState.value.asString,
@@ -710,7 +699,7 @@ class SwapServiceTests {
         assertEquals(SwapState.AWAITING_CLOSING, swap.state.value)
         assertEquals(ClosingSwapState.EXCEPTION, swap.closingSwapState.value)
         assertNotNull(swap.closingSwapException)
-        val swapInDatabase = databaseService.getSwap(id = encoder.encodeToString(swapID.asByteArray()))
+        val swapInDatabase = databaseService.getSwap(id = swapID)
         assertEquals(SwapState.AWAITING_CLOSING.asString, swapInDatabase!!.state)
         assertEquals(ClosingSwapState.EXCEPTION.asString, swapInDatabase.closeSwapState)
     }
@@ -788,7 +777,7 @@ class SwapServiceTests {
          */
         val encoder = Base64.getEncoder()
         val swapForDatabase = DatabaseSwap(
-            id = encoder.encodeToString(swapID.asByteArray()),
+            id = swapID,
             isCreated = 1L,
             requiresFill = 1L,
             maker = swap.maker,
@@ -796,25 +785,23 @@ class SwapServiceTests {
             taker = swap.taker,
             takerInterfaceID = encoder.encodeToString(swap.takerInterfaceID),
             stablecoin = swap.stablecoin,
-            amountLowerBound = swap.amountLowerBound.toString(),
-            amountUpperBound = swap.amountUpperBound.toString(),
-            securityDepositAmount = swap.securityDepositAmount.toString(),
-            takenSwapAmount = swap.takenSwapAmount.toString(),
-            serviceFeeAmount = swap.serviceFeeAmount.toString(),
-            serviceFeeRate = swap.serviceFeeRate.toString(),
+            amountLowerBound = swap.amountLowerBound,
+            amountUpperBound = swap.amountUpperBound,
+            securityDepositAmount = swap.securityDepositAmount,
+            takenSwapAmount = swap.takenSwapAmount,
+            serviceFeeAmount = swap.serviceFeeAmount,
+            serviceFeeRate = swap.serviceFeeRate,
             onChainDirection = swap.onChainDirection.toString(),
             settlementMethod = encoder.encodeToString(swap.onChainSettlementMethod),
             makerPrivateData = null,
-            makerPrivateDataInitializationVector = null,
             takerPrivateData = null,
-            takerPrivateDataInitializationVector = null,
             protocolVersion = swap.protocolVersion.toString(),
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = swap.onChainDisputeRaiser.toString(),
-            chainID = swap.chainID.toString(),
+            chainID = swap.chainID,
             state = swap.state.value.asString,
             role = swap.role.asString,
             approveToFillState = swap.approvingToFillState.value.asString,
@@ -889,7 +876,7 @@ class SwapServiceTests {
 
         assertEquals(SwapState.AWAITING_MAKER_INFORMATION, swap.state.value)
 
-        val swapInDatabase = databaseService.getSwap(encoder.encodeToString(swapID.asByteArray()))
+        val swapInDatabase = databaseService.getSwap(swapID)
         assertEquals(SwapState.AWAITING_MAKER_INFORMATION.asString, swapInDatabase!!.state)
 
     }
@@ -1084,7 +1071,7 @@ class SwapServiceTests {
         swapTruthSource.addSwap(swap)
         val encoder = Base64.getEncoder()
         val swapForDatabase = DatabaseSwap(
-            id = encoder.encodeToString(swapID.asByteArray()),
+            id = swapID,
             isCreated = 1L,
             requiresFill = 1L,
             maker = swap.maker,
@@ -1092,25 +1079,23 @@ class SwapServiceTests {
             taker = swap.taker,
             takerInterfaceID = encoder.encodeToString(swap.takerInterfaceID),
             stablecoin = swap.stablecoin,
-            amountLowerBound = swap.amountLowerBound.toString(),
-            amountUpperBound = swap.amountUpperBound.toString(),
-            securityDepositAmount = swap.securityDepositAmount.toString(),
-            takenSwapAmount = swap.takenSwapAmount.toString(),
-            serviceFeeAmount = swap.serviceFeeAmount.toString(),
-            serviceFeeRate = swap.serviceFeeRate.toString(),
+            amountLowerBound = swap.amountLowerBound,
+            amountUpperBound = swap.amountUpperBound,
+            securityDepositAmount = swap.securityDepositAmount,
+            takenSwapAmount = swap.takenSwapAmount,
+            serviceFeeAmount = swap.serviceFeeAmount,
+            serviceFeeRate = swap.serviceFeeRate,
             onChainDirection = swap.onChainDirection.toString(),
             settlementMethod = encoder.encodeToString(swap.onChainSettlementMethod),
-            makerPrivateData = swap.makerPrivateSettlementMethodData,
-            makerPrivateDataInitializationVector = null,
+            makerPrivateData = swap.makerPrivateSettlementMethodData?.toByteArray(),
             takerPrivateData = null,
-            takerPrivateDataInitializationVector = null,
             protocolVersion = swap.protocolVersion.toString(),
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = swap.onChainDisputeRaiser.toString(),
-            chainID = swap.chainID.toString(),
+            chainID = swap.chainID,
             state = swap.state.value.asString,
             role = swap.role.asString,
             approveToFillState = swap.approvingToFillState.value.asString,
@@ -1153,9 +1138,9 @@ class SwapServiceTests {
         assertEquals("taker_settlement_method_details", swap.takerPrivateSettlementMethodData)
 
         // Ensure that SwapService persistently updates swap state and taker private data
-        val swapInDatabase = databaseService.getSwap(encoder.encodeToString(swapID.asByteArray()))
+        val swapInDatabase = databaseService.getSwap(swapID)
         assertEquals(SwapState.AWAITING_FILLING.asString, swapInDatabase!!.state)
-        assertEquals("taker_settlement_method_details", swapInDatabase.takerPrivateData)
+        assertEquals("taker_settlement_method_details", swapInDatabase.takerPrivateData?.decodeToString())
     }
 
     /**
@@ -1228,7 +1213,7 @@ class SwapServiceTests {
         swapTruthSource.addSwap(swap)
         val encoder = Base64.getEncoder()
         val swapForDatabase = DatabaseSwap(
-            id = encoder.encodeToString(swapID.asByteArray()),
+            id = swapID,
             isCreated = 1L,
             requiresFill = 1L,
             maker = swap.maker,
@@ -1236,25 +1221,23 @@ class SwapServiceTests {
             taker = swap.taker,
             takerInterfaceID = encoder.encodeToString(swap.takerInterfaceID),
             stablecoin = swap.stablecoin,
-            amountLowerBound = swap.amountLowerBound.toString(),
-            amountUpperBound = swap.amountUpperBound.toString(),
-            securityDepositAmount = swap.securityDepositAmount.toString(),
-            takenSwapAmount = swap.takenSwapAmount.toString(),
-            serviceFeeAmount = swap.serviceFeeAmount.toString(),
-            serviceFeeRate = swap.serviceFeeRate.toString(),
+            amountLowerBound = swap.amountLowerBound,
+            amountUpperBound = swap.amountUpperBound,
+            securityDepositAmount = swap.securityDepositAmount,
+            takenSwapAmount = swap.takenSwapAmount,
+            serviceFeeAmount = swap.serviceFeeAmount,
+            serviceFeeRate = swap.serviceFeeRate,
             onChainDirection = swap.onChainDirection.toString(),
             settlementMethod = encoder.encodeToString(swap.onChainSettlementMethod),
             makerPrivateData = null,
-            makerPrivateDataInitializationVector = null,
             takerPrivateData = null,
-            takerPrivateDataInitializationVector = null,
             protocolVersion = swap.protocolVersion.toString(),
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = swap.onChainDisputeRaiser.toString(),
-            chainID = swap.chainID.toString(),
+            chainID = swap.chainID,
             state = swap.state.value.asString,
             role = swap.role.asString,
             approveToFillState = swap.approvingToFillState.value.asString,
@@ -1295,9 +1278,9 @@ class SwapServiceTests {
         assertEquals("maker_settlement_method_details", swap.makerPrivateSettlementMethodData)
 
         // Ensure that SwapService persistently updates swap state
-        val swapInDatabase = databaseService.getSwap(encoder.encodeToString(swapID.asByteArray()))
+        val swapInDatabase = databaseService.getSwap(swapID)
         assertEquals(SwapState.AWAITING_FILLING.asString, swapInDatabase!!.state)
-        assertEquals("maker_settlement_method_details", swapInDatabase.makerPrivateData)
+        assertEquals("maker_settlement_method_details", swapInDatabase.makerPrivateData?.decodeToString())
     }
 
     /**
@@ -1394,7 +1377,7 @@ class SwapServiceTests {
         swapTruthSource.swaps[swapID] = swap
         val encoder = Base64.getEncoder()
         val swapForDatabase = DatabaseSwap(
-            id = encoder.encodeToString(swapID.asByteArray()),
+            id = swapID,
             isCreated = 1L,
             requiresFill = 1L,
             maker = swap.maker,
@@ -1402,25 +1385,23 @@ class SwapServiceTests {
             taker = swap.taker,
             takerInterfaceID = encoder.encodeToString(swap.takerInterfaceID),
             stablecoin = swap.stablecoin,
-            amountLowerBound = swap.amountLowerBound.toString(),
-            amountUpperBound = swap.amountUpperBound.toString(),
-            securityDepositAmount = swap.securityDepositAmount.toString(),
-            takenSwapAmount = swap.takenSwapAmount.toString(),
-            serviceFeeAmount = swap.serviceFeeAmount.toString(),
-            serviceFeeRate = swap.serviceFeeRate.toString(),
+            amountLowerBound = swap.amountLowerBound,
+            amountUpperBound = swap.amountUpperBound,
+            securityDepositAmount = swap.securityDepositAmount,
+            takenSwapAmount = swap.takenSwapAmount,
+            serviceFeeAmount = swap.serviceFeeAmount,
+            serviceFeeRate = swap.serviceFeeRate,
             onChainDirection = swap.onChainDirection.toString(),
             settlementMethod = encoder.encodeToString(swap.onChainSettlementMethod),
             makerPrivateData = null,
-            makerPrivateDataInitializationVector = null,
             takerPrivateData = null,
-            takerPrivateDataInitializationVector = null,
             protocolVersion = swap.protocolVersion.toString(),
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = swap.onChainDisputeRaiser.toString(),
-            chainID = swap.chainID.toString(),
+            chainID = swap.chainID,
             state = swap.state.value.asString,
             role = swap.role.asString,
             approveToFillState = swap.approvingToFillState.value.asString,
@@ -1473,7 +1454,7 @@ class SwapServiceTests {
 
         assertEquals(SwapState.FILL_SWAP_TRANSACTION_SENT, swap.state.value)
 
-        val swapInDatabase = databaseService.getSwap(encoder.encodeToString(swapID.asByteArray()))
+        val swapInDatabase = databaseService.getSwap(swapID)
         assertEquals(SwapState.FILL_SWAP_TRANSACTION_SENT.asString, swapInDatabase!!.state)
 
         val swapOnChain = blockchainService.getSwap(id = swapID)
@@ -1543,7 +1524,7 @@ class SwapServiceTests {
         swapTruthSource.swaps[swapID] = swap
         val encoder = Base64.getEncoder()
         val swapForDatabase = DatabaseSwap(
-            id = encoder.encodeToString(swapID.asByteArray()),
+            id = swapID,
             isCreated = 1L,
             requiresFill = 1L,
             maker = swap.maker,
@@ -1551,25 +1532,23 @@ class SwapServiceTests {
             taker = swap.taker,
             takerInterfaceID = encoder.encodeToString(swap.takerInterfaceID),
             stablecoin = swap.stablecoin,
-            amountLowerBound = swap.amountLowerBound.toString(),
-            amountUpperBound = swap.amountUpperBound.toString(),
-            securityDepositAmount = swap.securityDepositAmount.toString(),
-            takenSwapAmount = swap.takenSwapAmount.toString(),
-            serviceFeeAmount = swap.serviceFeeAmount.toString(),
-            serviceFeeRate = swap.serviceFeeRate.toString(),
+            amountLowerBound = swap.amountLowerBound,
+            amountUpperBound = swap.amountUpperBound,
+            securityDepositAmount = swap.securityDepositAmount,
+            takenSwapAmount = swap.takenSwapAmount,
+            serviceFeeAmount = swap.serviceFeeAmount,
+            serviceFeeRate = swap.serviceFeeRate,
             onChainDirection = swap.onChainDirection.toString(),
             settlementMethod = encoder.encodeToString(swap.onChainSettlementMethod),
             makerPrivateData = null,
-            makerPrivateDataInitializationVector = null,
             takerPrivateData = null,
-            takerPrivateDataInitializationVector = null,
             protocolVersion = swap.protocolVersion.toString(),
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = swap.onChainDisputeRaiser.toString(),
-            chainID = swap.chainID.toString(),
+            chainID = swap.chainID,
             state = swap.state.value.asString,
             role = swap.role.asString,
             approveToFillState = swap.approvingToFillState.value.asString,
@@ -1678,7 +1657,7 @@ class SwapServiceTests {
         swapTruthSource.swaps[swapID] = swap
         val encoder = Base64.getEncoder()
         val swapForDatabase = DatabaseSwap(
-            id = encoder.encodeToString(swapID.asByteArray()),
+            id = swapID,
             isCreated = 1L,
             requiresFill = 1L,
             maker = swap.maker,
@@ -1686,25 +1665,23 @@ class SwapServiceTests {
             taker = swap.taker,
             takerInterfaceID = encoder.encodeToString(swap.takerInterfaceID),
             stablecoin = swap.stablecoin,
-            amountLowerBound = swap.amountLowerBound.toString(),
-            amountUpperBound = swap.amountUpperBound.toString(),
-            securityDepositAmount = swap.securityDepositAmount.toString(),
-            takenSwapAmount = swap.takenSwapAmount.toString(),
-            serviceFeeAmount = swap.serviceFeeAmount.toString(),
-            serviceFeeRate = swap.serviceFeeRate.toString(),
+            amountLowerBound = swap.amountLowerBound,
+            amountUpperBound = swap.amountUpperBound,
+            securityDepositAmount = swap.securityDepositAmount,
+            takenSwapAmount = swap.takenSwapAmount,
+            serviceFeeAmount = swap.serviceFeeAmount,
+            serviceFeeRate = swap.serviceFeeRate,
             onChainDirection = swap.onChainDirection.toString(),
             settlementMethod = encoder.encodeToString(swap.onChainSettlementMethod),
             makerPrivateData = null,
-            makerPrivateDataInitializationVector = null,
             takerPrivateData = null,
-            takerPrivateDataInitializationVector = null,
             protocolVersion = swap.protocolVersion.toString(),
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = swap.onChainDisputeRaiser.toString(),
-            chainID = swap.chainID.toString(),
+            chainID = swap.chainID,
             state = swap.state.value.asString,
             role = swap.role.asString,
             approveToFillState = swap.approvingToFillState.value.asString,
@@ -1849,7 +1826,7 @@ class SwapServiceTests {
         )
         val encoder = Base64.getEncoder()
         val swapForDatabase = DatabaseSwap(
-            id = encoder.encodeToString(swapID.asByteArray()),
+            id = swapID,
             isCreated = 1L,
             requiresFill = 1L,
             maker = swap.maker,
@@ -1857,25 +1834,23 @@ class SwapServiceTests {
             taker = swap.taker,
             takerInterfaceID = encoder.encodeToString(swap.takerInterfaceID),
             stablecoin = swap.stablecoin,
-            amountLowerBound = swap.amountLowerBound.toString(),
-            amountUpperBound = swap.amountUpperBound.toString(),
-            securityDepositAmount = swap.securityDepositAmount.toString(),
-            takenSwapAmount = swap.takenSwapAmount.toString(),
-            serviceFeeAmount = swap.serviceFeeAmount.toString(),
-            serviceFeeRate = swap.serviceFeeRate.toString(),
+            amountLowerBound = swap.amountLowerBound,
+            amountUpperBound = swap.amountUpperBound,
+            securityDepositAmount = swap.securityDepositAmount,
+            takenSwapAmount = swap.takenSwapAmount,
+            serviceFeeAmount = swap.serviceFeeAmount,
+            serviceFeeRate = swap.serviceFeeRate,
             onChainDirection = swap.onChainDirection.toString(),
             settlementMethod = encoder.encodeToString(swap.onChainSettlementMethod),
             makerPrivateData = null,
-            makerPrivateDataInitializationVector = null,
             takerPrivateData = null,
-            takerPrivateDataInitializationVector = null,
             protocolVersion = swap.protocolVersion.toString(),
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = swap.onChainDisputeRaiser.toString(),
-            chainID = swap.chainID.toString(),
+            chainID = swap.chainID,
             state = swap.state.value.asString,
             role = swap.role.asString,
             approveToFillState = swap.approvingToFillState.value.asString,
@@ -1919,7 +1894,7 @@ class SwapServiceTests {
         assertEquals(SwapState.REPORT_PAYMENT_SENT_TRANSACTION_BROADCAST, swap.state.value)
         assertNotNull(swap.reportPaymentSentTransaction?.transactionHash)
 
-        val swapInDatabase = databaseService.getSwap(encoder.encodeToString(swapID.asByteArray()))
+        val swapInDatabase = databaseService.getSwap(swapID)
         assertEquals(ReportingPaymentSentState.AWAITING_TRANSACTION_CONFIRMATION.asString,
             swapInDatabase?.reportPaymentSentState)
         assertEquals(SwapState.REPORT_PAYMENT_SENT_TRANSACTION_BROADCAST.asString, swapInDatabase?.state)
@@ -1987,7 +1962,7 @@ class SwapServiceTests {
         swapTruthSource.swaps[swapID] = swap
         val encoder = Base64.getEncoder()
         val swapForDatabase = DatabaseSwap(
-            id = encoder.encodeToString(swapID.asByteArray()),
+            id = swapID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = swap.maker,
@@ -1995,25 +1970,23 @@ class SwapServiceTests {
             taker = swap.taker,
             takerInterfaceID = encoder.encodeToString(swap.takerInterfaceID),
             stablecoin = swap.stablecoin,
-            amountLowerBound = swap.amountLowerBound.toString(),
-            amountUpperBound = swap.amountUpperBound.toString(),
-            securityDepositAmount = swap.securityDepositAmount.toString(),
-            takenSwapAmount = swap.takenSwapAmount.toString(),
-            serviceFeeAmount = swap.serviceFeeAmount.toString(),
-            serviceFeeRate = swap.serviceFeeRate.toString(),
+            amountLowerBound = swap.amountLowerBound,
+            amountUpperBound = swap.amountUpperBound,
+            securityDepositAmount = swap.securityDepositAmount,
+            takenSwapAmount = swap.takenSwapAmount,
+            serviceFeeAmount = swap.serviceFeeAmount,
+            serviceFeeRate = swap.serviceFeeRate,
             onChainDirection = swap.onChainDirection.toString(),
             settlementMethod = encoder.encodeToString(swap.onChainSettlementMethod),
             makerPrivateData = null,
-            makerPrivateDataInitializationVector = null,
             takerPrivateData = null,
-            takerPrivateDataInitializationVector = null,
             protocolVersion = swap.protocolVersion.toString(),
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = swap.onChainDisputeRaiser.toString(),
-            chainID = swap.chainID.toString(),
+            chainID = swap.chainID,
             state = swap.state.value.asString,
             role = swap.role.asString,
             approveToFillState = swap.approvingToFillState.value.asString,
@@ -2059,7 +2032,7 @@ class SwapServiceTests {
         assertEquals("0xreporting_payment_sent_tx_hash", swap.reportPaymentSentTransaction?.transactionHash)
 
         // Ensure that SwapService updates swap state and isPaymentSent in persistent storage
-        val swapInDatabase = databaseService.getSwap(encoder.encodeToString(swapID.asByteArray()))
+        val swapInDatabase = databaseService.getSwap(swapID)
         assertEquals(1L, swapInDatabase!!.isPaymentSent)
         assertEquals(SwapState.AWAITING_PAYMENT_RECEIVED.asString, swapInDatabase.state)
         assertEquals("0xreporting_payment_sent_tx_hash", swapInDatabase.reportPaymentSentTransactionHash)
@@ -2126,7 +2099,7 @@ class SwapServiceTests {
         swapTruthSource.swaps[swapID] = swap
         val encoder = Base64.getEncoder()
         val swapForDatabase = DatabaseSwap(
-            id = encoder.encodeToString(swapID.asByteArray()),
+            id = swapID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = swap.maker,
@@ -2134,25 +2107,23 @@ class SwapServiceTests {
             taker = swap.taker,
             takerInterfaceID = encoder.encodeToString(swap.takerInterfaceID),
             stablecoin = swap.stablecoin,
-            amountLowerBound = swap.amountLowerBound.toString(),
-            amountUpperBound = swap.amountUpperBound.toString(),
-            securityDepositAmount = swap.securityDepositAmount.toString(),
-            takenSwapAmount = swap.takenSwapAmount.toString(),
-            serviceFeeAmount = swap.serviceFeeAmount.toString(),
-            serviceFeeRate = swap.serviceFeeRate.toString(),
+            amountLowerBound = swap.amountLowerBound,
+            amountUpperBound = swap.amountUpperBound,
+            securityDepositAmount = swap.securityDepositAmount,
+            takenSwapAmount = swap.takenSwapAmount,
+            serviceFeeAmount = swap.serviceFeeAmount,
+            serviceFeeRate = swap.serviceFeeRate,
             onChainDirection = swap.onChainDirection.toString(),
             settlementMethod = encoder.encodeToString(swap.onChainSettlementMethod),
             makerPrivateData = null,
-            makerPrivateDataInitializationVector = null,
             takerPrivateData = null,
-            takerPrivateDataInitializationVector = null,
             protocolVersion = swap.protocolVersion.toString(),
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = swap.onChainDisputeRaiser.toString(),
-            chainID = swap.chainID.toString(),
+            chainID = swap.chainID,
             state = swap.state.value.asString,
             role = swap.role.asString,
             approveToFillState = swap.approvingToFillState.value.asString,
@@ -2198,7 +2169,7 @@ class SwapServiceTests {
         assertEquals(ReportingPaymentSentState.COMPLETED, swap.reportingPaymentSentState.value)
 
         // Ensure that SwapService updates swap state and isPaymentSent in persistent storage
-        val swapInDatabase = databaseService.getSwap(encoder.encodeToString(swapID.asByteArray()))
+        val swapInDatabase = databaseService.getSwap(swapID)
         assertEquals(1L, swapInDatabase!!.isPaymentSent)
         assertEquals(SwapState.AWAITING_PAYMENT_RECEIVED.asString, swapInDatabase.state)
         assertEquals(ReportingPaymentSentState.COMPLETED.asString, swapInDatabase.reportPaymentSentState)
@@ -2295,7 +2266,7 @@ class SwapServiceTests {
         )
         val encoder = Base64.getEncoder()
         val swapForDatabase = DatabaseSwap(
-            id = encoder.encodeToString(swapID.asByteArray()),
+            id = swapID,
             isCreated = 1L,
             requiresFill = 1L,
             maker = swap.maker,
@@ -2303,25 +2274,23 @@ class SwapServiceTests {
             taker = swap.taker,
             takerInterfaceID = encoder.encodeToString(swap.takerInterfaceID),
             stablecoin = swap.stablecoin,
-            amountLowerBound = swap.amountLowerBound.toString(),
-            amountUpperBound = swap.amountUpperBound.toString(),
-            securityDepositAmount = swap.securityDepositAmount.toString(),
-            takenSwapAmount = swap.takenSwapAmount.toString(),
-            serviceFeeAmount = swap.serviceFeeAmount.toString(),
-            serviceFeeRate = swap.serviceFeeRate.toString(),
+            amountLowerBound = swap.amountLowerBound,
+            amountUpperBound = swap.amountUpperBound,
+            securityDepositAmount = swap.securityDepositAmount,
+            takenSwapAmount = swap.takenSwapAmount,
+            serviceFeeAmount = swap.serviceFeeAmount,
+            serviceFeeRate = swap.serviceFeeRate,
             onChainDirection = swap.onChainDirection.toString(),
             settlementMethod = encoder.encodeToString(swap.onChainSettlementMethod),
             makerPrivateData = null,
-            makerPrivateDataInitializationVector = null,
             takerPrivateData = null,
-            takerPrivateDataInitializationVector = null,
             protocolVersion = swap.protocolVersion.toString(),
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = swap.onChainDisputeRaiser.toString(),
-            chainID = swap.chainID.toString(),
+            chainID = swap.chainID,
             state = swap.state.value.asString,
             role = swap.role.asString,
             approveToFillState = swap.approvingToFillState.value.asString,
@@ -2366,7 +2335,7 @@ class SwapServiceTests {
         assertEquals(SwapState.REPORT_PAYMENT_RECEIVED_TRANSACTION_BROADCAST, swap.state.value)
         assertNotNull(swap.reportPaymentReceivedTransaction?.transactionHash)
 
-        val swapInDatabase = databaseService.getSwap(encoder.encodeToString(swapID.asByteArray()))
+        val swapInDatabase = databaseService.getSwap(swapID)
         assertEquals(ReportingPaymentReceivedState.AWAITING_TRANSACTION_CONFIRMATION.asString,
             swapInDatabase?.reportPaymentReceivedState)
         assertEquals(SwapState.REPORT_PAYMENT_RECEIVED_TRANSACTION_BROADCAST.asString, swapInDatabase?.state)
@@ -2434,7 +2403,7 @@ class SwapServiceTests {
         swapTruthSource.swaps[swapID] = swap
         val encoder = Base64.getEncoder()
         val swapForDatabase = DatabaseSwap(
-            id = encoder.encodeToString(swapID.asByteArray()),
+            id = swapID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = swap.maker,
@@ -2442,25 +2411,23 @@ class SwapServiceTests {
             taker = swap.taker,
             takerInterfaceID = encoder.encodeToString(swap.takerInterfaceID),
             stablecoin = swap.stablecoin,
-            amountLowerBound = swap.amountLowerBound.toString(),
-            amountUpperBound = swap.amountUpperBound.toString(),
-            securityDepositAmount = swap.securityDepositAmount.toString(),
-            takenSwapAmount = swap.takenSwapAmount.toString(),
-            serviceFeeAmount = swap.serviceFeeAmount.toString(),
-            serviceFeeRate = swap.serviceFeeRate.toString(),
+            amountLowerBound = swap.amountLowerBound,
+            amountUpperBound = swap.amountUpperBound,
+            securityDepositAmount = swap.securityDepositAmount,
+            takenSwapAmount = swap.takenSwapAmount,
+            serviceFeeAmount = swap.serviceFeeAmount,
+            serviceFeeRate = swap.serviceFeeRate,
             onChainDirection = swap.onChainDirection.toString(),
             settlementMethod = encoder.encodeToString(swap.onChainSettlementMethod),
             makerPrivateData = null,
-            makerPrivateDataInitializationVector = null,
             takerPrivateData = null,
-            takerPrivateDataInitializationVector = null,
             protocolVersion = swap.protocolVersion.toString(),
             isPaymentSent = 1L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = swap.onChainDisputeRaiser.toString(),
-            chainID = swap.chainID.toString(),
+            chainID = swap.chainID,
             state = swap.state.value.asString,
             role = swap.role.asString,
             approveToFillState = swap.approvingToFillState.value.asString,
@@ -2507,7 +2474,7 @@ class SwapServiceTests {
             .reportPaymentReceivedTransaction?.transactionHash)
 
         // Ensure that SwapService updates swap state and isPaymentReceived in persistent storage
-        val swapInDatabase = databaseService.getSwap(encoder.encodeToString(swapID.asByteArray()))
+        val swapInDatabase = databaseService.getSwap(swapID)
         assertEquals(1L, swapInDatabase!!.isPaymentReceived)
         assertEquals(SwapState.AWAITING_CLOSING.asString, swapInDatabase.state)
         assertEquals("0xreporting_payment_received_tx_hash", swapInDatabase
@@ -2575,7 +2542,7 @@ class SwapServiceTests {
         swapTruthSource.swaps[swapID] = swap
         val encoder = Base64.getEncoder()
         val swapForDatabase = DatabaseSwap(
-            id = encoder.encodeToString(swapID.asByteArray()),
+            id = swapID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = swap.maker,
@@ -2583,25 +2550,23 @@ class SwapServiceTests {
             taker = swap.taker,
             takerInterfaceID = encoder.encodeToString(swap.takerInterfaceID),
             stablecoin = swap.stablecoin,
-            amountLowerBound = swap.amountLowerBound.toString(),
-            amountUpperBound = swap.amountUpperBound.toString(),
-            securityDepositAmount = swap.securityDepositAmount.toString(),
-            takenSwapAmount = swap.takenSwapAmount.toString(),
-            serviceFeeAmount = swap.serviceFeeAmount.toString(),
-            serviceFeeRate = swap.serviceFeeRate.toString(),
+            amountLowerBound = swap.amountLowerBound,
+            amountUpperBound = swap.amountUpperBound,
+            securityDepositAmount = swap.securityDepositAmount,
+            takenSwapAmount = swap.takenSwapAmount,
+            serviceFeeAmount = swap.serviceFeeAmount,
+            serviceFeeRate = swap.serviceFeeRate,
             onChainDirection = swap.onChainDirection.toString(),
             settlementMethod = encoder.encodeToString(swap.onChainSettlementMethod),
             makerPrivateData = null,
-            makerPrivateDataInitializationVector = null,
             takerPrivateData = null,
-            takerPrivateDataInitializationVector = null,
             protocolVersion = swap.protocolVersion.toString(),
             isPaymentSent = 1L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = swap.onChainDisputeRaiser.toString(),
-            chainID = swap.chainID.toString(),
+            chainID = swap.chainID,
             state = swap.state.value.asString,
             role = swap.role.asString,
             approveToFillState = swap.approvingToFillState.value.asString,
@@ -2647,7 +2612,7 @@ class SwapServiceTests {
         assertEquals(ReportingPaymentReceivedState.COMPLETED, swap.reportingPaymentReceivedState.value)
 
         // Ensure that SwapService updates swap state and isPaymentReceived in persistent storage
-        val swapInDatabase = databaseService.getSwap(encoder.encodeToString(swapID.asByteArray()))
+        val swapInDatabase = databaseService.getSwap(swapID)
         assertEquals(1L, swapInDatabase!!.isPaymentReceived)
         assertEquals(SwapState.AWAITING_CLOSING.asString, swapInDatabase.state)
         assertEquals(ReportingPaymentReceivedState.COMPLETED.asString, swapInDatabase.reportPaymentReceivedState)
@@ -2743,7 +2708,7 @@ class SwapServiceTests {
         )
         val encoder = Base64.getEncoder()
         val swapForDatabase = DatabaseSwap(
-            id = encoder.encodeToString(swapID.asByteArray()),
+            id = swapID,
             isCreated = 1L,
             requiresFill = 1L,
             maker = swap.maker,
@@ -2751,25 +2716,23 @@ class SwapServiceTests {
             taker = swap.taker,
             takerInterfaceID = encoder.encodeToString(swap.takerInterfaceID),
             stablecoin = swap.stablecoin,
-            amountLowerBound = swap.amountLowerBound.toString(),
-            amountUpperBound = swap.amountUpperBound.toString(),
-            securityDepositAmount = swap.securityDepositAmount.toString(),
-            takenSwapAmount = swap.takenSwapAmount.toString(),
-            serviceFeeAmount = swap.serviceFeeAmount.toString(),
-            serviceFeeRate = swap.serviceFeeRate.toString(),
+            amountLowerBound = swap.amountLowerBound,
+            amountUpperBound = swap.amountUpperBound,
+            securityDepositAmount = swap.securityDepositAmount,
+            takenSwapAmount = swap.takenSwapAmount,
+            serviceFeeAmount = swap.serviceFeeAmount,
+            serviceFeeRate = swap.serviceFeeRate,
             onChainDirection = swap.onChainDirection.toString(),
             settlementMethod = encoder.encodeToString(swap.onChainSettlementMethod),
             makerPrivateData = null,
-            makerPrivateDataInitializationVector = null,
             takerPrivateData = null,
-            takerPrivateDataInitializationVector = null,
             protocolVersion = swap.protocolVersion.toString(),
             isPaymentSent = 0L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = swap.onChainDisputeRaiser.toString(),
-            chainID = swap.chainID.toString(),
+            chainID = swap.chainID,
             state = swap.state.value.asString,
             role = swap.role.asString,
             approveToFillState = swap.approvingToFillState.value.asString,
@@ -2813,7 +2776,7 @@ class SwapServiceTests {
         assertEquals(SwapState.CLOSE_SWAP_TRANSACTION_BROADCAST, swap.state.value)
         assertNotNull(swap.closeSwapTransaction?.transactionHash)
 
-        val swapInDatabase = databaseService.getSwap(encoder.encodeToString(swapID.asByteArray()))
+        val swapInDatabase = databaseService.getSwap(swapID)
         assertEquals(ClosingSwapState.AWAITING_TRANSACTION_CONFIRMATION.asString, swapInDatabase?.closeSwapState)
         assertEquals(SwapState.CLOSE_SWAP_TRANSACTION_BROADCAST.asString, swapInDatabase?.state)
         assertNotNull(swapInDatabase?.closeSwapTransactionHash)
@@ -2881,7 +2844,7 @@ class SwapServiceTests {
         swapTruthSource.swaps[swapID] = swap
         val encoder = Base64.getEncoder()
         val swapForDatabase = DatabaseSwap(
-            id = encoder.encodeToString(swapID.asByteArray()),
+            id = swapID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = swap.maker,
@@ -2889,25 +2852,23 @@ class SwapServiceTests {
             taker = swap.taker,
             takerInterfaceID = encoder.encodeToString(swap.takerInterfaceID),
             stablecoin = swap.stablecoin,
-            amountLowerBound = swap.amountLowerBound.toString(),
-            amountUpperBound = swap.amountUpperBound.toString(),
-            securityDepositAmount = swap.securityDepositAmount.toString(),
-            takenSwapAmount = swap.takenSwapAmount.toString(),
-            serviceFeeAmount = swap.serviceFeeAmount.toString(),
-            serviceFeeRate = swap.serviceFeeRate.toString(),
+            amountLowerBound = swap.amountLowerBound,
+            amountUpperBound = swap.amountUpperBound,
+            securityDepositAmount = swap.securityDepositAmount,
+            takenSwapAmount = swap.takenSwapAmount,
+            serviceFeeAmount = swap.serviceFeeAmount,
+            serviceFeeRate = swap.serviceFeeRate,
             onChainDirection = swap.onChainDirection.toString(),
             settlementMethod = encoder.encodeToString(swap.onChainSettlementMethod),
             makerPrivateData = null,
-            makerPrivateDataInitializationVector = null,
             takerPrivateData = null,
-            takerPrivateDataInitializationVector = null,
             protocolVersion = swap.protocolVersion.toString(),
             isPaymentSent = 1L,
             isPaymentReceived = 0L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = swap.onChainDisputeRaiser.toString(),
-            chainID = swap.chainID.toString(),
+            chainID = swap.chainID,
             state = swap.state.value.asString,
             role = swap.role.asString,
             approveToFillState = swap.approvingToFillState.value.asString,
@@ -2954,7 +2915,7 @@ class SwapServiceTests {
         assertEquals(ClosingSwapState.COMPLETED, swap.closingSwapState.value)
         assertEquals("0xclose_swap_tx_hash", swap.closeSwapTransaction?.transactionHash)
 
-        val swapInDatabase = databaseService.getSwap(encoder.encodeToString(swapID.asByteArray()))
+        val swapInDatabase = databaseService.getSwap(swapID)
         assertEquals(1L, swapInDatabase?.hasBuyerClosed)
         assertEquals(SwapState.CLOSED.asString, swapInDatabase?.state)
         assertEquals(ClosingSwapState.COMPLETED.asString, swapInDatabase?.closeSwapState)
@@ -3023,7 +2984,7 @@ class SwapServiceTests {
         swapTruthSource.swaps[swapID] = swap
         val encoder = Base64.getEncoder()
         val swapForDatabase = DatabaseSwap(
-            id = encoder.encodeToString(swapID.asByteArray()),
+            id = swapID,
             isCreated = 1L,
             requiresFill = 0L,
             maker = swap.maker,
@@ -3031,25 +2992,23 @@ class SwapServiceTests {
             taker = swap.taker,
             takerInterfaceID = encoder.encodeToString(swap.takerInterfaceID),
             stablecoin = swap.stablecoin,
-            amountLowerBound = swap.amountLowerBound.toString(),
-            amountUpperBound = swap.amountUpperBound.toString(),
-            securityDepositAmount = swap.securityDepositAmount.toString(),
-            takenSwapAmount = swap.takenSwapAmount.toString(),
-            serviceFeeAmount = swap.serviceFeeAmount.toString(),
-            serviceFeeRate = swap.serviceFeeRate.toString(),
+            amountLowerBound = swap.amountLowerBound,
+            amountUpperBound = swap.amountUpperBound,
+            securityDepositAmount = swap.securityDepositAmount,
+            takenSwapAmount = swap.takenSwapAmount,
+            serviceFeeAmount = swap.serviceFeeAmount,
+            serviceFeeRate = swap.serviceFeeRate,
             onChainDirection = swap.onChainDirection.toString(),
             settlementMethod = encoder.encodeToString(swap.onChainSettlementMethod),
             makerPrivateData = null,
-            makerPrivateDataInitializationVector = null,
             takerPrivateData = null,
-            takerPrivateDataInitializationVector = null,
             protocolVersion = swap.protocolVersion.toString(),
             isPaymentSent = 1L,
             isPaymentReceived = 1L,
             hasBuyerClosed = 0L,
             hasSellerClosed = 0L,
             disputeRaiser = swap.onChainDisputeRaiser.toString(),
-            chainID = swap.chainID.toString(),
+            chainID = swap.chainID,
             state = swap.state.value.asString,
             role = swap.role.asString,
             approveToFillState = swap.approvingToFillState.value.asString,
@@ -3098,7 +3057,7 @@ class SwapServiceTests {
         assertEquals("0xclose_swap_tx_hash", swap.closeSwapTransaction?.transactionHash)
 
         // Ensure that SwapService updates swap state and hasSellerClosed in persistent storage
-        val swapInDatabase = databaseService.getSwap(encoder.encodeToString(swapID.asByteArray()))
+        val swapInDatabase = databaseService.getSwap(swapID)
         assertEquals(1L, swapInDatabase?.hasSellerClosed)
         assertEquals(SwapState.CLOSED.asString, swapInDatabase?.state)
         assertEquals(ClosingSwapState.COMPLETED.asString, swapInDatabase?.closeSwapState)
@@ -29,6 +29,10 @@ class TestSwapService: SwapNotifiable {
      * Does nothing, required to adopt [SwapNotifiable]. Should not be used.
      */
     override suspend fun handleNewSwap(takenOffer: Offer) {}
+    /**
+     * Does nothing, required to adopt [SwapNotifiable]. Should not be used.
+     */
+    override fun attachSwapToTransactionHashIndex(swap: Swap) {}
     /**
      * Does nothing, required to adopt [SwapNotifiable]. Should not be used.
      */
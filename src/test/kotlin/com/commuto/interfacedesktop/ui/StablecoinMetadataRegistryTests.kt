@@ -0,0 +1,90 @@
+package com.commuto.interfacedesktop.ui
+
+import com.commuto.interfacedesktop.database.DatabaseDriverFactory
+import com.commuto.interfacedesktop.database.DatabaseService
+import com.commuto.interfacedesktop.db.StablecoinMetadata
+import kotlinx.coroutines.*
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.math.BigInteger
+import java.util.*
+
+/**
+ * Tests for [StablecoinMetadataRegistry].
+ */
+class StablecoinMetadataRegistryTests {
+
+    private val chainID = BigInteger.valueOf(31337L)
+    private val storedStablecoin = "0x000000000000000000000000000000000000000A"
+    private val resolvableStablecoin = "0x000000000000000000000000000000000000000B"
+    private val nonERC20Contract = "0x000000000000000000000000000000000000000C"
+
+    /**
+     * Ensures that [StablecoinMetadataRegistry] reads no contracts until it is hydrated, that stablecoins looked up
+     * together are read in a single batch, that each stablecoin is queued at most once, even if it could not be
+     * resolved, and that only built-in stablecoins are verified.
+     */
+    @Test
+    fun testResolveStablecoins() = runBlocking {
+        val databaseService = DatabaseService(DatabaseDriverFactory())
+        databaseService.createTables()
+        databaseService.storeStablecoinMetadata(listOf(
+            StablecoinMetadata(
+                chainID = chainID,
+                contractAddress = storedStablecoin.lowercase(),
+                currencyCode = "STRD",
+                name = "Stored Stablecoin",
+                decimals = 18L,
+            )
+        ))
+        val batches = Collections.synchronizedList(mutableListOf<List<String>>())
+        val scope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
+        val registry = StablecoinMetadataRegistry(
+            databaseService = databaseService,
+            readStablecoinInformation = { _, contractAddresses ->
+                batches.add(contractAddresses)
+                contractAddresses.filter { it == resolvableStablecoin.lowercase() }.associateWith {
+                    StablecoinInformation(currencyCode = "RSLV", name = "Resolvable Stablecoin", decimal = 6)
+                }
+            },
+            builtInStablecoins = StablecoinInformationRepository.hardhatStablecoinInfoRepo,
+            scope = scope,
+        )
+        try {
+            assertNull(registry.getStablecoinInformation(chainID, storedStablecoin))
+            assertNull(registry.getStablecoinInformation(chainID, resolvableStablecoin))
+            assertNull(registry.getStablecoinInformation(chainID, resolvableStablecoin.uppercase()))
+            assertNull(registry.getStablecoinInformation(chainID, nonERC20Contract))
+            delay(StablecoinMetadataRegistry.BATCH_WINDOW_MILLISECONDS * 4)
+            // No contracts are read before stored information has been restored
+            assertTrue(batches.isEmpty())
+            registry.hydrate()
+            val storedInformation = registry.getStablecoinInformation(chainID, storedStablecoin)
+            assertEquals("STRD", storedInformation?.currencyCode)
+            assertFalse(storedInformation!!.isVerified)
+            withTimeout(10_000L) {
+                while (registry.getStablecoinInformation(chainID, resolvableStablecoin) == null) {
+                    delay(10L)
+                }
+            }
+            // The stored stablecoin is not read, and the other stablecoins are read once, in a single batch
+            assertEquals(listOf(listOf(resolvableStablecoin.lowercase(), nonERC20Contract.lowercase())), batches)
+            val resolvedInformation = registry.getStablecoinInformation(chainID, resolvableStablecoin)
+            assertEquals("RSLV", resolvedInformation?.currencyCode)
+            assertFalse(resolvedInformation!!.isVerified)
+            assertNull(registry.getStablecoinInformation(chainID, nonERC20Contract))
+            delay(StablecoinMetadataRegistry.BATCH_WINDOW_MILLISECONDS * 4)
+            // A contract that could not be resolved is not queued again
+            assertEquals(1, batches.size)
+            assertEquals(2, databaseService.getAllStablecoinMetadata().size)
+            assertTrue(registry.getStablecoinInformation(chainID, "0x663F3ad617193148711d28f5334eE4Ed07016602")!!
+                .isVerified)
+        } finally {
+            scope.cancel()
+        }
+    }
+
+}
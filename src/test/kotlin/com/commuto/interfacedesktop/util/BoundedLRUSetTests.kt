@@ -0,0 +1,34 @@
+package com.commuto.interfacedesktop.util
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+/**
+ * Tests for [BoundedLRUSet].
+ */
+class BoundedLRUSetTests {
+
+    /**
+     * Ensures that [BoundedLRUSet] reports duplicates, never exceeds its capacity, and evicts the least recently used
+     * element.
+     */
+    @Test
+    fun testBoundedLRUSet() {
+        val set = BoundedLRUSet<String>(capacity = 2)
+        assertTrue(set.add("a"))
+        assertFalse(set.add("a"))
+        assertTrue(set.add("b"))
+        // Querying "a" makes "b" the least recently used element
+        assertTrue(set.contains("a"))
+        assertTrue(set.add("c"))
+        assertEquals(2, set.size)
+        assertTrue(set.contains("a"))
+        assertFalse(set.contains("b"))
+        assertTrue(set.contains("c"))
+        assertTrue(set.remove("a"))
+        assertFalse(set.contains("a"))
+    }
+
+}